@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 1991, 2016 IBM Corp. and others
+ * Copyright (c) 1991, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -159,20 +159,23 @@ public class J9DDRClassLoader extends SecureClassLoader {
 	// Cause per core file classes to be loaded once per core file, and shared classes to be loaded once per runtime.
 	public Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
 		if (name.startsWith(packageBaseDotName)) {
-			Class<?> clazz = findLoadedClass(name);
-			
-			if (null == clazz) {
-				//We don't delegate here
-				clazz = findClass(name);
-				
-				definePackage(name);
+			// The heap may be walked by several threads, only one of them may define a class
+			synchronized (getClassLoadingLock(name)) {
+				Class<?> clazz = findLoadedClass(name);
 				
-				if (resolve) {
-					resolveClass(clazz);
+				if (null == clazz) {
+					//We don't delegate here
+					clazz = findClass(name);
+					
+					definePackage(name);
+					
+					if (resolve) {
+						resolveClass(clazz);
+					}
 				}
+				
+				return clazz;
 			}
-			
-			return clazz;
 		} else if (name.startsWith(reader.getBasePackage())) { 
 			//If we're loading any other DDR versioned package, there's been a mistake (we're trying to load 2.6 classes for a 2.3 core dump for example)
 			throw new ClassNotFoundException("Cannot load " + name + ". J9DDRClassLoader is configured to load " + packageBaseDotName + " DDR classes only.");
@@ -0,0 +1,264 @@
+/*******************************************************************************
+ * Copyright (c) 2018, 2018 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *******************************************************************************/
+package com.ibm.j9ddr.corereaders;
+
+import static java.util.logging.Level.FINE;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Read only access to a core file through memory mapped pages.
+ * 
+ * The file is mapped in fixed size pages when they are first read. The pages of all
+ * the open files share one cache, which is bounded by ddr.max.core.mapped.bytes and
+ * releases the least recently used pages first. A read which hits the cache copies
+ * the data straight out of the mapping, without a seek or a read system call.
+ * Reads may be made from several threads at once.
+ * 
+ * The file is mapped through the channel of a RandomAccessFile which belongs to the
+ * caller, typically the handle behind the reader's stream, so mapping a file does not
+ * open it a second time. Mapping does not move the file pointer, so the caller can go
+ * on reading the file through the stream.
+ * 
+ * Mapping can be turned off with -Dddr.map.core.files=false, in which case
+ * {@link #open(RandomAccessFile)} returns null and the caller falls back to stream reads.
+ */
+public final class MappedCoreFile
+{
+	private static final Logger logger = Logger.getLogger(ICoreFileReader.J9DDR_CORE_READERS_LOGGER_NAME);
+
+	private static final String MAP_CORE_FILES_SYSTEM_PROPERTY = "ddr.map.core.files";
+
+	private static final String MAX_MAPPED_BYTES_SYSTEM_PROPERTY = "ddr.max.core.mapped.bytes";
+
+	/**
+	 * Size of each mapped page, 16MB.
+	 */
+	private static final int DEFAULT_PAGE_SHIFT = 24;
+
+	/**
+	 * Limit of the address space used by the page cache.
+	 */
+	private static final long MAXIMUM_MAPPED_BYTES;
+
+	/* The mapped pages of all open files, least recently used first.
+	 * Access must be synchronized on the map. */
+	private static final LinkedHashMap<PageKey, ByteBuffer> pageCache = new LinkedHashMap<PageKey, ByteBuffer>(64, 0.75f, true);
+
+	/* Bytes mapped by the pages in pageCache, guarded by pageCache */
+	private static long mappedBytes = 0;
+
+	private final FileChannel channel;
+	private final long length;
+	private final int pageShift;
+	private final long pageMask;
+
+	static {
+		String maxMappedBytes = getSystemProperty(MAX_MAPPED_BYTES_SYSTEM_PROPERTY);
+		long size;
+		if (maxMappedBytes != null) {
+			size = Long.parseLong(maxMappedBytes);
+		} else if ("32".equals(getSystemProperty("sun.arch.data.model"))) {
+			/* leave most of a 32 bit address space for the heap */
+			size = 256L * 1024 * 1024;
+		} else {
+			size = 4L * 1024 * 1024 * 1024;
+		}
+		logger.logp(FINE, "MappedCoreFile", "<clinit>", "Mapped core page cache limit {0}", size);
+		MAXIMUM_MAPPED_BYTES = size;
+	}
+
+	MappedCoreFile(RandomAccessFile file, int pageShift) throws IOException
+	{
+		this.channel = file.getChannel();
+		this.length = channel.size();
+		this.pageShift = pageShift;
+		this.pageMask = (1L << pageShift) - 1;
+	}
+
+	/**
+	 * Maps a core file. The file remains open until the caller closes it, which
+	 * must be after {@link #close()}.
+	 * 
+	 * @param file the open core file
+	 * @return the mapped file, or null if mapping is disabled or the file can't be mapped
+	 */
+	public static MappedCoreFile open(RandomAccessFile file)
+	{
+		if ("false".equalsIgnoreCase(getSystemProperty(MAP_CORE_FILES_SYSTEM_PROPERTY)) || (MAXIMUM_MAPPED_BYTES <= 0)) {
+			return null;
+		}
+		try {
+			return new MappedCoreFile(file, DEFAULT_PAGE_SHIFT);
+		} catch (IOException e) {
+			logger.logp(FINE, "MappedCoreFile", "open", "Unable to map core file", e);
+			return null;
+		}
+	}
+
+	/**
+	 * @return the length of the file in bytes
+	 */
+	public long length()
+	{
+		return length;
+	}
+
+	/**
+	 * Reads bytes from the file.
+	 * 
+	 * @param position offset in the file of the first byte
+	 * @param buffer buffer to read into
+	 * @param offset offset in buffer to write to
+	 * @param count number of bytes to read
+	 * @throws EOFException if the file ends before count bytes have been read
+	 * @throws IOException if the file could not be mapped
+	 */
+	public void readFully(long position, byte[] buffer, int offset, int count) throws IOException
+	{
+		if ((position < 0) || (count > length - position)) {
+			throw new EOFException("Read of " + count + " bytes at " + position + " is beyond the end of the file (" + length + " bytes)");
+		}
+		while (count > 0) {
+			long pageIndex = position >>> pageShift;
+			int pageOffset = (int) (position & pageMask);
+			ByteBuffer page = getPage(pageIndex).duplicate();
+			int toCopy = Math.min(count, page.limit() - pageOffset);
+
+			page.position(pageOffset);
+			page.get(buffer, offset, toCopy);
+
+			position += toCopy;
+			offset += toCopy;
+			count -= toCopy;
+		}
+	}
+
+	/**
+	 * Drops the pages of the file from the cache. The file itself is left open.
+	 */
+	public void close()
+	{
+		synchronized (pageCache) {
+			Iterator<Map.Entry<PageKey, ByteBuffer>> it = pageCache.entrySet().iterator();
+			while (it.hasNext()) {
+				Map.Entry<PageKey, ByteBuffer> entry = it.next();
+				if (entry.getKey().file == this) {
+					mappedBytes -= entry.getValue().capacity();
+					it.remove();
+				}
+			}
+		}
+	}
+
+	private ByteBuffer getPage(long pageIndex) throws IOException
+	{
+		PageKey key = new PageKey(this, pageIndex);
+		synchronized (pageCache) {
+			ByteBuffer page = pageCache.get(key);
+			if (page != null) {
+				return page;
+			}
+		}
+
+		/* Map outside the lock, if another thread maps the same page at the same time one copy is dropped */
+		long pageStart = pageIndex << pageShift;
+		long pageSize = Math.min(1L << pageShift, length - pageStart);
+		MappedByteBuffer page = channel.map(FileChannel.MapMode.READ_ONLY, pageStart, pageSize);
+
+		synchronized (pageCache) {
+			ByteBuffer existing = pageCache.get(key);
+			if (existing != null) {
+				return existing;
+			}
+			pageCache.put(key, page);
+			mappedBytes += pageSize;
+
+			/* The mappings of dropped pages are released when they are garbage collected */
+			Iterator<ByteBuffer> it = pageCache.values().iterator();
+			while ((mappedBytes > MAXIMUM_MAPPED_BYTES) && it.hasNext()) {
+				ByteBuffer eldest = it.next();
+				if (eldest == page) {
+					break;
+				}
+				mappedBytes -= eldest.capacity();
+				it.remove();
+			}
+		}
+		return page;
+	}
+
+	private static String getSystemProperty(final String name)
+	{
+		return AccessController.doPrivileged(new PrivilegedAction<String>() {
+			public String run()
+			{
+				return System.getProperty(name);
+			}
+		});
+	}
+
+	@Override
+	public String toString()
+	{
+		return "MappedCoreFile(" + length + " bytes, page size " + (1L << pageShift) + ")";
+	}
+
+	private static final class PageKey
+	{
+		final MappedCoreFile file;
+		final long pageIndex;
+
+		PageKey(MappedCoreFile file, long pageIndex)
+		{
+			this.file = file;
+			this.pageIndex = pageIndex;
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (!(obj instanceof PageKey)) {
+				return false;
+			}
+			PageKey other = (PageKey) obj;
+			return (file == other.file) && (pageIndex == other.pageIndex);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return System.identityHashCode(file) * 31 + (int) (pageIndex ^ (pageIndex >>> 32));
+		}
+	}
+}
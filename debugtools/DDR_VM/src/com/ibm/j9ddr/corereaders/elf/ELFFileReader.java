@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2014 IBM Corp. and others
+ * Copyright (c) 2004, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -24,6 +24,7 @@ package com.ibm.j9ddr.corereaders.elf;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.RandomAccessFile;
 import java.nio.ByteOrder;
 import java.util.Collection;
 import java.util.Collections;
@@ -40,6 +41,7 @@ import javax.imageio.stream.FileImageInputStream;
 import javax.imageio.stream.ImageInputStream;
 
 import com.ibm.j9ddr.corereaders.InvalidDumpFormatException;
+import com.ibm.j9ddr.corereaders.MappedCoreFile;
 import com.ibm.j9ddr.corereaders.memory.IMemorySource;
 import com.ibm.j9ddr.corereaders.memory.ISymbol;
 import com.ibm.j9ddr.corereaders.memory.Symbol;
@@ -125,6 +127,9 @@ public abstract class ELFFileReader
 
 	private final File _file;
 	
+	/* The core file mapped into memory, or null if it is read through the stream */
+	private final MappedCoreFile _mappedFile;
+	
 	private List<ProgramHeaderEntry> _programHeaderEntries = new LinkedList<ProgramHeaderEntry>();
 	private List<SectionHeaderEntry> _sectionHeaderEntries = new LinkedList<SectionHeaderEntry>();
 	
@@ -151,12 +156,15 @@ public abstract class ELFFileReader
 	protected ELFFileReader(File file, ByteOrder byteOrder, long offset) throws IOException, FileNotFoundException, InvalidDumpFormatException
 	{
 		try {
-			is = new FileImageInputStream(file);
+			/* The stream and the mapping share one file handle, which closing the stream closes */
+			RandomAccessFile raf = new RandomAccessFile(file, "r");
+			is = new FileImageInputStream(raf);
 			is.setByteOrder(byteOrder);
 			this._file = file;
 			sourceName = file.getAbsolutePath();
 			this.baseOffset = offset;
 			initialiseReader(offset);
+			_mappedFile = MappedCoreFile.open(raf);
 		} catch ( IOException e ) {
 			// Don't leak file handles if we fail to create this reader.
 			if( is != null ) {
@@ -173,6 +181,9 @@ public abstract class ELFFileReader
 	}
 	
 	public void close() throws IOException {
+		if(_mappedFile != null) {
+			_mappedFile.close();
+		}
 		if(is != null) {
 			is.close();
 		}
@@ -180,6 +191,7 @@ public abstract class ELFFileReader
 	
 	protected ELFFileReader(ImageInputStream in, long offset)  throws IOException, InvalidDumpFormatException {
 		_file = null;
+		_mappedFile = null;
 		is = in;
 		this.baseOffset = offset;
 		sourceName = "internal data stream";
@@ -730,6 +742,31 @@ public abstract class ELFFileReader
 		is.readFully(b, off, len);
 	}
 	
+	/**
+	 * Reads bytes from the given position. When the file is memory mapped this
+	 * doesn't move the stream, and may be called from several threads at once.
+	 * 
+	 * @param pos position relative to the start of the ELF data
+	 * @param b buffer to read into
+	 * @param off offset in b to write to
+	 * @param len number of bytes to read
+	 */
+	public void readFully(long pos, byte[] b, int off, int len) throws IOException {
+		if(_mappedFile != null) {
+			_mappedFile.readFully(baseOffset + pos, b, off, len);
+		} else {
+			seek(pos);
+			readFully(b, off, len);
+		}
+	}
+	
+	/**
+	 * @return True if the reader reads memory from a memory mapped file
+	 */
+	public boolean isMapped() {
+		return _mappedFile != null;
+	}
+	
 	/**
 	 * Reads a string from the readers current position until
 	 * it is terminated by a null (0) byte.
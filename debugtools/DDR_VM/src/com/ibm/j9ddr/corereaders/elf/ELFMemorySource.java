@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2014 IBM Corp. and others
+ * Copyright (c) 2009, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -26,7 +26,7 @@ import java.util.Properties;
 
 import com.ibm.j9ddr.corereaders.memory.Addresses;
 import com.ibm.j9ddr.corereaders.memory.IDetailedMemoryRange;
-import com.ibm.j9ddr.corereaders.memory.IMemorySource;
+import com.ibm.j9ddr.corereaders.memory.IMappedMemorySource;
 import com.ibm.j9ddr.corereaders.memory.MemoryFault;
 import com.ibm.j9ddr.corereaders.memory.ProtectedMemoryRange;
 
@@ -35,7 +35,7 @@ import com.ibm.j9ddr.corereaders.memory.ProtectedMemoryRange;
  * @author andhall
  *
  */
-public class ELFMemorySource extends ProtectedMemoryRange implements IMemorySource, IDetailedMemoryRange
+public class ELFMemorySource extends ProtectedMemoryRange implements IMappedMemorySource, IDetailedMemoryRange
 {
 	private final long fileOffset;
 	private final ELFFileReader reader;
@@ -89,8 +89,7 @@ public class ELFMemorySource extends ProtectedMemoryRange implements IMemorySour
 		long seekAddress = fileOffset + rangeOffset;
 		
 		try {
-			reader.seek(seekAddress);
-			reader.readFully(buffer,offset,length);
+			reader.readFully(seekAddress,buffer,offset,length);
 		} catch (IOException e) {
 			throw new MemoryFault(address, "IOException accessing ELF storage in " + reader,e);
 		}
@@ -98,6 +97,11 @@ public class ELFMemorySource extends ProtectedMemoryRange implements IMemorySour
 		return length;
 	}
 
+	public boolean isMapped()
+	{
+		return reader.isMapped();
+	}
+
 	public String getName()
 	{
 		return name;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2014 IBM Corp. and others
+ * Copyright (c) 2004, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -100,6 +100,12 @@ public abstract class AbstractMemory extends SearchableMemory implements IMemory
 	 * Access should be synchronized on keepAliveList */
 	private static long cacheSize = 0;
 	
+	/* The memory sources of a core share the core reader and its file position,
+	 * so reads from the dump itself are serialized on this lock. Reads which hit
+	 * the cache don't take it, which allows several threads to walk an image.
+	 */
+	private static final Object READ_LOCK = new Object();
+	
 	private final ByteOrder byteOrder;
 	
 	protected final MemorySourceTable memorySources = new MemorySourceTable();
@@ -189,7 +195,7 @@ public abstract class AbstractMemory extends SearchableMemory implements IMemory
 		
 		/* If the range spans address ranges, we have to be more careful */
 		if (range.contains(maxAddress)) {
-			read = range.getBytes(address,buffer,offset,length);
+			read = readRange(range,address,buffer,offset,length);
 		} else {
 			int index = offset;
 			long addressPointer = address;
@@ -207,7 +213,7 @@ public abstract class AbstractMemory extends SearchableMemory implements IMemory
 				
 				long toRead = Addresses.greaterThan(topAddress,maxAddress) ? maxAddress - addressPointer + 1: topAddress - addressPointer + 1;
 				
-				int readThisTime = range.getBytes(addressPointer, buffer, index, (int)toRead);
+				int readThisTime = readRange(range, addressPointer, buffer, index, (int)toRead);
 				
 				read += readThisTime;
 				addressPointer += readThisTime;
@@ -218,6 +224,16 @@ public abstract class AbstractMemory extends SearchableMemory implements IMemory
 		return read;
 	}
 
+	private static int readRange(IMemorySource range, long address, byte[] buffer, int offset, int length) throws MemoryFault {
+		if (GLOBAL_CACHE_ENABLED || isMapped(range)) {
+			/* CachingMemorySource takes READ_LOCK itself when it misses */
+			return range.getBytes(address, buffer, offset, length);
+		}
+		synchronized (READ_LOCK) {
+			return range.getBytes(address, buffer, offset, length);
+		}
+	}
+
 	/* (non-Javadoc)
 	 * @see com.ibm.dtfj.j9ddr.corereaders.memory.IMemory#getIntAt(long)
 	 */
@@ -282,7 +298,8 @@ public abstract class AbstractMemory extends SearchableMemory implements IMemory
 																										Long.toHexString(source.getTopAddress())
 		});
 		
-		if (GLOBAL_CACHE_ENABLED) {
+		if (GLOBAL_CACHE_ENABLED && !isMapped(source)) {
+			/* Reads from a mapped source are as cheap as a cache hit, so it isn't wrapped */
 			IMemorySource wrappedSource = new CachingMemorySource(source);
 			decoratorMappingTable.put(source, wrappedSource);
 			
@@ -301,6 +318,11 @@ public abstract class AbstractMemory extends SearchableMemory implements IMemory
 		rangeTable = null;
 	}
 	
+	private static boolean isMapped(IMemorySource source)
+	{
+		return (source instanceof IMappedMemorySource) && ((IMappedMemorySource) source).isMapped();
+	}
+	
 	public void removeMemorySource(IMemorySource source)
 	{
 		IMemorySource wrappedSource = decoratorMappingTable.remove(source);
@@ -389,7 +411,7 @@ public abstract class AbstractMemory extends SearchableMemory implements IMemory
 		
 		private final WeakValueMap<Integer, CacheBlock> blockMap;
 		
-		private Reference<CacheBlock> singleBlockRef;
+		private volatile Reference<CacheBlock> singleBlockRef;
 
 		public CachingMemorySource(IMemorySource source)
 		{
@@ -410,7 +432,8 @@ public abstract class AbstractMemory extends SearchableMemory implements IMemory
 			if (singleBlockRange) {
 				CacheBlock block;
 				boolean cacheHit = false;
-				if (singleBlockRef == null || (block = singleBlockRef.get()) == null) {
+				Reference<CacheBlock> blockRef = singleBlockRef;
+				if (blockRef == null || (block = blockRef.get()) == null) {
 					if (RECORDING_CACHE_STATS) {
 						cacheHit = true;
 					}
@@ -447,15 +470,21 @@ public abstract class AbstractMemory extends SearchableMemory implements IMemory
 					int blockSize = (int)(sizeToEndOfRange > CACHE_BLOCK_SIZE ? CACHE_BLOCK_SIZE : sizeToEndOfRange);
 					boolean cacheHit = false;
 					
-					CacheBlock block = blockMap.get(blockIndex);
+					CacheBlock block;
+					synchronized (blockMap) {
+						block = blockMap.get(blockIndex);
+					}
 					
 					if (RECORDING_CACHE_STATS) {
 						cacheHit = block != null;
 					}
 					
 					if (block == null) {
+						/* Another thread may load the same block, the last one put wins */
 						block = loadBlock(blockBase,address,blockSize);
-						blockMap.put(blockIndex, block);
+						synchronized (blockMap) {
+							blockMap.put(blockIndex, block);
+						}
 					}
 					
 					long offsetInBlock = address - blockBase;
@@ -492,7 +521,9 @@ public abstract class AbstractMemory extends SearchableMemory implements IMemory
 			 */
 			if( delegate.isBacked() ) {
 				try {
-					delegate.getBytes(blockBaseAddress, buffer, 0, blockSize);
+					synchronized (READ_LOCK) {
+						delegate.getBytes(blockBaseAddress, buffer, 0, blockSize);
+					}
 				} catch (MemoryFault e) {
 					throw new MemoryFault(actualAddress, "MemoryFault loading cache block",e);
 				}
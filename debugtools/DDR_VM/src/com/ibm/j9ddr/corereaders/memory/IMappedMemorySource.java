@@ -0,0 +1,37 @@
+/*******************************************************************************
+ * Copyright (c) 2018, 2018 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *******************************************************************************/
+package com.ibm.j9ddr.corereaders.memory;
+
+/**
+ * A memory source which may be backed by a memory mapped file.
+ * 
+ * Reads from a mapped source copy the data straight out of the mapping, so they
+ * are cheap and may be made from several threads at once. Such sources are
+ * not wrapped in the core file block cache.
+ */
+public interface IMappedMemorySource extends IMemorySource
+{
+	/**
+	 * @return True if reads from this memory source are served from a memory mapped file
+	 */
+	public boolean isMapped();
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2016 IBM Corp. and others
+ * Copyright (c) 2009, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -94,7 +94,7 @@ public class MemorySourceTable
 		}
 	}
 	
-	private IAddressResolverStrategy addressResolver = null;
+	private volatile IAddressResolverStrategy addressResolver = null;
 	
 	private final List<IMemorySource> rawMemorySources = new ArrayList<IMemorySource>();
 	private List<IMemorySource> memorySources;
@@ -119,15 +119,22 @@ public class MemorySourceTable
 	
 	public final IMemorySource getRangeForAddress(long address)
 	{
-		if (addressResolver == null) {
-			pickAddressResolver();
+		IAddressResolverStrategy resolver = addressResolver;
+		
+		if (resolver == null) {
+			resolver = pickAddressResolver();
 		}
 		
-		return addressResolver.getRangeForAddress(address);
+		return resolver.getRangeForAddress(address);
 	}
 	
-	private void pickAddressResolver()
+	private synchronized IAddressResolverStrategy pickAddressResolver()
 	{
+		if (addressResolver != null) {
+			/* Picked by another thread */
+			return addressResolver;
+		}
+		
 		mergeOverlappingRanges();
 		
 		//Need to figure out highest address and worst alignment
@@ -173,6 +180,8 @@ public class MemorySourceTable
 		}
 		
 		logger.logp(FINE,"MemoryRangeTable", "pickAddressResolver", "Picked {0} as address resolver.",addressResolver.getClass().getSimpleName());
+		
+		return addressResolver;
 	}
 	
 	private void mergeOverlappingRanges()
@@ -421,14 +430,19 @@ public class MemorySourceTable
 		
 		private IMemorySource tlbCheck(long address)
 		{
-			if (tlbEntry1 != null && tlbEntry1.contains(address)) {
+			/* Read each entry once, another thread may replace it */
+			IMemorySource entry = tlbEntry1;
+			
+			if (entry != null && entry.contains(address)) {
 				entry1HitCount++;
-				return tlbEntry1;
+				return entry;
 			}
 			
-			if (tlbEntry2 != null && tlbEntry2.contains(address)) {
+			entry = tlbEntry2;
+			
+			if (entry != null && entry.contains(address)) {
 				entry2HitCount++;
-				return tlbEntry2;
+				return entry;
 			}
 			
 			return null;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 1991, 2014 IBM Corp. and others
+ * Copyright (c) 1991, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -30,15 +30,21 @@ import com.ibm.j9ddr.events.IEventListener;
 
 public class EventManager {
 	private static Logger log = Logger.getLogger(EventManager.class.getPackage().getName());
-	private static LinkedList<IEventListener> listeners = null;		//listeners that this manager will call
+	//listeners that this manager will call, each thread walking the image has its own stack
+	private static final ThreadLocal<LinkedList<IEventListener>> threadListeners = new ThreadLocal<LinkedList<IEventListener>>() {
+		@Override
+		protected LinkedList<IEventListener> initialValue() {
+			return new LinkedList<IEventListener>();
+		}
+	};
 	private static DefaultEventListener defaultListener = null;
 	
 	static {
-		listeners = new LinkedList<IEventListener>();
 		defaultListener = new DefaultEventListener();		//create a default listener
 	}
 	
 	public static void register(IEventListener listener) {
+		LinkedList<IEventListener> listeners = threadListeners.get();
 		if(!listeners.isEmpty()) {
 			IEventListener top = listeners.peek();
 			if(top == listener) {
@@ -50,6 +56,7 @@ public class EventManager {
 	}
 	
 	public static void unregister(IEventListener listener) {
+		LinkedList<IEventListener> listeners = threadListeners.get();
 		if(listeners.isEmpty()) {			//check that there are some entries on the stack
 			log.warning("There are no listeners left on the stack, skipping unregistration");
 			return;
@@ -71,6 +78,7 @@ public class EventManager {
 	 * @param isfatal
 	 */
 	public static void raiseCorruptDataEvent(String message, CorruptDataException e, boolean fatal) {
+		LinkedList<IEventListener> listeners = threadListeners.get();
 		if(listeners.isEmpty()) {							//no listeners, so use the default
 			defaultListener.corruptData(message, e, fatal);
 		} else {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2014 IBM Corp. and others
+ * Copyright (c) 2010, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -73,7 +73,7 @@ public class AlgorithmVersion {
 	private static AlgorithmVersion DEFAULT_VERSION;
 	private static int vmMajorVersion;
 	private static int vmMinorVersion;
-	private static HashMap<String, AlgorithmVersion> versionCache;
+	private static volatile HashMap<String, AlgorithmVersion> versionCache;
 	private int algVersion;
 	
 	// Nobody instantiates this Class.  Used by getVersionOf(String)
@@ -94,9 +94,13 @@ public class AlgorithmVersion {
 		return result;
 	}
 	
-	// Read the blob constants and cache
-	private static void init() {
-		versionCache = new HashMap<String, AlgorithmVersion>();
+	// Read the blob constants and cache; the map is only published once it is complete
+	// so that concurrent readers never see a partially populated cache.
+	private static synchronized void init() {
+		if (versionCache != null) {
+			return;
+		}
+		HashMap<String, AlgorithmVersion> cache = new HashMap<String, AlgorithmVersion>();
 		try {
 			Field[] fields = DDRAlgorithmVersions.class.getFields();
 			for (Field field : fields) {
@@ -109,7 +113,7 @@ public class AlgorithmVersion {
 						vmMinorVersion = (int) value;
 					} else {
 						AlgorithmVersion version = new AlgorithmVersion((int) value);
-						versionCache.put(field.getName(), version);
+						cache.put(field.getName(), version);
 					}
 				}
 			}
@@ -124,6 +128,7 @@ public class AlgorithmVersion {
 		
 		// Create a default version to return
 		DEFAULT_VERSION = new AlgorithmVersion(0);
+		versionCache = cache;
 	}
 
 	// VM Versions are constant for all algorithms in a particular VM
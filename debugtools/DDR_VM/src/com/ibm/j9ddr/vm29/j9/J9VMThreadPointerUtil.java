@@ -47,7 +47,9 @@ import static com.ibm.j9ddr.vm29.structure.J9VMThread.J9VMTHREAD_STATE_UNKNOWN;
 import static com.ibm.j9ddr.vm29.structure.J9VMThread.J9VMTHREAD_STATE_WAITING;
 import static com.ibm.j9ddr.vm29.structure.J9VMThread.J9VMTHREAD_STATE_WAITING_TIMED;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Map;
 
 import com.ibm.j9ddr.CorruptDataException;
 import com.ibm.j9ddr.vm29.pointer.generated.J9ObjectPointer;
@@ -103,18 +105,21 @@ public class J9VMThreadPointerUtil {
 	
 	private static final int J9THREAD_MONITOR_OBJECT = 0x60000;  
 	
-	private static final HashMap<Long, Integer>threadStateMap = new HashMap<Long, Integer>(9); 
+	/* Read only once the class is initialized, so it can be used by several threads at once */
+	private static final Map<Long, Integer> threadStateMap;
 	
 	static {
-		threadStateMap.put(J9VMTHREAD_STATE_DEAD, STATE_TERMINATED);
-		threadStateMap.put(J9VMTHREAD_STATE_SUSPENDED ,STATE_ALIVE | STATE_SUSPENDED);
-		threadStateMap.put(J9VMTHREAD_STATE_RUNNING, STATE_ALIVE | STATE_RUNNABLE);
-		threadStateMap.put(J9VMTHREAD_STATE_BLOCKED, STATE_ALIVE | STATE_BLOCKED_ON_MONITOR_ENTER);
-		threadStateMap.put(J9VMTHREAD_STATE_WAITING, STATE_ALIVE | STATE_WAITING | STATE_WAITING_INDEFINITELY | STATE_IN_OBJECT_WAIT);
-		threadStateMap.put(J9VMTHREAD_STATE_WAITING_TIMED, STATE_ALIVE | STATE_WAITING | STATE_WAITING_WITH_TIMEOUT | STATE_IN_OBJECT_WAIT);
-		threadStateMap.put(J9VMTHREAD_STATE_SLEEPING, STATE_ALIVE | STATE_WAITING | STATE_SLEEPING);
-		threadStateMap.put(J9VMTHREAD_STATE_PARKED, STATE_ALIVE | STATE_WAITING | STATE_WAITING_INDEFINITELY | STATE_PARKED);
-		threadStateMap.put(J9VMTHREAD_STATE_PARKED_TIMED, STATE_ALIVE | STATE_WAITING | STATE_WAITING_WITH_TIMEOUT | STATE_PARKED);
+		HashMap<Long, Integer> states = new HashMap<Long, Integer>(9);
+		states.put(J9VMTHREAD_STATE_DEAD, STATE_TERMINATED);
+		states.put(J9VMTHREAD_STATE_SUSPENDED ,STATE_ALIVE | STATE_SUSPENDED);
+		states.put(J9VMTHREAD_STATE_RUNNING, STATE_ALIVE | STATE_RUNNABLE);
+		states.put(J9VMTHREAD_STATE_BLOCKED, STATE_ALIVE | STATE_BLOCKED_ON_MONITOR_ENTER);
+		states.put(J9VMTHREAD_STATE_WAITING, STATE_ALIVE | STATE_WAITING | STATE_WAITING_INDEFINITELY | STATE_IN_OBJECT_WAIT);
+		states.put(J9VMTHREAD_STATE_WAITING_TIMED, STATE_ALIVE | STATE_WAITING | STATE_WAITING_WITH_TIMEOUT | STATE_IN_OBJECT_WAIT);
+		states.put(J9VMTHREAD_STATE_SLEEPING, STATE_ALIVE | STATE_WAITING | STATE_SLEEPING);
+		states.put(J9VMTHREAD_STATE_PARKED, STATE_ALIVE | STATE_WAITING | STATE_WAITING_INDEFINITELY | STATE_PARKED);
+		states.put(J9VMTHREAD_STATE_PARKED_TIMED, STATE_ALIVE | STATE_WAITING | STATE_WAITING_WITH_TIMEOUT | STATE_PARKED);
+		threadStateMap = Collections.unmodifiableMap(states);
 	};
 	
 	private static class ThreadState {
@@ -282,27 +282,29 @@ class ObjectMonitor_V1 extends ObjectMonitor
 		}
 	}
 
-	private static List<J9VMThreadPointer> getBlockedThreads(J9ObjectPointer blockingObject) throws CorruptDataException
+	private static synchronized List<J9VMThreadPointer> getBlockedThreads(J9ObjectPointer blockingObject) throws CorruptDataException
 	{
 		// Repeatedly walking the thread list could get expensive. 
 		// Do a single walk and cache all the results. 
+		// Synchronized because the heap may be walked by several threads at once.
 		if(blockedThreadsCache == null) {
-			blockedThreadsCache = new HashMap<J9ObjectPointer, List<J9VMThreadPointer>>();
+			HashMap<J9ObjectPointer, List<J9VMThreadPointer>> blockedThreads = new HashMap<J9ObjectPointer, List<J9VMThreadPointer>>();
 			GCVMThreadListIterator iterator = GCVMThreadListIterator.from();
 			while (iterator.hasNext()) {
 				J9VMThreadPointer vmThread = iterator.next();
 				if(vmThread.publicFlags().allBitsIn(J9Consts.J9_PUBLIC_FLAGS_THREAD_BLOCKED)) {
 					J9ObjectPointer object = vmThread.blockingEnterObject(); 
 					if(object.notNull()) {
-						List<J9VMThreadPointer> list = blockedThreadsCache.get(object);
+						List<J9VMThreadPointer> list = blockedThreads.get(object);
 						if(list == null) {
 							list = new ArrayList<J9VMThreadPointer>();
-							blockedThreadsCache.put(object, list);
+							blockedThreads.put(object, list);
 						}
 						list.add(vmThread);
 					}
 				}
 			}
+			blockedThreadsCache = blockedThreads;
 		}
 		return blockedThreadsCache.get(blockingObject);
 	}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 1991, 2014 IBM Corp. and others
+ * Copyright (c) 1991, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -49,12 +49,16 @@ class GCMixedObjectIterator_V1 extends GCObjectIterator
 	
 	protected static void setCache(J9ClassPointer clazz, boolean[] description)
 	{
-		descriptionCache.put(clazz, description);
+		synchronized (descriptionCache) {
+			descriptionCache.put(clazz, description);
+		}
 	}
 
 	protected static boolean[] checkCache(J9ClassPointer clazz)
 	{
-		return descriptionCache.get(clazz);
+		synchronized (descriptionCache) {
+			return descriptionCache.get(clazz);
+		}
 	}
 	
 	protected GCMixedObjectIterator_V1(J9ObjectPointer object, boolean includeClassSlot) throws CorruptDataException
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 1991, 2014 IBM Corp. and others
+ * Copyright (c) 1991, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -75,7 +75,7 @@ public class HeapWalker implements IEventListener {
 	
 	private Set<ObjectMonitor> localFlatLockedMonitors;
 	
-	private static Map<GCHeapRegionDescriptor, Set<ObjectMonitor>> flatLockedMonitorsByRegion = new HashMap<GCHeapRegionDescriptor, Set<ObjectMonitor>>();
+	private static Map<GCHeapRegionDescriptor, Set<ObjectMonitor>> flatLockedMonitorsByRegion = Collections.synchronizedMap(new HashMap<GCHeapRegionDescriptor, Set<ObjectMonitor>>());
 	private static SortedSet<ObjectMonitor> flatLockedMonitors;
 		
 	public HeapWalker(J9JavaVMPointer vm, GCHeapRegionDescriptor hrd, HeapWalkerEvents sink) throws CorruptDataException {
@@ -103,8 +103,13 @@ public class HeapWalker implements IEventListener {
 		boolean result = heapIterator.hasNext();
 		
 		if (!result) { // iteration ended, store the monitors		
-			if (localFlatLockedMonitors != null && ! flatLockedMonitorsByRegion.containsKey(region)) {
-				flatLockedMonitorsByRegion.put(region, localFlatLockedMonitors);
+			if (localFlatLockedMonitors != null) {
+				/* several threads may walk the same region, the first to finish stores its monitors */
+				synchronized (flatLockedMonitorsByRegion) {
+					if (! flatLockedMonitorsByRegion.containsKey(region)) {
+						flatLockedMonitorsByRegion.put(region, localFlatLockedMonitors);
+					}
+				}
 				localFlatLockedMonitors = null;
 			}
 		}
@@ -232,7 +237,7 @@ public class HeapWalker implements IEventListener {
 	 * 
 	 * @return List of flat-locked object monitors
 	 */
-	public static SortedSet<ObjectMonitor> getFlatLockedMonitors() throws CorruptDataException
+	public static synchronized SortedSet<ObjectMonitor> getFlatLockedMonitors() throws CorruptDataException
 	{
 		if (flatLockedMonitors == null) {
 			initializeFlatLockedMonitors();
@@ -247,7 +252,7 @@ public class HeapWalker implements IEventListener {
 		MM_GCExtensionsPointer gcext = GCExtensions.getGCExtensionsPointer();
 		MM_HeapRegionManagerPointer hrm = gcext.heapRegionManager();
 		
-		flatLockedMonitors = new TreeSet<ObjectMonitor>();
+		SortedSet<ObjectMonitor> monitors = new TreeSet<ObjectMonitor>();
 		GCHeapRegionIterator regions = GCHeapRegionIterator.fromMMHeapRegionManager(hrm, true, true);
 		while (regions.hasNext()) {
 			GCHeapRegionDescriptor region = regions.next();
@@ -259,8 +264,9 @@ public class HeapWalker implements IEventListener {
 			/* Running the walk should have populated the flatLockedMonitors map */
 			assert ( flatLockedMonitorsByRegion.containsKey(region) );
 		
-			flatLockedMonitors.addAll(flatLockedMonitorsByRegion.get(region));
+			monitors.addAll(flatLockedMonitorsByRegion.get(region));
 		}
+		flatLockedMonitors = monitors;
 	}
 
 	private static void runFlatLockMonitorRegionWalk(J9JavaVMPointer vm, GCHeapRegionDescriptor region) throws CorruptDataException 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2001, 2014 IBM Corp. and others
+ * Copyright (c) 2001, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -61,7 +61,7 @@ import com.ibm.j9ddr.vm29.types.UDATA;
 public class J9ClassHelper 
 {
 
-	private static HashMap<Long, HashMap<String, J9ObjectFieldOffset>> classToFieldOffsetCacheMap = new HashMap<Long, HashMap<String, J9ObjectFieldOffset>>();
+	private static final HashMap<Long, HashMap<String, J9ObjectFieldOffset>> classToFieldOffsetCacheMap = new HashMap<Long, HashMap<String, J9ObjectFieldOffset>>();
 	
 	private static final Map<String, Character>TYPE_MAP;
 	private static final int MAXIMUM_ARRAY_ARITY = 100;
@@ -205,6 +205,7 @@ public class J9ClassHelper
 		return J9ClassPointer.cast(j9ClassInstancePointer);
 	}
 	
+	/* Callers must hold the lock on classToFieldOffsetCacheMap */
 	private static HashMap<String, J9ObjectFieldOffset> getFieldOffsetCache(J9ClassPointer clazz)
 	{
 		Long classAddr = new Long(clazz.getAddress());
@@ -221,16 +222,20 @@ public class J9ClassHelper
 	
 	public static J9ObjectFieldOffset checkFieldOffsetCache(J9ClassPointer clazz, String fieldName, String signature) 
 	{
-		HashMap<String, J9ObjectFieldOffset> fieldOffsetCache = getFieldOffsetCache(clazz);
-		
-		return fieldOffsetCache.get(fieldName + "." + signature);
+		synchronized (classToFieldOffsetCacheMap) {
+			HashMap<String, J9ObjectFieldOffset> fieldOffsetCache = getFieldOffsetCache(clazz);
+			
+			return fieldOffsetCache.get(fieldName + "." + signature);
+		}
 	}
 	
 	public static void setFieldOffsetCache(J9ClassPointer clazz, J9ObjectFieldOffset offset, String fieldName, String signature) 
 	{
-		HashMap<String, J9ObjectFieldOffset> fieldOffsetCache = getFieldOffsetCache(clazz);
-		
-		fieldOffsetCache.put(fieldName + "." + signature, offset);
+		synchronized (classToFieldOffsetCacheMap) {
+			HashMap<String, J9ObjectFieldOffset> fieldOffsetCache = getFieldOffsetCache(clazz);
+			
+			fieldOffsetCache.put(fieldName + "." + signature, offset);
+		}
 	}
 	
 	public static boolean isSameOrSuperClassOf(J9ClassPointer superClazz, J9ClassPointer clazz) throws CorruptDataException
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2001, 2016 IBM Corp. and others
+ * Copyright (c) 2001, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -390,7 +390,7 @@ public class J9ObjectHelper
 	}
 
 	
-	private static J9ClassPointer checkClassCache(J9ObjectPointer objPointer)
+	private static synchronized J9ClassPointer checkClassCache(J9ObjectPointer objPointer)
 	{
 		probes++;
 		for(int i = 0; i < cacheSize; i++) {
@@ -403,7 +403,7 @@ public class J9ObjectHelper
 		return null;
 	}
 	
-	private static void setClassCache(J9ObjectPointer objPointer, J9ClassPointer classPointer)
+	private static synchronized void setClassCache(J9ObjectPointer objPointer, J9ClassPointer classPointer)
 	{
 		int min = counts[0];
 		int minIndex = 0;
@@ -418,7 +418,7 @@ public class J9ObjectHelper
 		counts[minIndex] = 1;
 	}
 	
-	private static void initializeCache()
+	private static synchronized void initializeCache()
 	{
 		keys = new J9ObjectPointer[cacheSize];
 		values = new J9ClassPointer[cacheSize];
@@ -480,7 +480,7 @@ public class J9ObjectHelper
 		return (char) ((char) b & (char) 0x00FF);
 	}
 	
-	public static void reportClassCacheStats()
+	public static synchronized void reportClassCacheStats()
 	{
 		double hitRate = (double)hits / (double)probes * 100.0;
 		System.out.println("J9ObjectHelper probes: " + probes + " hit rate: " + hitRate + "%");
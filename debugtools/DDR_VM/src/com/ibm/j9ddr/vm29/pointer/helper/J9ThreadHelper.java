@@ -70,7 +70,8 @@ public class J9ThreadHelper {
 		return threadMap.values().iterator();
 	}
 
-	private static Map<Long, IOSThread> getThreadMap() throws CorruptDataException {
+	/* Synchronized because the heap may be walked by several threads at once */
+	private static synchronized Map<Long, IOSThread> getThreadMap() throws CorruptDataException {
 		Map<Long, IOSThread> thrMap = null;
 		if (cachedThreads != null) {
 			thrMap = cachedThreads.get();
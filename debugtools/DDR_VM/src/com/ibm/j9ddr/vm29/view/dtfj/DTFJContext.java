@@ -111,7 +111,8 @@ public class DTFJContext {
 		return Logger.getLogger(LOGGER_VIEW_DTFJ);
 	}
 	
-	public static List<ThreadInfo> getThreadInfoCache() throws CorruptDataException {
+	/* The caches are filled on first use, which can be from several heap walk threads at once */
+	public static synchronized List<ThreadInfo> getThreadInfoCache() throws CorruptDataException {
 		if(threadInfoCache == null) {
 			List<ThreadInfo> localThreadInfoCache = new ArrayList<ThreadInfo>();
 			J9VMThreadPointer vmThread = DTFJContext.getVm().mainThread();
@@ -137,7 +138,7 @@ public class DTFJContext {
 		return runtime;
 	}
 	
-	public static List<J9JITExceptionTablePointer> getJITMetaData(J9MethodPointer j9ramMethod) 
+	public static synchronized List<J9JITExceptionTablePointer> getJITMetaData(J9MethodPointer j9ramMethod) 
 	{
 		if (jitMethodCache == null) {
 			cacheJITMethodAddresses();
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 1991, 2014 IBM Corp. and others
+ * Copyright (c) 1991, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -28,6 +28,7 @@ import static com.ibm.j9ddr.vm29.j9.OptInfo.getSourceFileNameForROMClass;
 
 import java.lang.ref.SoftReference;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
@@ -140,7 +141,7 @@ public class DTFJJavaClass implements JavaClass {
 		}
 	}
 
-	static final Map<J9ClassPointer,List<Object>> declaredFieldsCache = new HashMap<J9ClassPointer,List<Object>>();
+	static final Map<J9ClassPointer,List<Object>> declaredFieldsCache = Collections.synchronizedMap(new HashMap<J9ClassPointer,List<Object>>());
 	
 	@SuppressWarnings("rawtypes")
 	public Iterator getDeclaredFields() {
@@ -286,7 +287,7 @@ public class DTFJJavaClass implements JavaClass {
 		return interfaceNames.iterator();
 	}
 
-	static final Map<J9ClassPointer,Integer> modifiersCache = new HashMap<J9ClassPointer,Integer>();
+	static final Map<J9ClassPointer,Integer> modifiersCache = Collections.synchronizedMap(new HashMap<J9ClassPointer,Integer>());
 	
 	
 	public int getModifiers() throws CorruptDataException {
@@ -506,7 +507,7 @@ public class DTFJJavaClass implements JavaClass {
 		public final JavaClass superClass;
 	}
 	
-	private static final Map<J9ClassPointer, SuperClassCacheEntry> superClassCache = new HashMap<J9ClassPointer,SuperClassCacheEntry>(); 
+	private static final Map<J9ClassPointer, SuperClassCacheEntry> superClassCache = Collections.synchronizedMap(new HashMap<J9ClassPointer,SuperClassCacheEntry>()); 
 	
 	public JavaClass getSuperclass() throws CorruptDataException {
 		SuperClassCacheEntry cachedEntry = superClassCache.get(j9class);
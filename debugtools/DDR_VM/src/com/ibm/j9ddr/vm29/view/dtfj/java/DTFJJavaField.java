@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 1991, 2014 IBM Corp. and others
+ * Copyright (c) 1991, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -32,6 +32,7 @@ import static com.ibm.j9ddr.view.dtfj.DTFJConstants.LONG_SIGNATURE;
 import static com.ibm.j9ddr.view.dtfj.DTFJConstants.OBJECT_PREFIX_SIGNATURE;
 import static com.ibm.j9ddr.view.dtfj.DTFJConstants.SHORT_SIGNATURE;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -206,7 +207,7 @@ public abstract class DTFJJavaField implements JavaField, IDTFJJavaField {
 		return name;
 	}
 
-	private static Map<J9ROMFieldShapePointer,String> signatureCache = new HashMap<J9ROMFieldShapePointer,String>();
+	private static Map<J9ROMFieldShapePointer,String> signatureCache = Collections.synchronizedMap(new HashMap<J9ROMFieldShapePointer,String>());
 	
 	public String getSignature() throws CorruptDataException {
 		String cachedSignature = signatureCache.get(j9field);
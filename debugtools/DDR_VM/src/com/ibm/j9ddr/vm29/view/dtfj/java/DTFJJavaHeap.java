@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 1991, 2014 IBM Corp. and others
+ * Copyright (c) 1991, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -29,11 +29,16 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
 import com.ibm.dtfj.image.CorruptData;
 import com.ibm.dtfj.image.ImagePointer;
 import com.ibm.dtfj.image.ImageSection;
-import com.ibm.dtfj.java.JavaHeap;
+import com.ibm.dtfj.utils.ParallelJavaHeap;
 import com.ibm.j9ddr.CorruptDataException;
 import com.ibm.j9ddr.events.IEventListener;
 import com.ibm.j9ddr.util.IteratorHelpers;
@@ -50,7 +55,16 @@ import com.ibm.j9ddr.vm29.pointer.generated.MM_HeapRegionManagerPointer;
 import com.ibm.j9ddr.vm29.view.dtfj.DTFJContext;
 import com.ibm.j9ddr.vm29.view.dtfj.java.j9.HeapObjectIterator;
 
-public class DTFJJavaHeap implements JavaHeap {
+public class DTFJJavaHeap implements ParallelJavaHeap {
+	/* Number of objects passed to each ObjectWalker.walk() call */
+	private static final int WALK_CHUNK_SIZE = 4096;
+	/* Number of walked chunks a region may have waiting to be collected before its walk blocks */
+	private static final int WALK_QUEUE_DEPTH = 4;
+
+	/* Markers passed from the region walks to the collecting thread */
+	private static final Object END_OF_REGION = new Object();
+	private static final Object NULL_RESULT = new Object();
+
 	private final MM_MemorySpacePointer space;
 	private String name;
 	private String description;
@@ -88,46 +102,18 @@ public class DTFJJavaHeap implements JavaHeap {
 	{			
 		return new Iterator()
 		{
-			class CurrentRegionListener implements IEventListener {
-				
-				public void corruptData(String message, CorruptDataException e,
-						boolean fatal) {
-					if( fatal ) {
-						currentRegionIterator = corruptIterator(J9DDRDTFJUtils.newCorruptData(DTFJContext.getProcess(), e));
-					}
-					
-				}
-			};
-
 			Iterator currentRegionIterator = null;
 			Iterator<GCHeapRegionDescriptor> regionsIterator = regions.iterator();
 
 			public boolean hasNext()
 			{
-				IEventListener currentRegionlistener = new CurrentRegionListener();
-				try {
-					register(currentRegionlistener);
-					if(null == currentRegionIterator || !currentRegionIterator.hasNext()) {
-						while(regionsIterator.hasNext()) {
-							try {
-								currentRegionIterator = new HeapObjectIterator(DTFJJavaHeap.this, regionsIterator.next());
-							} catch (Throwable t) {
-								CorruptData cd = J9DDRDTFJUtils.handleAsCorruptData(DTFJContext.getProcess(), t);
-								currentRegionIterator = corruptIterator(cd);
-							}
-							if(currentRegionIterator.hasNext()) {
-								return true;
-							}
-						}
+				while(null == currentRegionIterator || !currentRegionIterator.hasNext()) {
+					if(!regionsIterator.hasNext()) {
+						return false;
 					}
-
-					if(null != currentRegionIterator) {
-						return currentRegionIterator.hasNext();
-					}
-					return false;
-				} finally {
-					unregister(currentRegionlistener);
+					currentRegionIterator = new RegionObjectIterator(regionsIterator.next());
 				}
+				return true;
 			}
 			
 			public Object next()
@@ -147,6 +133,202 @@ public class DTFJJavaHeap implements JavaHeap {
 		};
 	}
 
+	public <R> void walkObjects(final ObjectWalker<R> walker, int threads)
+	{
+		if (threads <= 0) {
+			threads = Integer.getInteger(THREADS_PROPERTY, 0).intValue();
+			if (threads <= 0) {
+				threads = Runtime.getRuntime().availableProcessors();
+			}
+		}
+		threads = Math.min(threads, regions.size());
+
+		if (threads <= 1) {
+			Iterator<?> objects = getObjects();
+			while (objects.hasNext()) {
+				walker.collect(walkChunk(walker, objects));
+			}
+			return;
+		}
+
+		/* Each region is walked by a single task which hands its chunks over through a
+		 * bounded queue, so only a few chunks per region are held in memory. The pool
+		 * starts tasks in region order and the queues are drained in region order: by the
+		 * time the region being drained is reached, all earlier regions have finished, so
+		 * its task is running or has run even when every other thread is blocked on a
+		 * full queue.
+		 */
+		ExecutorService pool = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "DTFJ heap walker");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		try {
+			List<BlockingQueue<Object>> results = new ArrayList<BlockingQueue<Object>>(regions.size());
+			for (GCHeapRegionDescriptor region : regions) {
+				final Iterator<?> objects = new RegionObjectIterator(region);
+				final BlockingQueue<Object> queue = new ArrayBlockingQueue<Object>(WALK_QUEUE_DEPTH);
+				results.add(queue);
+				pool.execute(new Runnable() {
+					public void run() {
+						Object end = END_OF_REGION;
+						try {
+							while (objects.hasNext()) {
+								R result = walkChunk(walker, objects);
+								queue.put(null == result ? NULL_RESULT : result);
+							}
+						} catch (InterruptedException e) {
+							/* the walk has been abandoned */
+							return;
+						} catch (Throwable t) {
+							end = new WalkFailure(t);
+						}
+						try {
+							queue.put(end);
+						} catch (InterruptedException e) {
+							/* the walk has been abandoned */
+						}
+					}
+				});
+			}
+
+			for (BlockingQueue<Object> queue : results) {
+				for (Object result = queue.take(); END_OF_REGION != result; result = queue.take()) {
+					if (result instanceof WalkFailure) {
+						Throwable t = ((WalkFailure) result).cause;
+						if (t instanceof RuntimeException) {
+							throw (RuntimeException) t;
+						} else if (t instanceof Error) {
+							throw (Error) t;
+						}
+						throw new RuntimeException(t);
+					}
+					@SuppressWarnings("unchecked")
+					R chunkResult = (NULL_RESULT == result) ? null : (R) result;
+					walker.collect(chunkResult);
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Heap walk interrupted", e);
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	/* Pass the next chunk of objects to the walker, skipping any it did not consume */
+	private static <R> R walkChunk(ObjectWalker<R> walker, Iterator<?> objects)
+	{
+		ChunkIterator chunk = new ChunkIterator(objects, WALK_CHUNK_SIZE);
+		R result = walker.walk(chunk);
+		while (chunk.hasNext()) {
+			chunk.next();
+		}
+		return result;
+	}
+
+	/* Returns at most limit objects from an underlying iterator */
+	@SuppressWarnings("rawtypes")
+	private static final class ChunkIterator implements Iterator
+	{
+		private final Iterator<?> objects;
+		private int remaining;
+
+		ChunkIterator(Iterator<?> objects, int limit)
+		{
+			this.objects = objects;
+			this.remaining = limit;
+		}
+
+		public boolean hasNext()
+		{
+			return (remaining > 0) && objects.hasNext();
+		}
+
+		public Object next()
+		{
+			if (remaining <= 0) {
+				throw new NoSuchElementException();
+			}
+			remaining -= 1;
+			return objects.next();
+		}
+
+		public void remove()
+		{
+			throw new UnsupportedOperationException("Remove not supported");
+		}
+	}
+
+	/* Carries an exception thrown by a region walk to the collecting thread */
+	private static final class WalkFailure
+	{
+		final Throwable cause;
+
+		WalkFailure(Throwable cause)
+		{
+			this.cause = cause;
+		}
+	}
+
+	/*
+	 * Iterates over the objects in a single region. A fatal corruption replaces the
+	 * rest of the region with a corrupt data entry.
+	 */
+	@SuppressWarnings("rawtypes")
+	private final class RegionObjectIterator implements Iterator
+	{
+		private final GCHeapRegionDescriptor region;
+		private Iterator objects = null;
+
+		private final IEventListener corruptDataListener = new IEventListener() {
+			public void corruptData(String message, CorruptDataException e, boolean fatal) {
+				if( fatal ) {
+					objects = corruptIterator(J9DDRDTFJUtils.newCorruptData(DTFJContext.getProcess(), e));
+				}
+			}
+		};
+
+		RegionObjectIterator(GCHeapRegionDescriptor region)
+		{
+			this.region = region;
+		}
+
+		public boolean hasNext()
+		{
+			try {
+				register(corruptDataListener);
+				if(null == objects) {
+					try {
+						objects = new HeapObjectIterator(DTFJJavaHeap.this, region);
+					} catch (Throwable t) {
+						CorruptData cd = J9DDRDTFJUtils.handleAsCorruptData(DTFJContext.getProcess(), t);
+						objects = corruptIterator(cd);
+					}
+				}
+				return objects.hasNext();
+			} finally {
+				unregister(corruptDataListener);
+			}
+		}
+
+		public Object next()
+		{
+			if(hasNext()) {
+				return objects.next();
+			}
+
+			throw new NoSuchElementException();
+		}
+
+		public void remove()
+		{
+			throw new UnsupportedOperationException("Remove not supported");
+		}
+	}
+
 	@SuppressWarnings({ "rawtypes", "unchecked" })
 	public Iterator getSections() {
 		try {
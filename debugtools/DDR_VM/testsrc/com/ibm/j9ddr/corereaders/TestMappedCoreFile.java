@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * Copyright (c) 2018, 2018 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *******************************************************************************/
+package com.ibm.j9ddr.corereaders;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Tests reads from a memory mapped core file, using a small page size so that
+ * reads cross page boundaries.
+ */
+public class TestMappedCoreFile
+{
+	private static final int PAGE_SHIFT = 12;
+	private static final int FILE_LENGTH = (5 << PAGE_SHIFT) + 123;
+
+	private static File file;
+	private static byte[] contents;
+
+	@BeforeClass
+	public static void createFile() throws IOException
+	{
+		contents = new byte[FILE_LENGTH];
+		for (int i = 0; i < contents.length; i++) {
+			contents[i] = (byte) (i * 31 + (i >> 8));
+		}
+		file = File.createTempFile("TestMappedCoreFile", ".core");
+		FileOutputStream out = new FileOutputStream(file);
+		try {
+			out.write(contents);
+		} finally {
+			out.close();
+		}
+	}
+
+	@AfterClass
+	public static void deleteFile()
+	{
+		file.delete();
+	}
+
+	@Test
+	public void testReads() throws IOException
+	{
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try {
+			raf.seek(17);
+			MappedCoreFile mapped = new MappedCoreFile(raf, PAGE_SHIFT);
+			try {
+				int pageSize = 1 << PAGE_SHIFT;
+				/* within a page, across one boundary, across several, up to the end of the file */
+				checkRead(mapped, 10, 100);
+				checkRead(mapped, pageSize - 3, 8);
+				checkRead(mapped, pageSize / 2, 3 * pageSize);
+				checkRead(mapped, FILE_LENGTH - 200, 200);
+				checkRead(mapped, 0, FILE_LENGTH);
+			} finally {
+				mapped.close();
+			}
+			/* the mapping shares the handle without disturbing reads through it */
+			assertEquals(17, raf.getFilePointer());
+			assertEquals(contents[17], (byte) raf.read());
+		} finally {
+			raf.close();
+		}
+	}
+
+	@Test
+	public void testReadPastEnd() throws IOException
+	{
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try {
+			MappedCoreFile mapped = new MappedCoreFile(raf, PAGE_SHIFT);
+			try {
+				mapped.readFully(FILE_LENGTH - 4, new byte[8], 0, 8);
+				fail("Expected EOFException");
+			} catch (EOFException e) {
+				// expected
+			} finally {
+				mapped.close();
+			}
+		} finally {
+			raf.close();
+		}
+	}
+
+	private static void checkRead(MappedCoreFile mapped, int position, int length) throws IOException
+	{
+		byte[] expected = new byte[length];
+		System.arraycopy(contents, position, expected, 0, length);
+
+		byte[] buffer = new byte[length + 2];
+		mapped.readFully(position, buffer, 1, length);
+
+		byte[] actual = new byte[length];
+		System.arraycopy(buffer, 1, actual, 0, length);
+		assertArrayEquals("read of " + length + " bytes at " + position, expected, actual);
+	}
+}
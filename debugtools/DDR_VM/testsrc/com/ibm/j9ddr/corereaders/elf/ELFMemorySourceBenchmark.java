@@ -0,0 +1,191 @@
+/*******************************************************************************
+ * Copyright (c) 2018, 2018 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *******************************************************************************/
+package com.ibm.j9ddr.corereaders.elf;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.ibm.j9ddr.corereaders.memory.IMemorySource;
+
+/**
+ * Measures small reads from the memory of an ELF core file, such as those made by
+ * !gccheck or !findpattern, with and without memory mapping the core file.
+ * 
+ * Writes a synthetic 64 bit little endian core file with one PT_LOAD segment for
+ * each memory range, then reports the reads per second for each mode and checks
+ * that both modes read the same data.
+ * 
+ * Usage: ELFMemorySourceBenchmark [segments [segmentMB [reads [readSize]]]]
+ */
+public class ELFMemorySourceBenchmark
+{
+	private static final int ELF_HEADER_SIZE = 64;
+	private static final int PROGRAM_HEADER_SIZE = 56;
+	private static final int PT_LOAD = 1;
+	private static final int PF_R = 4;
+	private static final long SEGMENT_ALIGNMENT = 4096;
+	private static final long BASE_ADDRESS = 0x7f0000000000L;
+
+	public static void main(String[] args) throws Exception
+	{
+		int segments = (args.length > 0) ? Integer.parseInt(args[0]) : 16;
+		int segmentMB = (args.length > 1) ? Integer.parseInt(args[1]) : 16;
+		int reads = (args.length > 2) ? Integer.parseInt(args[2]) : 2000000;
+		int readSize = (args.length > 3) ? Integer.parseInt(args[3]) : 8;
+
+		File core = File.createTempFile("ELFMemorySourceBenchmark", ".core");
+		core.deleteOnExit();
+		try {
+			writeCore(core, segments, (long) segmentMB * 1024 * 1024);
+			System.out.println("Core file: " + segments + " segments of " + segmentMB + "MB, " + reads + " reads of " + readSize + " bytes");
+
+			/* the same addresses for both modes */
+			long[] addresses = new long[reads];
+			Random random = new Random(42);
+			long segmentSize = (long) segmentMB * 1024 * 1024;
+			for (int i = 0; i < reads; i++) {
+				int segment = random.nextInt(segments);
+				long offset = (long) (random.nextDouble() * (segmentSize - readSize));
+				addresses[i] = BASE_ADDRESS + (segment * segmentSize * 2) + offset;
+			}
+
+			long streamChecksum = run("stream", core, addresses, readSize, false);
+			long mappedChecksum = run("mapped", core, addresses, readSize, true);
+			if (streamChecksum != mappedChecksum) {
+				throw new IllegalStateException("Mapped reads differ from stream reads");
+			}
+		} finally {
+			core.delete();
+		}
+	}
+
+	private static long run(String mode, File core, long[] addresses, int readSize, boolean mapped) throws Exception
+	{
+		System.setProperty("ddr.map.core.files", Boolean.toString(mapped));
+		ELFFileReader reader = ELFFileReader.getELFFileReader(core);
+		try {
+			if (reader.isMapped() != mapped) {
+				throw new IllegalStateException("Could not open the core file in " + mode + " mode");
+			}
+			List<IMemorySource> sources = new ArrayList<IMemorySource>();
+			for (ProgramHeaderEntry entry : reader.getProgramHeaderEntries()) {
+				sources.add(entry.asMemorySource());
+			}
+
+			byte[] buffer = new byte[readSize];
+			long checksum = 0;
+			/* warm up, then measure */
+			for (int pass = 0; pass < 2; pass++) {
+				checksum = 0;
+				long start = System.nanoTime();
+				for (long address : addresses) {
+					IMemorySource source = findSource(sources, address);
+					source.getBytes(address, buffer, 0, readSize);
+					checksum = checksum * 31 + buffer[0] + buffer[readSize - 1];
+				}
+				long elapsed = System.nanoTime() - start;
+				if (pass == 1) {
+					double readsPerSecond = addresses.length / (elapsed / 1e9);
+					System.out.printf("%-8s %,14.0f reads/sec%n", mode, readsPerSecond);
+				}
+			}
+			return checksum;
+		} finally {
+			reader.close();
+		}
+	}
+
+	private static IMemorySource findSource(List<IMemorySource> sources, long address)
+	{
+		for (IMemorySource source : sources) {
+			if (source.contains(address)) {
+				return source;
+			}
+		}
+		throw new IllegalArgumentException("No memory source for 0x" + Long.toHexString(address));
+	}
+
+	/**
+	 * Writes an ELF core file header, the program headers and the segment data. The
+	 * segments are mapped at every other segment sized slot above BASE_ADDRESS.
+	 */
+	private static void writeCore(File core, int segments, long segmentSize) throws IOException
+	{
+		long dataOffset = align(ELF_HEADER_SIZE + (long) segments * PROGRAM_HEADER_SIZE);
+
+		ByteBuffer header = ByteBuffer.allocate((int) dataOffset).order(ByteOrder.LITTLE_ENDIAN);
+		header.put(new byte[] { 0x7f, 'E', 'L', 'F', 2 /* ELFCLASS64 */, 1 /* ELFDATA2LSB */, 1 /* EV_CURRENT */ });
+		header.position(16);
+		header.putShort(ELFFileReader.ET_CORE);
+		header.putShort((short) ELFFileReader.ARCH_AMD64);
+		header.putInt(1); // version
+		header.putLong(0); // entry point
+		header.putLong(ELF_HEADER_SIZE); // program header offset
+		header.putLong(0); // section header offset
+		header.putInt(0); // flags
+		header.putShort((short) ELF_HEADER_SIZE);
+		header.putShort((short) PROGRAM_HEADER_SIZE);
+		header.putShort((short) segments);
+		header.putShort((short) 0); // section header entry size
+		header.putShort((short) 0); // section header count
+		header.putShort((short) 0); // string table index
+
+		for (int i = 0; i < segments; i++) {
+			header.putInt(PT_LOAD);
+			header.putInt(PF_R);
+			header.putLong(dataOffset + i * segmentSize); // file offset
+			header.putLong(BASE_ADDRESS + i * segmentSize * 2); // virtual address
+			header.putLong(0); // physical address
+			header.putLong(segmentSize); // file size
+			header.putLong(segmentSize); // memory size
+			header.putLong(SEGMENT_ALIGNMENT);
+		}
+
+		OutputStream out = new BufferedOutputStream(new FileOutputStream(core), 1024 * 1024);
+		try {
+			out.write(header.array());
+			byte[] block = new byte[64 * 1024];
+			long position = 0;
+			for (long remaining = segments * segmentSize; remaining > 0; remaining -= block.length) {
+				for (int i = 0; i < block.length; i++, position++) {
+					block[i] = (byte) (position ^ (position >>> 11));
+				}
+				out.write(block, 0, (int) Math.min(block.length, remaining));
+			}
+		} finally {
+			out.close();
+		}
+	}
+
+	private static long align(long offset)
+	{
+		return (offset + SEGMENT_ALIGNMENT - 1) & ~(SEGMENT_ALIGNMENT - 1);
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 1991, 2014 IBM Corp. and others
+ * Copyright (c) 1991, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -21,8 +21,11 @@
  *******************************************************************************/
 package com.ibm.j9ddr.view.dtfj.test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 import org.junit.Before;
@@ -32,6 +35,7 @@ import org.junit.Test;
 import com.ibm.dtfj.image.ImageSection;
 import com.ibm.dtfj.java.JavaObject;
 import com.ibm.dtfj.java.JavaRuntime;
+import com.ibm.dtfj.utils.ParallelJavaHeap;
 
 /*
  * The heap unit test is not run on a gencon core file because DDR correctly returns 3 heaps through the runtime (2xnursery + tenured)
@@ -107,4 +111,45 @@ public class JavaHeapTest extends DTFJUnitTest {
 		}
 		imageSectionComparator.testComparatorIteratorEquals(ddrTestObjects, jextractTestObjects, "getSections", ImageSection.class);
 	}
+
+	/*
+	 * A parallel walk must return the same objects in the same order as a serial walk. This does not
+	 * compare against jextract, so it is run on gencon core files too.
+	 */
+	@Test
+	public void walkObjectsTest() {
+		Iterator<?> heaps = ddrJavaRuntime.getHeaps();
+		while (heaps.hasNext()) {
+			Object heap = heaps.next();
+			if (!(heap instanceof ParallelJavaHeap)) {
+				continue;
+			}
+			ParallelJavaHeap parallelHeap = (ParallelJavaHeap) heap;
+			List<Object> expected = new ArrayList<Object>();
+			Iterator<?> objects = parallelHeap.getObjects();
+			while (objects.hasNext()) {
+				expected.add(objects.next());
+			}
+			assertEquals(parallelHeap.getName() + " serial walk", expected, walkObjects(parallelHeap, 1));
+			assertEquals(parallelHeap.getName() + " parallel walk", expected, walkObjects(parallelHeap, 4));
+		}
+	}
+
+	private static List<Object> walkObjects(ParallelJavaHeap heap, int threads) {
+		final List<Object> walked = new ArrayList<Object>();
+		heap.walkObjects(new ParallelJavaHeap.ObjectWalker<List<Object>>() {
+			public List<Object> walk(Iterator objects) {
+				List<Object> run = new ArrayList<Object>();
+				while (objects.hasNext()) {
+					run.add(objects.next());
+				}
+				return run;
+			}
+
+			public void collect(List<Object> run) {
+				walked.addAll(run);
+			}
+		}, threads);
+		return walked;
+	}
 }
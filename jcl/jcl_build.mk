@@ -1,5 +1,5 @@
 #/*******************************************************************************
-# * Copyright (c) 2016, 2017 IBM Corp. and others
+# * Copyright (c) 2016, 2018 IBM Corp. and others
 # *
 # * This program and the accompanying materials are made available under
 # * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -218,6 +218,7 @@ else ifeq ($(JPP_CONFIG), SIDECAR18-TRACEFORMAT)
 		com/ibm/jvm/InputFile* \
 		com/ibm/jvm/MessageFile* \
 		com/ibm/jvm/OutputFile* \
+		com/ibm/jvm/Parallel* \
 		com/ibm/jvm/ProgramOption* \
 		com/ibm/jvm/Statistics* \
 		com/ibm/jvm/Summary* \
@@ -1,6 +1,6 @@
 /*[INCLUDE-IF DAA]*/
 /*******************************************************************************
- * Copyright (c) 2013, 2017 IBM Corp. and others
+ * Copyright (c) 2013, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -25,6 +25,7 @@ package com.ibm.dataaccess;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 import com.ibm.dataaccess.ByteArrayMarshaller;
@@ -2502,6 +2503,1288 @@ public final class DecimalData
                 offset, precision, decimalType);
     }
 
+    /**
+     * Size of the chunks in which strided conversions copy fields out of and back into a ByteBuffer that is not backed
+     * by an accessible array.
+     */
+    private static final int BUFFER_CHUNK_BYTES = 8192;
+
+    /**
+     * Converts <code>count</code> consecutive values of a strided region of a byte array.
+     */
+    private interface StridedConversion {
+        /**
+         * @param bytes
+         *            byte array which holds the fields
+         * @param offset
+         *            offset of the first field to convert in <code>bytes</code>
+         * @param first
+         *            index of the first field to convert within the whole batch
+         * @param count
+         *            number of fields to convert
+         */
+        void convert(byte[] bytes, int offset, int first, int count);
+    }
+
+    /**
+     * Checks the bounds of a batch conversion once, so the values can then be converted without the per value checks.
+     */
+    private static void checkStridedRegion(String method, String decimalName, int decimalLength, int offset,
+            int stride, int fieldLength, String arrayName, int arrayLength, int arrayOffset, int count) {
+        if (count < 0)
+            throw new IllegalArgumentException("count can't be negative.");
+        if (stride < fieldLength)
+            throw new IllegalArgumentException("stride (" + stride + ") is smaller than the length of a field ("
+                    + fieldLength + ").");
+
+        long end = offset + (count == 0 ? 0 : (long) (count - 1) * stride + fieldLength);
+        if ((offset < 0) || (end > decimalLength))
+            throw new ArrayIndexOutOfBoundsException("Array access index out of bounds. " + method
+                    + " is trying to access " + decimalName + "[" + offset + "] to " + decimalName + "[" + (end - 1)
+                    + "], " + " but valid indices are from 0 to " + (decimalLength - 1) + ".");
+        if ((arrayOffset < 0) || (arrayOffset + (long) count > arrayLength))
+            throw new ArrayIndexOutOfBoundsException("Array access index out of bounds. " + method
+                    + " is trying to access " + arrayName + "[" + arrayOffset + "] to " + arrayName + "["
+                    + (arrayOffset + (long) count - 1) + "], " + " but valid indices are from 0 to "
+                    + (arrayLength - 1) + ".");
+    }
+
+    /**
+     * Runs a batch conversion over a ByteBuffer. Buffers backed by an accessible array are converted in place. The
+     * fields of any other buffer are copied to a scratch array a chunk at a time, and copied back if
+     * <code>write</code> is true. The position, limit and mark of <code>buffer</code> are not changed.
+     */
+    private static void convertStrided(ByteBuffer buffer, int index, int stride, int fieldLength, int count,
+            boolean write, StridedConversion conversion) {
+        if (count == 0)
+            return;
+        if (buffer.hasArray()) {
+            conversion.convert(buffer.array(), buffer.arrayOffset() + index, 0, count);
+            return;
+        }
+
+        int chunkCount = Math.max(1, Math.min(count, BUFFER_CHUNK_BYTES / stride));
+        byte[] chunk = new byte[(chunkCount - 1) * stride + fieldLength];
+        ByteBuffer view = buffer.duplicate();
+        for (int first = 0; first < count; first += chunkCount) {
+            int n = Math.min(chunkCount, count - first);
+            int length = (n - 1) * stride + fieldLength;
+            view.position(index + first * stride);
+            view.get(chunk, 0, length);
+            conversion.convert(chunk, 0, first, n);
+            if (write) {
+                view.position(index + first * stride);
+                view.put(chunk, 0, length);
+            }
+        }
+    }
+
+    private static void checkExternalDecimal(int precision, int decimalType) {
+        if (precision <= 0)
+            throw new IllegalArgumentException("Precision can't be negative.");
+        if (decimalType < EXTERNAL_DECIMAL_MIN || decimalType > EXTERNAL_DECIMAL_MAX)
+            throw new IllegalArgumentException("invalid decimalType");
+    }
+
+    /**
+     * Converts <code>count</code> Packed Decimal values, <code>stride</code> bytes apart in a byte array, into binary
+     * integers. The bounds of the whole batch are checked once before any value is converted. Otherwise each value is
+     * converted as by {@link #convertPackedDecimalToInteger(byte[], int, int, boolean)}.
+     * 
+     * @param packedDecimal
+     *            byte array which contains the Packed Decimal values
+     * @param offset
+     *            offset of the first byte of the first Packed Decimal in <code>packedDecimal</code>
+     * @param stride
+     *            distance in bytes between the starts of consecutive Packed Decimals
+     * @param precision
+     *            number of decimal digits of each Packed Decimal. Maximum valid precision is 253
+     * @param integerArray
+     *            int array that will hold the resulting binary integers
+     * @param integerOffset
+     *            offset in <code>integerArray</code> where the first result is stored
+     * @param count
+     *            number of values to convert
+     * @param checkOverflow
+     *            if true an <code>ArithmeticException</code> may be thrown
+     * 
+     * @throws NullPointerException
+     *             if <code>packedDecimal</code> or <code>integerArray</code> is null
+     * @throws ArrayIndexOutOfBoundsException
+     *             if the batch does not fit in <code>packedDecimal</code> or <code>integerArray</code>
+     * @throws ArithmeticException
+     *             if <code>checkOverflow</code> is true and a result does not fit into an int (overflow)
+     * @throws IllegalArgumentException
+     *             if <code>count</code> is negative or <code>stride</code> is smaller than a Packed Decimal
+     */
+    public static void convertPackedDecimalToInteger(byte[] packedDecimal, int offset, int stride, int precision,
+            int[] integerArray, int integerOffset, int count, boolean checkOverflow) {
+        checkStridedRegion("convertPackedDecimalToInteger", "packedDecimal", packedDecimal.length, offset, stride,
+                CommonData.getPackedByteCount(precision), "integerArray", integerArray.length, integerOffset, count);
+
+        if (JITIntrinsicsEnabled()) {
+            for (int i = 0; i < count; i++, offset += stride)
+                integerArray[integerOffset + i] = convertPackedDecimalToInteger(packedDecimal, offset, precision,
+                        checkOverflow);
+        } else {
+            for (int i = 0; i < count; i++, offset += stride)
+                integerArray[integerOffset + i] = convertPackedDecimalToInteger_(packedDecimal, offset, precision,
+                        checkOverflow);
+        }
+    }
+
+    /**
+     * Converts <code>count</code> Packed Decimal values, <code>stride</code> bytes apart in a ByteBuffer, into binary
+     * integers. The position and limit of <code>buffer</code> are ignored and not changed, except that the batch
+     * must end before the limit. Otherwise this method behaves as
+     * {@link #convertPackedDecimalToInteger(byte[], int, int, int, int[], int, int, boolean)}.
+     * 
+     * @param buffer
+     *            ByteBuffer which contains the Packed Decimal values
+     * @param index
+     *            index of the first byte of the first Packed Decimal in <code>buffer</code>
+     * @param stride
+     *            distance in bytes between the starts of consecutive Packed Decimals
+     * @param precision
+     *            number of decimal digits of each Packed Decimal. Maximum valid precision is 253
+     * @param integerArray
+     *            int array that will hold the resulting binary integers
+     * @param integerOffset
+     *            offset in <code>integerArray</code> where the first result is stored
+     * @param count
+     *            number of values to convert
+     * @param checkOverflow
+     *            if true an <code>ArithmeticException</code> may be thrown
+     * 
+     * @throws NullPointerException
+     *             if <code>buffer</code> or <code>integerArray</code> is null
+     * @throws ArrayIndexOutOfBoundsException
+     *             if the batch does not fit in <code>buffer</code> or <code>integerArray</code>
+     * @throws ArithmeticException
+     *             if <code>checkOverflow</code> is true and a result does not fit into an int (overflow)
+     * @throws IllegalArgumentException
+     *             if <code>count</code> is negative or <code>stride</code> is smaller than a Packed Decimal
+     */
+    public static void convertPackedDecimalToInteger(ByteBuffer buffer, int index, final int stride,
+            final int precision, final int[] integerArray, final int integerOffset, int count,
+            final boolean checkOverflow) {
+        int fieldLength = CommonData.getPackedByteCount(precision);
+        checkStridedRegion("convertPackedDecimalToInteger", "buffer", buffer.limit(), index, stride, fieldLength,
+                "integerArray", integerArray.length, integerOffset, count);
+
+        convertStrided(buffer, index, stride, fieldLength, count, false, new StridedConversion() {
+            public void convert(byte[] bytes, int offset, int first, int n) {
+                convertPackedDecimalToInteger(bytes, offset, stride, precision, integerArray, integerOffset + first,
+                        n, checkOverflow);
+            }
+        });
+    }
+
+    /**
+     * Converts <code>count</code> Packed Decimal values, <code>stride</code> bytes apart in a byte array, into binary
+     * longs. The bounds of the whole batch are checked once before any value is converted. Otherwise each value is
+     * converted as by {@link #convertPackedDecimalToLong(byte[], int, int, boolean)}.
+     * 
+     * @param packedDecimal
+     *            byte array which contains the Packed Decimal values
+     * @param offset
+     *            offset of the first byte of the first Packed Decimal in <code>packedDecimal</code>
+     * @param stride
+     *            distance in bytes between the starts of consecutive Packed Decimals
+     * @param precision
+     *            number of decimal digits of each Packed Decimal. Maximum valid precision is 253
+     * @param longArray
+     *            long array that will hold the resulting binary longs
+     * @param longOffset
+     *            offset in <code>longArray</code> where the first result is stored
+     * @param count
+     *            number of values to convert
+     * @param checkOverflow
+     *            if true an <code>ArithmeticException</code> may be thrown
+     * 
+     * @throws NullPointerException
+     *             if <code>packedDecimal</code> or <code>longArray</code> is null
+     * @throws ArrayIndexOutOfBoundsException
+     *             if the batch does not fit in <code>packedDecimal</code> or <code>longArray</code>
+     * @throws ArithmeticException
+     *             if <code>checkOverflow</code> is true and a result does not fit into a long (overflow)
+     * @throws IllegalArgumentException
+     *             if <code>count</code> is negative or <code>stride</code> is smaller than a Packed Decimal
+     */
+    public static void convertPackedDecimalToLong(byte[] packedDecimal, int offset, int stride, int precision,
+            long[] longArray, int longOffset, int count, boolean checkOverflow) {
+        checkStridedRegion("convertPackedDecimalToLong", "packedDecimal", packedDecimal.length, offset, stride,
+                CommonData.getPackedByteCount(precision), "longArray", longArray.length, longOffset, count);
+
+        if (JITIntrinsicsEnabled()) {
+            for (int i = 0; i < count; i++, offset += stride)
+                longArray[longOffset + i] = convertPackedDecimalToLong(packedDecimal, offset, precision,
+                        checkOverflow);
+        } else {
+            for (int i = 0; i < count; i++, offset += stride)
+                longArray[longOffset + i] = convertPackedDecimalToLong_(packedDecimal, offset, precision,
+                        checkOverflow);
+        }
+    }
+
+    /**
+     * Converts <code>count</code> Packed Decimal values, <code>stride</code> bytes apart in a ByteBuffer, into binary
+     * longs. The position and limit of <code>buffer</code> are ignored and not changed, except that the batch must
+     * end before the limit. Otherwise this method behaves as
+     * {@link #convertPackedDecimalToLong(byte[], int, int, int, long[], int, int, boolean)}.
+     * 
+     * @param buffer
+     *            ByteBuffer which contains the Packed Decimal values
+     * @param index
+     *            index of the first byte of the first Packed Decimal in <code>buffer</code>
+     * @param stride
+     *            distance in bytes between the starts of consecutive Packed Decimals
+     * @param precision
+     *            number of decimal digits of each Packed Decimal. Maximum valid precision is 253
+     * @param longArray
+     *            long array that will hold the resulting binary longs
+     * @param longOffset
+     *            offset in <code>longArray</code> where the first result is stored
+     * @param count
+     *            number of values to convert
+     * @param checkOverflow
+     *            if true an <code>ArithmeticException</code> may be thrown
+     * 
+     * @throws NullPointerException
+     *             if <code>buffer</code> or <code>longArray</code> is null
+     * @throws ArrayIndexOutOfBoundsException
+     *             if the batch does not fit in <code>buffer</code> or <code>longArray</code>
+     * @throws ArithmeticException
+     *             if <code>checkOverflow</code> is true and a result does not fit into a long (overflow)
+     * @throws IllegalArgumentException
+     *             if <code>count</code> is negative or <code>stride</code> is smaller than a Packed Decimal
+     */
+    public static void convertPackedDecimalToLong(ByteBuffer buffer, int index, final int stride,
+            final int precision, final long[] longArray, final int longOffset, int count,
+            final boolean checkOverflow) {
+        int fieldLength = CommonData.getPackedByteCount(precision);
+        checkStridedRegion("convertPackedDecimalToLong", "buffer", buffer.limit(), index, stride, fieldLength,
+                "longArray", longArray.length, longOffset, count);
+
+        convertStrided(buffer, index, stride, fieldLength, count, false, new StridedConversion() {
+            public void convert(byte[] bytes, int offset, int first, int n) {
+                convertPackedDecimalToLong(bytes, offset, stride, precision, longArray, longOffset + first, n,
+                        checkOverflow);
+            }
+        });
+    }
+
+    /**
+     * Converts <code>count</code> Packed Decimal values, <code>stride</code> bytes apart in a byte array, into
+     * BigDecimals. The bounds of the whole batch are checked once before any value is converted. Otherwise each value
+     * is converted as by {@link #convertPackedDecimalToBigDecimal(byte[], int, int, int, boolean)}.
+     * 
+     * @param packedDecimal
+     *            byte array which contains the Packed Decimal values
+     * @param offset
+     *            offset of the first byte of the first Packed Decimal in <code>packedDecimal</code>
+     * @param stride
+     *            distance in bytes between the starts of consecutive Packed Decimals
+     * @param precision
+     *            number of decimal digits of each Packed Decimal. Maximum valid precision is 253
+     * @param scale
+     *            scale of the resulting BigDecimals
+     * @param bigDecimalArray
+     *            BigDecimal array that will hold the resulting BigDecimals
+     * @param bigDecimalOffset
+     *            offset in <code>bigDecimalArray</code> where the first result is stored
+     * @param count
+     *            number of values to convert
+     * @param checkOverflow
+     *            if true an <code>ArithmeticException</code> may be thrown
+     * 
+     * @throws NullPointerException
+     *             if <code>packedDecimal</code> or <code>bigDecimalArray</code> is null
+     * @throws ArrayIndexOutOfBoundsException
+     *             if the batch does not fit in <code>packedDecimal</code> or <code>bigDecimalArray</code>
+     * @throws IllegalArgumentException
+     *             if <code>count</code> is negative or <code>stride</code> is smaller than a Packed Decimal
+     */
+    public static void convertPackedDecimalToBigDecimal(byte[] packedDecimal, int offset, int stride, int precision,
+            int scale, BigDecimal[] bigDecimalArray, int bigDecimalOffset, int count, boolean checkOverflow) {
+        checkStridedRegion("convertPackedDecimalToBigDecimal", "packedDecimal", packedDecimal.length, offset, stride,
+                CommonData.getPackedByteCount(precision), "bigDecimalArray", bigDecimalArray.length,
+                bigDecimalOffset, count);
+
+        for (int i = 0; i < count; i++, offset += stride)
+            bigDecimalArray[bigDecimalOffset + i] = convertPackedDecimalToBigDecimal(packedDecimal, offset,
+                    precision, scale, checkOverflow);
+    }
+
+    /**
+     * Converts <code>count</code> Packed Decimal values, <code>stride</code> bytes apart in a ByteBuffer, into
+     * BigDecimals. The position and limit of <code>buffer</code> are ignored and not changed, except that the batch
+     * must end before the limit. Otherwise this method behaves as
+     * {@link #convertPackedDecimalToBigDecimal(byte[], int, int, int, int, BigDecimal[], int, int, boolean)}.
+     * 
+     * @param buffer
+     *            ByteBuffer which contains the Packed Decimal values
+     * @param index
+     *            index of the first byte of the first Packed Decimal in <code>buffer</code>
+     * @param stride
+     *            distance in bytes between the starts of consecutive Packed Decimals
+     * @param precision
+     *            number of decimal digits of each Packed Decimal. Maximum valid precision is 253
+     * @param scale
+     *            scale of the resulting BigDecimals
+     * @param bigDecimalArray
+     *            BigDecimal array that will hold the resulting BigDecimals
+     * @param bigDecimalOffset
+     *            offset in <code>bigDecimalArray</code> where the first result is stored
+     * @param count
+     *            number of values to convert
+     * @param checkOverflow
+     *            if true an <code>ArithmeticException</code> may be thrown
+     * 
+     * @throws NullPointerException
+     *             if <code>buffer</code> or <code>bigDecimalArray</code> is null
+     * @throws ArrayIndexOutOfBoundsException
+     *             if the batch does not fit in <code>buffer</code> or <code>bigDecimalArray</code>
+     * @throws IllegalArgumentException
+     *             if <code>count</code> is negative or <code>stride</code> is smaller than a Packed Decimal
+     */
+    public static void convertPackedDecimalToBigDecimal(ByteBuffer buffer, int index, final int stride,
+            final int precision, final int scale, final BigDecimal[] bigDecimalArray, final int bigDecimalOffset,
+            int count, final boolean checkOverflow) {
+        int fieldLength = CommonData.getPackedByteCount(precision);
+        checkStridedRegion("convertPackedDecimalToBigDecimal", "buffer", buffer.limit(), index, stride, fieldLength,
+                "bigDecimalArray", bigDecimalArray.length, bigDecimalOffset, count);
+
+        convertStrided(buffer, index, stride, fieldLength, count, false, new StridedConversion() {
+            public void convert(byte[] bytes, int offset, int first, int n) {
+                convertPackedDecimalToBigDecimal(bytes, offset, stride, precision, scale, bigDecimalArray,
+                        bigDecimalOffset + first, n, checkOverflow);
+            }
+        });
+    }
+
+    /**
+     * Converts <code>count</code> binary integers into Packed Decimals, <code>stride</code> bytes apart in a byte
+     * array. The bytes between the Packed Decimals are not changed. The bounds of the whole batch are checked once
+     * before any value is converted. Otherwise each value is converted as by
+     * {@link #convertIntegerToPackedDecimal(int, byte[], int, int, boolean)}.
+     * 
+     * @param integerArray
+     *            int array which holds the binary integers to convert
+     * @param integerOffset
+     *            offset in <code>integerArray</code> of the first value to convert
+     * @param packedDecimal
+     *            byte array that will store the resulting Packed Decimal values
+     * @param offset
+     *            offset of the first byte of the first Packed Decimal in <code>packedDecimal</code>
+     * @param stride
+     *            distance in bytes between the starts of consecutive Packed Decimals
+     * @param precision
+     *            number of Packed Decimal digits. Maximum valid precision is 253
+     * @param count
+     *            number of values to convert
+     * @param checkOverflow
+     *            if true an <code>ArithmenticException</code> will be thrown if a decimal value does not fit in the
+     *            specified precision (overflow)
+     * 
+     * @throws NullPointerException
+     *             if <code>integerArray</code> or <code>packedDecimal</code> is null
+     * @throws ArrayIndexOutOfBoundsException
+     *             if the batch does not fit in <code>integerArray</code> or <code>packedDecimal</code>
+     * @throws ArithmeticException
+     *             if the <code>checkOverflow</code> parameter is true and overflow occurs
+     * @throws IllegalArgumentException
+     *             if <code>count</code> is negative or <code>stride</code> is smaller than a Packed Decimal
+     */
+    public static void convertIntegerToPackedDecimal(int[] integerArray, int integerOffset, byte[] packedDecimal,
+            int offset, int stride, int precision, int count, boolean checkOverflow) {
+        checkStridedRegion("convertIntegerToPackedDecimal", "packedDecimal", packedDecimal.length, offset, stride,
+                CommonData.getPackedByteCount(precision), "integerArray", integerArray.length, integerOffset, count);
+
+        if (JITIntrinsicsEnabled()) {
+            for (int i = 0; i < count; i++, offset += stride)
+                convertIntegerToPackedDecimal(integerArray[integerOffset + i], packedDecimal, offset, precision,
+                        checkOverflow);
+        } else {
+            for (int i = 0; i < count; i++, offset += stride)
+                convertIntegerToPackedDecimal_(integerArray[integerOffset + i], packedDecimal, offset, precision,
+                        checkOverflow);
+        }
+    }
+
+    /**
+     * Converts <code>count</code> binary integers into Packed Decimals, <code>stride</code> bytes apart in a
+     * ByteBuffer. The position and limit of <code>buffer</code> are ignored and not changed, except that the batch
+     * must end before the limit. Otherwise this method behaves as
+     * {@link #convertIntegerToPackedDecimal(int[], int, byte[], int, int, int, int, boolean)}.
+     * 
+     * @param integerArray
+     *            int array which holds the binary integers to convert
+     * @param integerOffset
+     *            offset in <code>integerArray</code> of the first value to convert
+     * @param buffer
+     *            ByteBuffer that will store the resulting Packed Decimal values
+     * @param index
+     *            index of the first byte of the first Packed Decimal in <code>buffer</code>
+     * @param stride
+     *            distance in bytes between the starts of consecutive Packed Decimals
+     * @param precision
+     *            number of Packed Decimal digits. Maximum valid precision is 253
+     * @param count
+     *            number of values to convert
+     * @param checkOverflow
+     *            if true an <code>ArithmenticException</code> will be thrown if a decimal value does not fit in the
+     *            specified precision (overflow)
+     * 
+     * @throws NullPointerException
+     *             if <code>integerArray</code> or <code>buffer</code> is null
+     * @throws ArrayIndexOutOfBoundsException
+     *             if the batch does not fit in <code>integerArray</code> or <code>buffer</code>
+     * @throws ArithmeticException
+     *             if the <code>checkOverflow</code> parameter is true and overflow occurs
+     * @throws IllegalArgumentException
+     *             if <code>count</code> is negative or <code>stride</code> is smaller than a Packed Decimal
+     * @throws java.nio.ReadOnlyBufferException
+     *             if <code>buffer</code> is read-only
+     */
+    public static void convertIntegerToPackedDecimal(final int[] integerArray, final int integerOffset,
+            ByteBuffer buffer, int index, final int stride, final int precision, int count,
+            final boolean checkOverflow) {
+        int fieldLength = CommonData.getPackedByteCount(precision);
+        checkStridedRegion("convertIntegerToPackedDecimal", "buffer", buffer.limit(), index, stride, fieldLength,
+                "integerArray", integerArray.length, integerOffset, count);
+
+        convertStrided(buffer, index, stride, fieldLength, count, true, new StridedConversion() {
+            public void convert(byte[] bytes, int offset, int first, int n) {
+                convertIntegerToPackedDecimal(integerArray, integerOffset + first, bytes, offset, stride, precision,
+                        n, checkOverflow);
+            }
+        });
+    }
+
+    /**
+     * Converts <code>count</code> binary longs into Packed Decimals, <code>stride</code> bytes apart in a byte array.
+     * The bytes between the Packed Decimals are not changed. The bounds of the whole batch are checked once before any
+     * value is converted. Otherwise each value is converted as by
+     * {@link #convertLongToPackedDecimal(long, byte[], int, int, boolean)}.
+     * 
+     * @param longArray
+     *            long array which holds the binary longs to convert
+     * @param longOffset
+     *            offset in <code>longArray</code> of the first value to convert
+     * @param packedDecimal
+     *            byte array that will store the resulting Packed Decimal values
+     * @param offset
+     *            offset of the first byte of the first Packed Decimal in <code>packedDecimal</code>
+     * @param stride
+     *            distance in bytes between the starts of consecutive Packed Decimals
+     * @param precision
+     *            number of Packed Decimal digits. Maximum valid precision is 253
+     * @param count
+     *            number of values to convert
+     * @param checkOverflow
+     *            if true an <code>ArithmenticException</code> will be thrown if a decimal value does not fit in the
+     *            specified precision (overflow)
+     * 
+     * @throws NullPointerException
+     *             if <code>longArray</code> or <code>packedDecimal</code> is null
+     * @throws ArrayIndexOutOfBoundsException
+     *             if the batch does not fit in <code>longArray</code> or <code>packedDecimal</code>
+     * @throws ArithmeticException
+     *             if the <code>checkOverflow</code> parameter is true and overflow occurs
+     * @throws IllegalArgumentException
+     *             if <code>count</code> is negative or <code>stride</code> is smaller than a Packed Decimal
+     */
+    public static void convertLongToPackedDecimal(long[] longArray, int longOffset, byte[] packedDecimal, int offset,
+            int stride, int precision, int count, boolean checkOverflow) {
+        checkStridedRegion("convertLongToPackedDecimal", "packedDecimal", packedDecimal.length, offset, stride,
+                CommonData.getPackedByteCount(precision), "longArray", longArray.length, longOffset, count);
+
+        if (JITIntrinsicsEnabled()) {
+            for (int i = 0; i < count; i++, offset += stride)
+                convertLongToPackedDecimal(longArray[longOffset + i], packedDecimal, offset, precision,
+                        checkOverflow);
+        } else {
+            for (int i = 0; i < count; i++, offset += stride)
+                convertLongToPackedDecimal_(longArray[longOffset + i], packedDecimal, offset, precision,
+                        checkOverflow);
+        }
+    }
+
+    /**
+     * Converts <code>count</code> binary longs into Packed Decimals, <code>stride</code> bytes apart in a ByteBuffer.
+     * The position and limit of <code>buffer</code> are ignored and not changed, except that the batch must end
+     * before the limit. Otherwise this method behaves as
+     * {@link #convertLongToPackedDecimal(long[], int, byte[], int, int, int, int, boolean)}.
+     * 
+     * @param longArray
+     *            long array which holds the binary longs to convert
+     * @param longOffset
+     *            offset in <code>longArray</code> of the first value to convert
+     * @param buffer
+     *            ByteBuffer that will store the resulting Packed Decimal values
+     * @param index
+     *            index of the first byte of the first Packed Decimal in <code>buffer</code>
+     * @param stride
+     *            distance in bytes between the starts of consecutive Packed Decimals
+     * @param precision
+     *            number of Packed Decimal digits. Maximum valid precision is 253
+     * @param count
+     *            number of values to convert
+     * @param checkOverflow
+     *            if true an <code>ArithmenticException</code> will be thrown if a decimal value does not fit in the
+     *            specified precision (overflow)
+     * 
+     * @throws NullPointerException
+     *             if <code>longArray</code> or <code>buffer</code> is null
+     * @throws ArrayIndexOutOfBoundsException
+     *             if the batch does not fit in <code>longArray</code> or <code>buffer</code>
+     * @throws ArithmeticException
+     *             if the <code>checkOverflow</code> parameter is true and overflow occurs
+     * @throws IllegalArgumentException
+     *             if <code>count</code> is negative or <code>stride</code> is smaller than a Packed Decimal
+     * @throws java.nio.ReadOnlyBufferException
+     *             if <code>buffer</code> is read-only
+     */
+    public static void convertLongToPackedDecimal(final long[] longArray, final int longOffset, ByteBuffer buffer,
+            int index, final int stride, final int precision, int count, final boolean checkOverflow) {
+        int fieldLength = CommonData.getPackedByteCount(precision);
+        checkStridedRegion("convertLongToPackedDecimal", "buffer", buffer.limit(), index, stride, fieldLength,
+                "longArray", longArray.length, longOffset, count);
+
+        convertStrided(buffer, index, stride, fieldLength, count, true, new StridedConversion() {
+            public void convert(byte[] bytes, int offset, int first, int n) {
+                convertLongToPackedDecimal(longArray, longOffset + first, bytes, offset, stride, precision, n,
+                        checkOverflow);
+            }
+        });
+    }
+
+    /**
+     * Converts <code>count</code> BigDecimals into Packed Decimals, <code>stride</code> bytes apart in a byte array.
+     * The bytes between the Packed Decimals are not changed. The bounds of the whole batch are checked once before any
+     * value is converted. Otherwise each value is converted as by
+     * {@link #convertBigDecimalToPackedDecimal(BigDecimal, byte[], int, int, boolean)}.
+     * 
+     * @param bigDecimalArray
+     *            BigDecimal array which holds the values to convert
+     * @param bigDecimalOffset
+     *            offset in <code>bigDecimalArray</code> of the first value to convert
+     * @param packedDecimal
+     *            byte array that will store the resulting Packed Decimal values
+     * @param offset
+     *            offset of the first byte of the first Packed Decimal in <code>packedDecimal</code>
+     * @param stride
+     *            distance in bytes between the starts of consecutive Packed Decimals
+     * @param precision
+     *            number of Packed Decimal digits. Maximum valid precision is 253
+     * @param count
+     *            number of values to convert
+     * @param checkOverflow
+     *            if true an <code>ArithmenticException</code> will be thrown if a decimal value does not fit in the
+     *            specified precision (overflow)
+     * 
+     * @throws NullPointerException
+     *             if <code>bigDecimalArray</code>, one of the converted BigDecimals or <code>packedDecimal</code> is
+     *             null
+     * @throws ArrayIndexOutOfBoundsException
+     *             if the batch does not fit in <code>bigDecimalArray</code> or <code>packedDecimal</code>
+     * @throws ArithmeticException
+     *             if the <code>checkOverflow</code> parameter is true and overflow occurs
+     * @throws IllegalArgumentException
+     *             if <code>count</code> is negative or <code>stride</code> is smaller than a Packed Decimal
+     */
+    public static void convertBigDecimalToPackedDecimal(BigDecimal[] bigDecimalArray, int bigDecimalOffset,
+            byte[] packedDecimal, int offset, int stride, int precision, int count, boolean checkOverflow) {
+        checkStridedRegion("convertBigDecimalToPackedDecimal", "packedDecimal", packedDecimal.length, offset, stride,
+                CommonData.getPackedByteCount(precision), "bigDecimalArray", bigDecimalArray.length,
+                bigDecimalOffset, count);
+
+        for (int i = 0; i < count; i++, offset += stride)
+            convertBigDecimalToPackedDecimal(bigDecimalArray[bigDecimalOffset + i], packedDecimal, offset, precision,
+                    checkOverflow);
+    }
+
+    /**
+     * Converts <code>count</code> BigDecimals into Packed Decimals, <code>stride</code> bytes apart in a ByteBuffer.
+     * The position and limit of <code>buffer</code> are ignored and not changed, except that the batch must end
+     * before the limit. Otherwise this method behaves as
+     * {@link #convertBigDecimalToPackedDecimal(BigDecimal[], int, byte[], int, int, int, int, boolean)}.
+     * 
+     * @param bigDecimalArray
+     *            BigDecimal array which holds the values to convert
+     * @param bigDecimalOffset
+     *            offset in <code>bigDecimalArray</code> of the first value to convert
+     * @param buffer
+     *            ByteBuffer that will store the resulting Packed Decimal values
+     * @param index
+     *            index of the first byte of the first Packed Decimal in <code>buffer</code>
+     * @param stride
+     *            distance in bytes between the starts of consecutive Packed Decimals
+     * @param precision
+     *            number of Packed Decimal digits. Maximum valid precision is 253
+     * @param count
+     *            number of values to convert
+     * @param checkOverflow
+     *            if true an <code>ArithmenticException</code> will be thrown if a decimal value does not fit in the
+     *            specified precision (overflow)
+     * 
+     * @throws NullPointerException
+     *             if <code>bigDecimalArray</code>, one of the converted BigDecimals or <code>buffer</code> is null
+     * @throws ArrayIndexOutOfBoundsException
+     *             if the batch does not fit in <code>bigDecimalArray</code> or <code>buffer</code>
+     * @throws ArithmeticException
+     *             if the <code>checkOverflow</code> parameter is true and overflow occurs
+     * @throws IllegalArgumentException
+     *             if <code>count</code> is negative or <code>stride</code> is smaller than a Packed Decimal
+     * @throws java.nio.ReadOnlyBufferException
+     *             if <code>buffer</code> is read-only
+     */
+    public static void convertBigDecimalToPackedDecimal(final BigDecimal[] bigDecimalArray,
+            final int bigDecimalOffset, ByteBuffer buffer, int index, final int stride, final int precision,
+            int count, final boolean checkOverflow) {
+        int fieldLength = CommonData.getPackedByteCount(precision);
+        checkStridedRegion("convertBigDecimalToPackedDecimal", "buffer", buffer.limit(), index, stride, fieldLength,
+                "bigDecimalArray", bigDecimalArray.length, bigDecimalOffset, count);
+
+        convertStrided(buffer, index, stride, fieldLength, count, true, new StridedConversion() {
+            public void convert(byte[] bytes, int offset, int first, int n) {
+                convertBigDecimalToPackedDecimal(bigDecimalArray, bigDecimalOffset + first, bytes, offset, stride,
+                        precision, n, checkOverflow);
+            }
+        });
+    }
+
+    /**
+     * Converts <code>count</code> External Decimal values, <code>stride</code> bytes apart in a byte array, into
+     * binary integers. The bounds, precision and type of the whole batch are checked once before any value is
+     * converted. Otherwise each value is converted as by {@link #convertExternalDecimalToInteger(byte[], int, int,
+     * boolean, int)}.
+     * 
+     * @param externalDecimal
+     *            byte array which contains the External Decimal values
+     * @param offset
+     *            offset of the first byte of the first External Decimal in <code>externalDecimal</code>
+     * @param stride
+     *            distance in bytes between the starts of consecutive External Decimals
+     * @param precision
+     *            number of decimal digits of each External Decimal. Maximum valid precision is 253
+     * @param integerArray
+     *            int array that will hold the resulting binary integers
+     * @param integerOffset
+     *            offset in <code>integerArray</code> where the first result is stored
+     * @param count
+     *            number of values to convert
+     * @param checkOverflow
+     *            if true an <code>ArithmeticException</code> or <code>IllegalArgumentException</code> may be thrown
+     * @param decimalType
+     *            constant value indicating the type of the External Decimals
+     * 
+     * @throws NullPointerException
+     *             if <code>externalDecimal</code> or <code>integerArray</code> is null
+     * @throws ArrayIndexOutOfBoundsException
+     *             if the batch does not fit in <code>externalDecimal</code> or <code>integerArray</code>
+     * @throws ArithmeticException
+     *             if <code>checkOverflow</code> is true and a result does not fit into an int (overflow)
+     * @throws IllegalArgumentException
+     *             if <code>precision</code> or <code>decimalType</code> is invalid, <code>count</code> is negative or
+     *             <code>stride</code> is smaller than an External Decimal
+     */
+    public static void convertExternalDecimalToInteger(byte[] externalDecimal, int offset, int stride, int precision,
+            int[] integerArray, int integerOffset, int count, boolean checkOverflow, int decimalType) {
+        checkExternalDecimal(precision, decimalType);
+        checkStridedRegion("convertExternalDecimalToInteger", "externalDecimal", externalDecimal.length, offset, stride,
+                CommonData.getExternalByteCounts(precision, decimalType), "integerArray", integerArray.length,
+                        integerOffset, count);
+
+        if (JITIntrinsicsEnabled()) {
+            for (int i = 0; i < count; i++, offset += stride)
+                integerArray[integerOffset + i] = convertExternalDecimalToInteger(externalDecimal, offset, precision,
+                        checkOverflow, decimalType);
+        } else {
+            for (int i = 0; i < count; i++, offset += stride)
+                integerArray[integerOffset + i] = convertExternalDecimalToInteger_(externalDecimal, offset, precision,
+                        checkOverflow, decimalType);
+        }
+    }
+
+    /**
+     * Converts <code>count</code> External Decimal values, <code>stride</code> bytes apart in a ByteBuffer, into
+     * binary integers. The position and limit of <code>buffer</code> are ignored and not changed, except that the batch
+     * must end before the limit. Otherwise this method behaves as
+     * {@link #convertExternalDecimalToInteger(byte[], int, int, int, int[], int, int, boolean, int)}.
+     * 
+     * @param buffer
+     *            ByteBuffer which contains the External Decimal values
+     * @param index
+     *            index of the first byte of the first External Decimal in <code>buffer</code>
+     * @param stride
+     *            distance in bytes between the starts of consecutive External Decimals
+     * @param precision
+     *            number of decimal digits of each External Decimal. Maximum valid precision is 253
+     * @param integerArray
+     *            int array that will hold the resulting binary integers
+     * @param integerOffset
+     *            offset in <code>integerArray</code> where the first result is stored
+     * @param count
+     *            number of values to convert
+     * @param checkOverflow
+     *            if true an <code>ArithmeticException</code> or <code>IllegalArgumentException</code> may be thrown
+     * @param decimalType
+     *            constant value indicating the type of the External Decimals
+     * 
+     * @throws NullPointerException
+     *             if <code>buffer</code> or <code>integerArray</code> is null
+     * @throws ArrayIndexOutOfBoundsException
+     *             if the batch does not fit in <code>buffer</code> or <code>integerArray</code>
+     * @throws ArithmeticException
+     *             if <code>checkOverflow</code> is true and a result does not fit into an int (overflow)
+     * @throws IllegalArgumentException
+     *             if <code>precision</code> or <code>decimalType</code> is invalid, <code>count</code> is negative or
+     *             <code>stride</code> is smaller than an External Decimal
+     */
+    public static void convertExternalDecimalToInteger(ByteBuffer buffer, int index, final int stride,
+            final int precision, final int[] integerArray, final int integerOffset, int count,
+            final boolean checkOverflow, final int decimalType) {
+        checkExternalDecimal(precision, decimalType);
+        int fieldLength = CommonData.getExternalByteCounts(precision, decimalType);
+        checkStridedRegion("convertExternalDecimalToInteger", "buffer", buffer.limit(), index, stride, fieldLength,
+                "integerArray", integerArray.length, integerOffset, count);
+
+        convertStrided(buffer, index, stride, fieldLength, count, false, new StridedConversion() {
+            public void convert(byte[] bytes, int offset, int first, int n) {
+                convertExternalDecimalToInteger(bytes, offset, stride, precision, integerArray, integerOffset + first,
+                        n, checkOverflow, decimalType);
+            }
+        });
+    }
+
+    /**
+     * Converts <code>count</code> External Decimal values, <code>stride</code> bytes apart in a byte array, into
+     * binary longs. The bounds, precision and type of the whole batch are checked once before any value is converted.
+     * Otherwise each value is converted as by {@link #convertExternalDecimalToLong(byte[], int, int, boolean, int)}.
+     * 
+     * @param externalDecimal
+     *            byte array which contains the External Decimal values
+     * @param offset
+     *            offset of the first byte of the first External Decimal in <code>externalDecimal</code>
+     * @param stride
+     *            distance in bytes between the starts of consecutive External Decimals
+     * @param precision
+     *            number of decimal digits of each External Decimal. Maximum valid precision is 253
+     * @param longArray
+     *            long array that will hold the resulting binary longs
+     * @param longOffset
+     *            offset in <code>longArray</code> where the first result is stored
+     * @param count
+     *            number of values to convert
+     * @param checkOverflow
+     *            if true an <code>ArithmeticException</code> or <code>IllegalArgumentException</code> may be thrown
+     * @param decimalType
+     *            constant value indicating the type of the External Decimals
+     * 
+     * @throws NullPointerException
+     *             if <code>externalDecimal</code> or <code>longArray</code> is null
+     * @throws ArrayIndexOutOfBoundsException
+     *             if the batch does not fit in <code>externalDecimal</code> or <code>longArray</code>
+     * @throws ArithmeticException
+     *             if <code>checkOverflow</code> is true and a result does not fit into a long (overflow)
+     * @throws IllegalArgumentException
+     *             if <code>precision</code> or <code>decimalType</code> is invalid, <code>count</code> is negative or
+     *             <code>stride</code> is smaller than an External Decimal
+     */
+    public static void convertExternalDecimalToLong(byte[] externalDecimal, int offset, int stride, int precision,
+            long[] longArray, int longOffset, int count, boolean checkOverflow, int decimalType) {
+        checkExternalDecimal(precision, decimalType);
+        checkStridedRegion("convertExternalDecimalToLong", "externalDecimal", externalDecimal.length, offset, stride,
+                CommonData.getExternalByteCounts(precision, decimalType), "longArray", longArray.length, longOffset,
+                        count);
+
+        if (JITIntrinsicsEnabled()) {
+            for (int i = 0; i < count; i++, offset += stride)
+                longArray[longOffset + i] = convertExternalDecimalToLong(externalDecimal, offset, precision,
+                        checkOverflow, decimalType);
+        } else {
+            for (int i = 0; i < count; i++, offset += stride)
+                longArray[longOffset + i] = convertExternalDecimalToLong_(externalDecimal, offset, precision,
+                        checkOverflow, decimalType);
+        }
+    }
+
+    /**
+     * Converts <code>count</code> External Decimal values, <code>stride</code> bytes apart in a ByteBuffer, into
+     * binary longs. The position and limit of <code>buffer</code> are ignored and not changed, except that the batch
+     * must end before the limit. Otherwise this method behaves as
+     * {@link #convertExternalDecimalToLong(byte[], int, int, int, long[], int, int, boolean, int)}.
+     * 
+     * @param buffer
+     *            ByteBuffer which contains the External Decimal values
+     * @param index
+     *            index of the first byte of the first External Decimal in <code>buffer</code>
+     * @param stride
+     *            distance in bytes between the starts of consecutive External Decimals
+     * @param precision
+     *            number of decimal digits of each External Decimal. Maximum valid precision is 253
+     * @param longArray
+     *            long array that will hold the resulting binary longs
+     * @param longOffset
+     *            offset in <code>longArray</code> where the first result is stored
+     * @param count
+     *            number of values to convert
+     * @param checkOverflow
+     *            if true an <code>ArithmeticException</code> or <code>IllegalArgumentException</code> may be thrown
+     * @param decimalType
+     *            constant value indicating the type of the External Decimals
+     * 
+     * @throws NullPointerException
+     *             if <code>buffer</code> or <code>longArray</code> is null
+     * @throws ArrayIndexOutOfBoundsException
+     *             if the batch does not fit in <code>buffer</code> or <code>longArray</code>
+     * @throws ArithmeticException
+     *             if <code>checkOverflow</code> is true and a result does not fit into a long (overflow)
+     * @throws IllegalArgumentException
+     *             if <code>precision</code> or <code>decimalType</code> is invalid, <code>count</code> is negative or
+     *             <code>stride</code> is smaller than an External Decimal
+     */
+    public static void convertExternalDecimalToLong(ByteBuffer buffer, int index, final int stride,
+            final int precision, final long[] longArray, final int longOffset, int count,
+            final boolean checkOverflow, final int decimalType) {
+        checkExternalDecimal(precision, decimalType);
+        int fieldLength = CommonData.getExternalByteCounts(precision, decimalType);
+        checkStridedRegion("convertExternalDecimalToLong", "buffer", buffer.limit(), index, stride, fieldLength,
+                "longArray", longArray.length, longOffset, count);
+
+        convertStrided(buffer, index, stride, fieldLength, count, false, new StridedConversion() {
+            public void convert(byte[] bytes, int offset, int first, int n) {
+                convertExternalDecimalToLong(bytes, offset, stride, precision, longArray, longOffset + first,
+                        n, checkOverflow, decimalType);
+            }
+        });
+    }
+
+    /**
+     * Converts <code>count</code> External Decimal values, <code>stride</code> bytes apart in a byte array, into
+     * BigDecimals. The bounds, precision and type of the whole batch are checked once before any value is converted.
+     * Otherwise each value is converted as by {@link #convertExternalDecimalToBigDecimal(byte[], int, int, int,
+     * boolean, int)}.
+     * 
+     * @param externalDecimal
+     *            byte array which contains the External Decimal values
+     * @param offset
+     *            offset of the first byte of the first External Decimal in <code>externalDecimal</code>
+     * @param stride
+     *            distance in bytes between the starts of consecutive External Decimals
+     * @param precision
+     *            number of decimal digits of each External Decimal. Maximum valid precision is 253
+     * @param scale
+     *            scale of the resulting BigDecimals
+     * @param bigDecimalArray
+     *            BigDecimal array that will hold the resulting BigDecimals
+     * @param bigDecimalOffset
+     *            offset in <code>bigDecimalArray</code> where the first result is stored
+     * @param count
+     *            number of values to convert
+     * @param checkOverflow
+     *            if true an <code>ArithmeticException</code> or <code>IllegalArgumentException</code> may be thrown
+     * @param decimalType
+     *            constant value indicating the type of the External Decimals
+     * 
+     * @throws NullPointerException
+     *             if <code>externalDecimal</code> or <code>bigDecimalArray</code> is null
+     * @throws ArrayIndexOutOfBoundsException
+     *             if the batch does not fit in <code>externalDecimal</code> or <code>bigDecimalArray</code>
+     * @throws ArithmeticException
+     *             if <code>checkOverflow</code> is true and a result overflows
+     * @throws IllegalArgumentException
+     *             if <code>precision</code> or <code>decimalType</code> is invalid, <code>count</code> is negative or
+     *             <code>stride</code> is smaller than an External Decimal
+     */
+    public static void convertExternalDecimalToBigDecimal(byte[] externalDecimal, int offset, int stride, int precision,
+            int scale, BigDecimal[] bigDecimalArray, int bigDecimalOffset, int count, boolean checkOverflow,
+            int decimalType) {
+        checkExternalDecimal(precision, decimalType);
+        checkStridedRegion("convertExternalDecimalToBigDecimal", "externalDecimal", externalDecimal.length, offset,
+                stride, CommonData.getExternalByteCounts(precision, decimalType), "bigDecimalArray",
+                        bigDecimalArray.length, bigDecimalOffset, count);
+
+        for (int i = 0; i < count; i++, offset += stride)
+            bigDecimalArray[bigDecimalOffset + i] = convertExternalDecimalToBigDecimal(externalDecimal, offset,
+                    precision, scale, checkOverflow, decimalType);
+    }
+
+    /**
+     * Converts <code>count</code> External Decimal values, <code>stride</code> bytes apart in a ByteBuffer, into
+     * BigDecimals. The position and limit of <code>buffer</code> are ignored and not changed, except that the batch
+     * must end before the limit. Otherwise this method behaves as
+     * {@link #convertExternalDecimalToBigDecimal(byte[], int, int, int, int, BigDecimal[], int, int, boolean, int)}.
+     * 
+     * @param buffer
+     *            ByteBuffer which contains the External Decimal values
+     * @param index
+     *            index of the first byte of the first External Decimal in <code>buffer</code>
+     * @param stride
+     *            distance in bytes between the starts of consecutive External Decimals
+     * @param precision
+     *            number of decimal digits of each External Decimal. Maximum valid precision is 253
+     * @param scale
+     *            scale of the resulting BigDecimals
+     * @param bigDecimalArray
+     *            BigDecimal array that will hold the resulting BigDecimals
+     * @param bigDecimalOffset
+     *            offset in <code>bigDecimalArray</code> where the first result is stored
+     * @param count
+     *            number of values to convert
+     * @param checkOverflow
+     *            if true an <code>ArithmeticException</code> or <code>IllegalArgumentException</code> may be thrown
+     * @param decimalType
+     *            constant value indicating the type of the External Decimals
+     * 
+     * @throws NullPointerException
+     *             if <code>buffer</code> or <code>bigDecimalArray</code> is null
+     * @throws ArrayIndexOutOfBoundsException
+     *             if the batch does not fit in <code>buffer</code> or <code>bigDecimalArray</code>
+     * @throws ArithmeticException
+     *             if <code>checkOverflow</code> is true and a result overflows
+     * @throws IllegalArgumentException
+     *             if <code>precision</code> or <code>decimalType</code> is invalid, <code>count</code> is negative or
+     *             <code>stride</code> is smaller than an External Decimal
+     */
+    public static void convertExternalDecimalToBigDecimal(ByteBuffer buffer, int index, final int stride,
+            final int precision, final int scale, final BigDecimal[] bigDecimalArray, final int bigDecimalOffset,
+            int count, final boolean checkOverflow, final int decimalType) {
+        checkExternalDecimal(precision, decimalType);
+        int fieldLength = CommonData.getExternalByteCounts(precision, decimalType);
+        checkStridedRegion("convertExternalDecimalToBigDecimal", "buffer", buffer.limit(), index, stride, fieldLength,
+                "bigDecimalArray", bigDecimalArray.length, bigDecimalOffset, count);
+
+        convertStrided(buffer, index, stride, fieldLength, count, false, new StridedConversion() {
+            public void convert(byte[] bytes, int offset, int first, int n) {
+                convertExternalDecimalToBigDecimal(bytes, offset, stride, precision, scale, bigDecimalArray,
+                        bigDecimalOffset + first, n, checkOverflow, decimalType);
+            }
+        });
+    }
+
+    /**
+     * Converts <code>count</code> binary integers into External Decimals, <code>stride</code> bytes apart in a byte
+     * array. The bytes between the External Decimals are not changed. The bounds, precision and type of the whole batch
+     * are checked once before any value is converted. Otherwise each value is converted as by
+     * {@link #convertIntegerToExternalDecimal(int, byte[], int, int, boolean, int)}.
+     * 
+     * @param integerArray
+     *            int array which holds the values to convert
+     * @param integerOffset
+     *            offset in <code>integerArray</code> of the first value to convert
+     * @param externalDecimal
+     *            byte array that will store the resulting External Decimal values
+     * @param offset
+     *            offset of the first byte of the first External Decimal in <code>externalDecimal</code>
+     * @param stride
+     *            distance in bytes between the starts of consecutive External Decimals
+     * @param precision
+     *            number of External Decimal digits. Maximum valid precision is 253
+     * @param count
+     *            number of values to convert
+     * @param checkOverflow
+     *            if true an <code>ArithmenticException</code> will be thrown if a decimal value does not fit in the
+     *            specified precision (overflow)
+     * @param decimalType
+     *            constant value indicating the type of the External Decimals
+     * 
+     * @throws NullPointerException
+     *             if <code>integerArray</code> or <code>externalDecimal</code> is null
+     * @throws ArrayIndexOutOfBoundsException
+     *             if the batch does not fit in <code>integerArray</code> or <code>externalDecimal</code>
+     * @throws ArithmeticException
+     *             if the <code>checkOverflow</code> parameter is true and overflow occurs
+     * @throws IllegalArgumentException
+     *             if <code>precision</code> or <code>decimalType</code> is invalid, <code>count</code> is negative or
+     *             <code>stride</code> is smaller than an External Decimal
+     */
+    public static void convertIntegerToExternalDecimal(int[] integerArray, int integerOffset, byte[] externalDecimal,
+            int offset, int stride, int precision, int count, boolean checkOverflow, int decimalType) {
+        checkExternalDecimal(precision, decimalType);
+        checkStridedRegion("convertIntegerToExternalDecimal", "externalDecimal", externalDecimal.length, offset, stride,
+                CommonData.getExternalByteCounts(precision, decimalType), "integerArray", integerArray.length,
+                        integerOffset, count);
+
+        if (JITIntrinsicsEnabled()) {
+            for (int i = 0; i < count; i++, offset += stride)
+                convertIntegerToExternalDecimal(integerArray[integerOffset + i], externalDecimal, offset, precision,
+                        checkOverflow, decimalType);
+        } else {
+            for (int i = 0; i < count; i++, offset += stride)
+                convertIntegerToExternalDecimal_(integerArray[integerOffset + i], externalDecimal, offset, precision,
+                        checkOverflow, decimalType);
+        }
+    }
+
+    /**
+     * Converts <code>count</code> binary integers into External Decimals, <code>stride</code> bytes apart in a
+     * ByteBuffer. The position and limit of <code>buffer</code> are ignored and not changed, except that the batch must
+     * end before the limit. Otherwise this method behaves as
+     * {@link #convertIntegerToExternalDecimal(int[], int, byte[], int, int, int, int, boolean, int)}.
+     * 
+     * @param integerArray
+     *            int array which holds the values to convert
+     * @param integerOffset
+     *            offset in <code>integerArray</code> of the first value to convert
+     * @param buffer
+     *            ByteBuffer that will store the resulting External Decimal values
+     * @param index
+     *            index of the first byte of the first External Decimal in <code>buffer</code>
+     * @param stride
+     *            distance in bytes between the starts of consecutive External Decimals
+     * @param precision
+     *            number of External Decimal digits. Maximum valid precision is 253
+     * @param count
+     *            number of values to convert
+     * @param checkOverflow
+     *            if true an <code>ArithmenticException</code> will be thrown if a decimal value does not fit in the
+     *            specified precision (overflow)
+     * @param decimalType
+     *            constant value indicating the type of the External Decimals
+     * 
+     * @throws NullPointerException
+     *             if <code>integerArray</code> or <code>buffer</code> is null
+     * @throws ArrayIndexOutOfBoundsException
+     *             if the batch does not fit in <code>integerArray</code> or <code>buffer</code>
+     * @throws ArithmeticException
+     *             if the <code>checkOverflow</code> parameter is true and overflow occurs
+     * @throws IllegalArgumentException
+     *             if <code>precision</code> or <code>decimalType</code> is invalid, <code>count</code> is negative or
+     *             <code>stride</code> is smaller than an External Decimal
+     * @throws java.nio.ReadOnlyBufferException
+     *             if <code>buffer</code> is read-only
+     */
+    public static void convertIntegerToExternalDecimal(final int[] integerArray, final int integerOffset,
+            ByteBuffer buffer, int index, final int stride, final int precision, int count, final boolean checkOverflow,
+            final int decimalType) {
+        checkExternalDecimal(precision, decimalType);
+        int fieldLength = CommonData.getExternalByteCounts(precision, decimalType);
+        checkStridedRegion("convertIntegerToExternalDecimal", "buffer", buffer.limit(), index, stride, fieldLength,
+                "integerArray", integerArray.length, integerOffset, count);
+
+        convertStrided(buffer, index, stride, fieldLength, count, true, new StridedConversion() {
+            public void convert(byte[] bytes, int offset, int first, int n) {
+                convertIntegerToExternalDecimal(integerArray, integerOffset + first, bytes, offset, stride, precision,
+                        n, checkOverflow, decimalType);
+            }
+        });
+    }
+
+    /**
+     * Converts <code>count</code> binary longs into External Decimals, <code>stride</code> bytes apart in a byte array.
+     * The bytes between the External Decimals are not changed. The bounds, precision and type of the whole batch are
+     * checked once before any value is converted. Otherwise each value is converted as by
+     * {@link #convertLongToExternalDecimal(long, byte[], int, int, boolean, int)}.
+     * 
+     * @param longArray
+     *            long array which holds the values to convert
+     * @param longOffset
+     *            offset in <code>longArray</code> of the first value to convert
+     * @param externalDecimal
+     *            byte array that will store the resulting External Decimal values
+     * @param offset
+     *            offset of the first byte of the first External Decimal in <code>externalDecimal</code>
+     * @param stride
+     *            distance in bytes between the starts of consecutive External Decimals
+     * @param precision
+     *            number of External Decimal digits. Maximum valid precision is 253
+     * @param count
+     *            number of values to convert
+     * @param checkOverflow
+     *            if true an <code>ArithmenticException</code> will be thrown if a decimal value does not fit in the
+     *            specified precision (overflow)
+     * @param decimalType
+     *            constant value indicating the type of the External Decimals
+     * 
+     * @throws NullPointerException
+     *             if <code>longArray</code> or <code>externalDecimal</code> is null
+     * @throws ArrayIndexOutOfBoundsException
+     *             if the batch does not fit in <code>longArray</code> or <code>externalDecimal</code>
+     * @throws ArithmeticException
+     *             if the <code>checkOverflow</code> parameter is true and overflow occurs
+     * @throws IllegalArgumentException
+     *             if <code>precision</code> or <code>decimalType</code> is invalid, <code>count</code> is negative or
+     *             <code>stride</code> is smaller than an External Decimal
+     */
+    public static void convertLongToExternalDecimal(long[] longArray, int longOffset, byte[] externalDecimal,
+            int offset, int stride, int precision, int count, boolean checkOverflow, int decimalType) {
+        checkExternalDecimal(precision, decimalType);
+        checkStridedRegion("convertLongToExternalDecimal", "externalDecimal", externalDecimal.length, offset, stride,
+                CommonData.getExternalByteCounts(precision, decimalType), "longArray", longArray.length, longOffset,
+                        count);
+
+        if (JITIntrinsicsEnabled()) {
+            for (int i = 0; i < count; i++, offset += stride)
+                convertLongToExternalDecimal(longArray[longOffset + i], externalDecimal, offset, precision,
+                        checkOverflow, decimalType);
+        } else {
+            for (int i = 0; i < count; i++, offset += stride)
+                convertLongToExternalDecimal_(longArray[longOffset + i], externalDecimal, offset, precision,
+                        checkOverflow, decimalType);
+        }
+    }
+
+    /**
+     * Converts <code>count</code> binary longs into External Decimals, <code>stride</code> bytes apart in a ByteBuffer.
+     * The position and limit of <code>buffer</code> are ignored and not changed, except that the batch must end
+     * before the limit. Otherwise this method behaves as
+     * {@link #convertLongToExternalDecimal(long[], int, byte[], int, int, int, int, boolean, int)}.
+     * 
+     * @param longArray
+     *            long array which holds the values to convert
+     * @param longOffset
+     *            offset in <code>longArray</code> of the first value to convert
+     * @param buffer
+     *            ByteBuffer that will store the resulting External Decimal values
+     * @param index
+     *            index of the first byte of the first External Decimal in <code>buffer</code>
+     * @param stride
+     *            distance in bytes between the starts of consecutive External Decimals
+     * @param precision
+     *            number of External Decimal digits. Maximum valid precision is 253
+     * @param count
+     *            number of values to convert
+     * @param checkOverflow
+     *            if true an <code>ArithmenticException</code> will be thrown if a decimal value does not fit in the
+     *            specified precision (overflow)
+     * @param decimalType
+     *            constant value indicating the type of the External Decimals
+     * 
+     * @throws NullPointerException
+     *             if <code>longArray</code> or <code>buffer</code> is null
+     * @throws ArrayIndexOutOfBoundsException
+     *             if the batch does not fit in <code>longArray</code> or <code>buffer</code>
+     * @throws ArithmeticException
+     *             if the <code>checkOverflow</code> parameter is true and overflow occurs
+     * @throws IllegalArgumentException
+     *             if <code>precision</code> or <code>decimalType</code> is invalid, <code>count</code> is negative or
+     *             <code>stride</code> is smaller than an External Decimal
+     * @throws java.nio.ReadOnlyBufferException
+     *             if <code>buffer</code> is read-only
+     */
+    public static void convertLongToExternalDecimal(final long[] longArray, final int longOffset, ByteBuffer buffer,
+            int index, final int stride, final int precision, int count, final boolean checkOverflow,
+            final int decimalType) {
+        checkExternalDecimal(precision, decimalType);
+        int fieldLength = CommonData.getExternalByteCounts(precision, decimalType);
+        checkStridedRegion("convertLongToExternalDecimal", "buffer", buffer.limit(), index, stride, fieldLength,
+                "longArray", longArray.length, longOffset, count);
+
+        convertStrided(buffer, index, stride, fieldLength, count, true, new StridedConversion() {
+            public void convert(byte[] bytes, int offset, int first, int n) {
+                convertLongToExternalDecimal(longArray, longOffset + first, bytes, offset, stride, precision, n,
+                        checkOverflow, decimalType);
+            }
+        });
+    }
+
+    /**
+     * Converts <code>count</code> BigDecimals into External Decimals, <code>stride</code> bytes apart in a byte array.
+     * The bytes between the External Decimals are not changed. The bounds, precision and type of the whole batch are
+     * checked once before any value is converted. Otherwise each value is converted as by
+     * {@link #convertBigDecimalToExternalDecimal(BigDecimal, byte[], int, int, boolean, int)}.
+     * 
+     * @param bigDecimalArray
+     *            BigDecimal array which holds the values to convert
+     * @param bigDecimalOffset
+     *            offset in <code>bigDecimalArray</code> of the first value to convert
+     * @param externalDecimal
+     *            byte array that will store the resulting External Decimal values
+     * @param offset
+     *            offset of the first byte of the first External Decimal in <code>externalDecimal</code>
+     * @param stride
+     *            distance in bytes between the starts of consecutive External Decimals
+     * @param precision
+     *            number of External Decimal digits. Maximum valid precision is 253
+     * @param count
+     *            number of values to convert
+     * @param checkOverflow
+     *            if true an <code>ArithmenticException</code> will be thrown if a decimal value does not fit in the
+     *            specified precision (overflow)
+     * @param decimalType
+     *            constant value indicating the type of the External Decimals
+     * 
+     * @throws NullPointerException
+     *             if <code>bigDecimalArray</code>, one of the converted BigDecimals or <code>externalDecimal</code> is
+     *             null
+     * @throws ArrayIndexOutOfBoundsException
+     *             if the batch does not fit in <code>bigDecimalArray</code> or <code>externalDecimal</code>
+     * @throws ArithmeticException
+     *             if the <code>checkOverflow</code> parameter is true and overflow occurs
+     * @throws IllegalArgumentException
+     *             if <code>precision</code> or <code>decimalType</code> is invalid, <code>count</code> is negative or
+     *             <code>stride</code> is smaller than an External Decimal
+     */
+    public static void convertBigDecimalToExternalDecimal(BigDecimal[] bigDecimalArray, int bigDecimalOffset,
+            byte[] externalDecimal, int offset, int stride, int precision, int count, boolean checkOverflow,
+            int decimalType) {
+        checkExternalDecimal(precision, decimalType);
+        checkStridedRegion("convertBigDecimalToExternalDecimal", "externalDecimal", externalDecimal.length, offset,
+                stride, CommonData.getExternalByteCounts(precision, decimalType), "bigDecimalArray",
+                        bigDecimalArray.length, bigDecimalOffset, count);
+
+        for (int i = 0; i < count; i++, offset += stride)
+            convertBigDecimalToExternalDecimal(bigDecimalArray[bigDecimalOffset + i], externalDecimal, offset,
+                    precision, checkOverflow, decimalType);
+    }
+
+    /**
+     * Converts <code>count</code> BigDecimals into External Decimals, <code>stride</code> bytes apart in a ByteBuffer.
+     * The position and limit of <code>buffer</code> are ignored and not changed, except that the batch must end
+     * before the limit. Otherwise this method behaves as
+     * {@link #convertBigDecimalToExternalDecimal(BigDecimal[], int, byte[], int, int, int, int, boolean, int)}.
+     * 
+     * @param bigDecimalArray
+     *            BigDecimal array which holds the values to convert
+     * @param bigDecimalOffset
+     *            offset in <code>bigDecimalArray</code> of the first value to convert
+     * @param buffer
+     *            ByteBuffer that will store the resulting External Decimal values
+     * @param index
+     *            index of the first byte of the first External Decimal in <code>buffer</code>
+     * @param stride
+     *            distance in bytes between the starts of consecutive External Decimals
+     * @param precision
+     *            number of External Decimal digits. Maximum valid precision is 253
+     * @param count
+     *            number of values to convert
+     * @param checkOverflow
+     *            if true an <code>ArithmenticException</code> will be thrown if a decimal value does not fit in the
+     *            specified precision (overflow)
+     * @param decimalType
+     *            constant value indicating the type of the External Decimals
+     * 
+     * @throws NullPointerException
+     *             if <code>bigDecimalArray</code>, one of the converted BigDecimals or <code>buffer</code> is null
+     * @throws ArrayIndexOutOfBoundsException
+     *             if the batch does not fit in <code>bigDecimalArray</code> or <code>buffer</code>
+     * @throws ArithmeticException
+     *             if the <code>checkOverflow</code> parameter is true and overflow occurs
+     * @throws IllegalArgumentException
+     *             if <code>precision</code> or <code>decimalType</code> is invalid, <code>count</code> is negative or
+     *             <code>stride</code> is smaller than an External Decimal
+     * @throws java.nio.ReadOnlyBufferException
+     *             if <code>buffer</code> is read-only
+     */
+    public static void convertBigDecimalToExternalDecimal(final BigDecimal[] bigDecimalArray,
+            final int bigDecimalOffset, ByteBuffer buffer, int index, final int stride, final int precision,
+            int count, final boolean checkOverflow, final int decimalType) {
+        checkExternalDecimal(precision, decimalType);
+        int fieldLength = CommonData.getExternalByteCounts(precision, decimalType);
+        checkStridedRegion("convertBigDecimalToExternalDecimal", "buffer", buffer.limit(), index, stride, fieldLength,
+                "bigDecimalArray", bigDecimalArray.length, bigDecimalOffset, count);
+
+        convertStrided(buffer, index, stride, fieldLength, count, true, new StridedConversion() {
+            public void convert(byte[] bytes, int offset, int first, int n) {
+                convertBigDecimalToExternalDecimal(bigDecimalArray, bigDecimalOffset + first, bytes, offset, stride,
+                        precision, n, checkOverflow, decimalType);
+            }
+        });
+    }
+
     // below is code taken from BigDecimalConverters
     // these are special functions recognized by the jit
     private static boolean DFPFacilityAvailable() {
@@ -1,6 +1,6 @@
 /*[INCLUDE-IF DAA]*/
 /*******************************************************************************
- * Copyright (c) 2013, 2015 IBM Corp. and others
+ * Copyright (c) 2013, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -23,7 +23,6 @@
 
 package com.ibm.dataaccess;
 
-import java.math.BigInteger;
 import java.util.Arrays;
 
 import com.ibm.dataaccess.CommonData;
@@ -301,6 +300,9 @@ public final class PackedDecimal {
             int resultPrecision, byte[] op1Decimal, int op1Offset,
             int op1Precision, byte[] op2Decimal, int op2Offset,
             int op2Precision, boolean checkOverflow) throws ArithmeticException {
+        if (addLongWords(result, resultOffset, resultPrecision, op1Decimal, op1Offset,
+                op1Precision, op2Decimal, op2Offset, op2Precision, false))
+            return;
         // capture result type information
         sum_threadLocal.get().setSumOperand(result, resultOffset,
                 resultPrecision);
@@ -371,6 +373,9 @@ public final class PackedDecimal {
             int resultPrecision, byte[] op1Decimal, int op1Offset,
             int op1Precision, byte[] op2Decimal, int op2Offset,
             int op2Precision, boolean checkOverflow) throws ArithmeticException {
+        if (addLongWords(result, resultOffset, resultPrecision, op1Decimal, op1Offset,
+                op1Precision, op2Decimal, op2Offset, op2Precision, true))
+            return;
 
         PackedDecimalOperand sum = sum_threadLocal.get();
         PackedDecimalOperand op1 = op1_threadLocal.get();
@@ -598,13 +603,159 @@ public final class PackedDecimal {
         }
     }
 
-    // The implementations of multiply, divide and remainder are based on
-    // BigDecimal
-    // for simplicity and also because it has been shown that they have
-    // acceptable performance.
+    /**
+     * Adds or subtracts Packed Decimals of up to 31 digits sixteen digits at a time, working directly on the packed
+     * nibbles held in pairs of longs. Returns false without touching the result if an operand holds an invalid digit
+     * or the result does not fit, leaving the byte-wise implementation to apply its overflow and truncation rules.
+     */
+    private static boolean addLongWords(byte[] result, int resultOffset,
+            int resultPrecision, byte[] op1Decimal, int op1Offset,
+            int op1Precision, byte[] op2Decimal, int op2Offset,
+            int op2Precision, boolean subtract) {
+        if (resultPrecision < 1 || resultPrecision > LONG_WORD_PRECISION
+                || op1Precision < 1 || op1Precision > LONG_WORD_PRECISION
+                || op2Precision < 1 || op2Precision > LONG_WORD_PRECISION)
+            return false;
+
+        // the byte-wise implementation treats the unused high nibble of an even precision as a digit
+        if ((op1Precision % 2 == 0 && (op1Decimal[op1Offset] & CommonData.HIGHER_NIBBLE_MASK) != 0)
+                || (op2Precision % 2 == 0 && (op2Decimal[op2Offset] & CommonData.HIGHER_NIBBLE_MASK) != 0))
+            return false;
+
+        int op1End = op1Offset + precisionToByteLength(op1Precision) - 1;
+        int op2End = op2Offset + precisionToByteLength(op2Precision) - 1;
+        long op1Low = getWord(op1Decimal, op1Offset, op1End, 0);
+        long op1High = getWord(op1Decimal, op1Offset, op1End, 1);
+        long op2Low = getWord(op2Decimal, op2Offset, op2End, 0);
+        long op2High = getWord(op2Decimal, op2Offset, op2End, 1);
+        if (hasInvalidDigit(op1Low) || hasInvalidDigit(op1High) || hasInvalidDigit(op2Low) || hasInvalidDigit(op2High))
+            return false;
+
+        byte op1Sign = CommonData.getSign(op1Decimal[op1End] & CommonData.LOWER_NIBBLE_MASK);
+        byte op2Sign = CommonData.getSign(op2Decimal[op2End] & CommonData.LOWER_NIBBLE_MASK);
+        if (subtract)
+            op2Sign = op2Sign == CommonData.PACKED_PLUS ? CommonData.PACKED_MINUS : CommonData.PACKED_PLUS;
+
+        // packed digits order the same way as the unsigned values of the words holding them
+        int compare = op1High != op2High ? Long.compareUnsigned(op1High, op2High) : Long.compareUnsigned(op1Low, op2Low);
+        long low;
+        long high;
+        byte sign;
+        if (op1Sign == op2Sign) {
+            low = addWords(op1Low, op2Low);
+            high = addWords(op1High, op2High);
+            if (Long.compareUnsigned(low, op1Low) < 0)
+                high = addWords(high, 1);
+            sign = op1Sign;
+        } else if (compare > 0) {
+            low = subtractWords(op1Low, op2Low);
+            high = subtractWords(op1High, op2High);
+            if (Long.compareUnsigned(op1Low, op2Low) < 0)
+                high = subtractWords(high, 1);
+            sign = op1Sign;
+        } else if (compare < 0) {
+            low = subtractWords(op2Low, op1Low);
+            high = subtractWords(op2High, op1High);
+            if (Long.compareUnsigned(op2Low, op1Low) < 0)
+                high = subtractWords(high, 1);
+            sign = op2Sign;
+        } else {
+            setPackedZero(result, resultOffset, resultPrecision);
+            return true;
+        }
+
+        if (resultPrecision > WORD_DIGITS ? high >>> (4 * (resultPrecision - WORD_DIGITS)) != 0
+                : high != 0 || (resultPrecision < WORD_DIGITS && low >>> (4 * resultPrecision) != 0))
+            return false;
+
+        int resultEnd = resultOffset + precisionToByteLength(resultPrecision) - 1;
+        result[resultEnd] = (byte) (low << 4 | sign);
+        for (int i = 1; resultEnd - i >= resultOffset; i++) {
+            if (i < WORD_DIGITS / 2)
+                result[resultEnd - i] = (byte) (low >>> (8 * i - 4));
+            else if (i == WORD_DIGITS / 2)
+                result[resultEnd - i] = (byte) (low >>> 60 | high << 4);
+            else
+                result[resultEnd - i] = (byte) (high >>> (8 * i - 68));
+        }
+        return true;
+    }
+
+    /**
+     * Returns sixteen digits of a Packed Decimal as packed nibbles in a long. Word 0 holds the sixteen least
+     * significant digits. Bytes before <code>offset</code> read as zeros.
+     */
+    private static long getWord(byte[] pd, int offset, int end, int word) {
+        int last = end - word * WORD_DIGITS / 2;
+        if (last < offset)
+            return 0;
+        // drop the sign (or the neighbouring word's digit) in the low nibble of the last byte
+        long digits = (pd[last] & CommonData.INTEGER_MASK) >>> 4;
+        for (int i = 1, n = Math.min(WORD_DIGITS / 2, last - offset); i <= n; i++) {
+            digits |= (long) (pd[last - i] & CommonData.INTEGER_MASK) << (8 * i - 4);
+        }
+        return digits;
+    }
+
+    /**
+     * Checks whether any nibble of a word of packed digits is above 9, which is the case when its top bit and one of
+     * its two middle bits are set.
+     */
+    private static boolean hasInvalidDigit(long digits) {
+        return (digits & 0x8888888888888888L & ((digits << 1) | (digits << 2))) != 0;
+    }
+
+    /**
+     * Adds two words of sixteen packed digits, dropping the carry out of the top digit. Every digit is biased by six
+     * so that a decimal carry also carries out of the nibble, and the bias is then taken back out of the digits that
+     * did not carry.
+     */
+    private static long addWords(long op1, long op2) {
+        long biased = op1 + 0x6666666666666666L;
+        long sum = biased + op2;
+        long noCarry = ~(biased ^ op2 ^ sum) & 0x1111111111111110L;
+        long bias = (noCarry >>> 2) | (noCarry >>> 3);
+        if (Long.compareUnsigned(sum, biased) >= 0)
+            bias |= 6L << 60;
+        return sum - bias;
+    }
+
+    /**
+     * Subtracts two words of sixteen packed digits, dropping the borrow out of the top digit. A digit that borrowed
+     * wrapped around to sixteen rather than ten, so six is taken back out of it.
+     */
+    private static long subtractWords(long op1, long op2) {
+        long difference = op1 - op2;
+        long borrow = (op1 ^ op2 ^ difference) & 0x1111111111111110L;
+        long bias = (borrow >>> 2) | (borrow >>> 3);
+        if (Long.compareUnsigned(op1, op2) < 0)
+            bias |= 6L << 60;
+        return difference - bias;
+    }
+
+    // Multiply, divide and remainder use binary long arithmetic when the
+    // operands fit in a long. Larger operands are converted to base 10^8
+    // limbs, eight digits at a time, and processed with schoolbook
+    // multiplication and long division in the thread local operands so no
+    // intermediate objects are allocated.
 
     private static final int MULTIPLY = 1, DIVIDE = 2, REMAINDER = 3;
 
+    private static final long LIMB_RADIX = 100000000L;
+
+    private static final int LIMB_DIGITS = 8;
+
+    // number of packed digits in a long
+    private static final int WORD_DIGITS = 16;
+
+    // largest precision whose digits fit in two words
+    private static final int LONG_WORD_PRECISION = 31;
+
+    private static final long[] POWERS_OF_TEN = { 1L, 10L, 100L, 1000L, 10000L,
+            100000L, 1000000L, 10000000L, 100000000L, 1000000000L,
+            10000000000L, 100000000000L, 1000000000000L, 10000000000000L,
+            100000000000000L, 1000000000000000L, 10000000000000000L };
+
     /**
      * Multiplies two Packed Decimals in byte arrays. The sign of an input Packed Decimal is assumed to to be positive
      * unless the sign nibble contains one of the negative sign codes, in which case the sign of the respective input
@@ -638,9 +789,11 @@ public final class PackedDecimal {
      * @throws ArrayIndexOutOfBoundsException
      *             if an invalid array access occurs
      * @throws IllegalArgumentException
-     *             if an overflow occurs during multiplication
+     *             if <code>checkOverflow</code> is true and any of the Packed Decimal operands are invalid
      * @throws ArithmeticException
-     *             if any of the Packed Decimal operands are invalid
+     *             if <code>checkOverflow</code> is true and a result computed in a long (operands and result of at
+     *             most 18 digits) does not fit in <code>resultPrecision</code> digits. Other results are truncated to
+     *             <code>resultPrecision</code> digits
      */
     public static void multiplyPackedDecimal(byte[] result, int resultOffset,
             int resultPrecision, byte[] op1Decimal, int op1Offset,
@@ -709,9 +862,11 @@ public final class PackedDecimal {
      * @throws ArrayIndexOutOfBoundsException
      *             if an invalid array access occurs
      * @throws IllegalArgumentException
-     *             if an overflow occurs during division
+     *             if <code>checkOverflow</code> is true and any of the Packed Decimal operands are invalid
      * @throws ArithmeticException
-     *             if any of the Packed Decimal operands are invalid
+     *             if the divisor is zero, or if <code>checkOverflow</code> is true and a result computed in a long
+     *             (operands and result of at most 18 digits) does not fit in <code>resultPrecision</code> digits.
+     *             Other results are truncated to <code>resultPrecision</code> digits
      */
     public static void dividePackedDecimal(byte[] result, int resultOffset,
             int resultPrecision, byte[] op1Decimal, int op1Offset,
@@ -779,9 +934,11 @@ public final class PackedDecimal {
      * @throws ArrayIndexOutOfBoundsException
      *             if an invalid array access occurs
      * @throws IllegalArgumentException
-     *             if an overflow occurs during division
+     *             if <code>checkOverflow</code> is true and any of the Packed Decimal operands are invalid
      * @throws ArithmeticException
-     *             if any of the Packed Decimal operands are invalid
+     *             if the divisor is zero, or if <code>checkOverflow</code> is true and a result computed in a long
+     *             (operands and result of at most 18 digits) does not fit in <code>resultPrecision</code> digits.
+     *             Other results are truncated to <code>resultPrecision</code> digits
      */
     public static void remainderPackedDecimal(byte[] result, int resultOffset,
             int resultPrecision, byte[] op1Decimal, int op1Offset,
@@ -814,55 +971,229 @@ public final class PackedDecimal {
                 op2Precision, checkOverflow);
     }
 
-    private static BigInteger getBigInteger(byte[] pd, int offset, int length) {
-        int end = offset + length - 1;
-        StringBuilder sb = new StringBuilder();
+    /**
+     * Returns the number of base 10^8 limbs needed to cover every digit nibble of a Packed Decimal, including the
+     * unused high nibble of an even precision.
+     */
+    private static int limbCount(int precision) {
+        return (2 * precisionToByteLength(precision) - 1 + LIMB_DIGITS - 1) / LIMB_DIGITS;
+    }
+
+    /**
+     * Converts eight digits of a Packed Decimal to binary at once. Limb 0 holds the eight least significant digits.
+     * Bytes before <code>offset</code> read as zeros.
+     *
+     * @return the binary value of the limb, or -1 if one of its digits is not a valid decimal digit
+     */
+    private static long getLimb(byte[] pd, int offset, int end, int limb) {
+        int last = end - limb * (LIMB_DIGITS / 2);
+        int first = last - LIMB_DIGITS / 2;
+        if (last < offset)
+            return 0;
+
+        // drop the sign (or the neighbouring limb's digit) in the low nibble of the last byte, and the neighbouring
+        // limb's digit in the high nibble of the first byte
+        int digits;
+        if (first >= offset) {
+            digits = (pd[first] & CommonData.LOWER_NIBBLE_MASK) << 28
+                    | (pd[first + 1] & CommonData.INTEGER_MASK) << 20
+                    | (pd[first + 2] & CommonData.INTEGER_MASK) << 12
+                    | (pd[first + 3] & CommonData.INTEGER_MASK) << 4
+                    | (pd[last] & CommonData.INTEGER_MASK) >>> 4;
+        } else {
+            int nibbles = 0;
+            for (int i = offset; i <= last; i++) {
+                nibbles = (nibbles << 8) | (pd[i] & CommonData.INTEGER_MASK);
+            }
+            digits = nibbles >>> 4;
+        }
+
+        // a nibble is above 9 when its top bit and one of its two middle bits are set
+        if ((digits & 0x88888888 & ((digits << 1) | (digits << 2))) != 0)
+            return -1;
 
-        if ((pd[end] & CommonData.LOWER_NIBBLE_MASK) == 0x0B
-                || (pd[end] & CommonData.LOWER_NIBBLE_MASK) == 0x0D)
-            sb.append('-');
+        digits = ((digits >>> 4) & 0x0F0F0F0F) * 10 + (digits & 0x0F0F0F0F);
+        digits = ((digits >>> 8) & 0x00FF00FF) * 100 + (digits & 0x00FF00FF);
+        return (digits >>> 16) * 10000L + (digits & 0xFFFF);
+    }
 
-        for (int i = offset; i < end; i++) {
-            sb.append((char) ('0' + (pd[i] >> 4 & CommonData.LOWER_NIBBLE_MASK)));
-            sb.append((char) ('0' + (pd[i] & CommonData.LOWER_NIBBLE_MASK)));
+    /**
+     * Stores a binary value below 10^8 as eight digits of a Packed Decimal, leaving the sign and the digits of the
+     * neighbouring limbs untouched. Digits that fall before <code>offset</code> are dropped.
+     */
+    private static void putLimb(byte[] pd, int offset, int end, int limb, long value) {
+        int high = (int) value / 10000;
+        int low = (int) value - high * 10000;
+        long nibbles = ((toPackedDigits(high) << 16 | toPackedDigits(low)) & 0xFFFFFFFFL) << 4;
+        int last = end - limb * (LIMB_DIGITS / 2);
+
+        pd[last] = (byte) ((pd[last] & CommonData.LOWER_NIBBLE_MASK) | ((int) nibbles & CommonData.HIGHER_NIBBLE_MASK));
+        for (int i = last - 1; i > last - LIMB_DIGITS / 2 && i >= offset; i--) {
+            pd[i] = (byte) (nibbles >>> ((last - i) * 8));
+        }
+        int first = last - LIMB_DIGITS / 2;
+        if (first >= offset) {
+            pd[first] = (byte) ((pd[first] & CommonData.HIGHER_NIBBLE_MASK) | ((int) (nibbles >>> 32) & CommonData.LOWER_NIBBLE_MASK));
         }
-        sb.append((char) ('0' + (pd[end] >> 4 & CommonData.LOWER_NIBBLE_MASK)));
-        return new BigInteger(sb.toString());
     }
 
-    private static void putBigInteger(byte[] pd, int offset, int length,
-            BigInteger bigInt, boolean checkOverflow)
-            throws ArithmeticException {
-        int end = offset + length - 1;
+    /**
+     * Converts a binary value below 10^4 into four packed digits.
+     */
+    private static int toPackedDigits(int value) {
+        int high = value / 100;
+        int low = value - high * 100;
+        return (CommonData.getBinaryToPackedValues(high) & CommonData.INTEGER_MASK) << 8
+                | (CommonData.getBinaryToPackedValues(low) & CommonData.INTEGER_MASK);
+    }
 
-        // could use abs(), but want to avoid creating another BigInteger object
-        char[] chars = bigInt.toString().toCharArray();
-        boolean neg = chars[0] == '-';
+    /**
+     * Converts a Packed Decimal into base 10^8 limbs in the operand's limb array.
+     *
+     * @return the number of significant limbs (zero for a zero value), or -1 if the Packed Decimal contains an
+     *         invalid digit
+     */
+    private static int getLimbs(PackedDecimalOperand operand, int extraLimbs, byte[] pd, int offset, int precision) {
+        int end = offset + precisionToByteLength(precision) - 1;
+        int count = limbCount(precision);
+        long[] limbs = operand.getLimbs(count + extraLimbs);
+        int significant = 0;
+
+        for (int i = 0; i < count; i++) {
+            long limb = getLimb(pd, offset, end, i);
+            if (limb < 0)
+                return -1;
+            limbs[i] = limb;
+            if (limb != 0)
+                significant = i + 1;
+        }
+        return significant;
+    }
 
-        int charStart = neg ? 1 : 0;
-        int charEnd = chars.length - 1;
+    /**
+     * Stores base 10^8 limbs into a Packed Decimal, setting every digit of the result and leaving the sign nibble
+     * untouched. Digits beyond <code>precision</code> are dropped, as they always have been for results that do
+     * not fit in a long, whether or not overflow is checked.
+     */
+    private static void putLimbs(byte[] pd, int offset, int precision, long[] limbs, int count) {
+        int end = offset + precisionToByteLength(precision) - 1;
+        int full = precision / LIMB_DIGITS;
+        int partial = precision % LIMB_DIGITS;
+
+        for (int i = 0, n = limbCount(precision); i < n; i++) {
+            long limb = i < count ? limbs[i] : 0;
+            if (i == full) {
+                limb %= POWERS_OF_TEN[partial];
+            } else if (i > full) {
+                limb = 0;
+            }
+            putLimb(pd, offset, end, i, limb);
+        }
+    }
 
-        pd[end--] = (byte) ((neg ? 0x0D : 0x0C) | (chars[charEnd--] - '0' << 4));
+    /**
+     * Multiplies the first <code>count1</code> limbs of <code>op1</code> with the first <code>count2</code> limbs of
+     * <code>op2</code>, leaving the <code>count1 + count2</code> limbs of the product in <code>product</code>.
+     */
+    private static void multiplyLimbs(long[] product, long[] op1, int count1, long[] op2, int count2) {
+        Arrays.fill(product, 0, count1 + count2, 0L);
+        for (int i = 0; i < count1; i++) {
+            long carry = 0;
+            long multiplicand = op1[i];
+            for (int j = 0; j < count2; j++) {
+                long digits = product[i + j] + multiplicand * op2[j] + carry;
+                carry = digits / LIMB_RADIX;
+                product[i + j] = digits - carry * LIMB_RADIX;
+            }
+            product[i + count2] = carry;
+        }
+    }
 
-        while (end >= offset) {
-            byte b = 0;
-            if (charEnd >= charStart) {
-                b = (byte) (chars[charEnd--] - '0');
-                if (charEnd >= charStart) {
-                    b |= chars[charEnd--] - '0' << 4;
-                }
+    /**
+     * Divides the <code>count1</code> limbs of <code>dividend</code> by the <code>count2</code> limbs of
+     * <code>divisor</code> (Knuth, TAOCP vol. 2, 4.3.1, algorithm D). Leaves the <code>count1 - count2 + 1</code> limbs
+     * of the quotient in <code>quotient</code> and the <code>count2</code> limbs of the remainder at the bottom of
+     * <code>dividend</code>, which needs room for one extra limb. The divisor is scaled in place.
+     */
+    private static void divideLimbs(long[] quotient, long[] dividend, int count1, long[] divisor, int count2) {
+        if (count2 == 1) {
+            long remainder = 0;
+            long value = divisor[0];
+            for (int j = count1 - 1; j >= 0; j--) {
+                long digits = remainder * LIMB_RADIX + dividend[j];
+                quotient[j] = digits / value;
+                remainder = digits - quotient[j] * value;
             }
-            pd[end--] = b;
+            dividend[0] = remainder;
+            return;
         }
 
-        if (checkOverflow && charEnd < charStart) {
-            while (charEnd >= charStart) {
-                if (chars[charEnd--] != '0') {
-                    throw new ArithmeticException(
-                            "Packed Decimal overflow during multiplication/division, non-zero digits lost");
+        // scale both operands so that the top divisor limb is at least half the radix
+        long scale = LIMB_RADIX / (divisor[count2 - 1] + 1);
+        scaleLimbs(divisor, count2, scale);
+        dividend[count1] = scaleLimbs(dividend, count1, scale);
+
+        long top = divisor[count2 - 1];
+        long next = divisor[count2 - 2];
+        for (int j = count1 - count2; j >= 0; j--) {
+            long digits = dividend[j + count2] * LIMB_RADIX + dividend[j + count2 - 1];
+            long estimate = digits / top;
+            long remainder = digits - estimate * top;
+            while (estimate >= LIMB_RADIX
+                    || estimate * next > remainder * LIMB_RADIX + dividend[j + count2 - 2]) {
+                estimate--;
+                remainder += top;
+                if (remainder >= LIMB_RADIX)
+                    break;
+            }
+
+            // subtract estimate * divisor from the current window of the dividend
+            long carry = 0;
+            long borrow = 0;
+            for (int i = 0; i < count2; i++) {
+                long product = estimate * divisor[i] + carry;
+                carry = product / LIMB_RADIX;
+                long difference = dividend[i + j] - (product - carry * LIMB_RADIX) - borrow;
+                borrow = difference < 0 ? 1 : 0;
+                dividend[i + j] = difference + borrow * LIMB_RADIX;
+            }
+            long difference = dividend[j + count2] - carry - borrow;
+
+            // the estimate was one too large, add the divisor back
+            if (difference < 0) {
+                estimate--;
+                carry = 0;
+                for (int i = 0; i < count2; i++) {
+                    long sum = dividend[i + j] + divisor[i] + carry;
+                    carry = sum >= LIMB_RADIX ? 1 : 0;
+                    dividend[i + j] = sum - carry * LIMB_RADIX;
                 }
+                difference += carry;
             }
+            dividend[j + count2] = difference;
+            quotient[j] = estimate;
+        }
+
+        // undo the scaling of the remainder
+        long remainder = 0;
+        for (int i = count2 - 1; i >= 0; i--) {
+            long digits = remainder * LIMB_RADIX + dividend[i];
+            dividend[i] = digits / scale;
+            remainder = digits - dividend[i] * scale;
+        }
+    }
+
+    /**
+     * Multiplies limbs in place by a value below the radix, returning the carry out of the top limb.
+     */
+    private static long scaleLimbs(long[] limbs, int count, long scale) {
+        long carry = 0;
+        for (int i = 0; i < count; i++) {
+            long digits = limbs[i] * scale + carry;
+            carry = digits / LIMB_RADIX;
+            limbs[i] = digits - carry * LIMB_RADIX;
         }
+        return carry;
     }
 
     private static void zeroTopNibbleIfEven(byte[] bytes, int offset, int prec) {
@@ -918,45 +1249,70 @@ public final class PackedDecimal {
         }
 
         // long is too small
-        BigInteger op1BigInt;
-        BigInteger op2BigInt;
-        try {
-            op1BigInt = getBigInteger(op1, op1Offset,
-                    precisionToByteLength(precOp1));
-            op2BigInt = getBigInteger(op2, op2Offset,
-                    precisionToByteLength(precOp2));
-        } catch (NumberFormatException e) {
+        PackedDecimalOperand op1Operand = op1_threadLocal.get();
+        PackedDecimalOperand op2Operand = op2_threadLocal.get();
+        int count1 = getLimbs(op1Operand, 1, op1, op1Offset, precOp1);
+        int count2 = getLimbs(op2Operand, 0, op2, op2Offset, precOp2);
+        if (count1 < 0 || count2 < 0) {
             if (checkOverflow)
-                throw new IllegalArgumentException("Invalid packed data value",
-                        e);
+                throw new IllegalArgumentException("Invalid packed data value");
             return;
         }
+        if (count2 == 0 && op != MULTIPLY)
+            throw new ArithmeticException("Division by zero");
 
-        BigInteger resultBigInt = null;
+        long[] op1Limbs = op1Operand.limbs;
+        long[] op2Limbs = op2Operand.limbs;
+        long[] resultLimbs;
+        int resultCount;
         switch (op) {
         case MULTIPLY:
-            resultBigInt = op1BigInt.multiply(op2BigInt);
+            resultLimbs = sum_threadLocal.get().getLimbs(count1 + count2);
+            multiplyLimbs(resultLimbs, op1Limbs, count1, op2Limbs, count2);
+            resultCount = count1 + count2;
             break;
         case DIVIDE:
-            resultBigInt = op1BigInt.divide(op2BigInt);
+            resultLimbs = sum_threadLocal.get().getLimbs(count1 + 1);
+            if (count1 < count2) {
+                resultCount = 0;
+            } else {
+                divideLimbs(resultLimbs, op1Limbs, count1, op2Limbs, count2);
+                resultCount = count1 - count2 + 1;
+            }
             break;
-        case REMAINDER:
-            resultBigInt = op1BigInt.remainder(op2BigInt);
+        default:
+            resultLimbs = op1Limbs;
+            if (count1 < count2) {
+                resultCount = count1;
+            } else {
+                divideLimbs(sum_threadLocal.get().getLimbs(count1 + 1), op1Limbs, count1, op2Limbs, count2);
+                resultCount = count2;
+            }
             break;
         }
 
-        putBigInteger(result, offsetResult, precisionToByteLength(precResult),
-                resultBigInt, checkOverflow);
+        boolean isZero = true;
+        for (int i = 0; i < resultCount && isZero; i++) {
+            isZero = resultLimbs[i] == 0;
+        }
+
+        putLimbs(result, offsetResult, precResult, resultLimbs, resultCount);
 
-        // force the sign because BigInteger will never produce negative zero
-        if (BigInteger.ZERO.equals(resultBigInt)) {
+        int endResult = offsetResult + precisionToByteLength(precResult) - 1;
+        if (isZero) {
             forceSign(result, offsetResult, precResult, op1, op1Offset,
                     precOp1, op2, op2Offset, precOp2);
+        } else {
+            int endOp1 = op1Offset + precisionToByteLength(precOp1) - 1;
+            int endOp2 = op2Offset + precisionToByteLength(precOp2) - 1;
+            int sign = op == REMAINDER ? sign(op1[endOp1]) : sign(op1[endOp1]) * sign(op2[endOp2]);
+            result[endResult] = (byte) ((result[endResult] & CommonData.HIGHER_NIBBLE_MASK)
+                    | (sign > 0 ? CommonData.PACKED_PLUS : CommonData.PACKED_MINUS));
         }
     }
 
     /**
-     * Using BigInteger or long will never produce negative zero, so we need to
+     * Binary arithmetic will never produce negative zero, so we need to
      * make sure to set the correct sign code.
      */
     private static void forceSign(byte[] result, int offsetResult,
@@ -1449,12 +1805,22 @@ public final class PackedDecimal {
     	
     	packedDecimal[end] = CommonData.getPackedAddOneSignValues(packedDecimal[end]);
         
-    	if ((byte) (packedDecimal[end] & CommonData.HIGHER_NIBBLE_MASK) == (byte) 0x00) 
-        {        
-        	byte[] addTenArray = { (0x01), (byte) packedDecimal[end] };
-            addPackedDecimal(packedDecimal, offset, precision,
-                    packedDecimal, offset, precision, addTenArray, 0, 2,
-                    checkOverflow);
+    	if ((byte) (packedDecimal[end] & CommonData.HIGHER_NIBBLE_MASK) == (byte) 0x00)
+        {
+            // propagate the carry into the higher digits in place
+            int i = end - 1;
+            for (; i >= offset; i--) {
+                packedDecimal[i] = CommonData.getPackedAddOneValues(packedDecimal[i]);
+                if (packedDecimal[i] != CommonData.PACKED_ZERO)
+                    break;
+            }
+            boolean carryIntoPad = i == offset && precision % 2 == 0
+                    && (packedDecimal[offset] & CommonData.HIGHER_NIBBLE_MASK) != 0x00;
+            if (checkOverflow && (i < offset || carryIntoPad))
+                throw new ArithmeticException(
+                        "Decimal overflow in shiftRightPackedDecimal.");
+            if (carryIntoPad)
+                packedDecimal[offset] &= CommonData.LOWER_NIBBLE_MASK;
         }
     }
     
@@ -2002,6 +2368,8 @@ public final class PackedDecimal {
         int signDigit;
         int byteValue;
         int indexValue;
+        // base 10^8 limbs of the value, least significant first, used by multiply, divide and remainder
+        long[] limbs = new long[LIMB_DIGITS];
 
         /**
          * Sets up the attributes of a Packed Decimal operand. Truncates leading zeros. Captures the sign value.
@@ -2069,6 +2437,19 @@ public final class PackedDecimal {
 
         }
 
+        /**
+         * Returns the limb array of this operand, grown if it holds fewer than <code>count</code> limbs.
+         * 
+         * @param count
+         *            number of limbs needed
+         * @return the limb array
+         */
+        public long[] getLimbs(int count) {
+            if (limbs.length < count)
+                limbs = new long[Math.max(count, 2 * limbs.length)];
+            return limbs;
+        }
+
     }
 
 }
@@ -1,6 +1,6 @@
 /*[INCLUDE-IF Sidecar18-SE]*/
 /*******************************************************************************
- * Copyright (c) 2008, 2017 IBM Corp. and others
+ * Copyright (c) 2008, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -44,6 +44,7 @@ import com.ibm.dtfj.image.ImageSection;
 import com.ibm.dtfj.java.JavaClass;
 import com.ibm.dtfj.java.JavaHeap;
 import com.ibm.dtfj.java.JavaObject;
+import com.ibm.dtfj.phd.parser.HeapdumpIndex;
 import com.ibm.dtfj.phd.parser.HeapdumpReader;
 import com.ibm.dtfj.phd.parser.PortableHeapDumpListener;
 import com.ibm.dtfj.phd.util.LongEnumeration;
@@ -69,6 +70,9 @@ class PHDJavaHeap implements JavaHeap {
 	/** Flag used to show that all the CacheHeapSegments are set up */
 	private boolean doneScan;
 	private boolean lastSegment;
+	/** Random access index for a dump file, built on first use */
+	private HeapdumpIndex index;
+	private boolean indexChecked;
 	
 	PHDJavaHeap(ImageInputStream stream, final PHDImage parentImage, ImageAddressSpace space, PHDJavaRuntime runtime) throws IOException {
 		this.image = parentImage;
@@ -589,6 +593,14 @@ class PHDJavaHeap implements JavaHeap {
 			// allow to fall through
 		}
 		if (jo != null) return jo;
+		HeapdumpIndex idx = getIndex();
+		if (idx != null) {
+			try {
+				return getIndexedObjectAtAddress(idx, address.getAddress(), withRefs);
+			} catch (Exception e) {
+				// allow to fall through and scan the dump
+			}
+		}
 		if (!doneScan) {
 			try {
 				jo = getObjectAtAddress3(address, withRefs);
@@ -599,6 +611,66 @@ class PHDJavaHeap implements JavaHeap {
 		return jo;
 	}
 
+	/**
+	 * Return the random access index for the dump, building it if required.
+	 * Only dump files can be indexed, not streams.
+	 */
+	private synchronized HeapdumpIndex getIndex() {
+		if (!indexChecked) {
+			indexChecked = true;
+			if (file != null) {
+				index = HeapdumpIndex.getIndex(file);
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Find an object in the heap using the index, parsing just its record.
+	 * @return the object, or null if there is no object at that address
+	 */
+	private JavaObject getIndexedObjectAtAddress(HeapdumpIndex idx, long address, final boolean withRefs) throws Exception {
+		int entry = idx.findObject(address);
+		if (entry < 0) return null;
+		final PHDJavaHeap heap = this;
+		final int adjustLen = isJ9V4 ? 1 : 0;
+		final JavaObject jo[] = new JavaObject[1];
+		idx.parse(entry, new PortableHeapDumpListener() {
+
+			public void classDump(long address, long superAddress, String name, int size,
+					int flags, int hashCode, LongEnumeration refs) throws Exception {
+			}
+
+			public void objectArrayDump(long address, long classAddress, int flags,
+					int hashCode, LongEnumeration refs, int length, long instanceSize) throws Exception {
+				int refsLen = refs.numberOfElements();
+				int adjustLen2 = Math.min(adjustLen, refsLen);
+				// Use adjustLen for array class so for corrupt Java 5 with 0 refs we have no array class
+				PHDJavaObject.Builder b = new PHDJavaObject.Builder(heap,address,runtime.arrayOf(classAddress, refs, adjustLen),flags,hashCode)
+				.instanceSize(instanceSize);
+				jo[0] = withRefs 
+					? b.refs(refs,adjustLen2).length(length-adjustLen2).build()
+					: b.length(length-adjustLen2).build();
+			}
+
+			public void objectDump(long address, long classAddress, int flags, int hashCode,
+					LongEnumeration refs, long instanceSize) throws Exception {
+				PHDJavaObject.Builder b = new PHDJavaObject.Builder(heap,address,runtime.findClass(classAddress),flags,hashCode)
+				.length(PHDJavaObject.SIMPLE_OBJECT).instanceSize(instanceSize);
+				jo[0] = withRefs 
+					? b.refs(refs, 0).build()
+					: b.build();
+			}
+
+			public void primitiveArrayDump(long address, int type, int length, int flags,
+					int hashCode, long instanceSize) throws Exception {
+				jo[0] = new PHDJavaObject.Builder(heap,address,runtime.findArrayOfType(type),flags,hashCode)
+				.refsAsArray(NOREFS,0).length(length).instanceSize(instanceSize).build();
+			}
+		});
+		return jo[0];
+	}
+
 	/**
 	 * Find an object in the heap
 	 * Populate each chunk, then search each chunk directly
@@ -0,0 +1,442 @@
+/*[INCLUDE-IF Sidecar18-SE]*/
+/*******************************************************************************
+ * Copyright (c) 2018, 2018 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *******************************************************************************/
+package com.ibm.dtfj.phd.parser;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+
+import com.ibm.dtfj.phd.util.LongEnumeration;
+
+/**
+ *  This class provides random access to the objects in a PHD format heapdump. A single pass
+ *  over the dump builds an index which maps each object address to the offset of its record.
+ *  The dump is memory mapped, so finding an object is a binary search of the index followed
+ *  by the parse of a single record (see {@link #parse}).
+ *  <p>
+ *  The system property <code>com.ibm.dtfj.phd.index</code> controls where the index is kept:
+ *  <ul>
+ *  <li>by default it is built on the Java heap and discarded with the dump;
+ *  <li><code>-Dcom.ibm.dtfj.phd.index=file</code> also writes it next to the dump as
+ *  <code>&lt;dump&gt;.idx</code> and reuses it while the dump's length and modification time
+ *  are unchanged. It is kept on the heap if that file cannot be written;
+ *  <li><code>-Dcom.ibm.dtfj.phd.index=false</code> disables indexing.
+ *  </ul>
+ *  <p>
+ *  The index consists of the following sections, with all values big-endian:
+ *  <pre>
+ *  header    magic, version, flags, dump length, dump last modified, entry count
+ *  entries   {address, previous record address, record offset, class address}, in dump order
+ *  sorted    entry numbers sorted by address, only present if the dump is not in address order
+ *  </pre>
+ *  For primitive arrays the class address is the element type as passed to
+ *  {@link PortableHeapDumpListener#primitiveArrayDump}.
+ */
+public final class HeapdumpIndex {
+
+	/** The system property which controls indexing */
+	public static final String INDEX_PROPERTY = "com.ibm.dtfj.phd.index";
+
+	private static final long MAGIC = 0x5048445f494e4458L; // "PHD_INDX"
+	private static final int VERSION = 2;
+	private static final int FLAG_SORTED = 1;
+	private static final int HEADER_SIZE = 64;
+	private static final int ENTRY_SIZE = 32;
+
+	private final MappedFile index;
+	private final HeapdumpReader reader;
+	private final int entryCount;
+	/** Offset of the sorted section, or -1 if the entries are already in address order */
+	private final long sortedOffset;
+
+	private HeapdumpIndex(MappedFile index, HeapdumpReader reader) {
+		this.index = index;
+		this.reader = reader;
+		this.entryCount = (int)index.getLong(40);
+		this.sortedOffset = (index.getInt(12) & FLAG_SORTED) != 0 ? entryOffset(entryCount) : -1;
+	}
+
+	/**
+	 * Returns the index for the given PHD file, building it unless the index is kept
+	 * in a file which is up to date.
+	 * @param phd the heapdump
+	 * @return the index, or null if the dump cannot be indexed, for example because it is compressed
+	 */
+	public static HeapdumpIndex getIndex(File phd) {
+		String mode = System.getProperty(INDEX_PROPERTY);
+		if ("false".equalsIgnoreCase(mode) || phd.getName().endsWith(".gz")) {
+			return null;
+		}
+		try {
+			MappedFile data = new MappedFile(phd);
+			HeapdumpIndex result = null;
+			if ("file".equalsIgnoreCase(mode)) {
+				File idx = new File(phd.getPath() + ".idx");
+				result = open(idx, phd, data);
+				if (result == null) {
+					try {
+						result = buildFile(idx, phd, data);
+					} catch (IOException e) {
+						// Probably not writable, so keep the index in memory
+						Base._log("unable to write " + idx + ": " + e);
+					}
+				}
+			}
+			if (result == null) {
+				result = buildMemory(phd, data);
+			}
+			return result;
+		} catch (IOException e) {
+			Base._log("unable to index " + phd + ": " + e);
+		} catch (OutOfMemoryError e) {
+			Base._log("unable to index " + phd + ": " + e);
+		}
+		return null;
+	}
+
+	/**
+	 * Open an existing index file, checking that it belongs to the current version of the dump.
+	 */
+	private static HeapdumpIndex open(File idx, File phd, MappedFile data) throws IOException {
+		if (!idx.isFile() || idx.length() < HEADER_SIZE) {
+			return null;
+		}
+		MappedFile index = new MappedFile(idx);
+		if (index.getLong(0) != MAGIC || index.getInt(8) != VERSION
+				|| index.getLong(16) != data.length() || index.getLong(24) != phd.lastModified()) {
+			return null;
+		}
+		long entries = index.getLong(40);
+		if (index.length() != indexLength(entries, (index.getInt(12) & FLAG_SORTED) == 0)) {
+			return null;
+		}
+		return new HeapdumpIndex(index, new HeapdumpReader(data, phd.getPath()));
+	}
+
+	/**
+	 * Build the index in a file. The magic number is written last so a partially
+	 * written index is never used.
+	 */
+	private static HeapdumpIndex buildFile(File idx, File phd, MappedFile data) throws IOException {
+		long modified = phd.lastModified();
+		boolean done = false;
+		try {
+			HeapdumpReader reader = new HeapdumpReader(data, phd.getPath());
+			Builder builder = new Builder(reader);
+			builder.parse(new FileOutputStream(idx));
+			RandomAccessFile raf = new RandomAccessFile(idx, "rw");
+			try {
+				raf.setLength(builder.length());
+			} finally {
+				raf.close();
+			}
+			MappedFile map = new MappedFile(idx, true);
+			builder.finish(map, data.length(), modified);
+			map.force();
+			map.putLong(0, MAGIC);
+			map.force();
+			done = true;
+		} finally {
+			if (!done) {
+				idx.delete();
+			}
+		}
+		return open(idx, phd, data);
+	}
+
+	/**
+	 * Build the index on the Java heap.
+	 */
+	private static HeapdumpIndex buildMemory(File phd, MappedFile data) throws IOException {
+		long modified = phd.lastModified();
+		HeapdumpReader reader = new HeapdumpReader(data, phd.getPath());
+		Builder builder = new Builder(reader);
+		MappedFile.MemoryOutput out = new MappedFile.MemoryOutput();
+		builder.parse(out);
+		MappedFile map = out.toMappedFile(builder.length());
+		builder.finish(map, data.length(), modified);
+		map.putLong(0, MAGIC);
+		return new HeapdumpIndex(map, new HeapdumpReader(data, phd.getPath()));
+	}
+
+	/**
+	 * Returns the number of objects in the index.
+	 */
+	public int getEntryCount() {
+		return entryCount;
+	}
+
+	/**
+	 * Returns the address of the object for an entry.
+	 */
+	public long getAddress(int entry) {
+		return index.getLong(entryOffset(entry));
+	}
+
+	/**
+	 * Find the entry for the object at the given address.
+	 * @return the entry number or -1 if there is no object at that address
+	 */
+	public int findObject(long address) {
+		int lo = 0;
+		int hi = entryCount - 1;
+		while (lo <= hi) {
+			int mid = (lo + hi) >>> 1;
+			int entry = sortedOffset < 0 ? mid : index.getInt(sortedOffset + 4L * mid);
+			long a = getAddress(entry);
+			if (a < address) {
+				lo = mid + 1;
+			} else if (a > address) {
+				hi = mid - 1;
+			} else {
+				return entry;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Parse the record for a single entry, with exactly one callback to the listener.
+	 */
+	public synchronized void parse(int entry, final PortableHeapDumpListener listener) throws Exception {
+		long pos = entryOffset(entry);
+		reader.resumeAt(index.getLong(pos + 16), index.getLong(pos + 8), index.getLong(pos + 24));
+		reader.parse(new PortableHeapDumpListener() {
+			public void objectDump(long address, long classAddress, int flags, int hashCode,
+					LongEnumeration refs, long instanceSize) throws Exception {
+				reader.exitParse();
+				listener.objectDump(address, classAddress, flags, hashCode, refs, instanceSize);
+			}
+
+			public void objectArrayDump(long address, long classAddress, int flags, int hashCode,
+					LongEnumeration refs, int length, long instanceSize) throws Exception {
+				reader.exitParse();
+				listener.objectArrayDump(address, classAddress, flags, hashCode, refs, length, instanceSize);
+			}
+
+			public void classDump(long address, long superAddress, String name, int instanceSize,
+					int flags, int hashCode, LongEnumeration refs) throws Exception {
+				reader.exitParse();
+				listener.classDump(address, superAddress, name, instanceSize, flags, hashCode, refs);
+			}
+
+			public void primitiveArrayDump(long address, int type, int length, int flags,
+					int hashCode, long instanceSize) throws Exception {
+				reader.exitParse();
+				listener.primitiveArrayDump(address, type, length, flags, hashCode, instanceSize);
+			}
+		});
+	}
+
+	private static long entryOffset(int entry) {
+		return HEADER_SIZE + (long)entry * ENTRY_SIZE;
+	}
+
+	private static long indexLength(long entries, boolean ordered) {
+		return HEADER_SIZE + entries * ENTRY_SIZE + (ordered ? 0 : 4 * entries);
+	}
+
+	/**
+	 * Listener which writes an index entry for each object as the dump is parsed,
+	 * then adds the header and the sorted section.
+	 */
+	private static final class Builder implements PortableHeapDumpListener {
+		private final HeapdumpReader reader;
+		private DataOutputStream out;
+		private long start;
+		private long previous;
+		private long lastObject;
+		private int entries;
+		private boolean ordered = true;
+
+		Builder(HeapdumpReader reader) throws IOException {
+			this.reader = reader;
+			this.start = reader.position();
+		}
+
+		/**
+		 * Parse the whole dump, writing space for the header then the entries to the stream.
+		 */
+		void parse(OutputStream stream) throws IOException {
+			out = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16));
+			try {
+				out.write(new byte[HEADER_SIZE]);
+				while (reader.parse(this)) {
+					// The builder never stops the parse early
+				}
+			} catch (IOException e) {
+				throw e;
+			} catch (Exception e) {
+				IOException ioe = new IOException("Error indexing PHD file");
+				ioe.initCause(e);
+				throw ioe;
+			} finally {
+				out.close();
+				out = null;
+			}
+		}
+
+		/**
+		 * Returns the length of the complete index.
+		 */
+		long length() {
+			return indexLength(entries, ordered);
+		}
+
+		public void objectDump(long address, long classAddress, int flags, int hashCode,
+				LongEnumeration refs, long instanceSize) throws Exception {
+			add(address, classAddress);
+		}
+
+		public void objectArrayDump(long address, long classAddress, int flags, int hashCode,
+				LongEnumeration refs, int length, long instanceSize) throws Exception {
+			add(address, classAddress);
+		}
+
+		public void classDump(long address, long superAddress, String name, int instanceSize,
+				int flags, int hashCode, LongEnumeration refs) throws Exception {
+			next(address);
+		}
+
+		public void primitiveArrayDump(long address, int type, int length, int flags,
+				int hashCode, long instanceSize) throws Exception {
+			add(address, type);
+		}
+
+		private void add(long address, long classAddress) throws IOException {
+			if (entries == Integer.MAX_VALUE) {
+				throw new IOException("too many objects to index");
+			}
+			if (entries > 0 && address < lastObject) {
+				ordered = false;
+			}
+			lastObject = address;
+			out.writeLong(address);
+			out.writeLong(previous);
+			out.writeLong(start);
+			out.writeLong(classAddress);
+			++entries;
+			next(address);
+		}
+
+		/**
+		 * The next record starts where this one ended, and addresses in it are relative to this one.
+		 */
+		private void next(long address) throws IOException {
+			previous = address;
+			start = reader.position();
+		}
+
+		/**
+		 * Write the header, except for the magic number, and the sorted section
+		 * to an index of {@link #length()} bytes which holds the entries.
+		 */
+		void finish(MappedFile map, long length, long modified) {
+			if (!ordered) {
+				// Entry numbers sorted by address
+				long[] addresses = new long[entries];
+				int[] order = new int[entries];
+				for (int entry = 0; entry < entries; ++entry) {
+					addresses[entry] = map.getLong(entryOffset(entry));
+					order[entry] = entry;
+				}
+				sort(addresses, order, 0, entries);
+				addresses = null;
+				long sortedOffset = entryOffset(entries);
+				for (int i = 0; i < entries; ++i) {
+					map.putInt(sortedOffset + 4L * i, order[i]);
+				}
+			}
+			map.putInt(8, VERSION);
+			map.putInt(12, ordered ? 0 : FLAG_SORTED);
+			map.putLong(16, length);
+			map.putLong(24, modified);
+			map.putLong(32, 0);
+			map.putLong(40, entries);
+			map.putLong(48, 0);
+			map.putLong(56, 0);
+		}
+
+		/**
+		 * Sort the keys, keeping the values in step.
+		 */
+		private static void sort(long[] keys, int[] values, int from, int to) {
+			while (to - from > 16) {
+				int mid = (from + to) >>> 1;
+				long pivot = median(keys[from], keys[mid], keys[to - 1]);
+				int i = from;
+				int j = to - 1;
+				while (i <= j) {
+					while (keys[i] < pivot) {
+						++i;
+					}
+					while (keys[j] > pivot) {
+						--j;
+					}
+					if (i <= j) {
+						long k = keys[i];
+						keys[i] = keys[j];
+						keys[j] = k;
+						int v = values[i];
+						values[i] = values[j];
+						values[j] = v;
+						++i;
+						--j;
+					}
+				}
+				// Recurse into the smaller part to bound the stack depth
+				if (j + 1 - from < to - i) {
+					sort(keys, values, from, j + 1);
+					from = i;
+				} else {
+					sort(keys, values, i, to);
+					to = j + 1;
+				}
+			}
+			for (int i = from + 1; i < to; ++i) {
+				long k = keys[i];
+				int v = values[i];
+				int j = i - 1;
+				while (j >= from && keys[j] > k) {
+					keys[j + 1] = keys[j];
+					values[j + 1] = values[j];
+					--j;
+				}
+				keys[j + 1] = k;
+				values[j + 1] = v;
+			}
+		}
+
+		private static long median(long a, long b, long c) {
+			if (a < b) {
+				return b < c ? b : (a < c ? c : a);
+			} else {
+				return a < c ? a : (b < c ? c : b);
+			}
+		}
+	}
+}
@@ -1,6 +1,6 @@
 /*[INCLUDE-IF Sidecar18-SE]*/
 /*******************************************************************************
- * Copyright (c) 2002, 2017 IBM Corp. and others
+ * Copyright (c) 2002, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -119,6 +119,19 @@ public class HeapdumpReader extends Base {
 	}
 	
 	
+	/**
+	 * Create a new HeapdumpReader object over a memory mapped file. The file must be in Phd format.
+	 * As well as sequential parsing this allows parsing to be restarted at any record
+	 * (see {@link #resumeAt}).
+	 * @throws IOException 
+	 */
+	HeapdumpReader(MappedFile input, String filename) throws IOException {
+		this.filename = filename;
+		input.seek(0);
+		dis = new DataStreamAdapter(input);
+		processData();
+	}
+
 	/**
 	 * Create a new HeapdumpReader object from the given file. The file must be in Phd format.
 	 * @throws IOException 
@@ -454,6 +467,31 @@ public class HeapdumpReader extends Base {
 	public void exitParse() {
 		continueParse = false;
 	}
+
+	/**
+	 * Returns the offset in the file of the next record to be parsed.
+	 * @throws IOException 
+	 */
+	long position() throws IOException {
+		return dis.position();
+	}
+
+	/**
+	 * Position the reader so that the next call to {@link #parse} starts with the
+	 * record at the given offset. Compressed dumps can only be positioned forwards.
+	 * @param offset the file offset of the record
+	 * @param previousAddress the address of the record before it, as addresses are stored relative to that
+	 * @param classAddress the class of the record, needed for short object records which refer to the class cache
+	 * @throws IOException 
+	 */
+	void resumeAt(long offset, long previousAddress, long classAddress) throws IOException {
+		dis.seek(offset);
+		lastAddress = previousAddress;
+		for (int i = 0; i < classAddressCache.length; ++i) {
+			classAddressCache[i] = classAddress;
+		}
+		classAddressCacheIndex = 0;
+	}
 	/**
 	 *  Parse the heapdump. This uses callbacks via the PortableHeapDumpListener interface. Any
 	 *  exceptions that the listener raises are propagated back.
@@ -709,99 +747,169 @@ public class HeapdumpReader extends Base {
 	}
 	
 	/**
-	 * Used to adapt data retrieval calls between two incompatible streams
-	 * DataInputStream and ImageInputStream
+	 * Used to adapt data retrieval calls between the incompatible streams
+	 * DataInputStream, ImageInputStream and MappedFile
 	 * @author adam
 	 *
 	 */
 	private class DataStreamAdapter {
 		private final DataInputStream dis;
 		private final ImageInputStream iis;
+		private final MappedFile mfi;
+		/* A DataInputStream cannot report its position, so count the bytes read from it */
+		private long disPosition;
+		private long disMark;
 		
 		public DataStreamAdapter(ImageInputStream iis) {
 			this.iis = iis;
 			dis = null;
+			mfi = null;
 		}
 		
 		public DataStreamAdapter(DataInputStream dis) {
 			this.dis = dis;
 			iis = null;
+			mfi = null;
+		}
+		
+		public DataStreamAdapter(MappedFile mfi) {
+			this.mfi = mfi;
+			dis = null;
+			iis = null;
+		}
+		
+		public long position() throws IOException {
+			if(mfi != null) {
+				return mfi.position();
+			} else if(dis == null) {
+				return iis.getStreamPosition();
+			} else {
+				return disPosition;
+			}
+		}
+		
+		public void seek(long pos) throws IOException {
+			if(mfi != null) {
+				mfi.seek(pos);
+			} else if(dis == null) {
+				iis.seek(pos);
+			} else {
+				if(pos < disPosition) {
+					throw new IOException("cannot seek backwards in " + filename + " from " + disPosition + " to " + pos);
+				}
+				while(disPosition < pos) {
+					int skipped = dis.skipBytes((int)Math.min(pos - disPosition, Integer.MAX_VALUE));
+					if(skipped <= 0) {
+						throw new EOFException("seek past end of " + filename + " at " + disPosition);
+					}
+					disPosition += skipped;
+				}
+			}
 		}
 		
 		public int readInt() throws IOException {
-			if(dis == null) {
+			if(mfi != null) {
+				return mfi.readInt();
+			} else if(dis == null) {
 				return iis.readInt();
 			} else {
+				disPosition += 4;
 				return dis.readInt();
 			}
 		}
 		
 		public int readUnsignedShort() throws IOException {
-			if(dis == null) {
+			if(mfi != null) {
+				return mfi.readUnsignedShort();
+			} else if(dis == null) {
 				return iis.readUnsignedShort();
 			} else {
+				disPosition += 2;
 				return dis.readUnsignedShort();
 			}
 		}
 		
 		public int readUnsignedByte() throws IOException {
-			if(dis == null) {
+			if(mfi != null) {
+				return mfi.readUnsignedByte();
+			} else if(dis == null) {
 				return iis.readUnsignedByte();
 			} else {
+				disPosition += 1;
 				return dis.readUnsignedByte();
 			}
 		}
 		
 		public void mark(int readlimit) {
-			if(dis == null) {
+			if(mfi != null) {
+				mfi.mark();
+			} else if(dis == null) {
 				iis.mark();		//iis mark doesn't take a parameter
 			} else {
 				dis.mark(readlimit);
+				disMark = disPosition;
 			}
 		}
 		
 		public void reset() throws IOException {
-			if(dis == null) {
+			if(mfi != null) {
+				mfi.reset();
+			} else if(dis == null) {
 				iis.reset();
 			} else {
 				dis.reset();
+				disPosition = disMark;
 			}
 		}
 		
 		public long readLong() throws IOException {
-			if(dis == null) {
+			if(mfi != null) {
+				return mfi.readLong();
+			} else if(dis == null) {
 				return iis.readLong();
 			} else {
+				disPosition += 8;
 				return dis.readLong();
 			}
 		}
 		
 		public short readShort() throws IOException {
-			if(dis == null) {
+			if(mfi != null) {
+				return mfi.readShort();
+			} else if(dis == null) {
 				return iis.readShort();
 			} else {
+				disPosition += 2;
 				return dis.readShort();
 			}
 		}
 		
 		public byte readByte() throws IOException {
-			if(dis == null) {
+			if(mfi != null) {
+				return mfi.readByte();
+			} else if(dis == null) {
 				return iis.readByte();
 			} else {
+				disPosition += 1;
 				return dis.readByte();
 			}
 		}
 		
 		public void readFully(byte[] buffer) throws IOException {
-			if(dis == null) {
+			if(mfi != null) {
+				mfi.readFully(buffer);
+			} else if(dis == null) {
 				iis.readFully(buffer);
 			} else {
 				dis.readFully(buffer);
+				disPosition += buffer.length;
 			}
 		}
 		
 		public void close() throws IOException {
-			if(dis == null) {
+			if(mfi != null) {
+				//nothing to close, the mapping is released when no longer referenced
+			} else if(dis == null) {
 				//ignore and do not close the image input stream as this will be handled by the PHD Image
 			} else {
 				dis.close();
@@ -810,7 +918,9 @@ public class HeapdumpReader extends Base {
 		
 		//allows all input sources to be closed and is used to signal the final closing
 		public void releaseResources() throws IOException {
-			if(dis == null) {
+			if(mfi != null) {
+				//nothing to close, the mapping is released when no longer referenced
+			} else if(dis == null) {
 				iis.close();
 			} else {
 				dis.close();
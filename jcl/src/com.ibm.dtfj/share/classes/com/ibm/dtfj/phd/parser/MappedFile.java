@@ -0,0 +1,295 @@
+/*[INCLUDE-IF Sidecar18-SE]*/
+/*******************************************************************************
+ * Copyright (c) 2018, 2018 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *******************************************************************************/
+package com.ibm.dtfj.phd.parser;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A file mapped into memory in windows of up to 1GB, so that files larger than
+ * 2GB can be read. Offers big-endian sequential reads (as used by
+ * {@link HeapdumpReader}) as well as absolute access to aligned values.
+ * Sequential reads are not thread safe.
+ * <p>
+ * The same access is available to data held on the Java heap, written
+ * with a {@link MemoryOutput}.
+ */
+final class MappedFile {
+	private static final int WINDOW_SHIFT = 30;
+	private static final long WINDOW_SIZE = 1L << WINDOW_SHIFT;
+	private static final long WINDOW_MASK = WINDOW_SIZE - 1;
+
+	private final ByteBuffer[] windows;
+	private final long length;
+	private long position;
+	private long mark;
+
+	/**
+	 * Map the whole of a file read only.
+	 */
+	MappedFile(File file) throws IOException {
+		this(file, false);
+	}
+
+	/**
+	 * Map the whole of a file, either read only or for reading and writing.
+	 */
+	MappedFile(File file, boolean writable) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(file, writable ? "rw" : "r");
+		try {
+			FileChannel channel = raf.getChannel();
+			FileChannel.MapMode mode = writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+			length = channel.size();
+			int count = (int)((length + WINDOW_MASK) >>> WINDOW_SHIFT);
+			windows = new ByteBuffer[count];
+			for (int i = 0; i < count; ++i) {
+				long start = (long)i << WINDOW_SHIFT;
+				windows[i] = channel.map(mode, start, Math.min(WINDOW_SIZE, length - start));
+			}
+		} finally {
+			// The mappings remain valid once the channel is closed
+			raf.close();
+		}
+	}
+
+	private MappedFile(ByteBuffer[] windows, long length) {
+		this.windows = windows;
+		this.length = length;
+	}
+
+	long length() {
+		return length;
+	}
+
+	long position() {
+		return position;
+	}
+
+	void seek(long pos) {
+		position = pos;
+	}
+
+	void mark() {
+		mark = position;
+	}
+
+	void reset() {
+		position = mark;
+	}
+
+	/**
+	 * Flush any changes to a writable mapping back to the file.
+	 */
+	void force() {
+		for (ByteBuffer window : windows) {
+			if (window instanceof MappedByteBuffer) {
+				((MappedByteBuffer)window).force();
+			}
+		}
+	}
+
+	/**
+	 * Returns the window holding n bytes at the current position, or null
+	 * if those bytes straddle two windows.
+	 */
+	private ByteBuffer window(int n) throws EOFException {
+		if (position + n > length) {
+			throw new EOFException("read past end of mapped file at " + position);
+		}
+		ByteBuffer window = windows[(int)(position >>> WINDOW_SHIFT)];
+		return ((position & WINDOW_MASK) + n <= window.limit()) ? window : null;
+	}
+
+	private int offset() {
+		return (int)(position & WINDOW_MASK);
+	}
+
+	private long readBytes(int n) throws EOFException {
+		long value = 0;
+		for (int i = 0; i < n; ++i) {
+			value = (value << 8) | (windows[(int)(position >>> WINDOW_SHIFT)].get(offset()) & 0xff);
+			++position;
+		}
+		return value;
+	}
+
+	byte readByte() throws IOException {
+		ByteBuffer window = window(1);
+		byte value = window.get(offset());
+		position += 1;
+		return value;
+	}
+
+	int readUnsignedByte() throws IOException {
+		return readByte() & 0xff;
+	}
+
+	short readShort() throws IOException {
+		ByteBuffer window = window(2);
+		if (window == null) {
+			return (short)readBytes(2);
+		}
+		short value = window.getShort(offset());
+		position += 2;
+		return value;
+	}
+
+	int readUnsignedShort() throws IOException {
+		return readShort() & 0xffff;
+	}
+
+	int readInt() throws IOException {
+		ByteBuffer window = window(4);
+		if (window == null) {
+			return (int)readBytes(4);
+		}
+		int value = window.getInt(offset());
+		position += 4;
+		return value;
+	}
+
+	long readLong() throws IOException {
+		ByteBuffer window = window(8);
+		if (window == null) {
+			return readBytes(8);
+		}
+		long value = window.getLong(offset());
+		position += 8;
+		return value;
+	}
+
+	void readFully(byte[] buffer) throws IOException {
+		if (position + buffer.length > length) {
+			throw new EOFException("read past end of mapped file at " + position);
+		}
+		for (int done = 0; done < buffer.length;) {
+			ByteBuffer window = windows[(int)(position >>> WINDOW_SHIFT)].duplicate();
+			window.position(offset());
+			int n = Math.min(buffer.length - done, window.remaining());
+			window.get(buffer, done, n);
+			done += n;
+			position += n;
+		}
+	}
+
+	/**
+	 * Read an int at an absolute position, which must be a multiple of 4.
+	 */
+	int getInt(long pos) {
+		return windows[(int)(pos >>> WINDOW_SHIFT)].getInt((int)(pos & WINDOW_MASK));
+	}
+
+	/**
+	 * Read a long at an absolute position, which must be a multiple of 8.
+	 */
+	long getLong(long pos) {
+		return windows[(int)(pos >>> WINDOW_SHIFT)].getLong((int)(pos & WINDOW_MASK));
+	}
+
+	/**
+	 * Write an int at an absolute position, which must be a multiple of 4.
+	 */
+	void putInt(long pos, int value) {
+		windows[(int)(pos >>> WINDOW_SHIFT)].putInt((int)(pos & WINDOW_MASK), value);
+	}
+
+	/**
+	 * Write a long at an absolute position, which must be a multiple of 8.
+	 */
+	void putLong(long pos, long value) {
+		windows[(int)(pos >>> WINDOW_SHIFT)].putLong((int)(pos & WINDOW_MASK), value);
+	}
+
+	/**
+	 * An output stream which collects its data on the Java heap, in the same windows as
+	 * a mapped file, so that more than 2GB can be written.
+	 */
+	static final class MemoryOutput extends OutputStream {
+		private static final int INITIAL_SIZE = 1 << 16;
+
+		private final List<ByteBuffer> windows = new ArrayList<ByteBuffer>();
+		private long length;
+
+		public void write(int b) {
+			ensureCapacity(length + 1);
+			windows.get((int)(length >>> WINDOW_SHIFT)).put((int)(length & WINDOW_MASK), (byte)b);
+			length += 1;
+		}
+
+		public void write(byte[] b, int off, int len) {
+			ensureCapacity(length + len);
+			while (len > 0) {
+				ByteBuffer window = windows.get((int)(length >>> WINDOW_SHIFT)).duplicate();
+				window.position((int)(length & WINDOW_MASK));
+				int n = Math.min(len, window.remaining());
+				window.put(b, off, n);
+				off += n;
+				len -= n;
+				length += n;
+			}
+		}
+
+		/**
+		 * Returns the data written so far, extended with zeros to the given length,
+		 * for reading and writing at absolute positions.
+		 */
+		MappedFile toMappedFile(long size) {
+			ensureCapacity(size);
+			return new MappedFile(windows.toArray(new ByteBuffer[windows.size()]), size);
+		}
+
+		private long capacity() {
+			int count = windows.size();
+			return (count == 0) ? 0 : ((long)(count - 1) << WINDOW_SHIFT) + windows.get(count - 1).capacity();
+		}
+
+		/**
+		 * Grow the last window, doubling it until it reaches the window size, then add more windows.
+		 */
+		private void ensureCapacity(long size) {
+			while (capacity() < size) {
+				int count = windows.size();
+				ByteBuffer last = (count == 0) ? null : windows.get(count - 1);
+				if ((last == null) || (last.capacity() == WINDOW_SIZE)) {
+					windows.add(ByteBuffer.allocate(INITIAL_SIZE));
+				} else {
+					long needed = size - ((long)(count - 1) << WINDOW_SHIFT);
+					int grown = (int)Math.min(WINDOW_SIZE, Math.max(needed, 2L * last.capacity()));
+					ByteBuffer window = ByteBuffer.allocate(grown);
+					last.clear();
+					window.put(last);
+					window.clear();
+					windows.set(count - 1, window);
+				}
+			}
+		}
+	}
+}
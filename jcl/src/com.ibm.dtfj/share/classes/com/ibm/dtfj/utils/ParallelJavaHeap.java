@@ -0,0 +1,84 @@
+/*[INCLUDE-IF Sidecar18-SE]*/
+/*******************************************************************************
+ * Copyright (c) 2018, 2018 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *******************************************************************************/
+package com.ibm.dtfj.utils;
+
+import java.util.Iterator;
+
+import com.ibm.dtfj.java.JavaHeap;
+
+/**
+ * Extension to the JavaHeap interface for heaps whose objects can be walked by
+ * several threads at once. The heap is divided into parts which can be walked
+ * independently, for example the regions of a region based heap. Each part is
+ * walked on a worker thread, and the results are collected on the calling thread
+ * in the same order as the objects are returned by {@link JavaHeap#getObjects()},
+ * so the outcome does not depend on the number of threads.
+ * <p>
+ * The number of threads used by default can be set with the system property
+ * <code>com.ibm.dtfj.heap.walk.threads</code>; <code>-Dcom.ibm.dtfj.heap.walk.threads=1</code>
+ * walks every heap serially on the calling thread.
+ */
+public interface ParallelJavaHeap extends JavaHeap {
+
+	/**
+	 * The system property giving the number of threads used when {@link #walkObjects}
+	 * is passed 0, overriding the number of available processors.
+	 */
+	public static final String THREADS_PROPERTY = "com.ibm.dtfj.heap.walk.threads";
+
+	/**
+	 * Processes runs of consecutive objects from the heap.
+	 *
+	 * @param <R> the result for a run of objects
+	 */
+	public interface ObjectWalker<R> {
+		/**
+		 * Process a run of consecutive objects from one part of the heap. This is called
+		 * on a worker thread, possibly at the same time as calls for other parts of the heap.
+		 * Objects in the run which are not consumed are skipped.
+		 *
+		 * @param objects the objects, each a {@link com.ibm.dtfj.java.JavaObject} or a
+		 * {@link com.ibm.dtfj.image.CorruptData}
+		 * @return the result for this run
+		 */
+		R walk(Iterator objects);
+
+		/**
+		 * Collect the result for a run of objects. This is called on the thread which
+		 * called {@link ParallelJavaHeap#walkObjects}, once for each run, in heap order.
+		 *
+		 * @param result the result returned by {@link #walk}
+		 */
+		void collect(R result);
+	}
+
+	/**
+	 * Walk all the objects in this heap. Any exception thrown by the walker
+	 * ends the walk and is rethrown to the caller.
+	 *
+	 * @param walker processes the objects and collects the results
+	 * @param threads the number of threads to use, or 0 for the default: the value of the
+	 * {@link #THREADS_PROPERTY} system property if set, otherwise the number of available processors
+	 */
+	public <R> void walkObjects(ObjectWalker<R> walker, int threads);
+}
@@ -1,6 +1,6 @@
 /*[INCLUDE-IF Sidecar19-SE]*/
 /*******************************************************************************
- * Copyright (c) 2016, 2017 IBM Corp. and others
+ * Copyright (c) 2016, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -31,6 +31,7 @@ module com.ibm.dtfj {
 	exports com.ibm.dtfj.image.j9 to com.ibm.dtfjview;
 	exports com.ibm.dtfj.java;
 	exports com.ibm.dtfj.runtime;
+	exports com.ibm.dtfj.utils to com.ibm.dtfjview;
 	exports com.ibm.dtfj.utils.file to com.ibm.dtfjview;
 	exports com.ibm.java.diagnostics.utils to com.ibm.dtfjview;
 	exports com.ibm.java.diagnostics.utils.commands to com.ibm.dtfjview;
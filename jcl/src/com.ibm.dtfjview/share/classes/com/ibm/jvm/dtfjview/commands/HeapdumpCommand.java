@@ -1,6 +1,6 @@
 /*[INCLUDE-IF Sidecar18-SE]*/
 /*******************************************************************************
- * Copyright (c) 2008, 2017 IBM Corp. and others
+ * Copyright (c) 2008, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -32,7 +32,9 @@ import java.io.IOException;
 import java.io.PrintStream;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
@@ -54,6 +56,7 @@ import com.ibm.dtfj.java.JavaHeap;
 import com.ibm.dtfj.java.JavaObject;
 import com.ibm.dtfj.java.JavaReference;
 import com.ibm.dtfj.java.JavaRuntime;
+import com.ibm.dtfj.utils.ParallelJavaHeap;
 import com.ibm.java.diagnostics.utils.IContext;
 import com.ibm.java.diagnostics.utils.commands.CommandException;
 import com.ibm.java.diagnostics.utils.plugins.DTFJPlugin;
@@ -436,76 +439,242 @@ ITERATING_CLASSES:while(classesIt.hasNext()) {
 	private void dumpHeap(HeapDumpFormatter formatter, JavaHeap thisHeap)
 			throws IOException
 	{
-		Iterator objectIterator = thisHeap.getObjects();
+		HeapObjectWalker walker = new HeapObjectWalker(formatter, thisHeap);
 
-		while (objectIterator.hasNext()) {
-			Object next = objectIterator.next();
-			_numberOfObjects++;
-
-			if (next instanceof CorruptData) {
-				_numberOfErrors++;
-				reportError("Corrupt object data found at " + ((CorruptData)next).getAddress() + " while walking heap " + thisHeap.getName(),null);
-				continue;
+		try {
+			if (thisHeap instanceof ParallelJavaHeap) {
+				((ParallelJavaHeap) thisHeap).walkObjects(walker, 0);
+			} else {
+				walker.collect(walker.walk(thisHeap.getObjects()));
 			}
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
 
-			try {
-				JavaObject thisObject = (JavaObject) next;
-				if (thisObject.getJavaClass().getName().equals("java/lang/Class")) {
-					// heap classes are handled separately, in dumpClasses()
+	/**
+	 * The heapdump records and errors for a run of heap objects.
+	 */
+	private static final class HeapObjects
+	{
+		final List<HeapObjectRecord> records = new ArrayList<HeapObjectRecord>();
+		final HeapErrors errors;
+		int numberOfObjects = 0;
+
+		HeapObjects(boolean verbose)
+		{
+			errors = new HeapErrors(verbose);
+		}
+	}
+
+	/**
+	 * Builds the heapdump records for runs of heap objects, possibly on several threads,
+	 * and writes them to the formatter in heap order.
+	 */
+	private final class HeapObjectWalker implements ParallelJavaHeap.ObjectWalker<HeapObjects>
+	{
+		private final HeapDumpFormatter formatter;
+		private final JavaHeap thisHeap;
+
+		HeapObjectWalker(HeapDumpFormatter formatter, JavaHeap thisHeap)
+		{
+			this.formatter = formatter;
+			this.thisHeap = thisHeap;
+		}
+
+		public HeapObjects walk(Iterator objectIterator)
+		{
+			HeapObjects objects = new HeapObjects(_verbose);
+			HeapErrors errors = objects.errors;
+
+			while (objectIterator.hasNext()) {
+				Object next = objectIterator.next();
+				objects.numberOfObjects++;
+
+				if (next instanceof CorruptData) {
+					errors.add("Corrupt object data found at " + ((CorruptData)next).getAddress() + " while walking heap " + thisHeap.getName(),null);
 					continue;
-				}				
-				JavaClass thisClass = thisObject.getJavaClass();
-				JavaObject thisClassObject = thisClass.getObject();
-
-				int hashcode = 0;
-				if (_is32BitHash) { // JVMs from 2.6 on, optional 32-bit hashcodes, if object was hashed 
-					try {
-						hashcode = (int) thisObject.getPersistentHashcode();
-					} catch (DataUnavailable ex) {
-						// no persistent hashcode for this object, pass hashcode=0 to the heapdump formatter
-					}
-				} else { // JVMs prior to 2.6, all objects should have a 16-bit hashcode
-					try {
-						hashcode = (int) thisObject.getHashcode();
-					} catch (DataUnavailable ex) {
-						_numberOfErrors++;
-						reportError("Failed to get hashcode for object: " + thisObject.getID(),ex);
-					}
 				}
 
-				if (thisObject.isArray()) {
-					if (isPrimitive(thisClass.getComponentType())) {
-						formatter.addPrimitiveArray(thisObject.getID().getAddress(), 
-													thisClassObject.getID().getAddress(),
-													getPrimitiveTypeCode(thisClass.getComponentType()),
-													thisObject.getSize(), 
-													hashcode,
-													thisObject.getArraySize());
-					} else {
-						formatter.addObjectArray(thisObject.getID().getAddress(), 
-								thisClassObject.getID().getAddress(), 
-								thisClass.getName(), 
-								thisClass.getComponentType().getObject().getID().getAddress(),
-								thisClass.getComponentType().getName(), 
-								thisObject.getSize(),
-								thisObject.getArraySize(),
-								hashcode, 
-								getObjectReferences(thisObject));
+				try {
+					JavaObject thisObject = (JavaObject) next;
+					if (thisObject.getJavaClass().getName().equals("java/lang/Class")) {
+						// heap classes are handled separately, in dumpClasses()
+						continue;
+					}				
+					JavaClass thisClass = thisObject.getJavaClass();
+					JavaObject thisClassObject = thisClass.getObject();
+
+					int hashcode = 0;
+					if (_is32BitHash) { // JVMs from 2.6 on, optional 32-bit hashcodes, if object was hashed 
+						try {
+							hashcode = (int) thisObject.getPersistentHashcode();
+						} catch (DataUnavailable ex) {
+							// no persistent hashcode for this object, pass hashcode=0 to the heapdump formatter
+						}
+					} else { // JVMs prior to 2.6, all objects should have a 16-bit hashcode
+						try {
+							hashcode = (int) thisObject.getHashcode();
+						} catch (DataUnavailable ex) {
+							errors.add("Failed to get hashcode for object: " + thisObject.getID(),ex);
+						}
+					}
+
+					if (thisObject.isArray()) {
+						if (isPrimitive(thisClass.getComponentType())) {
+							objects.records.add(HeapObjectRecord.primitiveArray(thisObject.getID().getAddress(), 
+														thisClassObject.getID().getAddress(),
+														getPrimitiveTypeCode(thisClass.getComponentType()),
+														thisObject.getSize(), 
+														hashcode,
+														thisObject.getArraySize()));
+						} else {
+							objects.records.add(HeapObjectRecord.objectArray(thisObject.getID().getAddress(), 
+									thisClassObject.getID().getAddress(), 
+									thisClass.getName(), 
+									thisClass.getComponentType().getObject().getID().getAddress(),
+									thisClass.getComponentType().getName(), 
+									thisObject.getSize(),
+									thisObject.getArraySize(),
+									hashcode, 
+									getObjectReferences(thisObject, errors)));
+						}
+					}
+					else {
+						objects.records.add(HeapObjectRecord.object(thisObject.getID().getAddress(), 
+											thisClassObject.getID().getAddress(), 
+											thisClass.getName(), 
+											(int)thisObject.getSize(),
+											hashcode, 
+											getObjectReferences(thisObject, errors)));
 					}
 				}
-				else {
-					formatter.addObject(thisObject.getID().getAddress(), 
-										thisClassObject.getID().getAddress(), 
-										thisClass.getName(), 
-										(int)thisObject.getSize(),
-										hashcode, 
-										getObjectReferences(thisObject));
+				catch (CorruptDataException ex) {
+					errors.add(null,ex);
+					continue;
 				}
 			}
-			catch (CorruptDataException ex) {
-				_numberOfErrors++;
-				reportError(null,ex);
-				continue;
+			return objects;
+		}
+
+		public void collect(HeapObjects objects)
+		{
+			_numberOfObjects += objects.numberOfObjects;
+			reportErrors(objects.errors);
+			try {
+				for (HeapObjectRecord record : objects.records) {
+					record.write(formatter);
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	/**
+	 * The arguments for one call to the heapdump formatter for a heap object.
+	 */
+	private static final class HeapObjectRecord
+	{
+		private static final int OBJECT = 0;
+		private static final int OBJECT_ARRAY = 1;
+		private static final int PRIMITIVE_ARRAY = 2;
+
+		private final int kind;
+		private final long address;
+		private final long classAddress;
+		private final String className;
+		private final long elementClassAddress;
+		private final String elementClassName;
+		private final int type;
+		private final long size;
+		private final int numberOfElements;
+		private final int hashCode;
+		private final ReferenceIterator references;
+
+		private HeapObjectRecord(int kind, long address, long classAddress, String className,
+				long elementClassAddress, String elementClassName, int type, long size,
+				int numberOfElements, int hashCode, ReferenceIterator references)
+		{
+			this.kind = kind;
+			this.address = address;
+			this.classAddress = classAddress;
+			this.className = className;
+			this.elementClassAddress = elementClassAddress;
+			this.elementClassName = elementClassName;
+			this.type = type;
+			this.size = size;
+			this.numberOfElements = numberOfElements;
+			this.hashCode = hashCode;
+			this.references = references;
+		}
+
+		static HeapObjectRecord object(long address, long classAddress, String className,
+				int size, int hashCode, ReferenceIterator references)
+		{
+			return new HeapObjectRecord(OBJECT, address, classAddress, className, 0, null, 0, size, 0, hashCode, references);
+		}
+
+		static HeapObjectRecord objectArray(long address, long arrayClassAddress, String arrayClassName,
+				long elementClassAddress, String elementClassName, long size, int numberOfElements,
+				int hashCode, ReferenceIterator references)
+		{
+			return new HeapObjectRecord(OBJECT_ARRAY, address, arrayClassAddress, arrayClassName, elementClassAddress,
+					elementClassName, 0, size, numberOfElements, hashCode, references);
+		}
+
+		static HeapObjectRecord primitiveArray(long address, long arrayClassAddress, int type, long size,
+				int hashCode, int numberOfElements)
+		{
+			return new HeapObjectRecord(PRIMITIVE_ARRAY, address, arrayClassAddress, null, 0, null, type, size,
+					numberOfElements, hashCode, null);
+		}
+
+		void write(HeapDumpFormatter formatter) throws IOException
+		{
+			switch (kind) {
+			case OBJECT:
+				formatter.addObject(address, classAddress, className, (int)size, hashCode, references);
+				break;
+			case OBJECT_ARRAY:
+				formatter.addObjectArray(address, classAddress, className, elementClassAddress, elementClassName,
+						size, numberOfElements, hashCode, references);
+				break;
+			default:
+				formatter.addPrimitiveArray(address, classAddress, type, size, hashCode, numberOfElements);
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Errors found while walking part of the heap. Parts of the heap may be walked on
+	 * other threads, so the errors are held until they are reported by reportErrors().
+	 */
+	private static final class HeapErrors
+	{
+		private final boolean verbose;
+		private final List<String> messages = new ArrayList<String>();
+		int count = 0;
+
+		HeapErrors(boolean verbose)
+		{
+			this.verbose = verbose;
+		}
+
+		void add(String msg, Throwable t)
+		{
+			count++;
+			if (!verbose) {
+				return;
+			}
+			if (msg != null) {
+				messages.add(msg);
+			}
+			if (t != null) {
+				StringWriter writer = new StringWriter();
+				t.printStackTrace(new PrintWriter(writer));
+				messages.add(writer.toString());
 			}
 		}
 	}
@@ -523,10 +692,11 @@ ITERATING_CLASSES:while(classesIt.hasNext()) {
 	private ReferenceIterator getClassReferences(JavaClass thisJavaClass)
 	{
 		List references = new LinkedList();
+		HeapErrors errors = new HeapErrors(_verbose);
 		
 		try {
 			// Class object instance references
-			addReferences(thisJavaClass.getObject(), references);
+			addReferences(thisJavaClass.getObject(), references, errors);
 			//Statics        
 			addStaticReferences(thisJavaClass, references);
 			
@@ -569,6 +739,8 @@ ITERATING_CLASSES:while(classesIt.hasNext()) {
 		} catch(DTFJException ex) {
 			reportError(null,ex);
 			_numberOfErrors++;
+		} finally {
+			reportErrors(errors);
 		}
 		
 		return new LongListReferenceIterator(references);
@@ -656,14 +828,15 @@ ITERATING_CLASSES:while(classesIt.hasNext()) {
 	/**
 	 * Gets instance references for objects
 	 * @param thisObject Object being examined
+	 * @param errors Errors found while examining the object
 	 * @return Iterator of references
 	 */
-	private ReferenceIterator getObjectReferences(JavaObject thisObject)
+	private ReferenceIterator getObjectReferences(JavaObject thisObject, HeapErrors errors)
 	{
 		List<Long> references = new LinkedList<Long>();
 
 		try {
-			addReferences(thisObject, references);
+			addReferences(thisObject, references, errors);
 			if(thisObject.getJavaClass().isArray()) {
 				/**
 				 * Reverse the order of the elements for an object array.
@@ -684,8 +857,7 @@ ITERATING_CLASSES:while(classesIt.hasNext()) {
 				}			    	
 			}
 		} catch(DTFJException ex) {
-			_numberOfErrors++;
-			reportError(null,ex);
+			errors.add(null,ex);
 		}
 
 		return new LongListReferenceIterator(references);
@@ -695,10 +867,10 @@ ITERATING_CLASSES:while(classesIt.hasNext()) {
 	 * Extracts the instance references from an object
 	 * @param object Object being walked
 	 * @param references List<Long> to add references to
-	 * @param thisClass Class of object
+	 * @param errors Errors found while walking the object
 	 */
 	private void addReferences(JavaObject object,
-			List<Long> references) throws CorruptDataException,
+			List<Long> references, HeapErrors errors) throws CorruptDataException,
 			MemoryAccessException
 	{
 		Iterator it = object.getReferences();
@@ -713,8 +885,7 @@ ITERATING_CLASSES:while(classesIt.hasNext()) {
 			ref = it.next();
 			if(ref instanceof CorruptData) {
 				// can sometimes get a nasty surprise in the list - e.g. a J9DDRCorruptData
-				_numberOfErrors++;
-				reportError("Corrupt data found at address " 
+				errors.add("Corrupt data found at address " 
 						+ ((CorruptData)ref).getAddress() 
 						+ " getting references from object at address: "
 						+ Long.toHexString(object.getID().getAddress())
@@ -725,8 +896,7 @@ ITERATING_CLASSES:while(classesIt.hasNext()) {
 				continue;
 			}
 			if ( ! (ref instanceof JavaReference)) {
-				_numberOfErrors++;
-				reportError("Object of unexpected type "
+				errors.add("Object of unexpected type "
 						+ ref.getClass() 
 						+ " found within references from object at address: "
 						+ object.getID().getAddress()
@@ -740,8 +910,7 @@ ITERATING_CLASSES:while(classesIt.hasNext()) {
 				try {
 					target = ((JavaReference)ref).getTarget();
 				} catch (DataUnavailable e) {
-					_numberOfErrors++;
-					reportError("DataUnavailable thrown from call to getTarget() on reference: "
+					errors.add("DataUnavailable thrown from call to getTarget() on reference: "
 							+ ref
 							,null);
 					continue;
@@ -752,8 +921,7 @@ ITERATING_CLASSES:while(classesIt.hasNext()) {
 				} else if (target instanceof JavaClass) {
 					references.add(new Long(((JavaClass) target).getID().getAddress()));
 				} else {
-					_numberOfErrors++;
-					reportError("Object of unexpected type "
+					errors.add("Object of unexpected type "
 							+ target.getClass() 
 							+ " returned from call to getTarget() on reference "
 							+ ref
@@ -842,6 +1010,17 @@ ITERATING_CLASSES:while(classesIt.hasNext()) {
 		}
 	}
 
+	/**
+	 * Counts and reports errors found while walking part of the heap.
+	 */
+	private void reportErrors(HeapErrors errors)
+	{
+		_numberOfErrors += errors.count;
+		for (String message : errors.messages) {
+			out.println(message);
+		}
+	}
+
 	/**
 	 * Internal error handling routine that only reports the supplied message if verbose was supplied on the command line.
 	 */
@@ -1,6 +1,6 @@
 /*[INCLUDE-IF Sidecar18-SE]*/
 /*******************************************************************************
- * Copyright (c) 2004, 2017 IBM Corp. and others
+ * Copyright (c) 2004, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -23,7 +23,9 @@
 package com.ibm.jvm.dtfjview.commands.infocommands;
 
 import java.io.PrintStream;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 
 import com.ibm.dtfj.image.CorruptData;
 import com.ibm.dtfj.image.CorruptDataException;
@@ -32,6 +34,7 @@ import com.ibm.dtfj.image.ImageSection;
 import com.ibm.dtfj.java.JavaHeap;
 import com.ibm.dtfj.java.JavaObject;
 import com.ibm.dtfj.java.JavaRuntime;
+import com.ibm.dtfj.utils.ParallelJavaHeap;
 import com.ibm.java.diagnostics.utils.IContext;
 import com.ibm.java.diagnostics.utils.commands.CommandException;
 import com.ibm.java.diagnostics.utils.plugins.DTFJPlugin;
@@ -144,9 +147,6 @@ public class InfoHeapCommand extends BaseJdmpviewCommand {
 		 * when using "info heap *" the amount of time it would take would be astronomical.
 		 */
 		long size = 0;
-		long totalObjectSize = 0;
-		long totalObjects = 0;				//total number of objects on the heap
-		long totalCorruptObjects = 0;		//total number of corrupt objects 
 		
 		Iterator itSections = theHeap.getSections();
 		Object obj = null;					//object returned from various iterators
@@ -167,37 +167,93 @@ public class InfoHeapCommand extends BaseJdmpviewCommand {
 		}
 		out.print("\t  Size of heap: "+ size + " bytes\n");
 		
-		Iterator itObjects = theHeap.getObjects();
-		try{
-			while (itObjects.hasNext()){
-				obj = itObjects.next();
-				totalObjects++;
-				if(obj instanceof CorruptData) {
-					totalCorruptObjects++;
-					cdata = (CorruptData) obj;
-					out.print("\t\t Warning - corrupt heap object found at position " + totalObjects);
-					if(cdata.getAddress() != null) {
-						out.print(" address 0x" + cdata.getAddress().toString());
-					}
-					out.print("\n");
-				} else {
-					JavaObject theObject = (JavaObject) obj;
-					totalObjectSize = totalObjectSize + theObject.getSize();
-				}
-			}
-			
-			float percentage = ((float)totalObjectSize/(float)size)*10000; 
+		OccupancyWalker walker = new OccupancyWalker(out);
+		if (theHeap instanceof ParallelJavaHeap) {
+			((ParallelJavaHeap) theHeap).walkObjects(walker, 0);
+		} else {
+			walker.collect(walker.walk(theHeap.getObjects()));
+		}
+
+		if (walker.failed) {
+			out.print("\t  Occupancy :   <unknown>\n");
+		} else {
+			float percentage = ((float)walker.totalObjectSize/(float)size)*10000; 
 			int trimmedPercent = ((int)percentage); // Sending this float through an int gets it down to 2 decimal places.
 			percentage = ((float)trimmedPercent)/100;
 			
-			out.print("\t  Occupancy               :   "+ totalObjectSize + " bytes  (" + percentage + "%)\n");
-			out.print("\t  Total objects           :   "+ totalObjects + "\n");
-			out.print("\t  Total corrupted objects :   "+ totalCorruptObjects + "\n");
-		
-		} catch (CorruptDataException e){
-			out.print("\t  Occupancy :   <unknown>\n");
+			out.print("\t  Occupancy               :   "+ walker.totalObjectSize + " bytes  (" + percentage + "%)\n");
+			out.print("\t  Total objects           :   "+ walker.totalObjects + "\n");
+			out.print("\t  Total corrupted objects :   "+ walker.totalCorruptObjects + "\n");
+		}
+	}
+
+	/**
+	 * Counts of the objects in a run of heap objects.
+	 */
+	private static class Occupancy {
+		long objectSize = 0;
+		long objects = 0;
+		long corruptObjects = 0;
+		/* position within the run and description of each corrupt object */
+		final List<Long> corruptPositions = new ArrayList<Long>();
+		final List<String> corruptAddresses = new ArrayList<String>();
+		boolean failed = false;
+	}
+
+	/**
+	 * Totals the objects on a heap. Runs of objects may be counted on several threads,
+	 * the totals and warnings are accumulated in heap order by collect().
+	 */
+	private static class OccupancyWalker implements ParallelJavaHeap.ObjectWalker<Occupancy> {
+		private final PrintStream out;
+		long totalObjectSize = 0;
+		long totalObjects = 0;				//total number of objects on the heap
+		long totalCorruptObjects = 0;		//total number of corrupt objects 
+		boolean failed = false;				//the size of an object could not be determined
+
+		OccupancyWalker(PrintStream out) {
+			this.out = out;
+		}
+
+		public Occupancy walk(Iterator itObjects) {
+			Occupancy occupancy = new Occupancy();
+			try {
+				while (itObjects.hasNext()) {
+					Object obj = itObjects.next();
+					occupancy.objects++;
+					if (obj instanceof CorruptData) {
+						CorruptData cdata = (CorruptData) obj;
+						occupancy.corruptObjects++;
+						occupancy.corruptPositions.add(Long.valueOf(occupancy.objects));
+						occupancy.corruptAddresses.add((cdata.getAddress() != null) ? cdata.getAddress().toString() : null);
+					} else {
+						JavaObject theObject = (JavaObject) obj;
+						occupancy.objectSize += theObject.getSize();
+					}
+				}
+			} catch (CorruptDataException e) {
+				occupancy.failed = true;
+			}
+			return occupancy;
+		}
+
+		public void collect(Occupancy occupancy) {
+			if (failed) {
+				return;
+			}
+			for (int i = 0; i < occupancy.corruptPositions.size(); i++) {
+				out.print("\t\t Warning - corrupt heap object found at position " + (totalObjects + occupancy.corruptPositions.get(i).longValue()));
+				String address = occupancy.corruptAddresses.get(i);
+				if (address != null) {
+					out.print(" address 0x" + address);
+				}
+				out.print("\n");
+			}
+			totalObjectSize += occupancy.objectSize;
+			totalObjects += occupancy.objects;
+			totalCorruptObjects += occupancy.corruptObjects;
+			failed = occupancy.failed;
 		}
-		
 	}
 
 	@Override
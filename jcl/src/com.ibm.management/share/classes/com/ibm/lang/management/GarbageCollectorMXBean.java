@@ -1,6 +1,6 @@
 /*[INCLUDE-IF Sidecar18-SE]*/
 /*******************************************************************************
- * Copyright (c) 2005, 2017 IBM Corp. and others
+ * Copyright (c) 2005, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -71,4 +71,56 @@ public interface GarbageCollectorMXBean extends
      * @return number of compacts performed
      */
     public long getTotalCompacts();
+
+    /**
+     * Returns a histogram of the durations of the collections carried out by
+     * the garbage collector corresponding to this bean object. Element 0 counts
+     * collections that took less than a microsecond, element <code>n</code>
+     * counts collections that took at least 2<sup>n-1</sup> and less than
+     * 2<sup>n</sup> microseconds, and the last element counts all longer
+     * collections. The histogram is maintained whether or not verbose garbage
+     * collection logging is enabled.
+     * 
+     * @return the number of collections in each duration bucket
+     */
+    public long[] getPauseTimeHistogram();
+
+    /**
+     * Returns the cumulative total amount of heap memory, in bytes, allocated
+     * by the application, as measured at the start of each collection. This
+     * figure covers allocations between collections by any collector.
+     * 
+     * @return memory allocated in bytes
+     */
+    public long getTotalMemoryAllocated();
+
+    /**
+     * Returns the rate, in bytes per second, at which the application allocated
+     * heap memory between the end of the collection preceding the most recent
+     * one and the start of the most recent collection, by any collector.
+     * 
+     * @return the allocation rate in bytes per second
+     */
+    public long getAllocationRate();
+
+    /**
+     * Returns the cumulative total amount of memory, in bytes, that the garbage
+     * collector corresponding to this bean object moved into memory pools it
+     * does not manage, such as objects tenured by a nursery collector. This is
+     * zero for collectors that manage every pool.
+     * 
+     * @return memory promoted in bytes
+     */
+    public long getTotalMemoryPromoted();
+
+    /**
+     * Returns the rate, in bytes per second, at which the most recent collection
+     * carried out by the garbage collector corresponding to this bean object
+     * promoted memory, measured over the interval since its previous collection
+     * ended.
+     * 
+     * @return the promotion rate in bytes per second
+     * @see #getTotalMemoryPromoted()
+     */
+    public long getPromotionRate();
 }
@@ -1,6 +1,6 @@
 /*[INCLUDE-IF Sidecar17]*/
 /*******************************************************************************
- * Copyright (c) 2005, 2016 IBM Corp. and others
+ * Copyright (c) 2005, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -274,4 +274,14 @@ public interface MemoryMXBean extends java.lang.management.MemoryMXBean {
      * @return number of active GC worker threads
      */
 	public int getCurrentGCThreads();
+
+	/**
+	 * Returns the amount of heap, in bytes, freed by String deduplication. Strings which survive
+	 * collections are made to share their value arrays with equal Strings, so that the duplicate
+	 * arrays can be collected. String deduplication is enabled with -Xgc:stringDeduplication.
+	 * 
+	 * @return the size in bytes of the value arrays no longer referenced by deduplicated Strings,
+	 * or 0 if String deduplication is not enabled
+	 */
+	public long getStringDeduplicationBytesSaved();
 }
@@ -0,0 +1,138 @@
+/*[INCLUDE-IF Sidecar17]*/
+/*******************************************************************************
+ * Copyright (c) 2018, 2018 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *******************************************************************************/
+
+package com.ibm.lang.management;
+
+import java.lang.management.PlatformManagedObject;
+
+/**
+ * This interface provides the configuration and usage statistics of the reflection
+ * cache, which caches the {@link java.lang.reflect.Method}, {@link java.lang.reflect.Field}
+ * and {@link java.lang.reflect.Constructor} objects returned by {@link java.lang.Class}.
+ * <p>
+ * The cache is configured with the following system properties:
+ * <ul>
+ *     <li><code>-Dreflect.cache=boot</code> also caches the objects requested by bootstrap callers,
+ *         <code>-Dreflect.cache=app</code> only caches the objects requested by application callers,
+ *         <code>-Dreflect.cache=stats</code> enables the hit, miss and eviction counters.
+ *         The options can be combined, e.g. <code>-Dreflect.cache=boot,stats</code>.
+ *     <li><code>-Dreflect.cache.maxEntries=&lt;n&gt;</code> limits the number of entries cached over all classes.
+ *     <li><code>-Dreflect.cache.maxEntriesPerClass=&lt;n&gt;</code> limits the number of entries cached for any one class.
+ * </ul>
+ * When a limit is exceeded, entries which have not been used recently are evicted.
+ * <p>
+ * The bean also reports the hit and miss counts of the cache of {@link java.lang.invoke.MethodHandle}s
+ * returned by the <code>find</code> methods of {@link java.lang.invoke.MethodHandles.Lookup}. Those
+ * counters are always maintained.
+ * <br>
+ * <table border="1">
+ * <caption><b>Usage example for the {@link ReflectionCacheMXBean}</b></caption>
+ * <tr> <td>
+ * <pre>
+ * {@code
+ *   ...
+ *   ReflectionCacheMXBean cacheBean = ManagementFactory.getPlatformMXBean(ReflectionCacheMXBean.class);
+ *   long hits = cacheBean.getHitCount();
+ *   long misses = cacheBean.getMissCount();
+ *   ...
+ * }
+ * </pre>
+ * </td> </tr>
+ * </table>
+ */
+public interface ReflectionCacheMXBean extends PlatformManagedObject {
+
+	/**
+	 * Returns the number of entries in the reflection cache. The entries are only
+	 * counted when the cache size is limited with <code>-Dreflect.cache.maxEntries</code>.
+	 *
+	 * @return the number of cached entries, or 0 if they are not counted
+	 */
+	public long getEntryCount();
+
+	/**
+	 * Returns the number of lookups which were satisfied by the reflection cache.
+	 *
+	 * @return the hit count, or 0 if statistics are not enabled
+	 */
+	public long getHitCount();
+
+	/**
+	 * Returns the number of lookups which were not satisfied by the reflection cache.
+	 *
+	 * @return the miss count, or 0 if statistics are not enabled
+	 */
+	public long getMissCount();
+
+	/**
+	 * Returns the number of entries evicted from the reflection cache to respect
+	 * its size limits. Entries discarded by the garbage collector are not counted.
+	 *
+	 * @return the eviction count, or 0 if statistics are not enabled
+	 */
+	public long getEvictionCount();
+
+	/**
+	 * Returns the maximum number of entries cached over all classes.
+	 *
+	 * @return the maximum number of entries, or 0 if there is no limit
+	 */
+	public long getMaxEntries();
+
+	/**
+	 * Returns the maximum number of entries cached for any one class.
+	 *
+	 * @return the maximum number of entries per class, or 0 if there is no limit
+	 */
+	public long getMaxEntriesPerClass();
+
+	/**
+	 * Indicates whether the objects requested by bootstrap callers are cached.
+	 *
+	 * @return true if the objects requested by bootstrap callers are cached, false otherwise
+	 */
+	public boolean isBootstrapCachingEnabled();
+
+	/**
+	 * Indicates whether the hit, miss and eviction counters are maintained.
+	 *
+	 * @return true if <code>-Dreflect.cache=stats</code> is specified, false otherwise
+	 */
+	public boolean isStatisticsEnabled();
+
+	/**
+	 * Returns the number of {@link java.lang.invoke.MethodHandles.Lookup} <code>find</code> requests
+	 * which were satisfied by the MethodHandle cache.
+	 *
+	 * @return the MethodHandle cache hit count
+	 */
+	public long getMethodHandleCacheHitCount();
+
+	/**
+	 * Returns the number of {@link java.lang.invoke.MethodHandles.Lookup} <code>find</code> requests
+	 * which were not satisfied by the MethodHandle cache.
+	 *
+	 * @return the MethodHandle cache miss count
+	 */
+	public long getMethodHandleCacheMissCount();
+}
@@ -1,6 +1,6 @@
 /*[INCLUDE-IF Sidecar18-SE]*/
 /*******************************************************************************
- * Copyright (c) 2015, 2015 IBM Corp. and others
+ * Copyright (c) 2015, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -59,6 +59,92 @@ public interface ThreadMXBean extends java.lang.management.ThreadMXBean
     public long getNativeThreadId(long threadId) 
     		throws IllegalArgumentException, SecurityException;
 
+    /**
+     * Fetches the total CPU time, in nanoseconds, used by each of the threads whose identifiers
+     * (as returned by java/lang/Thread.getId()) are specified to it. The values are collected
+     * together, which is considerably cheaper than calling getThreadCpuTime(long) for each thread.
+     * @param threadIDs An array of thread identifiers that the user wishes to obtain
+     * the CPU time for.
+     * @return An array of CPU times in nanoseconds. If a thread among the given set of IDs is no
+     * 			longer alive or does not exist, or if thread CPU time measurement is disabled, a -1
+     * 			is set in the corresponding element of the returned array.
+     * @throws IllegalArgumentException is thrown if any of the thread identifiers passed is invalid (&lt;=0).
+     * @throws UnsupportedOperationException is thrown if the virtual machine does not support
+     * CPU time measurement for other threads.
+     * @see java.lang.management.ThreadMXBean#getThreadCpuTime(long)
+     */
+    public long[] getThreadCpuTime(long[] threadIDs)
+    		throws IllegalArgumentException, UnsupportedOperationException;
+
+    /**
+     * Fetches the CPU time, in nanoseconds, used in user mode by each of the threads whose identifiers
+     * (as returned by java/lang/Thread.getId()) are specified to it. The values are collected
+     * together, which is considerably cheaper than calling getThreadUserTime(long) for each thread.
+     * @param threadIDs An array of thread identifiers that the user wishes to obtain
+     * the user mode CPU time for.
+     * @return An array of user mode CPU times in nanoseconds. If a thread among the given set of IDs
+     * 			is no longer alive or does not exist, or if thread CPU time measurement is disabled,
+     * 			a -1 is set in the corresponding element of the returned array.
+     * @throws IllegalArgumentException is thrown if any of the thread identifiers passed is invalid (&lt;=0).
+     * @throws UnsupportedOperationException is thrown if the virtual machine does not support
+     * CPU time measurement for other threads.
+     * @see java.lang.management.ThreadMXBean#getThreadUserTime(long)
+     */
+    public long[] getThreadUserTime(long[] threadIDs)
+    		throws IllegalArgumentException, UnsupportedOperationException;
+
+    /**
+     * Samples the stack of the thread whose identifier (as returned by java/lang/Thread.getId())
+     * is specified to it, without creating any Throwable or StackTraceElement objects. Frames are
+     * stored, most recent first, as pairs of longs in the array supplied: the method identifier,
+     * followed by the bytecode index of the frame (-1 for a native method). Method identifiers
+     * are resolved to names with getStackTraceElement(long, long), and remain valid while the
+     * class declaring the method is loaded. Once that class is unloaded, an identifier is either
+     * rejected or identifies a method of a class loaded since. Intended for profilers sampling
+     * in the same process.
+     * @param threadId The identifier of the thread to sample.
+     * @param frames The array to fill; at most frames.length / 2 frames are stored.
+     * @return The number of frames stored, or -1 if the thread is no longer alive or does not exist.
+     * @throws IllegalArgumentException is thrown if the thread identifier passed is invalid (&lt;=0).
+     * @throws NullPointerException is thrown if frames is null.
+     * @throws SecurityException is thrown if the caller does not have sufficient permissions
+     * (ManagementPermission("monitor"))
+     */
+    public int getThreadStackSample(long threadId, long[] frames)
+    		throws IllegalArgumentException, SecurityException;
+
+    /**
+     * Samples the stacks of the threads whose identifiers (as returned by java/lang/Thread.getId())
+     * are specified to it, all at the same point in their execution, in the way
+     * getThreadStackSample(long, long[]) samples a single thread. The frames of the thread
+     * at threadIDs[i] are stored from frames[i * maxDepth * 2].
+     * @param threadIDs An array of the identifiers of the threads to sample.
+     * @param maxDepth The maximum number of frames to store for each thread.
+     * @param frames The array to fill, with room for threadIDs.length * maxDepth * 2 longs.
+     * @return An array of the number of frames stored for each thread. If a thread among the
+     * 			given set of IDs is no longer alive or does not exist, a -1 is set in the
+     * 			corresponding element of the returned array.
+     * @throws IllegalArgumentException is thrown if any of the thread identifiers passed is
+     * invalid (&lt;=0), if maxDepth is negative, or if frames is too short.
+     * @throws SecurityException is thrown if the caller does not have sufficient permissions
+     * (ManagementPermission("monitor"))
+     */
+    public int[] getThreadStackSamples(long[] threadIDs, int maxDepth, long[] frames)
+    		throws IllegalArgumentException, SecurityException;
+
+    /**
+     * Describes a frame stored by getThreadStackSample(long, long[]) or
+     * getThreadStackSamples(long[], int, long[]). Each call creates a new StackTraceElement,
+     * so callers describing the same frames repeatedly may keep the descriptions they need.
+     * @param methodID The method identifier of the frame.
+     * @param bytecodeIndex The bytecode index of the frame.
+     * @return A StackTraceElement for the frame.
+     * @throws IllegalArgumentException is thrown if the method identifier does not identify
+     * a method of a loaded class.
+     */
+    public StackTraceElement getStackTraceElement(long methodID, long bytecodeIndex)
+    		throws IllegalArgumentException;
+
     /**
      * API method that fetches an array of ExtendedThreadInfo objects corresponding to
      * threads in the virtual machine during the time it is invoked.
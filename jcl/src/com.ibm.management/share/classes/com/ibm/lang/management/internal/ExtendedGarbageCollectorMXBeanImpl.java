@@ -1,6 +1,6 @@
 /*[INCLUDE-IF Sidecar17]*/
 /*******************************************************************************
- * Copyright (c) 2016, 2017 IBM Corp. and others
+ * Copyright (c) 2016, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -74,6 +74,76 @@ public final class ExtendedGarbageCollectorMXBeanImpl
 	 * @see #getLastGcInfo()
 	 */
 	private native GcInfo getLastGcInfoImpl(int id);
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long[] getPauseTimeHistogram() {
+		return this.getPauseTimeHistogramImpl(id);
+	}
+
+	/**
+	 * @return the number of collections in each duration bucket
+	 * @see #getPauseTimeHistogram()
+	 */
+	private native long[] getPauseTimeHistogramImpl(int id);
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getTotalMemoryAllocated() {
+		return this.getTotalMemoryAllocatedImpl(id);
+	}
+
+	/**
+	 * @return memory allocated in bytes
+	 * @see #getTotalMemoryAllocated()
+	 */
+	private native long getTotalMemoryAllocatedImpl(int id);
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getAllocationRate() {
+		return this.getAllocationRateImpl(id);
+	}
+
+	/**
+	 * @return the allocation rate in bytes per second
+	 * @see #getAllocationRate()
+	 */
+	private native long getAllocationRateImpl(int id);
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getTotalMemoryPromoted() {
+		return this.getTotalMemoryPromotedImpl(id);
+	}
+
+	/**
+	 * @return memory promoted in bytes
+	 * @see #getTotalMemoryPromoted()
+	 */
+	private native long getTotalMemoryPromotedImpl(int id);
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getPromotionRate() {
+		return this.getPromotionRateImpl(id);
+	}
+
+	/**
+	 * @return the promotion rate in bytes per second
+	 * @see #getPromotionRate()
+	 */
+	private native long getPromotionRateImpl(int id);
  
 	static GcInfo buildGcInfo(long index, long startTime, long endTime,
 							String[] poolNames, long[] initialSize, long[] preUsed, long[] preCommitted, long[] preMax,
@@ -1,6 +1,6 @@
 /*[INCLUDE-IF Sidecar19-SE]*/
 /*******************************************************************************
- * Copyright (c) 2016, 2017 IBM Corp. and others
+ * Copyright (c) 2016, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -30,6 +30,7 @@ import java.util.List;
 import com.ibm.java.lang.management.internal.ComponentBuilder;
 import com.ibm.java.lang.management.internal.ManagementUtils;
 import com.ibm.lang.management.JvmCpuMonitorMXBean;
+import com.ibm.lang.management.ReflectionCacheMXBean;
 import com.ibm.virtualization.management.internal.GuestOS;
 import com.ibm.virtualization.management.internal.HypervisorMXBeanImpl;
 
@@ -90,6 +91,10 @@ public final class PlatformMBeanProvider extends sun.management.spi.PlatformMBea
 			.addInterface(JvmCpuMonitorMXBean.class)
 			.register(allComponents);
 
+		ComponentBuilder.create(ReflectionCacheMXBeanImpl.getInstance())
+			.addInterface(ReflectionCacheMXBean.class)
+			.register(allComponents);
+
 		// register beans with zero or more instances
 		ComponentBuilder.create(ManagementFactory.GARBAGE_COLLECTOR_MXBEAN_DOMAIN_TYPE, ExtendedMemoryMXBeanImpl.getInstance().getGarbageCollectorMXBeans())
 			.addInterfaceIf(com.ibm.lang.management.GarbageCollectorMXBean.class, true)
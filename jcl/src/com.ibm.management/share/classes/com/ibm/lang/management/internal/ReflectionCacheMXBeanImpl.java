@@ -0,0 +1,160 @@
+/*[INCLUDE-IF Sidecar17]*/
+/*******************************************************************************
+ * Copyright (c) 2018, 2018 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *******************************************************************************/
+
+package com.ibm.lang.management.internal;
+
+import javax.management.ObjectName;
+
+import com.ibm.java.lang.management.internal.ManagementUtils;
+import com.ibm.lang.management.ReflectionCacheMXBean;
+import com.ibm.oti.vm.HandleCacheStatistics;
+import com.ibm.oti.vm.VM;
+
+/**
+ * Runtime type for {@link ReflectionCacheMXBean}.
+ */
+public final class ReflectionCacheMXBeanImpl implements ReflectionCacheMXBean {
+
+	private static final ReflectionCacheMXBeanImpl instance = new ReflectionCacheMXBeanImpl();
+
+	/* indices into the array returned by VMLangAccess.getReflectCacheStatistics() */
+	private static final int ENTRY_COUNT = 0;
+	private static final int HIT_COUNT = 1;
+	private static final int MISS_COUNT = 2;
+	private static final int EVICTION_COUNT = 3;
+	private static final int MAX_ENTRIES = 4;
+	private static final int MAX_ENTRIES_PER_CLASS = 5;
+	private static final int BOOTSTRAP_CACHING = 6;
+	private static final int STATISTICS_ENABLED = 7;
+
+	/**
+	 * Singleton accessor method.
+	 *
+	 * @return the <code>ReflectionCacheMXBeanImpl</code> singleton.
+	 */
+	public static ReflectionCacheMXBeanImpl getInstance() {
+		return instance;
+	}
+
+	private ObjectName objectName;
+
+	private ReflectionCacheMXBeanImpl() {
+		super();
+	}
+
+	private static long getStatistic(int index) {
+		return VM.getVMLangAccess().getReflectCacheStatistics()[index];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ObjectName getObjectName() {
+		if (objectName == null) {
+			objectName = ManagementUtils.createObjectName("com.ibm.lang.management:type=ReflectionCache"); //$NON-NLS-1$
+		}
+		return objectName;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getEntryCount() {
+		return getStatistic(ENTRY_COUNT);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getHitCount() {
+		return getStatistic(HIT_COUNT);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getMissCount() {
+		return getStatistic(MISS_COUNT);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getEvictionCount() {
+		return getStatistic(EVICTION_COUNT);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getMaxEntries() {
+		return getStatistic(MAX_ENTRIES);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getMaxEntriesPerClass() {
+		return getStatistic(MAX_ENTRIES_PER_CLASS);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isBootstrapCachingEnabled() {
+		return getStatistic(BOOTSTRAP_CACHING) != 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isStatisticsEnabled() {
+		return getStatistic(STATISTICS_ENABLED) != 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getMethodHandleCacheHitCount() {
+		return HandleCacheStatistics.getHitCount();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getMethodHandleCacheMissCount() {
+		return HandleCacheStatistics.getMissCount();
+	}
+
+}
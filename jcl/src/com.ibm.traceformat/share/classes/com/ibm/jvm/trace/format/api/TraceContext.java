@@ -1,6 +1,6 @@
 /*[INCLUDE-IF Sidecar18-SE]*/
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corp. and others
+ * Copyright (c) 2000, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -163,7 +163,7 @@ public class TraceContext {
 	 * @param source - the object generating the message
 	 * @param message - the message to report
 	 */
-	public void warning(Object source, Object message) {
+	public synchronized void warning(Object source, Object message) {
 		warningCount++;
 
 		if (warningStream != null) {
@@ -176,7 +176,7 @@ public class TraceContext {
 	 * @param source - the object generating the message
 	 * @param message - the message to report
 	 */
-	public void error(Object source, Object message) {
+	public synchronized void error(Object source, Object message) {
 		errorCount++;
 
 		if (errorStream != null) {
@@ -660,6 +660,17 @@ public class TraceContext {
 		return addData(new TraceRecord(this, file, offset));
 	}
 
+	/**
+	 * @see com.ibm.jvm.trace.format.api.TraceContext#addData(TraceRecord)
+	 * @param data - view of a buffer in a memory mapped trace file, starting at the buffer
+	 * @param offset - the offset in the file of the buffer
+	 * @return - the thread that generated the buffer
+	 * @throws IOException
+	 */
+	public TraceThread addData(ByteBuffer data, long offset) throws IOException {
+		return addData(new TraceRecord(this, data, offset));
+	}
+
 	/**
 	 * @see com.ibm.jvm.trace.format.api.TraceContext#addData(TraceRecord)
 	 * @param data - a trace buffer generated by the JVM corresponding the the context
@@ -1,6 +1,6 @@
 /*[INCLUDE-IF Sidecar18-SE]*/
 /*******************************************************************************
- * Copyright (c) 2009, 2016 IBM Corp. and others
+ * Copyright (c) 2009, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -25,6 +25,7 @@ package com.ibm.jvm.trace.format.api;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.List;
 import java.util.Vector;
@@ -73,6 +74,9 @@ public class TraceRecord implements Comparable<TraceRecord> {
 	RandomAccessFile file;
 	long offset;
 	
+	/* Only used if this record is backed by a mapped view of the file */
+	ByteBuffer mapped;
+	
 	/* a record of the offsets that we've preprocessed to aid in debugging */
 	List<Integer> debugOffsets = null;
 
@@ -104,6 +108,29 @@ public class TraceRecord implements Comparable<TraceRecord> {
 		this.file = file;
 		this.offset = offset;
 
+		readHeader();
+	}
+
+	/**
+	 * This will create a TraceRecord backed by a view of a memory mapped trace file. The view should
+	 * start at the beginning of the record and hold the whole record, which is only copied out of
+	 * the mapping when the record is formatted.
+	 * 
+	 * @param context
+	 * @param mapped - view of the record in the mapped file
+	 * @param offset - the offset in the file of the record, used in diagnostics
+	 * @throws IOException
+	 * @throws IllegalArgumentException
+	 */
+	public TraceRecord(TraceContext context, ByteBuffer mapped, long offset) throws IOException, IllegalArgumentException {
+		this.context = context;
+		this.mapped = mapped;
+		this.offset = offset;
+
+		readHeader();
+	}
+
+	private void readHeader() throws IOException, IllegalArgumentException {
 		int required = TRACERECORD_HEADER_SIZE + GUESSED_MAX_THREAD_NAME;
 
 		if (context.debugLevel > 0) {
@@ -116,8 +143,7 @@ public class TraceRecord implements Comparable<TraceRecord> {
 			 */
 			byte data[] = new byte[required];
 			
-			file.seek(offset);
-			if (file.read(data) != data.length) {
+			if (read(data) != data.length) {
 				throw new IllegalArgumentException();
 			}
 
@@ -129,6 +155,26 @@ public class TraceRecord implements Comparable<TraceRecord> {
 		}
 	}
 	
+	/**
+	 * Reads the start of the record from its backing file or mapping.
+	 * @param buffer - the array to fill
+	 * @return - the number of bytes read
+	 * @throws IOException
+	 */
+	private int read(byte[] buffer) throws IOException {
+		if (mapped != null) {
+			/* duplicate so concurrent readers of the mapping don't share a position */
+			ByteBuffer view = mapped.duplicate();
+			int length = Math.min(buffer.length, view.remaining());
+
+			view.get(buffer, 0, length);
+			return length;
+		}
+
+		file.seek(offset);
+		return file.read(buffer);
+	}
+
 	private int parseHeader(byte[] data) throws IllegalArgumentException {
 		ByteStream stream = context.createByteStream(data);
 
@@ -184,7 +230,7 @@ public class TraceRecord implements Comparable<TraceRecord> {
 	 */
 	private int load() {
 		/* if we've got a file and offset then make sure we've got all the data */
-		if (file != null && (data == null || data.length != context.getRecordSize())) {
+		if ((file != null || mapped != null) && (data == null || data.length != context.getRecordSize())) {
 			data = new byte[context.getRecordSize()];
 			if (context.debugStream != null) {
 				context.debug(this, 3, "Reading in full "+data.length+ "byte record @"+offset);
@@ -193,8 +239,7 @@ public class TraceRecord implements Comparable<TraceRecord> {
 			int bytesRead = 0;
 			
 			try {
-				file.seek(offset);
-				bytesRead = file.read(data);
+				bytesRead = read(data);
 				if (bytesRead != data.length) {
 					context.error(this, "couldn't read an entire record from the file");
 					
@@ -741,7 +786,7 @@ public class TraceRecord implements Comparable<TraceRecord> {
 		if (textSummary == null) {
 			StringBuilder s = new StringBuilder("TraceRecord:"+System.getProperty("line.separator"));
 
-			if (file != null) {
+			if (file != null || mapped != null) {
 				s.append("file offset:    "+offset).append(System.getProperty("line.separator"));
 			} else {
 				s.append("non file data").append(System.getProperty("line.separator"));
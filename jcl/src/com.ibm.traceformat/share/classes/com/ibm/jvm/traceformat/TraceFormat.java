@@ -6,7 +6,7 @@ package com.ibm.jvm;
 /*[ENDIF]*/
 
 /*******************************************************************************
- * Copyright (c) 2010, 2016 IBM Corp. and others
+ * Copyright (c) 2010, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -44,8 +44,14 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.StringTokenizer;
 import java.util.TimeZone;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import com.ibm.jvm.trace.format.api.MissingDataException;
 import com.ibm.jvm.trace.format.api.TraceContext;
@@ -67,6 +73,9 @@ public class TraceFormat
 	};
 
 	private static Map indentMap = new HashMap();
+
+	/* the most bytes of the input file mapped at once when formatting in parallel, lowered by tests to read records from many mappings */
+	private static final long MAPPING_WINDOW_BYTES = Long.getLong("com.ibm.jvm.traceformat.mappingWindow", Integer.MAX_VALUE).longValue();
 	
 	/**
 	 * @param args
@@ -84,6 +93,7 @@ public class TraceFormat
 		ProgramOption.addOption(Verbose.class);
 		ProgramOption.addOption(Debug.class);
 		ProgramOption.addOption(Statistics.class);
+		ProgramOption.addOption(Parallel.class);
 		
 		
 		/* The trace context holds the configuration and state for the parsing */
@@ -116,6 +126,7 @@ public class TraceFormat
 		Boolean verbose = (Boolean)ProgramOption.getValue("verbose");
 		Integer debugLevel = (Integer)ProgramOption.getValue("debug");
 		Boolean statistics = (Boolean)ProgramOption.getValue("statistics");
+		Integer parallel = (Integer)ProgramOption.getValue("parallel");
 
 		/* Parse the header on the first file */
 		int blockSize = 4000;
@@ -219,9 +230,29 @@ public class TraceFormat
 				context.warning(context, "The body of the trace file is not a multiple of the record size, file either truncated or corrupt");
 			}
 
+			/* when formatting in parallel the records are read from mappings of the file rather than seeking to each one */
+			ByteBuffer mapping = null;
+			long mappingOffset = 0;
+
 			while (offset < length) {
 				try {
-					TraceThread thread = context.addData(traceFile, offset);
+					TraceThread thread;
+					if (parallel.intValue() > 0 && offset + recordSize <= length) {
+						if (mapping == null || offset + recordSize > mappingOffset + mapping.capacity()) {
+							/* map as many whole records as fit in the window, and at least one */
+							long windowBytes = Math.min(MAPPING_WINDOW_BYTES, Integer.MAX_VALUE);
+							long mappingSize = Math.min(length - offset, Math.max(1, windowBytes / recordSize) * recordSize);
+							mappingSize -= mappingSize % recordSize;
+							mapping = traceFile.getChannel().map(FileChannel.MapMode.READ_ONLY, offset, mappingSize);
+							mappingOffset = offset;
+						}
+						ByteBuffer record = mapping.duplicate();
+						record.position((int)(offset - mappingOffset));
+						record.limit((int)(offset - mappingOffset + recordSize));
+						thread = context.addData(record.slice(), offset);
+					} else {
+						thread = context.addData(traceFile, offset);
+					}
 					indentMap.put(thread, "");
 				} catch (IllegalArgumentException e) {
 					context.error(context, "Bad block of trace data in input file at offset "+offset+": "+e.getMessage());
@@ -271,6 +302,13 @@ public class TraceFormat
 		/* start reading tracepoints */
 		itr = context.getTracepoints();
 
+		/* the tracepoints are still merged by timestamp on this thread, but their parameters are formatted ahead by the workers */
+		ParallelFormatter formatter = null;
+		if (parallel.intValue() > 1 && !summary.booleanValue()) {
+			formatter = new ParallelFormatter(itr, parallel.intValue(), formatTime.booleanValue());
+			itr = formatter;
+		}
+
 		String totalMbytes = (float)totalBytes/(float)(1024*1024) + "Mb";
 		context.message(context, "Processing " + totalMbytes + " of binary trace data");
 		
@@ -294,7 +332,7 @@ public class TraceFormat
 				String container = tracepoint.getContainerComponent();
 				String parameters = "";
 				try {
-					parameters = tracepoint.getFormattedParameters();
+					parameters = (formatter != null) ? formatter.getFormattedParameters() : tracepoint.getFormattedParameters();
 					if (parameters == null || parameters.length() == 0) {
 					context.error(context, "null parameter data for trace point "+component+"."+tpID);
 					}
@@ -307,7 +345,7 @@ public class TraceFormat
 	
 				StringBuilder formatted = new StringBuilder();
 				if (formatTime.booleanValue()) {
-					formatted.append(tracepoint.getFormattedTime());
+					formatted.append((formatter != null) ? formatter.getFormattedTime() : tracepoint.getFormattedTime());
 				} else {
 					formatted.append(tracepoint.getRawTime());
 				}
@@ -380,6 +418,10 @@ public class TraceFormat
 			}
 		}
 
+		if (formatter != null) {
+			formatter.shutdown();
+		}
+
 		if (lostCountByException > 0) {
 			context.warning(context, lostCountByException + " records were discarded during trace generation");
 		}
@@ -390,7 +432,8 @@ public class TraceFormat
 		if (verbose.booleanValue()) {
 			end = System.currentTimeMillis();
 			float Mbps = (float) (recordsInData * context.getRecordSize()) / (float) (((float) (end - start) / 1000) * (1024 * 1024));
-			context.message(context, "Total processing time " + (end - start) + "ms (" + Mbps + "Mb/s)");
+			float recordsPerSecond = (float) recordsInData / ((float) (end - start) / 1000);
+			context.message(context, "Total processing time " + (end - start) + "ms (" + Mbps + "Mb/s, " + recordsPerSecond + " records/s)");
 		}
 		
 		if (statistics) {
@@ -398,6 +441,166 @@ public class TraceFormat
 		}
 	}
 
+	/**
+	 * Reads tracepoints in order from the sorted iterator and hands them to a pool of threads in
+	 * batches to format their parameters and timestamps. The tracepoints are returned in the order
+	 * they were read, and getFormattedParameters() and getFormattedTime() return the results for
+	 * the tracepoint last returned by next().
+	 */
+	static class ParallelFormatter implements Iterator {
+		private static final int BATCH_SIZE = 1024;
+
+		private final Iterator source;
+		private final int threads;
+		private final boolean formatTime;
+		private final ExecutorService pool;
+		private final LinkedList pending = new LinkedList();
+
+		private Batch current;
+		private int index;
+
+		ParallelFormatter(Iterator source, int threads, boolean formatTime) {
+			this.source = source;
+			this.threads = threads;
+			this.formatTime = formatTime;
+			this.pool = Executors.newFixedThreadPool(threads);
+		}
+
+		public boolean hasNext() {
+			fill();
+			return (current != null && index < current.size - 1) || !pending.isEmpty();
+		}
+
+		public Object next() {
+			if (current == null || index >= current.size - 1) {
+				fill();
+				if (pending.isEmpty()) {
+					throw new NoSuchElementException();
+				}
+				try {
+					current = (Batch)((Future)pending.removeFirst()).get();
+				} catch (InterruptedException e) {
+					throw new RuntimeException(e);
+				} catch (ExecutionException e) {
+					throw new RuntimeException(e.getCause());
+				}
+				index = 0;
+			} else {
+				index++;
+			}
+
+			Object tracepoint = current.tracepoints[index];
+			if (tracepoint instanceof MissingDataException) {
+				throw (MissingDataException)tracepoint;
+			}
+			return tracepoint;
+		}
+
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+
+		String getFormattedParameters() {
+			if (current.underflows[index] != null) {
+				throw current.underflows[index];
+			}
+			return current.parameters[index];
+		}
+
+		String getFormattedTime() {
+			return current.times[index];
+		}
+
+		void shutdown() {
+			pool.shutdown();
+		}
+
+		/* keep enough batches queued that every worker has one to format */
+		private void fill() {
+			while (pending.size() < threads * 2 && source.hasNext()) {
+				final Batch batch = new Batch();
+				while (batch.size < BATCH_SIZE && source.hasNext()) {
+					try {
+						batch.tracepoints[batch.size] = source.next();
+					} catch (MissingDataException e) {
+						/* passed back to the caller in order by next() */
+						batch.tracepoints[batch.size] = e;
+					}
+					batch.size++;
+				}
+				pending.add(pool.submit(new Callable() {
+					public Object call() {
+						batch.format(formatTime);
+						return batch;
+					}
+				}));
+			}
+		}
+
+		static class Batch {
+			final Object[] tracepoints = new Object[BATCH_SIZE];
+			final String[] parameters = new String[BATCH_SIZE];
+			final String[] times = new String[BATCH_SIZE];
+			final BufferUnderflowException[] underflows = new BufferUnderflowException[BATCH_SIZE];
+			int size;
+
+			void format(boolean formatTime) {
+				for (int i = 0; i < size; i++) {
+					if (tracepoints[i] instanceof TracePointImpl) {
+						TracePointImpl tracepoint = (TracePointImpl)tracepoints[i];
+						try {
+							parameters[i] = tracepoint.getFormattedParameters();
+						} catch (BufferUnderflowException e) {
+							underflows[i] = e;
+						}
+						if (formatTime) {
+							times[i] = tracepoint.getFormattedTime();
+						}
+					}
+				}
+			}
+		}
+	}
+}
+
+class Parallel extends ProgramOption {
+	int threads;
+
+	String getDescription() {
+		return "Memory maps the input file and formats the trace data using the specified number of threads. By default the number of available processors is used.";
+	}
+
+	String getName() {
+		return "parallel";
+	}
+
+	String getUsage() {
+		return "-parallel[=threads]";
+	}
+
+	Object getValue() {
+		return Integer.valueOf(threads);
+	}
+
+	void setValue(String value) throws IllegalArgumentException {
+		try {
+			threads = Integer.parseInt(value);
+		} catch (NumberFormatException e) {
+			threads = -1;
+		}
+
+		if (threads < 1) {
+			throw new IllegalArgumentException("The value \""+value+"\" specified for parallel is not valid, must be a positive integer");
+		}
+	}
+
+	void setAutomatic() {
+		threads = Runtime.getRuntime().availableProcessors();
+	}
+
+	void setDefault() {
+		threads = 0;
+	}
 }
 
 class Debug extends ProgramOption {
@@ -0,0 +1,142 @@
+/*[INCLUDE-IF Sidecar17]*/
+/*******************************************************************************
+ * Copyright (c) 2018, 2018 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *******************************************************************************/
+package com.ibm.gpu;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * This class sorts arrays on the CPU when no CUDA device is used. Ranges at least
+ * as long as the parallel threshold for their type are sorted with a fork-join
+ * parallel sort; shorter ranges, or all ranges when the common pool has a single
+ * worker, are sorted sequentially.
+ */
+final class CPUSort {
+
+	/**
+	 * The model name under which the parallel thresholds of the CPU are
+	 * recorded in ibm_gpu_thresholds.properties.
+	 */
+	static final String MODEL_NAME = "CPU"; //$NON-NLS-1$
+
+	private static boolean isParallel(int length, int threshold) {
+		return length >= threshold && ForkJoinPool.getCommonPoolParallelism() > 1;
+	}
+
+	/**
+	 * Sort a specified portion of the given array of doubles into ascending
+	 * order on the CPU.
+	 *
+	 * @param array  the array to be sorted
+	 * @param fromIndex  starting index of the sort
+	 * @param toIndex  ending index of the sort
+	 */
+	static void sortArray(double[] array, int fromIndex, int toIndex) {
+		CUDAManager manager = CUDAManager.instanceInternal();
+		int threshold = manager.getParallelDoubleThreshold();
+
+		if (isParallel(toIndex - fromIndex, threshold)) {
+			trace(manager, "double", true, fromIndex, toIndex); //$NON-NLS-1$
+			Arrays.parallelSort(array, fromIndex, toIndex);
+		} else {
+			trace(manager, "double", false, fromIndex, toIndex); //$NON-NLS-1$
+			Arrays.sort(array, fromIndex, toIndex);
+		}
+	}
+
+	/**
+	 * Sort a specified portion of the given array of floats into ascending
+	 * order on the CPU.
+	 *
+	 * @param array  the array to be sorted
+	 * @param fromIndex  starting index of the sort
+	 * @param toIndex  ending index of the sort
+	 */
+	static void sortArray(float[] array, int fromIndex, int toIndex) {
+		CUDAManager manager = CUDAManager.instanceInternal();
+		int threshold = manager.getParallelFloatThreshold();
+
+		if (isParallel(toIndex - fromIndex, threshold)) {
+			trace(manager, "float", true, fromIndex, toIndex); //$NON-NLS-1$
+			Arrays.parallelSort(array, fromIndex, toIndex);
+		} else {
+			trace(manager, "float", false, fromIndex, toIndex); //$NON-NLS-1$
+			Arrays.sort(array, fromIndex, toIndex);
+		}
+	}
+
+	/**
+	 * Sort a specified portion of the given array of integers into ascending
+	 * order on the CPU.
+	 *
+	 * @param array  the array to be sorted
+	 * @param fromIndex  starting index of the sort
+	 * @param toIndex  ending index of the sort
+	 */
+	static void sortArray(int[] array, int fromIndex, int toIndex) {
+		CUDAManager manager = CUDAManager.instanceInternal();
+		int threshold = manager.getParallelIntThreshold();
+
+		if (isParallel(toIndex - fromIndex, threshold)) {
+			trace(manager, "int", true, fromIndex, toIndex); //$NON-NLS-1$
+			Arrays.parallelSort(array, fromIndex, toIndex);
+		} else {
+			trace(manager, "int", false, fromIndex, toIndex); //$NON-NLS-1$
+			Arrays.sort(array, fromIndex, toIndex);
+		}
+	}
+
+	/**
+	 * Sort a specified portion of the given array of longs into ascending
+	 * order on the CPU.
+	 *
+	 * @param array  the array to be sorted
+	 * @param fromIndex  starting index of the sort
+	 * @param toIndex  ending index of the sort
+	 */
+	static void sortArray(long[] array, int fromIndex, int toIndex) {
+		CUDAManager manager = CUDAManager.instanceInternal();
+		int threshold = manager.getParallelLongThreshold();
+
+		if (isParallel(toIndex - fromIndex, threshold)) {
+			trace(manager, "long", true, fromIndex, toIndex); //$NON-NLS-1$
+			Arrays.parallelSort(array, fromIndex, toIndex);
+		} else {
+			trace(manager, "long", false, fromIndex, toIndex); //$NON-NLS-1$
+			Arrays.sort(array, fromIndex, toIndex);
+		}
+	}
+
+	@SuppressWarnings("nls")
+	private static void trace(CUDAManager manager, String type, boolean parallel, int fromIndex, int toIndex) {
+		if (manager.getVerboseGPUOutput()) {
+			manager.outputIfVerbose("Using " + (parallel ? "parallel" : "sequential") + " CPU sort for " + type
+					+ " array; elements " + fromIndex + " to " + toIndex);
+		}
+	}
+
+	private CPUSort() {
+		super();
+	}
+
+}
@@ -1,6 +1,6 @@
 /*[INCLUDE-IF Sidecar17]*/
 /*******************************************************************************
- * Copyright (c) 2014, 2016 IBM Corp. and others
+ * Copyright (c) 2014, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -104,6 +104,10 @@ public final class CUDADevice {
 		return longThresholdValue;
 	}
 
+	String getModel() {
+		return model;
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	public String toString() {
@@ -1,6 +1,6 @@
 /*[INCLUDE-IF Sidecar17]*/
 /*******************************************************************************
- * Copyright (c) 2014, 2017 IBM Corp. and others
+ * Copyright (c) 2014, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -22,10 +22,13 @@
  *******************************************************************************/
 package com.ibm.gpu;
 
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
+import java.security.PrivilegedActionException;
+import java.security.PrivilegedExceptionAction;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
@@ -54,6 +57,8 @@ public final class CUDAManager {
 
 		private static final String DEFAULT_MODEL_NAME = "DEFAULT"; //$NON-NLS-1$
 
+		private static final int DEFAULT_PARALLEL_THRESHOLD = 65536;
+
 		private static final int DEFAULT_THRESHOLD = 30000;
 
 		private static void loadProperties(Properties properties, String resourceName) throws IOException {
@@ -66,6 +71,16 @@ public final class CUDAManager {
 			}
 		}
 
+		private static void loadPropertiesFile(Properties properties, String fileName) throws IOException {
+			PrivilegedExceptionAction<InputStream> action = () -> new FileInputStream(fileName);
+
+			try (InputStream input = AccessController.doPrivileged(action)) {
+				properties.load(input);
+			} catch (PrivilegedActionException e) {
+				throw (IOException) e.getException();
+			}
+		}
+
 		private static boolean startsWithIgnoreCase(String string, String prefix) {
 			int prefixLength = prefix.length();
 
@@ -155,6 +170,20 @@ public final class CUDAManager {
 			return getThreshold(modelName, Type.LONG);
 		}
 
+		int getParallelThreshold(Type type) {
+			Map<Type, Integer> modelMap = thresholds.get(CPUSort.MODEL_NAME);
+
+			if (modelMap != null) {
+				Integer threshold = modelMap.get(type);
+
+				if (threshold != null) {
+					return threshold.intValue();
+				}
+			}
+
+			return DEFAULT_PARALLEL_THRESHOLD;
+		}
+
 		private int getThreshold(String modelName, Type type) {
 			Map<Type, Integer> modelMap = thresholds.get(modelName);
 
@@ -179,6 +208,18 @@ public final class CUDAManager {
 						+ e.getLocalizedMessage());
 			}
 
+			// thresholds recorded by calibrateSortThresholds() override the defaults
+			String fileName = getProperty("com.ibm.gpu.thresholds"); //$NON-NLS-1$
+
+			if (fileName != null) {
+				try {
+					loadPropertiesFile(properties, fileName);
+				} catch (IOException e) {
+					manager.outputIfVerbose("Warning: couldn't load threshold properties file " //$NON-NLS-1$
+							+ fileName + ": " + e.getLocalizedMessage()); //$NON-NLS-1$
+				}
+			}
+
 			for (Entry<Object, Object> property : properties.entrySet()) {
 				String propertyName = String.valueOf(property.getKey());
 
@@ -329,6 +370,14 @@ public final class CUDAManager {
 
 	private final int defaultLongThreshold;
 
+	private final int parallelDoubleThreshold;
+
+	private final int parallelFloatThreshold;
+
+	private final int parallelIntThreshold;
+
+	private final int parallelLongThreshold;
+
 	private CUDADevice[] devices;
 
 	/*[IF Sidecar19-SE]*/
@@ -379,6 +428,11 @@ public final class CUDAManager {
 		defaultIntThreshold = configuration.getIntThreshold();
 		defaultLongThreshold = configuration.getLongThreshold();
 
+		parallelDoubleThreshold = configuration.getParallelThreshold(Type.DOUBLE);
+		parallelFloatThreshold = configuration.getParallelThreshold(Type.FLOAT);
+		parallelIntThreshold = configuration.getParallelThreshold(Type.INT);
+		parallelLongThreshold = configuration.getParallelThreshold(Type.LONG);
+
 		if (configuration.checkSortProperty("com.ibm.gpu.enforce")) { //$NON-NLS-1$
 			doSortOnGPU = true;
 			enforceGPUSort = true;
@@ -413,6 +467,24 @@ public final class CUDAManager {
 		}
 	}
 
+	/**
+	 * Measure, on this host, the array lengths from which a parallel sort on the CPU
+	 * is faster than a sequential sort, and from which each model of detected CUDA device
+	 * is faster than the CPU, for each supported element type. This may take a minute
+	 * and uses all processors.
+	 * <p>
+	 * The result uses the property names of the built-in thresholds. Once stored in a
+	 * file, the thresholds are used by any VM started with the system property
+	 * com.ibm.gpu.thresholds naming that file.
+	 *
+	 * @return Returns the measured thresholds.
+	 */
+	public Properties calibrateSortThresholds() {
+		outputIfVerbose("Calibrating sort thresholds"); //$NON-NLS-1$
+
+		return SortCalibration.calibrate(this, getDevices());
+	}
+
 	private CUDADevice[] findDevices() {
 		int deviceCount = 0;
 
@@ -653,6 +725,50 @@ public final class CUDAManager {
 		}
 	}
 
+	/**
+	 * Gets the minimum length of a double array that will be
+	 * sorted in parallel when sorted on the CPU.
+	 *
+	 * @return The minimum length of a double array that will be
+	 * sorted in parallel on the CPU.
+	 */
+	public int getParallelDoubleThreshold() {
+		return parallelDoubleThreshold;
+	}
+
+	/**
+	 * Gets the minimum length of a float array that will be
+	 * sorted in parallel when sorted on the CPU.
+	 *
+	 * @return The minimum length of a float array that will be
+	 * sorted in parallel on the CPU.
+	 */
+	public int getParallelFloatThreshold() {
+		return parallelFloatThreshold;
+	}
+
+	/**
+	 * Gets the minimum length of an int array that will be
+	 * sorted in parallel when sorted on the CPU.
+	 *
+	 * @return The minimum length of an int array that will be
+	 * sorted in parallel on the CPU.
+	 */
+	public int getParallelIntThreshold() {
+		return parallelIntThreshold;
+	}
+
+	/**
+	 * Gets the minimum length of a long array that will be
+	 * sorted in parallel when sorted on the CPU.
+	 *
+	 * @return The minimum length of a long array that will be
+	 * sorted in parallel on the CPU.
+	 */
+	public int getParallelLongThreshold() {
+		return parallelLongThreshold;
+	}
+
 	/**
 	 * Get the value of the verboseGPUOutput flag.
 	 *
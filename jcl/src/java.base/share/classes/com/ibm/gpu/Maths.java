@@ -1,6 +1,6 @@
 /*[INCLUDE-IF Sidecar17]*/
 /*******************************************************************************
- * Copyright (c) 2014, 2016 IBM Corp. and others
+ * Copyright (c) 2014, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -23,21 +23,50 @@
 package com.ibm.gpu;
 
 import java.util.Objects;
+import java.util.function.ToIntFunction;
 
 /**
  * This class is used to perform perform sorting operations of
  * primitive arrays of type int, long, float, double
  * on any connected CUDA GPU. A successful sort operation
  * results in the array being sorted in ascending order.
+ * <p>
+ * The methods that use the default CUDA device sort on the CPU instead
+ * when no device is available, or when the range is shorter than the
+ * threshold of the device and sort is not enforced on the GPU. Ranges
+ * sorted on the CPU use a parallel sort from the parallel threshold of
+ * {@link CUDAManager} on.
  */
 public class Maths {
 
-	private static int getDefaultDevice() {
-		return CUDAManager.instanceInternal().getDefaultDevice();
+	/*
+	 * Answer the default device if it should sort a range of the given length,
+	 * or -1 if the range should be sorted on the CPU.
+	 */
+	private static int selectDefaultDevice(int length, ToIntFunction<CUDADevice> threshold) {
+		CUDAManager manager = CUDAManager.instanceInternal();
+
+		if (manager.getDeviceCount() == 0) {
+			return -1;
+		}
+
+		int deviceId = manager.getDefaultDevice();
+
+		if (!manager.isSortEnforcedOnGPU()) {
+			try {
+				if (length < threshold.applyAsInt(manager.getDevice(deviceId))) {
+					return -1;
+				}
+			} catch (GPUConfigurationException e) {
+				// an invalid default device is reported by the sort
+			}
+		}
+
+		return deviceId;
 	}
 
 	/**
-	 * Sort the given array of doubles into ascending order, using the default CUDA device.
+	 * Sort the given array of doubles into ascending order, using the default CUDA device or the CPU.
 	 *
 	 * @param array
 	 *          the array that will be sorted
@@ -55,11 +84,11 @@ public class Maths {
 	public static void sortArray(double[] array)
 			throws GPUConfigurationException, GPUSortException {
 		Objects.requireNonNull(array);
-		SortNetwork.sortArray(getDefaultDevice(), array, 0, array.length);
+		sortArray(array, 0, array.length);
 	}
 
 	/**
-	 * Sort the specified range of the array of doubles into ascending order, using the default CUDA device.
+	 * Sort the specified range of the array of doubles into ascending order, using the default CUDA device or the CPU.
 	 *
 	 * @param array
 	 *          the array that will be sorted
@@ -81,11 +110,18 @@ public class Maths {
 	public static void sortArray(double[] array, int fromIndex, int toIndex)
 			throws GPUConfigurationException, GPUSortException {
 		Objects.requireNonNull(array);
-		SortNetwork.sortArray(getDefaultDevice(), array, fromIndex, toIndex);
+
+		int deviceId = selectDefaultDevice(toIndex - fromIndex, CUDADevice::getDoubleThreshold);
+
+		if (deviceId < 0) {
+			CPUSort.sortArray(array, fromIndex, toIndex);
+		} else {
+			SortNetwork.sortArray(deviceId, array, fromIndex, toIndex);
+		}
 	}
 
 	/**
-	 * Sort the given array of floats into ascending order, using the default CUDA device.
+	 * Sort the given array of floats into ascending order, using the default CUDA device or the CPU.
 	 *
 	 * @param array
 	 *          the array that will be sorted
@@ -103,11 +139,11 @@ public class Maths {
 	public static void sortArray(float[] array) throws GPUSortException,
 			GPUConfigurationException {
 		Objects.requireNonNull(array);
-		SortNetwork.sortArray(getDefaultDevice(), array, 0, array.length);
+		sortArray(array, 0, array.length);
 	}
 
 	/**
-	 * Sort the specified range of the array of floats into ascending order, using the default CUDA device.
+	 * Sort the specified range of the array of floats into ascending order, using the default CUDA device or the CPU.
 	 *
 	 * @param array
 	 *          the array that will be sorted
@@ -129,7 +165,14 @@ public class Maths {
 	public static void sortArray(float[] array, int fromIndex, int toIndex)
 			throws GPUConfigurationException, GPUSortException {
 		Objects.requireNonNull(array);
-		sortArray(getDefaultDevice(), array, fromIndex, toIndex);
+
+		int deviceId = selectDefaultDevice(toIndex - fromIndex, CUDADevice::getFloatThreshold);
+
+		if (deviceId < 0) {
+			CPUSort.sortArray(array, fromIndex, toIndex);
+		} else {
+			SortNetwork.sortArray(deviceId, array, fromIndex, toIndex);
+		}
 	}
 
 	/**
@@ -341,7 +384,7 @@ public class Maths {
 	}
 
 	/**
-	 * Sort the given array of integers into ascending order, using the default CUDA device.
+	 * Sort the given array of integers into ascending order, using the default CUDA device or the CPU.
 	 *
 	 * @param array
 	 *          the array that will be sorted
@@ -359,11 +402,11 @@ public class Maths {
 	public static void sortArray(int[] array) throws GPUConfigurationException,
 			GPUSortException {
 		Objects.requireNonNull(array);
-		SortNetwork.sortArray(getDefaultDevice(), array, 0, array.length);
+		sortArray(array, 0, array.length);
 	}
 
 	/**
-	 * Sort the specified range of the array of integers into ascending order, using the default CUDA device.
+	 * Sort the specified range of the array of integers into ascending order, using the default CUDA device or the CPU.
 	 *
 	 * @param array
 	 *          the array that will be sorted
@@ -385,11 +428,18 @@ public class Maths {
 	public static void sortArray(int[] array, int fromIndex, int toIndex)
 			throws GPUConfigurationException, GPUSortException {
 		Objects.requireNonNull(array);
-		SortNetwork.sortArray(getDefaultDevice(), array, fromIndex, toIndex);
+
+		int deviceId = selectDefaultDevice(toIndex - fromIndex, CUDADevice::getIntThreshold);
+
+		if (deviceId < 0) {
+			CPUSort.sortArray(array, fromIndex, toIndex);
+		} else {
+			SortNetwork.sortArray(deviceId, array, fromIndex, toIndex);
+		}
 	}
 
 	/**
-	 * Sort the given array of longs into ascending order, using the default CUDA device.
+	 * Sort the given array of longs into ascending order, using the default CUDA device or the CPU.
 	 *
 	 * @param array
 	 *          the array that will be sorted
@@ -407,11 +457,11 @@ public class Maths {
 	public static void sortArray(long[] array)
 			throws GPUConfigurationException, GPUSortException {
 		Objects.requireNonNull(array);
-		SortNetwork.sortArray(getDefaultDevice(), array, 0, array.length);
+		sortArray(array, 0, array.length);
 	}
 
 	/**
-	 * Sort the specified range of the array of longs into ascending order, using the default CUDA device.
+	 * Sort the specified range of the array of longs into ascending order, using the default CUDA device or the CPU.
 	 *
 	 * @param array
 	 *          the array that will be sorted
@@ -433,7 +483,14 @@ public class Maths {
 	public static void sortArray(long[] array, int fromIndex, int toIndex)
 			throws GPUConfigurationException, GPUSortException {
 		Objects.requireNonNull(array);
-		SortNetwork.sortArray(getDefaultDevice(), array, fromIndex, toIndex);
+
+		int deviceId = selectDefaultDevice(toIndex - fromIndex, CUDADevice::getLongThreshold);
+
+		if (deviceId < 0) {
+			CPUSort.sortArray(array, fromIndex, toIndex);
+		} else {
+			SortNetwork.sortArray(deviceId, array, fromIndex, toIndex);
+		}
 	}
 
 }
@@ -0,0 +1,351 @@
+/*[INCLUDE-IF Sidecar17]*/
+/*******************************************************************************
+ * Copyright (c) 2018, 2018 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *******************************************************************************/
+package com.ibm.gpu;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * This class measures, on the current host, the array lengths at which a
+ * parallel CPU sort overtakes a sequential one, and at which each CUDA
+ * device overtakes the faster of the two. The results use the property
+ * names of ibm_gpu_thresholds.properties.
+ */
+final class SortCalibration {
+
+	private static enum Kind {
+
+		DOUBLE("Double") { //$NON-NLS-1$
+			@Override
+			Object newArray(int length) {
+				return new double[length];
+			}
+
+			@Override
+			void fill(Object array, Random random) {
+				double[] values = (double[]) array;
+
+				for (int i = 0; i < values.length; ++i) {
+					values[i] = random.nextDouble();
+				}
+			}
+
+			@Override
+			void sortSequential(Object array) {
+				Arrays.sort((double[]) array);
+			}
+
+			@Override
+			void sortParallel(Object array) {
+				Arrays.parallelSort((double[]) array);
+			}
+
+			@Override
+			void sortOnDevice(int deviceId, Object array) throws GPUConfigurationException, GPUSortException {
+				double[] values = (double[]) array;
+
+				SortNetwork.sortArray(deviceId, values, 0, values.length);
+			}
+		},
+
+		FLOAT("Float") { //$NON-NLS-1$
+			@Override
+			Object newArray(int length) {
+				return new float[length];
+			}
+
+			@Override
+			void fill(Object array, Random random) {
+				float[] values = (float[]) array;
+
+				for (int i = 0; i < values.length; ++i) {
+					values[i] = random.nextFloat();
+				}
+			}
+
+			@Override
+			void sortSequential(Object array) {
+				Arrays.sort((float[]) array);
+			}
+
+			@Override
+			void sortParallel(Object array) {
+				Arrays.parallelSort((float[]) array);
+			}
+
+			@Override
+			void sortOnDevice(int deviceId, Object array) throws GPUConfigurationException, GPUSortException {
+				float[] values = (float[]) array;
+
+				SortNetwork.sortArray(deviceId, values, 0, values.length);
+			}
+		},
+
+		INT("Int") { //$NON-NLS-1$
+			@Override
+			Object newArray(int length) {
+				return new int[length];
+			}
+
+			@Override
+			void fill(Object array, Random random) {
+				int[] values = (int[]) array;
+
+				for (int i = 0; i < values.length; ++i) {
+					values[i] = random.nextInt();
+				}
+			}
+
+			@Override
+			void sortSequential(Object array) {
+				Arrays.sort((int[]) array);
+			}
+
+			@Override
+			void sortParallel(Object array) {
+				Arrays.parallelSort((int[]) array);
+			}
+
+			@Override
+			void sortOnDevice(int deviceId, Object array) throws GPUConfigurationException, GPUSortException {
+				int[] values = (int[]) array;
+
+				SortNetwork.sortArray(deviceId, values, 0, values.length);
+			}
+		},
+
+		LONG("Long") { //$NON-NLS-1$
+			@Override
+			Object newArray(int length) {
+				return new long[length];
+			}
+
+			@Override
+			void fill(Object array, Random random) {
+				long[] values = (long[]) array;
+
+				for (int i = 0; i < values.length; ++i) {
+					values[i] = random.nextLong();
+				}
+			}
+
+			@Override
+			void sortSequential(Object array) {
+				Arrays.sort((long[]) array);
+			}
+
+			@Override
+			void sortParallel(Object array) {
+				Arrays.parallelSort((long[]) array);
+			}
+
+			@Override
+			void sortOnDevice(int deviceId, Object array) throws GPUConfigurationException, GPUSortException {
+				long[] values = (long[]) array;
+
+				SortNetwork.sortArray(deviceId, values, 0, values.length);
+			}
+		};
+
+		final String propertyPrefix;
+
+		Kind(String typeName) {
+			propertyPrefix = "com.ibm.gpu." + typeName + "SortThreshold."; //$NON-NLS-1$ //$NON-NLS-2$
+		}
+
+		abstract void fill(Object array, Random random);
+
+		abstract Object newArray(int length);
+
+		abstract void sortOnDevice(int deviceId, Object array) throws GPUConfigurationException, GPUSortException;
+
+		abstract void sortParallel(Object array);
+
+		abstract void sortSequential(Object array);
+
+	}
+
+	private static interface Sorter {
+
+		void sort(Object array) throws GPUConfigurationException, GPUSortException;
+
+	}
+
+	/*
+	 * Lengths are measured in powers of 2 between these bounds.
+	 */
+	private static final int MIN_LENGTH = 1 << 10;
+
+	private static final int MAX_LENGTH = 1 << 22;
+
+	/*
+	 * The threshold recorded when the alternative never wins; the largest
+	 * value accepted when thresholds are read.
+	 */
+	private static final int NEVER = Integer.MAX_VALUE - 1;
+
+	/**
+	 * Measure the thresholds for the CPU and for each distinct model of
+	 * the given devices.
+	 *
+	 * @param manager  the manager used for verbose output
+	 * @param devices  the devices to measure
+	 * @return the thresholds, keyed as in ibm_gpu_thresholds.properties
+	 */
+	static Properties calibrate(CUDAManager manager, CUDADevice[] devices) {
+		Properties thresholds = new Properties();
+		int count = Integer.numberOfTrailingZeros(MAX_LENGTH) - Integer.numberOfTrailingZeros(MIN_LENGTH) + 1;
+		int[] lengths = new int[count];
+		List<CUDADevice> models = new ArrayList<>();
+		Set<String> modelNames = new HashSet<>();
+
+		for (int i = 0; i < count; ++i) {
+			lengths[i] = MIN_LENGTH << i;
+		}
+
+		// devices of the same model share thresholds, so measure only the first
+		for (CUDADevice device : devices) {
+			if (modelNames.add(device.getModel())) {
+				models.add(device);
+			}
+		}
+
+		for (Kind kind : Kind.values()) {
+			Random random = new Random(kind.ordinal());
+			long[] sequential = new long[count];
+			long[] parallel = new long[count];
+			long[] cpu = new long[count];
+			long[][] gpu = new long[models.size()][count];
+			boolean[] failed = new boolean[models.size()];
+
+			for (int i = 0; i < count; ++i) {
+				Object data = kind.newArray(lengths[i]);
+
+				kind.fill(data, random);
+
+				try {
+					sequential[i] = time(kind::sortSequential, kind, data);
+					parallel[i] = time(kind::sortParallel, kind, data);
+				} catch (GPUConfigurationException | GPUSortException e) {
+					// CPU sorts throw neither
+					throw new InternalError(e.toString(), e);
+				}
+
+				cpu[i] = Math.min(sequential[i], parallel[i]);
+
+				for (int model = 0; model < gpu.length; ++model) {
+					if (failed[model]) {
+						continue;
+					}
+
+					int deviceId = models.get(model).getDeviceID();
+
+					try {
+						gpu[model][i] = time(array -> kind.sortOnDevice(deviceId, array), kind, data);
+					} catch (GPUConfigurationException | GPUSortException e) {
+						manager.outputIfVerbose("Warning: couldn't calibrate device " + deviceId //$NON-NLS-1$
+								+ ": " + e.getLocalizedMessage()); //$NON-NLS-1$
+						failed[model] = true;
+					}
+				}
+			}
+
+			record(manager, thresholds, kind, CPUSort.MODEL_NAME, crossover(lengths, sequential, parallel));
+
+			for (int model = 0; model < gpu.length; ++model) {
+				if (!failed[model]) {
+					record(manager, thresholds, kind, models.get(model).getModel(), crossover(lengths, cpu, gpu[model]));
+				}
+			}
+		}
+
+		return thresholds;
+	}
+
+	/**
+	 * Answer the shortest measured length from which the candidate is clearly
+	 * faster than the baseline at every longer measured length. The margin keeps
+	 * timing noise from choosing an alternative that is no faster, such as a
+	 * parallel sort on a single processor.
+	 */
+	private static int crossover(int[] lengths, long[] baseline, long[] candidate) {
+		int threshold = NEVER;
+
+		for (int i = lengths.length - 1; i >= 0; --i) {
+			if (candidate[i] + (candidate[i] >> 4) >= baseline[i]) {
+				break;
+			}
+
+			threshold = lengths[i];
+		}
+
+		return threshold;
+	}
+
+	@SuppressWarnings("boxing")
+	private static void record(CUDAManager manager, Properties thresholds, Kind kind, String model, int threshold) {
+		thresholds.setProperty(kind.propertyPrefix + model.replace(' ', '_'), Integer.toString(threshold));
+
+		if (manager.getVerboseGPUOutput()) {
+			manager.outputIfVerbose(String.format("Calibrated %s threshold for %s: %,d", //$NON-NLS-1$
+					kind.name().toLowerCase(), model, threshold));
+		}
+	}
+
+	/**
+	 * Answer the shortest time taken to sort a copy of the data, after a
+	 * warm-up run. Shorter arrays are sorted more often to reduce noise.
+	 */
+	private static long time(Sorter sorter, Kind kind, Object data) throws GPUConfigurationException, GPUSortException {
+		int length = java.lang.reflect.Array.getLength(data);
+		int repeats = Math.max(3, Math.min(20, (1 << 20) / length));
+		Object array = kind.newArray(length);
+		long best = Long.MAX_VALUE;
+
+		for (int i = 0; i <= repeats; ++i) {
+			System.arraycopy(data, 0, array, 0, length);
+
+			long start = System.nanoTime();
+
+			sorter.sort(array);
+
+			long elapsed = System.nanoTime() - start;
+
+			if (i != 0) {
+				best = Math.min(best, elapsed);
+			}
+		}
+
+		return best;
+	}
+
+	private SortCalibration() {
+		super();
+	}
+
+}
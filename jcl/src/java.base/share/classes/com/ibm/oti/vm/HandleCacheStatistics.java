@@ -0,0 +1,67 @@
+/*[INCLUDE-IF Sidecar17]*/
+package com.ibm.oti.vm;
+/*******************************************************************************
+ * Copyright (c) 2018, 2018 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *******************************************************************************/
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hit and miss counters of the MethodHandle lookup cache in java.lang.invoke.HandleCache.
+ * They are kept here, rather than in the package private HandleCache, so that
+ * the management code can read them.
+ */
+public final class HandleCacheStatistics {
+	/* LongAdder keeps the counters off the contended lookup path */
+	private static final LongAdder hitCount = new LongAdder();
+	private static final LongAdder missCount = new LongAdder();
+
+	private HandleCacheStatistics() {
+	}
+
+	/**
+	 * Count a lookup that found a live MethodHandle in the cache.
+	 */
+	public static void hit() {
+		hitCount.increment();
+	}
+
+	/**
+	 * Count a lookup that did not find a live MethodHandle in the cache.
+	 */
+	public static void miss() {
+		missCount.increment();
+	}
+
+	/**
+	 * @return the number of lookups satisfied by the cache
+	 */
+	public static long getHitCount() {
+		return hitCount.sum();
+	}
+
+	/**
+	 * @return the number of lookups not satisfied by the cache
+	 */
+	public static long getMissCount() {
+		return missCount.sum();
+	}
+}
@@ -4,7 +4,7 @@ package com.ibm.oti.vm;
 import java.util.Properties;
 
 /*******************************************************************************
- * Copyright (c) 2012, 2014 IBM Corp. and others
+ * Copyright (c) 2012, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -106,6 +106,15 @@ public interface VMLangAccess {
 	 */
 	public Properties internalGetProperties();
 	
+	/**
+	 * Returns the reflection cache configuration and counters, in the order: entries, hits,
+	 * misses, evictions, max entries, max entries per class, bootstrap callers cached (0 or 1)
+	 * and statistics enabled (0 or 1).
+	 *
+	 * @return the reflection cache statistics
+	 */
+	public long[] getReflectCacheStatistics();
+	
 	
 	/*[IF !Sidecar19-SE]*/
 	/**
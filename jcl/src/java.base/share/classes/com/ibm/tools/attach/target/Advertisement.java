@@ -1,7 +1,7 @@
 /*[INCLUDE-IF Sidecar16]*/
 package com.ibm.tools.attach.target;
 /*******************************************************************************
- * Copyright (c) 2009, 2010 IBM Corp. and others
+ * Copyright (c) 2009, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -106,7 +106,9 @@ public final class Advertisement {
 		addKeyAsciiValue(contentBuffer, KEY_PROCESS_ID, Long.toString(IPC.getProcessId()));
 		addKeyValue(contentBuffer, KEY_VM_ID, vmId);
 		addKeyValue(contentBuffer, KEY_DISPLAY_NAME, (((null == displayName) || (displayName.length() == 0))? vmId: displayName));
-		addKeyValue(contentBuffer, KEY_NOTIFIER, CommonDirectory.MASTER_NOTIFIER);
+		/* attachers which find the common semaphore's name here notify every VM */
+		String notifier = TargetDirectory.getNotifierName();
+		addKeyValue(contentBuffer, KEY_NOTIFIER, (null == notifier) ? CommonDirectory.MASTER_NOTIFIER : notifier);
 		
 		File tmpTargetDirectoryFileObject = TargetDirectory.getTargetDirectoryFileObject();
 		File tmpSyncFileObject = TargetDirectory.getSyncFileObject();
@@ -252,10 +254,20 @@ public final class Advertisement {
 	 * 
 	 * @return identifier of the semaphore used to notify the target
 	 */
-	String getNotifier() {
+	public String getNotifier() {
 		return props.getProperty(KEY_NOTIFIER);
 	}
 
+	/**
+	 * Older VMs, and VMs which request it, wait on the semaphore in the common directory.
+	 * @param notifier identifier of the semaphore used to notify the target
+	 * @return true if the target waits on its own semaphore in its target directory
+	 * @note the name is used as a file name, so anything other than a name created by TargetDirectory is rejected
+	 */
+	public static boolean isTargetNotifier(String notifier) {
+		return (null != notifier) && notifier.matches(TargetDirectory.NOTIFIER_FILENAME + "(_\\d+)?"); //$NON-NLS-1$
+	}
+
 	/**
 	 * attacher creates a file using this path when it is attaching to the target.
 	 * @return file path
@@ -2,7 +2,7 @@
 package com.ibm.tools.attach.target;
 
 /*******************************************************************************
- * Copyright (c) 2009, 2015 IBM Corp. and others
+ * Copyright (c) 2009, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -46,6 +46,11 @@ public class AttachHandler extends Thread {
 	static final String LOGGING_ENABLE_PROPERTY = "com.ibm.tools.attach.logging"; //$NON-NLS-1$
 	static final String LOG_NAME_PROPERTY = "com.ibm.tools.attach.log.name"; //$NON-NLS-1$
 	static final String VMID_VALID_PATTERN = "\\p{Alpha}\\w*"; /* Alphabetic followed by alphanumeric or underscore */ //$NON-NLS-1$
+	/**
+	 * set this property to "yes" to wait on a semaphore for this VM only rather than on the semaphore shared by all VMs.
+	 * Attachers from releases which do not notify individual VMs post only to the shared semaphore, so they cannot attach to such a VM.
+	 */
+	static final String VM_NOTIFIER_PROPERTY = "com.ibm.tools.attach.vm_notifier"; //$NON-NLS-1$
 
 	/**
 	 * Time delay before we give up trying to terminate the wait loop.
@@ -75,6 +80,11 @@ public class AttachHandler extends Thread {
 	private static AttachStateSync stateSync = new AttachStateSync();
 
 	private static int notificationCount;
+	/**
+	 * number of times the wait loop woke up but found no reply file, i.e. the notification was for another VM
+	 */
+	private static int idleNotificationCount;
+	private static boolean sharedNotifier = true;
 
 	private static final class syncObject {
 	}
@@ -206,7 +216,11 @@ public class AttachHandler extends Thread {
 			}
 			setVmId(myId); /* may need to tweak the ID */
 			setDisplayName(newDisplayName);
-			CommonDirectory.openSemaphore();
+			if (sharedNotifier) {
+				CommonDirectory.openSemaphore();
+			} else {
+				TargetDirectory.createMySemaphore();
+			}
 			CommonDirectory.obtainAttachLock();
 			Advertisement.createAdvertisementFile(getVmId(), newDisplayName);
 		} finally {
@@ -277,6 +291,7 @@ public class AttachHandler extends Thread {
 		if (null == nameProperty) {
 			nameProperty = com.ibm.oti.vm.VM.getVMLangAccess().internalGetProperties().getProperty("sun.java.command"); //$NON-NLS-1$
 		}
+		sharedNotifier = !"yes".equalsIgnoreCase(com.ibm.oti.vm.VM.getVMLangAccess().internalGetProperties().getProperty(VM_NOTIFIER_PROPERTY)); //$NON-NLS-1$
 		
 		if ((null == IPC.logStream) && (null != loggingProperty)
 				&& loggingProperty.equalsIgnoreCase("yes")) { //$NON-NLS-1$
@@ -407,7 +422,11 @@ public class AttachHandler extends Thread {
 				if (retry) {
 					IPC.logMessage("iteration ", notificationCount, " waitForNotification reopen semaphore"); //$NON-NLS-1$ //$NON-NLS-2$
 					synchronized (stateSync) {
-						if (!isAttachApiTerminated()) {
+						if (isAttachApiTerminated()) {
+							/* do nothing */
+						} else if (!sharedNotifier) {
+							status = TargetDirectory.reopenMySemaphore();
+						} else {
 							try {
 								CommonDirectory.obtainMasterLock(); /*[PR 164751 avoid scanning the directory when an attach API is launching ]*/
 								status = CommonDirectory.reopenSemaphore(); 
@@ -420,7 +439,10 @@ public class AttachHandler extends Thread {
 					
 					/*[PR Jazz 41720 - Recreate notification directory if it is deleted. ]*/
 					if ((CommonDirectory.SEMAPHORE_OKAY == status) && TargetDirectory.ensureMyAdvertisementExists(getVmId())) {
-						if (CommonDirectory.tryObtainMasterLock()) { /*[PR 199483] post to the semaphore to test it */
+						if (!sharedNotifier) {
+							IPC.logMessage("semaphore recovery: send test post"); //$NON-NLS-1$
+							TargetDirectory.notifyVm(getVmId(), TargetDirectory.getNotifierName());
+						} else if (CommonDirectory.tryObtainMasterLock()) { /*[PR 199483] post to the semaphore to test it */
 							IPC.logMessage("semaphore recovery: send test post"); //$NON-NLS-1$
 							int numTargets = CommonDirectory.countTargetDirectories();
 							setNumberOfTargets(numTargets);
@@ -440,22 +462,38 @@ public class AttachHandler extends Thread {
 
 		private Attachment checkReplyAndCreateAttachment() throws IOException {
 			Attachment at = mainHandler.connectToAttacher();
+			if (null == at) {
+				++idleNotificationCount;
+			}
+			if (IPC.loggingEnabled ) {
+				IPC.logMessage("checkReplyAndCreateAttachment iteration "+ notificationCount+" notifications without reply: "+ idleNotificationCount); //$NON-NLS-1$ //$NON-NLS-2$
+			}
 			/*[PR Jazz 41720 - Recreate notification directory if it is deleted. ]*/
 			if (!TargetDirectory.ensureMyAdvertisementExists(getVmId())) {
 				/* cannot create the target directory,so shut down the attach API */
 				mainHandler.terminate(false); /* no need to notify myself */
 			}
-			if (IPC.loggingEnabled ) {
-				IPC.logMessage("checkReplyAndCreateAttachment iteration "+ notificationCount+" waitForNotification obtainLock"); //$NON-NLS-1$ //$NON-NLS-2$
-			}
-			if (!mainHandler.syncFileLock.lockFile(true)) { /* the sync file is missing. */
-				TargetDirectory.createMySyncFile();
-				/* don't bother locking this since the attacher will not have locked it. */
+			if (!sharedNotifier) {
+				/*
+				 * Only attachers to this VM post to its semaphore, so there are no posts for other VMs to leave alone
+				 * and the attacher does not lock the sync file. Throttle only notifications which did not attach.
+				 */
+				if (null != at) {
+					return at;
+				}
 			} else {
 				if (IPC.loggingEnabled ) {
-					IPC.logMessage("iteration ", notificationCount," checkReplyAndCreateAttachment releaseLock"); //$NON-NLS-1$ //$NON-NLS-2$
+					IPC.logMessage("checkReplyAndCreateAttachment iteration "+ notificationCount+" waitForNotification obtainLock"); //$NON-NLS-1$ //$NON-NLS-2$
+				}
+				if (!mainHandler.syncFileLock.lockFile(true)) { /* the sync file is missing. */
+					TargetDirectory.createMySyncFile();
+					/* don't bother locking this since the attacher will not have locked it. */
+				} else {
+					if (IPC.loggingEnabled ) {
+						IPC.logMessage("iteration ", notificationCount," checkReplyAndCreateAttachment releaseLock"); //$NON-NLS-1$ //$NON-NLS-2$
+					}
+					mainHandler.syncFileLock.unlockFile();
 				}
-				mainHandler.syncFileLock.unlockFile();
 			}
 			try {
 				/*[PR Jazz 33224 Throttle the loop in to prevent the loop from occupying the semaphore ]*/
@@ -532,6 +570,8 @@ public class AttachHandler extends Thread {
 			}
 		}
 		FileLock.shutDown();
+		IPC.tracepoint(IPC.TRACEPOINT_STATUS_NORMAL, "AttachHandler terminate: notifications=" + notificationCount //$NON-NLS-1$
+				+ " without reply=" + idleNotificationCount); //$NON-NLS-1$
 		
 		boolean destroySemaphore = terminateWaitLoop(wakeHandler);
 		return destroySemaphore;
@@ -546,6 +586,13 @@ public class AttachHandler extends Thread {
 	private boolean terminateWaitLoop(boolean wakeHandler) {
 		boolean gotLock = false;
 		boolean destroySemaphore = false;
+		if (!sharedNotifier) {
+			/* no other VM waits on this VM's semaphore, so there is no need to count them or hold the master lock */
+			if (wakeHandler && isWaitingForSemaphore()) {
+				TargetDirectory.notifyVm(getVmId(), TargetDirectory.getNotifierName());
+			}
+			return true;
+		}
 		/*[PR CMVC 187777 : non-clean shutdown in life cycle tests]*/
 		/*
 		 * If multiple VMs shut down simultaneously, there is contention for the lock file.
@@ -687,7 +734,13 @@ public class AttachHandler extends Thread {
 				}
 				TargetDirectory.deleteMyDirectory(true); /*[PR Jazz 58094] terminate() cleared out the directory */
 				/*[PR CMVC 161992] wait until the attach handler thread has finished before closing the semaphore*/
-				if (destroySemaphore) {
+				if (!sharedNotifier) {
+					/* the semaphore belongs to this VM alone, so destroy it even if the wait loop terminated itself */
+					CommonDirectory.destroySemaphore();
+					if (IPC.loggingEnabled ) {
+						IPC.logMessage("AttachHandler destroyed semaphore"); //$NON-NLS-1$
+					}
+				} else if (destroySemaphore) {
 					try {
 						if (CommonDirectory.tryObtainMasterLock()) {
 							/* if this fails, then another process became active after the VMs were counted */
@@ -1,7 +1,7 @@
 /*[INCLUDE-IF Sidecar16]*/
 package com.ibm.tools.attach.target;
 /*******************************************************************************
- * Copyright (c) 2009, 2010 IBM Corp. and others
+ * Copyright (c) 2009, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -348,6 +348,7 @@ public abstract class CommonDirectory {
 				if ((0 != pid) /* the PID is valid and directory is owned by me or I am root */
 						&& !IPC.processExists(pid)) {
 					IPC.logMessage("delete defunct directory ", dirMemberName); //$NON-NLS-1$
+					TargetDirectory.destroyStaleSemaphores(dirMember);
 					TargetDirectory.deleteTargetDirectory(dirMemberName);
 				}
 			}
@@ -2,7 +2,7 @@
 package com.ibm.tools.attach.target;
 
 /*******************************************************************************
- * Copyright (c) 2009, 2015 IBM Corp. and others
+ * Copyright (c) 2009, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -98,6 +98,14 @@ public class IPC {
 	 */
 	native static int openSemaphore(String ctrlDir, String SemaphoreName);
 
+	/**
+	 * Create a new semaphore for this VM. An existing semaphore with the same key is not used.
+	 * @param ctrlDir Location of the control file
+	 * @param SemaphoreName key used to identify the semaphore
+	 * @return 0 if the semaphore was created, positive if a semaphore with the same key already exists, negative on failure
+	 */
+	native static int createSemaphore(String ctrlDir, String SemaphoreName);
+
 	/**
 	 * wait for a post on the semaphore for this VM. Use notify() to do the post
 	 * @return 0 if success.
@@ -131,6 +139,14 @@ public class IPC {
 	 */
 	static native int destroySemaphore();
 
+	/**
+	 * Open a semaphore and destroy it. Use this for semaphores left behind by terminated processes.
+	 * @param ctrlDir Location of the control file
+	 * @param SemaphoreName key used to identify the semaphore
+	 * @return 0 on success
+	 */
+	static native int destroyNamedSemaphore(String ctrlDir, String SemaphoreName);
+
 	/**
 	 * @return OS UID (numeric user ID)
 	 * @note Returns 0 on Windows.
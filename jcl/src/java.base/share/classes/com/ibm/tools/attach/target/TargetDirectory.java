@@ -1,7 +1,7 @@
 /*[INCLUDE-IF Sidecar16]*/
 package com.ibm.tools.attach.target;
 /*******************************************************************************
- * Copyright (c) 2009, 2010 IBM Corp. and others
+ * Copyright (c) 2009, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -37,10 +37,16 @@ public final class TargetDirectory {
 	/*[PR Jazz 30075] there were two conflicting declarations of SYNC_FILE_PERMISSIONS. The other one had the correct permissions */
 	public static final int SYNC_FILE_PERMISSIONS = 0666; /* All users must have write access in order to get an exclusive (i.e write) lock on the file */
 	static final int TARGET_DIRECTORY_PERMISSIONS = 01711;
+	/*
+	 * Control file for this VM's own notification semaphore. A suffix is added if the semaphore key
+	 * derived from the control file is already used by another semaphore.
+	 */
+	static final String NOTIFIER_FILENAME = "notifier"; //$NON-NLS-1$
 	
 	private volatile static  File targetDirectoryFileObject; 
 	private volatile static  File syncFileObject;
 	private volatile static  File advertisementFileObject;
+	private volatile static  String notifierName; /* null if this VM waits on the common semaphore */
 	
 	/**
 	 * Create the directory and files specific to this VM
@@ -175,6 +181,11 @@ public final class TargetDirectory {
 					IPC.logMessage("ensureTargetDirectoryExists: error creating target directory"); //$NON-NLS-1$
 					return false;
 				};
+				if (null != notifierName) {
+					/* the control file was deleted with the directory, so attachers can no longer find the old semaphore */
+					IPC.destroySemaphore();
+					createMySemaphore();
+				}
 				Advertisement.createAdvertisementFile(myVmId, AttachHandler.getMainHandler().getDisplayName());
 			} catch (IOException e) {
 				IPC.logMessage("ensureTargetDirectoryExists: IOException creating advertisement file"); //$NON-NLS-1$
@@ -219,6 +230,94 @@ public final class TargetDirectory {
 		return syncFile;
 	}
 	
+	/**
+	 * Create the semaphore used to notify only this VM. Caller must have created the target directory.
+	 * @return name of the semaphore
+	 * @throws IOException if the semaphore cannot be created
+	 */
+	static String createMySemaphore() throws IOException {
+		String ctrlDir = targetDirectoryFileObject.getAbsolutePath();
+		int status = IPC.JNI_OK;
+		for (int count = 0; count < VARIANT_LIMIT; ++count) {
+			String semName = (0 == count) ? NOTIFIER_FILENAME : NOTIFIER_FILENAME + '_' + count;
+			status = IPC.createSemaphore(ctrlDir, semName);
+			if (IPC.JNI_OK == status) {
+				notifierName = semName;
+				if (IPC.loggingEnabled ) {
+					IPC.logMessage("createMySemaphore created ", semName); //$NON-NLS-1$
+				}
+				return semName;
+			} else if (status < 0) {
+				break;
+			}
+			/* another semaphore has the same key: discard this control file and try a different one */
+			IPC.logMessage("createMySemaphore key in use for ", semName); //$NON-NLS-1$
+			if (!(new File(ctrlDir, semName)).delete()) {
+				IPC.logMessage("error deleting ", semName); //$NON-NLS-1$
+			}
+		}
+		/*[MSG "K0538", "semaphore {0} status= {1}"]*/
+		throw new IOException(com.ibm.oti.util.Msg.getString("K0538" , NOTIFIER_FILENAME, Integer.valueOf(status)));  //$NON-NLS-1$
+	}
+
+	/**
+	 * close this VM's semaphore and reopen it.
+	 * @return 0 if success
+	 */
+	static int reopenMySemaphore() {
+		IPC.logMessage("reopenMySemaphore"); //$NON-NLS-1$
+		IPC.closeSemaphore();
+		return IPC.openSemaphore(targetDirectoryFileObject.getAbsolutePath(), notifierName);
+	}
+
+	/**
+	 * @return name of the semaphore used to notify only this VM, or null if this VM uses the common semaphore
+	 */
+	static String getNotifierName() {
+		return notifierName;
+	}
+
+	/**
+	 * Post once to a target's own semaphore. This wakes only that target.
+	 * @param targetVmId ID of the target VM
+	 * @param targetNotifier name of the target's semaphore, from its advertisement
+	 * @return 0 on success
+	 */
+	public static int notifyVm(String targetVmId, String targetNotifier) {
+		if (IPC.loggingEnabled ) {
+			IPC.logMessage("notifyVm ", targetVmId); //$NON-NLS-1$
+		}
+		return IPC.notifyVm(getTargetDirectoryPath(targetVmId), targetNotifier, 1);
+	}
+
+	/**
+	 * Remove an unconsumed post from a target's own semaphore, e.g. when the target did not respond.
+	 * @param targetVmId ID of the target VM
+	 * @param targetNotifier name of the target's semaphore, from its advertisement
+	 * @return 0 on success
+	 */
+	public static int cancelNotify(String targetVmId, String targetNotifier) {
+		return IPC.cancelNotify(getTargetDirectoryPath(targetVmId), targetNotifier, 1);
+	}
+
+	/**
+	 * Destroy the semaphores of a VM which terminated without cleaning up its target directory.
+	 * @param tgtDir target directory of the defunct VM
+	 */
+	static void destroyStaleSemaphores(File tgtDir) {
+		String[] vmFiles = tgtDir.list();
+		if (null != vmFiles) {
+			for (String f: vmFiles) {
+				if (f.startsWith(NOTIFIER_FILENAME)) {
+					int status = IPC.destroyNamedSemaphore(tgtDir.getAbsolutePath(), f);
+					if (IPC.loggingEnabled ) {
+						IPC.logMessage("destroyStaleSemaphores ", status, " ", f); //$NON-NLS-1$ //$NON-NLS-2$
+					}
+				}
+			}
+		}
+	}
+
 	/**
 	 * Get the path to the target directory for a given VMID
 	 * @param vmId machine-friendly name of the VM
@@ -1,6 +1,6 @@
 /*[INCLUDE-IF Sidecar16]*/
 /*******************************************************************************
- * Copyright (c) 2009, 2010 IBM Corp. and others
+ * Copyright (c) 2009, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -40,12 +40,13 @@
  * 	<li>At startup, the target creates an "AttachHandler" thread at boot time during the JCL initialization.<br/>
  * The AttachHandler thread creates an advertisement directory in a well-known location in the file system, by default 
  * /tmp/.com.ibm.tools.attach.targets/&lt;VM ID&gt; (on Microsoft Windows, substitute C:\temp or C:\Documents and Settings\/&lt;user ID&gt;\Local Settings\Tempfor /tmp). The location of the directory is configurable by a command-line argument "com.ibm.tools.attach.directory".</li>
- * 	<li>AttachHandler opens a semaphore shared among all VMs.</li>
+ * 	<li>AttachHandler opens a semaphore shared among all VMs.
+ * If the "com.ibm.tools.attach.vm_notifier" property is "yes", it creates a semaphore for this VM only instead, whose control file is in the advertisement directory.</li>
  * 	<li>AttachHandler creates an advertisement file and a reply file in the  in the advertisement directory. The advertisement file is a Java properties file containing:
  * 	<ul>
  * 		<li>Virtual Machine ID.  This is based on the processor ID by default but can be set by the "com.ibm.tools.attach.id" system property</li>
  * 		<li>Display name.  By default this is the same as the ID, but can be set using the "com.ibm.tools.attach.displayName" property.</li>
- * 		<li>Shared semaphore identifier  (see above)</li>
+ * 		<li>Semaphore identifier  (see above). Attachers notify only this VM unless this is the shared semaphore.</li>
  * 	</ul>
  * 	</li>
  * 	<li>AttachHandler waits on the semaphore</li>
@@ -60,13 +61,14 @@
  * 	<ol>
  * 		<li>opens a server socket on a port</li>
  * 		<li>writes the port number to the  reply file</li>
- * 		<li>posts to the shared semaphore.  See below for the mechanics of the notifications.</li>
+ * 		<li>posts once to the target's own semaphore, or, for targets using the shared semaphore, to the shared semaphore.
+ * 		See below for the mechanics of the notifications.</li>
  * 		<li>reads from the socket</li>
  * 	</ol>
  * 	</li>
  * 	<li>The target's AttachHandler wakes up and sees if it has a reply file in its advertisement directory. If so, it creates an "attachment " thread</li>
  * 
- * 	<li>The target waits until the all other VMs have been woken up (see "Notification protocol" below) and waits again on the semaphore.</li>
+ * 	<li>A target using the shared semaphore waits until the all other VMs have been woken up (see "Notification protocol" below) and waits again on the semaphore.</li>
  * 	<li>The attachment thread reads the socket number from the reply file</li>
  * 	<li>The attachment thread opens the socket and writes an acknowledgment to the socket</li>
  * 	<li>The attacher's socket read completes.  The attach process is now complete.</li>
@@ -86,7 +88,7 @@
  * <ol>
  * </li>
  * 	<li>deletes its advertisement directory</li>
- * 	<li>destroys the semaphore if there are no other active targets.</li>
+ * 	<li>destroys its own semaphore, or destroys the shared semaphore if there are no other active targets.</li>
  * 	<li>posts to the semaphore to wake up the attach handler thread if other targets are using the semaphore.</li>
  * 	<li>terminates. Note that the attacher and target may still be communicating by other means, e.g. JMXRemote, when the attachment terminates.</li>
  * </ol>
@@ -128,6 +130,7 @@
  * </td>
  * </tr>
  *<tr><td>attachNotificationSync</td><td>FileLock</td><td> empty file for synchronization.  Used to prevent a target from waking more than once in a notification cycle.</td></tr>
+ *<tr><td>notifier</td><td>(none)</td><td>control file for the target's own semaphore. A numeric suffix is added if another semaphore already uses the key derived from the file.</td></tr>
  *<tr><td>reply</td><td>Reply</td><td>contains port number and a security key for one attach session. written by the attacher, read by target.</td></tr>
  * </table>
  *<h2>Options</h2>
@@ -142,6 +145,7 @@
  *<tr><td>com.ibm.tools.attach.logging</td><td>Turn on tracing of attach API events. Valid values are "yes" and "no".</td></tr>
  *<tr><td>com.ibm.tools.attach.log.name</td><td>Override the default path for the log files generated by the "logging" option.</td></tr>
  *<tr><td>com.ibm.tools.attach.timeout</td><td>Specify the timeout in milliseconds for communication between attacher and attachment.  Set to 0 for no timeout.</td></tr>
+ *<tr><td>com.ibm.tools.attach.vm_notifier</td><td>Wait on a semaphore for this VM only, so that attaches to other VMs do not wake it. Attachers which post only to the shared semaphore cannot attach to it.  Valid values are "yes" and "no".</td></tr>
  *</table>
  */
 package com.ibm.tools.attach.target;
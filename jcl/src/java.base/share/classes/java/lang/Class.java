@@ -2,7 +2,7 @@
 package java.lang;
 
 /*******************************************************************************
- * Copyright (c) 1998, 2017 IBM Corp. and others
+ * Copyright (c) 1998, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -40,7 +40,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.security.AccessController;
 import java.security.PrivilegedExceptionAction;
 import java.security.PrivilegedAction;
@@ -213,6 +215,9 @@ public final class Class<T> implements java.io.Serializable, GenericDeclaration,
 	private static boolean reflectCacheEnabled;
 	private static boolean reflectCacheDebug;
 	private static boolean reflectCacheAppOnly = true;
+	private static boolean reflectCacheStatistics;
+	private static int reflectCacheMaxEntries;
+	private static int reflectCacheMaxEntriesPerClass;
 	
 	static MethodHandles.Lookup implLookup;
 
@@ -990,13 +995,10 @@ private List<Method> lookupCachedDeclaredPublicMethods(CacheKey cacheKey) {
 	if (reflectCacheDebug) {
 		reflectCacheDebugHelper(null, 0, "lookup DeclaredPublicMethods in: ", getName());	//$NON-NLS-1$
 	}
-	ReflectCache cache = peekReflectCache();
-	if (cache != null) {
-		List<Method> methods = (List<Method>) cache.find(cacheKey);
-		if (methods != null) {
-			// assuming internal caller won't change this method list content
-			return methods;
-		}
+	List<Method> methods = (List<Method>) findInReflectCache(cacheKey);
+	if (methods != null) {
+		// assuming internal caller won't change this method list content
+		return methods;
 	}
 	return null;
 }
@@ -3357,6 +3359,37 @@ static void initCacheIds(boolean cacheEnabled, boolean cacheDebug) {
 static void setReflectCacheAppOnly(boolean cacheAppOnly) {
 	reflectCacheAppOnly = cacheAppOnly;
 }
+/**
+ * Configure the reflection cache budgets and statistics.
+ *
+ * @param maxEntries the maximum number of entries cached over all classes, 0 for no limit
+ * @param maxEntriesPerClass the maximum number of entries cached for any one class, 0 for no limit
+ * @param statistics true to count cache hits, misses and evictions
+ */
+static void setReflectCacheLimits(int maxEntries, int maxEntriesPerClass, boolean statistics) {
+	reflectCacheMaxEntries = maxEntries;
+	reflectCacheMaxEntriesPerClass = maxEntriesPerClass;
+	reflectCacheStatistics = statistics;
+}
+/**
+ * Answers the reflection cache configuration and counters, in the order: entries, hits,
+ * misses, evictions, max entries, max entries per class, bootstrap callers cached (0 or 1)
+ * and statistics enabled (0 or 1). The entry count is only maintained when a global budget is set.
+ *
+ * @return the reflection cache statistics
+ */
+static long[] getReflectCacheStatistics() {
+	return new long[] {
+		ReflectCache.globalClock.count.get(),
+		ReflectCache.hitCount.get(),
+		ReflectCache.missCount.get(),
+		ReflectCache.evictionCount.get(),
+		reflectCacheMaxEntries,
+		reflectCacheMaxEntriesPerClass,
+		reflectCacheAppOnly ? 0 : 1,
+		reflectCacheStatistics ? 1 : 0
+	};
+}
 @SuppressWarnings("nls")
 static void doInitCacheIds() {
 	constructorParameterTypesField = getAccessibleField(Constructor.class, "parameterTypes");
@@ -3573,8 +3606,10 @@ private class MethodInfo {
 /*[PR 125873] Improve reflection cache */
 private static final class ReflectRef extends SoftReference<Object> implements Runnable {
 	private static final ReferenceQueue<Object> queue = new ReferenceQueue<>();
-	private final ReflectCache cache;
+	final ReflectCache cache;
 	final CacheKey key;
+	/* CLOCK reference bit, set on every hit and cleared as an eviction hand passes */
+	volatile boolean referenced;
 	ReflectRef(ReflectCache cache, CacheKey key, Object value) {
 		super(value, queue);
 		this.cache = cache;
@@ -3584,6 +3619,10 @@ private static final class ReflectRef extends SoftReference<Object> implements R
 	public void run() {
 		cache.handleCleared(this);
 	}
+	/* Answer false once this entry has been replaced, evicted or cleared by the GC */
+	boolean isLive() {
+		return (cache.get(key) == this) && (get() != null);
+	}
 }
 
 /*[IF]*/
@@ -3686,17 +3725,80 @@ static Class<?>[] getParameterTypes(Method method) {
 	}
 }
 
+/*[IF]*/
+/*
+ * The CLOCK eviction hand over the entries inserted into one cache, or into every cache.
+ * Entries are queued in insertion order and held weakly, so the queue does not keep a class
+ * and its loader alive. When the queue holds more than the budget, the hand polls entries:
+ * entries which have been replaced, evicted or cleared are dropped, referenced entries have
+ * their reference bit cleared and are queued again, and the first unreferenced entry is evicted.
+ * The hand passes over at most MAX_SCAN referenced entries in one trim before evicting the next
+ * entry regardless, so the cost of an insert is bounded even when every entry is in use.
+ */
+/*[ENDIF]*/
+private static final class ClockQueue {
+	private static final int MAX_SCAN = 8;
+
+	private final ConcurrentLinkedQueue<WeakReference<ReflectRef>> queue = new ConcurrentLinkedQueue<>();
+	/* The number of entries queued, which includes entries not yet found to be dead */
+	final AtomicInteger count = new AtomicInteger();
+
+	void add(ReflectRef ref, int maxEntries) {
+		queue.add(new WeakReference<>(ref));
+		if (count.incrementAndGet() > maxEntries) {
+			trim(maxEntries);
+		}
+	}
+
+	private void trim(int maxEntries) {
+		int scanned = 0;
+		WeakReference<ReflectRef> entry;
+		while ((count.get() > maxEntries) && (null != (entry = queue.poll()))) {
+			ReflectRef ref = entry.get();
+			if ((ref == null) || !ref.isLive()) {
+				count.decrementAndGet();
+			} else if (ref.referenced && (scanned < MAX_SCAN)) {
+				scanned += 1;
+				ref.referenced = false;
+				queue.add(entry);
+			} else {
+				count.decrementAndGet();
+				ref.cache.evict(ref);
+			}
+		}
+	}
+}
+
 /*[PR 125873] Improve reflection cache */
+/*[IF]*/
+/*
+ * The cache is bounded when -Dreflect.cache.maxEntries and/or -Dreflect.cache.maxEntriesPerClass
+ * are specified. Eviction uses the CLOCK (second chance) algorithm: every hit sets the reference
+ * bit of the entry, and a ClockQueue hand clears the bit of referenced entries and evicts the
+ * first unreferenced one. The global hand queues every entry inserted into any cache, and each
+ * cache has its own hand for the per-class budget.
+ */
+/*[ENDIF]*/
 private static final class ReflectCache extends ConcurrentHashMap<CacheKey, ReflectRef> {
 	private static final long serialVersionUID = 6551549321039776630L;
 
+	/* The global CLOCK hand, only maintained when a global budget is set */
+	static final ClockQueue globalClock = new ClockQueue();
+	/* Only maintained when -Dreflect.cache=stats is specified */
+	static final AtomicLong hitCount = new AtomicLong();
+	static final AtomicLong missCount = new AtomicLong();
+	static final AtomicLong evictionCount = new AtomicLong();
+
 	private final Class<?> owner;
 	private final AtomicInteger useCount;
+	/* The CLOCK hand of this cache, only present when a per-class budget is set */
+	private final transient ClockQueue clock;
 
 	ReflectCache(Class<?> owner) {
 		super();
 		this.owner = owner;
 		this.useCount = new AtomicInteger();
+		this.clock = (reflectCacheMaxEntriesPerClass > 0) ? new ClockQueue() : null;
 	}
 
 	ReflectCache acquire() {
@@ -3723,11 +3825,27 @@ private static final class ReflectCache extends ConcurrentHashMap<CacheKey, Refl
 
 	Object find(CacheKey key) {
 		ReflectRef ref = get(key);
-		return ref != null ? ref.get() : null;
+		Object value = null;
+		if (ref != null) {
+			value = ref.get();
+			if (value != null) {
+				ref.referenced = true;
+			}
+		}
+		if (reflectCacheStatistics) {
+			if (value != null) {
+				hitCount.incrementAndGet();
+			} else {
+				missCount.incrementAndGet();
+			}
+		}
+		return value;
 	}
 
 	void insert(CacheKey key, Object value) {
-		put(key, new ReflectRef(this, key, value));
+		ReflectRef newRef = new ReflectRef(this, key, value);
+		put(key, newRef);
+		inserted(newRef);
 	}
 
 	<T> T insertIfAbsent(CacheKey key, T value) {
@@ -3735,6 +3853,7 @@ private static final class ReflectCache extends ConcurrentHashMap<CacheKey, Refl
 		for (;;) {
 			ReflectRef oldRef = putIfAbsent(key, newRef);
 			if (oldRef == null) {
+				inserted(newRef);
 				return value;
 			}
 			T oldValue = (T) oldRef.get();
@@ -3744,6 +3863,7 @@ private static final class ReflectCache extends ConcurrentHashMap<CacheKey, Refl
 			// The entry addressed by key has been cleared, but not yet removed from this map.
 			// One thread will successfully replace the entry; the value stored will be shared.
 			if (replace(key, oldRef, newRef)) {
+				inserted(newRef);
 				return value;
 			}
 		}
@@ -3753,6 +3873,34 @@ private static final class ReflectCache extends ConcurrentHashMap<CacheKey, Refl
 		useCount.decrementAndGet();
 	}
 
+	/* Enforce the per-class and global budgets once newRef has been added to this cache */
+	private void inserted(ReflectRef newRef) {
+		// A new entry starts referenced, so a hand passes over it once before it can be evicted.
+		newRef.referenced = true;
+		if (clock != null) {
+			clock.add(newRef, reflectCacheMaxEntriesPerClass);
+		}
+		int maxEntries = reflectCacheMaxEntries;
+		if (maxEntries > 0) {
+			globalClock.add(newRef, maxEntries);
+		}
+	}
+
+	void evict(ReflectRef ref) {
+		if (remove(ref.key, ref)) {
+			ref.clear();
+			if (reflectCacheStatistics) {
+				evictionCount.incrementAndGet();
+			}
+			if (reflectCacheDebug) {
+				System.err.println("Evicted reflect cache entry for: " + owner.getName() + ", size: " + size()); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			if (isEmpty() && (useCount.get() == 0)) {
+				owner.setReflectCache(null);
+			}
+		}
+	}
+
 }
 
 private transient ReflectCache reflectCache;
@@ -3807,6 +3955,17 @@ private ReflectCache peekReflectCache() {
 	return reflectCache;
 }
 
+private Object findInReflectCache(CacheKey cacheKey) {
+	ReflectCache cache = peekReflectCache();
+	if (cache != null) {
+		return cache.find(cacheKey);
+	}
+	if (reflectCacheStatistics) {
+		ReflectCache.missCount.incrementAndGet();
+	}
+	return null;
+}
+
 static InternalError newInternalError(Exception cause) {
 	InternalError err = new InternalError(cause.toString());
 	err.setCause(cause);
@@ -3818,20 +3977,17 @@ private Method lookupCachedMethod(String methodName, Class<?>[] parameters) {
 	if (reflectCacheDebug) {
 		reflectCacheDebugHelper(null, 0, "lookup Method: ", getName(), ".", methodName);	//$NON-NLS-1$ //$NON-NLS-2$
 	}
-	ReflectCache cache = peekReflectCache();
-	if (cache != null) {
-		// use a null returnType to find the Method with the largest depth
-		Method method = (Method) cache.find(CacheKey.newMethodKey(methodName, parameters, null));
-		if (method != null) {
-			try {
-				Class<?>[] orgParams = getParameterTypes(method);
-				// ensure the parameter classes are identical
-				if (sameTypes(parameters, orgParams)) {
-					return (Method) copyMethod.invoke(method, NoArgs);
-				}
-			} catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-				throw newInternalError(e);
+	// use a null returnType to find the Method with the largest depth
+	Method method = (Method) findInReflectCache(CacheKey.newMethodKey(methodName, parameters, null));
+	if (method != null) {
+		try {
+			Class<?>[] orgParams = getParameterTypes(method);
+			// ensure the parameter classes are identical
+			if (sameTypes(parameters, orgParams)) {
+				return (Method) copyMethod.invoke(method, NoArgs);
 			}
+		} catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
+			throw newInternalError(e);
 		}
 	}
 	return null;
@@ -3879,16 +4035,13 @@ private Field lookupCachedField(String fieldName) {
 	if (reflectCacheDebug) {
 		reflectCacheDebugHelper(null, 0, "lookup Field: ", getName(), ".", fieldName);	//$NON-NLS-1$ //$NON-NLS-2$
 	}
-	ReflectCache cache = peekReflectCache();
-	if (cache != null) {
-		/*[PR 124746] Field cache cannot handle same field name with multiple types */
-		Field field = (Field) cache.find(CacheKey.newFieldKey(fieldName, null));
-		if (field != null) {
-			try {
-				return (Field)copyField.invoke(field, NoArgs);
-			} catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-				throw newInternalError(e);
-			}
+	/*[PR 124746] Field cache cannot handle same field name with multiple types */
+	Field field = (Field) findInReflectCache(CacheKey.newFieldKey(fieldName, null));
+	if (field != null) {
+		try {
+			return (Field)copyField.invoke(field, NoArgs);
+		} catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
+			throw newInternalError(e);
 		}
 	}
 	return null;
@@ -3932,19 +4085,16 @@ private Constructor<T> lookupCachedConstructor(Class<?>[] parameters) {
 	if (reflectCacheDebug) {
 		reflectCacheDebugHelper(parameters, 1, "lookup Constructor: ", getName());	//$NON-NLS-1$
 	}
-	ReflectCache cache = peekReflectCache();
-	if (cache != null) {
-		Constructor<?> constructor = (Constructor<?>) cache.find(CacheKey.newConstructorKey(parameters));
-		if (constructor != null) {
-			Class<?>[] orgParams = getParameterTypes(constructor);
-			try {
-				// ensure the parameter classes are identical
-				if (sameTypes(orgParams, parameters)) {
-					return (Constructor<T>) copyConstructor.invoke(constructor, NoArgs);
-				}
-			} catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-				throw newInternalError(e);
+	Constructor<?> constructor = (Constructor<?>) findInReflectCache(CacheKey.newConstructorKey(parameters));
+	if (constructor != null) {
+		Class<?>[] orgParams = getParameterTypes(constructor);
+		try {
+			// ensure the parameter classes are identical
+			if (sameTypes(orgParams, parameters)) {
+				return (Constructor<T>) copyConstructor.invoke(constructor, NoArgs);
 			}
+		} catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
+			throw newInternalError(e);
 		}
 	}
 	return null;
@@ -3992,12 +4142,9 @@ private Method[] lookupCachedMethods(CacheKey cacheKey) {
 	if (reflectCacheDebug) {
 		reflectCacheDebugHelper(null, 0, "lookup Methods in: ", getName());	//$NON-NLS-1$
 	}
-	ReflectCache cache = peekReflectCache();
-	if (cache != null) {
-		Method[] methods = (Method[]) cache.find(cacheKey);
-		if (methods != null) {
-			return copyMethods(methods);
-		}
+	Method[] methods = (Method[]) findInReflectCache(cacheKey);
+	if (methods != null) {
+		return copyMethods(methods);
 	}
 	return null;
 }
@@ -4063,12 +4210,9 @@ private Field[] lookupCachedFields(CacheKey cacheKey) {
 	if (reflectCacheDebug) {
 		reflectCacheDebugHelper(null, 0, "lookup Fields in: ", getName());	//$NON-NLS-1$
 	}
-	ReflectCache cache = peekReflectCache();
-	if (cache != null) {
-		Field[] fields = (Field[]) cache.find(cacheKey);
-		if (fields != null) {
-			return copyFields(fields);
-		}
+	Field[] fields = (Field[]) findInReflectCache(cacheKey);
+	if (fields != null) {
+		return copyFields(fields);
 	}
 	return null;
 }
@@ -4134,12 +4278,9 @@ private Constructor<T>[] lookupCachedConstructors(CacheKey cacheKey) {
 	if (reflectCacheDebug) {
 		reflectCacheDebugHelper(null, 0, "lookup Constructors in: ", getName());	//$NON-NLS-1$
 	}
-	ReflectCache cache = peekReflectCache();
-	if (cache != null) {
-		Constructor<T>[] constructors = (Constructor<T>[]) cache.find(cacheKey);
-		if (constructors != null) {
-			return copyConstructors(constructors);
-		}
+	Constructor<T>[] constructors = (Constructor<T>[]) findInReflectCache(cacheKey);
+	if (constructors != null) {
+		return copyConstructors(constructors);
 	}
 	return null;
 }
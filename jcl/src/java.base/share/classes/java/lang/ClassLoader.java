@@ -20,7 +20,7 @@ import java.util.NoSuchElementException;
 import java.util.Queue;
 import java.util.Vector;
 import java.util.Collections;
-import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
@@ -33,7 +33,6 @@ import java.util.Spliterators;
 import java.util.stream.StreamSupport;
 import jdk.internal.module.ServicesCatalog;
 import jdk.internal.misc.SharedSecrets;
-import java.util.concurrent.ConcurrentHashMap;
 import jdk.internal.reflect.CallerSensitive;
 import jdk.internal.loader.ClassLoaders;
 import jdk.internal.loader.BootLoader;
@@ -42,7 +41,7 @@ import sun.reflect.CallerSensitive;
 /*[ENDIF]*/
 
 /*******************************************************************************
- * Copyright (c) 1998, 2017 IBM Corp. and others
+ * Copyright (c) 1998, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -113,10 +112,10 @@ public abstract class ClassLoader {
   	private Map<String, Boolean> packageAssertionStatus;
   	private Map<String, Boolean> classAssertionStatus;
   	/*[IF Sidecar19-SE]*/
-  	private final Hashtable<String, NamedPackage> packages = new Hashtable();
+  	private final ConcurrentHashMap<String, NamedPackage> packages = new ConcurrentHashMap<>();
   	private volatile ConcurrentHashMap<?, ?> classLoaderValueMap;
 	/*[ELSE]
-  	private final Hashtable<String, Package> packages = new Hashtable();
+  	private final ConcurrentHashMap<String, Package> packages = new ConcurrentHashMap<>();
 	/*[ENDIF] Sidecar19-SE*/
 	/*[PR CMVC 94437] fix deadlocks */
 	/*[PR 122459] LIR646 - Remove use of generic object for synchronization */
@@ -127,10 +126,11 @@ public abstract class ClassLoader {
 	private static Certificate[] emptyCertificates = new Certificate[0];
 	private volatile ProtectionDomain defaultProtectionDomain;
 
-	//	store parallel capable classloader classes
-	private static Map<Class<?>, Object> parallelCapableCollection;
+	//	store parallel capable classloader classes, weakly referenced
+	private static ConcurrentHashMap<ParallelCapableRef, ParallelCapableRef> parallelCapableCollection;
+	private static final ReferenceQueue<Class<?>> parallelCapableQueue = new ReferenceQueue<>();
 	//	store class binary name based lock
-	private volatile Hashtable<String, ClassNameLockRef> classNameBasedLock;
+	private volatile ConcurrentHashMap<String, ClassNameLockRef> classNameBasedLock;
 	//	for performance purpose, only check once if registered as parallel capable
 	//	assume customer classloader follow Java specification requirement 
 	//	in which registerAsParallelCapable shall be invoked during initialization
@@ -155,19 +155,39 @@ public abstract class ClassLoader {
 	static final class ClassNameLockRef extends WeakReference<Object> implements Runnable {
 		private static final ReferenceQueue<Object> queue = new ReferenceQueue<>();
 		private final String key;
-		private final Hashtable<?, ?> classNameLockHT;
-		public ClassNameLockRef(Object referent, String keyValue, Hashtable<?, ?> classNameLockHTValue) {
+		private final ConcurrentHashMap<?, ?> classNameLockHT;
+		public ClassNameLockRef(Object referent, String keyValue, ConcurrentHashMap<?, ?> classNameLockHTValue) {
 			super(referent, queue);
 			key = keyValue;
 			classNameLockHT = classNameLockHTValue;
 		}
 		@Override
 		public void run() {
-			synchronized(classNameLockHT) {
-				if (classNameLockHT.get(key) == this) {
-					classNameLockHT.remove(key);
-				}
+			classNameLockHT.remove(key, this);
+		}
+	}
+
+	/* Weak reference to a parallel capable ClassLoader class, compared by the identity of the class */
+	static final class ParallelCapableRef extends WeakReference<Class<?>> {
+		private final int hashcode;
+		ParallelCapableRef(Class<?> referent, ReferenceQueue<Class<?>> queue) {
+			super(referent, queue);
+			hashcode = System.identityHashCode(referent);
+		}
+		@Override
+		public int hashCode() {
+			return hashcode;
+		}
+		@Override
+		public boolean equals(Object o) {
+			if (o == this) {
+				return true;
+			}
+			if (o instanceof ParallelCapableRef) {
+				Class<?> referent = get();
+				return (referent != null) && (referent == ((ParallelCapableRef)o).get());
 			}
+			return false;
 		}
 	}
 	
@@ -175,7 +195,7 @@ public abstract class ClassLoader {
 		if (null != bootstrapClassLoader) {
 			return;
 		}
-		parallelCapableCollection = Collections.synchronizedMap(new WeakHashMap<>());
+		parallelCapableCollection = new ConcurrentHashMap<>();
 		
 		allowArraySyntax = "true".equalsIgnoreCase(	//$NON-NLS-1$
 				System.internalGetProperties().getProperty("sun.lang.ClassLoader.allowArraySyntax"));	//$NON-NLS-1$
@@ -186,6 +206,7 @@ public abstract class ClassLoader {
 		/* Do not enable reflect cache if -Dreflect.cache=false is in commandline */
 		boolean reflectCacheEnabled = false;
 		boolean reflectCacheDebug = false;
+		boolean reflectCacheStatistics = false;
 		if (!"false".equals(propValue)) { //$NON-NLS-1$
 			/*JAZZ 42080: Turning off reflection caching for cloud to reduce Object Leaks*/	
 			reflectCacheEnabled = true;
@@ -196,8 +217,16 @@ public abstract class ClassLoader {
 					/* reflect.cache=boot is handled in completeInitialization() */
 					reflectCacheDebug = true;
 				}
+				int statsIndex = propValue.indexOf("stats"); //$NON-NLS-1$
+				if (statsIndex >= 0) {
+					reflectCacheStatistics = true;
+				}
 			}
 		}
+		Class.setReflectCacheLimits(
+				getReflectCacheLimit("reflect.cache.maxEntries"), //$NON-NLS-1$
+				getReflectCacheLimit("reflect.cache.maxEntriesPerClass"), //$NON-NLS-1$
+				reflectCacheStatistics);
 
 		try {
 			/* CMVC 179008 - b143 needs ProtectionDomain initialized here */
@@ -294,6 +323,23 @@ public abstract class ClassLoader {
 		Class.initCacheIds(reflectCacheEnabled, reflectCacheDebug);
 	}	
 
+/**
+ * Answers the non-negative integer value of the reflection cache budget property,
+ * or 0 (no limit) if it is not set or is not a valid number.
+ */
+private static int getReflectCacheLimit(String propName) {
+	String propValue = System.internalGetProperties().getProperty(propName);
+	int limit = 0;
+	if (propValue != null) {
+		try {
+			limit = Math.max(0, Integer.parseInt(propValue.trim()));
+		} catch (NumberFormatException e) {
+			// ignore invalid values, the cache is unbounded
+		}
+	}
+	return limit;
+}
+
 /**
  * Constructs a new instance of this class with the system
  * class loader as its parent.
@@ -370,7 +416,7 @@ protected ClassLoader(ClassLoader parentLoader) {
 	if (security != null)
 		security.checkCreateClassLoader();
 
-	if (parallelCapableCollection.containsKey(this.getClass())) {
+	if (isRegisteredAsParallelCapable(this.getClass())) {
 		isParallelCapable = true;
 	}
 	
@@ -556,7 +602,7 @@ protected final Class<?> defineClass (
 		}
 	}
 	/*[IF Sidecar19-SE]*/
-	synchronized(packages) {
+	if (!packages.containsKey(answer.getPackageName())) {
 		packages.computeIfAbsent(answer.getPackageName(), pkgName->new NamedPackage(pkgName, answer.getModule()));
 	}
 	/*[ENDIF] Sidecar19-SE */
@@ -1299,20 +1345,29 @@ Class<?> loadClassHelper(final String className, boolean resolveClass, boolean d
 protected static boolean registerAsParallelCapable() {
 	final Class<?> callerCls = System.getCallerClass();
 	
-	if (parallelCapableCollection.containsKey(callerCls)) {
+	if (isRegisteredAsParallelCapable(callerCls)) {
 		return true;
 	}
 
 	Class<?> superCls = callerCls.getSuperclass();
 
-	if (superCls == ClassLoader.class || parallelCapableCollection.containsKey(superCls)) {
-		parallelCapableCollection.put(callerCls, null);
+	if (superCls == ClassLoader.class || isRegisteredAsParallelCapable(superCls)) {
+		ParallelCapableRef staleRef;
+		while (null != (staleRef = (ParallelCapableRef)parallelCapableQueue.poll())) {
+			parallelCapableCollection.remove(staleRef, staleRef);
+		}
+		ParallelCapableRef ref = new ParallelCapableRef(callerCls, parallelCapableQueue);
+		parallelCapableCollection.putIfAbsent(ref, ref);
 		return true;
 	}
 	
 	return false;
 }
 
+private static boolean isRegisteredAsParallelCapable(Class<?> loaderClass) {
+	return parallelCapableCollection.containsKey(new ParallelCapableRef(loaderClass, null));
+}
+
 /**
  * Answers the lock object for class loading in parallel. 
  * If this ClassLoader object has been registered as parallel capable, 
@@ -1333,20 +1388,39 @@ protected static boolean registerAsParallelCapable() {
 protected Object getClassLoadingLock(final String className) {
 	Object lock = this;
 	if (isParallelCapable)	{
-		if (classNameBasedLock == null) {
+		ConcurrentHashMap<String, ClassNameLockRef> locks = classNameBasedLock;
+		if (locks == null) {
 			synchronized(lazyInitLock) {
-				if (classNameBasedLock == null) {
-					classNameBasedLock = new Hashtable<>();
+				locks = classNameBasedLock;
+				if (locks == null) {
+					locks = new ConcurrentHashMap<>();
+					classNameBasedLock = locks;
 				} 
 			}
 		}
-		synchronized(classNameBasedLock) {
-			// get() does null pointer check
-			ClassNameLockRef wf = classNameBasedLock.get(className);
-			lock = (null != wf) ? wf.get() : null;
-			if (lock == null) {		
-				lock = new ClassNameBasedLock();
-				classNameBasedLock.put(className, new ClassNameLockRef(lock, className, classNameBasedLock));
+		// get() does null pointer check
+		ClassNameLockRef wf = locks.get(className);
+		lock = (null != wf) ? wf.get() : null;
+		if (lock == null) {
+			/* When several threads race to create the lock for a name, the first one added
+			 * is returned to all of them. Locks that have been collected are replaced.
+			 */
+			Object newLock = new ClassNameBasedLock();
+			ClassNameLockRef newRef = new ClassNameLockRef(newLock, className, locks);
+			for (;;) {
+				wf = locks.putIfAbsent(className, newRef);
+				if (wf == null) {
+					lock = newLock;
+					break;
+				}
+				lock = wf.get();
+				if (lock != null) {
+					break;
+				}
+				if (locks.replace(className, wf, newRef)) {
+					lock = newLock;
+					break;
+				}
 			}
 		}
 	}
@@ -1505,19 +1579,12 @@ public
 /*[ENDIF]*/
 final Package getDefinedPackage(String name) {
 	/*[IF Sidecar19-SE]*/
-	Package pkg = null;
-	synchronized(packages) {
-		NamedPackage	np = packages.get(name);
-		if (null != np) {
-			if (np instanceof Package) {
-				pkg = (Package)np;
-			} else {
-				pkg = NamedPackage.toPackage(np.packageName(), np.module());
-				packages.put(name, pkg);
-			}
-		}
+	NamedPackage np = packages.get(name);
+	if ((null == np) || (np instanceof Package)) {
+		return (Package)np;
 	}
-	return pkg;
+	return (Package)packages.computeIfPresent(name, (pkgName, current)->
+		(current instanceof Package) ? current : NamedPackage.toPackage(current.packageName(), current.module()));
 	/*[ELSE]*/
 	return packages.get(name);
 	/*[ENDIF] Sidecar19-SE*/
@@ -1530,12 +1597,10 @@ final Package getDefinedPackage(String name) {
  * @return Array of Package objects or zero length array if no package is defined
  */
 public final Package[] getDefinedPackages() {
-	synchronized(packages) {
-		if (packages.isEmpty()) {
-			return EMPTY_PACKAGE_ARRAY;
-		} else {
-			return packages().toArray(Package[]::new);
-		}
+	if (packages.isEmpty()) {
+		return EMPTY_PACKAGE_ARRAY;
+	} else {
+		return packages().toArray(Package[]::new);
 	}
 }
 /*[ENDIF] Sidecar19-SE*/
@@ -1571,34 +1636,19 @@ protected Package getPackage(String name) {
 	}
 }
 
-private Package[] getPackagesHelper(
-		/*[IF Sidecar19-SE]*/
-		Hashtable<?, NamedPackage>
-		/*[ELSE]
-		Hashtable<?, Package>
-		/*[ENDIF] Sidecar19-SE*/
-		localPackages, Package[] ancestorsPackages) {
-	int resultSize = localPackages.size();
-	if (ancestorsPackages != null) {
-		resultSize += ancestorsPackages.length;
-	}
-	Package[] result = new Package[resultSize];
-	int i = 0;
-	if (ancestorsPackages != null) {
-		i = ancestorsPackages.length;
-		System.arraycopy(ancestorsPackages, 0, result, 0, i);
-	}
-
+private Package[] getPackagesHelper(Package[] ancestorsPackages) {
 	/*[IF Sidecar19-SE]*/
 	Package[] pkgs = packages().toArray(Package[]::new);
-	System.arraycopy(pkgs, 0, result, i, pkgs.length);
 	/*[ELSE]
-	Enumeration<Package> myPkgs = localPackages.elements(); 
-	while (myPkgs.hasMoreElements()) {
-		result[i++] = myPkgs.nextElement();
-	}
+	Package[] pkgs = packages.values().toArray(EMPTY_PACKAGE_ARRAY);
 	/*[ENDIF] Sidecar19-SE*/
+	if (ancestorsPackages == null) {
+		return pkgs;
+	}
 
+	Package[] result = new Package[ancestorsPackages.length + pkgs.length];
+	System.arraycopy(ancestorsPackages, 0, result, 0, ancestorsPackages.length);
+	System.arraycopy(pkgs, 0, result, ancestorsPackages.length, pkgs.length);
 	return result;
 }
 
@@ -1627,38 +1677,8 @@ protected Package[] getPackages() {
 		ancestorsPackages = parent.getPackages();
 	}
 
-	/*[IF Sidecar19-SE]*/
-	Hashtable<?, NamedPackage> localPackages = packages;
-	/*[ELSE]
-	Hashtable<?, Package> localPackages = packages;
-	/*[ENDIF] Sidecar19-SE*/
-
-	boolean rtExceptionThrown = false;
-	do {
-		try {
-			Package[] result;
-			/*[IF Sidecar19-SE]*/			
-			if (rtExceptionThrown) {
-				synchronized(packages) {
-					result = getPackagesHelper(localPackages, ancestorsPackages);
-				}
-			} else {
-			/*[ENDIF] Sidecar19-SE*/	
-				result = getPackagesHelper(localPackages, ancestorsPackages);
-			/*[IF Sidecar19-SE]*/	
-			}
-			/*[ENDIF] Sidecar19-SE*/
-			return result;
-		} catch(RuntimeException ex) {
-			if (rtExceptionThrown) {
-				throw ex;
-			}
-			rtExceptionThrown = true;
-			/*[IF !Sidecar19-SE]*/
-			localPackages = (Hashtable<?, Package>)packages.clone();
-			/*[ENDIF] Sidecar19-SE*/
-		}
-	} while (true);
+	/* packages is concurrent, so no lock or copy is needed to snapshot it */
+	return getPackagesHelper(ancestorsPackages);
 }
 
 /**
@@ -1684,20 +1704,19 @@ protected Package definePackage(
 	final String implVendor, final URL sealBase)
 	throws IllegalArgumentException
 {
-	synchronized(packages) {
-		/*[IF Sidecar19-SE]*/
-		if (packages.containsKey(name)) {
-		/*[ELSE]		
-		if (null != getPackage(name)) {
-		/*[ENDIF]*/			
-			/*[MSG "K0053", "Package {0} already defined."]*/
-			throw new IllegalArgumentException(com.ibm.oti.util.Msg.getString("K0053", name)); //$NON-NLS-1$
-		} else {
-			Package newPackage = new Package(name, specTitle, specVersion, specVendor, implTitle, implVersion, implVendor, sealBase, this);
-			packages.put(name, newPackage);
+	/*[IF Sidecar19-SE]*/
+	if (!packages.containsKey(name)) {
+	/*[ELSE]		
+	if (null == getPackage(name)) {
+	/*[ENDIF]*/			
+		Package newPackage = new Package(name, specTitle, specVersion, specVendor, implTitle, implVersion, implVendor, sealBase, this);
+		/* putIfAbsent() fails if another thread defined the package since it was checked */
+		if (null == packages.putIfAbsent(name, newPackage)) {
 			return newPackage;
 		}
 	}
+	/*[MSG "K0053", "Package {0} already defined."]*/
+	throw new IllegalArgumentException(com.ibm.oti.util.Msg.getString("K0053", name)); //$NON-NLS-1$
 }
 
 /**
@@ -2276,14 +2295,12 @@ Package definePackage(String name, Module module) {
 	if (name.isEmpty() && module.isNamed()) {
 		throw new InternalError("Unnamed package in " + module); //$NON-NLS-1$
 	}
-	synchronized(packages) {
-		NamedPackage np = packages.get(name);
-		if ((null != np) && (np instanceof Package)) {
-			pkg = (Package)np;
-		} else {
-			pkg = NamedPackage.toPackage(name, module);
-			packages.put(name, pkg);
-		}
+	NamedPackage np = packages.get(name);
+	if ((null != np) && (np instanceof Package)) {
+		pkg = (Package)np;
+	} else {
+		pkg = (Package)packages.compute(name, (pkgName, current)->
+			(current instanceof Package) ? current : NamedPackage.toPackage(pkgName, module));
 	}
 	
 	return pkg;
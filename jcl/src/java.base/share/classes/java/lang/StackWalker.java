@@ -1,6 +1,6 @@
 /*[INCLUDE-IF Sidecar19-SE]*/
 /*******************************************************************************
- * Copyright (c) 2016, 2017 IBM Corp. and others
+ * Copyright (c) 2016, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -36,10 +36,13 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * This provides a facility for iterating over the call stack of the current
@@ -52,6 +55,9 @@ import java.util.stream.Stream;
 public final class StackWalker {
 
 	private static final int DEFAULT_BUFFER_SIZE = 1;
+	/* Frames are fetched from the VM in batches, starting small since most walks stop after a few frames */
+	private static final int MIN_BATCH_SIZE = 8;
+	private static final int MAX_BATCH_SIZE = 64;
 	private final static int J9_RETAIN_CLASS_REFERENCE = 1;
 	private final static int J9_SHOW_REFLECT_FRAMES = 2;
 	private final static int J9_SHOW_HIDDEN_FRAMES = 4;
@@ -154,7 +160,7 @@ public final class StackWalker {
 		walkWrapperImpl(flags, "forEach", s -> { //$NON-NLS-1$
 			s.forEach(action);
 			return null;
-		});
+		}, bufferSize);
 	}
 
 	/**
@@ -173,12 +179,17 @@ public final class StackWalker {
 			/* [MSG "K0639", "Stack walker not configured with RETAIN_CLASS_REFERENCE"]*/
 			throw new UnsupportedOperationException(com.ibm.oti.util.Msg.getString("K0639")); //$NON-NLS-1$
 		}
+		/* Find the client's caller without creating any frames. */
+		Class<?> callerClass = getCallerClassImpl();
+		if (null != callerClass) {
+			return callerClass;
+		}
 		/*
-		 * Get the top two stack frames: the client calling getCallerClass and
-		 * the client's caller. Ignore reflection and special frames.
+		 * The client has no caller or is caller-sensitive: get the top two stack
+		 * frames to report which. Ignore reflection and special frames.
 		 */
 		List<StackFrame> result = StackWalker.walkWrapperImpl(J9_RETAIN_CLASS_REFERENCE, "getCallerClass", //$NON-NLS-1$
-				s -> s.limit(2).collect(Collectors.toList()));
+				s -> s.limit(2).collect(Collectors.toList()), 2);
 		if (result.size() < 2) {
 			/*[MSG "K0640", "getCallerClass() called from method with no caller"]*/
 			throw new IllegalStateException(com.ibm.oti.util.Msg.getString("K0640")); //$NON-NLS-1$
@@ -192,8 +203,17 @@ public final class StackWalker {
 		return clientsCaller.getDeclaringClass();
 	}
 
+	/**
+	 * Find the class of the caller of the method calling getCallerClass, skipping
+	 * reflection and hidden frames.
+	 * 
+	 * @return the caller's Class, or null if the method calling getCallerClass has
+	 *         no caller or is caller-sensitive.
+	 */
+	private native static Class<?> getCallerClassImpl();
+
 	private native static <T> T walkWrapperImpl(int flags, String walkerMethod,
-			Function<? super Stream<StackFrame>, ? extends T> function);
+			Function<? super Stream<StackFrame>, ? extends T> function, int bufferSize);
 
 	/**
 	 * Traverse the calling thread's stack at the time this method is called and
@@ -201,17 +221,77 @@ public final class StackWalker {
 	 * 
 	 * @param function operation to apply to the stream
 	 * @param walkState Pointer to a J9StackWalkState struct
+	 * @param bufferSize the estimated depth of the walk
 	 * @return the value returned by {@code function}.
 	 */
-	private static <T> T walkImpl(Function<? super Stream<StackFrame>, ? extends T> function, long walkState) {
+	private static <T> T walkImpl(Function<? super Stream<StackFrame>, ? extends T> function, long walkState, int bufferSize) {
 		T result;
-		try (Stream<StackFrame> frameStream = Stream.iterate(getImpl(walkState), x -> (null != x), x -> getImpl(walkState))) {
+		FrameSpliterator frames = new FrameSpliterator(walkState, bufferSize);
+		try (Stream<StackFrame> frameStream = StreamSupport.stream(frames, false).onClose(frames::close)) {
 			result = function.apply(frameStream);
 		}
 		return result;
 	}
 
-	private static native StackFrameImpl getImpl(long walkState);
+	/**
+	 * Fill {@code frames} with the next frames of the walk.
+	 * 
+	 * @param walkState Pointer to a J9StackWalkState struct
+	 * @param frames the array to fill
+	 * @return the number of frames stored, less than the length of {@code frames}
+	 *         only when the bottom of the stack has been reached.
+	 */
+	private static native int getFramesImpl(long walkState, StackFrameImpl[] frames);
+
+	/**
+	 * Supplies the frames of a walk, fetching them from the VM in batches.
+	 */
+	static final class FrameSpliterator extends Spliterators.AbstractSpliterator<StackFrame> {
+		private long walkState;
+		private StackFrameImpl[] batch;
+		private int count;
+		private int next;
+		private boolean endOfStack;
+
+		FrameSpliterator(long walkState, int bufferSize) {
+			super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+			this.walkState = walkState;
+			batch = new StackFrameImpl[Math.min(Math.max(bufferSize, MIN_BATCH_SIZE), MAX_BATCH_SIZE)];
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super StackFrame> action) {
+			Objects.requireNonNull(action);
+			if (next == count) {
+				if (endOfStack || (0 == walkState)) {
+					return false;
+				}
+				if (next == batch.length) {
+					/* the walk is deeper than estimated: fetch more frames at a time */
+					int batchSize = Math.min(batch.length * 2, MAX_BATCH_SIZE);
+					batch = (batchSize == batch.length) ? batch : new StackFrameImpl[batchSize];
+				}
+				count = getFramesImpl(walkState, batch);
+				next = 0;
+				endOfStack = count < batch.length;
+				if (0 == count) {
+					return false;
+				}
+			}
+			StackFrame frame = batch[next];
+			batch[next] = null;
+			next += 1;
+			action.accept(frame);
+			return true;
+		}
+
+		/**
+		 * The walk state is only valid until the walk returns.
+		 */
+		void close() {
+			walkState = 0;
+		}
+	}
 
 	/**
 	 * Traverse the calling thread's stack at the time this method is called and
@@ -221,7 +301,7 @@ public final class StackWalker {
 	 * @return the value returned by {@code function}.
 	 */
 	public <T> T walk(Function<? super Stream<StackFrame>, ? extends T> function) {
-		return walkWrapperImpl(flags, "walk", function); //$NON-NLS-1$
+		return walkWrapperImpl(flags, "walk", function, bufferSize); //$NON-NLS-1$
 	}
 
 	/**
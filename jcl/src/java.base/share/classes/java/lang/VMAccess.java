@@ -2,7 +2,7 @@
 package java.lang;
 
 /*******************************************************************************
- * Copyright (c) 2012, 2017 IBM Corp. and others
+ * Copyright (c) 2012, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -153,6 +153,16 @@ final class VMAccess implements VMLangAccess {
 		return System.internalGetProperties();
 	}
 	
+	/**
+	 * Returns the reflection cache configuration and counters.
+	 * 
+	 * @return the reflection cache statistics
+	 */
+	@Override
+	public long[] getReflectCacheStatistics() {
+		return Class.getReflectCacheStatistics();
+	}
+	
 	
 	/*[IF !Sidecar19-SE]*/
 	/**
@@ -1,6 +1,6 @@
 /*[INCLUDE-IF Sidecar19-SE]*/
 /*******************************************************************************
- * Copyright (c) 2016, 2017 IBM Corp. and others
+ * Copyright (c) 2016, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -22,11 +22,11 @@
  *******************************************************************************/
 package java.lang.invoke;
 
-import static java.lang.invoke.MethodHandles.Lookup.internalPrivilegedLookup;
 import static java.lang.invoke.MethodType.methodType;
 import static java.lang.invoke.ByteBufferViewVarHandle.ByteBufferViewVarHandleOperations.*;
 
 import com.ibm.oti.util.Msg;
+import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.ReadOnlyBufferException;
@@ -105,131 +105,100 @@ final class ByteBufferViewVarHandle extends ViewVarHandle {
 	@SuppressWarnings("unused")
 	static class ByteBufferViewVarHandleOperations extends ViewVarHandle.ViewVarHandleOperations {
 		
-		/**
-		 * A ByteBuffer may be on-heap or off-heap. On-heap buffers are backed by a byte[], 
-		 * and off-heap buffers have a base memory address. This class abstracts away the
-		 * difference so that a buffer element can simply be referenced by base and offset.
+		/*
+		 * A ByteBuffer may be on-heap or off-heap. On-heap buffers are backed by a byte[],
+		 * and off-heap buffers have a base memory address. An element of either is referenced
+		 * by base (the byte[], or null) and offset. The ByteBuffer fields they are computed from
+		 * are read directly with Unsafe, so that no object is created for each access.
 		 */
-		private static class BufferElement {
-			private static final int INDEX_OFFSET = Unsafe.ARRAY_BYTE_BASE_OFFSET;
-			private static final MethodHandle directBufferAddressMH;
-			private static final MethodHandle onHeapBufferArrayMH;
-			private static final MethodHandle bufferOffsetMH;
-			
-			final Object base;
-			final long offset;
-			
-			static {
-				MethodHandle addressMH = null;
-				MethodHandle arrayMH = null;
-				MethodHandle offsetMH = null;
-				try {
-					addressMH = internalPrivilegedLookup.findGetter(ByteBuffer.class, "address", long.class);
-					arrayMH = internalPrivilegedLookup.findGetter(ByteBuffer.class, "hb", byte[].class);
-					offsetMH = internalPrivilegedLookup.findGetter(ByteBuffer.class, "offset", int.class);
-				} catch (Throwable t) {
-					throw new InternalError("Could not create MethodHandle for field ByteBuffer field.", t);
-				}
-				directBufferAddressMH = addressMH;
-				onHeapBufferArrayMH = arrayMH;
-				bufferOffsetMH = offsetMH;
-			}
-			
-			BufferElement(ByteBuffer buffer, int viewTypeSize, int index) {
-				if (buffer.isDirect()) {
-					this.base = null;
-					this.offset = computeAddress(buffer, index, viewTypeSize);
-				} else {
-					this.base = getArray(buffer);
-					this.offset = computeOffset(buffer, index, viewTypeSize);
-				}
-			}
-			
-			private final byte[] getArray(ByteBuffer buffer) {
-				try {
-					return (byte[])onHeapBufferArrayMH.invokeExact(buffer);
-				} catch (Throwable e) {
-					throw new InternalError("Could not get ByteBuffer backing array.");
-				}
-			}
-			
-			private static final long computeOffset(ByteBuffer buffer, int index, int viewTypeSize) {
-				int arrayOffset = 0;
-				try {
-					arrayOffset = (int)bufferOffsetMH.invokeExact(buffer);
-				} catch (Throwable e) {
-					throw new InternalError("Could not get ByteBuffer backing array.");
-				}
-				return (long)INDEX_OFFSET + arrayOffset + index;
+		private static final long ADDRESS_FIELD_OFFSET = initializeFieldOffset(Buffer.class, "address"); //$NON-NLS-1$
+		private static final long ARRAY_FIELD_OFFSET = initializeFieldOffset(ByteBuffer.class, "hb"); //$NON-NLS-1$
+		private static final long ARRAY_OFFSET_FIELD_OFFSET = initializeFieldOffset(ByteBuffer.class, "offset"); //$NON-NLS-1$
+
+		private static final long initializeFieldOffset(Class<?> bufferClass, String fieldName) {
+			try {
+				return _unsafe.objectFieldOffset(bufferClass.getDeclaredField(fieldName));
+			} catch (Exception e) {
+				throw new InternalError("Could not find ByteBuffer field " + fieldName, e); //$NON-NLS-1$
 			}
-			
-			private static final long computeAddress(ByteBuffer buffer, int index, int viewTypeSize) {
-				long base = 0;
-				try {
-					base = (long)directBufferAddressMH.invokeExact(buffer);
-				} catch (Throwable e) {
-					throw new InternalError("Could not get ByteBuffer.address");
-				}
-				return (long)base + index;
+		}
+
+		static final Object bufferBase(ByteBuffer receiver) {
+			if (receiver.isDirect()) {
+				return null;
 			}
+			return _unsafe.getObject(receiver, ARRAY_FIELD_OFFSET);
 		}
 
-		static BufferElement checkAndGetBufferElement(ByteBuffer receiver, int viewTypeSize, int index, boolean readOnlyOperation, boolean allowUnaligned) {
+		static final long checkAndGetBufferOffset(ByteBuffer receiver, int viewTypeSize, int index, boolean readOnlyOperation, boolean allowUnaligned) {
 			receiver.getClass();
 			boundsCheck(receiver.limit(), viewTypeSize, index);
 			if ((!readOnlyOperation) && receiver.isReadOnly()) {
 				throw new ReadOnlyBufferException();
 			}
-			BufferElement be = new BufferElement(receiver, viewTypeSize, index);
-			alignmentCheck(be.offset, viewTypeSize, allowUnaligned);
-			return be;
+			long offset;
+			if (receiver.isDirect()) {
+				offset = _unsafe.getLong(receiver, ADDRESS_FIELD_OFFSET) + index;
+			} else {
+				offset = (long)Unsafe.ARRAY_BYTE_BASE_OFFSET + _unsafe.getInt(receiver, ARRAY_OFFSET_FIELD_OFFSET) + index;
+			}
+			alignmentCheck(offset, viewTypeSize, allowUnaligned);
+			return offset;
 		}
 
 		static final class OpChar extends ByteBufferViewVarHandleOperations {
 			private static final int BYTES = Character.BYTES;
 			
 			private static final char get(ByteBuffer receiver, int index, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, true, true);
-				return _unsafe.getChar(be.base, be.offset);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, true, true);
+				Object base = bufferBase(receiver);
+				return _unsafe.getChar(base, offset);
 
 			}
 
 			private static final void set(ByteBuffer receiver, int index, char value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, true);
-				_unsafe.putChar(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, true);
+				Object base = bufferBase(receiver);
+				_unsafe.putChar(base, offset, value);
 			}
 
 			private static final char getVolatile(ByteBuffer receiver, int index, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, true, false);
-				return _unsafe.getCharVolatile(be.base, be.offset);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, true, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getCharVolatile(base, offset);
 
 			}
 
 			private static final void setVolatile(ByteBuffer receiver, int index, char value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				_unsafe.putCharVolatile(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				_unsafe.putCharVolatile(base, offset, value);
 			}
 
 			private static final char getOpaque(ByteBuffer receiver, int index, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, true, false);
-				return _unsafe.getCharOpaque(be.base, be.offset);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, true, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getCharOpaque(base, offset);
 
 			}
 
 			private static final void setOpaque(ByteBuffer receiver, int index, char value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				_unsafe.putCharOpaque(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				_unsafe.putCharOpaque(base, offset, value);
 			}
 
 			private static final char getAcquire(ByteBuffer receiver, int index, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, true, false);
-				return _unsafe.getCharAcquire(be.base, be.offset);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, true, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getCharAcquire(base, offset);
 
 			}
 
 			private static final void setRelease(ByteBuffer receiver, int index, char value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				_unsafe.putCharRelease(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				_unsafe.putCharRelease(base, offset, value);
 			}
 
 			private static final boolean compareAndSet(ByteBuffer receiver, int index, char testValue, char newValue, ByteBufferViewVarHandle varHandle) {
@@ -329,122 +298,141 @@ final class ByteBufferViewVarHandle extends ViewVarHandle {
 			private static final int BYTES = Double.BYTES;
 			
 			private static final double get(ByteBuffer receiver, int index, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, true, true);
-				return _unsafe.getDouble(be.base, be.offset);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, true, true);
+				Object base = bufferBase(receiver);
+				return _unsafe.getDouble(base, offset);
 			}
 
 			private static final void set(ByteBuffer receiver, int index, double value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, true);
-				_unsafe.putDouble(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, true);
+				Object base = bufferBase(receiver);
+				_unsafe.putDouble(base, offset, value);
 			}
 
 			private static final double getVolatile(ByteBuffer receiver, int index, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, true, false);
-				return _unsafe.getDoubleVolatile(be.base, be.offset);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, true, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getDoubleVolatile(base, offset);
 			}
 
 			private static final void setVolatile(ByteBuffer receiver, int index, double value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				_unsafe.putDoubleVolatile(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				_unsafe.putDoubleVolatile(base, offset, value);
 			}
 
 			private static final double getOpaque(ByteBuffer receiver, int index, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, true, false);
-				return _unsafe.getDoubleOpaque(be.base, be.offset);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, true, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getDoubleOpaque(base, offset);
 			}
 
 			private static final void setOpaque(ByteBuffer receiver, int index, double value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				_unsafe.putDoubleOpaque(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				_unsafe.putDoubleOpaque(base, offset, value);
 			}
 
 			private static final double getAcquire(ByteBuffer receiver, int index, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, true, false);
-				return _unsafe.getDoubleAcquire(be.base, be.offset);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, true, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getDoubleAcquire(base, offset);
 			}
 
 			private static final void setRelease(ByteBuffer receiver, int index, double value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				_unsafe.putDoubleRelease(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				_unsafe.putDoubleRelease(base, offset, value);
 			}
 
 			private static final boolean compareAndSet(ByteBuffer receiver, int index, double testValue, double newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
 /*[IF Sidecar19-SE-B174]*/				
-				return _unsafe.compareAndSetDouble(be.base, be.offset, testValue, newValue);	
+				return _unsafe.compareAndSetDouble(base, offset, testValue, newValue);	
 /*[ELSE]
-				return _unsafe.compareAndSwapDouble(be.base, be.offset, testValue, newValue);
+				return _unsafe.compareAndSwapDouble(base, offset, testValue, newValue);
 /*[ENDIF]*/				
 			}
 
 			private static final double compareAndExchange(ByteBuffer receiver, int index, double testValue, double newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
 /*[IF Sidecar19-SE-B174]*/				
-				return _unsafe.compareAndExchangeDouble(be.base, be.offset, testValue, newValue);
+				return _unsafe.compareAndExchangeDouble(base, offset, testValue, newValue);
 /*[ELSE]
-				return _unsafe.compareAndExchangeDoubleVolatile(be.base, be.offset, testValue, newValue);
+				return _unsafe.compareAndExchangeDoubleVolatile(base, offset, testValue, newValue);
 /*[ENDIF]*/				
 			}
 
 			private static final double compareAndExchangeAcquire(ByteBuffer receiver, int index, double testValue, double newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				return _unsafe.compareAndExchangeDoubleAcquire(be.base, be.offset, testValue, newValue);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.compareAndExchangeDoubleAcquire(base, offset, testValue, newValue);
 			}
 
 			private static final double compareAndExchangeRelease(ByteBuffer receiver, int index, double testValue, double newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				return _unsafe.compareAndExchangeDoubleRelease(be.base, be.offset, testValue, newValue);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.compareAndExchangeDoubleRelease(base, offset, testValue, newValue);
 			}
 
 			private static final boolean weakCompareAndSet(ByteBuffer receiver, int index, double testValue, double newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
 /*[IF Sidecar19-SE-B174]*/				
-				return _unsafe.weakCompareAndSetDoublePlain(be.base, be.offset, testValue, newValue);
+				return _unsafe.weakCompareAndSetDoublePlain(base, offset, testValue, newValue);
 /*[ELSE]
-				return _unsafe.weakCompareAndSwapDouble(be.base, be.offset, testValue, newValue);
+				return _unsafe.weakCompareAndSwapDouble(base, offset, testValue, newValue);
 /*[ENDIF]*/				
 			}
 
 			private static final boolean weakCompareAndSetAcquire(ByteBuffer receiver, int index, double testValue, double newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
 /*[IF Sidecar19-SE-B174]*/				
-				return _unsafe.weakCompareAndSetDoubleAcquire(be.base, be.offset, testValue, newValue);
+				return _unsafe.weakCompareAndSetDoubleAcquire(base, offset, testValue, newValue);
 /*[ELSE]
-				return _unsafe.weakCompareAndSwapDoubleAcquire(be.base, be.offset, testValue, newValue);
+				return _unsafe.weakCompareAndSwapDoubleAcquire(base, offset, testValue, newValue);
 /*[ENDIF]*/				
 			}
 
 			private static final boolean weakCompareAndSetRelease(ByteBuffer receiver, int index, double testValue, double newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
 /*[IF Sidecar19-SE-B174]*/				
-				return _unsafe.weakCompareAndSetDoubleRelease(be.base, be.offset, testValue, newValue);
+				return _unsafe.weakCompareAndSetDoubleRelease(base, offset, testValue, newValue);
 /*[ELSE]
-				return _unsafe.weakCompareAndSwapDoubleRelease(be.base, be.offset, testValue, newValue);
+				return _unsafe.weakCompareAndSwapDoubleRelease(base, offset, testValue, newValue);
 /*[ENDIF]*/				
 			}
 
 			private static final boolean weakCompareAndSetPlain(ByteBuffer receiver, int index, double testValue, double newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
 /*[IF Sidecar19-SE-B174]*/				
-				return _unsafe.weakCompareAndSetDoublePlain(be.base, be.offset, testValue, newValue);
+				return _unsafe.weakCompareAndSetDoublePlain(base, offset, testValue, newValue);
 /*[ELSE]
-				return _unsafe.weakCompareAndSwapDouble(be.base, be.offset, testValue, newValue);
+				return _unsafe.weakCompareAndSwapDouble(base, offset, testValue, newValue);
 /*[ENDIF]*/
 			}
 
 			private static final double getAndSet(ByteBuffer receiver, int index, double value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				return _unsafe.getAndSetDouble(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getAndSetDouble(base, offset, value);
 			}
 
 			private static final double getAndSetAcquire(ByteBuffer receiver, int index, double value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				return _unsafe.getAndSetDoubleAcquire(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getAndSetDoubleAcquire(base, offset, value);
 			}
 
 			private static final double getAndSetRelease(ByteBuffer receiver, int index, double value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				return _unsafe.getAndSetDoubleRelease(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getAndSetDoubleRelease(base, offset, value);
 			}
 
 			private static final double getAndAdd(ByteBuffer receiver, int index, double value, ByteBufferViewVarHandle varHandle) {
@@ -500,122 +488,141 @@ final class ByteBufferViewVarHandle extends ViewVarHandle {
 			private static final int BYTES = Float.BYTES;
 			
 			private static final float get(ByteBuffer receiver, int index, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, true, true);
-				return _unsafe.getFloat(be.base, be.offset);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, true, true);
+				Object base = bufferBase(receiver);
+				return _unsafe.getFloat(base, offset);
 			}
 
 			private static final void set(ByteBuffer receiver, int index, float value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, true);
-				_unsafe.putFloat(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, true);
+				Object base = bufferBase(receiver);
+				_unsafe.putFloat(base, offset, value);
 			}
 
 			private static final float getVolatile(ByteBuffer receiver, int index, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, true, false);
-				return _unsafe.getFloatVolatile(be.base, be.offset);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, true, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getFloatVolatile(base, offset);
 			}
 
 			private static final void setVolatile(ByteBuffer receiver, int index, float value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				_unsafe.putFloatVolatile(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				_unsafe.putFloatVolatile(base, offset, value);
 			}
 
 			private static final float getOpaque(ByteBuffer receiver, int index, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, true, false);
-				return _unsafe.getFloatOpaque(be.base, be.offset);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, true, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getFloatOpaque(base, offset);
 			}
 
 			private static final void setOpaque(ByteBuffer receiver, int index, float value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				_unsafe.putFloatOpaque(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				_unsafe.putFloatOpaque(base, offset, value);
 			}
 
 			private static final float getAcquire(ByteBuffer receiver, int index, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, true, false);
-				return _unsafe.getFloatAcquire(be.base, be.offset);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, true, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getFloatAcquire(base, offset);
 			}
 
 			private static final void setRelease(ByteBuffer receiver, int index, float value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				_unsafe.putFloatRelease(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				_unsafe.putFloatRelease(base, offset, value);
 			}
 
 			private static final boolean compareAndSet(ByteBuffer receiver, int index, float testValue, float newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
 /*[IF Sidecar19-SE-B174]*/				
-				return _unsafe.compareAndSetFloat(be.base, be.offset, testValue, newValue);
+				return _unsafe.compareAndSetFloat(base, offset, testValue, newValue);
 /*[ELSE]
-				return _unsafe.compareAndSwapFloat(be.base, be.offset, testValue, newValue);
+				return _unsafe.compareAndSwapFloat(base, offset, testValue, newValue);
 /*[ENDIF]*/				
 			}
 
 			private static final float compareAndExchange(ByteBuffer receiver, int index, float testValue, float newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
 /*[IF Sidecar19-SE-B174]*/				
-				return _unsafe.compareAndExchangeFloat(be.base, be.offset, testValue, newValue);
+				return _unsafe.compareAndExchangeFloat(base, offset, testValue, newValue);
 /*[ELSE]
-				return _unsafe.compareAndExchangeFloatVolatile(be.base, be.offset, testValue, newValue);
+				return _unsafe.compareAndExchangeFloatVolatile(base, offset, testValue, newValue);
 /*[ENDIF]*/				
 			}
 
 			private static final float compareAndExchangeAcquire(ByteBuffer receiver, int index, float testValue, float newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				return _unsafe.compareAndExchangeFloatAcquire(be.base, be.offset, testValue, newValue);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.compareAndExchangeFloatAcquire(base, offset, testValue, newValue);
 			}
 
 			private static final float compareAndExchangeRelease(ByteBuffer receiver, int index, float testValue, float newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				return _unsafe.compareAndExchangeFloatRelease(be.base, be.offset, testValue, newValue);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.compareAndExchangeFloatRelease(base, offset, testValue, newValue);
 			}
 
 			private static final boolean weakCompareAndSet(ByteBuffer receiver, int index, float testValue, float newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
 /*[IF Sidecar19-SE-B174]*/				
-				return _unsafe.weakCompareAndSetFloatPlain(be.base, be.offset, testValue, newValue);
+				return _unsafe.weakCompareAndSetFloatPlain(base, offset, testValue, newValue);
 /*[ELSE]
-				return _unsafe.weakCompareAndSwapFloat(be.base, be.offset, testValue, newValue);
+				return _unsafe.weakCompareAndSwapFloat(base, offset, testValue, newValue);
 /*[ENDIF]*/				
 			}
 
 			private static final boolean weakCompareAndSetAcquire(ByteBuffer receiver, int index, float testValue, float newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
 /*[IF Sidecar19-SE-B174]*/				
-				return _unsafe.weakCompareAndSetFloatAcquire(be.base, be.offset, testValue, newValue);
+				return _unsafe.weakCompareAndSetFloatAcquire(base, offset, testValue, newValue);
 /*[ELSE]
-				return _unsafe.weakCompareAndSwapFloatAcquire(be.base, be.offset, testValue, newValue);
+				return _unsafe.weakCompareAndSwapFloatAcquire(base, offset, testValue, newValue);
 /*[ENDIF]*/				
 			}
 
 			private static final boolean weakCompareAndSetRelease(ByteBuffer receiver, int index, float testValue, float newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
 /*[IF Sidecar19-SE-B174]*/				
-				return _unsafe.weakCompareAndSetFloatRelease(be.base, be.offset, testValue, newValue);
+				return _unsafe.weakCompareAndSetFloatRelease(base, offset, testValue, newValue);
 /*[ELSE]
-				return _unsafe.weakCompareAndSwapFloatRelease(be.base, be.offset, testValue, newValue);
+				return _unsafe.weakCompareAndSwapFloatRelease(base, offset, testValue, newValue);
 /*[ENDIF]*/				
 			}
 
 			private static final boolean weakCompareAndSetPlain(ByteBuffer receiver, int index, float testValue, float newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
 /*[IF Sidecar19-SE-B174]*/				
-				return _unsafe.weakCompareAndSetFloatPlain(be.base, be.offset, testValue, newValue);
+				return _unsafe.weakCompareAndSetFloatPlain(base, offset, testValue, newValue);
 /*[ELSE]
-				return _unsafe.weakCompareAndSwapFloat(be.base, be.offset, testValue, newValue);
+				return _unsafe.weakCompareAndSwapFloat(base, offset, testValue, newValue);
 /*[ENDIF]*/				
 			}
 
 			private static final float getAndSet(ByteBuffer receiver, int index, float value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				return _unsafe.getAndSetFloat(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getAndSetFloat(base, offset, value);
 			}
 
 			private static final float getAndSetAcquire(ByteBuffer receiver, int index, float value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				return _unsafe.getAndSetFloatAcquire(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getAndSetFloatAcquire(base, offset, value);
 			}
 
 			private static final float getAndSetRelease(ByteBuffer receiver, int index, float value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				return _unsafe.getAndSetFloatRelease(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getAndSetFloatRelease(base, offset, value);
 			}
 
 			private static final float getAndAdd(ByteBuffer receiver, int index, float value, ByteBufferViewVarHandle varHandle) {
@@ -671,182 +678,213 @@ final class ByteBufferViewVarHandle extends ViewVarHandle {
 			private static final int BYTES = Integer.BYTES;
 			
 			private static final int get(ByteBuffer receiver, int index, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, true, true);
-				return _unsafe.getInt(be.base, be.offset);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, true, true);
+				Object base = bufferBase(receiver);
+				return _unsafe.getInt(base, offset);
 			}
 
 			private static final void set(ByteBuffer receiver, int index, int value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, true);
-				_unsafe.putInt(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, true);
+				Object base = bufferBase(receiver);
+				_unsafe.putInt(base, offset, value);
 			}
 
 			private static final int getVolatile(ByteBuffer receiver, int index, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, true, false);
-				return _unsafe.getIntVolatile(be.base, be.offset);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, true, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getIntVolatile(base, offset);
 			}
 
 			private static final void setVolatile(ByteBuffer receiver, int index, int value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				_unsafe.putIntVolatile(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				_unsafe.putIntVolatile(base, offset, value);
 			}
 
 			private static final int getOpaque(ByteBuffer receiver, int index, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, true, false);
-				return _unsafe.getIntOpaque(be.base, be.offset);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, true, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getIntOpaque(base, offset);
 			}
 
 			private static final void setOpaque(ByteBuffer receiver, int index, int value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				_unsafe.putIntOpaque(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				_unsafe.putIntOpaque(base, offset, value);
 			}
 
 			private static final int getAcquire(ByteBuffer receiver, int index, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, true, false);
-				return _unsafe.getIntAcquire(be.base, be.offset);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, true, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getIntAcquire(base, offset);
 			}
 
 			private static final void setRelease(ByteBuffer receiver, int index, int value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				_unsafe.putIntRelease(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				_unsafe.putIntRelease(base, offset, value);
 			}
 
 			private static final boolean compareAndSet(ByteBuffer receiver, int index, int testValue, int newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
 /*[IF Sidecar19-SE-B174]*/				
-				return _unsafe.compareAndSetInt(be.base, be.offset, testValue, newValue);
+				return _unsafe.compareAndSetInt(base, offset, testValue, newValue);
 /*[ELSE]
-				return _unsafe.compareAndSwapInt(be.base, be.offset, testValue, newValue);
+				return _unsafe.compareAndSwapInt(base, offset, testValue, newValue);
 /*[ENDIF]*/				
 			}
 
 			private static final int compareAndExchange(ByteBuffer receiver, int index, int testValue, int newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
 /*[IF Sidecar19-SE-B174]*/				
-				return _unsafe.compareAndExchangeInt(be.base, be.offset, testValue, newValue);
+				return _unsafe.compareAndExchangeInt(base, offset, testValue, newValue);
 /*[ELSE]
-				return _unsafe.compareAndExchangeIntVolatile(be.base, be.offset, testValue, newValue);
+				return _unsafe.compareAndExchangeIntVolatile(base, offset, testValue, newValue);
 /*[ENDIF]*/				
 			}
 
 			private static final int compareAndExchangeAcquire(ByteBuffer receiver, int index, int testValue, int newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				return _unsafe.compareAndExchangeIntAcquire(be.base, be.offset, testValue, newValue);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.compareAndExchangeIntAcquire(base, offset, testValue, newValue);
 			}
 
 			private static final int compareAndExchangeRelease(ByteBuffer receiver, int index, int testValue, int newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				return _unsafe.compareAndExchangeIntRelease(be.base, be.offset, testValue, newValue);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.compareAndExchangeIntRelease(base, offset, testValue, newValue);
 			}
 
 			private static final boolean weakCompareAndSet(ByteBuffer receiver, int index, int testValue, int newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
 /*[IF Sidecar19-SE-B174]*/				
-				return _unsafe.weakCompareAndSetIntPlain(be.base, be.offset, testValue, newValue);
+				return _unsafe.weakCompareAndSetIntPlain(base, offset, testValue, newValue);
 /*[ELSE]
-				return _unsafe.weakCompareAndSwapInt(be.base, be.offset, testValue, newValue);
+				return _unsafe.weakCompareAndSwapInt(base, offset, testValue, newValue);
 /*[ENDIF]*/				
 			}
 
 			private static final boolean weakCompareAndSetAcquire(ByteBuffer receiver, int index, int testValue, int newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
 /*[IF Sidecar19-SE-B174]*/				
-				return _unsafe.weakCompareAndSetIntAcquire(be.base, be.offset, testValue, newValue);
+				return _unsafe.weakCompareAndSetIntAcquire(base, offset, testValue, newValue);
 /*[ELSE]
-				return _unsafe.weakCompareAndSwapIntAcquire(be.base, be.offset, testValue, newValue);
+				return _unsafe.weakCompareAndSwapIntAcquire(base, offset, testValue, newValue);
 /*[ENDIF]*/				
 			}
 
 			private static final boolean weakCompareAndSetRelease(ByteBuffer receiver, int index, int testValue, int newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
 /*[IF Sidecar19-SE-B174]*/				
-				return _unsafe.weakCompareAndSetIntRelease(be.base, be.offset, testValue, newValue);
+				return _unsafe.weakCompareAndSetIntRelease(base, offset, testValue, newValue);
 /*[ELSE]
-				return _unsafe.weakCompareAndSwapIntRelease(be.base, be.offset, testValue, newValue);
+				return _unsafe.weakCompareAndSwapIntRelease(base, offset, testValue, newValue);
 /*[ENDIF]*/				
 			}
 
 			private static final boolean weakCompareAndSetPlain(ByteBuffer receiver, int index, int testValue, int newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
 /*[IF Sidecar19-SE-B174]*/				
-				return _unsafe.weakCompareAndSetIntPlain(be.base, be.offset, testValue, newValue);
+				return _unsafe.weakCompareAndSetIntPlain(base, offset, testValue, newValue);
 /*[ELSE]
-				return _unsafe.weakCompareAndSwapInt(be.base, be.offset, testValue, newValue);
+				return _unsafe.weakCompareAndSwapInt(base, offset, testValue, newValue);
 /*[ENDIF]*/				
 			}
 
 			private static final int getAndSet(ByteBuffer receiver, int index, int value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				return _unsafe.getAndSetInt(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getAndSetInt(base, offset, value);
 			}
 
 			private static final int getAndSetAcquire(ByteBuffer receiver, int index, int value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				return _unsafe.getAndSetIntAcquire(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getAndSetIntAcquire(base, offset, value);
 			}
 
 			private static final int getAndSetRelease(ByteBuffer receiver, int index, int value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				return _unsafe.getAndSetIntRelease(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getAndSetIntRelease(base, offset, value);
 			}
 
 			private static final int getAndAdd(ByteBuffer receiver, int index, int value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				return _unsafe.getAndAddInt(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getAndAddInt(base, offset, value);
 			}
 
 			private static final int getAndAddAcquire(ByteBuffer receiver, int index, int value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				return _unsafe.getAndAddIntAcquire(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getAndAddIntAcquire(base, offset, value);
 			}
 
 			private static final int getAndAddRelease(ByteBuffer receiver, int index, int value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				return _unsafe.getAndAddIntRelease(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getAndAddIntRelease(base, offset, value);
 			}
 
 			private static final int getAndBitwiseAnd(ByteBuffer receiver, int index, int value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				return _unsafe.getAndBitwiseAndInt(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getAndBitwiseAndInt(base, offset, value);
 			}
 
 			private static final int getAndBitwiseAndAcquire(ByteBuffer receiver, int index, int value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				return _unsafe.getAndBitwiseAndIntAcquire(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getAndBitwiseAndIntAcquire(base, offset, value);
 			}
 
 			private static final int getAndBitwiseAndRelease(ByteBuffer receiver, int index, int value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				return _unsafe.getAndBitwiseAndIntRelease(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getAndBitwiseAndIntRelease(base, offset, value);
 			}
 
 			private static final int getAndBitwiseOr(ByteBuffer receiver, int index, int value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				return _unsafe.getAndBitwiseOrInt(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getAndBitwiseOrInt(base, offset, value);
 			}
 
 			private static final int getAndBitwiseOrAcquire(ByteBuffer receiver, int index, int value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				return _unsafe.getAndBitwiseOrIntAcquire(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getAndBitwiseOrIntAcquire(base, offset, value);
 			}
 
 			private static final int getAndBitwiseOrRelease(ByteBuffer receiver, int index, int value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				return _unsafe.getAndBitwiseOrIntRelease(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getAndBitwiseOrIntRelease(base, offset, value);
 			}
 
 			private static final int getAndBitwiseXor(ByteBuffer receiver, int index, int value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				return _unsafe.getAndBitwiseXorInt(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getAndBitwiseXorInt(base, offset, value);
 			}
 
 			private static final int getAndBitwiseXorAcquire(ByteBuffer receiver, int index, int value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				return _unsafe.getAndBitwiseXorIntAcquire(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getAndBitwiseXorIntAcquire(base, offset, value);
 			}
 
 			private static final int getAndBitwiseXorRelease(ByteBuffer receiver, int index, int value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				return _unsafe.getAndBitwiseXorIntRelease(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getAndBitwiseXorIntRelease(base, offset, value);
 			}
 		}
 		
@@ -854,182 +892,213 @@ final class ByteBufferViewVarHandle extends ViewVarHandle {
 			private static final int BYTES = Long.BYTES;
 			
 			private static final long get(ByteBuffer receiver, int index, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, true, true);
-				return _unsafe.getLong(be.base, be.offset);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, true, true);
+				Object base = bufferBase(receiver);
+				return _unsafe.getLong(base, offset);
 			}
 
 			private static final void set(ByteBuffer receiver, int index, long value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, true);
-				_unsafe.putLong(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, true);
+				Object base = bufferBase(receiver);
+				_unsafe.putLong(base, offset, value);
 			}
 
 			private static final long getVolatile(ByteBuffer receiver, int index, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, true, false);
-				return _unsafe.getLongVolatile(be.base, be.offset);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, true, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getLongVolatile(base, offset);
 			}
 
 			private static final void setVolatile(ByteBuffer receiver, int index, long value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				_unsafe.putLongVolatile(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				_unsafe.putLongVolatile(base, offset, value);
 			}
 
 			private static final long getOpaque(ByteBuffer receiver, int index, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, true, false);
-				return _unsafe.getLongOpaque(be.base, be.offset);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, true, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getLongOpaque(base, offset);
 			}
 
 			private static final void setOpaque(ByteBuffer receiver, int index, long value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				_unsafe.putLongOpaque(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				_unsafe.putLongOpaque(base, offset, value);
 			}
 
 			private static final long getAcquire(ByteBuffer receiver, int index, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, true, false);
-				return _unsafe.getLongAcquire(be.base, be.offset);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, true, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getLongAcquire(base, offset);
 			}
 
 			private static final void setRelease(ByteBuffer receiver, int index, long value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				_unsafe.putLongRelease(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				_unsafe.putLongRelease(base, offset, value);
 			}
 
 			private static final boolean compareAndSet(ByteBuffer receiver, int index, long testValue, long newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
 /*[IF Sidecar19-SE-B174]*/				
-				return _unsafe.compareAndSetLong(be.base, be.offset, testValue, newValue);
+				return _unsafe.compareAndSetLong(base, offset, testValue, newValue);
 /*[ELSE]
-				return _unsafe.compareAndSwapLong(be.base, be.offset, testValue, newValue);
+				return _unsafe.compareAndSwapLong(base, offset, testValue, newValue);
 /*[ENDIF]*/				
 			}
 
 			private static final long compareAndExchange(ByteBuffer receiver, int index, long testValue, long newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
 /*[IF Sidecar19-SE-B174]*/				
-				return _unsafe.compareAndExchangeLong(be.base, be.offset, testValue, newValue);
+				return _unsafe.compareAndExchangeLong(base, offset, testValue, newValue);
 /*[ELSE]
-				return _unsafe.compareAndExchangeLongVolatile(be.base, be.offset, testValue, newValue);
+				return _unsafe.compareAndExchangeLongVolatile(base, offset, testValue, newValue);
 /*[ENDIF]*/				
 			}
 
 			private static final long compareAndExchangeAcquire(ByteBuffer receiver, int index, long testValue, long newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				return _unsafe.compareAndExchangeLongAcquire(be.base, be.offset, testValue, newValue);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.compareAndExchangeLongAcquire(base, offset, testValue, newValue);
 			}
 
 			private static final long compareAndExchangeRelease(ByteBuffer receiver, int index, long testValue, long newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				return _unsafe.compareAndExchangeLongRelease(be.base, be.offset, testValue, newValue);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.compareAndExchangeLongRelease(base, offset, testValue, newValue);
 			}
 
 			private static final boolean weakCompareAndSet(ByteBuffer receiver, int index, long testValue, long newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
 /*[IF Sidecar19-SE-B174]*/				
-				return _unsafe.weakCompareAndSetLongPlain(be.base, be.offset, testValue, newValue);
+				return _unsafe.weakCompareAndSetLongPlain(base, offset, testValue, newValue);
 /*[ELSE]
-				return _unsafe.weakCompareAndSwapLong(be.base, be.offset, testValue, newValue);
+				return _unsafe.weakCompareAndSwapLong(base, offset, testValue, newValue);
 /*[ENDIF]*/				
 			}
 
 			private static final boolean weakCompareAndSetAcquire(ByteBuffer receiver, int index, long testValue, long newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
 /*[IF Sidecar19-SE-B174]*/				
-				return _unsafe.weakCompareAndSetLongAcquire(be.base, be.offset, testValue, newValue);
+				return _unsafe.weakCompareAndSetLongAcquire(base, offset, testValue, newValue);
 /*[ELSE]
-				return _unsafe.weakCompareAndSwapLongAcquire(be.base, be.offset, testValue, newValue);
+				return _unsafe.weakCompareAndSwapLongAcquire(base, offset, testValue, newValue);
 /*[ENDIF]*/				
 			}
 
 			private static final boolean weakCompareAndSetRelease(ByteBuffer receiver, int index, long testValue, long newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
 /*[IF Sidecar19-SE-B174]*/				
-				return _unsafe.weakCompareAndSetLongRelease(be.base, be.offset, testValue, newValue);
+				return _unsafe.weakCompareAndSetLongRelease(base, offset, testValue, newValue);
 /*[ELSE]
-				return _unsafe.weakCompareAndSwapLongRelease(be.base, be.offset, testValue, newValue);
+				return _unsafe.weakCompareAndSwapLongRelease(base, offset, testValue, newValue);
 /*[ENDIF]*/				
 			}
 
 			private static final boolean weakCompareAndSetPlain(ByteBuffer receiver, int index, long testValue, long newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
 /*[IF Sidecar19-SE-B174]*/				
-				return _unsafe.weakCompareAndSetLongPlain(be.base, be.offset, testValue, newValue);
+				return _unsafe.weakCompareAndSetLongPlain(base, offset, testValue, newValue);
 /*[ELSE]
-				return _unsafe.weakCompareAndSwapLong(be.base, be.offset, testValue, newValue);
+				return _unsafe.weakCompareAndSwapLong(base, offset, testValue, newValue);
 /*[ENDIF]*/				
 			}
 
 			private static final long getAndSet(ByteBuffer receiver, int index, long value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				return _unsafe.getAndSetLong(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getAndSetLong(base, offset, value);
 			}
 
 			private static final long getAndSetAcquire(ByteBuffer receiver, int index, long value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				return _unsafe.getAndSetLongAcquire(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getAndSetLongAcquire(base, offset, value);
 			}
 
 			private static final long getAndSetRelease(ByteBuffer receiver, int index, long value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				return _unsafe.getAndSetLongRelease(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getAndSetLongRelease(base, offset, value);
 			}
 
 			private static final long getAndAdd(ByteBuffer receiver, int index, long value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				return _unsafe.getAndAddLong(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getAndAddLong(base, offset, value);
 			}
 
 			private static final long getAndAddAcquire(ByteBuffer receiver, int index, long value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				return _unsafe.getAndAddLongAcquire(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getAndAddLongAcquire(base, offset, value);
 			}
 
 			private static final long getAndAddRelease(ByteBuffer receiver, int index, long value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				return _unsafe.getAndAddLongRelease(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getAndAddLongRelease(base, offset, value);
 			}
 
 			private static final long getAndBitwiseAnd(ByteBuffer receiver, int index, long value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				return _unsafe.getAndBitwiseAndLong(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getAndBitwiseAndLong(base, offset, value);
 			}
 
 			private static final long getAndBitwiseAndAcquire(ByteBuffer receiver, int index, long value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				return _unsafe.getAndBitwiseAndLongAcquire(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getAndBitwiseAndLongAcquire(base, offset, value);
 			}
 
 			private static final long getAndBitwiseAndRelease(ByteBuffer receiver, int index, long value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				return _unsafe.getAndBitwiseAndLongRelease(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getAndBitwiseAndLongRelease(base, offset, value);
 			}
 
 			private static final long getAndBitwiseOr(ByteBuffer receiver, int index, long value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				return _unsafe.getAndBitwiseOrLong(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getAndBitwiseOrLong(base, offset, value);
 			}
 
 			private static final long getAndBitwiseOrAcquire(ByteBuffer receiver, int index, long value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				return _unsafe.getAndBitwiseOrLongAcquire(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getAndBitwiseOrLongAcquire(base, offset, value);
 			}
 
 			private static final long getAndBitwiseOrRelease(ByteBuffer receiver, int index, long value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				return _unsafe.getAndBitwiseOrLongRelease(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getAndBitwiseOrLongRelease(base, offset, value);
 			}
 
 			private static final long getAndBitwiseXor(ByteBuffer receiver, int index, long value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				return _unsafe.getAndBitwiseXorLong(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getAndBitwiseXorLong(base, offset, value);
 			}
 
 			private static final long getAndBitwiseXorAcquire(ByteBuffer receiver, int index, long value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				return _unsafe.getAndBitwiseXorLongAcquire(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getAndBitwiseXorLongAcquire(base, offset, value);
 			}
 
 			private static final long getAndBitwiseXorRelease(ByteBuffer receiver, int index, long value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				return _unsafe.getAndBitwiseXorLongRelease(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getAndBitwiseXorLongRelease(base, offset, value);
 			}
 		}
 		
@@ -1037,43 +1106,51 @@ final class ByteBufferViewVarHandle extends ViewVarHandle {
 			private static final int BYTES = Short.BYTES;
 			
 			private static final short get(ByteBuffer receiver, int index, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, true, true);
-				return _unsafe.getShort(be.base, be.offset);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, true, true);
+				Object base = bufferBase(receiver);
+				return _unsafe.getShort(base, offset);
 			}
 
 			private static final void set(ByteBuffer receiver, int index, short value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, true);
-				_unsafe.putShort(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, true);
+				Object base = bufferBase(receiver);
+				_unsafe.putShort(base, offset, value);
 			}
 
 			private static final short getVolatile(ByteBuffer receiver, int index, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, true, false);
-				return _unsafe.getShortVolatile(be.base, be.offset);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, true, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getShortVolatile(base, offset);
 			}
 
 			private static final void setVolatile(ByteBuffer receiver, int index, short value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				_unsafe.putShortVolatile(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				_unsafe.putShortVolatile(base, offset, value);
 			}
 
 			private static final short getOpaque(ByteBuffer receiver, int index, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, true, false);
-				return _unsafe.getShortOpaque(be.base, be.offset);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, true, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getShortOpaque(base, offset);
 			}
 
 			private static final void setOpaque(ByteBuffer receiver, int index, short value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				_unsafe.putShortOpaque(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				_unsafe.putShortOpaque(base, offset, value);
 			}
 
 			private static final short getAcquire(ByteBuffer receiver, int index, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, true, false);
-				return _unsafe.getShortAcquire(be.base, be.offset);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, true, false);
+				Object base = bufferBase(receiver);
+				return _unsafe.getShortAcquire(base, offset);
 			}
 
 			private static final void setRelease(ByteBuffer receiver, int index, short value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				_unsafe.putShortRelease(be.base, be.offset, value);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				_unsafe.putShortRelease(base, offset, value);
 			}
 
 			private static final boolean compareAndSet(ByteBuffer receiver, int index, short testValue, short newValue, ByteBufferViewVarHandle varHandle) {
@@ -1173,47 +1250,55 @@ final class ByteBufferViewVarHandle extends ViewVarHandle {
 			private static final int BYTES = Character.BYTES;
 			
 			private static final char get(ByteBuffer receiver, int index, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, true, true);
-				char result = _unsafe.getChar(be.base, be.offset);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, true, true);
+				Object base = bufferBase(receiver);
+				char result = _unsafe.getChar(base, offset);
 				return convertEndian(result);
 			}
 
 			private static final void set(ByteBuffer receiver, int index, char value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, true);
-				_unsafe.putChar(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, true);
+				Object base = bufferBase(receiver);
+				_unsafe.putChar(base, offset, convertEndian(value));
 			}
 
 			private static final char getVolatile(ByteBuffer receiver, int index, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, true, false);
-				char result = _unsafe.getCharVolatile(be.base, be.offset);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, true, false);
+				Object base = bufferBase(receiver);
+				char result = _unsafe.getCharVolatile(base, offset);
 				return convertEndian(result);
 			}
 
 			private static final void setVolatile(ByteBuffer receiver, int index, char value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				_unsafe.putCharVolatile(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				_unsafe.putCharVolatile(base, offset, convertEndian(value));
 			}
 
 			private static final char getOpaque(ByteBuffer receiver, int index, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, true, false);
-				char result = _unsafe.getCharOpaque(be.base, be.offset);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, true, false);
+				Object base = bufferBase(receiver);
+				char result = _unsafe.getCharOpaque(base, offset);
 				return convertEndian(result);
 			}
 
 			private static final void setOpaque(ByteBuffer receiver, int index, char value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				_unsafe.putCharOpaque(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				_unsafe.putCharOpaque(base, offset, convertEndian(value));
 			}
 
 			private static final char getAcquire(ByteBuffer receiver, int index, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, true, false);
-				char result = _unsafe.getCharAcquire(be.base, be.offset);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, true, false);
+				Object base = bufferBase(receiver);
+				char result = _unsafe.getCharAcquire(base, offset);
 				return convertEndian(result);
 			}
 
 			private static final void setRelease(ByteBuffer receiver, int index, char value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				_unsafe.putCharRelease(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				_unsafe.putCharRelease(base, offset, convertEndian(value));
 			}
 
 			private static final boolean compareAndSet(ByteBuffer receiver, int index, char testValue, char newValue, ByteBufferViewVarHandle varHandle) {
@@ -1313,131 +1398,150 @@ final class ByteBufferViewVarHandle extends ViewVarHandle {
 			private static final int BYTES = Double.BYTES;
 			
 			private static final double get(ByteBuffer receiver, int index, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, true, true);
-				double result = _unsafe.getDouble(be.base, be.offset);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, true, true);
+				Object base = bufferBase(receiver);
+				double result = _unsafe.getDouble(base, offset);
 				return convertEndian(result);
 			}
 
 			private static final void set(ByteBuffer receiver, int index, double value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, true);
-				_unsafe.putDouble(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, true);
+				Object base = bufferBase(receiver);
+				_unsafe.putDouble(base, offset, convertEndian(value));
 			}
 
 			private static final double getVolatile(ByteBuffer receiver, int index, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, true, false);
-				double result = _unsafe.getDoubleVolatile(be.base, be.offset);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, true, false);
+				Object base = bufferBase(receiver);
+				double result = _unsafe.getDoubleVolatile(base, offset);
 				return convertEndian(result);
 			}
 
 			private static final void setVolatile(ByteBuffer receiver, int index, double value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				_unsafe.putDoubleVolatile(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				_unsafe.putDoubleVolatile(base, offset, convertEndian(value));
 			}
 
 			private static final double getOpaque(ByteBuffer receiver, int index, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, true, false);
-				double result = _unsafe.getDoubleOpaque(be.base, be.offset);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, true, false);
+				Object base = bufferBase(receiver);
+				double result = _unsafe.getDoubleOpaque(base, offset);
 				return convertEndian(result);
 			}
 
 			private static final void setOpaque(ByteBuffer receiver, int index, double value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				_unsafe.putDoubleOpaque(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				_unsafe.putDoubleOpaque(base, offset, convertEndian(value));
 			}
 
 			private static final double getAcquire(ByteBuffer receiver, int index, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, true, false);
-				double result = _unsafe.getDoubleAcquire(be.base, be.offset);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, true, false);
+				Object base = bufferBase(receiver);
+				double result = _unsafe.getDoubleAcquire(base, offset);
 				return convertEndian(result);
 			}
 
 			private static final void setRelease(ByteBuffer receiver, int index, double value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				_unsafe.putDoubleRelease(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				_unsafe.putDoubleRelease(base, offset, convertEndian(value));
 			}
 
 			private static final boolean compareAndSet(ByteBuffer receiver, int index, double testValue, double newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
 /*[IF Sidecar19-SE-B174]*/				
-				return _unsafe.compareAndSetDouble(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				return _unsafe.compareAndSetDouble(base, offset, convertEndian(testValue), convertEndian(newValue));
 /*[ELSE]
-				return _unsafe.compareAndSwapDouble(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				return _unsafe.compareAndSwapDouble(base, offset, convertEndian(testValue), convertEndian(newValue));
 /*[ENDIF]*/				
 			}
 
 			private static final double compareAndExchange(ByteBuffer receiver, int index, double testValue, double newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
 /*[IF Sidecar19-SE-B174]*/				
-				double result = _unsafe.compareAndExchangeDouble(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				double result = _unsafe.compareAndExchangeDouble(base, offset, convertEndian(testValue), convertEndian(newValue));
 /*[ELSE]
-				double result = _unsafe.compareAndExchangeDoubleVolatile(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				double result = _unsafe.compareAndExchangeDoubleVolatile(base, offset, convertEndian(testValue), convertEndian(newValue));
 /*[ENDIF]*/				
 				return convertEndian(result);
 			}
 
 			private static final double compareAndExchangeAcquire(ByteBuffer receiver, int index, double testValue, double newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				double result = _unsafe.compareAndExchangeDoubleAcquire(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				double result = _unsafe.compareAndExchangeDoubleAcquire(base, offset, convertEndian(testValue), convertEndian(newValue));
 				return convertEndian(result);
 			}
 
 			private static final double compareAndExchangeRelease(ByteBuffer receiver, int index, double testValue, double newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				double result = _unsafe.compareAndExchangeDoubleRelease(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				double result = _unsafe.compareAndExchangeDoubleRelease(base, offset, convertEndian(testValue), convertEndian(newValue));
 				return convertEndian(result);
 			}
 
 			private static final boolean weakCompareAndSet(ByteBuffer receiver, int index, double testValue, double newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
 /*[IF Sidecar19-SE-B174]*/				
-				return _unsafe.weakCompareAndSetDoublePlain(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				return _unsafe.weakCompareAndSetDoublePlain(base, offset, convertEndian(testValue), convertEndian(newValue));
 /*[ELSE]
-				return _unsafe.weakCompareAndSwapDouble(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				return _unsafe.weakCompareAndSwapDouble(base, offset, convertEndian(testValue), convertEndian(newValue));
 /*[ENDIF]*/				
 			}
 
 			private static final boolean weakCompareAndSetAcquire(ByteBuffer receiver, int index, double testValue, double newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
 /*[IF Sidecar19-SE-B174]*/				
-				return _unsafe.weakCompareAndSetDoubleAcquire(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				return _unsafe.weakCompareAndSetDoubleAcquire(base, offset, convertEndian(testValue), convertEndian(newValue));
 /*[ELSE]
-				return _unsafe.weakCompareAndSwapDoubleAcquire(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				return _unsafe.weakCompareAndSwapDoubleAcquire(base, offset, convertEndian(testValue), convertEndian(newValue));
 /*[ENDIF]*/				
 			}
 
 			private static final boolean weakCompareAndSetRelease(ByteBuffer receiver, int index, double testValue, double newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
 /*[IF Sidecar19-SE-B174]*/				
-				return _unsafe.weakCompareAndSetDoubleRelease(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				return _unsafe.weakCompareAndSetDoubleRelease(base, offset, convertEndian(testValue), convertEndian(newValue));
 /*[ELSE]
-				return _unsafe.weakCompareAndSwapDoubleRelease(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				return _unsafe.weakCompareAndSwapDoubleRelease(base, offset, convertEndian(testValue), convertEndian(newValue));
 /*[ENDIF]*/				
 			}
 
 			private static final boolean weakCompareAndSetPlain(ByteBuffer receiver, int index, double testValue, double newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
 /*[IF Sidecar19-SE-B174]*/				
-				return _unsafe.weakCompareAndSetDoublePlain(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				return _unsafe.weakCompareAndSetDoublePlain(base, offset, convertEndian(testValue), convertEndian(newValue));
 /*[ELSE]
-				return _unsafe.weakCompareAndSwapDouble(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				return _unsafe.weakCompareAndSwapDouble(base, offset, convertEndian(testValue), convertEndian(newValue));
 /*[ENDIF]*/
 			}
 
 			private static final double getAndSet(ByteBuffer receiver, int index, double value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				double result = _unsafe.getAndSetDouble(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				double result = _unsafe.getAndSetDouble(base, offset, convertEndian(value));
 				return convertEndian(result);
 			}
 
 			private static final double getAndSetAcquire(ByteBuffer receiver, int index, double value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				double result = _unsafe.getAndSetDoubleAcquire(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				double result = _unsafe.getAndSetDoubleAcquire(base, offset, convertEndian(value));
 				return convertEndian(result);
 			}
 
 			private static final double getAndSetRelease(ByteBuffer receiver, int index, double value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				double result = _unsafe.getAndSetDoubleRelease(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				double result = _unsafe.getAndSetDoubleRelease(base, offset, convertEndian(value));
 				return convertEndian(result);
 			}
 
@@ -1494,131 +1598,150 @@ final class ByteBufferViewVarHandle extends ViewVarHandle {
 			private static final int BYTES = Float.BYTES;
 			
 			private static final float get(ByteBuffer receiver, int index, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, true, true);
-				float result = _unsafe.getFloat(be.base, be.offset);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, true, true);
+				Object base = bufferBase(receiver);
+				float result = _unsafe.getFloat(base, offset);
 				return convertEndian(result);
 			}
 
 			private static final void set(ByteBuffer receiver, int index, float value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, true);
-				_unsafe.putFloat(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, true);
+				Object base = bufferBase(receiver);
+				_unsafe.putFloat(base, offset, convertEndian(value));
 			}
 
 			private static final float getVolatile(ByteBuffer receiver, int index, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, true, false);
-				float result = _unsafe.getFloatVolatile(be.base, be.offset);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, true, false);
+				Object base = bufferBase(receiver);
+				float result = _unsafe.getFloatVolatile(base, offset);
 				return convertEndian(result);
 			}
 
 			private static final void setVolatile(ByteBuffer receiver, int index, float value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				_unsafe.putFloatVolatile(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				_unsafe.putFloatVolatile(base, offset, convertEndian(value));
 			}
 
 			private static final float getOpaque(ByteBuffer receiver, int index, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, true, false);
-				float result = _unsafe.getFloatOpaque(be.base, be.offset);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, true, false);
+				Object base = bufferBase(receiver);
+				float result = _unsafe.getFloatOpaque(base, offset);
 				return convertEndian(result);
 			}
 
 			private static final void setOpaque(ByteBuffer receiver, int index, float value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				_unsafe.putFloatOpaque(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				_unsafe.putFloatOpaque(base, offset, convertEndian(value));
 			}
 
 			private static final float getAcquire(ByteBuffer receiver, int index, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, true, false);
-				float result = _unsafe.getFloatAcquire(be.base, be.offset);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, true, false);
+				Object base = bufferBase(receiver);
+				float result = _unsafe.getFloatAcquire(base, offset);
 				return convertEndian(result);
 			}
 
 			private static final void setRelease(ByteBuffer receiver, int index, float value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				_unsafe.putFloatRelease(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				_unsafe.putFloatRelease(base, offset, convertEndian(value));
 			}
 
 			private static final boolean compareAndSet(ByteBuffer receiver, int index, float testValue, float newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
 /*[IF Sidecar19-SE-B174]*/				
-				return _unsafe.compareAndSetFloat(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				return _unsafe.compareAndSetFloat(base, offset, convertEndian(testValue), convertEndian(newValue));
 /*[ELSE]
-				return _unsafe.compareAndSwapFloat(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				return _unsafe.compareAndSwapFloat(base, offset, convertEndian(testValue), convertEndian(newValue));
 /*[ENDIF]*/				
 			}
 
 			private static final float compareAndExchange(ByteBuffer receiver, int index, float testValue, float newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
 /*[IF Sidecar19-SE-B174]*/
-				float result = _unsafe.compareAndExchangeFloat(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				float result = _unsafe.compareAndExchangeFloat(base, offset, convertEndian(testValue), convertEndian(newValue));
 /*[ELSE]
-				float result = _unsafe.compareAndExchangeFloatVolatile(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				float result = _unsafe.compareAndExchangeFloatVolatile(base, offset, convertEndian(testValue), convertEndian(newValue));
 /*[ENDIF]*/				
 				return convertEndian(result);
 			}
 
 			private static final float compareAndExchangeAcquire(ByteBuffer receiver, int index, float testValue, float newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				float result = _unsafe.compareAndExchangeFloatAcquire(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				float result = _unsafe.compareAndExchangeFloatAcquire(base, offset, convertEndian(testValue), convertEndian(newValue));
 				return convertEndian(result);
 			}
 
 			private static final float compareAndExchangeRelease(ByteBuffer receiver, int index, float testValue, float newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				float result = _unsafe.compareAndExchangeFloatRelease(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				float result = _unsafe.compareAndExchangeFloatRelease(base, offset, convertEndian(testValue), convertEndian(newValue));
 				return convertEndian(result);
 			}
 
 			private static final boolean weakCompareAndSet(ByteBuffer receiver, int index, float testValue, float newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
 /*[IF Sidecar19-SE-B174]*/				
-				return _unsafe.weakCompareAndSetFloatPlain(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				return _unsafe.weakCompareAndSetFloatPlain(base, offset, convertEndian(testValue), convertEndian(newValue));
 /*[ELSE]
-				return _unsafe.weakCompareAndSwapFloat(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				return _unsafe.weakCompareAndSwapFloat(base, offset, convertEndian(testValue), convertEndian(newValue));
 /*[ENDIF]*/				
 			}
 
 			private static final boolean weakCompareAndSetAcquire(ByteBuffer receiver, int index, float testValue, float newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
 /*[IF Sidecar19-SE-B174]*/				
-				return _unsafe.weakCompareAndSetFloatAcquire(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				return _unsafe.weakCompareAndSetFloatAcquire(base, offset, convertEndian(testValue), convertEndian(newValue));
 /*[ELSE]
-				return _unsafe.weakCompareAndSwapFloatAcquire(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				return _unsafe.weakCompareAndSwapFloatAcquire(base, offset, convertEndian(testValue), convertEndian(newValue));
 /*[ENDIF]*/				
 			}
 
 			private static final boolean weakCompareAndSetRelease(ByteBuffer receiver, int index, float testValue, float newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
 /*[IF Sidecar19-SE-B174]*/				
-				return _unsafe.weakCompareAndSetFloatRelease(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				return _unsafe.weakCompareAndSetFloatRelease(base, offset, convertEndian(testValue), convertEndian(newValue));
 /*[ELSE]
-				return _unsafe.weakCompareAndSwapFloatRelease(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				return _unsafe.weakCompareAndSwapFloatRelease(base, offset, convertEndian(testValue), convertEndian(newValue));
 /*[ENDIF]*/				
 			}
 
 			private static final boolean weakCompareAndSetPlain(ByteBuffer receiver, int index, float testValue, float newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
 /*[IF Sidecar19-SE-B174]*/
-				return _unsafe.weakCompareAndSetFloatPlain(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				return _unsafe.weakCompareAndSetFloatPlain(base, offset, convertEndian(testValue), convertEndian(newValue));
 /*[ELSE]
-				return _unsafe.weakCompareAndSwapFloat(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				return _unsafe.weakCompareAndSwapFloat(base, offset, convertEndian(testValue), convertEndian(newValue));
 /*[ENDIF]*/				
 			}
 
 			private static final float getAndSet(ByteBuffer receiver, int index, float value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				float result = _unsafe.getAndSetFloat(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				float result = _unsafe.getAndSetFloat(base, offset, convertEndian(value));
 				return convertEndian(result);
 			}
 
 			private static final float getAndSetAcquire(ByteBuffer receiver, int index, float value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				float result = _unsafe.getAndSetFloatAcquire(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				float result = _unsafe.getAndSetFloatAcquire(base, offset, convertEndian(value));
 				return convertEndian(result);
 			}
 
 			private static final float getAndSetRelease(ByteBuffer receiver, int index, float value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				float result = _unsafe.getAndSetFloatRelease(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				float result = _unsafe.getAndSetFloatRelease(base, offset, convertEndian(value));
 				return convertEndian(result);
 			}
 
@@ -1675,203 +1798,234 @@ final class ByteBufferViewVarHandle extends ViewVarHandle {
 			private static final int BYTES = Integer.BYTES;
 			
 			private static final int get(ByteBuffer receiver, int index, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, true, true);
-				int result = _unsafe.getInt(be.base, be.offset);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, true, true);
+				Object base = bufferBase(receiver);
+				int result = _unsafe.getInt(base, offset);
 				return convertEndian(result);
 			}
 
 			private static final void set(ByteBuffer receiver, int index, int value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, true);
-				_unsafe.putInt(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, true);
+				Object base = bufferBase(receiver);
+				_unsafe.putInt(base, offset, convertEndian(value));
 			}
 
 			private static final int getVolatile(ByteBuffer receiver, int index, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, true, false);
-				int result = _unsafe.getIntVolatile(be.base, be.offset);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, true, false);
+				Object base = bufferBase(receiver);
+				int result = _unsafe.getIntVolatile(base, offset);
 				return convertEndian(result);
 			}
 
 			private static final void setVolatile(ByteBuffer receiver, int index, int value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				_unsafe.putIntVolatile(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				_unsafe.putIntVolatile(base, offset, convertEndian(value));
 			}
 
 			private static final int getOpaque(ByteBuffer receiver, int index, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, true, false);
-				int result = _unsafe.getIntOpaque(be.base, be.offset);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, true, false);
+				Object base = bufferBase(receiver);
+				int result = _unsafe.getIntOpaque(base, offset);
 				return convertEndian(result);
 			}
 
 			private static final void setOpaque(ByteBuffer receiver, int index, int value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				_unsafe.putIntOpaque(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				_unsafe.putIntOpaque(base, offset, convertEndian(value));
 			}
 
 			private static final int getAcquire(ByteBuffer receiver, int index, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, true, false);
-				int result = _unsafe.getIntAcquire(be.base, be.offset);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, true, false);
+				Object base = bufferBase(receiver);
+				int result = _unsafe.getIntAcquire(base, offset);
 				return convertEndian(result);
 			}
 
 			private static final void setRelease(ByteBuffer receiver, int index, int value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				_unsafe.putIntRelease(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				_unsafe.putIntRelease(base, offset, convertEndian(value));
 			}
 
 			private static final boolean compareAndSet(ByteBuffer receiver, int index, int testValue, int newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
 /*[IF Sidecar19-SE-B174]*/				
-				return _unsafe.compareAndSetInt(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				return _unsafe.compareAndSetInt(base, offset, convertEndian(testValue), convertEndian(newValue));
 /*[ELSE]
-				return _unsafe.compareAndSwapInt(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				return _unsafe.compareAndSwapInt(base, offset, convertEndian(testValue), convertEndian(newValue));
 /*[ENDIF]*/				
 			}
 
 			private static final int compareAndExchange(ByteBuffer receiver, int index, int testValue, int newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
 /*[IF Sidecar19-SE-B174]*/
-				int result = _unsafe.compareAndExchangeInt(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				int result = _unsafe.compareAndExchangeInt(base, offset, convertEndian(testValue), convertEndian(newValue));
 /*[ELSE]
-				int result = _unsafe.compareAndExchangeIntVolatile(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				int result = _unsafe.compareAndExchangeIntVolatile(base, offset, convertEndian(testValue), convertEndian(newValue));
 /*[ENDIF]*/				
 				return convertEndian(result);
 			}
 
 			private static final int compareAndExchangeAcquire(ByteBuffer receiver, int index, int testValue, int newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				int result = _unsafe.compareAndExchangeIntAcquire(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				int result = _unsafe.compareAndExchangeIntAcquire(base, offset, convertEndian(testValue), convertEndian(newValue));
 				return convertEndian(result);
 			}
 
 			private static final int compareAndExchangeRelease(ByteBuffer receiver, int index, int testValue, int newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				int result = _unsafe.compareAndExchangeIntRelease(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				int result = _unsafe.compareAndExchangeIntRelease(base, offset, convertEndian(testValue), convertEndian(newValue));
 				return convertEndian(result);
 			}
 
 			private static final boolean weakCompareAndSet(ByteBuffer receiver, int index, int testValue, int newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
 /*[IF Sidecar19-SE-B174]*/
-				return _unsafe.weakCompareAndSetIntPlain(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				return _unsafe.weakCompareAndSetIntPlain(base, offset, convertEndian(testValue), convertEndian(newValue));
 /*[ELSE]
-				return _unsafe.weakCompareAndSwapInt(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				return _unsafe.weakCompareAndSwapInt(base, offset, convertEndian(testValue), convertEndian(newValue));
 /*[ENDIF]*/				
 			}
 
 			private static final boolean weakCompareAndSetAcquire(ByteBuffer receiver, int index, int testValue, int newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
 /*[IF Sidecar19-SE-B174]*/				
-				return _unsafe.weakCompareAndSetIntAcquire(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				return _unsafe.weakCompareAndSetIntAcquire(base, offset, convertEndian(testValue), convertEndian(newValue));
 /*[ELSE]
-				return _unsafe.weakCompareAndSwapIntAcquire(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				return _unsafe.weakCompareAndSwapIntAcquire(base, offset, convertEndian(testValue), convertEndian(newValue));
 /*[ENDIF]*/				
 			}
 
 			private static final boolean weakCompareAndSetRelease(ByteBuffer receiver, int index, int testValue, int newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
 /*[IF Sidecar19-SE-B174]*/				
-				return _unsafe.weakCompareAndSetIntRelease(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				return _unsafe.weakCompareAndSetIntRelease(base, offset, convertEndian(testValue), convertEndian(newValue));
 /*[ELSE]
-				return _unsafe.weakCompareAndSwapIntRelease(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				return _unsafe.weakCompareAndSwapIntRelease(base, offset, convertEndian(testValue), convertEndian(newValue));
 /*[ENDIF]*/				
 			}
 
 			private static final boolean weakCompareAndSetPlain(ByteBuffer receiver, int index, int testValue, int newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
 /*[IF Sidecar19-SE-B174]*/
-				return _unsafe.weakCompareAndSetIntPlain(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				return _unsafe.weakCompareAndSetIntPlain(base, offset, convertEndian(testValue), convertEndian(newValue));
 /*[ELSE]
-				return _unsafe.weakCompareAndSwapInt(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				return _unsafe.weakCompareAndSwapInt(base, offset, convertEndian(testValue), convertEndian(newValue));
 /*[ENDIF]*/				
 			}
 
 			private static final int getAndSet(ByteBuffer receiver, int index, int value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				int result = _unsafe.getAndSetInt(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				int result = _unsafe.getAndSetInt(base, offset, convertEndian(value));
 				return convertEndian(result);
 			}
 
 			private static final int getAndSetAcquire(ByteBuffer receiver, int index, int value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				int result = _unsafe.getAndSetIntAcquire(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				int result = _unsafe.getAndSetIntAcquire(base, offset, convertEndian(value));
 				return convertEndian(result);
 			}
 
 			private static final int getAndSetRelease(ByteBuffer receiver, int index, int value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				int result = _unsafe.getAndSetIntRelease(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				int result = _unsafe.getAndSetIntRelease(base, offset, convertEndian(value));
 				return convertEndian(result);
 			}
 
 			private static final int getAndAdd(ByteBuffer receiver, int index, int value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				int result = _unsafe.getAndAddInt(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				int result = _unsafe.getAndAddInt(base, offset, convertEndian(value));
 				return convertEndian(result);
 			}
 
 			private static final int getAndAddAcquire(ByteBuffer receiver, int index, int value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				int result = _unsafe.getAndAddIntAcquire(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				int result = _unsafe.getAndAddIntAcquire(base, offset, convertEndian(value));
 				return convertEndian(result);
 			}
 
 			private static final int getAndAddRelease(ByteBuffer receiver, int index, int value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				int result = _unsafe.getAndAddIntRelease(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				int result = _unsafe.getAndAddIntRelease(base, offset, convertEndian(value));
 				return convertEndian(result);
 			}
 
 			private static final int getAndBitwiseAnd(ByteBuffer receiver, int index, int value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				int result = _unsafe.getAndBitwiseAndInt(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				int result = _unsafe.getAndBitwiseAndInt(base, offset, convertEndian(value));
 				return convertEndian(result);
 			}
 
 			private static final int getAndBitwiseAndAcquire(ByteBuffer receiver, int index, int value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				int result = _unsafe.getAndBitwiseAndIntAcquire(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				int result = _unsafe.getAndBitwiseAndIntAcquire(base, offset, convertEndian(value));
 				return convertEndian(result);
 			}
 
 			private static final int getAndBitwiseAndRelease(ByteBuffer receiver, int index, int value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				int result = _unsafe.getAndBitwiseAndIntRelease(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				int result = _unsafe.getAndBitwiseAndIntRelease(base, offset, convertEndian(value));
 				return convertEndian(result);
 			}
 
 			private static final int getAndBitwiseOr(ByteBuffer receiver, int index, int value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				int result = _unsafe.getAndBitwiseOrInt(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				int result = _unsafe.getAndBitwiseOrInt(base, offset, convertEndian(value));
 				return convertEndian(result);
 			}
 
 			private static final int getAndBitwiseOrAcquire(ByteBuffer receiver, int index, int value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				int result = _unsafe.getAndBitwiseOrIntAcquire(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				int result = _unsafe.getAndBitwiseOrIntAcquire(base, offset, convertEndian(value));
 				return convertEndian(result);
 			}
 
 			private static final int getAndBitwiseOrRelease(ByteBuffer receiver, int index, int value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				int result = _unsafe.getAndBitwiseOrIntRelease(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				int result = _unsafe.getAndBitwiseOrIntRelease(base, offset, convertEndian(value));
 				return convertEndian(result);
 			}
 
 			private static final int getAndBitwiseXor(ByteBuffer receiver, int index, int value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				int result = _unsafe.getAndBitwiseXorInt(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				int result = _unsafe.getAndBitwiseXorInt(base, offset, convertEndian(value));
 				return convertEndian(result);
 			}
 
 			private static final int getAndBitwiseXorAcquire(ByteBuffer receiver, int index, int value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				int result = _unsafe.getAndBitwiseXorIntAcquire(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				int result = _unsafe.getAndBitwiseXorIntAcquire(base, offset, convertEndian(value));
 				return convertEndian(result);
 			}
 
 			private static final int getAndBitwiseXorRelease(ByteBuffer receiver, int index, int value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				int result = _unsafe.getAndBitwiseXorIntRelease(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				int result = _unsafe.getAndBitwiseXorIntRelease(base, offset, convertEndian(value));
 				return convertEndian(result);
 			}
 		}
@@ -1880,203 +2034,234 @@ final class ByteBufferViewVarHandle extends ViewVarHandle {
 			private static final int BYTES = Long.BYTES;
 			
 			private static final long get(ByteBuffer receiver, int index, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, true, true);
-				long result = _unsafe.getLong(be.base, be.offset);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, true, true);
+				Object base = bufferBase(receiver);
+				long result = _unsafe.getLong(base, offset);
 				return convertEndian(result);
 			}
 
 			private static final void set(ByteBuffer receiver, int index, long value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, true);
-				_unsafe.putLong(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, true);
+				Object base = bufferBase(receiver);
+				_unsafe.putLong(base, offset, convertEndian(value));
 			}
 
 			private static final long getVolatile(ByteBuffer receiver, int index, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, true, false);
-				long result = _unsafe.getLongVolatile(be.base, be.offset);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, true, false);
+				Object base = bufferBase(receiver);
+				long result = _unsafe.getLongVolatile(base, offset);
 				return convertEndian(result);
 			}
 
 			private static final void setVolatile(ByteBuffer receiver, int index, long value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				_unsafe.putLongVolatile(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				_unsafe.putLongVolatile(base, offset, convertEndian(value));
 			}
 
 			private static final long getOpaque(ByteBuffer receiver, int index, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, true, false);
-				long result = _unsafe.getLongOpaque(be.base, be.offset);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, true, false);
+				Object base = bufferBase(receiver);
+				long result = _unsafe.getLongOpaque(base, offset);
 				return convertEndian(result);
 			}
 
 			private static final void setOpaque(ByteBuffer receiver, int index, long value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				_unsafe.putLongOpaque(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				_unsafe.putLongOpaque(base, offset, convertEndian(value));
 			}
 
 			private static final long getAcquire(ByteBuffer receiver, int index, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, true, false);
-				long result = _unsafe.getLongAcquire(be.base, be.offset);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, true, false);
+				Object base = bufferBase(receiver);
+				long result = _unsafe.getLongAcquire(base, offset);
 				return convertEndian(result);
 			}
 
 			private static final void setRelease(ByteBuffer receiver, int index, long value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				_unsafe.putLongRelease(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				_unsafe.putLongRelease(base, offset, convertEndian(value));
 			}
 
 			private static final boolean compareAndSet(ByteBuffer receiver, int index, long testValue, long newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
 /*[IF Sidecar19-SE-B174]*/				
-				return _unsafe.compareAndSetLong(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				return _unsafe.compareAndSetLong(base, offset, convertEndian(testValue), convertEndian(newValue));
 /*[ELSE]
-				return _unsafe.compareAndSwapLong(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				return _unsafe.compareAndSwapLong(base, offset, convertEndian(testValue), convertEndian(newValue));
 /*[ENDIF]*/				
 			}
 
 			private static final long compareAndExchange(ByteBuffer receiver, int index, long testValue, long newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
 /*[IF Sidecar19-SE-B174]*/
-				long result = _unsafe.compareAndExchangeLong(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				long result = _unsafe.compareAndExchangeLong(base, offset, convertEndian(testValue), convertEndian(newValue));
 /*[ELSE]
-				long result = _unsafe.compareAndExchangeLongVolatile(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				long result = _unsafe.compareAndExchangeLongVolatile(base, offset, convertEndian(testValue), convertEndian(newValue));
 /*[ENDIF]*/				
 				return convertEndian(result);
 			}
 
 			private static final long compareAndExchangeAcquire(ByteBuffer receiver, int index, long testValue, long newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				long result = _unsafe.compareAndExchangeLongAcquire(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				long result = _unsafe.compareAndExchangeLongAcquire(base, offset, convertEndian(testValue), convertEndian(newValue));
 				return convertEndian(result);
 			}
 
 			private static final long compareAndExchangeRelease(ByteBuffer receiver, int index, long testValue, long newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				long result = _unsafe.compareAndExchangeLongRelease(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				long result = _unsafe.compareAndExchangeLongRelease(base, offset, convertEndian(testValue), convertEndian(newValue));
 				return convertEndian(result);
 			}
 
 			private static final boolean weakCompareAndSet(ByteBuffer receiver, int index, long testValue, long newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
 /*[IF Sidecar19-SE-B174]*/
-				return _unsafe.weakCompareAndSetLongPlain(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				return _unsafe.weakCompareAndSetLongPlain(base, offset, convertEndian(testValue), convertEndian(newValue));
 /*[ELSE]
-				return _unsafe.weakCompareAndSwapLong(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				return _unsafe.weakCompareAndSwapLong(base, offset, convertEndian(testValue), convertEndian(newValue));
 /*[ENDIF]*/				
 			}
 
 			private static final boolean weakCompareAndSetAcquire(ByteBuffer receiver, int index, long testValue, long newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
 /*[IF Sidecar19-SE-B174]*/				
-				return _unsafe.weakCompareAndSetLongAcquire(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				return _unsafe.weakCompareAndSetLongAcquire(base, offset, convertEndian(testValue), convertEndian(newValue));
 /*[ELSE]
-				return _unsafe.weakCompareAndSwapLongAcquire(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				return _unsafe.weakCompareAndSwapLongAcquire(base, offset, convertEndian(testValue), convertEndian(newValue));
 /*[ENDIF]*/				
 			}
 
 			private static final boolean weakCompareAndSetRelease(ByteBuffer receiver, int index, long testValue, long newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
 /*[IF Sidecar19-SE-B174]*/				
-				return _unsafe.weakCompareAndSetLongRelease(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				return _unsafe.weakCompareAndSetLongRelease(base, offset, convertEndian(testValue), convertEndian(newValue));
 /*[ELSE]
-				return _unsafe.weakCompareAndSwapLongRelease(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				return _unsafe.weakCompareAndSwapLongRelease(base, offset, convertEndian(testValue), convertEndian(newValue));
 /*[ENDIF]*/				
 			}
 
 			private static final boolean weakCompareAndSetPlain(ByteBuffer receiver, int index, long testValue, long newValue, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
 /*[IF Sidecar19-SE-B174]*/
-				return _unsafe.weakCompareAndSetLongPlain(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				return _unsafe.weakCompareAndSetLongPlain(base, offset, convertEndian(testValue), convertEndian(newValue));
 /*[ELSE]
-				return _unsafe.weakCompareAndSwapLong(be.base, be.offset, convertEndian(testValue), convertEndian(newValue));
+				return _unsafe.weakCompareAndSwapLong(base, offset, convertEndian(testValue), convertEndian(newValue));
 /*[ENDIF]*/				
 			}
 
 			private static final long getAndSet(ByteBuffer receiver, int index, long value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				long result = _unsafe.getAndSetLong(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				long result = _unsafe.getAndSetLong(base, offset, convertEndian(value));
 				return convertEndian(result);
 			}
 
 			private static final long getAndSetAcquire(ByteBuffer receiver, int index, long value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				long result = _unsafe.getAndSetLongAcquire(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				long result = _unsafe.getAndSetLongAcquire(base, offset, convertEndian(value));
 				return convertEndian(result);
 			}
 
 			private static final long getAndSetRelease(ByteBuffer receiver, int index, long value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				long result = _unsafe.getAndSetLongRelease(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				long result = _unsafe.getAndSetLongRelease(base, offset, convertEndian(value));
 				return convertEndian(result);
 			}
 
 			private static final long getAndAdd(ByteBuffer receiver, int index, long value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				long result = _unsafe.getAndAddLong(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				long result = _unsafe.getAndAddLong(base, offset, convertEndian(value));
 				return convertEndian(result);
 			}
 
 			private static final long getAndAddAcquire(ByteBuffer receiver, int index, long value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				long result = _unsafe.getAndAddLongAcquire(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				long result = _unsafe.getAndAddLongAcquire(base, offset, convertEndian(value));
 				return convertEndian(result);
 			}
 
 			private static final long getAndAddRelease(ByteBuffer receiver, int index, long value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				long result = _unsafe.getAndAddLongRelease(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				long result = _unsafe.getAndAddLongRelease(base, offset, convertEndian(value));
 				return convertEndian(result);
 			}
 
 			private static final long getAndBitwiseAnd(ByteBuffer receiver, int index, long value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				long result = _unsafe.getAndBitwiseAndLong(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				long result = _unsafe.getAndBitwiseAndLong(base, offset, convertEndian(value));
 				return convertEndian(result);
 			}
 
 			private static final long getAndBitwiseAndAcquire(ByteBuffer receiver, int index, long value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				long result = _unsafe.getAndBitwiseAndLongAcquire(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				long result = _unsafe.getAndBitwiseAndLongAcquire(base, offset, convertEndian(value));
 				return convertEndian(result);
 			}
 
 			private static final long getAndBitwiseAndRelease(ByteBuffer receiver, int index, long value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				long result = _unsafe.getAndBitwiseAndLongRelease(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				long result = _unsafe.getAndBitwiseAndLongRelease(base, offset, convertEndian(value));
 				return convertEndian(result);
 			}
 
 			private static final long getAndBitwiseOr(ByteBuffer receiver, int index, long value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				long result = _unsafe.getAndBitwiseOrLong(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				long result = _unsafe.getAndBitwiseOrLong(base, offset, convertEndian(value));
 				return convertEndian(result);
 			}
 
 			private static final long getAndBitwiseOrAcquire(ByteBuffer receiver, int index, long value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				long result = _unsafe.getAndBitwiseOrLongAcquire(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				long result = _unsafe.getAndBitwiseOrLongAcquire(base, offset, convertEndian(value));
 				return convertEndian(result);
 			}
 
 			private static final long getAndBitwiseOrRelease(ByteBuffer receiver, int index, long value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				long result = _unsafe.getAndBitwiseOrLongRelease(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				long result = _unsafe.getAndBitwiseOrLongRelease(base, offset, convertEndian(value));
 				return convertEndian(result);
 			}
 
 			private static final long getAndBitwiseXor(ByteBuffer receiver, int index, long value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				long result = _unsafe.getAndBitwiseXorLong(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				long result = _unsafe.getAndBitwiseXorLong(base, offset, convertEndian(value));
 				return convertEndian(result);
 			}
 
 			private static final long getAndBitwiseXorAcquire(ByteBuffer receiver, int index, long value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				long result = _unsafe.getAndBitwiseXorLongAcquire(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				long result = _unsafe.getAndBitwiseXorLongAcquire(base, offset, convertEndian(value));
 				return convertEndian(result);
 			}
 
 			private static final long getAndBitwiseXorRelease(ByteBuffer receiver, int index, long value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				long result = _unsafe.getAndBitwiseXorLongRelease(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				long result = _unsafe.getAndBitwiseXorLongRelease(base, offset, convertEndian(value));
 				return convertEndian(result);
 			}
 		}
@@ -2085,47 +2270,55 @@ final class ByteBufferViewVarHandle extends ViewVarHandle {
 			private static final int BYTES = Short.BYTES;
 			
 			private static final short get(ByteBuffer receiver, int index, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, true, true);
-				short result = _unsafe.getShort(be.base, be.offset);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, true, true);
+				Object base = bufferBase(receiver);
+				short result = _unsafe.getShort(base, offset);
 				return convertEndian(result);
 			}
 
 			private static final void set(ByteBuffer receiver, int index, short value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, true);
-				_unsafe.putShort(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, true);
+				Object base = bufferBase(receiver);
+				_unsafe.putShort(base, offset, convertEndian(value));
 			}
 
 			private static final short getVolatile(ByteBuffer receiver, int index, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, true, false);
-				short result = _unsafe.getShortVolatile(be.base, be.offset);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, true, false);
+				Object base = bufferBase(receiver);
+				short result = _unsafe.getShortVolatile(base, offset);
 				return convertEndian(result);
 			}
 
 			private static final void setVolatile(ByteBuffer receiver, int index, short value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				_unsafe.putShortVolatile(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				_unsafe.putShortVolatile(base, offset, convertEndian(value));
 			}
 
 			private static final short getOpaque(ByteBuffer receiver, int index, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, true, false);
-				short result = _unsafe.getShortOpaque(be.base, be.offset);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, true, false);
+				Object base = bufferBase(receiver);
+				short result = _unsafe.getShortOpaque(base, offset);
 				return convertEndian(result);
 			}
 
 			private static final void setOpaque(ByteBuffer receiver, int index, short value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				_unsafe.putShortOpaque(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				_unsafe.putShortOpaque(base, offset, convertEndian(value));
 			}
 
 			private static final short getAcquire(ByteBuffer receiver, int index, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, true, false);
-				short result = _unsafe.getShortAcquire(be.base, be.offset);
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, true, false);
+				Object base = bufferBase(receiver);
+				short result = _unsafe.getShortAcquire(base, offset);
 				return convertEndian(result);
 			}
 
 			private static final void setRelease(ByteBuffer receiver, int index, short value, ByteBufferViewVarHandle varHandle) {
-				BufferElement be = checkAndGetBufferElement(receiver, BYTES, index, false, false);
-				_unsafe.putShortRelease(be.base, be.offset, convertEndian(value));
+				long offset = checkAndGetBufferOffset(receiver, BYTES, index, false, false);
+				Object base = bufferBase(receiver);
+				_unsafe.putShortRelease(base, offset, convertEndian(value));
 			}
 
 			private static final boolean compareAndSet(ByteBuffer receiver, int index, short testValue, short newValue, ByteBufferViewVarHandle varHandle) {
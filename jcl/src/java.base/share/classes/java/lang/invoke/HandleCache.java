@@ -1,6 +1,6 @@
 /*[INCLUDE-IF Sidecar17]*/
 /*******************************************************************************
- * Copyright (c) 2010, 2010 IBM Corp. and others
+ * Copyright (c) 2010, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -22,21 +22,91 @@
  *******************************************************************************/
 package java.lang.invoke;
 
+import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
-import java.util.Collections;
-import java.util.Map;
-import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.ibm.oti.vm.HandleCacheStatistics;
 
 /*
  * ClassValue based Cache for mapping from a Class to its perClassCache.
  */
-final class Cache extends ClassValue<Map<CacheKey, WeakReference<MethodHandle>>> {
+final class Cache extends ClassValue<PerClassCache> {
 	@Override
-	protected Map<CacheKey, WeakReference<MethodHandle>> computeValue(Class<?> arg0) {
-		return Collections.synchronizedMap(new WeakHashMap<CacheKey, WeakReference<MethodHandle>>());
+	protected PerClassCache computeValue(Class<?> arg0) {
+		return new PerClassCache();
 	}	
 }
 
+/*
+ * Concurrent replacement for the synchronized WeakHashMap<CacheKey, WeakReference<MethodHandle>> that used
+ * to back each perClassCache.  Lookups are lock free (ConcurrentHashMap.get) and updates only contend on the
+ * bin being modified.  The MethodHandles remain weakly referenced.  The keys are held strongly and a
+ * MethodCacheKey refers to its MethodType and special caller, which can keep their class loaders alive, so
+ * once a cached handle is collected its entry is expunged on the next lookup or update of any perClassCache.
+ */
+final class PerClassCache {
+	/* Shared by all the perClassCaches, so that stale entries are expunged even if their own cache is not used again */
+	private static final ReferenceQueue<MethodHandle> queue = new ReferenceQueue<>();
+
+	private final ConcurrentHashMap<CacheKey, HandleReference> map = new ConcurrentHashMap<>();
+
+	/* WeakReference to a cached MethodHandle that remembers its cache and key so it can be expunged once cleared */
+	static final class HandleReference extends WeakReference<MethodHandle> {
+		final PerClassCache cache;
+		final CacheKey key;
+
+		HandleReference(MethodHandle handle, PerClassCache cache, CacheKey key) {
+			super(handle, queue);
+			this.cache = cache;
+			this.key = key;
+		}
+	}
+
+	MethodHandle get(CacheKey key) {
+		expungeStaleEntries();
+		HandleReference handleRef = map.get(key);
+		if (handleRef != null) {
+			MethodHandle handle = handleRef.get();
+			if (handle != null) {
+				return handle;
+			}
+		}
+		return null;
+	}
+
+	/* Install the handle unless a live handle is already cached for key; returns the handle that is cached */
+	MethodHandle putIfAbsent(CacheKey key, MethodHandle handle) {
+		expungeStaleEntries();
+		HandleReference newRef = new HandleReference(handle, this, key);
+		for (;;) {
+			HandleReference oldRef = map.putIfAbsent(key, newRef);
+			if (oldRef == null) {
+				return handle;
+			}
+			MethodHandle existing = oldRef.get();
+			if (existing != null) {
+				return existing;
+			}
+			if (map.replace(key, oldRef, newRef)) {
+				return handle;
+			}
+		}
+	}
+
+	int size() {
+		return map.size();
+	}
+
+	/* ReferenceQueue.poll() returns without locking when the queue is empty, so this is cheap enough for every lookup */
+	private static void expungeStaleEntries() {
+		HandleReference staleRef;
+		while (null != (staleRef = (HandleReference)queue.poll())) {
+			staleRef.cache.map.remove(staleRef.key, staleRef);
+		}
+	}
+}
+
 abstract class CacheKey {
 	final String name;
 	private final int hashcode;
@@ -133,79 +203,77 @@ final class HandleCache {
 	private static final Cache fieldSetterCache = new Cache();
 	private static final Cache fieldGetterCache = new Cache();
 
-	static Map<CacheKey, WeakReference<MethodHandle>> getVirtualCache(Class<?> c) {
+	static PerClassCache getVirtualCache(Class<?> c) {
 		return findVirtualCache.get(c);
 	}
-	static Map<CacheKey, WeakReference<MethodHandle>> getStaticCache(Class<?> c) {
+	static PerClassCache getStaticCache(Class<?> c) {
 		return findStaticCache.get(c);
 	}
-	static Map<CacheKey, WeakReference<MethodHandle>> getSpecialCache(Class<?> c) {
+	static PerClassCache getSpecialCache(Class<?> c) {
 		return findSpecialCache.get(c);
 	}
-	static Map<CacheKey, WeakReference<MethodHandle>> getConstructorCache(Class<?> c) {
+	static PerClassCache getConstructorCache(Class<?> c) {
 		return findConstructorCache.get(c);
 	}
-	static Map<CacheKey, WeakReference<MethodHandle>> getFieldSetterCache(Class<?> c) {
+	static PerClassCache getFieldSetterCache(Class<?> c) {
 		return fieldSetterCache.get(c);
 	}
-	static Map<CacheKey, WeakReference<MethodHandle>> getFieldGetterCache(Class<?> c) {
+	static PerClassCache getFieldGetterCache(Class<?> c) {
 		return fieldGetterCache.get(c);
 	}
-	static Map<CacheKey, WeakReference<MethodHandle>> getStaticFieldSetterCache(Class<?> c) {
+	static PerClassCache getStaticFieldSetterCache(Class<?> c) {
 		return staticFieldSetterCache.get(c);
 	}
-	static Map<CacheKey, WeakReference<MethodHandle>> getStaticFieldGetterCache(Class<?> c) {
+	static PerClassCache getStaticFieldGetterCache(Class<?> c) {
 		return staticFieldGetterCache.get(c);
 	}
 
 	/* Search the 'perClassCache' returned by one of the 'get{Virtual|Static|Special|Constructor}Cache(Class)' methods
 	 * for the MethodHandle with matching name and type.
 	 */
-	public static MethodHandle getMethodFromPerClassCache(Map<CacheKey, WeakReference<MethodHandle>> perClassCache, String name, MethodType type) {
+	public static MethodHandle getMethodFromPerClassCache(PerClassCache perClassCache, String name, MethodType type) {
 		return getMethodWithSpecialCallerFromPerClassCache(perClassCache, name, type, null);
 	}
 	
-	public static MethodHandle getMethodWithSpecialCallerFromPerClassCache(Map<CacheKey, WeakReference<MethodHandle>> perClassCache, String name, MethodType type, Class<?> specialCaller) {
-		WeakReference<MethodHandle> handleRef = perClassCache.get(new MethodCacheKey(name, type, specialCaller));
-		if (handleRef != null) {
-			return handleRef.get();
-		}
-		return null;
+	public static MethodHandle getMethodWithSpecialCallerFromPerClassCache(PerClassCache perClassCache, String name, MethodType type, Class<?> specialCaller) {
+		return lookup(perClassCache, new MethodCacheKey(name, type, specialCaller));
 	}
 	
-	public static MethodHandle getFieldFromPerClassCache(Map<CacheKey, WeakReference<MethodHandle>> perClassCache, String name, Class<?> fieldType) {
-		WeakReference<MethodHandle> handleRef = perClassCache.get(new FieldCacheKey(name, fieldType));
-		if (handleRef != null) {
-			return handleRef.get();
-		}
-		return null;
+	public static MethodHandle getFieldFromPerClassCache(PerClassCache perClassCache, String name, Class<?> fieldType) {
+		return lookup(perClassCache, new FieldCacheKey(name, fieldType));
 	}
 
 	/* Update the cache to hold the <Name, Type> -> MethodHandle mapping */
-	public static MethodHandle putMethodInPerClassCache(Map<CacheKey, WeakReference<MethodHandle>> perClassCache, String name, MethodType type, MethodHandle handle) {
+	public static MethodHandle putMethodInPerClassCache(PerClassCache perClassCache, String name, MethodType type, MethodHandle handle) {
 		return putMethodWithSpecialCallerInPerClassCache(perClassCache, name, type, handle, null);
 	}
 	
 	/* Update the cache to hold the <Name, Type, SpecialCaller> -> MethodHandle mapping */
-	public static MethodHandle putMethodWithSpecialCallerInPerClassCache(Map<CacheKey, WeakReference<MethodHandle>> perClassCache, String name, MethodType type, MethodHandle handle, Class<?> specialCaller) {
+	public static MethodHandle putMethodWithSpecialCallerInPerClassCache(PerClassCache perClassCache, String name, MethodType type, MethodHandle handle, Class<?> specialCaller) {
 		return cacheHandle(perClassCache, new MethodCacheKey(name, type, specialCaller), handle);
 	}
 	
 	/* Update the cache to hold the <Name, FieldType> -> MethodHandle mapping */
-	public static MethodHandle putFieldInPerClassCache(Map<CacheKey, WeakReference<MethodHandle>> perClassCache, String fieldName, Class<?> fieldType, MethodHandle handle) {
+	public static MethodHandle putFieldInPerClassCache(PerClassCache perClassCache, String fieldName, Class<?> fieldType, MethodHandle handle) {
 		return cacheHandle(perClassCache, new FieldCacheKey(fieldName, fieldType), handle);
 	}
 	
-	private static MethodHandle cacheHandle(Map<CacheKey, WeakReference<MethodHandle>> perClassCache, CacheKey cacheKey, MethodHandle handle){
-		/* Keep a strong reference to the FieldCacheKey in the MH being cached so that it won't
-		 * be immediately collected.  Uses a WeakHashMap<FieldCacheKey, WeakRef<MH>> to cache.
-		 * Since the MH keeps a strong ref to the FieldCacheKey, as long as the MH is alive
-		 * the Key can't be collected, despite being a weakref.
-		 */
-		handle.cacheKey = cacheKey;
-		perClassCache.put(handle.cacheKey, new WeakReference<MethodHandle>(handle));
+	private static MethodHandle lookup(PerClassCache perClassCache, CacheKey cacheKey) {
+		MethodHandle handle = perClassCache.get(cacheKey);
+		/* counted in com.ibm.oti.vm so the management beans can report them */
+		if (handle != null) {
+			HandleCacheStatistics.hit();
+		} else {
+			HandleCacheStatistics.miss();
+		}
 		return handle;
 	}
+	
+	private static MethodHandle cacheHandle(PerClassCache perClassCache, CacheKey cacheKey, MethodHandle handle){
+		/* When several threads race to create the same handle, the first one cached wins
+		 * and is returned so that all callers share a single instance.
+		 */
+		return perClassCache.putIfAbsent(cacheKey, handle);
+	}
 
 }
-
@@ -1,6 +1,6 @@
 /*[INCLUDE-IF Sidecar17]*/
 /*******************************************************************************
- * Copyright (c) 2009, 2017 IBM Corp. and others
+ * Copyright (c) 2009, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -260,8 +260,6 @@ public abstract class MethodHandle {
 
 	// }}} JIT support
 	
-	CacheKey cacheKey;			/* Strong reference to a CacheKey to ensure the WeakHashMap doesn't immediately collect the item */
-	
 	MethodHandle(MethodType type, byte kind, Object thunkArg) {
 		this.kind = kind;
 		/* Must be called last as it may use previously set fields to modify the MethodType */
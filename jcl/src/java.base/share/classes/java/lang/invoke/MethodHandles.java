@@ -1,6 +1,6 @@
 /*[INCLUDE-IF Sidecar17]*/
 /*******************************************************************************
- * Copyright (c) 2009, 2017 IBM Corp. and others
+ * Copyright (c) 2009, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -23,7 +23,6 @@
 package java.lang.invoke;
 
 import java.lang.invoke.ConvertHandle.FilterHelpers;
-import java.lang.ref.WeakReference;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Member;
@@ -39,7 +38,6 @@ import jdk.internal.nicl.types.PointerTokenImpl;
 
 import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 
 import com.ibm.oti.util.Msg;
@@ -550,7 +548,7 @@ public class MethodHandles {
 		 * Lookup the findSpecial handle either from the special handle cache, or create a new handle and install it in the cache.
 		 */
 		private MethodHandle findSpecialImpl(Class<?> clazz, String methodName, MethodType type, Class<?> specialToken) throws IllegalAccessException, NoSuchMethodException, SecurityException, NullPointerException {
-			Map<CacheKey, WeakReference<MethodHandle>> cache = HandleCache.getSpecialCache(clazz);
+			PerClassCache cache = HandleCache.getSpecialCache(clazz);
 			MethodHandle handle = HandleCache.getMethodWithSpecialCallerFromPerClassCache(cache, methodName, type, specialToken);
 			if (handle == null) {
 				initCheck(methodName);
@@ -579,7 +577,7 @@ public class MethodHandles {
 		 */
 		public MethodHandle findStatic(Class<?> clazz, String methodName, MethodType type) throws IllegalAccessException, NoSuchMethodException {
 			nullCheck(clazz, methodName, type);
-			Map<CacheKey, WeakReference<MethodHandle>> cache = HandleCache.getStaticCache(clazz);
+			PerClassCache cache = HandleCache.getStaticCache(clazz);
 			MethodHandle handle = HandleCache.getMethodFromPerClassCache(cache, methodName, type);
 			if (handle == null) {
 				initCheck(methodName);
@@ -610,7 +608,7 @@ public class MethodHandles {
 		public MethodHandle findVirtual(Class<?> clazz, String methodName, MethodType type) throws IllegalAccessException, NoSuchMethodException {
 			nullCheck(clazz, methodName, type);
 			
-			Map<CacheKey, WeakReference<MethodHandle>> cache = HandleCache.getVirtualCache(clazz);
+			PerClassCache cache = HandleCache.getVirtualCache(clazz);
 			MethodHandle handle = HandleCache.getMethodFromPerClassCache(cache, methodName, type);
 			if (handle == null) {
 				handle = handleForMHInvokeMethods(clazz, methodName, type);
@@ -780,7 +778,7 @@ public class MethodHandles {
 		 */
 		public MethodHandle findGetter(Class<?> clazz, String fieldName, Class<?> fieldType) throws IllegalAccessException, NoSuchFieldException, SecurityException, NullPointerException {
 			nullCheck(clazz, fieldName, fieldType);
-			Map<CacheKey, WeakReference<MethodHandle>> cache = HandleCache.getFieldGetterCache(clazz);
+			PerClassCache cache = HandleCache.getFieldGetterCache(clazz);
 			MethodHandle handle = HandleCache.getFieldFromPerClassCache(cache, fieldName, fieldType);
 			if (handle == null) {
 				handle = new FieldGetterHandle(clazz, fieldName, fieldType, accessClass);
@@ -807,7 +805,7 @@ public class MethodHandles {
 		 */
 		public MethodHandle findStaticGetter(Class<?> clazz, String fieldName, Class<?> fieldType) throws IllegalAccessException, NoSuchFieldException, SecurityException, NullPointerException {
 			nullCheck(clazz, fieldName, fieldType);
-			Map<CacheKey, WeakReference<MethodHandle>> cache = HandleCache.getStaticFieldGetterCache(clazz);
+			PerClassCache cache = HandleCache.getStaticFieldGetterCache(clazz);
 			MethodHandle handle = HandleCache.getFieldFromPerClassCache(cache, fieldName, fieldType);
 			if (handle == null) {
 				handle = new StaticFieldGetterHandle(clazz, fieldName, fieldType, accessClass);
@@ -838,7 +836,7 @@ public class MethodHandles {
 			if (fieldType == void.class) {
 				throw new NoSuchFieldException();
 			}
-			Map<CacheKey, WeakReference<MethodHandle>> cache = HandleCache.getFieldSetterCache(clazz);
+			PerClassCache cache = HandleCache.getFieldSetterCache(clazz);
 			MethodHandle handle = HandleCache.getFieldFromPerClassCache(cache, fieldName, fieldType);
 			if (handle == null) {
 				handle = new FieldSetterHandle(clazz, fieldName, fieldType, accessClass);
@@ -872,7 +870,7 @@ public class MethodHandles {
 			if (fieldType == void.class) {
 				throw new NoSuchFieldException();
 			}
-			Map<CacheKey, WeakReference<MethodHandle>> cache = HandleCache.getStaticFieldSetterCache(clazz);
+			PerClassCache cache = HandleCache.getStaticFieldSetterCache(clazz);
 			MethodHandle handle = HandleCache.getFieldFromPerClassCache(cache, fieldName, fieldType);
 			if (handle == null) {
 				handle = new StaticFieldSetterHandle(clazz, fieldName, fieldType, accessClass);
@@ -1007,7 +1005,7 @@ public class MethodHandles {
 		public MethodHandle unreflect(Method method) throws IllegalAccessException{
 			int methodModifiers = method.getModifiers();
 			Class<?> declaringClass = method.getDeclaringClass();
-			Map<CacheKey, WeakReference<MethodHandle>> cache;
+			PerClassCache cache;
 			
 			/* Determine which cache (static or virtual to use) */
 			if (Modifier.isStatic(methodModifiers)) {
@@ -1130,7 +1128,7 @@ public class MethodHandles {
 		 */
 		public MethodHandle unreflectConstructor(Constructor<?> method) throws IllegalAccessException {
 			String methodName = method.getName();
-			Map<CacheKey, WeakReference<MethodHandle>> cache = HandleCache.getConstructorCache(method.getDeclaringClass());
+			PerClassCache cache = HandleCache.getConstructorCache(method.getDeclaringClass());
 			MethodType type = MethodType.methodType(void.class, method.getParameterTypes());
 			MethodHandle handle = HandleCache.getMethodFromPerClassCache(cache, methodName, type);
 			if (handle == null) {
@@ -1162,7 +1160,7 @@ public class MethodHandles {
 		 */
 		public MethodHandle findConstructor(Class<?> declaringClass, MethodType type) throws IllegalAccessException, NoSuchMethodException {
 			nullCheck(declaringClass, type);
-			Map<CacheKey, WeakReference<MethodHandle>> cache = HandleCache.getConstructorCache(declaringClass);
+			PerClassCache cache = HandleCache.getConstructorCache(declaringClass);
 			MethodHandle handle = HandleCache.getMethodFromPerClassCache(cache, "<init>", type); //$NON-NLS-1$
 			if (handle == null) {
 				handle = new ConstructorHandle(declaringClass, type);
@@ -1190,7 +1188,7 @@ public class MethodHandles {
 			nullCheck(method, specialToken);
 			checkSpecialAccess(specialToken);	/* Must happen before method resolution */
 			String methodName = method.getName();
-			Map<CacheKey, WeakReference<MethodHandle>> cache = HandleCache.getSpecialCache(method.getDeclaringClass());
+			PerClassCache cache = HandleCache.getSpecialCache(method.getDeclaringClass());
 			MethodType type = MethodType.methodType(method.getReturnType(), method.getParameterTypes());
 			MethodHandle handle = HandleCache.getMethodWithSpecialCallerFromPerClassCache(cache, methodName, type, specialToken);
 			if (handle == null) {
@@ -1231,7 +1229,7 @@ public class MethodHandles {
 			String fieldName = field.getName();
 			Class<?> declaringClass = field.getDeclaringClass();
 			Class<?> fieldType = field.getType();
-			Map<CacheKey, WeakReference<MethodHandle>> cache;
+			PerClassCache cache;
 			if (Modifier.isStatic(modifiers)) {
 				cache = HandleCache.getStaticFieldGetterCache(declaringClass);
 			} else {
@@ -1271,7 +1269,7 @@ public class MethodHandles {
 		public MethodHandle unreflectSetter(Field field) throws IllegalAccessException {
 			MethodHandle handle;
 			int modifiers = field.getModifiers();
-			Map<CacheKey, WeakReference<MethodHandle>> cache;
+			PerClassCache cache;
 			Class<?> declaringClass = field.getDeclaringClass();
 			Class<?> fieldType = field.getType();
 			String fieldName = field.getName();
@@ -1,6 +1,6 @@
 /*[INCLUDE-IF Sidecar17]*/
 /*******************************************************************************
- * Copyright (c) 2009, 2017 IBM Corp. and others
+ * Copyright (c) 2009, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -28,7 +28,7 @@ import java.io.ObjectOutputStream;
 import java.io.ObjectStreamException;
 import java.io.ObjectStreamField;
 import java.io.Serializable;
-import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
 import java.lang.reflect.Field;
 import java.security.*;
@@ -39,7 +39,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.ibm.oti.util.Msg;
 import com.ibm.oti.vm.VM;
@@ -89,10 +89,60 @@ public final class MethodType implements Serializable {
 		primitivesArray['Z' - 'A'] = boolean.class;
 	}
 	
-	private static Map<MethodType, WeakReference<MethodType>> internTable = Collections.synchronizedMap(new WeakHashMap<MethodType, WeakReference<MethodType>>());
-	// lock object to control insertion of new MTs
-	static final class InternTableAddLock { }
-	private static InternTableAddLock internTableAddLock = new InternTableAddLock();
+	/*
+	 * Concurrent replacement for the synchronized WeakHashMap that used to intern MethodTypes.  Probes are
+	 * lock free (ConcurrentHashMap.get) and adds only contend on the bin being modified.  Interned MethodTypes
+	 * remain weakly referenced: once one is collected its InternReference is enqueued and the entry is
+	 * expunged on a later add.
+	 */
+	private static final ConcurrentHashMap<InternReference, InternReference> internTable = new ConcurrentHashMap<>();
+	private static final ReferenceQueue<MethodType> internQueue = new ReferenceQueue<>();
+
+	/* Weak reference to an interned MethodType, which is both the key and the value of its intern table entry */
+	static final class InternReference extends WeakReference<MethodType> {
+		private final int hashcode;
+
+		InternReference(MethodType type, ReferenceQueue<MethodType> queue) {
+			super(type, queue);
+			hashcode = type.hashCode();
+		}
+
+		@Override
+		public int hashCode() {
+			return hashcode;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (o == this) {
+				return true;
+			}
+			if (o instanceof InternReference) {
+				MethodType type = get();
+				return (type != null) && type.equals(((InternReference)o).get());
+			}
+			return false;
+		}
+	}
+
+	/* Key used to probe the intern table for a MethodType without creating a reference to it */
+	static final class InternProbe {
+		private final MethodType type;
+
+		InternProbe(MethodType type) {
+			this.type = type;
+		}
+
+		@Override
+		public int hashCode() {
+			return type.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return (o instanceof InternReference) && type.equals(((InternReference)o).get());
+		}
+	}
 	
 	@VMCONSTANTPOOL_FIELD
 	final Class<?> returnType;
@@ -630,56 +680,69 @@ public final class MethodType implements Serializable {
 		if (type != null) {
 			return type;
 		}
-	
-		/* Check for the item under lock to prevent multiple threads from 
-		 * successfully interning the same MethodType.  Use a lock object
-		 * other than the intern table so other threads can continue to
-		 * probe the table without waiting for unrelated MTs to be interned.
+
+		int stackSlots = arguments.length;
+		
+		for(Class<?> c : arguments) {
+			/*[IF ]*/
+			/* getClass() gets compiled to just a NULLCHK and consumes fewer bytecodes than 'if (c == null) throw ...' */
+			/*[ENDIF]*/
+			c.getClass();	// Implicit nullcheck
+			if ((c == double.class) || (c == long.class)) {
+				stackSlots++;
+			} else if (c == void.class){
+				/*[MSG "K05d9", "invalid parameter: {}"]*/
+				throw new IllegalArgumentException(Msg.getString("K05d9", void.class)); //$NON-NLS-1$
+			}
+		}
+		if (stackSlots > 255) {
+			/*[MSG "K05d8", "MethodType would consume more than 255 argument slots: {0}"]*/
+			throw new IllegalArgumentException(Msg.getString("K05d8", stackSlots)); //$NON-NLS-1$
+		}
+		argSlots = stackSlots;
+
+		/* initialize expensive state */
+		stackDescriptionBits = stackDescriptionBits(arguments, argSlots);
+		methodDescriptor = createMethodDescriptorString();
+
+		/* When several threads race to intern equal MethodTypes, the first one added wins
+		 * and is returned to all callers.
 		 */
-		synchronized(internTableAddLock) {
-			type = probeTable();
+		expungeStaleEntries();
+		MethodType tenured = makeTenured(this);
+		InternReference newRef = new InternReference(tenured, internQueue);
+		for (;;) {
+			InternReference oldRef = internTable.putIfAbsent(newRef, newRef);
+			if (oldRef == null) {
+				return tenured;
+			}
+			type = oldRef.get();
 			if (type != null) {
 				return type;
 			}
-			
-			int stackSlots = arguments.length;
-			
-			for(Class<?> c : arguments) {
-				/*[IF ]*/
-				/* getClass() gets compiled to just a NULLCHK and consumes fewer bytecodes than 'if (c == null) throw ...' */
-				/*[ENDIF]*/
-				c.getClass();	// Implicit nullcheck
-				if ((c == double.class) || (c == long.class)) {
-					stackSlots++;
-				} else if (c == void.class){
-					/*[MSG "K05d9", "invalid parameter: {}"]*/
-					throw new IllegalArgumentException(Msg.getString("K05d9", void.class)); //$NON-NLS-1$
-				}
-			}
-			if (stackSlots > 255) {
-				/*[MSG "K05d8", "MethodType would consume more than 255 argument slots: {0}"]*/
-				throw new IllegalArgumentException(Msg.getString("K05d8", stackSlots)); //$NON-NLS-1$
-			}
-			argSlots = stackSlots;
-
-			/* initialize expensive state */
-			stackDescriptionBits = stackDescriptionBits(arguments, argSlots);
-			methodDescriptor = createMethodDescriptorString();
-
-			MethodType tenured = makeTenured(this);
-			internTable.put(tenured, new WeakReference<MethodType>(tenured));
-			return tenured;
+			/* The equal MethodType was collected. Remove its entry rather than replacing the value,
+			 * since replace() would keep the cleared reference as the key and no probe could match it.
+			 */
+			internTable.remove(oldRef, oldRef);
 		}
 	}
 	
 	/* Check if the current MethodType is already cached */
 	private MethodType probeTable() {
-		Reference<MethodType> reference = internTable.get(this);
+		InternReference reference = internTable.get(new InternProbe(this));
 		if (reference != null) {
 			return reference.get();
 		}
 		return null;
 	}
+
+	/* Remove the entries of MethodTypes that have been collected */
+	private static void expungeStaleEntries() {
+		InternReference staleRef;
+		while (null != (staleRef = (InternReference)internQueue.poll())) {
+			internTable.remove(staleRef, staleRef);
+		}
+	}
 	
 	/*[IF ]*/
 	/*
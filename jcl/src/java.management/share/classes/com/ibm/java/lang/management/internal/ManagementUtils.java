@@ -1,6 +1,6 @@
 /*[INCLUDE-IF Sidecar17]*/
 /*******************************************************************************
- * Copyright (c) 2008, 2017 IBM Corp. and others
+ * Copyright (c) 2008, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -805,6 +805,8 @@ public final class ManagementUtils {
 
 		private static final String JVM_CPU_MONITOR_MXBEAN_NAME = "com.ibm.lang.management:type=JvmCpuMonitor"; //$NON-NLS-1$
 
+		private static final String REFLECTION_CACHE_MXBEAN_NAME = "com.ibm.lang.management:type=ReflectionCache"; //$NON-NLS-1$
+
 		static void registerAll() {
 			// register standard singleton beans
 			create(ManagementFactory.CLASS_LOADING_MXBEAN_NAME, ClassLoadingMXBeanImpl.getInstance())
@@ -852,6 +854,10 @@ public final class ManagementUtils {
 				.addInterface(com.ibm.lang.management.JvmCpuMonitorMXBean.class)
 				.validateAndRegister();
 
+			create(REFLECTION_CACHE_MXBEAN_NAME, com.ibm.lang.management.internal.ReflectionCacheMXBeanImpl.getInstance())
+				.addInterface(com.ibm.lang.management.ReflectionCacheMXBean.class)
+				.validateAndRegister();
+
 			// register standard optional beans
 			create(ManagementFactory.COMPILATION_MXBEAN_NAME, CompilationMXBeanImpl.getInstance())
 				.addInterface(java.lang.management.CompilationMXBean.class)
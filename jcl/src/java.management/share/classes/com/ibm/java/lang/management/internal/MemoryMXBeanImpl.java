@@ -1,6 +1,6 @@
 /*[INCLUDE-IF Sidecar17]*/
 /*******************************************************************************
- * Copyright (c) 2005, 2017 IBM Corp. and others
+ * Copyright (c) 2005, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -807,6 +807,21 @@ public class MemoryMXBeanImpl implements MemoryMXBean, NotificationEmitter {
 		return getCurrentGCThreadsImpl();
 	}
 
+	/**
+	 * Returns the number of heap bytes freed by String deduplication.
+	 * 
+	 * @return bytes saved, or 0 if String deduplication is not enabled
+	 * @see #getStringDeduplicationBytesSaved()
+	 */
+	private native long getStringDeduplicationBytesSavedImpl();
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public long getStringDeduplicationBytesSaved() {
+		return getStringDeduplicationBytesSavedImpl();
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
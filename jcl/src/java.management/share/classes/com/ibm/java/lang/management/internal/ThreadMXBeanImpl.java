@@ -1,6 +1,6 @@
 /*[INCLUDE-IF Sidecar17]*/
 /*******************************************************************************
- * Copyright (c) 2007, 2016 IBM Corp. and others
+ * Copyright (c) 2007, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -25,6 +25,7 @@ package com.ibm.java.lang.management.internal;
 import java.lang.management.ManagementFactory;
 import java.lang.management.ThreadInfo;
 import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
 
 import javax.management.ObjectName;
 
@@ -704,10 +705,151 @@ public class ThreadMXBeanImpl implements ThreadMXBean {
 		return findNativeThreadIDImpl(threadId);
 	}
 
+	/**
+	 * To satisfy com.ibm.lang.management.ThreadMXBean.
+	 */
+	public long[] getThreadCpuTime(long[] threadIDs) throws IllegalArgumentException, UnsupportedOperationException {
+		long[] localThreadIDs = validateThreadIds(threadIDs);
+		long[] cpuTimes = new long[localThreadIDs.length];
+
+		if (isThreadCpuTimeSupported()) {
+			if (isThreadCpuTimeEnabled()) {
+				getThreadCpuTimesImpl(localThreadIDs, cpuTimes);
+			} else {
+				Arrays.fill(cpuTimes, -1);
+			}
+		} else {
+			/*[MSG "K05F6", "CPU time measurement is not supported on this virtual machine."]*/
+			throw new UnsupportedOperationException(com.ibm.oti.util.Msg.getString("K05F6")); //$NON-NLS-1$
+		}
+		return cpuTimes;
+	}
+
+	/**
+	 * To satisfy com.ibm.lang.management.ThreadMXBean.
+	 */
+	public long[] getThreadUserTime(long[] threadIDs) throws IllegalArgumentException, UnsupportedOperationException {
+		long[] localThreadIDs = validateThreadIds(threadIDs);
+		long[] userTimes = new long[localThreadIDs.length];
+
+		if (isThreadCpuTimeSupported()) {
+			if (isThreadCpuTimeEnabled()) {
+				getThreadUserTimesImpl(localThreadIDs, userTimes);
+			} else {
+				Arrays.fill(userTimes, -1);
+			}
+		} else {
+			/*[MSG "K05F6", "CPU time measurement is not supported on this virtual machine."]*/
+			throw new UnsupportedOperationException(com.ibm.oti.util.Msg.getString("K05F6")); //$NON-NLS-1$
+		}
+		return userTimes;
+	}
+
+	/**
+	 * Copies the array of thread identifiers, so users cannot modify it after it has been
+	 * validated, and checks that every identifier is positive.
+	 */
+	private static long[] validateThreadIds(long[] threadIDs) {
+		long[] localThreadIDs = threadIDs.clone();
+		for (long id : localThreadIDs) {
+			if (id <= 0) {
+				/*[MSG "K05F7", "Thread id must be greater than 0."]*/
+				throw new IllegalArgumentException(com.ibm.oti.util.Msg.getString("K05F7")); //$NON-NLS-1$
+			}
+		}
+		return localThreadIDs;
+	}
+
+	/**
+	 * To satisfy com.ibm.lang.management.ThreadMXBean.
+	 */
+	public int getThreadStackSample(long threadId, long[] frames) throws IllegalArgumentException, SecurityException {
+		SecurityManager security = System.getSecurityManager();
+		if (null != security) {
+			security.checkPermission(ManagementPermissionHelper.MPMONITOR);
+		}
+		if (threadId <= 0) {
+			/*[MSG "K05FD", "Invalid thread identifier ({0}) specified."]*/
+			throw new IllegalArgumentException(com.ibm.oti.util.Msg.getString("K05FD", threadId)); //$NON-NLS-1$
+		}
+		int[] depths = new int[1];
+		getThreadStackSamplesImpl(new long[] { threadId }, frames.length / 2, frames, depths);
+		return depths[0];
+	}
+
+	/**
+	 * To satisfy com.ibm.lang.management.ThreadMXBean.
+	 */
+	public int[] getThreadStackSamples(long[] threadIDs, int maxDepth, long[] frames) throws IllegalArgumentException, SecurityException {
+		SecurityManager security = System.getSecurityManager();
+		if (null != security) {
+			security.checkPermission(ManagementPermissionHelper.MPMONITOR);
+		}
+		long[] localThreadIDs = validateThreadIds(threadIDs);
+		if (maxDepth < 0) {
+			/*[MSG "K05F8", "maxDepth value cannot be negative."]*/
+			throw new IllegalArgumentException(com.ibm.oti.util.Msg.getString("K05F8")); //$NON-NLS-1$
+		}
+		long required = (long)localThreadIDs.length * maxDepth * 2;
+		if (frames.length < required) {
+			/*[MSG "K0617", "The frames array holds {0} longs, but {1} are required."]*/
+			throw new IllegalArgumentException(com.ibm.oti.util.Msg.getString("K0617", frames.length, required)); //$NON-NLS-1$
+		}
+		int[] depths = new int[localThreadIDs.length];
+		if (localThreadIDs.length > 0) {
+			getThreadStackSamplesImpl(localThreadIDs, maxDepth, frames, depths);
+		}
+		return depths;
+	}
+
+	/**
+	 * To satisfy com.ibm.lang.management.ThreadMXBean.
+	 */
+	public StackTraceElement getStackTraceElement(long methodID, long bytecodeIndex) throws IllegalArgumentException {
+		if (0 == methodID) {
+			/*[MSG "K0618", "Invalid method identifier ({0}) specified."]*/
+			throw new IllegalArgumentException(com.ibm.oti.util.Msg.getString("K0618", methodID)); //$NON-NLS-1$
+		}
+		String[] names = new String[3];
+		int lineNumber = getFrameDescriptionImpl(methodID, bytecodeIndex, names);
+		if (null == names[0]) {
+			/* not a method of a loaded class */
+			/*[MSG "K0618", "Invalid method identifier ({0}) specified."]*/
+			throw new IllegalArgumentException(com.ibm.oti.util.Msg.getString("K0618", methodID)); //$NON-NLS-1$
+		}
+		return new StackTraceElement(names[0], names[1], names[2], lineNumber);
+	}
+
 	private static native long findNativeThreadIDImpl(long threadId);
 
 	private native void getNativeThreadIdsImpl(long[] tids, long[] nativeTIDs);
 
+	/**
+	 * Collects the CPU time of each of the given threads in a single pass over the threads,
+	 * setting -1 for the threads that are no longer alive.
+	 */
+	private native void getThreadCpuTimesImpl(long[] ids, long[] cpuTimes);
+
+	/**
+	 * Collects the user mode CPU time of each of the given threads in a single pass over the
+	 * threads, setting -1 for the threads that are no longer alive.
+	 */
+	private native void getThreadUserTimesImpl(long[] ids, long[] userTimes);
+
+	/**
+	 * Walks the stacks of the given threads under a single acquisition of exclusive VM access,
+	 * storing up to maxDepth method identifier and bytecode index pairs for each thread in
+	 * frames, and the number of frames stored in depths, -1 for threads that are no longer alive.
+	 */
+	private native void getThreadStackSamplesImpl(long[] ids, int maxDepth, long[] frames, int[] depths);
+
+	/**
+	 * Stores the declaring class name, method name and source file name of a sampled method in
+	 * names, and answers the line number of the bytecode index, -2 for a native method and -1
+	 * if it is not known. Leaves names unchanged if methodID is not a method of a loaded class.
+	 */
+	private native int getFrameDescriptionImpl(long methodID, long bytecodeIndex, String[] names);
+
 	/**
 	 * {@inheritDoc}
 	 */
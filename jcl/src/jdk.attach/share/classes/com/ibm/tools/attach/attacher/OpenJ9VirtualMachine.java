@@ -2,7 +2,7 @@
 package com.ibm.tools.attach.attacher;
 
 /*******************************************************************************
- * Copyright (c) 2009, 2017 IBM Corp. and others
+ * Copyright (c) 2009, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -36,6 +36,7 @@ import java.util.regex.Pattern;
 import com.sun.tools.attach.VirtualMachine;
 import com.sun.tools.attach.VirtualMachineDescriptor;
 import com.sun.tools.attach.spi.AttachProvider;
+import com.ibm.tools.attach.target.Advertisement;
 import com.ibm.tools.attach.target.AttachHandler;
 import com.ibm.tools.attach.target.AttachmentConnection;
 import com.ibm.tools.attach.target.Command;
@@ -118,8 +119,11 @@ final class OpenJ9VirtualMachine extends VirtualMachine implements Response {
 		AttachNotSupportedException lastException = null;
 		/*[PR CMVC 182802 ]*/
 		int timeout = 500; /* start small in case there is a rogue process which is eating semaphores, grow big in case of system load. */
+		int attempts = 0;
+		long startNs = System.nanoTime();
 		while (timeout < MAXIMUM_ATTACH_TIMEOUT) {
 			lastException = null;
+			++attempts;
 			try {
 				tryAttachTarget(timeout);
 			} catch (AttachNotSupportedException e) {
@@ -128,6 +132,7 @@ final class OpenJ9VirtualMachine extends VirtualMachine implements Response {
 				timeout = (timeout * 3)/2;
 			}
 			if (null == lastException) {
+				IPC.logMessage("attachTarget " + targetId + " latency " + ((System.nanoTime() - startNs) / 1000000) + " ms, attempts: " + attempts); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 				break;
 			}
 		}
@@ -277,11 +282,8 @@ final class OpenJ9VirtualMachine extends VirtualMachine implements Response {
 			} catch (ClassCastException e) {
 				continue;
 			}
-			if (!vmd.id().equalsIgnoreCase(AttachHandler.getVmId())) { /*
-																		 * avoid
-																		 * overlapping
-																		 * locks
-																		 */
+			if (!vmd.id().equalsIgnoreCase(AttachHandler.getVmId()) /* avoid overlapping locks */
+					&& !Advertisement.isTargetNotifier(vmd.getNotifier())) { /* targets with their own semaphore are not woken */
 				String attachSyncFile = vmd.getAttachSyncFileValue();
 				if (null != attachSyncFile) { /*
 				 * in case of a malformed advert
@@ -379,6 +381,7 @@ final class OpenJ9VirtualMachine extends VirtualMachine implements Response {
 
 		synchronized (myIn) {
 			int numberOfTargets = 0;
+			String targetNotifier = null;
 			try {
 				CommonDirectory.obtainAttachLock();
 				List<VirtualMachineDescriptor> vmds = myProvider.listVirtualMachines();
@@ -410,7 +413,16 @@ final class OpenJ9VirtualMachine extends VirtualMachine implements Response {
 						/*[MSG "K0558", "Attach API initialization failed"]*/
 						throw new AttachNotSupportedException(com.ibm.oti.util.Msg.getString("K0558")); //$NON-NLS-1$
 					}
+				} else if (Advertisement.isTargetNotifier(descriptor.getNotifier())) {
+					/* the target waits on its own semaphore, so post once to wake the target alone */
+					targetNotifier = descriptor.getNotifier();
+					int status = TargetDirectory.notifyVm(descriptor.id(), targetNotifier);
+					if ((IPC.JNI_OK != status)
+							&& (CommonDirectory.J9PORT_INFO_SHSEM_OPENED_STALE != status)) {
+						throw new AttachNotSupportedException(com.ibm.oti.util.Msg.getString("K0532", status)); //$NON-NLS-1$
+					}
 				} else {
+					/* the target is from an older release or waits on the common semaphore: wake every VM */
 					lockAllAttachNotificationSyncFiles(vmds);
 					numberOfTargets = CommonDirectory.countTargetDirectories();
 					int status = CommonDirectory.notifyVm(numberOfTargets);
@@ -451,6 +463,10 @@ final class OpenJ9VirtualMachine extends VirtualMachine implements Response {
 				if (null != replyFile) {
 					replyFile.deleteReply();
 				}
+				if ((null != targetNotifier) && !targetAttached) {
+					/* the target did not consume the post, so remove it rather than wake the target later */
+					TargetDirectory.cancelNotify(descriptor.id(), targetNotifier);
+				}
 				if (numberOfTargets > 0) { /*[PR 48044] if number of targets is 0, then the VM is attaching to itself  and the semaphore was not involved */
 					unlockAllAttachNotificationSyncFiles();
 					CommonDirectory.cancelNotify(numberOfTargets);
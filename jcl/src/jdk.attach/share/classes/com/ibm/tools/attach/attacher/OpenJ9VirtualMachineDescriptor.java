@@ -1,7 +1,7 @@
 /*[INCLUDE-IF Sidecar16]*/
 package com.ibm.tools.attach.attacher;
 /*******************************************************************************
- * Copyright (c) 2009, 2017 IBM Corp. and others
+ * Copyright (c) 2009, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -55,6 +55,7 @@ final class OpenJ9VirtualMachineDescriptor extends VirtualMachineDescriptor {
 
 	private final String replyFile;
 	private final String attachSyncFileValue;
+	private final String notifier;
 	private final long processId;
 	private final long uid;
 
@@ -67,6 +68,7 @@ final class OpenJ9VirtualMachineDescriptor extends VirtualMachineDescriptor {
 			String displayName) {
 		super(provider, id, displayName);
 		attachSyncFileValue = null;		
+		notifier = null;
 		replyFile = null;
 		processId = 0;
 		uid = 0;
@@ -79,6 +81,7 @@ final class OpenJ9VirtualMachineDescriptor extends VirtualMachineDescriptor {
 	OpenJ9VirtualMachineDescriptor(AttachProvider provider, String id) {
 		super(provider, id);
 		attachSyncFileValue = null;		
+		notifier = null;
 		replyFile = null;
 		processId = 0;
 		uid = 0;
@@ -94,6 +97,7 @@ final class OpenJ9VirtualMachineDescriptor extends VirtualMachineDescriptor {
 		super(provider, advert.getVmId(), advert.getDisplayName());
 		replyFile = advert.getReplyFile(); 
 		attachSyncFileValue = advert.getNotificationSync();
+		notifier = advert.getNotifier();
 		processId = advert.getProcessId();
 		uid = advert.getUid();
 	}
@@ -147,6 +151,13 @@ final class OpenJ9VirtualMachineDescriptor extends VirtualMachineDescriptor {
 	long getUid() {
 		return uid;
 	}
+
+	/**
+	 * @return name of the semaphore the target waits on, or null if the advertisement file could not be read
+	 */
+	String getNotifier() {
+		return notifier;
+	}
 	
 
 }
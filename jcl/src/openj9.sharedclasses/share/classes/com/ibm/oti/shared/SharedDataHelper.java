@@ -2,7 +2,7 @@
 package com.ibm.oti.shared;
 
 /*******************************************************************************
- * Copyright (c) 1998, 2016 IBM Corp. and others
+ * Copyright (c) 1998, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -24,6 +24,8 @@ package com.ibm.oti.shared;
  *******************************************************************************/
 
 import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.Map;
 
 /**
  * <p>SharedDataHelper API that stores and finds byte data using String tokens.</p>
@@ -45,6 +47,9 @@ import java.nio.ByteBuffer;
  * Tokens have no meaning to the cache, so effectively turn it into a dictionary of classes.</p>
  * <p>Eg. A token may be the location where the class was found, combined with some type of versioning data.</p>
  * <p>If an application stores multiple versions of the same data using the same token, only the most recent will be returned by findSharedData.</p>
+ * <h3>Batches</h3>
+ * <p>Applications which find or store many pieces of data at once, such as at startup, can use findSharedDataBatch() and
+ * storeSharedDataBatch(). These access the cache once for the whole batch, rather than once for each token.</p>
  * 
  * @see SharedHelper
  * @see SharedDataHelperFactory
@@ -87,4 +92,39 @@ public interface SharedDataHelper extends SharedHelper {
 	 */
 	public ByteBuffer storeSharedData(String token, ByteBuffer data);
 
+	/**
+	 * Find data in the shared cache for each of a collection of tokens.<p>
+	 * The data is found as findSharedData(String) would find it for each token, but the cache is
+	 * locked once for the whole batch, which is considerably cheaper than calling findSharedData(String) for each token.<br>
+	 * The ByteBuffers returned are read-only and map to the data in the cache; the data is not copied.<br>
+	 * If a SecurityManager is installed, findSharedDataBatch can only be called by code whose caller-classloader
+	 * has been granted <q>read</q> permissions to the shared class cache.
+	 * <p>
+	 * @param 		tokens Collection&lt;String&gt;.
+	 * 					The String tokens to be used as keys. No token may be null.
+	 *
+	 * @return		Map&lt;String, ByteBuffer&gt;.
+	 * 					A map from each token for which data was found to a read-only ByteBuffer containing the cached data,
+	 * 					or null if the cache could not be searched.
+	 */
+	public Map<String, ByteBuffer> findSharedDataBatch(Collection<String> tokens);
+
+	/**
+	 * Store data in the shared cache for each of a number of tokens.<p>
+	 * Each piece of data is stored as storeSharedData(String, ByteBuffer) would store it, but the cache is
+	 * locked once for the whole batch, which is considerably cheaper than calling storeSharedData(String, ByteBuffer) for each token.<br>
+	 * If null is mapped to a token, the data currently stored against that token is marked "stale".<br>
+	 * If a SecurityManager is installed, storeSharedDataBatch can only be called by code whose caller-classloader
+	 * has been granted <q>write</q> permissions to the shared class cache.
+	 * <p>
+	 * @param 		data Map&lt;String, ByteBuffer&gt;.
+	 * 					A map from each String token to be used as a key to a direct ByteBuffer of data to copy to the cache.
+	 * 					No token may be null.
+	 *
+	 * @return		Map&lt;String, ByteBuffer&gt;.
+	 * 					A map from each token for which data was stored to a read-only ByteBuffer containing the cached data,
+	 * 					or null if the cache could not be updated.
+	 */
+	public Map<String, ByteBuffer> storeSharedDataBatch(Map<String, ByteBuffer> data);
+
 }
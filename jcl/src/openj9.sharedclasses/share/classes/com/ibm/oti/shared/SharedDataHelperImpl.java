@@ -2,7 +2,7 @@
 package com.ibm.oti.shared;
 
 /*******************************************************************************
- * Copyright (c) 1998, 2016 IBM Corp. and others
+ * Copyright (c) 1998, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -24,6 +24,10 @@ package com.ibm.oti.shared;
  *******************************************************************************/
 
 import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
 
 import com.ibm.oti.util.Msg;
 
@@ -43,6 +47,10 @@ final class SharedDataHelperImpl extends SharedAbstractHelper implements SharedD
 
 	private native ByteBuffer storeSharedDataImpl(ClassLoader loader, int loaderId, String token, ByteBuffer data);
 
+	private native ByteBuffer[] findSharedDataBatchImpl(int loaderId, String[] tokens);
+
+	private native ByteBuffer[] storeSharedDataBatchImpl(ClassLoader loader, int loaderId, String[] tokens, ByteBuffer[] data);
+
 	@Override
 	public ByteBuffer findSharedData(String token) {
 		ClassLoader loader = getClassLoader();
@@ -96,6 +104,100 @@ final class SharedDataHelperImpl extends SharedAbstractHelper implements SharedD
 		return storeSharedDataImpl(loader, this.id, token, data);
 	}
 
+	@Override
+	public Map<String, ByteBuffer> findSharedDataBatch(Collection<String> tokens) {
+		ClassLoader loader = getClassLoader();
+		if (loader == null) {
+			/*[MSG "K059f", "ClassLoader has been garbage collected. Returning null."]*/
+			printVerboseInfo(Msg.getString("K059f")); //$NON-NLS-1$
+			return null;
+		}
+		if (!canFind) {
+			return null;
+		}
+		if (!checkReadPermission(loader)) {
+			/*[MSG "K05b5", "Read permission denied. Returning null."]*/
+			printVerboseError(Msg.getString("K05b5")); //$NON-NLS-1$
+			return null;
+		}
+		String[] tokenArray = (tokens == null) ? null : tokens.toArray(new String[tokens.size()]);
+		if (!noNullTokens(tokenArray)) {
+			/*[MSG "K05b6", "Cannot call findSharedData with null token. Returning null."]*/
+			printVerboseError(Msg.getString("K05b6")); //$NON-NLS-1$
+			return null;
+		}
+		return toMap(tokenArray, findSharedDataBatchImpl(this.id, tokenArray));
+	}
+
+	@Override
+	public Map<String, ByteBuffer> storeSharedDataBatch(Map<String, ByteBuffer> data) {
+		ClassLoader loader = getClassLoader();
+		if (loader == null) {
+			/*[MSG "K059f", "ClassLoader has been garbage collected. Returning null."]*/
+			printVerboseInfo(Msg.getString("K059f")); //$NON-NLS-1$
+			return null;
+		}
+		if (!canStore) {
+			return null;
+		}
+		if (!checkWritePermission(loader)) {
+			/*[MSG "K05b7", "Write permission denied. Returning null."]*/
+			printVerboseError(Msg.getString("K05b7")); //$NON-NLS-1$
+			return null;
+		}
+		String[] tokenArray = null;
+		ByteBuffer[] dataArray = null;
+		if (data != null) {
+			int size = data.size();
+			tokenArray = new String[size];
+			dataArray = new ByteBuffer[size];
+			Iterator<Map.Entry<String, ByteBuffer>> entries = data.entrySet().iterator();
+			for (int i = 0; (i < size) && entries.hasNext(); i++) {
+				Map.Entry<String, ByteBuffer> entry = entries.next();
+				tokenArray[i] = entry.getKey();
+				dataArray[i] = entry.getValue();
+			}
+		}
+		if (!noNullTokens(tokenArray)) {
+			/*[MSG "K05b8", "Cannot call storeSharedData with null token. Returning null."]*/
+			printVerboseError(Msg.getString("K05b8")); //$NON-NLS-1$
+			return null;
+		}
+		for (int i = 0; i < dataArray.length; i++) {
+			if (dataArray[i]!=null && !dataArray[i].isDirect()) {
+				/*[MSG "K05b9", "Cannot call storeSharedData with a non-direct ByteBuffer. Returning null."]*/
+				printVerboseError(Msg.getString("K05b9")); //$NON-NLS-1$
+				return null;
+			}
+		}
+		return toMap(tokenArray, storeSharedDataBatchImpl(loader, this.id, tokenArray, dataArray));
+	}
+
+	private static boolean noNullTokens(String[] tokens) {
+		if (tokens == null) {
+			return false;
+		}
+		for (int i = 0; i < tokens.length; i++) {
+			if (tokens[i] == null) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static Map<String, ByteBuffer> toMap(String[] tokens, ByteBuffer[] buffers) {
+		if (buffers == null) {
+			return null;
+		}
+		Map<String, ByteBuffer> result = new HashMap<String, ByteBuffer>();
+		for (int i = 0; i < buffers.length; i++) {
+			if (buffers[i] != null) {
+				result.put(tokens[i], buffers[i]);
+			}
+		}
+		return result;
+	}
+
 	@Override
 	String getHelperType() {
 		return "SharedDataHelper"; //$NON-NLS-1$
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2001, 2017 IBM Corp. and others
+ * Copyright (c) 2001, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -54,6 +54,7 @@
 
 static const UDATA INITIAL_CLASS_FILE_BUFFER_SIZE = 4096;
 static const UDATA INITIAL_BUFFER_MANAGER_SIZE = 32768 * 10;
+static const UDATA MAX_POOLED_BUILD_BUFFERS = 16;
 
 ROMClassBuilder::ROMClassBuilder(J9JavaVM *javaVM, J9PortLibrary *portLibrary, UDATA maxStringInternTableSize, U_8 * verifyExcludeAttribute, VerifyClassFunction verifyClassFunction) :
 	_javaVM(javaVM),
@@ -64,7 +65,9 @@ ROMClassBuilder::ROMClassBuilder(J9JavaVM *javaVM, J9PortLibrary *portLibrary, U
 	_bufferManagerSize(INITIAL_BUFFER_MANAGER_SIZE),
 	_classFileBuffer(NULL),
 	_bufferManagerBuffer(NULL),
-	_stringInternTable(javaVM, portLibrary, maxStringInternTableSize)
+	_stringInternTable(javaVM, portLibrary, maxStringInternTableSize),
+	_buildBuffersPool(NULL),
+	_buildBuffersPoolCount(0)
 {
 }
 
@@ -81,6 +84,13 @@ ROMClassBuilder::~ROMClassBuilder()
 	}
 	j9mem_free_memory(_classFileBuffer);
 	j9mem_free_memory(_bufferManagerBuffer);
+	while (NULL != _buildBuffersPool) {
+		BuildBuffers *next = _buildBuffersPool->next;
+		j9mem_free_memory(_buildBuffersPool->classFileBuffer);
+		j9mem_free_memory(_buildBuffersPool->bufferManagerBuffer);
+		j9mem_free_memory(_buildBuffersPool);
+		_buildBuffersPool = next;
+	}
 }
 
 ROMClassBuilder *
@@ -215,7 +225,22 @@ ROMClassBuilder::buildROMClass(ROMClassCreationContext *context)
 
 	context->recordParseClassFileStart();
 	ClassFileParser classFileParser(_portLibrary, _verifyClassFunction);
-	result = classFileParser.parseClassFile(context, &_classFileParserBufferSize, &_classFileBuffer);
+	UDATA *classFileBufferSize = &_classFileParserBufferSize;
+	U_8 **classFileBuffer = &_classFileBuffer;
+	UDATA *bufferManagerSize = &_bufferManagerSize;
+	U_8 **bufferManagerBuffer = &_bufferManagerBuffer;
+	BuildBuffers *buildBuffers = NULL;
+	if (canBuildConcurrently(context)) {
+		buildBuffers = acquireBuildBuffers();
+		if (NULL != buildBuffers) {
+			classFileBufferSize = &buildBuffers->classFileBufferSize;
+			classFileBuffer = &buildBuffers->classFileBuffer;
+			bufferManagerSize = &buildBuffers->bufferManagerSize;
+			bufferManagerBuffer = &buildBuffers->bufferManagerBuffer;
+			releaseClassTableMutex(context);
+		}
+	}
+	result = classFileParser.parseClassFile(context, classFileBufferSize, classFileBuffer);
 	context->recordParseClassFileEnd();
 
 	if ( OK == result ) {
@@ -223,7 +248,7 @@ ROMClassBuilder::buildROMClass(ROMClassCreationContext *context)
 		context->recordTranslationStart();
 		result = OutOfMemory;
 		while( OutOfMemory == result ) {
-			BufferManager bufferManager = BufferManager(_portLibrary, _bufferManagerSize, &_bufferManagerBuffer);
+			BufferManager bufferManager = BufferManager(_portLibrary, *bufferManagerSize, bufferManagerBuffer);
 			if (!bufferManager.isOK()) {
 				/*
 				 * not enough native memory to complete this ROMClass load
@@ -232,14 +257,29 @@ ROMClassBuilder::buildROMClass(ROMClassCreationContext *context)
 			}
 			result = prepareAndLaydown( &bufferManager, &classFileParser, context );
 			if (OutOfMemory == result) {
-				context->recordOutOfMemory(_bufferManagerSize);
+				context->recordOutOfMemory(*bufferManagerSize);
 				/* Restore the original method bytecodes, as we may have transformed them. */
 				classFileParser.restoreOriginalMethodBytecodes();
 				/* set up new bufferSize for top of loop */
-				_bufferManagerSize = _bufferManagerSize * 2;
+				*bufferManagerSize = *bufferManagerSize * 2;
 			}
 		}
 	}
+	if (NULL != buildBuffers) {
+		/* The build may have failed before the mutex was reacquired in prepareAndLaydown() */
+		reacquireClassTableMutex(context);
+		if (ClassRead == result) {
+			/* The error is described in the class file buffer, which is now classFileError. Make it the
+			 * class file buffer of the builder, as callers expect, rather than returning it to the pool.
+			 */
+			context->freeClassFileBuffer(_classFileBuffer);
+			_classFileBuffer = buildBuffers->classFileBuffer;
+			_classFileParserBufferSize = buildBuffers->classFileBufferSize;
+			buildBuffers->classFileBuffer = NULL;
+			buildBuffers->classFileBufferSize = INITIAL_CLASS_FILE_BUFFER_SIZE;
+		}
+		releaseBuildBuffers(buildBuffers);
+	}
 	if ( OK == result ) {
 		context->recordTranslationEnd();
 	}
@@ -248,6 +288,121 @@ ROMClassBuilder::buildROMClass(ROMClassCreationContext *context)
 	return result;
 }
 
+/*
+ * The class file can be parsed, and the ROMClass prepared, with the class table mutex released
+ * when the caller holds the mutex and VM access, and owns the class data. Laying down the ROMClass
+ * allocates from the class loader's segments and uses the shared cache and the string intern table,
+ * so prepareAndLaydown() reacquires the mutex before it does so.
+ *
+ * The class data may be a byte[] in the Java heap. VM access is held for the whole build, so
+ * the GC cannot move the array, as with a direct pointer from GetPrimitiveArrayCritical.
+ *
+ * -verbose:dynload records its statistics in a single buffer for the VM, so builds that record
+ * them keep the mutex.
+ */
+bool
+ROMClassBuilder::canBuildConcurrently(ROMClassCreationContext *context)
+{
+#if defined(J9VM_THR_PREEMPTIVE)
+	J9JavaVM *vm = context->javaVM();
+	return (NULL != vm)
+		&& (_javaVM == vm)
+		&& J9_ARE_ALL_BITS_SET(context->findClassFlags(), J9_FINDCLASS_FLAG_CONCURRENT_PARSE)
+		&& !context->recordsDynamicLoadStats()
+		&& J9_ARE_ALL_BITS_SET(context->currentVMThread()->publicFlags, J9_PUBLIC_FLAGS_VM_ACCESS)
+		&& (0 != omrthread_monitor_owned_by_self(vm->classTableMutex));
+#else /* J9VM_THR_PREEMPTIVE */
+	return false;
+#endif /* J9VM_THR_PREEMPTIVE */
+}
+
+/*
+ * Must be called with the class table mutex held.
+ */
+ROMClassBuilder::BuildBuffers *
+ROMClassBuilder::acquireBuildBuffers()
+{
+	BuildBuffers *buildBuffers = _buildBuffersPool;
+	if (NULL != buildBuffers) {
+		_buildBuffersPool = buildBuffers->next;
+		_buildBuffersPoolCount -= 1;
+	} else {
+		PORT_ACCESS_FROM_PORT(_portLibrary);
+		buildBuffers = (BuildBuffers *)j9mem_allocate_memory(sizeof(BuildBuffers), J9MEM_CATEGORY_CLASSES);
+		if (NULL != buildBuffers) {
+			buildBuffers->classFileBufferSize = INITIAL_CLASS_FILE_BUFFER_SIZE;
+			buildBuffers->classFileBuffer = NULL;
+			buildBuffers->bufferManagerSize = INITIAL_BUFFER_MANAGER_SIZE;
+			buildBuffers->bufferManagerBuffer = NULL;
+		}
+	}
+	if (NULL != buildBuffers) {
+		buildBuffers->next = NULL;
+	}
+	return buildBuffers;
+}
+
+/*
+ * Must be called with the class table mutex held.
+ */
+void
+ROMClassBuilder::releaseBuildBuffers(BuildBuffers *buildBuffers)
+{
+	if (_buildBuffersPoolCount < MAX_POOLED_BUILD_BUFFERS) {
+		buildBuffers->next = _buildBuffersPool;
+		_buildBuffersPool = buildBuffers;
+		_buildBuffersPoolCount += 1;
+	} else {
+		PORT_ACCESS_FROM_PORT(_portLibrary);
+		j9mem_free_memory(buildBuffers->classFileBuffer);
+		j9mem_free_memory(buildBuffers->bufferManagerBuffer);
+		j9mem_free_memory(buildBuffers);
+	}
+}
+
+/*
+ * dynamicLoadBuffers->classFileError is protected by the class table mutex, so class file
+ * errors are kept in the context while the mutex is released.
+ */
+void
+ROMClassBuilder::releaseClassTableMutex(ROMClassCreationContext *context)
+{
+	context->deferCFRError();
+	omrthread_monitor_exit(_javaVM->classTableMutex);
+}
+
+/*
+ * Does nothing unless the mutex was released by releaseClassTableMutex().
+ */
+void
+ROMClassBuilder::reacquireClassTableMutex(ROMClassCreationContext *context)
+{
+	if (context->isCFRErrorDeferred()) {
+		omrthread_monitor_enter(_javaVM->classTableMutex);
+		context->recordDeferredCFRError();
+	}
+}
+
+/*
+ * Callers that pass J9_FINDCLASS_FLAG_NO_CHECK_FOR_EXISTING_CLASS have checked the class table
+ * before the build. Another thread may have defined the class while the mutex was released,
+ * so check again once it is reacquired. Must be called with the class table mutex held.
+ */
+bool
+ROMClassBuilder::isClassAlreadyDefined(ClassFileOracle *classFileOracle, ROMClassCreationContext *context)
+{
+	bool defined = false;
+	if ((NULL != _javaVM)
+		&& J9_ARE_ALL_BITS_SET(context->findClassFlags(), J9_FINDCLASS_FLAG_CONCURRENT_PARSE | J9_FINDCLASS_FLAG_NO_CHECK_FOR_EXISTING_CLASS)
+		&& !context->isClassAnon()
+	) {
+		U_16 classNameIndex = classFileOracle->getClassNameIndex();
+		defined = (NULL != _javaVM->internalVMFunctions->hashClassTableAt(context->classLoader(),
+				classFileOracle->getUTF8Data(classNameIndex), classFileOracle->getUTF8Length(classNameIndex)));
+	}
+	return defined;
+}
+
 U_8 *
 ROMClassBuilder::releaseClassFileBuffer()
 {
@@ -358,6 +513,11 @@ ROMClassBuilder::prepareAndLaydown( BufferManager *bufferManager, ClassFileParse
 	SizeInformation sizeInformation;
 	getSizeInfo(context, &romClassWriter, &srpOffsetTable, &countDebugDataOutOfLine, &sizeInformation);
 
+	reacquireClassTableMutex(context);
+	if (isClassAlreadyDefined(&classFileOracle, context)) {
+		return DuplicateClass;
+	}
+
 	if ( context->shouldCompareROMClassForEquality() ) {
 		ROMClassVerbosePhase v(context, CompareHashtableROMClass);
 
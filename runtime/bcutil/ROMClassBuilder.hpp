@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2001, 2017 IBM Corp. and others
+ * Copyright (c) 2001, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -107,7 +107,19 @@ private:
 		UDATA varHandleMethodTypeLookupTableSize;
 	};
 
-	
+	/*
+	 * The class file buffer and BufferManager buffer of a build that runs with the class table
+	 * mutex released, so that several threads can parse and prepare at once. Unused buffers are
+	 * kept in _buildBuffersPool, which is protected by the class table mutex.
+	 */
+	struct BuildBuffers
+	{
+		BuildBuffers *next;
+		UDATA classFileBufferSize;
+		U_8 *classFileBuffer;
+		UDATA bufferManagerSize;
+		U_8 *bufferManagerBuffer;
+	};
 
 	/* NOTE: Be sure to update J9DbgROMClassBuilder.st when changing the state variables below. */
 	J9JavaVM *_javaVM;
@@ -119,7 +131,15 @@ private:
 	U_8 *_classFileBuffer;
 	U_8 *_bufferManagerBuffer;
 	StringInternTable _stringInternTable;
-
+	BuildBuffers *_buildBuffersPool;
+	UDATA _buildBuffersPoolCount;
+
+	bool canBuildConcurrently(ROMClassCreationContext *context);
+	BuildBuffers *acquireBuildBuffers();
+	void releaseBuildBuffers(BuildBuffers *buildBuffers);
+	void releaseClassTableMutex(ROMClassCreationContext *context);
+	void reacquireClassTableMutex(ROMClassCreationContext *context);
+	bool isClassAlreadyDefined(ClassFileOracle *classFileOracle, ROMClassCreationContext *context);
 	U_32 computeExtraModifiers(ClassFileOracle *classFileOracle, ROMClassCreationContext *context);
 	U_32 computeOptionalFlags(ClassFileOracle *classFileOracle, ROMClassCreationContext *context);
 	BuildResult prepareAndLaydown( BufferManager *bufferManager, ClassFileParser *classFileParser, ROMClassCreationContext *context );
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2001, 2014 IBM Corp. and others
+ * Copyright (c) 2001, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -156,6 +156,7 @@ ROMClassCreationContext::buildResultString(BuildResult result)
 	case UnknownAnnotation: return "UnknownAnnotation";
 	case ClassNameMismatch: return "ClassNameMismatch";
 	case InvalidAnnotation: return "InvalidAnnotation";
+	case DuplicateClass: return "DuplicateClass";
 	default: return "Unknown";
 	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2001, 2017 IBM Corp. and others
+ * Copyright (c) 2001, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -71,7 +71,9 @@ public:
 		_doDebugCompare(false),
 		_existingRomMethod(NULL),
 		_reusingIntermediateClassData(false),
-		_creatingIntermediateROMClass(false)
+		_creatingIntermediateROMClass(false),
+		_cfrErrorDeferred(false),
+		_deferredCFRError(NULL)
 	{
 	}
 
@@ -107,7 +109,9 @@ public:
 		_doDebugCompare(false),
 		_existingRomMethod(NULL),
 		_reusingIntermediateClassData(false),
-		_creatingIntermediateROMClass(false)
+		_creatingIntermediateROMClass(false),
+		_cfrErrorDeferred(false),
+		_deferredCFRError(NULL)
 	{
 	}
 
@@ -150,7 +154,9 @@ public:
 		_doDebugCompare(false),
 		_existingRomMethod(NULL),
 		_reusingIntermediateClassData(false),
-		_creatingIntermediateROMClass(creatingIntermediateROMClass)
+		_creatingIntermediateROMClass(creatingIntermediateROMClass),
+		_cfrErrorDeferred(false),
+		_deferredCFRError(NULL)
 	{
 		if ((NULL != _javaVM) && (NULL != _javaVM->dynamicLoadBuffers)) {
 			/* localBuffer should not be NULL */
@@ -391,6 +397,8 @@ public:
 	}
 
 
+	bool recordsDynamicLoadStats() const { return NULL != _dynamicLoadStats; }
+
 	void recordLoadStart()
 	{
 		Trc_BCU_buildRomClass_Entry(_classNameLength, _className);
@@ -438,11 +446,35 @@ public:
 
 	void recordCFRError(U_8 *cfrError)
 	{
-		if ((NULL != _javaVM) && (NULL != _javaVM->dynamicLoadBuffers)) {
+		if (_cfrErrorDeferred) {
+			_deferredCFRError = cfrError;
+		} else if ((NULL != _javaVM) && (NULL != _javaVM->dynamicLoadBuffers)) {
 			_javaVM->dynamicLoadBuffers->classFileError = cfrError;
 		}
 	}
 
+	/*
+	 * dynamicLoadBuffers->classFileError is protected by the class table mutex. While the class file
+	 * is parsed with the mutex released, errors are kept here until recordDeferredCFRError() is called
+	 * with the mutex held again.
+	 */
+	void deferCFRError()
+	{
+		_cfrErrorDeferred = true;
+	}
+
+	bool isCFRErrorDeferred() const { return _cfrErrorDeferred; }
+
+	void recordDeferredCFRError()
+	{
+		U_8 *cfrError = _deferredCFRError;
+		_cfrErrorDeferred = false;
+		_deferredCFRError = NULL;
+		if (NULL != cfrError) {
+			recordCFRError(cfrError);
+		}
+	}
+
 	void freeClassFileBuffer(U_8 *buffer)
 	{
 		PORT_ACCESS_FROM_PORT(_portLibrary);
@@ -450,7 +482,7 @@ public:
 		 * into _javaVM->dynamicLoadBuffers->classFileError, if the internal buffer that is free'd matches the one in
 		 * _javaVM->dynamicLoadBuffers->classFileError, then it must be set to NULL to avoid a double free in
 		 * j9bcutil_freeTranslationBuffers()*/
-		if ((NULL != _javaVM) && (NULL != _javaVM->dynamicLoadBuffers) && (buffer == _javaVM->dynamicLoadBuffers->classFileError)) {
+		if (!_cfrErrorDeferred && (NULL != _javaVM) && (NULL != _javaVM->dynamicLoadBuffers) && (buffer == _javaVM->dynamicLoadBuffers->classFileError)) {
 			_javaVM->dynamicLoadBuffers->classFileError = NULL;
 		}
 		j9mem_free_memory(buffer);
@@ -696,6 +728,8 @@ private:
 	J9ROMMethod * _existingRomMethod;
 	bool _reusingIntermediateClassData;
 	bool _creatingIntermediateROMClass;
+	bool _cfrErrorDeferred;
+	U_8 *_deferredCFRError;
 	
 	J9ROMMethod * romMethodFromOffset(IDATA offset);
 };
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 1991, 2017 IBM Corp. and others
+ * Copyright (c) 1991, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -47,6 +47,8 @@ static UDATA callDynamicLoader(J9JavaVM * vm, J9LoadROMClassData *loadData, U_8
 
 /*
  * Warning: sender must hold class table mutex before calling.
+ * If J9_FINDCLASS_FLAG_CONCURRENT_PARSE is set, the mutex is released while the class file is parsed
+ * and the ROMClass is prepared.
  */
 J9Class*
 internalDefineClass(
@@ -811,6 +813,13 @@ createROMClassFromClassFile(J9VMThread *currentThread, J9LoadROMClassData *loadD
 		case BCT_ERR_CLASS_NAME_MISMATCH:
 			exceptionNumber = J9VMCONSTANTPOOL_JAVALANGNOCLASSDEFFOUNDERROR;
 			/* FALLTHROUGH */
+
+		case BCT_ERR_DUPLICATE_CLASS:
+			if (BCT_ERR_DUPLICATE_CLASS == result) {
+				/* Another thread defined the class while the class table mutex was released */
+				exceptionNumber = J9VMCONSTANTPOOL_JAVALANGLINKAGEERROR;
+			}
+			/* FALLTHROUGH */
 			
 		default:
 			/* default value for exceptionNumber (J9VMCONSTANTPOOL_JAVALANGCLASSFORMATERROR) assigned before switch */
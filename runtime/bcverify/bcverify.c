@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 1991, 2017 IBM Corp. and others
+ * Copyright (c) 1991, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -82,6 +82,10 @@ static J9UTF8 * mergeClasses(J9BytecodeVerificationData *verifyData, U_8* firstC
 static void bcvHookClassesUnload (J9HookInterface** hook, UDATA eventNum, void* eventData, void* userData);
 static void printMethod (J9BytecodeVerificationData * verifyData);
 static IDATA simulateStack (J9BytecodeVerificationData * verifyData);
+static BOOLEAN canShareVerifyResult (J9BytecodeVerificationData *verifyData, J9Class *clazz, J9ROMClass *romClass);
+static BOOLEAN useSharedVerifyResult (J9BytecodeVerificationData *verifyData, J9ROMClass *romClass, BOOLEAN *found);
+static BOOLEAN checkVerifyDependencies (J9BytecodeVerificationData *verifyData, J9BCVSharedVerifyHeader *header, UDATA length);
+static void storeSharedVerifyResult (J9BytecodeVerificationData *verifyData, J9ROMClass *romClass);
 
 static IDATA parseOptions (J9JavaVM *vm, char *optionValues, char **errorString);
 static IDATA setVerifyState ( J9JavaVM *vm, char *option, char **errorString );
@@ -141,16 +145,19 @@ mergeClasses(J9BytecodeVerificationData *verifyData, U_8* firstClass, UDATA firs
 {
 	J9Class *sourceRAM, *targetRAM;
 	UDATA sourceDepth, targetDepth;
+	J9UTF8 *mergedName;
 
 	/* Go get the ROM class for the source and target.  Check if it returns null immediately to prevent
 	 * having to load the second class in an error case */
 	sourceRAM = j9rtv_verifierGetRAMClass( verifyData, verifyData->classLoader, firstClass, firstLength, reasonCode);
 	if (NULL == sourceRAM) {
+		discardVerifyDependencies(verifyData);
 		return NULL;
 	}
 
 	targetRAM = j9rtv_verifierGetRAMClass( verifyData, verifyData->classLoader, secondClass, secondLength, reasonCode );
 	if (NULL == targetRAM) {
+		discardVerifyDependencies(verifyData);
 		return NULL;
 	}
 	sourceRAM = J9_CURRENT_CLASS(sourceRAM);
@@ -175,12 +182,15 @@ mergeClasses(J9BytecodeVerificationData *verifyData, U_8* firstClass, UDATA firs
 		}
 		if( (sourceRAM == NULL) || (targetRAM == NULL) ) {
 			*reasonCode = BCV_FAIL;
+			discardVerifyDependencies(verifyData);
 			return NULL;
 		}
 	}
 
 	/* good, both sourceROM and targetROM are the same class -- this is the new target class */
-	return( J9ROMCLASS_CLASSNAME( targetRAM->romClass ) );
+	mergedName = J9ROMCLASS_CLASSNAME( targetRAM->romClass );
+	recordVerifyDependency(verifyData, BCV_DEPENDENCY_MERGE, firstClass, firstLength, secondClass, secondLength, J9UTF8_DATA(mergedName), J9UTF8_LENGTH(mergedName), TRUE);
+	return mergedName;
 }
 #undef SUPERCLASS
 
@@ -2330,6 +2340,11 @@ j9bcv_initializeVerificationData(J9JavaVM* javaVM)
 	verifyData->ignoreStackMaps = 0;
 	verifyData->excludeAttribute = NULL;
 	verifyData->redefinedClassesCount = 0;
+	verifyData->dependencyBuffer = NULL;
+	verifyData->dependencyBufferSize = 0;
+	verifyData->dependencyBufferUsed = 0;
+	verifyData->dependencyCount = 0;
+	verifyData->recordDependencies = FALSE;
 
 	if (BCV_ERR_INSUFFICIENT_MEMORY == allocateVerifyBuffers (PORTLIB, verifyData)) {
 		goto error_no_memory;
@@ -2351,6 +2366,153 @@ error_no_memory:
 }
 
 
+/*
+ * Answer whether the verification result of romClass can be found in, or stored in, the shared
+ * classes cache. The result depends only on the bytes of the ROMClass, the verification options
+ * and the class hierarchy checks recorded with it, so it is not shared when the verifier consults
+ * anything else: protected member access checks, classes being redefined, or verbose output.
+ */
+static BOOLEAN
+canShareVerifyResult(J9BytecodeVerificationData *verifyData, J9Class *clazz, J9ROMClass *romClass)
+{
+	J9JavaVM *vm = verifyData->javaVM;
+	J9SharedClassConfig *config = vm->sharedClassConfig;
+
+	return (NULL != config)
+		&& (NULL != config->findAttachedData)
+		&& (NULL != clazz)
+		&& (clazz->romClass == romClass)
+		&& verifyData->romClassInSharedClasses
+		&& (0 == verifyData->redefinedClassesCount)
+		&& J9_ARE_NO_BITS_SET(verifyData->verificationFlags, J9_VERIFY_VERBOSE_VERIFICATION | J9_VERIFY_DO_PROTECTED_ACCESS_CHECK)
+		&& J9_ARE_NO_BITS_SET(vm->runtimeFlags, J9RuntimeFlagXfuture);
+}
+
+
+/*
+ * Look for a verification result stored with romClass in the shared classes cache, and answer
+ * TRUE if it was made with the current verification options and every class hierarchy check
+ * it depends on still gives the same answer through the current class loader.
+ * found is set if a result is stored, whether or not it can be used.
+ */
+static BOOLEAN
+useSharedVerifyResult(J9BytecodeVerificationData *verifyData, J9ROMClass *romClass, BOOLEAN *found)
+{
+	J9SharedClassConfig *config = verifyData->javaVM->sharedClassConfig;
+	J9SharedDataDescriptor data;
+	IDATA corruptOffset = -1;
+	const U_8 *stored;
+	BOOLEAN valid = FALSE;
+	PORT_ACCESS_FROM_PORT(verifyData->portLib);
+
+	data.address = NULL;
+	data.length = 0;
+	data.type = J9SHR_ATTACHED_DATA_TYPE_VERIFY;
+	data.flags = J9SHR_ATTACHED_DATA_NO_FLAGS;
+	stored = config->findAttachedData(verifyData->vmStruct, romClass, &data, &corruptOffset);
+
+	/* a corrupt result allocates a buffer but is not returned */
+	*found = (NULL != data.address);
+	if (((UDATA) stored > J9SHR_RESOURCE_MAX_ERROR_VALUE) && (data.length >= sizeof(J9BCVSharedVerifyHeader))) {
+		J9BCVSharedVerifyHeader *header = (J9BCVSharedVerifyHeader *) data.address;
+
+		if (header->verificationFlags == (U_32) verifyData->verificationFlags) {
+			valid = checkVerifyDependencies(verifyData, header, data.length);
+		}
+	}
+	j9mem_free_memory(data.address);
+
+	return valid;
+}
+
+
+/*
+ * Repeat the class hierarchy checks recorded in a stored verification result, and answer TRUE
+ * if all of them give the recorded answer. The checks load classes just as verifying the class
+ * would, and any failure to load one means the result cannot be used.
+ */
+static BOOLEAN
+checkVerifyDependencies(J9BytecodeVerificationData *verifyData, J9BCVSharedVerifyHeader *header, UDATA length)
+{
+	U_8 *cursor = (U_8 *) (header + 1);
+	U_8 *end = ((U_8 *) header) + length;
+	U_32 i;
+
+	for (i = 0; i < header->dependencyCount; i++) {
+		J9BCVVerifyDependency *dependency = (J9BCVVerifyDependency *) cursor;
+		U_8 *name;
+		U_8 *secondName;
+		IDATA reasonCode = 0;
+		UDATA result = FALSE;
+
+		if (((cursor + sizeof(J9BCVVerifyDependency)) > end) || ((cursor + BCV_DEPENDENCY_SIZE(dependency)) > end)) {
+			return FALSE;
+		}
+		name = BCV_DEPENDENCY_NAME(dependency);
+		secondName = BCV_DEPENDENCY_SECOND_NAME(dependency);
+
+		switch (dependency->type) {
+		case BCV_DEPENDENCY_IS_INTERFACE:
+			result = (UDATA) isInterfaceClass(verifyData, name, dependency->nameLength, &reasonCode);
+			break;
+		case BCV_DEPENDENCY_IS_ASSIGNABLE:
+			result = (UDATA) isRAMClassCompatible(verifyData, name, dependency->nameLength, secondName, dependency->secondNameLength, &reasonCode);
+			break;
+		case BCV_DEPENDENCY_MERGE: {
+			J9UTF8 *mergedName = mergeClasses(verifyData, name, dependency->nameLength, secondName, dependency->secondNameLength, &reasonCode);
+
+			result = (NULL != mergedName)
+				&& J9UTF8_DATA_EQUALS(J9UTF8_DATA(mergedName), J9UTF8_LENGTH(mergedName), BCV_DEPENDENCY_RESULT_NAME(dependency), dependency->resultNameLength);
+			break;
+		}
+		default:
+			return FALSE;
+		}
+
+		if ((0 != reasonCode) || (NULL != verifyData->vmStruct->currentException) || ((0 != result) != (0 != dependency->result))) {
+			return FALSE;
+		}
+		cursor += BCV_DEPENDENCY_SIZE(dependency);
+	}
+
+	return TRUE;
+}
+
+
+/*
+ * Store the class hierarchy checks recorded while verifying romClass in the shared classes
+ * cache, keyed by romClass, so that a later JVM can skip verifying the class.
+ */
+static void
+storeSharedVerifyResult(J9BytecodeVerificationData *verifyData, J9ROMClass *romClass)
+{
+	J9SharedClassConfig *config = verifyData->javaVM->sharedClassConfig;
+	J9BCVSharedVerifyHeader noDependencies;
+	J9BCVSharedVerifyHeader *header = &noDependencies;
+	J9SharedDataDescriptor data;
+	UDATA rc;
+
+	data.length = sizeof(J9BCVSharedVerifyHeader);
+	if (NULL != verifyData->dependencyBuffer) {
+		header = (J9BCVSharedVerifyHeader *) verifyData->dependencyBuffer;
+		data.length = verifyData->dependencyBufferUsed;
+	}
+	header->verificationFlags = (U_32) verifyData->verificationFlags;
+	header->dependencyCount = (U_32) verifyData->dependencyCount;
+
+	data.address = (U_8 *) header;
+	data.type = J9SHR_ATTACHED_DATA_TYPE_VERIFY;
+	data.flags = J9SHR_ATTACHED_DATA_NO_FLAGS;
+	rc = config->storeAttachedData(verifyData->vmStruct, romClass, &data, FALSE);
+
+	Trc_BCV_j9bcv_verifyBytecodes_SharedResultStored(verifyData->vmStruct,
+			(UDATA) J9UTF8_LENGTH(J9ROMCLASS_CLASSNAME(romClass)),
+			J9UTF8_DATA(J9ROMCLASS_CLASSNAME(romClass)),
+			header->dependencyCount,
+			rc);
+}
+
+
 
 #define ALLOC_BUFFER(name, needed) \
 	if (needed > name##Size) { \
@@ -2394,6 +2556,7 @@ j9bcv_verifyBytecodes (J9PortLibrary * portLib, J9Class * clazz, J9ROMClass * ro
 	BOOLEAN classVersionRequiresStackmaps = romClass->majorVersion >= CFR_MAJOR_VERSION_REQUIRING_STACKMAPS;
 	BOOLEAN newFormat = (classVersionRequiresStackmaps || hasStackMaps);
 	BOOLEAN verboseVerification = (J9_VERIFY_VERBOSE_VERIFICATION == (verifyData->verificationFlags & J9_VERIFY_VERBOSE_VERIFICATION));
+	J9SharedClassConfig *sharedClassConfig = verifyData->javaVM->sharedClassConfig;
 
 	PORT_ACCESS_FROM_PORT(portLib);
 	
@@ -2420,6 +2583,36 @@ j9bcv_verifyBytecodes (J9PortLibrary * portLib, J9Class * clazz, J9ROMClass * ro
 		ALWAYS_TRIGGER_J9HOOK_VM_CLASS_VERIFICATION_START(verifyData->javaVM->hookInterface, verifyData, newFormat);
 	}
 
+	/* Class hierarchy checks are recorded per class; a nested verification made while loading a class starts its own list */
+	verifyData->recordDependencies = FALSE;
+	verifyData->dependencyBuffer = NULL;
+	verifyData->dependencyBufferSize = 0;
+	verifyData->dependencyBufferUsed = 0;
+	verifyData->dependencyCount = 0;
+
+	if (canShareVerifyResult(verifyData, clazz, romClass)) {
+		BOOLEAN found = FALSE;
+
+		if (useSharedVerifyResult(verifyData, romClass, &found)) {
+			Trc_BCV_j9bcv_verifyBytecodes_SharedResultUsed(verifyData->vmStruct,
+					(UDATA) J9UTF8_LENGTH(J9ROMCLASS_CLASSNAME(romClass)),
+					J9UTF8_DATA(J9ROMCLASS_CLASSNAME(romClass)));
+			sharedClassConfig->verifySkippedClassCount += 1;
+			goto _checkConstraints;
+		}
+		if (found) {
+			Trc_BCV_j9bcv_verifyBytecodes_SharedResultInvalid(verifyData->vmStruct,
+					(UDATA) J9UTF8_LENGTH(J9ROMCLASS_CLASSNAME(romClass)),
+					J9UTF8_DATA(J9ROMCLASS_CLASSNAME(romClass)));
+		}
+		/* A stored result that no longer holds is not replaced, as other class loaders may still use it */
+		verifyData->recordDependencies = !found
+				&& J9_ARE_NO_BITS_SET(sharedClassConfig->runtimeFlags, J9SHR_RUNTIMEFLAG_ENABLE_READONLY | J9SHR_RUNTIMEFLAG_DENY_CACHE_UPDATES);
+	}
+	if (NULL != sharedClassConfig) {
+		sharedClassConfig->verifiedClassCount += 1;
+	}
+
 	/* For each method in the class */
 	for (i = 0; i < (UDATA) romClass->romMethodCount; i++) {
 
@@ -2616,6 +2809,7 @@ _fallBack:
 		romMethod = J9_NEXT_ROM_METHOD(romMethod);
 	}
 	
+_checkConstraints:
 	if (clazz && (result == BCV_SUCCESS)) {
 		verifyData->romMethod = checkAllClassLoadingConstraints (verifyData, clazz);
 		if (verifyData->romMethod) {
@@ -2627,6 +2821,16 @@ _fallBack:
 
 
 _done:
+	if (verifyData->recordDependencies && (BCV_SUCCESS == result) && (NULL == verifyData->vmStruct->currentException)) {
+		storeSharedVerifyResult(verifyData, romClass);
+	}
+	verifyData->recordDependencies = FALSE;
+	j9mem_free_memory(verifyData->dependencyBuffer);
+	verifyData->dependencyBuffer = NULL;
+	verifyData->dependencyBufferSize = 0;
+	verifyData->dependencyBufferUsed = 0;
+	verifyData->dependencyCount = 0;
+
 	verifyData->vmStruct->omrVMThread->vmState = oldState;
 	if (result == BCV_ERR_INSUFFICIENT_MEMORY) {
 		Trc_BCV_j9bcv_verifyBytecodes_OutOfMemory(verifyData->vmStruct, 
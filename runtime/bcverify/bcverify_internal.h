@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 1991, 2015 IBM Corp. and others
+ * Copyright (c) 1991, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -40,6 +40,74 @@
 extern "C" {
 #endif
 
+/* Kinds of class hierarchy check recorded while verifying a class */
+#define BCV_DEPENDENCY_IS_INTERFACE 1
+#define BCV_DEPENDENCY_IS_ASSIGNABLE 2
+#define BCV_DEPENDENCY_MERGE 3
+
+/* Upper bound on the checks recorded for one class, beyond which no result is stored */
+#define BCV_DEPENDENCY_BUFFER_MAX_SIZE (16 * 1024)
+
+/**
+ * Header of the verification result stored with a ROMClass in the shared classes cache.
+ * It is followed by dependencyCount J9BCVVerifyDependency records.
+ */
+typedef struct J9BCVSharedVerifyHeader {
+	U_32 verificationFlags;
+	U_32 dependencyCount;
+} J9BCVSharedVerifyHeader;
+
+/**
+ * A class hierarchy check made while verifying a class and its answer. The class names the
+ * check was made on follow the structure: name, then secondName, then the name of the merged
+ * class for a BCV_DEPENDENCY_MERGE.
+ */
+typedef struct J9BCVVerifyDependency {
+	U_8 type;
+	U_8 result;
+	U_16 nameLength;
+	U_16 secondNameLength;
+	U_16 resultNameLength;
+} J9BCVVerifyDependency;
+
+#define BCV_DEPENDENCY_NAME(dependency) ((U_8 *)((dependency) + 1))
+#define BCV_DEPENDENCY_SECOND_NAME(dependency) (BCV_DEPENDENCY_NAME(dependency) + (dependency)->nameLength)
+#define BCV_DEPENDENCY_RESULT_NAME(dependency) (BCV_DEPENDENCY_SECOND_NAME(dependency) + (dependency)->secondNameLength)
+#define BCV_DEPENDENCY_SIZE(dependency) ROUND_UP_TO_POWEROF2(sizeof(J9BCVVerifyDependency) + (dependency)->nameLength + (dependency)->secondNameLength + (dependency)->resultNameLength, sizeof(U_16))
+
+/**
+ * Record a class hierarchy check made while verifying the current class, so that a later JVM
+ * can confirm the check still holds before reusing the verification result stored in the
+ * shared classes cache. Does nothing unless verifyData->recordDependencies is set.
+ * @param verifyData - pointer to J9BytecodeVerificationData
+ * @param type - one of the BCV_DEPENDENCY_* kinds
+ * @param name, nameLength - the first class the check was made on
+ * @param secondName, secondNameLength - the second class the check was made on, or NULL
+ * @param resultName, resultNameLength - the class a merge answered, or NULL
+ * @param result - the answer of the check
+ */
+void
+recordVerifyDependency(J9BytecodeVerificationData *verifyData, UDATA type, U_8 *name, UDATA nameLength, U_8 *secondName, UDATA secondNameLength, U_8 *resultName, UDATA resultNameLength, UDATA result);
+
+/**
+ * Stop recording the class hierarchy checks of the current class, so that no verification
+ * result is stored for it.
+ * @param verifyData - pointer to J9BytecodeVerificationData
+ */
+void
+discardVerifyDependencies(J9BytecodeVerificationData *verifyData);
+
+/**
+ * Answer whether parentClass is the same as or a superclass of childClass, or an interface.
+ * @param verifyData - pointer to J9BytecodeVerificationData
+ * @param parentClass, parentLength - the name of the parent class
+ * @param childClass, childLength - the name of the child class
+ * @param reasonCode - set to BCV_ERR_INSUFFICIENT_MEMORY on OOM
+ * @return TRUE if the classes are compatible, FALSE otherwise
+ */
+IDATA
+isRAMClassCompatible(J9BytecodeVerificationData *verifyData, U_8* parentClass, UDATA parentLength, U_8* childClass, UDATA childLength, IDATA *reasonCode);
+
 /**
  * Store verification failure info to the J9BytecodeVerificationData
  * structure for outputting detailed error message.
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 1991, 2017 IBM Corp. and others
+ * Copyright (c) 1991, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -47,7 +47,6 @@ static void getNameAndLengthFromClassNameList (J9BytecodeVerificationData *verif
 static IDATA findFieldFromRamClass (J9Class ** ramClass, J9ROMFieldRef * field, UDATA firstSearch);
 static IDATA findMethodFromRamClass (J9BytecodeVerificationData * verifyData, J9Class ** ramClass, J9ROMNameAndSignature * method, UDATA firstSearch);
 static VMINLINE UDATA * pushType (J9BytecodeVerificationData *verifyData, U_8 * signature, UDATA * stackTop);
-static IDATA isRAMClassCompatible(J9BytecodeVerificationData *verifyData, U_8* parentClass, UDATA parentLength, U_8* childClass, UDATA childLength, IDATA *reasonCode);
 
 J9_DECLARE_CONSTANT_UTF8(j9_vrfy_Object, "java/lang/Object");
 J9_DECLARE_CONSTANT_UTF8(j9_vrfy_String, "java/lang/String");
@@ -576,29 +575,35 @@ isClassCompatible(J9BytecodeVerificationData *verifyData, UDATA sourceClass, UDA
 
 
 */
-static IDATA
+IDATA
 isRAMClassCompatible(J9BytecodeVerificationData *verifyData, U_8* parentClass, UDATA parentLength, U_8* childClass, UDATA childLength, IDATA *reasonCode)
 {
 	J9Class *sourceRAMClass, *targetRAMClass;
+	IDATA rc;
 
 	/* Go get the ROM class for the source and target */
 	targetRAMClass = j9rtv_verifierGetRAMClass( verifyData, verifyData->classLoader, parentClass, parentLength, reasonCode );
 	if (NULL == targetRAMClass) {
+		discardVerifyDependencies(verifyData);
 		return FALSE;
 	}
 
 	/* if the target is an interface, be permissive */
 	if( targetRAMClass->romClass->modifiers & J9AccInterface ) {
+		recordVerifyDependency(verifyData, BCV_DEPENDENCY_IS_ASSIGNABLE, parentClass, parentLength, childClass, childLength, NULL, 0, TRUE);
 		return (IDATA) TRUE;
 	}
 
 	sourceRAMClass = j9rtv_verifierGetRAMClass( verifyData, verifyData->classLoader, childClass, childLength, reasonCode );
 	if (NULL == sourceRAMClass) {
+		discardVerifyDependencies(verifyData);
 		return FALSE;
 	}
 
 	targetRAMClass = J9_CURRENT_CLASS(targetRAMClass);
-	return isSameOrSuperClassOf( targetRAMClass, sourceRAMClass );
+	rc = (IDATA) isSameOrSuperClassOf( targetRAMClass, sourceRAMClass );
+	recordVerifyDependency(verifyData, BCV_DEPENDENCY_IS_ASSIGNABLE, parentClass, parentLength, childClass, childLength, NULL, 0, (UDATA) rc);
+	return rc;
 }
 
 
@@ -623,18 +628,97 @@ isInterfaceClass(J9BytecodeVerificationData * verifyData, U_8* className, UDATA
 
 	ramClass = j9rtv_verifierGetRAMClass(verifyData, verifyData->classLoader, className, classLength, reasonCode);
 	if (NULL == ramClass) {
+		discardVerifyDependencies(verifyData);
 		return FALSE;
 	}
 
 	/* if the target is an interface, be permissive */
 	if (ramClass->romClass->modifiers & J9AccInterface) {
+		recordVerifyDependency(verifyData, BCV_DEPENDENCY_IS_INTERFACE, className, classLength, NULL, 0, NULL, 0, TRUE);
 		return TRUE;
 	}
 
+	recordVerifyDependency(verifyData, BCV_DEPENDENCY_IS_INTERFACE, className, classLength, NULL, 0, NULL, 0, FALSE);
 	return FALSE;
 }
 
 
+void
+recordVerifyDependency(J9BytecodeVerificationData *verifyData, UDATA type, U_8 *name, UDATA nameLength, U_8 *secondName, UDATA secondNameLength, U_8 *resultName, UDATA resultNameLength, UDATA result)
+{
+	J9BCVVerifyDependency *dependency;
+	U_8 *cursor;
+	UDATA size;
+	UDATA used;
+	PORT_ACCESS_FROM_PORT(verifyData->portLib);
+
+	if (!verifyData->recordDependencies) {
+		return;
+	}
+
+	/* the header of the stored result is kept at the start of the buffer */
+	used = verifyData->dependencyBufferUsed;
+	if (0 == used) {
+		used = sizeof(J9BCVSharedVerifyHeader);
+	}
+	size = ROUND_UP_TO_POWEROF2(sizeof(J9BCVVerifyDependency) + nameLength + secondNameLength + resultNameLength, sizeof(U_16));
+	if ((used + size) > BCV_DEPENDENCY_BUFFER_MAX_SIZE) {
+		discardVerifyDependencies(verifyData);
+		return;
+	}
+	if ((used + size) > verifyData->dependencyBufferSize) {
+		UDATA newSize = verifyData->dependencyBufferSize * 2;
+		U_8 *newBuffer;
+
+		if (newSize < 1024) {
+			newSize = 1024;
+		}
+		if (newSize > BCV_DEPENDENCY_BUFFER_MAX_SIZE) {
+			newSize = BCV_DEPENDENCY_BUFFER_MAX_SIZE;
+		}
+		newBuffer = j9mem_reallocate_memory(verifyData->dependencyBuffer, newSize, J9MEM_CATEGORY_CLASSES);
+		if (NULL == newBuffer) {
+			discardVerifyDependencies(verifyData);
+			return;
+		}
+		verifyData->dependencyBuffer = newBuffer;
+		verifyData->dependencyBufferSize = newSize;
+	}
+
+	/* build the record past the end of the recorded ones, and keep it only if it is new */
+	dependency = (J9BCVVerifyDependency *) (verifyData->dependencyBuffer + used);
+	memset(dependency, 0, size);
+	dependency->type = (U_8) type;
+	dependency->result = (U_8) ((0 != result) ? TRUE : FALSE);
+	dependency->nameLength = (U_16) nameLength;
+	dependency->secondNameLength = (U_16) secondNameLength;
+	dependency->resultNameLength = (U_16) resultNameLength;
+	memcpy(BCV_DEPENDENCY_NAME(dependency), name, nameLength);
+	if (0 != secondNameLength) {
+		memcpy(BCV_DEPENDENCY_SECOND_NAME(dependency), secondName, secondNameLength);
+	}
+	if (0 != resultNameLength) {
+		memcpy(BCV_DEPENDENCY_RESULT_NAME(dependency), resultName, resultNameLength);
+	}
+
+	for (cursor = verifyData->dependencyBuffer + sizeof(J9BCVSharedVerifyHeader); cursor < (U_8 *) dependency; cursor += BCV_DEPENDENCY_SIZE((J9BCVVerifyDependency *) cursor)) {
+		if ((BCV_DEPENDENCY_SIZE((J9BCVVerifyDependency *) cursor) == size) && (0 == memcmp(cursor, dependency, size))) {
+			return;
+		}
+	}
+
+	verifyData->dependencyBufferUsed = used + size;
+	verifyData->dependencyCount += 1;
+}
+
+
+void
+discardVerifyDependencies(J9BytecodeVerificationData *verifyData)
+{
+	verifyData->recordDependencies = FALSE;
+}
+
+
 static UDATA *
 pushType(J9BytecodeVerificationData *verifyData, U_8 * signature, UDATA * stackTop)
 {
@@ -1,6 +1,6 @@
 
 /*******************************************************************************
- * Copyright (c) 1991, 2017 IBM Corp. and others
+ * Copyright (c) 1991, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -57,6 +57,7 @@ class MM_HeapMap;
 class MM_MemorySubSpace;
 class MM_ObjectAccessBarrier;
 class MM_OwnableSynchronizerObjectList;
+class MM_StringDeduplication;
 class MM_StringTable;
 class MM_UnfinalizedObjectList;
 class MM_Wildcard;
@@ -182,6 +183,11 @@ public:
 #if defined(J9VM_GC_IDLE_HEAP_MANAGER)
 	MM_IdleGCManager* idleGCManager; /**< Manager which registers for VM Runtime State notification & manages free heap on notification */
 #endif
+
+	MM_StringDeduplication* stringDeduplication; /**< Queues aged Strings found by the scavenger or copy-forward and shares their value arrays from a background thread (NULL if disabled) */
+	bool stringDeduplicationEnabled; /**< true if -Xgc:stringDeduplication was specified */
+	UDATA stringDeduplicationAge; /**< Age at which a surviving String is queued for deduplication */
+	UDATA stringDeduplicationQueueSize; /**< Number of Strings that can be queued for deduplication between collections (further candidates are dropped) */
 protected:
 private:
 protected:
@@ -297,6 +303,10 @@ public:
 #if defined(J9VM_GC_IDLE_HEAP_MANAGER)
 		, idleGCManager(NULL)
 #endif
+		, stringDeduplication(NULL)
+		, stringDeduplicationEnabled(false)
+		, stringDeduplicationAge(3)
+		, stringDeduplicationQueueSize(64 * 1024)
 	{
 		_typeId = __FUNCTION__;
 	}
@@ -1,6 +1,6 @@
 
 /*******************************************************************************
- * Copyright (c) 1991, 2016 IBM Corp. and others
+ * Copyright (c) 1991, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -716,7 +716,7 @@ MM_RootScanner::scanOwnableSynchronizerObjects(MM_EnvironmentBase *env)
 }
 
 /**
- * Scan the per-thread object monitor lookup caches.
+ * Scan the per-thread object monitor lookup caches and the lookup caches of the monitor tables.
  * Note that this is not a root since the cache contains monitors from the global monitor table
  * which will be scanned by scanMonitorReferences. It should be scanned first, however, since
  * scanMonitorReferences may destroy monitors that appear in caches.
@@ -739,6 +739,17 @@ MM_RootScanner::scanMonitorLookupCaches(MM_EnvironmentBase *env)
 #endif /* J9VM_THR_LOCK_NURSERY */
 		}
 	}
+
+	/* the lookup caches shared by all threads hold monitors from the same tables */
+	J9JavaVM *javaVM = static_cast<J9JavaVM*>(_omrVM->_language_vm);
+	for (UDATA tableIndex = 0; tableIndex < javaVM->monitorTableCount; tableIndex++) {
+		if (_singleThread || J9MODRON_HANDLE_NEXT_WORK_UNIT(env)) {
+			j9objectmonitor_t *lookupCache = javaVM->monitorTableLocks[tableIndex].lookupCache;
+			for (UDATA cacheIndex = 0; cacheIndex < J9VM_MONITOR_TABLE_LOOKUP_CACHE_SIZE; cacheIndex++) {
+				doMonitorLookupCacheSlot(&lookupCache[cacheIndex]);
+			}
+		}
+	}
 	reportScanningEnded(RootScannerEntity_MonitorLookupCaches);
 }
 
@@ -0,0 +1,449 @@
+/*******************************************************************************
+ * Copyright (c) 2018, 2018 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *******************************************************************************/
+
+#include "hashtable_api.h"
+#include "j9consts.h"
+#include "j9protos.h"
+#include "objhelp.h"
+#include "ModronAssertions.h"
+
+#include "AtomicOperations.hpp"
+#include "EnvironmentBase.hpp"
+#include "GCExtensions.hpp"
+#include "ObjectModel.hpp"
+#if defined(J9VM_GC_MODRON_SCAVENGER)
+#include "Scavenger.hpp"
+#endif /* J9VM_GC_MODRON_SCAVENGER */
+#include "StringDeduplication.hpp"
+
+/**
+ * An entry of the canonical array table. Entries stored in the table only hold a weak reference to
+ * their array; the array field is used by lookups, whose array is not (yet) in the table.
+ */
+typedef struct StringDeduplicationEntry {
+	UDATA hash; /**< hash of the array contents */
+	jobject value; /**< weak global reference to the canonical array, NULL for lookups */
+	j9object_t array; /**< the array being looked up, NULL for table entries */
+} StringDeduplicationEntry;
+
+extern "C" {
+
+static UDATA
+entryHashFn(void *key, void *userData)
+{
+	return ((StringDeduplicationEntry *)key)->hash;
+}
+
+static j9object_t
+entryArray(StringDeduplicationEntry *entry)
+{
+	if (NULL != entry->array) {
+		return entry->array;
+	}
+	/* a cleared canonical array never matches, and is pruned after the collection which cleared it */
+	return J9_JNI_UNWRAP_REFERENCE(entry->value);
+}
+
+static UDATA
+entryEqualFn(void *leftKey, void *rightKey, void *userData)
+{
+	MM_GCExtensions *extensions = (MM_GCExtensions *)userData;
+	StringDeduplicationEntry *leftEntry = (StringDeduplicationEntry *)leftKey;
+	StringDeduplicationEntry *rightEntry = (StringDeduplicationEntry *)rightKey;
+
+	if (leftEntry->hash != rightEntry->hash) {
+		return FALSE;
+	}
+
+	J9IndexableObject *left = (J9IndexableObject *)entryArray(leftEntry);
+	J9IndexableObject *right = (J9IndexableObject *)entryArray(rightEntry);
+	if ((NULL == left) || (NULL == right)) {
+		return FALSE;
+	}
+	if (left == right) {
+		return TRUE;
+	}
+	if (J9GC_J9OBJECT_CLAZZ(left) != J9GC_J9OBJECT_CLAZZ(right)) {
+		return FALSE;
+	}
+	UDATA size = extensions->indexableObjectModel.getDataSizeInBytes(left);
+	if (size != extensions->indexableObjectModel.getDataSizeInBytes(right)) {
+		return FALSE;
+	}
+	/* only contiguous arrays are ever added to or looked up in the table */
+	return 0 == memcmp(extensions->indexableObjectModel.getDataPointerForContiguous(left), extensions->indexableObjectModel.getDataPointerForContiguous(right), size);
+}
+
+} /* extern "C" */
+
+MM_StringDeduplication *
+MM_StringDeduplication::newInstance(MM_EnvironmentBase *env)
+{
+	MM_StringDeduplication *stringDeduplication = (MM_StringDeduplication *)env->getForge()->allocate(sizeof(MM_StringDeduplication), MM_AllocationCategory::FIXED, J9_GET_CALLSITE());
+	if (NULL != stringDeduplication) {
+		new(stringDeduplication) MM_StringDeduplication(env);
+		if (!stringDeduplication->initialize(env)) {
+			stringDeduplication->kill(env);
+			return NULL;
+		}
+	}
+	return stringDeduplication;
+}
+
+bool
+MM_StringDeduplication::initialize(MM_EnvironmentBase *env)
+{
+	_extensions = MM_GCExtensions::getExtensions(env);
+	_javaVM = _extensions->getJavaVM();
+	PORT_ACCESS_FROM_JAVAVM(_javaVM);
+
+	_queueSize = _extensions->stringDeduplicationQueueSize;
+	_queue = (j9object_t *)env->getForge()->allocate(sizeof(j9object_t) * _queueSize, MM_AllocationCategory::FIXED, J9_GET_CALLSITE());
+	if (NULL == _queue) {
+		return false;
+	}
+
+	_table = hashTableNew(OMRPORT_FROM_J9PORT(PORTLIB), J9_GET_CALLSITE(), 1024, sizeof(StringDeduplicationEntry), 0, 0, OMRMEM_CATEGORY_MM, entryHashFn, entryEqualFn, NULL, _extensions);
+	if (NULL == _table) {
+		return false;
+	}
+
+	if (0 != omrthread_monitor_init_with_name(&_mutex, 0, "GC string deduplication")) {
+		return false;
+	}
+
+	return true;
+}
+
+void
+MM_StringDeduplication::tearDown(MM_EnvironmentBase *env)
+{
+	if (NULL != _queue) {
+		env->getForge()->free(_queue);
+		_queue = NULL;
+	}
+
+	/* the weak references in the table belong to the VM and are released with it */
+	if (NULL != _table) {
+		hashTableFree(_table);
+		_table = NULL;
+	}
+
+	if (NULL != _mutex) {
+		omrthread_monitor_destroy(_mutex);
+		_mutex = NULL;
+	}
+}
+
+void
+MM_StringDeduplication::kill(MM_EnvironmentBase *env)
+{
+	tearDown(env);
+	env->getForge()->free(this);
+}
+
+UDATA
+MM_StringDeduplication::signalProtectedFunction(J9PortLibrary *privatePortLibrary, void *userData)
+{
+	MM_StringDeduplication *stringDeduplication = (MM_StringDeduplication *)userData;
+	J9JavaVM *javaVM = stringDeduplication->_javaVM;
+	J9VMThread *vmThread = NULL;
+
+	if (JNI_OK != javaVM->internalVMFunctions->attachSystemDaemonThread(javaVM, &vmThread, "String Deduplication")) {
+		return 0;
+	}
+
+	stringDeduplication->run(MM_EnvironmentBase::getEnvironment(vmThread->omrVMThread));
+
+	javaVM->internalVMFunctions->DetachCurrentThread((JavaVM *)javaVM);
+
+	return 0;
+}
+
+/**
+ * C entrypoint for the deduplication thread.
+ */
+int J9THREAD_PROC
+MM_StringDeduplication::deduplicationThreadWrapper(void *userData)
+{
+	MM_StringDeduplication *stringDeduplication = (MM_StringDeduplication *)userData;
+	J9JavaVM *javaVM = stringDeduplication->_javaVM;
+	PORT_ACCESS_FROM_JAVAVM(javaVM);
+	UDATA rc = 0;
+
+	j9sig_protect(MM_StringDeduplication::signalProtectedFunction, userData,
+		javaVM->internalVMFunctions->structuredSignalHandlerVM, javaVM,
+		J9PORT_SIG_FLAG_SIGALLSYNC | J9PORT_SIG_FLAG_MAY_CONTINUE_EXECUTION,
+		&rc);
+
+	omrthread_monitor_enter(stringDeduplication->_mutex);
+	stringDeduplication->_threadState = THREAD_SHUTDOWN;
+	omrthread_monitor_notify_all(stringDeduplication->_mutex);
+	omrthread_exit(stringDeduplication->_mutex);
+
+	return 0;
+}
+
+bool
+MM_StringDeduplication::startThread(MM_EnvironmentBase *env)
+{
+	if (0 != _javaVM->internalVMFunctions->createThreadWithCategory(
+				&_thread,
+				64 * 1024,
+				J9THREAD_PRIORITY_NORMAL,
+				0,
+				MM_StringDeduplication::deduplicationThreadWrapper,
+				this,
+				J9THREAD_CATEGORY_SYSTEM_GC_THREAD)) {
+		return false;
+	}
+
+	omrthread_monitor_enter(_mutex);
+	while (THREAD_INACTIVE == _threadState) {
+		omrthread_monitor_wait(_mutex);
+	}
+	bool result = (THREAD_ACTIVE == _threadState);
+	omrthread_monitor_exit(_mutex);
+
+	return result;
+}
+
+void
+MM_StringDeduplication::stopThread(MM_EnvironmentBase *env)
+{
+	omrthread_monitor_enter(_mutex);
+	_shutdown = true;
+	omrthread_monitor_notify_all(_mutex);
+	while (THREAD_ACTIVE == _threadState) {
+		omrthread_monitor_wait(_mutex);
+	}
+	omrthread_monitor_exit(_mutex);
+}
+
+/**
+ * C++ entrypoint for the deduplication thread.
+ * The thread never acquires VM access while it owns _mutex, so a collection can always
+ * discard or notify candidates while the thread is waiting for VM access.
+ */
+void
+MM_StringDeduplication::run(MM_EnvironmentBase *env)
+{
+	J9VMThread *vmThread = (J9VMThread *)env->getLanguageVMThread();
+
+	omrthread_monitor_enter(_mutex);
+	_threadState = THREAD_ACTIVE;
+	omrthread_monitor_notify_all(_mutex);
+
+	while (!_shutdown) {
+		if (hasCandidates() || _pruneRequired) {
+			omrthread_monitor_exit(_mutex);
+
+			/* queued objects can only be dereferenced while holding VM access, which keeps them from moving */
+			_javaVM->internalVMFunctions->internalAcquireVMAccess(vmThread);
+			if (_pruneRequired) {
+				pruneTable(vmThread);
+			}
+			processCandidates(vmThread);
+			_javaVM->internalVMFunctions->internalReleaseVMAccess(vmThread);
+
+			omrthread_monitor_enter(_mutex);
+		} else {
+			omrthread_monitor_wait(_mutex);
+		}
+	}
+
+	omrthread_monitor_exit(_mutex);
+}
+
+void
+MM_StringDeduplication::enqueue(j9object_t string)
+{
+	UDATA index = MM_AtomicOperations::add(&_queueTop, 1) - 1;
+	if (index < _queueSize) {
+		_queue[index] = string;
+	}
+}
+
+#if defined(J9VM_GC_MODRON_SCAVENGER)
+void
+MM_StringDeduplication::scavengerCopiedObject(MM_EnvironmentBase *env, j9object_t objectPtr)
+{
+	if (J9GC_J9OBJECT_CLAZZ(objectPtr) == J9VMJAVALANGSTRING_OR_NULL(_javaVM)) {
+		/* Strings tenured before reaching the deduplication age are queued as they are tenured */
+		if (!_extensions->scavenger->isObjectInNewSpace(objectPtr)
+			|| (_extensions->stringDeduplicationAge == _extensions->objectModel.getObjectAge(objectPtr))
+		) {
+			enqueue(objectPtr);
+		}
+	}
+}
+#endif /* J9VM_GC_MODRON_SCAVENGER */
+
+#if defined(J9VM_GC_VLHGC)
+void
+MM_StringDeduplication::copyForwardCopiedObject(MM_EnvironmentBase *env, j9object_t objectPtr, UDATA sourceAge, UDATA destinationAge)
+{
+	if (J9GC_J9OBJECT_CLAZZ(objectPtr) == J9VMJAVALANGSTRING_OR_NULL(_javaVM)) {
+		/* region ages saturate at tarokRegionMaxAge, so a larger deduplication age means "oldest" */
+		UDATA age = OMR_MIN(_extensions->stringDeduplicationAge, _extensions->tarokRegionMaxAge);
+		if ((sourceAge < age) && (age <= destinationAge)) {
+			enqueue(objectPtr);
+		}
+	}
+}
+#endif /* J9VM_GC_VLHGC */
+
+void
+MM_StringDeduplication::discardCandidates(MM_EnvironmentBase *env)
+{
+	omrthread_monitor_enter(_mutex);
+	if (_queueTop > _queueNext) {
+		_stringsDropped += _queueTop - _queueNext;
+	}
+	_queueTop = 0;
+	_queueNext = 0;
+	_pruneRequired = true;
+	omrthread_monitor_exit(_mutex);
+}
+
+void
+MM_StringDeduplication::notifyCandidates(MM_EnvironmentBase *env)
+{
+	omrthread_monitor_enter(_mutex);
+	if (_queueTop > _queueSize) {
+		/* the candidates which did not fit will never be processed */
+		_stringsDropped += _queueTop - _queueSize;
+		_queueTop = _queueSize;
+	}
+	if (hasCandidates()) {
+		omrthread_monitor_notify_all(_mutex);
+	}
+	omrthread_monitor_exit(_mutex);
+}
+
+void
+MM_StringDeduplication::getStatistics(U_64 *stringsProcessed, U_64 *stringsDeduplicated, U_64 *bytesSaved, U_64 *stringsDropped)
+{
+	omrthread_monitor_enter(_mutex);
+	*stringsProcessed = _stringsProcessed;
+	*stringsDeduplicated = _stringsDeduplicated;
+	*bytesSaved = _bytesSaved;
+	*stringsDropped = _stringsDropped;
+	omrthread_monitor_exit(_mutex);
+}
+
+/**
+ * Deduplicate up to processChunkSize candidates. The caller must hold VM access.
+ */
+void
+MM_StringDeduplication::processCandidates(J9VMThread *vmThread)
+{
+	UDATA processed = 0;
+	UDATA deduplicated = 0;
+	UDATA bytesSaved = 0;
+
+	while (hasCandidates() && (processed < processChunkSize)) {
+		j9object_t string = _queue[_queueNext];
+		_queueNext += 1;
+		processed += 1;
+		if (deduplicate(vmThread, string, &bytesSaved)) {
+			deduplicated += 1;
+		}
+	}
+
+	omrthread_monitor_enter(_mutex);
+	_stringsProcessed += processed;
+	_stringsDeduplicated += deduplicated;
+	_bytesSaved += bytesSaved;
+	omrthread_monitor_exit(_mutex);
+}
+
+/**
+ * Point the string at the canonical array equal to its value, or make its value the canonical
+ * array if there is none yet. The caller must hold VM access.
+ * @return true if the string now shares a canonical array it did not reference before
+ */
+bool
+MM_StringDeduplication::deduplicate(J9VMThread *vmThread, j9object_t string, UDATA *bytesSaved)
+{
+	J9IndexableObject *array = (J9IndexableObject *)J9VMJAVALANGSTRING_VALUE(vmThread, string);
+	if (NULL == array) {
+		return false;
+	}
+#if defined(J9VM_GC_ARRAYLETS)
+	if (!_extensions->indexableObjectModel.isInlineContiguousArraylet(array)) {
+		/* too large to be worth comparing byte by byte */
+		return false;
+	}
+#endif /* J9VM_GC_ARRAYLETS */
+	UDATA size = _extensions->indexableObjectModel.getDataSizeInBytes(array);
+	if (0 == size) {
+		return false;
+	}
+
+	U_8 *data = (U_8 *)_extensions->indexableObjectModel.getDataPointerForContiguous(array);
+	StringDeduplicationEntry query;
+	query.hash = size;
+	for (UDATA i = 0; i < size; i++) {
+		query.hash = (query.hash * 31) + data[i];
+	}
+	query.value = NULL;
+	query.array = (j9object_t)array;
+
+	StringDeduplicationEntry *entry = (StringDeduplicationEntry *)hashTableFind(_table, &query);
+	if (NULL == entry) {
+		query.value = _javaVM->internalVMFunctions->j9jni_createGlobalRef((JNIEnv *)vmThread, (j9object_t)array, JNI_TRUE);
+		if (NULL != query.value) {
+			query.array = NULL;
+			if (NULL == hashTableAdd(_table, &query)) {
+				_javaVM->internalVMFunctions->j9jni_deleteGlobalRef((JNIEnv *)vmThread, query.value, JNI_TRUE);
+			}
+		}
+		return false;
+	}
+
+	j9object_t canonical = J9_JNI_UNWRAP_REFERENCE(entry->value);
+	if (canonical == (j9object_t)array) {
+		return false;
+	}
+	J9VMJAVALANGSTRING_SET_VALUE(vmThread, string, canonical);
+	*bytesSaved += _extensions->objectModel.getConsumedSizeInBytesWithHeader((j9object_t)array);
+	return true;
+}
+
+/**
+ * Remove the entries whose canonical array has been collected. The caller must hold VM access.
+ */
+void
+MM_StringDeduplication::pruneTable(J9VMThread *vmThread)
+{
+	J9HashTableState walkState;
+	StringDeduplicationEntry *entry = (StringDeduplicationEntry *)hashTableStartDo(_table, &walkState);
+	while (NULL != entry) {
+		if (NULL == J9_JNI_UNWRAP_REFERENCE(entry->value)) {
+			_javaVM->internalVMFunctions->j9jni_deleteGlobalRef((JNIEnv *)vmThread, entry->value, JNI_TRUE);
+			hashTableDoRemove(&walkState);
+		}
+		entry = (StringDeduplicationEntry *)hashTableNextDo(&walkState);
+	}
+	_pruneRequired = false;
+}
@@ -0,0 +1,166 @@
+/*******************************************************************************
+ * Copyright (c) 2018, 2018 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *******************************************************************************/
+
+/**
+ * @file
+ * @ingroup GC_Base
+ */
+
+#if !defined(STRINGDEDUPLICATION_HPP_)
+#define STRINGDEDUPLICATION_HPP_
+
+#include "j9.h"
+#include "j9cfg.h"
+
+#include "BaseVirtual.hpp"
+
+class MM_EnvironmentBase;
+class MM_GCExtensions;
+
+/**
+ * Shares the value arrays of equal Strings.
+ *
+ * GC threads queue Strings which reach the deduplication age while they are being copied by the
+ * scavenger or by copy-forward. Once the collection is over, a background thread looks each queued
+ * value array up in a table of canonical arrays and, if an equal array is already known, points the
+ * String at it so that the duplicate becomes garbage.
+ *
+ * The queue holds raw object pointers, so it is only valid until objects move again: it is discarded
+ * at the start of every collection which may move objects. The canonical arrays are held through
+ * weak JNI global references so that the collectors update and clear them like any other.
+ */
+class MM_StringDeduplication : public MM_BaseVirtual {
+private:
+	J9JavaVM *_javaVM;
+	MM_GCExtensions *_extensions;
+
+	j9object_t *_queue; /**< Strings copied by the last collection and waiting to be deduplicated */
+	UDATA _queueSize; /**< number of entries in _queue */
+	volatile UDATA _queueTop; /**< next free entry, advanced atomically by GC threads (may exceed _queueSize when candidates were dropped) */
+	UDATA _queueNext; /**< next entry to be processed by the deduplication thread */
+
+	J9HashTable *_table; /**< canonical value arrays, keyed by their contents */
+	bool _pruneRequired; /**< true if a collection may have cleared canonical arrays since the table was last pruned */
+
+	omrthread_monitor_t _mutex; /**< protects the thread state and the statistics, and is waited on by the idle deduplication thread */
+	omrthread_t _thread;
+	enum {
+		THREAD_INACTIVE = 0,
+		THREAD_ACTIVE,
+		THREAD_SHUTDOWN
+	} _threadState;
+	bool _shutdown; /**< set to ask the deduplication thread to exit */
+
+	U_64 _stringsProcessed; /**< number of queued Strings the deduplication thread has looked up */
+	U_64 _stringsDeduplicated; /**< number of Strings pointed at a canonical value array */
+	U_64 _bytesSaved; /**< heap bytes consumed by the value arrays that deduplicated Strings no longer reference */
+	U_64 _stringsDropped; /**< number of candidates discarded because the queue was full or a collection started before they were processed */
+
+	enum { processChunkSize = 256 }; /**< candidates processed per acquisition of VM access */
+
+	bool initialize(MM_EnvironmentBase *env);
+	void tearDown(MM_EnvironmentBase *env);
+
+	void enqueue(j9object_t string);
+	bool hasCandidates() { return _queueNext < OMR_MIN(_queueTop, _queueSize); }
+	void processCandidates(J9VMThread *vmThread);
+	bool deduplicate(J9VMThread *vmThread, j9object_t string, UDATA *bytesSaved);
+	void pruneTable(J9VMThread *vmThread);
+
+	void run(MM_EnvironmentBase *env);
+	static UDATA signalProtectedFunction(J9PortLibrary *privatePortLibrary, void *userData);
+	static int J9THREAD_PROC deduplicationThreadWrapper(void *userData);
+
+public:
+	static MM_StringDeduplication *newInstance(MM_EnvironmentBase *env);
+	virtual void kill(MM_EnvironmentBase *env);
+
+	/**
+	 * Start the background thread which deduplicates the queued Strings.
+	 * @return true if the thread was started, false otherwise
+	 */
+	bool startThread(MM_EnvironmentBase *env);
+
+	/**
+	 * Ask the background thread to exit and wait until it has.
+	 */
+	void stopThread(MM_EnvironmentBase *env);
+
+#if defined(J9VM_GC_MODRON_SCAVENGER)
+	/**
+	 * Called by the scavenger for every object it has just copied. Queues the object if it is a
+	 * String which has reached the deduplication age, or has just been tenured.
+	 * @param objectPtr the new location of the copied object
+	 */
+	void scavengerCopiedObject(MM_EnvironmentBase *env, j9object_t objectPtr);
+#endif /* J9VM_GC_MODRON_SCAVENGER */
+
+#if defined(J9VM_GC_VLHGC)
+	/**
+	 * Called by copy-forward for every object it has just copied. Queues the object if it is a
+	 * String whose age reached the deduplication age by this copy.
+	 * @param objectPtr the new location of the copied object
+	 * @param sourceAge the age of the region the object was copied from
+	 * @param destinationAge the age of the region the object was copied to
+	 */
+	void copyForwardCopiedObject(MM_EnvironmentBase *env, j9object_t objectPtr, UDATA sourceAge, UDATA destinationAge);
+#endif /* J9VM_GC_VLHGC */
+
+	/**
+	 * Forget the queued candidates, since objects are about to move. Must be called with exclusive VM access.
+	 */
+	void discardCandidates(MM_EnvironmentBase *env);
+
+	/**
+	 * Wake the background thread if the collection which just completed queued any candidates.
+	 */
+	void notifyCandidates(MM_EnvironmentBase *env);
+
+	/**
+	 * Fetch the deduplication statistics, consistent with each other.
+	 */
+	void getStatistics(U_64 *stringsProcessed, U_64 *stringsDeduplicated, U_64 *bytesSaved, U_64 *stringsDropped);
+
+	MM_StringDeduplication(MM_EnvironmentBase *env)
+		: MM_BaseVirtual()
+		, _javaVM(NULL)
+		, _extensions(NULL)
+		, _queue(NULL)
+		, _queueSize(0)
+		, _queueTop(0)
+		, _queueNext(0)
+		, _table(NULL)
+		, _pruneRequired(false)
+		, _mutex(NULL)
+		, _thread(NULL)
+		, _threadState(THREAD_INACTIVE)
+		, _shutdown(false)
+		, _stringsProcessed(0)
+		, _stringsDeduplicated(0)
+		, _bytesSaved(0)
+		, _stringsDropped(0)
+	{
+		_typeId = __FUNCTION__;
+	}
+};
+
+#endif /* STRINGDEDUPLICATION_HPP_ */
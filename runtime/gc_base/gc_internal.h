@@ -1,6 +1,6 @@
 
 /*******************************************************************************
- * Copyright (c) 1991, 2017 IBM Corp. and others
+ * Copyright (c) 1991, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -170,6 +170,7 @@ extern J9_CFUNC I_32 referenceArrayCopy(J9VMThread *vmThread, J9IndexableObject
 extern J9_CFUNC void j9gc_objaccess_indexableStoreI64(J9VMThread *vmThread, J9IndexableObject *destObject, I_32 index, I_64 value, UDATA isVolatile);
 extern J9_CFUNC void J9WriteBarrierJ9ClassStore(J9VMThread *vmThread, J9Class *destinationJ9Class, j9object_t storedObject);
 extern J9_CFUNC const char* j9gc_get_gcmodestring(J9JavaVM *javaVM);
+extern J9_CFUNC U_64 j9gc_get_string_deduplication_bytes_saved(J9JavaVM *javaVM);
 extern J9_CFUNC void j9gc_objaccess_indexableStoreU8(J9VMThread *vmThread, J9IndexableObject *destObject, I_32 index, U_32 value, UDATA isVolatile);
 extern J9_CFUNC void j9gc_objaccess_staticStoreU64(J9VMThread *vmThread, J9Class *clazz, U_64 *destSlot, U_64 value, UDATA isVolatile);
 extern J9_CFUNC U_8* j9gc_objaccess_getArrayObjectDataAddress(J9VMThread *vmThread, J9IndexableObject *arrayObject);
@@ -1,6 +1,6 @@
 
 /*******************************************************************************
- * Copyright (c) 1991, 2017 IBM Corp. and others
+ * Copyright (c) 1991, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -43,6 +43,7 @@
 #include "ObjectAllocationInterface.hpp"
 #include "ObjectModel.hpp"
 #include "OwnableSynchronizerObjectBuffer.hpp"
+#include "StringDeduplication.hpp"
 #include "MemorySpace.hpp"
 #include "MemorySubSpace.hpp"
 #include "MemoryPoolLargeObjects.hpp"
@@ -714,6 +715,25 @@ j9gc_get_gcmodestring(J9JavaVM *javaVM)
 	return MM_GCExtensions::getExtensions(javaVM)->gcModeString;
 }
 
+/**
+ * API to return the number of heap bytes freed by String deduplication, that is, the
+ * consumed size of the value arrays which deduplicated Strings no longer reference.
+ * @return bytes saved, or 0 if String deduplication is not enabled
+ */
+U_64
+j9gc_get_string_deduplication_bytes_saved(J9JavaVM *javaVM)
+{
+	U_64 bytesSaved = 0;
+	MM_StringDeduplication *stringDeduplication = MM_GCExtensions::getExtensions(javaVM)->stringDeduplication;
+	if (NULL != stringDeduplication) {
+		U_64 processed = 0;
+		U_64 deduplicated = 0;
+		U_64 dropped = 0;
+		stringDeduplication->getStatistics(&processed, &deduplicated, &bytesSaved, &dropped);
+	}
+	return bytesSaved;
+}
+
 /**
  * API to return the size of an object, in bytes, including the header
  * taking into account object alignment and minimum object size.
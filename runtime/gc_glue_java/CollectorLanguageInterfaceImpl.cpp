@@ -1,6 +1,6 @@
 
 /*******************************************************************************
- * Copyright (c) 1991, 2017 IBM Corp. and others
+ * Copyright (c) 1991, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -94,6 +94,7 @@
 #include "SlotObject.hpp"
 #include "StandardAccessBarrier.hpp"
 #include "SublistFragment.hpp"
+#include "StringDeduplication.hpp"
 #include "StringTable.hpp"
 #include "Task.hpp"
 #include "UnfinalizedObjectBuffer.hpp"
@@ -802,6 +803,11 @@ MM_CollectorLanguageInterfaceImpl::scavenger_masterSetupForGC(MM_EnvironmentBase
 
 	private_scavenger_setupForOwnableSynchronizerProcessing(MM_EnvironmentStandard::getEnvironment(envBase));
 
+	if (NULL != _extensions->stringDeduplication) {
+		/* the candidates queued by the previous scavenge are about to move */
+		_extensions->stringDeduplication->discardCandidates(envBase);
+	}
+
 	return;
 }
 
@@ -824,6 +830,15 @@ MM_CollectorLanguageInterfaceImpl::scavenger_reportScavengeEnd(MM_EnvironmentBas
 
 		_extensions->scavengerJavaStats._ownableSynchronizerNurserySurvived = _extensions->scavengerJavaStats._ownableSynchronizerCandidates;
 	}
+
+	if (NULL != _extensions->stringDeduplication) {
+		if (scavengeSuccessful) {
+			_extensions->stringDeduplication->notifyCandidates(envBase);
+		} else {
+			/* backout has returned the queued Strings to their original location */
+			_extensions->stringDeduplication->discardCandidates(envBase);
+		}
+	}
 }
 
 void
@@ -905,6 +920,10 @@ MM_CollectorLanguageInterfaceImpl::scavenger_getObjectScanner(MM_EnvironmentStan
 	Assert_MM_true((GC_ObjectScanner::scanHeap == flags) ^ (GC_ObjectScanner::scanRoots == flags));
 #endif /* defined(OMR_GC_MODRON_SCAVENGER_STRICT) */
 
+	if ((NULL != _extensions->stringDeduplication) && GC_ObjectScanner::isHeapScan(flags)) {
+		_extensions->stringDeduplication->scavengerCopiedObject(env, objectPtr);
+	}
+
 	GC_ObjectScanner *objectScanner = NULL;
 	switch(_extensions->objectModel.getScanType(objectPtr)) {
 	case GC_ObjectModel::SCAN_ATOMIC_MARKABLE_REFERENCE_OBJECT:
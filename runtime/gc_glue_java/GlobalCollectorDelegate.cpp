@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017, 2017 IBM Corp. and others
+ * Copyright (c) 2017, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -55,6 +55,7 @@
 #include "ReferenceObjectList.hpp"
 #include "ScavengerJavaStats.hpp"
 #include "StandardAccessBarrier.hpp"
+#include "StringDeduplication.hpp"
 #include "VMThreadListIterator.hpp"
 
 #if defined(J9VM_GC_DYNAMIC_CLASS_UNLOADING)
@@ -132,6 +133,11 @@ MM_GlobalCollectorDelegate::masterThreadGarbageCollectStarted(MM_EnvironmentBase
 	}
 #endif /* defined(J9VM_GC_MODRON_SCAVENGER) */
 
+	if (NULL != _extensions->stringDeduplication) {
+		/* compaction may move the Strings queued by the last scavenge */
+		_extensions->stringDeduplication->discardCandidates(env);
+	}
+
 #if defined(J9VM_GC_FINALIZATION)
 	/* this should not be set by the GC since it is used by components in order to record that they performed some operation which will require that we do some finalization */
 	_finalizationRequired = false;
@@ -1,6 +1,6 @@
 
 /*******************************************************************************
- * Copyright (c) 1991, 2017 IBM Corp. and others
+ * Copyright (c) 1991, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -103,6 +103,7 @@
 #include "RememberedSetWorkPackets.hpp"
 #endif /* J9VM_GC_STACCATO */
 #include "Scavenger.hpp"
+#include "StringDeduplication.hpp"
 #include "StringTable.hpp"
 #include "Validator.hpp"
 #if defined(J9VM_GC_IDLE_HEAP_MANAGER)
@@ -277,6 +278,11 @@ gcCleanupHeapStructures(J9JavaVM * vm)
 	}
 #endif /* J9VM_GC_FINALIZATION */
 
+	if (NULL != extensions->stringDeduplication) {
+		extensions->stringDeduplication->kill(&env);
+		extensions->stringDeduplication = NULL;
+	}
+
 	if (vm->mainThread && vm->mainThread->threadObject) {
 		/* main thread has not been deallocated yet, but heap has gone */
 		vm->mainThread->threadObject = NULL;
@@ -457,6 +463,20 @@ j9gc_initialize_heap(J9JavaVM *vm, UDATA heapBytesRequested)
 		goto error_no_memory;
 	}
 
+	if (extensions->stringDeduplicationEnabled) {
+		/* deduplication candidates are found while copying, which only the scavenger and copy-forward do under exclusive access */
+		bool copyingCollector = extensions->isVLHGC() || (extensions->isStandardGC() && extensions->scavengerEnabled);
+#if defined(OMR_GC_CONCURRENT_SCAVENGER)
+		copyingCollector = copyingCollector && !extensions->concurrentScavenger;
+#endif /* OMR_GC_CONCURRENT_SCAVENGER */
+		if (copyingCollector) {
+			extensions->stringDeduplication = MM_StringDeduplication::newInstance(&env);
+			if (NULL == extensions->stringDeduplication) {
+				goto error_no_memory;
+			}
+		}
+	}
+
 	/* Initialize statistic locks */
 	if (omrthread_monitor_init_with_name(&extensions->gcStatsMutex, 0, "MM_GCExtensions::gcStats")) {
 		loadInfo->fatalErrorStr = (char *)j9nls_lookup_message(J9NLS_DO_NOT_PRINT_MESSAGE_TAG | J9NLS_DO_NOT_APPEND_NEWLINE, J9NLS_GC_FAILED_TO_INITIALIZE_MUTEX, "Failed to initialize mutex for GC statistics.");
@@ -565,6 +585,13 @@ gcStartupHeapManagement(J9JavaVM *javaVM)
 		result = JNI_ENOMEM;
 	}
 
+	if ((NULL != extensions->stringDeduplication) && (JNI_OK == result)) {
+		MM_EnvironmentBase env(javaVM->omrVM);
+		if (!extensions->stringDeduplication->startThread(&env)) {
+			result = JNI_ENOMEM;
+		}
+	}
+
 #if defined(OMR_GC_CONCURRENT_SCAVENGER)
 	/* If not explicitly set, concurrent phase of CS runs with 1/2 the thread count (relative to STW phases thread count,
 	 * which just have been initialized by the dispatcher) */
@@ -599,6 +626,11 @@ gcShutdownHeapManagement(J9JavaVM *javaVM)
 	j9gc_finalizer_shutdown(javaVM);
 #endif /* J9VM_GC_FINALIZATION */
 
+	if (NULL != extensions->stringDeduplication) {
+		MM_EnvironmentBase env(javaVM->omrVM);
+		extensions->stringDeduplication->stopThread(&env);
+	}
+
 	/* Kickoff shutdown of global collector */
 	if (NULL != globalCollector) {
 		globalCollector->collectorShutdown(extensions);
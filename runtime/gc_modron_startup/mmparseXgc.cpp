@@ -1,6 +1,6 @@
 
 /*******************************************************************************
- * Copyright (c) 1991, 2017 IBM Corp. and others
+ * Copyright (c) 1991, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -376,6 +376,38 @@ j9gc_initialize_parse_gc_colon(J9JavaVM *javaVM, char **scan_start)
 		goto _exit;
 	}
 	
+	if(try_scan(scan_start, "stringDeduplicationAge=")) {
+		if(!scan_udata_helper(javaVM, scan_start, &extensions->stringDeduplicationAge, "stringDeduplicationAge=")) {
+			goto _error;
+		}
+		if((extensions->stringDeduplicationAge > OBJECT_HEADER_AGE_MAX) || (extensions->stringDeduplicationAge < OBJECT_HEADER_AGE_MIN)) {
+			j9nls_printf(PORTLIB, J9NLS_ERROR, J9NLS_GC_OPTIONS_INTEGER_OUT_OF_RANGE, "stringDeduplicationAge=", (UDATA)OBJECT_HEADER_AGE_MIN, (UDATA)OBJECT_HEADER_AGE_MAX);
+			goto _error;
+		}
+		goto _exit;
+	}
+
+	if(try_scan(scan_start, "stringDeduplicationQueueSize=")) {
+		if(!scan_udata_helper(javaVM, scan_start, &extensions->stringDeduplicationQueueSize, "stringDeduplicationQueueSize=")) {
+			goto _error;
+		}
+		if(0 == extensions->stringDeduplicationQueueSize) {
+			j9nls_printf(PORTLIB, J9NLS_ERROR, J9NLS_GC_OPTIONS_VALUE_MUST_BE_ABOVE, "stringDeduplicationQueueSize=", (UDATA)0);
+			goto _error;
+		}
+		goto _exit;
+	}
+
+	if(try_scan(scan_start, "stringDeduplication")) {
+		extensions->stringDeduplicationEnabled = true;
+		goto _exit;
+	}
+
+	if(try_scan(scan_start, "noStringDeduplication")) {
+		extensions->stringDeduplicationEnabled = false;
+		goto _exit;
+	}
+
 	if(try_scan(scan_start, "scvNoAdaptiveTenure")) {
 		extensions->scvTenureStrategyFixed = true;
 		extensions->scvTenureStrategyAdaptive = false;
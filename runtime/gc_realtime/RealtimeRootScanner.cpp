@@ -1,6 +1,6 @@
 
 /*******************************************************************************
- * Copyright (c) 1991, 2017 IBM Corp. and others
+ * Copyright (c) 1991, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -278,7 +278,7 @@ MM_RealtimeRootScanner::condYield(U_64 timeSlackNanoSec)
 }
 
 /**
- * Scan the per-thread object monitor lookup caches.
+ * Scan the per-thread object monitor lookup caches and the lookup caches of the monitor tables.
  * Note that this is not a root since the cache contains monitors from the global monitor table
  * which will be scanned by scanMonitorReferences. It should be scanned first, however, since
  * scanMonitorReferences may destroy monitors that appear in caches.
@@ -307,6 +307,15 @@ MM_RealtimeRootScanner::scanMonitorLookupCaches(MM_EnvironmentBase *env)
 			}
 		}
 	}
+
+	/* the lookup caches shared by all threads hold monitors from the same tables; clearing a slot twice is harmless */
+	J9JavaVM *javaVM = static_cast<J9JavaVM*>(_omrVM->_language_vm);
+	for (UDATA tableIndex = 0; tableIndex < javaVM->monitorTableCount; tableIndex++) {
+		j9objectmonitor_t *lookupCache = javaVM->monitorTableLocks[tableIndex].lookupCache;
+		for (UDATA cacheIndex = 0; cacheIndex < J9VM_MONITOR_TABLE_LOOKUP_CACHE_SIZE; cacheIndex++) {
+			doMonitorLookupCacheSlot(&lookupCache[cacheIndex]);
+		}
+	}
 	reportScanningEnded(RootScannerEntity_MonitorLookupCaches);
 }
 
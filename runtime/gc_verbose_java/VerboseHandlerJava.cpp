@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 1991, 2014 IBM Corp. and others
+ * Copyright (c) 1991, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -33,6 +33,7 @@
 #include "VerboseWriterChain.hpp"
 #include "GCExtensions.hpp"
 #include "FinalizeListManager.hpp"
+#include "StringDeduplication.hpp"
 
 void
 MM_VerboseHandlerJava::outputFinalizableInfo(MM_VerboseManager *manager, MM_EnvironmentBase *env, UDATA indent)
@@ -50,6 +51,21 @@ MM_VerboseHandlerJava::outputFinalizableInfo(MM_VerboseManager *manager, MM_Envi
 	}
 }
 
+void
+MM_VerboseHandlerJava::outputStringDeduplicationInfo(MM_VerboseManager *manager, MM_EnvironmentBase *env, UDATA indent)
+{
+	MM_StringDeduplication *stringDeduplication = MM_GCExtensions::getExtensions(env)->stringDeduplication;
+
+	if (NULL != stringDeduplication) {
+		U_64 processed = 0;
+		U_64 deduplicated = 0;
+		U_64 bytesSaved = 0;
+		U_64 dropped = 0;
+		stringDeduplication->getStatistics(&processed, &deduplicated, &bytesSaved, &dropped);
+		manager->getWriterChain()->formatAndOutput(env, indent, "<string-deduplication processed=\"%llu\" deduplicated=\"%llu\" bytessaved=\"%llu\" dropped=\"%llu\" />", processed, deduplicated, bytesSaved, dropped);
+	}
+}
+
 bool
 MM_VerboseHandlerJava::getThreadName(char *buf, UDATA bufLen, OMR_VMThread *omrThread)
 {
@@ -1,6 +1,6 @@
 
 /*******************************************************************************
- * Copyright (c) 1991, 2017 IBM Corp. and others
+ * Copyright (c) 1991, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -90,6 +90,7 @@
 #include "ScavengerForwardedHeader.hpp"
 #include "SlotObject.hpp"
 #include "StackSlotValidator.hpp"
+#include "StringDeduplication.hpp"
 #include "SublistFragment.hpp"
 #include "SublistIterator.hpp"
 #include "SublistPool.hpp"
@@ -2260,6 +2261,12 @@ MM_CopyForwardScheme::copy(MM_EnvironmentVLHGC *env, MM_AllocationContextTarok *
 				copyCache->_lowerAgeBound = OMR_MIN(copyCache->_lowerAgeBound, sourceRegion->getLowerAgeBound());
 				copyCache->_upperAgeBound = OMR_MAX(copyCache->_upperAgeBound, sourceRegion->getUpperAgeBound());
 
+				if (NULL != _extensions->stringDeduplication) {
+					UDATA sourceAge = MM_CompactGroupManager::getRegionAgeFromGroup(env, sourceCompactGroup);
+					UDATA destinationAge = MM_CompactGroupManager::getRegionAgeFromGroup(env, destinationCompactGroup);
+					_extensions->stringDeduplication->copyForwardCopiedObject(env, destinationObjectPtr, sourceAge, destinationAge);
+				}
+
 #if defined(J9VM_GC_LEAF_BITS)
 				if (_extensions->tarokEnableLeafFirstCopying) {
 					copyLeafChildren(env, reservingContext, destinationObjectPtr);
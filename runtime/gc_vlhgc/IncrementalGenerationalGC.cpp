@@ -1,6 +1,6 @@
 
 /*******************************************************************************
- * Copyright (c) 1991, 2017 IBM Corp. and others
+ * Copyright (c) 1991, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -71,6 +71,7 @@
 #include "OMRVMInterface.hpp"
 #include "ParallelTask.hpp"
 #include "ReferenceChainWalker.hpp"
+#include "StringDeduplication.hpp"
 #include "VLHGCAccessBarrier.hpp"
 #include "WorkPacketsIterator.hpp"
 #include "WorkPacketsVLHGC.hpp"
@@ -1052,6 +1053,11 @@ MM_IncrementalGenerationalGC::runGlobalGarbageCollection(MM_EnvironmentVLHGC *en
 	reportGlobalGCStart(env);
 	reportGCIncrementStart(env, "global collect", env->_cycleState->_currentIncrement);
 
+	if (NULL != _extensions->stringDeduplication) {
+		/* the global collection compacts, moving the Strings queued by the last copy-forward */
+		_extensions->stringDeduplication->discardCandidates(env);
+	}
+
 	/* Perform any master-specific setup */
 	/* Tell the GAM to flush its contexts */
 	MM_GlobalAllocationManager *gam = _extensions->globalAllocationManager;
@@ -1207,6 +1213,10 @@ MM_IncrementalGenerationalGC::partialGarbageCollect(MM_EnvironmentVLHGC *env, MM
 	reportPGCStart(env);
 	reportGCIncrementStart(env, "partial collect", 0);
 
+	if (NULL != _extensions->stringDeduplication) {
+		_extensions->stringDeduplication->discardCandidates(env);
+	}
+
 	setupBeforePartialGC(env, env->_cycleState->_gcCode);
 	if (isGlobalMarkPhaseRunning()) {
 		/* since we have a GMP running, the PGC will need to know about it to find roots in its mark map */
@@ -1363,6 +1373,15 @@ MM_IncrementalGenerationalGC::partialGarbageCollectUsingCopyForward(MM_Environme
 		_reclaimDelegate.runReclaimForAbortedCopyForward(env, allocDescription, env->_cycleState->_activeSubSpace, env->_cycleState->_gcCode, _markMapManager->getGlobalMarkPhaseMap(), &regionsSkippedByCompactorRequiringSweep);
 	}
 
+	if (NULL != _extensions->stringDeduplication) {
+		if (useSlidingCompactor || !successful) {
+			/* the compactor may have moved the Strings queued during copy-forward */
+			_extensions->stringDeduplication->discardCandidates(env);
+		} else {
+			_extensions->stringDeduplication->notifyCandidates(env);
+		}
+	}
+
 	if (regionsSkippedByCompactorRequiringSweep > 0) {
 		/* there were regions which we needed to compact but we couldn't compact so at least sweep them to ensure that their stats are correct */
 		_reclaimDelegate.performAtomicSweep(env, allocDescription, env->_cycleState->_activeSubSpace, env->_cycleState->_gcCode);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2002, 2017 IBM Corp. and others
+ * Copyright (c) 2002, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -2634,7 +2634,7 @@ retry:
 												tempClassBytes, (UDATA) tempLength, NULL,
 												classLoader,
 												protectionDomain ? *(j9object_t*)protectionDomain : NULL,
-												options | J9_FINDCLASS_FLAG_THROW_ON_FAIL | J9_FINDCLASS_FLAG_NO_CHECK_FOR_EXISTING_CLASS,
+												options | J9_FINDCLASS_FLAG_THROW_ON_FAIL | J9_FINDCLASS_FLAG_NO_CHECK_FOR_EXISTING_CLASS | J9_FINDCLASS_FLAG_CONCURRENT_PARSE,
 												loadedClass,
 												NULL,
 												&localBuffer);
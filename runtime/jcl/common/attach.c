@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2016 IBM Corp. and others
+ * Copyright (c) 2009, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -414,6 +414,35 @@ Java_com_ibm_tools_attach_target_IPC_openSemaphore(JNIEnv *env, jclass clazz, js
 	return rc;
 }
 
+/**
+ * @param ctrlDirName path to directory holding the semaphore files
+ * @param semaName name of the notification semaphore for this process
+ * @return JNI_OK if a new semaphore was created, J9PORT_INFO_SHSEM_OPENED or J9PORT_INFO_SHSEM_OPENED_STALE
+ * if a semaphore with the same key already exists, j9shsem_open status otherwise
+ * Saves the semaphore handle into the VM struct only if the semaphore was created.
+ * An existing semaphore belongs to another process, so it is closed.
+ */
+jint JNICALL
+Java_com_ibm_tools_attach_target_IPC_createSemaphore(JNIEnv *env, jclass clazz, jstring ctrlDirName, jstring semaName)
+{
+	PORT_ACCESS_FROM_VMC( ((J9VMThread *) env) );
+
+	jint rc = 0;
+	struct j9shsem_handle* semaphore = NULL;
+	J9JavaVM* javaVM = ((J9VMThread*) env)->javaVM;
+
+	Trc_JCL_attach_createSemaphoreEntry(env);
+	rc = openSemaphore(env, clazz, ctrlDirName, semaName, &semaphore);
+	if (J9PORT_INFO_SHSEM_CREATED == rc) {
+		javaVM->attachContext.semaphore = semaphore;
+		rc = JNI_OK;
+	} else if ((J9PORT_INFO_SHSEM_OPENED == rc) || (J9PORT_INFO_SHSEM_OPENED_STALE == rc)) {
+		j9shsem_close(&semaphore);
+	}
+	Trc_JCL_attach_createSemaphoreExit(env, rc);
+	return rc;
+}
+
 /**
  * Open a semaphore, post to it, and close it.  Do not store the semaphore handle.
  * @param ctrlDirName path to directory holding the semaphore files
@@ -537,6 +566,33 @@ Java_com_ibm_tools_attach_target_IPC_destroySemaphore(JNIEnv *env, jclass clazz)
 	return  status;
 }
 
+/**
+ * Open a semaphore and destroy it.  Used to clean up after processes which did not destroy their semaphores.
+ * @param ctrlDirName path to directory holding the semaphore files
+ * @param semaName name of the semaphore
+ * @return 0 on success, j9shsem_open or destroy status otherwise
+ */
+jint JNICALL
+Java_com_ibm_tools_attach_target_IPC_destroyNamedSemaphore(JNIEnv *env, jclass clazz, jstring ctrlDirName, jstring semaName)
+{
+
+	PORT_ACCESS_FROM_VMC( ((J9VMThread *) env) );
+
+	jint status;
+	struct j9shsem_handle* semaphore = NULL;
+
+	status = openSemaphore(env, clazz, ctrlDirName, semaName, &semaphore);
+	if ((J9PORT_INFO_SHSEM_OPENED == status) || (J9PORT_INFO_SHSEM_CREATED == status)) {
+		status = (jint) j9shsem_destroy(&semaphore);
+	} else if (J9PORT_INFO_SHSEM_OPENED_STALE == status) {
+		/* the semaphore is older than the control file, so it was not created through this file */
+		j9shsem_close(&semaphore);
+		status = JNI_OK;
+	}
+	Trc_JCL_attach_destroyNamedSemaphore(env, status);
+	return status;
+}
+
 /**
  * @return numeric user ID of the caller. This is upcast from a UDATA.
  */
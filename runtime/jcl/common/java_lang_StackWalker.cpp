@@ -1,6 +1,6 @@
 
 /*******************************************************************************
- * Copyright (c) 2017, 2017 IBM Corp. and others
+ * Copyright (c) 2017, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -39,6 +39,8 @@ extern "C" {
 #define FRAME_FILTER_MASK (RETAIN_CLASS_REFERENCE | SHOW_REFLECT_FRAMES | SHOW_HIDDEN_FRAMES)
 
 static UDATA stackFrameFilter(J9VMThread * currentThread, J9StackWalkState * walkState);
+static UDATA callerClassFrameFilter(J9VMThread * currentThread, J9StackWalkState * walkState);
+static j9object_t createStackFrame(JNIEnv *env, J9StackWalkState *walkState);
 
 static UDATA
 stackFrameFilter(J9VMThread * currentThread, J9StackWalkState * walkState)
@@ -78,8 +80,72 @@ stackFrameFilter(J9VMThread * currentThread, J9StackWalkState * walkState)
 	return result;
 }
 
+static UDATA
+callerClassFrameFilter(J9VMThread * currentThread, J9StackWalkState * walkState)
+{
+	/*
+	 * userData2 contains "getCallerClass" until the StackWalker.getCallerClass frame is found.
+	 * userData3 is set to the method which called getCallerClass.
+	 * userData4 is set to the class of the caller of that method.
+	 * Reflection and hidden frames are skipped, as they are by StackWalker.getCallerClass.
+	 */
+	UDATA result = J9_STACKWALK_KEEP_ITERATING;
+
+	if (NULL != walkState->userData2) {
+		result = stackFrameFilter(currentThread, walkState);
+	} else if (VM_VMHelpers::isReflectionMethod(currentThread, walkState->method)
+			|| VM_VMHelpers::isHiddenMethod(walkState->method)
+	) {
+		/* skip reflection/MethodHandleInvoke and hidden frames */
+	} else if (NULL == walkState->userData3) {
+		walkState->userData3 = walkState->method;
+		if (J9ROMMETHOD_IS_CALLER_SENSITIVE(J9_ROM_METHOD_FROM_RAM_METHOD(walkState->method))) {
+			/* leave the exception to the Java code */
+			result = J9_STACKWALK_STOP_ITERATING;
+		}
+	} else {
+		walkState->userData4 = J9_CLASS_FROM_METHOD(walkState->method);
+		result = J9_STACKWALK_STOP_ITERATING;
+	}
+
+	return result;
+}
+
+/**
+ * Find the class of the caller of the method which called StackWalker.getCallerClass,
+ * without creating any StackFrame objects.
+ *
+ * @return the caller's class, or NULL if the method has no caller or is caller-sensitive,
+ * in which case StackWalker.getCallerClass walks the stack in full to report the error.
+ */
 jobject JNICALL
-Java_java_lang_StackWalker_walkWrapperImpl(JNIEnv *env, jclass clazz, jint flags, jstring stackWalkerMethod, jobject function)
+Java_java_lang_StackWalker_getCallerClassImpl(JNIEnv *env, jclass clazz)
+{
+	J9VMThread *vmThread = (J9VMThread *) env;
+	J9JavaVM *vm = vmThread->javaVM;
+	J9InternalVMFunctions *vmFuncs = vm->internalVMFunctions;
+	J9StackWalkState walkState = {0};
+	jobject result = NULL;
+
+	vmFuncs->internalEnterVMFromJNI(vmThread);
+
+	walkState.walkThread = vmThread;
+	walkState.flags = J9_STACKWALK_ITERATE_FRAMES | J9_STACKWALK_INCLUDE_NATIVES | J9_STACKWALK_VISIBLE_ONLY;
+	walkState.frameWalkFunction = callerClassFrameFilter;
+	walkState.userData2 = (void *) "getCallerClass";
+	if (J9_STACKWALK_RC_NONE != vm->walkStackFrames(vmThread, &walkState)) {
+		vmFuncs->setNativeOutOfMemoryError(vmThread, 0, 0);
+	} else if (NULL != walkState.userData4) {
+		result = vmFuncs->j9jni_createLocalRef(env, J9VM_J9CLASS_TO_HEAPCLASS((J9Class *) walkState.userData4));
+	}
+
+	vmFuncs->internalReleaseVMAccess(vmThread);
+
+	return result;
+}
+
+jobject JNICALL
+Java_java_lang_StackWalker_walkWrapperImpl(JNIEnv *env, jclass clazz, jint flags, jstring stackWalkerMethod, jobject function, jint bufferSize)
 {
 	J9VMThread *vmThread = (J9VMThread *) env;
 	J9JavaVM *vm = vmThread->javaVM;
@@ -111,11 +177,11 @@ Java_java_lang_StackWalker_walkWrapperImpl(JNIEnv *env, jclass clazz, jint flags
 
 	jmethodID walkImplMID = JCL_CACHE_GET(env, MID_java_lang_StackWalker_walkWrapperImpl);
 	if (NULL == walkImplMID) {
-		walkImplMID = env->GetStaticMethodID( clazz, "walkImpl", "(Ljava/util/function/Function;J)Ljava/lang/Object;");
+		walkImplMID = env->GetStaticMethodID( clazz, "walkImpl", "(Ljava/util/function/Function;JI)Ljava/lang/Object;");
 		Assert_JCL_notNull (walkImplMID);
 		JCL_CACHE_SET(env, MID_java_lang_StackWalker_walkWrapperImpl, walkImplMID);
 	}
-	jobject result = env->CallStaticObjectMethod(clazz, walkImplMID, function, (jlong)(UDATA)walkState);
+	jobject result = env->CallStaticObjectMethod(clazz, walkImplMID, function, (jlong)(UDATA)walkState, bufferSize);
 
 	if (NULL != walkerMethodChars) {
 		env->ReleaseStringUTFChars(stackWalkerMethod, walkerMethodChars);
@@ -136,105 +202,142 @@ utfToStringObject(JNIEnv *env, J9UTF8 *utf, UDATA flags) {
 	return result;
 }
 
-jobject JNICALL
-Java_java_lang_StackWalker_getImpl(JNIEnv *env, jobject clazz, jlong walkStateP)
+/**
+ * Create a StackFrameImpl describing the frame walkState is positioned at.
+ * The current thread must have VM access.
+ *
+ * @return the frame, or NULL with an exception pending
+ */
+static j9object_t
+createStackFrame(JNIEnv *env, J9StackWalkState *walkState)
 {
 	J9VMThread *vmThread = (J9VMThread *) env;
 	J9JavaVM *vm = vmThread->javaVM;
 	J9InternalVMFunctions *vmFuncs = vm->internalVMFunctions;
-	J9StackWalkState *walkState = (J9StackWalkState *) ((UDATA) walkStateP);
-	jobject result = NULL;
+	J9Class * frameClass = J9VMJAVALANGSTACKWALKERSTACKFRAMEIMPL_OR_NULL(vm);
+	j9object_t frame = vm->memoryManagerFunctions->J9AllocateObject(vmThread, frameClass, J9_GC_ALLOCATE_OBJECT_NON_INSTRUMENTABLE);
+	if (NULL == frame) {
+		vmFuncs->setHeapOutOfMemoryError(vmThread);
+	} else {
+		J9ROMMethod *romMethod = J9_ROM_METHOD_FROM_RAM_METHOD(walkState->method);
+		J9Class *ramClass = J9_CLASS_FROM_METHOD(walkState->method);
+		J9ROMClass *romClass = ramClass->romClass;
+		J9ClassLoader* classLoader = ramClass->classLoader;
+
+		UDATA bytecodeOffset = walkState->bytecodePCOffset;  /* need this for StackFrame */
+		UDATA lineNumber = getLineNumberForROMClassFromROMMethod(vm, romMethod, romClass, 0, classLoader, bytecodeOffset);
+		PUSH_OBJECT_IN_SPECIAL_FRAME(vmThread, frame);
+
+		/* set the class object if requested */
+		if (J9_ARE_ANY_BITS_SET((UDATA) walkState->userData1, RETAIN_CLASS_REFERENCE)) {
+			j9object_t classObject =J9VM_J9CLASS_TO_HEAPCLASS(ramClass);
+			J9VMJAVALANGSTACKWALKERSTACKFRAMEIMPL_SET_DECLARINGCLASS(vmThread, frame, classObject);
+		}
 
-	enterVMFromJNI(vmThread);
+		/* set bytecode index */
+		J9VMJAVALANGSTACKWALKERSTACKFRAMEIMPL_SET_BYTECODEINDEX(vmThread, frame, (U_32) bytecodeOffset);
 
-	if (J9_ARE_NO_BITS_SET((UDATA) (walkState->userData1), FRAME_VALID)) {
-		/* skip over the current frame */
-		walkState->userData1 = (void *) ((UDATA)walkState->userData1 & FRAME_FILTER_MASK);
-		if (J9_STACKWALK_RC_NONE != vm->walkStackFrames(vmThread, walkState)) {
-			vmFuncs->setNativeOutOfMemoryError(vmThread, 0, 0);
-			goto _done;
+		/* Fill in line number - Java wants -2 for natives, -1 for no line number (which will be 0 coming in from the iterator) */
+
+		if (J9_ARE_ANY_BITS_SET(romMethod->modifiers, J9AccNative)) {
+			lineNumber = -2;
+		} else if (lineNumber == 0) {
+			lineNumber = -1;
 		}
-	}
-	/* clear the valid bit */
-	walkState->userData1 = (void *) (((UDATA) walkState->userData1 & FRAME_FILTER_MASK));
+		J9VMJAVALANGSTACKWALKERSTACKFRAMEIMPL_SET_LINENUMBER(vmThread, frame, (I_32) lineNumber);
 
-	if (J9SF_FRAME_TYPE_END_OF_STACK != walkState->pc) {
-		J9Class * frameClass = J9VMJAVALANGSTACKWALKERSTACKFRAMEIMPL_OR_NULL(vm);
-		j9object_t frame = vm->memoryManagerFunctions->J9AllocateObject(vmThread, frameClass, J9_GC_ALLOCATE_OBJECT_NON_INSTRUMENTABLE);
-		if (NULL == frame) {
-			vmFuncs->setHeapOutOfMemoryError(vmThread);
-		} else {
-			J9ROMMethod *romMethod = J9_ROM_METHOD_FROM_RAM_METHOD(walkState->method);
-			J9Class *ramClass = J9_CLASS_FROM_METHOD(walkState->method);
-			J9ROMClass *romClass = ramClass->romClass;
-			J9ClassLoader* classLoader = ramClass->classLoader;
-
-			result = vmFuncs->j9jni_createLocalRef(env, frame);
-			UDATA bytecodeOffset = walkState->bytecodePCOffset;  /* need this for StackFrame */
-			UDATA lineNumber = getLineNumberForROMClassFromROMMethod(vm, romMethod, romClass, 0, classLoader, bytecodeOffset);
-			PUSH_OBJECT_IN_SPECIAL_FRAME(vmThread, frame);
-
-			/* set the class object if requested */
-			if (J9_ARE_ANY_BITS_SET((UDATA) walkState->userData1, RETAIN_CLASS_REFERENCE)) {
-				j9object_t classObject =J9VM_J9CLASS_TO_HEAPCLASS(ramClass);
-				J9VMJAVALANGSTACKWALKERSTACKFRAMEIMPL_SET_DECLARINGCLASS(vmThread, frame, classObject);
-			}
+		UDATA flags = J9_STR_XLAT;
+		if (J9_ARE_ALL_BITS_SET(romClass->extraModifiers, J9AccClassAnonClass)) {
+			flags |= J9_STR_ANON_CLASS_NAME;
+		}
 
-			/* set bytecode index */
-			J9VMJAVALANGSTACKWALKERSTACKFRAMEIMPL_SET_BYTECODEINDEX(vmThread, frame, (U_32) bytecodeOffset);
+		j9object_t nameString = J9VMJAVALANGCLASSLOADER_CLASSLOADERNAME(vmThread, classLoader->classLoaderObject);
+		J9VMJAVALANGSTACKWALKERSTACKFRAMEIMPL_SET_CLASSLOADERNAME(vmThread, frame, nameString);
 
-			/* Fill in line number - Java wants -2 for natives, -1 for no line number (which will be 0 coming in from the iterator) */
+		J9UTF8 *nameUTF =  J9ROMCLASS_CLASSNAME(romClass);
+		J9Module *module = ramClass->module;
+		if (NULL != module) {
+			J9VMJAVALANGSTACKWALKERSTACKFRAMEIMPL_SET_FRAMEMODULE(vmThread, frame, module->moduleObject);
+		}
 
-			if (J9_ARE_ANY_BITS_SET(romMethod->modifiers, J9AccNative)) {
-				lineNumber = -2;
-			} else if (lineNumber == 0) {
-				lineNumber = -1;
-			}
-			J9VMJAVALANGSTACKWALKERSTACKFRAMEIMPL_SET_LINENUMBER(vmThread, frame, (I_32) lineNumber);
+		nameString = utfToStringObject(env, nameUTF, flags);
+		if (VM_VMHelpers::exceptionPending(vmThread)) {
+			goto _pop_frame;
+		}
+		J9VMJAVALANGSTACKWALKERSTACKFRAMEIMPL_SET_CLASSNAME(vmThread, PEEK_OBJECT_IN_SPECIAL_FRAME(vmThread, 0), nameString);
 
-			UDATA flags = J9_STR_XLAT;
-			if (J9_ARE_ALL_BITS_SET(romClass->extraModifiers, J9AccClassAnonClass)) {
-				flags |= J9_STR_ANON_CLASS_NAME;
-			}
+		nameString = utfToStringObject(env, J9ROMMETHOD_GET_NAME(romClass, romMethod), J9_STR_INTERN);
+		if (VM_VMHelpers::exceptionPending(vmThread)) {
+			goto _pop_frame;
+		}
+		J9VMJAVALANGSTACKWALKERSTACKFRAMEIMPL_SET_METHODNAME(vmThread, PEEK_OBJECT_IN_SPECIAL_FRAME(vmThread, 0), nameString);
 
-			j9object_t nameString = J9VMJAVALANGCLASSLOADER_CLASSLOADERNAME(vmThread, classLoader->classLoaderObject);
-			J9VMJAVALANGSTACKWALKERSTACKFRAMEIMPL_SET_CLASSLOADERNAME(vmThread, frame, nameString);
+		nameString = utfToStringObject(env, getSourceFileNameForROMClass(vm, classLoader, romClass), J9_STR_INTERN);
+		if (VM_VMHelpers::exceptionPending(vmThread)) {
+			goto _pop_frame;
+		}
+		J9VMJAVALANGSTACKWALKERSTACKFRAMEIMPL_SET_FILENAME(vmThread, PEEK_OBJECT_IN_SPECIAL_FRAME(vmThread, 0), nameString);
 
-			J9UTF8 *nameUTF =  J9ROMCLASS_CLASSNAME(romClass);
-			J9Module *module = ramClass->module;
-			if (NULL != module) {
-				J9VMJAVALANGSTACKWALKERSTACKFRAMEIMPL_SET_FRAMEMODULE(vmThread, frame, module->moduleObject);
-			}
+		if (J9ROMMETHOD_IS_CALLER_SENSITIVE(romMethod)) {
+			J9VMJAVALANGSTACKWALKERSTACKFRAMEIMPL_SET_CALLERSENSITIVE(vmThread, PEEK_OBJECT_IN_SPECIAL_FRAME(vmThread, 0), TRUE);
+		}
 
-			nameString = utfToStringObject(env, nameUTF, flags);
-			if (VM_VMHelpers::exceptionPending(vmThread)) {
-				goto _pop_frame;
-			}
-			J9VMJAVALANGSTACKWALKERSTACKFRAMEIMPL_SET_CLASSNAME(vmThread, PEEK_OBJECT_IN_SPECIAL_FRAME(vmThread, 0), nameString);
+_pop_frame:
+		frame = POP_OBJECT_IN_SPECIAL_FRAME(vmThread);
+		if (VM_VMHelpers::exceptionPending(vmThread)) {
+			frame = NULL;
+		}
+	}
 
-			nameString = utfToStringObject(env, J9ROMMETHOD_GET_NAME(romClass, romMethod), J9_STR_INTERN);
-			if (VM_VMHelpers::exceptionPending(vmThread)) {
-				goto _pop_frame;
-			}
-			J9VMJAVALANGSTACKWALKERSTACKFRAMEIMPL_SET_METHODNAME(vmThread, PEEK_OBJECT_IN_SPECIAL_FRAME(vmThread, 0), nameString);
+	return frame;
+}
 
-			nameString = utfToStringObject(env, getSourceFileNameForROMClass(vm, classLoader, romClass), J9_STR_INTERN);
-			if (VM_VMHelpers::exceptionPending(vmThread)) {
-				goto _pop_frame;
-			}
-			J9VMJAVALANGSTACKWALKERSTACKFRAMEIMPL_SET_FILENAME(vmThread, PEEK_OBJECT_IN_SPECIAL_FRAME(vmThread, 0), nameString);
+/**
+ * Fill an array with the next frames of a walk started by walkWrapperImpl.
+ *
+ * @param walkStateP the J9StackWalkState of the walk
+ * @param frames the array to fill with StackFrameImpl objects
+ * @return the number of frames stored, which is less than the length of the array
+ * only when the end of the stack was reached (or an exception is pending)
+ */
+jint JNICALL
+Java_java_lang_StackWalker_getFramesImpl(JNIEnv *env, jclass clazz, jlong walkStateP, jobjectArray frames)
+{
+	J9VMThread *vmThread = (J9VMThread *) env;
+	J9JavaVM *vm = vmThread->javaVM;
+	J9InternalVMFunctions *vmFuncs = vm->internalVMFunctions;
+	J9StackWalkState *walkState = (J9StackWalkState *) ((UDATA) walkStateP);
+	jint count = 0;
 
-			if (J9ROMMETHOD_IS_CALLER_SENSITIVE(romMethod)) {
-				J9VMJAVALANGSTACKWALKERSTACKFRAMEIMPL_SET_CALLERSENSITIVE(vmThread, PEEK_OBJECT_IN_SPECIAL_FRAME(vmThread, 0), TRUE);
+	enterVMFromJNI(vmThread);
+
+	jint length = (jint) J9INDEXABLEOBJECT_SIZE(vmThread, J9_JNI_UNWRAP_REFERENCE(frames));
+	while (count < length) {
+		if (J9_ARE_NO_BITS_SET((UDATA) (walkState->userData1), FRAME_VALID)) {
+			/* skip over the current frame */
+			if (J9_STACKWALK_RC_NONE != vm->walkStackFrames(vmThread, walkState)) {
+				vmFuncs->setNativeOutOfMemoryError(vmThread, 0, 0);
+				break;
 			}
+		}
+		/* clear the valid bit */
+		walkState->userData1 = (void *) (((UDATA) walkState->userData1 & FRAME_FILTER_MASK));
 
-_pop_frame:
-			DROP_OBJECT_IN_SPECIAL_FRAME(vmThread);
+		if (J9SF_FRAME_TYPE_END_OF_STACK == walkState->pc) {
+			break;
 		}
+
+		j9object_t frame = createStackFrame(env, walkState);
+		if (NULL == frame) {
+			break;
+		}
+		/* the allocation may have moved the array */
+		J9JAVAARRAYOFOBJECT_STORE(vmThread, J9_JNI_UNWRAP_REFERENCE(frames), count, frame);
+		count += 1;
 	}
-_done:
+
 	exitVMToJNI(vmThread);
 
-	return result;
+	return count;
 }
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 1998, 2017 IBM Corp. and others
+ * Copyright (c) 1998, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -181,14 +181,18 @@ retry:
 		}
 	}
 
-	/* The defineClass helper requires you hold the class table mutex and releases it for you */
+	/* The defineClass helper requires you hold the class table mutex and releases it for you.
+	 * With J9_FINDCLASS_FLAG_CONCURRENT_PARSE it releases the mutex during the build as well, but
+	 * VM access is held throughout, so a contiguous classBytes array still cannot be moved by the GC.
+	 * If the class is defined by another thread in the meantime, the helper throws LinkageError.
+	 */
 	
 	clazz = dynFuncs->internalDefineClassFunction(currentThread, 
                                               utf8Name, utf8Length,
                                               tempClassBytes, (UDATA) tempLength, NULL, 
                                               classLoader, 
                                               protectionDomain ? *(j9object_t*)protectionDomain : NULL,
-                                              options | J9_FINDCLASS_FLAG_THROW_ON_FAIL | J9_FINDCLASS_FLAG_NO_CHECK_FOR_EXISTING_CLASS,
+                                              options | J9_FINDCLASS_FLAG_THROW_ON_FAIL | J9_FINDCLASS_FLAG_NO_CHECK_FOR_EXISTING_CLASS | J9_FINDCLASS_FLAG_CONCURRENT_PARSE,
                                               loadedClass,
 											  hostClass,
 											  &localBuffer);
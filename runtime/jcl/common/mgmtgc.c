@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 1998, 2017 IBM Corp. and others
+ * Copyright (c) 1998, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -27,6 +27,9 @@
 #include "mgmtinit.h"
 #include "jniidcacheinit.h"
 
+/* required for memcpy */
+#include <string.h>
+
 typedef enum {
 	FIELD_TOTAL_GC_TIME,
 	FIELD_LASTGC_START_TIME,
@@ -34,7 +37,11 @@ typedef enum {
 	FIELD_COLLECTION_COUNT,
 	FIELD_MEMORY_USED,
 	FIELD_TOTAL_MEMORY_FREED,
-	FIELD_TOTAL_COMPACTS
+	FIELD_TOTAL_COMPACTS,
+	FIELD_TOTAL_MEMORY_ALLOCATED,
+	FIELD_ALLOCATION_RATE,
+	FIELD_TOTAL_MEMORY_PROMOTED,
+	FIELD_PROMOTION_RATE
 } GarbageCollectorField;
 
 #define GC_FIELD_TOTAL_GC_TIME
@@ -242,6 +249,51 @@ fail:
 	return NULL;
 }
 
+jlongArray JNICALL
+Java_com_ibm_lang_management_internal_ExtendedGarbageCollectorMXBeanImpl_getPauseTimeHistogramImpl(JNIEnv *env, jobject beanInstance, jint id)
+{
+	J9JavaVM *javaVM = ((J9VMThread *) env)->javaVM;
+	J9JavaLangManagementData *mgmt = javaVM->managementData;
+	J9GarbageCollectorData *gc = &mgmt->garbageCollectors[getIndexFromCollectorID(mgmt, (UDATA) id)];
+	U_64 histogram[J9GARBAGECOLLECTORDATA_PAUSE_HISTOGRAM_SIZE];
+	jlongArray result = NULL;
+
+	/* take a consistent copy so that no JNI calls are made while holding the lock */
+	omrthread_rwmutex_enter_read(mgmt->managementDataLock);
+	memcpy(histogram, gc->pauseTimeHistogram, sizeof(histogram));
+	omrthread_rwmutex_exit_read(mgmt->managementDataLock);
+
+	result = (*env)->NewLongArray(env, J9GARBAGECOLLECTORDATA_PAUSE_HISTOGRAM_SIZE);
+	if (NULL != result) {
+		(*env)->SetLongArrayRegion(env, result, 0, J9GARBAGECOLLECTORDATA_PAUSE_HISTOGRAM_SIZE, (jlong *) histogram);
+	}
+	return result;
+}
+
+jlong JNICALL
+Java_com_ibm_lang_management_internal_ExtendedGarbageCollectorMXBeanImpl_getTotalMemoryAllocatedImpl(JNIEnv *env, jobject beanInstance, jint id)
+{
+	return getCollectorField(env, id, FIELD_TOTAL_MEMORY_ALLOCATED);
+}
+
+jlong JNICALL
+Java_com_ibm_lang_management_internal_ExtendedGarbageCollectorMXBeanImpl_getAllocationRateImpl(JNIEnv *env, jobject beanInstance, jint id)
+{
+	return getCollectorField(env, id, FIELD_ALLOCATION_RATE);
+}
+
+jlong JNICALL
+Java_com_ibm_lang_management_internal_ExtendedGarbageCollectorMXBeanImpl_getTotalMemoryPromotedImpl(JNIEnv *env, jobject beanInstance, jint id)
+{
+	return getCollectorField(env, id, FIELD_TOTAL_MEMORY_PROMOTED);
+}
+
+jlong JNICALL
+Java_com_ibm_lang_management_internal_ExtendedGarbageCollectorMXBeanImpl_getPromotionRateImpl(JNIEnv *env, jobject beanInstance, jint id)
+{
+	return getCollectorField(env, id, FIELD_PROMOTION_RATE);
+}
+
 static jlong
 getCollectorField(JNIEnv *env, jint id, GarbageCollectorField field)
 {
@@ -279,6 +331,19 @@ getCollectorField(JNIEnv *env, jint id, GarbageCollectorField field)
 	case FIELD_TOTAL_COMPACTS :
 		result = (jlong) gc->totalCompacts;
 		break;
+	case FIELD_TOTAL_MEMORY_ALLOCATED :
+		/* allocation is measured across all collectors */
+		result = (jlong) mgmt->totalMemoryAllocated;
+		break;
+	case FIELD_ALLOCATION_RATE :
+		result = (jlong) mgmt->allocationRate;
+		break;
+	case FIELD_TOTAL_MEMORY_PROMOTED :
+		result = (jlong) gc->totalMemoryPromoted;
+		break;
+	case FIELD_PROMOTION_RATE :
+		result = (jlong) gc->promotionRate;
+		break;
 	default:
 		break;
 	}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 1998, 2017 IBM Corp. and others
+ * Copyright (c) 1998, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -60,6 +60,8 @@ static void managementLocalGCEnd(J9HookInterface **hook, UDATA eventNum, void *e
 static void managementCompactEnd(J9HookInterface **hook, UDATA eventNum, void *eventData, void *userData);
 static void gcStartEvent(J9JavaVM *vm, UDATA heapSize, UDATA heapUsed, UDATA *totals, UDATA *frees, UDATA collectorID);
 static void gcEndEvent(J9JavaVM *vm, UDATA heapSize, UDATA heapUsed, UDATA *totals, UDATA *frees, UDATA *maxs, UDATA collectorID, OMR_VMThread *omrVMThread);
+static UDATA pauseTimeHistogramIndex(U_64 pauseMicros);
+static U_64 bytesPerSecond(U_64 bytes, U_64 intervalNS);
 static jint initMemoryManagement(J9JavaVM *vm);
 static U_32 getNumberSupported(U_32 supportedIDs);
 static UDATA getArrayIndexFromManagerID(J9JavaLangManagementData *mgmt, UDATA id);
@@ -497,6 +499,16 @@ gcStartEvent(J9JavaVM *vm, UDATA heapSize, UDATA heapUsed, UDATA *totals, UDATA
 	} else {
 		gcData->lastGcInfo.startTime -= mgmt->vmStartTime;
 	}
+	gcData->lastStartNanoTime = j9time_nano_time();
+
+	/* the heap has grown by what the application allocated since the previous collection ended */
+	if (heapUsed > mgmt->postCollectionHeapUsed) {
+		U_64 allocated = heapUsed - mgmt->postCollectionHeapUsed;
+		mgmt->totalMemoryAllocated += allocated;
+		mgmt->allocationRate = bytesPerSecond(allocated, checkedTimeInterval((U_64)gcData->lastStartNanoTime, (U_64)mgmt->lastCollectionEndNanoTime));
+	} else {
+		mgmt->allocationRate = 0;
+	}
 
 	mgmt->preCollectionHeapSize = heapSize;
 	mgmt->preCollectionHeapUsed = heapUsed;
@@ -588,6 +600,46 @@ gcStartEvent(J9JavaVM *vm, UDATA heapSize, UDATA heapUsed, UDATA *totals, UDATA
 	updateNonHeapMemoryPoolSizes(vm, mgmt, FALSE);
 }
 
+/**
+ * Find the pause time histogram bucket for a collection. Bucket 0 counts pauses
+ * shorter than a microsecond, bucket n counts pauses of at least 2^(n-1) and less
+ * than 2^n microseconds, and the last bucket counts every longer pause.
+ *
+ * @param[in] pauseMicros the duration of the collection in microseconds
+ * @return the index of the bucket
+ */
+static UDATA
+pauseTimeHistogramIndex(U_64 pauseMicros)
+{
+	UDATA index = 0;
+
+	while ((0 != pauseMicros) && ((J9GARBAGECOLLECTORDATA_PAUSE_HISTOGRAM_SIZE - 1) > index)) {
+		pauseMicros >>= 1;
+		index += 1;
+	}
+	return index;
+}
+
+/**
+ * Convert an amount of memory handled over an interval to a rate.
+ *
+ * @param[in] bytes the amount of memory
+ * @param[in] intervalNS the length of the interval in nanoseconds
+ * @return the rate in bytes per second, or 0 if the interval is shorter than a microsecond
+ */
+static U_64
+bytesPerSecond(U_64 bytes, U_64 intervalNS)
+{
+	U_64 intervalMicros = intervalNS / 1000;
+	U_64 rate = 0;
+
+	if (0 != intervalMicros) {
+		/* split the division so that large amounts do not overflow */
+		rate = ((bytes / intervalMicros) * 1000000) + (((bytes % intervalMicros) * 1000000) / intervalMicros);
+	}
+	return rate;
+}
+
 /* Updates java.lang.management data for the end of a GC. */
 static void
 gcEndEvent(J9JavaVM *vm, UDATA heapSize, UDATA heapUsed, UDATA *totals, UDATA *frees, UDATA *maxs, UDATA collectorID, OMR_VMThread *omrVMThread)
@@ -603,6 +655,8 @@ gcEndEvent(J9JavaVM *vm, UDATA heapSize, UDATA heapUsed, UDATA *totals, UDATA *f
 	UDATA used = 0;
 	UDATA idx = 0;
 	U_32 notificationEnabled = 0;
+	I_64 endNanoTime = 0;
+	U_64 promoted = 0;
 
 	UDATA supportedMemoryPools = mgmt->supportedMemoryPools;
 	UDATA supportedNonHeapMemoryPools = mgmt->supportedNonHeapMemoryPools;
@@ -713,6 +767,10 @@ gcEndEvent(J9JavaVM *vm, UDATA heapSize, UDATA heapUsed, UDATA *totals, UDATA *f
 		gcData->lastGcInfo.endTime = gcData->lastGcInfo.startTime;
 	}
 
+	/* the pause histogram uses the monotonic clock, in microseconds */
+	endNanoTime = j9time_nano_time();
+	gcData->pauseTimeHistogram[pauseTimeHistogramIndex(checkedTimeInterval((U_64)endNanoTime, (U_64)gcData->lastStartNanoTime) / 1000)] += 1;
+
 	/* collectionCount */
 	gcData->lastGcInfo.index += 1;
 	gcData->memoryUsed = 0;
@@ -720,8 +778,15 @@ gcEndEvent(J9JavaVM *vm, UDATA heapSize, UDATA heapUsed, UDATA *totals, UDATA *f
 	for (idx = 0; idx < mgmt->supportedMemoryPools; ++idx) {
 		if (0 != mmFuncs->j9gc_is_managedpool_by_collector(vm, (gcData->id & J9VM_MANAGEMENT_GC_HEAP_ID_MASK), (memoryPools[idx].id & J9VM_MANAGEMENT_POOL_HEAP_ID_MASK))) {
 			gcData->memoryUsed += memoryPools[idx].postCollectionUsed;
+		} else if (memoryPools[idx].postCollectionUsed > memoryPools[idx].preCollectionUsed) {
+			/* pools this collector does not manage only grow by the objects it promotes into them */
+			promoted += memoryPools[idx].postCollectionUsed - memoryPools[idx].preCollectionUsed;
 		}
 	}
+	gcData->totalMemoryPromoted += promoted;
+	gcData->promotionRate = bytesPerSecond(promoted, checkedTimeInterval((U_64)endNanoTime, (U_64)gcData->lastEndNanoTime));
+	gcData->lastEndNanoTime = endNanoTime;
+	mgmt->lastCollectionEndNanoTime = endNanoTime;
 	
 	gcData->totalMemoryFreed += (I_64)(mgmt->preCollectionHeapUsed - mgmt->postCollectionHeapUsed);
 	
@@ -853,6 +918,8 @@ initMemoryManagement(J9JavaVM *vm)
 		return JNI_ERR;
 	}
 	memset(mgmt->garbageCollectors, 0, (sizeof(*mgmt->garbageCollectors) * mgmt->supportedCollectors));
+	/* allocation and promotion rates are measured from VM startup until the first collection */
+	mgmt->lastCollectionEndNanoTime = j9time_nano_time();
 
 	for (count = 0, mask = 1, idx = 0; count < J9_GC_MANAGEMENT_MAX_COLLECTOR; ++count, mask <<= 1) {
 
@@ -863,6 +930,7 @@ initMemoryManagement(J9JavaVM *vm)
 			if (mmFuncs->j9gc_is_local_collector(vm, id)) {
 				mgmt->garbageCollectors[idx].id |= J9VM_MANAGEMENT_GC_LOCAL;
 			}
+			mgmt->garbageCollectors[idx].lastEndNanoTime = mgmt->lastCollectionEndNanoTime;
 			idx += 1;
 		}
 	}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 1998, 2016 IBM Corp. and others
+ * Copyright (c) 1998, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -520,6 +520,14 @@ Java_com_ibm_java_lang_management_internal_MemoryMXBeanImpl_getCurrentGCThreadsI
 	return result;
 }
 
+jlong JNICALL
+Java_com_ibm_java_lang_management_internal_MemoryMXBeanImpl_getStringDeduplicationBytesSavedImpl(JNIEnv *env, jobject beanInstance)
+{
+	J9JavaVM *javaVM = ((J9VMThread *) env)->javaVM;
+
+	return (jlong) javaVM->memoryManagerFunctions->j9gc_get_string_deduplication_bytes_saved(javaVM);
+}
+
 /* Implementation of the main loop of a thread that processes and dispatches memory usage notifications to Java handlers. */
 void JNICALL
 Java_com_ibm_lang_management_internal_MemoryNotificationThread_processNotificationLoop(JNIEnv *env, jobject threadInstance)
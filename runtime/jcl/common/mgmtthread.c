@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 1998, 2017 IBM Corp. and others
+ * Copyright (c) 1998, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -45,12 +45,15 @@
 #include "jniidcacheinit.h"
 
 #include <string.h>
+#include <stdlib.h>
 
 #include "vmaccess.h"
 #include "jclglob.h"
 
 #include "rommeth.h"
 #include "stackwalk.h"
+#include "util_api.h"
+#include "avl_api.h"
 #include "HeapIteratorAPI.h"
 
 #define J9OBJECT_FROM_JOBJECT(jobj) (*(j9object_t*) (jobj))
@@ -108,6 +111,11 @@ typedef struct SynchronizerIterData {
 	UDATA allinfolen;
 } SynchronizerIterData;
 
+typedef struct ThreadIDIndex {
+	jlong threadID;
+	jsize index;
+} ThreadIDIndex;
+
 static void handlerContendedEnter(J9HookInterface** hook, UDATA eventNum, void* eventData, void* userData);
 static void handlerContendedEntered(J9HookInterface** hook, UDATA eventNum, void* eventData, void* userData);
 static void handlerMonitorWait(J9HookInterface** hook, UDATA eventNum, void* eventData, void* userData);
@@ -119,6 +127,11 @@ static jlong getThreadID(J9VMThread *currentThread, j9object_t threadObj);
 static J9VMThread *getThread(JNIEnv *env, jlong threadID);
 static jlong getThreadUserTime(omrthread_t thread);
 static jlong getCurrentThreadUserTime(omrthread_t self);
+static int compareThreadIDIndex(const void *left, const void *right);
+static void getMultiThreadTimes(JNIEnv *env, jlongArray threadIDs, jlongArray resultArray, BOOLEAN userTime);
+static UDATA stackSampleIterator(J9VMThread *currentThread, J9StackWalkState *walkState);
+static J9MemorySegment *findLoadedClassSegment(J9JavaVM *vm, void *address, UDATA size);
+static J9Method *findSampledMethod(J9JavaVM *vm, jlong methodID);
 
 static jint initIDCache(JNIEnv *env);
 
@@ -344,6 +357,408 @@ Java_com_ibm_java_lang_management_internal_ThreadMXBeanImpl_getThreadUserTimeImp
 	return userTime;
 }
 
+void JNICALL
+Java_com_ibm_java_lang_management_internal_ThreadMXBeanImpl_getThreadCpuTimesImpl(JNIEnv *env, jobject beanInstance, jlongArray threadIDs, jlongArray resultArray)
+{
+	Trc_JCL_threadmxbean_getThreadCpuTimesImpl_Entry(env);
+	getMultiThreadTimes(env, threadIDs, resultArray, FALSE);
+	Trc_JCL_threadmxbean_getThreadCpuTimesImpl_Exit(env);
+}
+
+void JNICALL
+Java_com_ibm_java_lang_management_internal_ThreadMXBeanImpl_getThreadUserTimesImpl(JNIEnv *env, jobject beanInstance, jlongArray threadIDs, jlongArray resultArray)
+{
+	Trc_JCL_threadmxbean_getThreadUserTimesImpl_Entry(env);
+	getMultiThreadTimes(env, threadIDs, resultArray, TRUE);
+	Trc_JCL_threadmxbean_getThreadUserTimesImpl_Exit(env);
+}
+
+static int
+compareThreadIDIndex(const void *left, const void *right)
+{
+	jlong leftID = ((const ThreadIDIndex *)left)->threadID;
+	jlong rightID = ((const ThreadIDIndex *)right)->threadID;
+
+	if (leftID < rightID) {
+		return -1;
+	}
+	if (leftID > rightID) {
+		return 1;
+	}
+	return 0;
+}
+
+/**
+ * Fill in the CPU time, or user mode CPU time, of each of a set of threads.
+ *
+ * The thread list is walked once under a single acquisition of VM access and the vmThreadListMutex.
+ * The requested IDs are sorted beforehand so that each live thread is matched to the requested IDs
+ * with a binary search, rather than the thread list being walked once per requested ID.
+ *
+ * @param[in] env  The JNI env.
+ * @param[in] threadIDs  Array of the IDs of the threads whose times are required.
+ * @param[in,out] resultArray  Array of the same length to hold the times, -1 for threads which are not alive.
+ * @param[in] userTime  TRUE for user mode CPU time, FALSE for total CPU time.
+ */
+static void
+getMultiThreadTimes(JNIEnv *env, jlongArray threadIDs, jlongArray resultArray, BOOLEAN userTime)
+{
+	PORT_ACCESS_FROM_ENV(env);
+	J9VMThread *currentThread = (J9VMThread *)env;
+	J9JavaVM *javaVM = currentThread->javaVM;
+	J9InternalVMFunctions *vmfns = javaVM->internalVMFunctions;
+	J9VMThread *targetThread = NULL;
+	ThreadIDIndex *sortedIDs = NULL;
+	jlong *times = NULL;
+	jsize arrLen = 0;
+	jsize i = 0;
+
+	/* Java code checks for null */
+	Assert_JCL_notNull(threadIDs);
+	Assert_JCL_notNull(resultArray);
+
+	arrLen = (*env)->GetArrayLength(env, threadIDs);
+	if (0 == arrLen) {
+		return;
+	}
+
+	sortedIDs = j9mem_allocate_memory(arrLen * (sizeof(ThreadIDIndex) + sizeof(jlong)), J9MEM_CATEGORY_VM_JCL);
+	if (NULL == sortedIDs) {
+		Trc_JCL_threadmxbean_getMultiThreadTimes_outOfMemory(env, arrLen);
+		throwNativeOOMError(env, 0, 0);
+		return;
+	}
+	times = (jlong *)(sortedIDs + arrLen);
+
+	/* Use the times array to fetch the IDs, then sort the IDs remembering where each came from */
+	(*env)->GetLongArrayRegion(env, threadIDs, 0, arrLen, times);
+	for (i = 0; i < arrLen; i++) {
+		sortedIDs[i].threadID = times[i];
+		sortedIDs[i].index = i;
+		times[i] = -1;
+	}
+	J9_SORT(sortedIDs, (UDATA)arrLen, sizeof(ThreadIDIndex), compareThreadIDIndex);
+
+	vmfns->internalEnterVMFromJNI(currentThread);
+	omrthread_monitor_enter(javaVM->vmThreadListMutex);
+	targetThread = javaVM->mainThread;
+	do {
+		/* check that the thread is alive */
+		if ((NULL != targetThread->threadObject)
+			&& (J9VMJAVALANGTHREAD_THREADREF(currentThread, targetThread->threadObject) == targetThread)
+		) {
+			ThreadIDIndex key;
+			ThreadIDIndex *match = NULL;
+
+			key.threadID = getThreadID(currentThread, (j9object_t)targetThread->threadObject);
+			match = bsearch(&key, sortedIDs, (size_t)arrLen, sizeof(ThreadIDIndex), compareThreadIDIndex);
+			if (NULL != match) {
+				jlong time = -1;
+				ThreadIDIndex *end = sortedIDs + arrLen;
+
+				if (targetThread == currentThread) {
+					time = userTime ? getCurrentThreadUserTime(targetThread->osThread) : omrthread_get_self_cpu_time(targetThread->osThread);
+				} else {
+					time = userTime ? getThreadUserTime(targetThread->osThread) : omrthread_get_cpu_time(targetThread->osThread);
+				}
+
+				/* The same ID may have been requested more than once */
+				while ((match > sortedIDs) && (match[-1].threadID == key.threadID)) {
+					match -= 1;
+				}
+				for (; (match < end) && (match->threadID == key.threadID); match++) {
+					times[match->index] = time;
+				}
+			}
+		}
+		targetThread = targetThread->linkNext;
+	} while ((NULL != targetThread) && (targetThread != javaVM->mainThread));
+	omrthread_monitor_exit(javaVM->vmThreadListMutex);
+	vmfns->internalReleaseVMAccess(currentThread);
+
+	(*env)->SetLongArrayRegion(env, resultArray, 0, arrLen, times);
+	j9mem_free_memory(sortedIDs);
+}
+
+/**
+ * Store the method and bytecode index of the frame the walk is positioned at
+ * in the buffer in walkState->userData1, then advance the buffer.
+ */
+static UDATA
+stackSampleIterator(J9VMThread *currentThread, J9StackWalkState *walkState)
+{
+	jlong *frame = walkState->userData1;
+
+	frame[0] = (jlong)(UDATA)walkState->method;
+	/* The stack walker sets bytecodePCOffset to -1 for native methods */
+	frame[1] = (jlong)(IDATA)walkState->bytecodePCOffset;
+	walkState->userData1 = frame + 2;
+	return J9_STACKWALK_KEEP_ITERATING;
+}
+
+/**
+ * Sample the stacks of a set of threads, recording a method ID and bytecode index for each frame.
+ * The method ID is the J9Method of the frame, which getFrameDescriptionImpl verifies before use.
+ *
+ * All the stacks are walked under a single acquisition of exclusive VM access, so the samples
+ * are taken at the same point in each thread's execution, and no Java objects are created.
+ * The requested IDs are sorted beforehand so that the thread list is walked once, each live
+ * thread being matched to the requested IDs with a binary search.
+ *
+ * @param[in] env  The JNI env.
+ * @param[in] beanInstance  The ThreadMXBeanImpl.
+ * @param[in] threadIDs  Array of the IDs of the threads to sample.
+ * @param[in] maxDepth  The maximum number of frames to record for each thread.
+ * @param[in,out] frames  Array to hold the method ID and bytecode index pairs, maxDepth pairs per thread.
+ * @param[in,out] depths  Array to hold the number of frames recorded for each thread, -1 for threads which are not alive.
+ */
+void JNICALL
+Java_com_ibm_java_lang_management_internal_ThreadMXBeanImpl_getThreadStackSamplesImpl(JNIEnv *env, jobject beanInstance, jlongArray threadIDs, jint maxDepth, jlongArray frames, jintArray depths)
+{
+	PORT_ACCESS_FROM_ENV(env);
+	J9VMThread *currentThread = (J9VMThread *)env;
+	J9JavaVM *vm = currentThread->javaVM;
+	J9InternalVMFunctions *vmfns = vm->internalVMFunctions;
+	UDATA threadFrameLongs = (UDATA)maxDepth * 2;
+	ThreadIDIndex *sortedIDs = NULL;
+	jlong *samples = NULL;
+	jint *counts = NULL;
+	J9VMThread *targetThread = NULL;
+	jsize arrLen = 0;
+	jsize i = 0;
+
+	/* Java code checks for null and the lengths of the arrays */
+	Assert_JCL_notNull(threadIDs);
+	Assert_JCL_notNull(frames);
+	Assert_JCL_notNull(depths);
+
+	arrLen = (*env)->GetArrayLength(env, threadIDs);
+	Trc_JCL_threadmxbean_getThreadStackSamplesImpl_Entry(env, arrLen, maxDepth);
+	if (0 == arrLen) {
+		goto _exit;
+	}
+
+	sortedIDs = j9mem_allocate_memory(arrLen * (sizeof(ThreadIDIndex) + sizeof(jlong) + sizeof(jint) + (threadFrameLongs * sizeof(jlong))), J9MEM_CATEGORY_VM_JCL);
+	if (NULL == sortedIDs) {
+		Trc_JCL_threadmxbean_getThreadStackSamplesImpl_outOfMemory(env, arrLen, maxDepth);
+		throwNativeOOMError(env, 0, 0);
+		goto _exit;
+	}
+	samples = (jlong *)(sortedIDs + arrLen);
+	counts = (jint *)(samples + arrLen + (arrLen * threadFrameLongs));
+
+	/* Use the end of the samples to fetch the IDs, then sort the IDs remembering where each came from */
+	(*env)->GetLongArrayRegion(env, threadIDs, 0, arrLen, samples + (arrLen * threadFrameLongs));
+	for (i = 0; i < arrLen; i++) {
+		sortedIDs[i].threadID = samples[(arrLen * threadFrameLongs) + i];
+		sortedIDs[i].index = i;
+		counts[i] = -1;
+	}
+	J9_SORT(sortedIDs, (UDATA)arrLen, sizeof(ThreadIDIndex), compareThreadIDIndex);
+
+	vmfns->internalEnterVMFromJNI(currentThread);
+	vmfns->acquireExclusiveVMAccess(currentThread);
+	targetThread = vm->mainThread;
+	do {
+		/* check that the thread is alive */
+		if ((NULL != targetThread->threadObject)
+			&& (J9VMJAVALANGTHREAD_THREADREF(currentThread, targetThread->threadObject) == targetThread)
+		) {
+			ThreadIDIndex key;
+			ThreadIDIndex *match = NULL;
+
+			key.threadID = getThreadID(currentThread, (j9object_t)targetThread->threadObject);
+			match = bsearch(&key, sortedIDs, (size_t)arrLen, sizeof(ThreadIDIndex), compareThreadIDIndex);
+			if (NULL != match) {
+				ThreadIDIndex *end = sortedIDs + arrLen;
+				jlong *threadSamples = NULL;
+				jint count = 0;
+
+				/* The same ID may have been requested more than once */
+				while ((match > sortedIDs) && (match[-1].threadID == key.threadID)) {
+					match -= 1;
+				}
+				threadSamples = samples + (match->index * threadFrameLongs);
+				if (0 != maxDepth) {
+					J9StackWalkState walkState;
+
+					walkState.walkThread = targetThread;
+					walkState.flags = J9_STACKWALK_INCLUDE_NATIVES | J9_STACKWALK_VISIBLE_ONLY
+						| J9_STACKWALK_RECORD_BYTECODE_PC_OFFSET | J9_STACKWALK_COUNT_SPECIFIED
+						| J9_STACKWALK_ITERATE_FRAMES;
+					walkState.skipCount = 0;
+					walkState.maxFrames = (UDATA)maxDepth;
+					walkState.userData1 = threadSamples;
+					walkState.frameWalkFunction = stackSampleIterator;
+					vm->walkStackFrames(currentThread, &walkState);
+					count = (jint)walkState.framesWalked;
+				}
+				for (; (match < end) && (match->threadID == key.threadID); match++) {
+					if (threadSamples != (samples + (match->index * threadFrameLongs))) {
+						memcpy(samples + (match->index * threadFrameLongs), threadSamples, count * 2 * sizeof(jlong));
+					}
+					counts[match->index] = count;
+				}
+			}
+		}
+		targetThread = targetThread->linkNext;
+	} while ((NULL != targetThread) && (targetThread != vm->mainThread));
+	vmfns->releaseExclusiveVMAccess(currentThread);
+	vmfns->internalReleaseVMAccess(currentThread);
+
+	for (i = 0; i < arrLen; i++) {
+		if (counts[i] > 0) {
+			(*env)->SetLongArrayRegion(env, frames, (jsize)(i * threadFrameLongs), counts[i] * 2, samples + (i * threadFrameLongs));
+		}
+	}
+	(*env)->SetIntArrayRegion(env, depths, 0, arrLen, counts);
+
+_exit:
+	j9mem_free_memory(sortedIDs);
+	Trc_JCL_threadmxbean_getThreadStackSamplesImpl_Exit(env);
+}
+
+/**
+ * Find the class memory segment of a loaded class that holds a structure.
+ *
+ * @pre The caller holds the classTableMutex.
+ * @param[in] vm  The Java VM.
+ * @param[in] address  The address of the structure.
+ * @param[in] size  The size of the structure.
+ * @return The segment, or NULL if the structure is not wholly within the allocated part of a segment of a loaded class.
+ */
+static J9MemorySegment *
+findLoadedClassSegment(J9JavaVM *vm, void *address, UDATA size)
+{
+	J9MemorySegment *segment = (J9MemorySegment *)avl_search(&vm->classMemorySegments->avlTreeData, (UDATA)address);
+
+	/* Segments of undead classes have no class loader, and hold no valid methods */
+	if ((NULL != segment)
+		&& ((MEMORY_TYPE_UNDEAD_CLASS == segment->type) || (NULL == segment->classLoader)
+		|| ((UDATA)address < (UDATA)segment->heapBase) || (((UDATA)address + size) > (UDATA)segment->heapAlloc))
+	) {
+		segment = NULL;
+	}
+	return segment;
+}
+
+/**
+ * Find the method a method ID recorded by getThreadStackSamplesImpl identifies. The ID is only
+ * used as a method once the constant pool and class it refers to are found in class memory
+ * segments of the class loader of the segment containing it, the class refers back to the
+ * constant pool, and the ID lies on a method in the RAM methods of the class. An arbitrary ID,
+ * or the ID of a method of an unloaded class, is thus rejected rather than followed, without
+ * walking the classes of the loader. The ID of an unloaded method may however identify a method
+ * of a class loaded since into the same memory.
+ *
+ * @pre The current thread has VM access, so classes cannot be unloaded while the method is used.
+ * @param[in] vm  The Java VM.
+ * @param[in] methodID  The method ID of the frame.
+ * @return The method, or NULL if methodID does not identify a method of a loaded class.
+ */
+static J9Method *
+findSampledMethod(J9JavaVM *vm, jlong methodID)
+{
+	J9Method *method = (J9Method *)(UDATA)methodID;
+	J9Method *result = NULL;
+	J9MemorySegment *methodSegment = NULL;
+
+	omrthread_monitor_enter(vm->classTableMutex);
+
+	methodSegment = findLoadedClassSegment(vm, method, sizeof(J9Method));
+	if (NULL != methodSegment) {
+		/* The parts of a RAM class may be allocated in different segments of its class loader */
+		J9ConstantPool *constantPool = J9_CP_FROM_METHOD(method);
+		J9MemorySegment *segment = findLoadedClassSegment(vm, constantPool, sizeof(J9ConstantPool));
+
+		if ((NULL != segment) && (segment->classLoader == methodSegment->classLoader)) {
+			J9Class *clazz = J9_CLASS_FROM_CP(constantPool);
+
+			segment = findLoadedClassSegment(vm, clazz, sizeof(J9Class));
+			if ((NULL != segment) && (segment->classLoader == methodSegment->classLoader)
+				&& ((J9ConstantPool *)clazz->ramConstantPool == constantPool)
+				&& (clazz->ramMethods <= method) && (method < (clazz->ramMethods + clazz->romClass->romMethodCount))
+				&& (0 == (((UDATA)method - (UDATA)clazz->ramMethods) % sizeof(J9Method)))
+			) {
+				result = method;
+			}
+		}
+	}
+
+	omrthread_monitor_exit(vm->classTableMutex);
+
+	return result;
+}
+
+/**
+ * Describe a frame recorded by getThreadStackSamplesImpl.
+ *
+ * @param[in] env  The JNI env.
+ * @param[in] beanInstance  The ThreadMXBeanImpl.
+ * @param[in] methodID  The method ID of the frame.
+ * @param[in] bytecodeIndex  The bytecode index of the frame.
+ * @param[in,out] names  Array to hold the declaring class name, method name and source file name.
+ * 		Left unchanged if methodID does not identify a method of a loaded class.
+ * @return The line number of the bytecode index, -2 for a native method, or -1 if it is not known.
+ */
+jint JNICALL
+Java_com_ibm_java_lang_management_internal_ThreadMXBeanImpl_getFrameDescriptionImpl(JNIEnv *env, jobject beanInstance, jlong methodID, jlong bytecodeIndex, jobjectArray names)
+{
+	J9VMThread *currentThread = (J9VMThread *)env;
+	J9JavaVM *vm = currentThread->javaVM;
+	J9InternalVMFunctions *vmfns = vm->internalVMFunctions;
+	J9MemoryManagerFunctions *mmfns = vm->memoryManagerFunctions;
+	J9Method *method = NULL;
+	jobject className = NULL;
+	jobject methodName = NULL;
+	jobject fileNameString = NULL;
+	jint lineNumber = -1;
+
+	Trc_JCL_threadmxbean_getFrameDescriptionImpl_Entry(env, methodID, bytecodeIndex);
+
+	vmfns->internalEnterVMFromJNI(currentThread);
+	method = findSampledMethod(vm, methodID);
+	if (NULL != method) {
+		J9Class *ramClass = J9_CLASS_FROM_METHOD(method);
+		J9ROMClass *romClass = ramClass->romClass;
+		J9ROMMethod *romMethod = J9_ROM_METHOD_FROM_RAM_METHOD(method);
+		J9UTF8 *fileName = NULL;
+		UDATA flags = J9_STR_XLAT;
+
+		if (J9_ARE_ALL_BITS_SET(romClass->extraModifiers, J9AccClassAnonClass)) {
+			flags |= J9_STR_ANON_CLASS_NAME;
+		}
+		className = vmfns->j9jni_createLocalRef(env, mmfns->j9gc_createJavaLangString(currentThread,
+				J9UTF8_DATA(J9ROMCLASS_CLASSNAME(romClass)), J9UTF8_LENGTH(J9ROMCLASS_CLASSNAME(romClass)), flags));
+		if (NULL == currentThread->currentException) {
+			methodName = vmfns->j9jni_createLocalRef(env, mmfns->j9gc_createJavaLangString(currentThread,
+					J9UTF8_DATA(J9ROMMETHOD_GET_NAME(romClass, romMethod)), J9UTF8_LENGTH(J9ROMMETHOD_GET_NAME(romClass, romMethod)), J9_STR_INTERN));
+		}
+		fileName = getSourceFileNameForROMClass(vm, ramClass->classLoader, romClass);
+		if ((NULL != fileName) && (NULL == currentThread->currentException)) {
+			fileNameString = vmfns->j9jni_createLocalRef(env, mmfns->j9gc_createJavaLangString(currentThread,
+					J9UTF8_DATA(fileName), J9UTF8_LENGTH(fileName), J9_STR_INTERN));
+		}
+		if (J9_ARE_ANY_BITS_SET(romMethod->modifiers, J9AccNative)) {
+			lineNumber = -2;
+		} else if ((bytecodeIndex >= 0) && ((UDATA)bytecodeIndex < J9_BYTECODE_SIZE_FROM_ROM_METHOD(romMethod))) {
+			UDATA line = getLineNumberForROMClassFromROMMethod(vm, romMethod, romClass, 0, ramClass->classLoader, (UDATA)bytecodeIndex);
+			if (0 != line) {
+				lineNumber = (jint)line;
+			}
+		}
+	}
+	vmfns->internalReleaseVMAccess(currentThread);
+
+	if ((NULL != method) && !(*env)->ExceptionCheck(env)) {
+		(*env)->SetObjectArrayElement(env, names, 0, className);
+		(*env)->SetObjectArrayElement(env, names, 1, methodName);
+		(*env)->SetObjectArrayElement(env, names, 2, fileNameString);
+	}
+
+	Trc_JCL_threadmxbean_getFrameDescriptionImpl_Exit(env, lineNumber);
+	return lineNumber;
+}
 
 jint JNICALL
 Java_com_ibm_java_lang_management_internal_ThreadMXBeanImpl_getDaemonThreadCountImpl(JNIEnv *env, jobject beanInstance)
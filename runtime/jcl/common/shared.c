@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 1998, 2017 IBM Corp. and others
+ * Copyright (c) 1998, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -97,6 +97,8 @@ static jobject createDirectByteBuffer(JNIEnv* env, const void* address, UDATA da
 UDATA urlHashEqualFn(void* left, void* right, void *userData);
 static UDATA getPathProtocolFromURL(JNIEnv* env, jobject url, jmethodID URLgetPathID, jmethodID URLgetProtocolID, URLElements *urlElements);
 static void releaseStringChars(JNIEnv* env, jstring str, const char* chars);
+static UDATA getTokenArrayChars(JNIEnv* env, jobjectArray tokenArray, UDATA count, const char** keys, UDATA* keylens);
+static void releaseTokenArrayChars(JNIEnv* env, jobjectArray tokenArray, UDATA count, const char** keys);
 static void releaseStringPair(JNIEnv* env, jstring str1, const char* chars1, jstring str2, const char* chars2);
 static J9Pool* getTokenCache(JNIEnv* env);
 
@@ -696,6 +698,43 @@ releaseStringChars(JNIEnv* env, jstring str, const char* chars)
 	Trc_JCL_com_ibm_oti_shared_releaseStringChars_Exit(env);
 }
 
+/* Gets the chars of each of the count tokens in tokenArray. On failure, chars already got are released.
+ * THREADING: Can be called multi-threaded */
+static UDATA
+getTokenArrayChars(JNIEnv* env, jobjectArray tokenArray, UDATA count, const char** keys, UDATA* keylens)
+{
+	UDATA i;
+
+	for (i = 0; i < count; i++) {
+		jstring tokenObj = (jstring)(*env)->GetObjectArrayElement(env, tokenArray, (jsize)i);
+		jsize tokenLen = 0;
+
+		keys[i] = NULL;
+		if (!getStringChars(env, &keys[i], &tokenLen, tokenObj)) {
+			(*env)->DeleteLocalRef(env, tokenObj);
+			releaseTokenArrayChars(env, tokenArray, i, keys);
+			return 0;
+		}
+		keylens[i] = (UDATA)tokenLen;
+		(*env)->DeleteLocalRef(env, tokenObj);
+	}
+	return 1;
+}
+
+/* THREADING: Can be called multi-threaded */
+static void
+releaseTokenArrayChars(JNIEnv* env, jobjectArray tokenArray, UDATA count, const char** keys)
+{
+	UDATA i;
+
+	for (i = 0; i < count; i++) {
+		jstring tokenObj = (jstring)(*env)->GetObjectArrayElement(env, tokenArray, (jsize)i);
+
+		releaseStringChars(env, tokenObj, keys[i]);
+		(*env)->DeleteLocalRef(env, tokenObj);
+	}
+}
+
 /* THREADING: Can be called multi-threaded */
 static void
 releaseStringPair(JNIEnv* env, jstring str1, const char* chars1, jstring str2, const char* chars2)
@@ -2084,6 +2123,226 @@ _error:
 }
 
 
+jobjectArray JNICALL
+Java_com_ibm_oti_shared_SharedDataHelperImpl_findSharedDataBatchImpl(JNIEnv* env, jobject thisObj, jint helperID, jobjectArray tokenArray)
+{
+#if defined(J9VM_OPT_SHARED_CLASSES)
+	J9JavaVM* vm;
+	UDATA oldState;
+	jobjectArray returnVal = NULL;
+	J9SharedClassConfig* config;
+	jclass byteBuffer;
+	UDATA count;
+	UDATA i;
+	const char** keys = NULL;
+	UDATA* keylens = NULL;
+	J9SharedDataDescriptor* existingData = NULL;
+	IDATA* numElems = NULL;
+	IDATA found = 0;
+
+	PORT_ACCESS_FROM_VMC((J9VMThread*)env);
+
+	Trc_JCL_com_ibm_oti_shared_SharedDataHelperImpl_findSharedDataBatchImpl_Entry(env, helperID);
+
+	vm = ((J9VMThread*)env)->javaVM;
+	config = vm->sharedClassConfig;
+
+	if ((helperID > 0xFFFF) || (config->runtimeFlags & J9SHR_RUNTIMEFLAG_DENY_CACHE_ACCESS)) {
+		Trc_JCL_com_ibm_oti_shared_SharedDataHelperImpl_findSharedDataBatchImpl_ExitDeny(env);
+		return NULL;
+	}
+
+	oldState = ((J9VMThread*)env)->omrVMThread->vmState;
+	((J9VMThread*)env)->omrVMThread->vmState = J9VMSTATE_SHAREDDATA_FIND;
+
+	count = (UDATA)(*env)->GetArrayLength(env, tokenArray);
+	if (!(byteBuffer = (*env)->FindClass(env, "java/nio/ByteBuffer"))) {
+		goto _error;
+	}
+	if (!(returnVal = (*env)->NewObjectArray(env, (jsize)count, byteBuffer, NULL))) {
+		goto _error;
+	}
+	if (0 == count) {
+		goto _done;
+	}
+
+	/* one allocation holds the keys, their lengths, and the results for each key */
+	if (!(keys = (const char**)j9mem_allocate_memory(count * (sizeof(const char*) + sizeof(UDATA) + sizeof(J9SharedDataDescriptor) + sizeof(IDATA)), J9MEM_CATEGORY_VM_JCL))) {
+		goto _error;
+	}
+	keylens = (UDATA*)(keys + count);
+	existingData = (J9SharedDataDescriptor*)(keylens + count);
+	numElems = (IDATA*)(existingData + count);
+
+	if (!getTokenArrayChars(env, tokenArray, count, keys, keylens)) {
+		goto _error;
+	}
+
+	omrthread_monitor_enter(config->jclCacheMutex);
+
+	found = config->findSharedDataBatch((J9VMThread*)env, count, keys, keylens, J9SHR_DATA_TYPE_JCL, FALSE, existingData, numElems);
+
+	omrthread_monitor_exit(config->jclCacheMutex);
+
+	releaseTokenArrayChars(env, tokenArray, count, keys);
+
+	if (found > 0) {
+		for (i = 0; i < count; i++) {
+			if (numElems[i] == 1) {
+				jobject buffer = createDirectByteBuffer(env, existingData[i].address, existingData[i].length);
+
+				if (!buffer) {
+					goto _error;
+				}
+				(*env)->SetObjectArrayElement(env, returnVal, (jsize)i, buffer);
+				(*env)->DeleteLocalRef(env, buffer);
+			} else if (numElems[i] > 1) {
+				Trc_JCL_com_ibm_oti_shared_SharedDataHelperImpl_findSharedDataImpl_MultipleDataForKeyError(env);
+			}
+		}
+	}
+
+_done:
+	j9mem_free_memory((void*)keys);
+
+	((J9VMThread*)env)->omrVMThread->vmState = oldState;
+
+	Trc_JCL_com_ibm_oti_shared_SharedDataHelperImpl_findSharedDataBatchImpl_Exit(env, count, found);
+	return returnVal;
+
+_error:
+	j9mem_free_memory((void*)keys);
+
+	(*env)->ExceptionClear(env);
+
+	((J9VMThread*)env)->omrVMThread->vmState = oldState;
+
+	Trc_JCL_com_ibm_oti_shared_SharedDataHelperImpl_findSharedDataBatchImpl_ExitError(env);
+#endif		/* J9VM_OPT_SHARED_CLASSES */
+	return NULL;
+}
+
+
+jobjectArray JNICALL
+Java_com_ibm_oti_shared_SharedDataHelperImpl_storeSharedDataBatchImpl(JNIEnv* env, jobject thisObj, jobject loaderObj, jint helperID, jobjectArray tokenArray, jobjectArray byteBufferArray)
+{
+#if defined(J9VM_OPT_SHARED_CLASSES)
+	J9JavaVM* vm;
+	J9VMThread* vmThread;
+	UDATA oldState;
+	jobjectArray returnVal = NULL;
+	J9ClassLoader* classloader;
+	J9SharedClassConfig* config;
+	jclass byteBuffer;
+	UDATA count;
+	UDATA i;
+	const char** keys = NULL;
+	UDATA* keylens = NULL;
+	J9SharedDataDescriptor* descriptors = NULL;
+	const U_8** cachedData = NULL;
+	IDATA stored = 0;
+
+	PORT_ACCESS_FROM_VMC((J9VMThread*)env);
+
+	Trc_JCL_com_ibm_oti_shared_SharedDataHelperImpl_storeSharedDataBatchImpl_Entry(env, helperID);
+
+	vmThread = (J9VMThread*)env;
+	vm = vmThread->javaVM;
+	config = vm->sharedClassConfig;
+
+	if ((helperID > 0xFFFF) || (config->runtimeFlags & J9SHR_RUNTIMEFLAG_DENY_CACHE_UPDATES)) {
+		Trc_JCL_com_ibm_oti_shared_SharedDataHelperImpl_storeSharedDataBatchImpl_ExitDenyUpdates(env);
+		return NULL;
+	}
+
+	oldState = vmThread->omrVMThread->vmState;
+	vmThread->omrVMThread->vmState = J9VMSTATE_SHAREDDATA_STORE;
+
+	vm->internalVMFunctions->internalEnterVMFromJNI(vmThread);
+	classloader = J9VMJAVALANGCLASSLOADER_VMREF(vmThread, J9_JNI_UNWRAP_REFERENCE(loaderObj));
+	vm->internalVMFunctions->internalReleaseVMAccess(vmThread);
+
+	count = (UDATA)(*env)->GetArrayLength(env, tokenArray);
+	if (!(byteBuffer = (*env)->FindClass(env, "java/nio/ByteBuffer"))) {
+		goto _error;
+	}
+	if (!(returnVal = (*env)->NewObjectArray(env, (jsize)count, byteBuffer, NULL))) {
+		goto _error;
+	}
+	if (0 == count) {
+		goto _done;
+	}
+
+	/* one allocation holds the keys, their lengths, the data for each key and where it was stored */
+	if (!(keys = (const char**)j9mem_allocate_memory(count * (sizeof(const char*) + sizeof(UDATA) + sizeof(J9SharedDataDescriptor) + sizeof(const U_8*)), J9MEM_CATEGORY_VM_JCL))) {
+		goto _error;
+	}
+	keylens = (UDATA*)(keys + count);
+	descriptors = (J9SharedDataDescriptor*)(keylens + count);
+	cachedData = (const U_8**)(descriptors + count);
+
+	if (!getTokenArrayChars(env, tokenArray, count, keys, keylens)) {
+		goto _error;
+	}
+
+	for (i = 0; i < count; i++) {
+		jobject byteBufferInput = (*env)->GetObjectArrayElement(env, byteBufferArray, (jsize)i);
+
+		descriptors[i].address = NULL;
+		descriptors[i].length = 0;
+		descriptors[i].type = J9SHR_DATA_TYPE_JCL;
+		descriptors[i].flags = 0;
+		/* a null buffer marks data stored against the token as stale */
+		if (NULL != byteBufferInput) {
+			descriptors[i].address = (U_8*)(*env)->GetDirectBufferAddress(env, byteBufferInput);
+			descriptors[i].length = (UDATA)((*env)->GetDirectBufferCapacity(env, byteBufferInput));
+			if ((NULL == descriptors[i].address) || !(classloader->flags & J9CLASSLOADER_SHARED_CLASSES_ENABLED)) {
+				/* a zero length key is skipped by the cache */
+				keylens[i] = 0;
+			}
+			(*env)->DeleteLocalRef(env, byteBufferInput);
+		}
+	}
+
+	stored = config->storeSharedDataBatch(vmThread, count, keys, keylens, descriptors, cachedData);
+
+	releaseTokenArrayChars(env, tokenArray, count, keys);
+
+	if (stored > 0) {
+		for (i = 0; i < count; i++) {
+			if (NULL != cachedData[i]) {
+				jobject buffer = createDirectByteBuffer(env, cachedData[i], descriptors[i].length);
+
+				if (!buffer) {
+					goto _error;
+				}
+				(*env)->SetObjectArrayElement(env, returnVal, (jsize)i, buffer);
+				(*env)->DeleteLocalRef(env, buffer);
+			}
+		}
+	}
+
+_done:
+	j9mem_free_memory((void*)keys);
+
+	vmThread->omrVMThread->vmState = oldState;
+
+	Trc_JCL_com_ibm_oti_shared_SharedDataHelperImpl_storeSharedDataBatchImpl_Exit(env, count, stored);
+	return returnVal;
+
+_error:
+	j9mem_free_memory((void*)keys);
+
+	(*env)->ExceptionClear(env);
+
+	vmThread->omrVMThread->vmState = oldState;
+
+	Trc_JCL_com_ibm_oti_shared_SharedDataHelperImpl_storeSharedDataBatchImpl_ExitError(env);
+#endif		/* J9VM_OPT_SHARED_CLASSES */
+	return NULL;
+}
+
+
 jboolean JNICALL 
 Java_com_ibm_oti_shared_SharedAbstractHelper_getIsVerboseImpl(JNIEnv* env, jobject thisObj) 
 {
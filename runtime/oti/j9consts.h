@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 1991, 2017 IBM Corp. and others
+ * Copyright (c) 1991, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -440,6 +440,8 @@ extern "C" {
 #if defined(J9VM_OPT_VALHALLA_MVT)
 #define J9_FINDCLASS_FLAG_DERIVED_VALUE_TYPE 0x10000
 #endif /* defined(J9VM_OPT_VALHALLA_MVT) */
+/* The caller owns the class data, so the class file may be parsed and prepared with the class table mutex released */
+#define J9_FINDCLASS_FLAG_CONCURRENT_PARSE 0x20000
 
 #define J9_FINDKNOWNCLASS_FLAG_INITIALIZE 0x1
 #define J9_FINDKNOWNCLASS_FLAG_EXISTING_ONLY 0x2
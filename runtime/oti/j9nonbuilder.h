@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 1991, 2017 IBM Corp. and others
+ * Copyright (c) 1991, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -37,6 +37,7 @@
 
 #define J9VM_DLT_HISTORY_SIZE  16
 #define J9VM_OBJECT_MONITOR_CACHE_SIZE  32
+#define J9VM_MONITOR_TABLE_LOOKUP_CACHE_SIZE  256
 #define J9VM_ASYNC_MAX_HANDLERS 32
 
 /* @ddr_namespace: map_to_type=J9JITDataCacheConstants */
@@ -725,6 +726,7 @@ typedef struct J9ROMStaticFieldShape {
 /* @ddr_namespace: map_to_type=J9VMExt */
 #define J9MEMORYPOOLDATA_MAX_NAME_BUFFER_SIZE   32
 #define J9GARBAGECOLLECTORDATA_MAX_NAME_BUFFER_SIZE   32
+#define J9GARBAGECOLLECTORDATA_PAUSE_HISTOGRAM_SIZE   32
 #define J9VM_MAX_HEAP_MEMORYPOOL_COUNT 4
 #define J9VM_MAX_NONHEAP_MEMORYPOOL_COUNT 4
 
@@ -753,6 +755,11 @@ typedef struct J9GarbageCollectorData {
 	I_64 totalMemoryFreed;
 	U_64 totalCompacts;
 	J9GarbageCollectionInfo lastGcInfo;
+	I_64 lastStartNanoTime;
+	I_64 lastEndNanoTime;
+	U_64 pauseTimeHistogram[J9GARBAGECOLLECTORDATA_PAUSE_HISTOGRAM_SIZE];
+	U_64 totalMemoryPromoted;
+	U_64 promotionRate;
 } J9GarbageCollectorData;
 
 typedef struct J9MemoryPoolData {
@@ -810,6 +817,9 @@ typedef struct J9JavaLangManagementData {
 	U_64 preCollectionHeapUsed;
 	U_64 postCollectionHeapSize;
 	U_64 postCollectionHeapUsed;
+	I_64 lastCollectionEndNanoTime;
+	U_64 totalMemoryAllocated;
+	U_64 allocationRate;
 	omrthread_monitor_t notificationMonitor;
 	void *notificationQueue;
 	U_32 notificationsPending;
@@ -1100,6 +1110,7 @@ typedef struct J9SharedClassJavacoreDataDescriptor {
 	UDATA zipCacheDataBytes;
 	UDATA jitHintDataBytes;
 	UDATA jitProfileDataBytes;
+	UDATA verifyDataBytes;
 	UDATA aotDataBytes;
 	UDATA aotClassChainDataBytes;
 	UDATA aotThunkDataBytes;
@@ -1116,6 +1127,7 @@ typedef struct J9SharedClassJavacoreDataDescriptor {
 	UDATA numZipCaches;
 	UDATA numJitHints;
 	UDATA numJitProfiles;
+	UDATA numVerifyRecords;
 	UDATA numAotDataEntries;
 	UDATA numAotClassChains;
 	UDATA numAotThunks;
@@ -1282,6 +1294,8 @@ typedef struct J9SharedClassConfig {
 	U_64 runtimeFlags;
 	UDATA verboseFlags;
 	UDATA findClassCntr;
+	UDATA verifiedClassCount;
+	UDATA verifySkippedClassCount;
 	omrthread_monitor_t configMonitor;
 	UDATA configLockWord; /* The VM no longer uses this field, but the z/OS JIT doesn't build without it */
 	const struct J9UTF8* modContext;
@@ -1296,6 +1310,8 @@ typedef struct J9SharedClassConfig {
 	UDATA  ( *getFreeSpaceBytes)(struct J9JavaVM* vm) ;
 	IDATA  ( *findSharedData)(struct J9VMThread* currentThread, const char* key, UDATA keylen, UDATA limitDataType, UDATA includePrivateData, struct J9SharedDataDescriptor* firstItem, const struct J9Pool* descriptorPool) ;
 	const U_8*  ( *storeSharedData)(struct J9VMThread* vmThread, const char* key, UDATA keylen, const struct J9SharedDataDescriptor* data) ;
+	IDATA  ( *findSharedDataBatch)(struct J9VMThread* currentThread, UDATA count, const char** keys, const UDATA* keylens, UDATA limitDataType, UDATA includePrivateData, struct J9SharedDataDescriptor* firstItems, IDATA* results) ;
+	IDATA  ( *storeSharedDataBatch)(struct J9VMThread* vmThread, UDATA count, const char** keys, const UDATA* keylens, const struct J9SharedDataDescriptor* data, const U_8** results) ;
 	UDATA  ( *storeAttachedData)(struct J9VMThread* vmThread, const void* addressInCache, const struct J9SharedDataDescriptor* data, UDATA forceReplace) ;
 	const U_8*  ( *findAttachedData)(struct J9VMThread* vmThread, const void* addressInCache, struct J9SharedDataDescriptor* data, IDATA *dataIsCorrupt) ;
 	UDATA  ( *updateAttachedData)(struct J9VMThread* vmThread, const void* addressInCache, I_32 updateAtOffset, const J9SharedDataDescriptor* data) ;
@@ -1510,6 +1526,13 @@ typedef struct J9MonitorTableListEntry {
 	struct J9MonitorTableListEntry* next;
 } J9MonitorTableListEntry;
 
+/* Guards one of the J9JavaVM monitorTables. Entries published in lookupCache may be read without entering mutex. */
+typedef struct J9MonitorTableLock {
+	omrthread_monitor_t mutex;
+	UDATA lockFreeLookupCount;
+	j9objectmonitor_t lookupCache[J9VM_MONITOR_TABLE_LOOKUP_CACHE_SIZE];
+} J9MonitorTableLock;
+
 typedef struct J9UnsafeMemoryBlock {
 	struct J9UnsafeMemoryBlock* linkNext;
 	struct J9UnsafeMemoryBlock* linkPrevious;
@@ -1555,6 +1578,8 @@ typedef struct J9DbgROMClassBuilder {
 	U_8* classFileBuffer;
 	U_8* bufferManagerBuffer;
 	struct J9DbgStringInternTable stringInternTable;
+	void* buildBuffersPool;
+	UDATA buildBuffersPoolCount;
 } J9DbgROMClassBuilder;
 
 typedef struct J9ROMFieldWalkState {
@@ -1871,6 +1896,11 @@ typedef struct J9BytecodeVerificationData {
 	U_8* excludeAttribute;
 	struct J9JVMTIClassPair* redefinedClasses;
 	UDATA redefinedClassesCount;
+	U_8* dependencyBuffer;
+	UDATA dependencyBufferSize;
+	UDATA dependencyBufferUsed;
+	UDATA dependencyCount;
+	UDATA recordDependencies;
 	struct J9PortLibrary * portLib;
 	struct J9JavaVM* javaVM;
 } J9BytecodeVerificationData;
@@ -4379,6 +4409,7 @@ typedef struct J9MemoryManagerFunctions {
 	I_32  ( *j9gc_get_jit_string_dedup_policy)(struct J9JavaVM *javaVM) ;
 	UDATA ( *j9gc_stringHashFn)(void *key, void *userData);
 	UDATA ( *j9gc_stringHashEqualFn)(void *leftKey, void *rightKey, void *userData);
+	U_64  ( *j9gc_get_string_deduplication_bytes_saved)(struct J9JavaVM *javaVM) ;
 } J9MemoryManagerFunctions;
 
 struct J9ClassWalkState; /* Forward struct declaration */
@@ -5026,6 +5057,7 @@ struct J9VerboseSettings ; /* Forward struct declaration */
 struct J9HiddenInstanceField; /* Forward struct declaration */
 struct JNINativeInterface_; /* Forward struct declaration */
 struct J9MonitorTableListEntry; /* Forward struct declaration */
+struct J9MonitorTableLock; /* Forward struct declaration */
 struct J9SharedCacheAPI; /* Forward struct declaration */
 struct J9Pool; /* Forward struct declaration */
 struct J9JXEDescription ; /* Forward struct declaration */
@@ -5233,7 +5265,7 @@ typedef struct J9JavaVM {
 	J9SidecarExitFunction * sidecarExitFunctions;
 	struct J9HashTable** monitorTables;
 	UDATA monitorTableCount;
-	omrthread_monitor_t monitorTableMutex;
+	struct J9MonitorTableLock* monitorTableLocks;
 	struct J9MonitorTableListEntry* monitorTableList;
 	struct J9Pool* monitorTableListPool;
 	UDATA thrStaggerStep;
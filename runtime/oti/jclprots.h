@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 1991, 2017 IBM Corp. and others
+ * Copyright (c) 1991, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -49,6 +49,10 @@ jlong JNICALL
 Java_com_ibm_oti_shared_SharedClassStatistics_freeSpaceBytesImpl (JNIEnv* env, jobject thisObj);
 jobject JNICALL
 Java_com_ibm_oti_shared_SharedDataHelperImpl_findSharedDataImpl (JNIEnv* env, jobject thisObj, jint helperID, jstring tokenObj);
+jobjectArray JNICALL
+Java_com_ibm_oti_shared_SharedDataHelperImpl_findSharedDataBatchImpl (JNIEnv* env, jobject thisObj, jint helperID, jobjectArray tokenArray);
+jobjectArray JNICALL
+Java_com_ibm_oti_shared_SharedDataHelperImpl_storeSharedDataBatchImpl (JNIEnv* env, jobject thisObj, jobject loaderObj, jint helperID, jobjectArray tokenArray, jobjectArray byteBufferArray);
 jlong JNICALL 
 Java_com_ibm_oti_shared_SharedClassStatistics_maxSizeBytesImpl (JNIEnv* env, jobject thisObj);
 jlong JNICALL
@@ -237,6 +241,8 @@ extern J9_CFUNC jboolean JNICALL
 Java_com_ibm_java_lang_management_internal_ThreadMXBeanImpl_isCurrentThreadCpuTimeSupportedImpl (JNIEnv *env, jobject beanInstance);
 extern J9_CFUNC jlong JNICALL
 Java_com_ibm_java_lang_management_internal_ThreadMXBeanImpl_getThreadCpuTimeImpl (JNIEnv *env, jobject beanInstance, jlong threadID);
+extern J9_CFUNC void JNICALL
+Java_com_ibm_java_lang_management_internal_ThreadMXBeanImpl_getThreadCpuTimesImpl (JNIEnv *env, jobject beanInstance, jlongArray threadIDs, jlongArray resultArray);
 extern J9_CFUNC jboolean JNICALL
 Java_com_ibm_java_lang_management_internal_ThreadMXBeanImpl_isThreadContentionMonitoringEnabledImpl (JNIEnv *env, jobject beanInstance);
 extern J9_CFUNC void JNICALL
@@ -257,6 +263,12 @@ extern J9_CFUNC jint JNICALL
 Java_com_ibm_java_lang_management_internal_ThreadMXBeanImpl_getThreadCountImpl (JNIEnv *env, jobject beanInstance);
 extern J9_CFUNC jlong JNICALL
 Java_com_ibm_java_lang_management_internal_ThreadMXBeanImpl_getThreadUserTimeImpl (JNIEnv *env, jobject beanInstance, jlong threadID);
+extern J9_CFUNC void JNICALL
+Java_com_ibm_java_lang_management_internal_ThreadMXBeanImpl_getThreadUserTimesImpl (JNIEnv *env, jobject beanInstance, jlongArray threadIDs, jlongArray resultArray);
+extern J9_CFUNC void JNICALL
+Java_com_ibm_java_lang_management_internal_ThreadMXBeanImpl_getThreadStackSamplesImpl (JNIEnv *env, jobject beanInstance, jlongArray threadIDs, jint maxDepth, jlongArray frames, jintArray depths);
+extern J9_CFUNC jint JNICALL
+Java_com_ibm_java_lang_management_internal_ThreadMXBeanImpl_getFrameDescriptionImpl (JNIEnv *env, jobject beanInstance, jlong methodID, jlong bytecodeIndex, jobjectArray names);
 extern J9_CFUNC jobject JNICALL
 Java_com_ibm_java_lang_management_internal_ThreadMXBeanImpl_getAllThreadIdsImpl (JNIEnv *env, jobject beanInstance);
 extern J9_CFUNC jint JNICALL
@@ -359,6 +371,16 @@ extern J9_CFUNC jlong JNICALL
 Java_com_ibm_java_lang_management_internal_GarbageCollectorMXBeanImpl_getMemoryUsedImpl(JNIEnv *env, jobject beanInstance, jint id);
 extern J9_CFUNC jobject JNICALL
 Java_com_ibm_lang_management_internal_ExtendedGarbageCollectorMXBeanImpl_getLastGcInfoImpl(JNIEnv *env, jobject beanInstance, jint id);
+extern J9_CFUNC jlongArray JNICALL
+Java_com_ibm_lang_management_internal_ExtendedGarbageCollectorMXBeanImpl_getPauseTimeHistogramImpl(JNIEnv *env, jobject beanInstance, jint id);
+extern J9_CFUNC jlong JNICALL
+Java_com_ibm_lang_management_internal_ExtendedGarbageCollectorMXBeanImpl_getTotalMemoryAllocatedImpl(JNIEnv *env, jobject beanInstance, jint id);
+extern J9_CFUNC jlong JNICALL
+Java_com_ibm_lang_management_internal_ExtendedGarbageCollectorMXBeanImpl_getAllocationRateImpl(JNIEnv *env, jobject beanInstance, jint id);
+extern J9_CFUNC jlong JNICALL
+Java_com_ibm_lang_management_internal_ExtendedGarbageCollectorMXBeanImpl_getTotalMemoryPromotedImpl(JNIEnv *env, jobject beanInstance, jint id);
+extern J9_CFUNC jlong JNICALL
+Java_com_ibm_lang_management_internal_ExtendedGarbageCollectorMXBeanImpl_getPromotionRateImpl(JNIEnv *env, jobject beanInstance, jint id);
 
 /* BBjclNativesCommonClassLoader*/
 jboolean JNICALL Java_java_lang_ClassLoader_isVerboseImpl (JNIEnv *env, jclass clazz);
@@ -420,6 +442,8 @@ extern J9_CFUNC jint JNICALL
 Java_com_ibm_java_lang_management_internal_MemoryMXBeanImpl_getMaximumGCThreadsImpl(JNIEnv *env, jobject beanInstance);
 extern J9_CFUNC jint JNICALL 
 Java_com_ibm_java_lang_management_internal_MemoryMXBeanImpl_getCurrentGCThreadsImpl(JNIEnv *env, jobject beanInstance);
+extern J9_CFUNC jlong JNICALL
+Java_com_ibm_java_lang_management_internal_MemoryMXBeanImpl_getStringDeduplicationBytesSavedImpl(JNIEnv *env, jobject beanInstance);
 
 
 /* J9SourceJclSidecarInit*/
@@ -595,6 +619,8 @@ Java_com_ibm_tools_attach_target_IPC_setupSemaphore(JNIEnv *env, jclass clazz, j
 jint JNICALL
 Java_com_ibm_tools_attach_target_IPC_openSemaphore(JNIEnv *env, jclass clazz, jstring ctrlDirName, jstring semaName);
 jint JNICALL
+Java_com_ibm_tools_attach_target_IPC_createSemaphore(JNIEnv *env, jclass clazz, jstring ctrlDirName, jstring semaName);
+jint JNICALL
 Java_com_ibm_tools_attach_target_IPC_notifyVm(JNIEnv *env, jclass clazz, jstring ctrlDirName, jstring semaName, jint numberOfPosts);
 jint JNICALL
 Java_com_ibm_tools_attach_target_IPC_waitSemaphore(JNIEnv *env, jclass clazz);
@@ -602,6 +628,8 @@ void JNICALL
 Java_com_ibm_tools_attach_target_IPC_closeSemaphore(JNIEnv *env, jclass clazz);
 jint JNICALL
 Java_com_ibm_tools_attach_target_IPC_destroySemaphore(JNIEnv *env, jclass clazz);
+jint JNICALL
+Java_com_ibm_tools_attach_target_IPC_destroyNamedSemaphore(JNIEnv *env, jclass clazz, jstring ctrlDirName, jstring semaName);
 jlong JNICALL
 Java_com_ibm_tools_attach_target_IPC_getProcessId(JNIEnv *env, jclass clazz);
 jint JNICALL
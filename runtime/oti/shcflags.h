@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2001, 2017 IBM Corp. and others
+ * Copyright (c) 2001, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -58,7 +58,8 @@
 #define J9SHR_ATTACHED_DATA_TYPE_UNKNOWN  0
 #define J9SHR_ATTACHED_DATA_TYPE_JITPROFILE  1
 #define J9SHR_ATTACHED_DATA_TYPE_JITHINT  2
-#define J9SHR_ATTACHED_DATA_TYPE_MAX 2
+#define J9SHR_ATTACHED_DATA_TYPE_VERIFY  3
+#define J9SHR_ATTACHED_DATA_TYPE_MAX 3
 
 #define J9SHR_RUNTIMEFLAG_ENABLE_TIMESTAMP_CHECKS  1
 #define J9SHR_RUNTIMEFLAG_ENABLE_LOCAL_CACHEING  2
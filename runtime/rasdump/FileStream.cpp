@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2014 IBM Corp. and others
+ * Copyright (c) 2003, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -20,13 +20,47 @@
  * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
  *******************************************************************************/
 
+
 /* Includes */
 #include <string.h>
 #include "FileStream.hpp"
 #include "../oti/util_api.h"
 
+#ifdef AIXPPC	/* hack for zlib/AIX problem */
+#define STDC
+#endif
+
+#include "zlib.h"
+
+/* Size of the buffers the data is collected in before being compressed or written to the file */
+#define FILESTREAM_BUFFER_SIZE (1024 * 1024)
+
+/* Memory management functions for zlib */
+static voidpf
+fileStreamZAlloc(voidpf opaque, uInt items, uInt size)
+{
+	PORT_ACCESS_FROM_PORT((J9PortLibrary*)opaque);
+
+	return j9mem_allocate_memory((UDATA)items * size, OMRMEM_CATEGORY_VM);
+}
+
+static void
+fileStreamZFree(voidpf opaque, voidpf address)
+{
+	PORT_ACCESS_FROM_PORT((J9PortLibrary*)opaque);
+
+	j9mem_free_memory(address);
+}
+
 /* Constructor */
 FileStream::FileStream(J9PortLibrary* portLibrary) :
+	_Buffer(NULL),
+	_BufferPos(0),
+	_BufferSize(0),
+	_ZStream(NULL),
+	_ZBuffer(NULL),
+	_BytesWritten(0),
+	_FileBytesWritten(0),
 	_PortLibrary(portLibrary),
 	_FileHandle(-1),
 	_Error(0)
@@ -44,22 +78,108 @@ FileStream::~FileStream()
 void
 FileStream::open(const char* fileName)
 {
-	if (fileName[0] != '-' ) {
-		_FileHandle = j9cached_file_open(_PortLibrary, fileName, EsOpenWrite | EsOpenCreate | EsOpenTruncate | EsOpenCreateNoTag, 0666);
-		_Error = 0;
+	open(fileName, false);
+}
+
+/* Method for opening the file, compressing its contents in gzip format if requested */
+void
+FileStream::open(const char* fileName, bool compress)
+{
+	PORT_ACCESS_FROM_PORT(_PortLibrary);
+
+	if (fileName[0] == '-' ) {
+		return;
+	}
+
+	_BytesWritten     = 0;
+	_FileBytesWritten = 0;
+
+	if (compress) {
+		/* Set up the compressor first, there is no point creating a file that can't be written */
+		_ZStream = (z_stream_s*)j9mem_allocate_memory(sizeof(z_stream), OMRMEM_CATEGORY_VM);
+		_ZBuffer = (char*)j9mem_allocate_memory(FILESTREAM_BUFFER_SIZE, OMRMEM_CATEGORY_VM);
+		if ((_ZStream != NULL) && (_ZBuffer != NULL)) {
+			memset(_ZStream, 0, sizeof(z_stream));
+			_ZStream->zalloc    = fileStreamZAlloc;
+			_ZStream->zfree     = fileStreamZFree;
+			_ZStream->opaque    = _PortLibrary;
+			_ZStream->next_out  = (Bytef*)_ZBuffer;
+			_ZStream->avail_out = FILESTREAM_BUFFER_SIZE;
+
+			/* 16 added to the window bits asks for a gzip header and trailer rather than a zlib one */
+			if (deflateInit2(_ZStream, Z_BEST_SPEED, Z_DEFLATED, 15 + 16, 8, Z_DEFAULT_STRATEGY) != Z_OK) {
+				j9mem_free_memory(_ZStream);
+				_ZStream = NULL;
+			}
+		}
+		if ((_ZStream == NULL) || (_ZBuffer == NULL)) {
+			if (_ZStream != NULL) {
+				j9mem_free_memory(_ZStream);
+				_ZStream = NULL;
+			}
+			if (_ZBuffer != NULL) {
+				j9mem_free_memory(_ZBuffer);
+				_ZBuffer = NULL;
+			}
+			return;
+		}
 	}
+
+	_FileHandle = j9cached_file_open(_PortLibrary, fileName, EsOpenWrite | EsOpenCreate | EsOpenTruncate | EsOpenCreateNoTag, 0666);
+	_Error = 0;
+
+	/* The data is written unbuffered if the buffer can't be allocated */
+	_Buffer     = (char*)j9mem_allocate_memory(FILESTREAM_BUFFER_SIZE, OMRMEM_CATEGORY_VM);
+	_BufferPos  = 0;
+	_BufferSize = (_Buffer == NULL) ? 0 : FILESTREAM_BUFFER_SIZE;
 }
 
 /* Method for closing the file */
 void 
 FileStream::close(void)
 {
+	PORT_ACCESS_FROM_PORT(_PortLibrary);
+
 	if (_FileHandle != -1) {
+		flush();
+
+		if (_ZStream != NULL) {
+			/* Write out whatever the compressor is still holding, followed by the gzip trailer */
+			int rc = Z_OK;
+			_ZStream->next_in  = NULL;
+			_ZStream->avail_in = 0;
+			while ((rc == Z_OK) && !_Error) {
+				rc = deflate(_ZStream, Z_FINISH);
+				writeFile(_ZBuffer, FILESTREAM_BUFFER_SIZE - _ZStream->avail_out);
+				_ZStream->next_out  = (Bytef*)_ZBuffer;
+				_ZStream->avail_out = FILESTREAM_BUFFER_SIZE;
+			}
+			if ((rc != Z_STREAM_END) && !_Error) {
+				_Error = -1;
+			}
+		}
+
 		j9cached_file_sync(_PortLibrary, _FileHandle);
 		j9cached_file_close(_PortLibrary, _FileHandle);
 	}
 
-	_FileHandle = -1;	
+	_FileHandle = -1;
+
+	if (_ZStream != NULL) {
+		deflateEnd(_ZStream);
+		j9mem_free_memory(_ZStream);
+		_ZStream = NULL;
+	}
+	if (_ZBuffer != NULL) {
+		j9mem_free_memory(_ZBuffer);
+		_ZBuffer = NULL;
+	}
+	if (_Buffer != NULL) {
+		j9mem_free_memory(_Buffer);
+		_Buffer = NULL;
+	}
+	_BufferPos  = 0;
+	_BufferSize = 0;
 }
 
 /* Methods for getting the object's status */
@@ -73,16 +193,36 @@ bool FileStream::hasError(void) const
 	return _Error != 0;
 }
 
+/* Number of bytes of data written to the stream */
+U_64 FileStream::bytesWritten(void) const
+{
+	return _BytesWritten;
+}
+
+/* Number of bytes written to the file, which is less than the data written when it is compressed */
+U_64 FileStream::fileBytesWritten(void) const
+{
+	return _FileBytesWritten;
+}
+
 /* Method for writing characters described by a pointer and a length to the file*/
 void
 FileStream::writeCharacters(const char* data, IDATA length)
 {
 	if (_FileHandle != -1 && ! _Error) {
-		IDATA rc = j9cached_file_write(_PortLibrary, _FileHandle, data, length);
+		_BytesWritten += length;
 
-		if (rc != length) {
-			_Error = rc;
+		if ((_BufferPos + (UDATA)length) > _BufferSize) {
+			/* Make room, or write the data directly if it wouldn't fit in the buffer at all */
+			flush();
+			if ((UDATA)length >= _BufferSize) {
+				writeData(data, length);
+				return;
+			}
 		}
+
+		memcpy(&_Buffer[_BufferPos], data, length);
+		_BufferPos += length;
 	}
 }
 
@@ -100,6 +240,19 @@ FileStream::writeNumber(IDATA data, int length)
 	IDATA number = data;
 	int   count  = (length > 8) ? 8 : length;
 
+	/* Store the number straight into the buffer if there is room */
+	if ((_FileHandle != -1) && !_Error && (length <= 8) && ((_BufferPos + length) <= _BufferSize)) {
+		char* cursor = &_Buffer[_BufferPos];
+
+		while (count-- > 0) {
+			cursor[count] = (char)(number & 0xFF);
+			number >>= 8;
+		}
+		_BufferPos    += length;
+		_BytesWritten += length;
+		return;
+	}
+
 	/* Copy the characters of the number to a buffer in network order encoding */
 	char buffer[8] = {0,0,0,0,0,0,0,0};
 
@@ -111,3 +264,53 @@ FileStream::writeNumber(IDATA data, int length)
 	/* Write the data to the file */
 	writeCharacters(buffer, length);
 }
+
+/* Method for passing the buffered data on to the file */
+void
+FileStream::flush(void)
+{
+	if (_BufferPos != 0) {
+		writeData(_Buffer, _BufferPos);
+		_BufferPos = 0;
+	}
+}
+
+/* Method for writing data to the file, compressing it first if required */
+void
+FileStream::writeData(const char* data, IDATA length)
+{
+	if (_ZStream == NULL) {
+		writeFile(data, length);
+		return;
+	}
+
+	_ZStream->next_in  = (Bytef*)data;
+	_ZStream->avail_in = (uInt)length;
+
+	while ((_ZStream->avail_in != 0) && !_Error) {
+		if (deflate(_ZStream, Z_NO_FLUSH) != Z_OK) {
+			_Error = -1;
+			break;
+		}
+		if (_ZStream->avail_out == 0) {
+			writeFile(_ZBuffer, FILESTREAM_BUFFER_SIZE);
+			_ZStream->next_out  = (Bytef*)_ZBuffer;
+			_ZStream->avail_out = FILESTREAM_BUFFER_SIZE;
+		}
+	}
+}
+
+/* Method for writing data to the file as it is */
+void
+FileStream::writeFile(const char* data, IDATA length)
+{
+	if ((length != 0) && !_Error) {
+		IDATA rc = j9cached_file_write(_PortLibrary, _FileHandle, data, length);
+
+		if (rc != length) {
+			_Error = rc;
+		} else {
+			_FileBytesWritten += length;
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2014 IBM Corp. and others
+ * Copyright (c) 2003, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -25,10 +25,16 @@
 /* Includes */
 #include "j9port.h"
 
+/* Declarations to avoid inclusions */
+struct z_stream_s;
+
 /**************************************************************************************************/
 /*                                                                                                */
 /* Class for writing to a file                                                                    */
 /*                                                                                                */
+/*   The data is collected in a buffer and written to the file in large blocks, optionally        */
+/*   compressed in gzip format on the way                                                         */
+/*                                                                                                */
 /**************************************************************************************************/
 class FileStream
 {
@@ -42,12 +48,17 @@ public :
 	/* Method for opening the file */
 	void open(const char* fileName);
 
+	/* Method for opening the file, compressing its contents in gzip format if requested */
+	void open(const char* fileName, bool compress);
+
 	/* Method for closing the file */
 	void close(void);
 
 	/* Methods for getting the object's status */
 	bool isOpen(void) const;
 	bool hasError(void) const;
+	U_64 bytesWritten(void) const;
+	U_64 fileBytesWritten(void) const;
 
 	/* Methods for writing data to the file */
 	void writeCharacters (const char* data, IDATA length);
@@ -59,6 +70,19 @@ private :
 	FileStream(const FileStream& source);
 	FileStream& operator=(const FileStream& source);
 
+	/* Methods for passing buffered data on to the file */
+	void flush(void);
+	void writeData(const char* data, IDATA length);
+	void writeFile(const char* data, IDATA length);
+
+	char*       _Buffer;
+	UDATA       _BufferPos;
+	UDATA       _BufferSize;
+	z_stream_s* _ZStream;
+	char*       _ZBuffer;
+	U_64        _BytesWritten;
+	U_64        _FileBytesWritten;
+
 protected :
 	/* Declared data */
 	J9PortLibrary* _PortLibrary;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2017 IBM Corp. and others
+ * Copyright (c) 2003, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -27,6 +27,7 @@
 #include "HeapIteratorAPI.h"
 #include "j9dmpnls.h"
 #include "FileStream.hpp"
+#include "omrthread.h"
 
 #include "ut_j9dmp.h"
 
@@ -43,6 +44,20 @@ static jvmtiIterationControl binaryHeapDumpObjectIteratorCallback (J9JavaVM* vm,
 static jvmtiIterationControl binaryHeapDumpObjectReferenceIteratorTraitsCallback(J9JavaVM* virtualMachine, J9MM_IterateObjectDescriptor* objectDescriptor, J9MM_IterateObjectRefDescriptor* referenceDescriptor, void* userData);
 static jvmtiIterationControl binaryHeapDumpObjectReferenceIteratorWriterCallback(J9JavaVM* virtualMachine, J9MM_IterateObjectDescriptor* objectDescriptor, J9MM_IterateObjectRefDescriptor* referenceDescriptor, void* userData);
 
+static int J9THREAD_PROC binaryHeapDumpWorkerThreadProc(void* userData);
+
+/* Number of consecutive objects handed to a worker thread at a time */
+#define HEAPDUMP_BATCH_OBJECTS 4096
+
+/* Number of batches per worker thread that may be in flight before the heap walk waits for them to be written */
+#define HEAPDUMP_BATCHES_PER_WORKER 2
+
+/* Upper limit on the number of threads encoding objects */
+#define HEAPDUMP_MAX_WORKER_THREADS 8
+
+/* Initial size of the buffer a batch's records are encoded into */
+#define HEAPDUMP_BATCH_BUFFER_SIZE (64 * 1024)
+
 #define allClassesStartDo(vm, state, loader) \
 	vm->internalVMFunctions->allClassesStartDo(state, vm, loader)
 
@@ -52,11 +67,6 @@ static jvmtiIterationControl binaryHeapDumpObjectReferenceIteratorWriterCallback
 #define allClassesEndDo(vm, state) \
 	vm->internalVMFunctions->allClassesEndDo(state)
 
-/* Function prototypes for performance measurement 
-void startTimer();
-void stopTimer();
-*/
-
 /**************************************************************************************************/
 /*                                                                                                */
 /* Classes for manipulating strings                                                               */
@@ -750,6 +760,9 @@ private :
 	BinaryHeapDumpWriter(const BinaryHeapDumpWriter& source);
 	BinaryHeapDumpWriter& operator=(const BinaryHeapDumpWriter& source);
 
+	/* Constructor for the writers the worker threads encode batches of objects with */
+	BinaryHeapDumpWriter(BinaryHeapDumpWriter* dumpWriter);
+
 	/* Allow the callback functions access */
 	friend jvmtiIterationControl binaryHeapDumpSpaceIteratorCallback  (J9JavaVM* virtualMachine, J9MM_IterateSpaceDescriptor*  spaceDescriptor,  void* userData);
 	friend jvmtiIterationControl binaryHeapDumpObjectIteratorCallback (J9JavaVM* virtualMachine, J9MM_IterateObjectDescriptor* objectDescriptor, void* userData);
@@ -757,6 +770,7 @@ private :
 	friend jvmtiIterationControl binaryHeapDumpObjectReferenceIteratorWriterCallback(J9JavaVM* virtualMachine, J9MM_IterateObjectDescriptor* objectDescriptor, J9MM_IterateObjectRefDescriptor* referenceDescriptor, void* userData);
 	friend jvmtiIterationControl binaryHeapDumpHeapIteratorCallback(J9JavaVM* virtualMachine, J9MM_IterateHeapDescriptor* heapDescriptor, void* userData);
 	friend jvmtiIterationControl binaryHeapDumpRegionIteratorCallback(J9JavaVM* virtualMachine, J9MM_IterateRegionDescriptor* regionDescription, void* userData);
+	friend int J9THREAD_PROC binaryHeapDumpWorkerThreadProc(void* userData);
 
 	/* Nested class for determining the characteristics of the references */
 	class ReferenceTraits
@@ -826,6 +840,10 @@ private :
 		
 		/* Methods for getting the object's attributes */
 		int index(void) const;
+		void copy(const void** classes) const;
+
+		/* Method for adding the classes cached by another cache, as if its records had followed ours */
+		void merge(const void* const* classes, int index);
 
 		/* Method for setting the object back to its initial state (i.e. empty) */
 		void clear(void);
@@ -840,6 +858,51 @@ private :
 		int         _Index;
 	};
 
+	/* Nested class for a run of consecutive objects encoded by a worker thread                     */
+	/* The records are encoded as if they started the dump, i.e. with an empty class cache and no    */
+	/* previous object, and are fixed up when they are written after the preceding batch             */
+	class ObjectBatch
+	{
+	public :
+		/* Methods for allocating and freeing the object's memory */
+		bool initialize(J9PortLibrary* portLibrary);
+		void tearDown(J9PortLibrary* portLibrary);
+
+		/* Method for discarding the encoded records */
+		void clearRecords(void);
+
+		/* Methods for adding encoded data */
+		bool appendNumber(J9PortLibrary* portLibrary, IDATA data, int length);
+		bool appendCharacters(J9PortLibrary* portLibrary, const char* data, IDATA length);
+		void addShortRecord(void);
+
+		enum State {
+			FREE,     /* being filled by the heap walk */
+			READY,    /* waiting for a worker thread */
+			ENCODING, /* being encoded by a worker thread */
+			ENCODED   /* waiting to be written */
+		};
+
+		/* Declared data */
+		J9MM_IterateObjectDescriptor* _Objects;
+		UDATA                         _ObjectCount;
+		State                         _State;
+		char*                         _Data;
+		UDATA                         _Length;
+		UDATA                         _Capacity;
+		UDATA*                        _ShortRecords;        /* positions of the short records, whose class cache indices need renumbering */
+		UDATA                         _ShortRecordCount;
+		void*                         _FirstObject;
+		UDATA                         _GapPosition;         /* position of the word size gap to the first object */
+		void*                         _LastObject;
+		const void*                   _Classes[4];
+		int                           _ClassIndex;
+		bool                          _Failed;
+
+	private :
+		bool reserve(J9PortLibrary* portLibrary, UDATA length);
+	};
+
 	friend class ReferenceTraits;
 	friend class ReferenceWriter;
 
@@ -857,10 +920,23 @@ private :
 	static int       numberSizeEncoding(int numberSize);
 	static int       wordSize(void);
 	void             checkForIOError(void);
-	/* Methods for writing data to output file (proxies to _OutputStream */
+	void             reportDumpWritten(const char* fileName);
+	/* Methods for writing data to output file (proxies to _OutputStream or _Batch */
 	void             writeCharacters (const char* data, IDATA length);
 	void             writeCharacters (const char* data);
 	void             writeNumber (IDATA data, int length);
+	int              gapSize(IDATA addressOffset);
+	void             writeGap(j9object_t object, IDATA addressOffset, int length);
+	static void      storeNumber(char* buffer, IDATA data, int length);
+	/* Methods for encoding objects on worker threads */
+	void             startWorkers(void);
+	void             stopWorkers(void);
+	void             addObjectToBatch(J9MM_IterateObjectDescriptor* objectDescriptor);
+	void             submitBatch(void);
+	void             mergeBatch(void);
+	void             flushBatches(void);
+	void             encodeBatches(void);
+	void             encodeBatch(ObjectBatch* batch);
 
 	/* Declared data */
 	/* NB : The initialization order is not guaranteed on all C++ compilers */
@@ -874,6 +950,20 @@ private :
 	ClassCache        _ClassCache;
 	bool              _FileMode;
 	bool              _Error;
+	bool              _Compress;
+	U_64              _StartTime;
+
+	/* Declared data for encoding objects on worker threads */
+	BinaryHeapDumpWriter* _Parent;        /* writer the batches are encoded for, on a worker thread's writer */
+	ObjectBatch*          _Batch;         /* batch being encoded, on a worker thread's writer */
+	ObjectBatch*          _Batches;       /* ring of batches, NULL if the objects are written directly */
+	UDATA                 _BatchCount;
+	UDATA                 _NextSubmit;    /* sequence number of the batch being filled by the heap walk */
+	UDATA                 _NextEncode;    /* sequence number of the next batch for a worker thread */
+	UDATA                 _NextMerge;     /* sequence number of the next batch to be written */
+	omrthread_monitor_t   _WorkerMonitor;
+	UDATA                 _ActiveWorkers;
+	bool                  _WorkerShutdown;
 
 	/* Static methods returning constant values */
 	inline static const char* identifierField(void)        {return "portable heap dump";}
@@ -1108,6 +1198,173 @@ BinaryHeapDumpWriter::ClassCache::clear(void)
 	_Index = 0;
 }
 
+/**************************************************************************************************/
+/*                                                                                                */
+/* BinaryHeapDumpWriter::ClassCache::copy() method implementation                                 */
+/*                                                                                                */
+/**************************************************************************************************/
+void
+BinaryHeapDumpWriter::ClassCache::copy(const void** classes) const
+{
+	for (int i = 0; i < 4; i++) {
+		classes[i] = _Cache[i];
+	}
+}
+
+/**************************************************************************************************/
+/*                                                                                                */
+/* BinaryHeapDumpWriter::ClassCache::merge() method implementation                                */
+/*                                                                                                */
+/**************************************************************************************************/
+void
+BinaryHeapDumpWriter::ClassCache::merge(const void* const* classes, int index)
+{
+	/* The other cache started empty at index 0, so its entry i was added at our index + i */
+	for (int i = 0; i < 4; i++) {
+		if (classes[i] != 0) {
+			_Cache[(_Index + i) % 4] = classes[i];
+		}
+	}
+
+	_Index = (_Index + index) % 4;
+}
+
+/**************************************************************************************************/
+/*                                                                                                */
+/* BinaryHeapDumpWriter::ObjectBatch::initialize() method implementation                          */
+/*                                                                                                */
+/**************************************************************************************************/
+bool
+BinaryHeapDumpWriter::ObjectBatch::initialize(J9PortLibrary* portLibrary)
+{
+	PORT_ACCESS_FROM_PORT(portLibrary);
+
+	_ObjectCount = 0;
+	_State       = FREE;
+	_Capacity    = HEAPDUMP_BATCH_BUFFER_SIZE;
+
+	_Objects      = (J9MM_IterateObjectDescriptor*)j9mem_allocate_memory(HEAPDUMP_BATCH_OBJECTS * sizeof(J9MM_IterateObjectDescriptor), OMRMEM_CATEGORY_VM);
+	_Data         = (char*)j9mem_allocate_memory(_Capacity, OMRMEM_CATEGORY_VM);
+	_ShortRecords = (UDATA*)j9mem_allocate_memory(HEAPDUMP_BATCH_OBJECTS * sizeof(UDATA), OMRMEM_CATEGORY_VM);
+
+	clearRecords();
+
+	return (_Objects != NULL) && (_Data != NULL) && (_ShortRecords != NULL);
+}
+
+/**************************************************************************************************/
+/*                                                                                                */
+/* BinaryHeapDumpWriter::ObjectBatch::tearDown() method implementation                            */
+/*                                                                                                */
+/**************************************************************************************************/
+void
+BinaryHeapDumpWriter::ObjectBatch::tearDown(J9PortLibrary* portLibrary)
+{
+	PORT_ACCESS_FROM_PORT(portLibrary);
+
+	j9mem_free_memory(_Objects);
+	j9mem_free_memory(_Data);
+	j9mem_free_memory(_ShortRecords);
+}
+
+/**************************************************************************************************/
+/*                                                                                                */
+/* BinaryHeapDumpWriter::ObjectBatch::clearRecords() method implementation                        */
+/*                                                                                                */
+/**************************************************************************************************/
+void
+BinaryHeapDumpWriter::ObjectBatch::clearRecords(void)
+{
+	_Length           = 0;
+	_ShortRecordCount = 0;
+	_FirstObject      = 0;
+	_GapPosition      = 0;
+	_LastObject       = 0;
+	_ClassIndex       = 0;
+	_Failed           = false;
+
+	for (int i = 0; i < 4; i++) {
+		_Classes[i] = 0;
+	}
+}
+
+/**************************************************************************************************/
+/*                                                                                                */
+/* BinaryHeapDumpWriter::ObjectBatch::reserve() method implementation                             */
+/*                                                                                                */
+/**************************************************************************************************/
+bool
+BinaryHeapDumpWriter::ObjectBatch::reserve(J9PortLibrary* portLibrary, UDATA length)
+{
+	if ((_Length + length) > _Capacity) {
+		PORT_ACCESS_FROM_PORT(portLibrary);
+		UDATA capacity = _Capacity * 2;
+
+		while ((_Length + length) > capacity) {
+			capacity *= 2;
+		}
+
+		char* data = (char*)j9mem_reallocate_memory(_Data, capacity, OMRMEM_CATEGORY_VM);
+		if (data == NULL) {
+			return false;
+		}
+
+		_Data     = data;
+		_Capacity = capacity;
+	}
+
+	return true;
+}
+
+/**************************************************************************************************/
+/*                                                                                                */
+/* BinaryHeapDumpWriter::ObjectBatch::appendNumber() method implementation                        */
+/*                                                                                                */
+/**************************************************************************************************/
+bool
+BinaryHeapDumpWriter::ObjectBatch::appendNumber(J9PortLibrary* portLibrary, IDATA data, int length)
+{
+	if (!reserve(portLibrary, length)) {
+		return false;
+	}
+
+	storeNumber(&_Data[_Length], data, length);
+	_Length += length;
+
+	return true;
+}
+
+/**************************************************************************************************/
+/*                                                                                                */
+/* BinaryHeapDumpWriter::ObjectBatch::appendCharacters() method implementation                    */
+/*                                                                                                */
+/**************************************************************************************************/
+bool
+BinaryHeapDumpWriter::ObjectBatch::appendCharacters(J9PortLibrary* portLibrary, const char* data, IDATA length)
+{
+	if (!reserve(portLibrary, length)) {
+		return false;
+	}
+
+	memcpy(&_Data[_Length], data, length);
+	_Length += length;
+
+	return true;
+}
+
+/**************************************************************************************************/
+/*                                                                                                */
+/* BinaryHeapDumpWriter::ObjectBatch::addShortRecord() method implementation                      */
+/*                                                                                                */
+/**************************************************************************************************/
+void
+BinaryHeapDumpWriter::ObjectBatch::addShortRecord(void)
+{
+	/* There is at most one record per object, so there is always room */
+	/* The record starts with its flags, which are written next         */
+	_ShortRecords[_ShortRecordCount++] = _Length;
+}
+
 /**************************************************************************************************/
 /*                                                                                                */
 /* BinaryHeapDumpWriter::BinaryHeapDumpWriter() method implementation                             */
@@ -1125,7 +1382,19 @@ BinaryHeapDumpWriter::BinaryHeapDumpWriter(const char* fileName, J9RASdumpContex
 	_OutputStream(context->javaVM->portLibrary),
 	_CurrentObject(0),
 	_FileMode(false),
-	_Error(false)
+	_Error(false),
+	_Compress(false),
+	_StartTime(0),
+	_Parent(NULL),
+	_Batch(NULL),
+	_Batches(NULL),
+	_BatchCount(0),
+	_NextSubmit(0),
+	_NextEncode(0),
+	_NextMerge(0),
+	_WorkerMonitor(NULL),
+	_ActiveWorkers(0),
+	_WorkerShutdown(false)
 {
 	PORT_ACCESS_FROM_PORT(_PortLibrary);
 
@@ -1134,28 +1403,35 @@ BinaryHeapDumpWriter::BinaryHeapDumpWriter(const char* fileName, J9RASdumpContex
 		return;
 	}
 	
-	/* Remember the file name */
+	/* Remember the file name, which gets the usual suffix if the file is to be compressed */
 	_FileName += fileName;
+
+	_Compress = (agent->dumpOptions != 0) && (strstr(agent->dumpOptions, "GZIP") != 0);
+	if (_Compress) {
+		_FileName += ".gz";
+	}
 	
 	/* Handle the cases of multiple dump files and a single dump file separately */
 	if (!(_Agent->requestMask & J9RAS_DUMP_DO_MULTIPLE_HEAPS)) {
 		/* Write a message to standard error saying we are about to write a dump file */
-		reportDumpRequest(_PortLibrary,_Context,"Heap",fileName);
+		reportDumpRequest(_PortLibrary,_Context,"Heap",_FileName.data());
 		
 		/* It's a single file so open it */
-		_OutputStream.open(_FileName.data());
-	
-		/* Performance measuring code 
-		startTimer();
-		*/
+		_StartTime = j9time_current_time_millis();
+		_OutputStream.open(_FileName.data(), _Compress);
 
 		/* Start writing the file */
 		writeDumpFileHeader();
 	}
 
+	/* Encode the objects on other threads while the heap is walked, if possible */
+	startWorkers();
+
 	/* It's multiple files so iterate through the heaps and spaces */
 	_VirtualMachine->memoryManagerFunctions->j9mm_iterate_heaps(_VirtualMachine, _PortLibrary, 0, binaryHeapDumpHeapIteratorCallback, this);
 
+	stopWorkers();
+
 	/* Handle the cases of multiple dump files and a single dump file separately */
 	if (!(_Agent->requestMask & J9RAS_DUMP_DO_MULTIPLE_HEAPS)) {
 		/* Complete the dump file */
@@ -1163,30 +1439,60 @@ BinaryHeapDumpWriter::BinaryHeapDumpWriter(const char* fileName, J9RASdumpContex
 			writeDumpFileTrailer();
 		}
 
-		/* Performance measuring code 
-		stopTimer();
-		*/
-
 		/* Record the status of the operation */
 		_FileMode = _FileMode || _OutputStream.isOpen();
 
 		/* Close the file */
 		_OutputStream.close();
+		checkForIOError();
 		
 		/* Write a message to standard error saying we have written a dump file */
 		/* If an error occurred, the error message has already been printed in checkForIOError() */
 		if (! _Error) {
 			if (_FileMode) {
-				j9nls_printf(PORTLIB, J9NLS_INFO | J9NLS_STDERR, J9NLS_DMP_WRITTEN_DUMP_STR, "Heap", fileName);
-				Trc_dump_reportDumpEnd_Event2("Heap", fileName);
+				reportDumpWritten(_FileName.data());
 			} else {
-				j9nls_printf(PORTLIB, J9NLS_INFO | J9NLS_STDERR, J9NLS_DMP_NO_CREATE, fileName);
-				Trc_dump_reportDumpEnd_Event2("Heap", fileName);
+				j9nls_printf(PORTLIB, J9NLS_INFO | J9NLS_STDERR, J9NLS_DMP_NO_CREATE, _FileName.data());
+				Trc_dump_reportDumpEnd_Event2("Heap", _FileName.data());
 			}
 		}
 	}
 }
 
+/**************************************************************************************************/
+/*                                                                                                */
+/* BinaryHeapDumpWriter::BinaryHeapDumpWriter() worker thread version method implementation       */
+/*                                                                                                */
+/**************************************************************************************************/
+BinaryHeapDumpWriter::BinaryHeapDumpWriter(BinaryHeapDumpWriter* dumpWriter) :
+	_Id(0),
+	_RegionStart(NULL),
+	_RegionEnd(NULL),
+	_Context(dumpWriter->_Context),
+	_Agent(dumpWriter->_Agent),
+	_VirtualMachine(dumpWriter->_VirtualMachine),
+	_PortLibrary(dumpWriter->_PortLibrary),
+	_FileName(dumpWriter->_PortLibrary),
+	_OutputStream(dumpWriter->_PortLibrary),
+	_CurrentObject(0),
+	_FileMode(false),
+	_Error(false),
+	_Compress(false),
+	_StartTime(0),
+	_Parent(dumpWriter),
+	_Batch(NULL),
+	_Batches(NULL),
+	_BatchCount(0),
+	_NextSubmit(0),
+	_NextEncode(0),
+	_NextMerge(0),
+	_WorkerMonitor(NULL),
+	_ActiveWorkers(0),
+	_WorkerShutdown(false)
+{
+	/* Nothing to do, the records are encoded into the batches by encodeBatch() */
+}
+
 /**************************************************************************************************/
 /*                                                                                                */
 /* BinaryHeapDumpWriter::~BinaryHeapDumpWriter() method implementation                            */
@@ -1228,7 +1534,8 @@ BinaryHeapDumpWriter::openNewDumpFile(J9MM_IterateSpaceDescriptor* spaceDescript
 		_ClassCache.clear();
 
 		/* Open the file */
-		_OutputStream.open(fileName.data());
+		_StartTime = j9time_current_time_millis();
+		_OutputStream.open(fileName.data(), _Compress);
 
 		/* Start writing the file */
 		writeDumpFileHeader();
@@ -1243,6 +1550,9 @@ BinaryHeapDumpWriter::openNewDumpFile(J9MM_IterateSpaceDescriptor* spaceDescript
 			binaryHeapDumpRegionIteratorCallback,
 			this);
 
+	/* Write the objects still being encoded by the worker threads */
+	flushBatches();
+
 	/* Handle the single and multiple dump file cases separately */
 	if (_Agent->requestMask & J9RAS_DUMP_DO_MULTIPLE_HEAPS) {
 		/* Complete the dump file */
@@ -1255,13 +1565,13 @@ BinaryHeapDumpWriter::openNewDumpFile(J9MM_IterateSpaceDescriptor* spaceDescript
 
 		/* Close the file */
 		_OutputStream.close();
+		checkForIOError();
 		
 		/* Write a message to standard error saying we have written a dump file */
 		/* If an error occurred, the error message has already been printed in checkForIOError() */
 		if (! _Error) {
 			if (_FileMode) {
-				j9nls_printf(PORTLIB, J9NLS_INFO | J9NLS_STDERR, J9NLS_DMP_WRITTEN_DUMP_STR, "Heap", fileName.data());
-				Trc_dump_reportDumpEnd_Event2("Heap", fileName.data());
+				reportDumpWritten(fileName.data());
 			} else {
 				j9nls_printf(PORTLIB, J9NLS_INFO | J9NLS_STDERR, J9NLS_DMP_NO_CREATE, fileName.data());
 				Trc_dump_reportDumpEnd_Event2("Heap", fileName.data());
@@ -1425,7 +1735,7 @@ BinaryHeapDumpWriter::writeNormalObjectRecord(J9MM_IterateObjectDescriptor* obje
 	/* Calculate the address delta (gap) from the previous object                 */
 	/* NB : The gap is defined in terms of 32 bit words regardless of the machine */
 	IDATA addressOffset         = ((char*)(currentObject) - (char*)_CurrentObject) / 4;
-	int   addressOffsetSize     = numberSize(addressOffset);
+	int   addressOffsetSize     = gapSize(addressOffset);
 	int   addressOffsetEncoding = numberSizeEncoding(addressOffsetSize);
 
 	/* Iterate through the references counting them and noting the biggest offset */
@@ -1466,6 +1776,11 @@ BinaryHeapDumpWriter::writeNormalObjectRecord(J9MM_IterateObjectDescriptor* obje
 		    (((int)referenceTraits.count() << 3) & 0x18) |
 		    ( addressOffsetEncoding   << 2  & 0x04) |
 		    ( referenceOffsetEncoding       & 0x03);
+
+		/* The class cache index has to be renumbered if the record is written after another batch */
+		if (_Batch != NULL) {
+			_Batch->addShortRecord();
+		}
 		    
 		/* Write the tag/flags */
 		writeNumber(flags, 1);
@@ -1474,7 +1789,7 @@ BinaryHeapDumpWriter::writeNormalObjectRecord(J9MM_IterateObjectDescriptor* obje
 		}
 		
 		/* Write the address delta (gap) */
-		writeNumber(addressOffset, addressOffsetSize);
+		writeGap(currentObject, addressOffset, addressOffsetSize);
 		if (_Error) {
 			return;
 		}
@@ -1516,7 +1831,7 @@ BinaryHeapDumpWriter::writeNormalObjectRecord(J9MM_IterateObjectDescriptor* obje
 		}
 
 		/* Write the address delta (gap) */
-		writeNumber(addressOffset, addressOffsetSize);
+		writeGap(currentObject, addressOffset, addressOffsetSize);
 		if (_Error) {
 			return;
 		}
@@ -1572,7 +1887,7 @@ BinaryHeapDumpWriter::writeNormalObjectRecord(J9MM_IterateObjectDescriptor* obje
 		}
 
 		/* Write the address delta (gap) */
-		writeNumber(addressOffset, addressOffsetSize);
+		writeGap(currentObject, addressOffset, addressOffsetSize);
 		if (_Error) {
 			return;
 		}
@@ -1635,7 +1950,7 @@ BinaryHeapDumpWriter::writeArrayObjectRecord(J9MM_IterateObjectDescriptor* objec
 	/* Calculate the address offset (gap) from the previous object                */
 	/* NB : The gap is defined in terms of 32 bit words regardless of the machine */
 	IDATA addressOffset         = ((char*)(currentObject) - (char*)_CurrentObject) / 4;
-	int   addressOffsetSize     = numberSize(addressOffset);
+	int   addressOffsetSize     = gapSize(addressOffset);
 	
 	/* Extract the object's class */
 	J9ArrayClass* arrayClass = (J9ArrayClass*)J9OBJECT_CLAZZ_VM(_VirtualMachine, currentObject);
@@ -1684,7 +1999,7 @@ BinaryHeapDumpWriter::writeArrayObjectRecord(J9MM_IterateObjectDescriptor* objec
 			}
 
 			/* Write the address delta (gap) */
-			writeNumber(addressOffset, overallSize);
+			writeGap(currentObject, addressOffset, overallSize);
 			if (_Error) {
 				return;
 			}
@@ -1744,9 +2059,9 @@ BinaryHeapDumpWriter::writeArrayObjectRecord(J9MM_IterateObjectDescriptor* objec
 
 			/* Write the address delta (gap) as a byte or a word. */
 			if( overallEncoding == 0 ) {
-				writeNumber(addressOffset, 1);
+				writeGap(currentObject, addressOffset, 1);
 			} else {
-				writeNumber(addressOffset, wordSize());
+				writeGap(currentObject, addressOffset, wordSize());
 			}
 			if (_Error) {
 				return;
@@ -1825,7 +2140,7 @@ BinaryHeapDumpWriter::writeArrayObjectRecord(J9MM_IterateObjectDescriptor* objec
 			}
 
 			/* Write the address delta (gap) */
-			writeNumber(addressOffset, addressOffsetSize);
+			writeGap(currentObject, addressOffset, addressOffsetSize);
 			if (_Error) {
 				return;
 			}
@@ -2390,34 +2705,388 @@ BinaryHeapDumpWriter::checkForIOError(void)
 	}
 }
 
+void
+BinaryHeapDumpWriter::reportDumpWritten(const char* fileName)
+{
+	PORT_ACCESS_FROM_PORT(_PortLibrary);
+
+	/* Report how long the dump took and how fast the data was produced, in MB per second */
+	U_64 elapsed  = j9time_current_time_millis() - _StartTime;
+	U_64 bytes    = _OutputStream.bytesWritten();
+	U_64 rate     = (bytes * 1000 / (elapsed == 0 ? 1 : elapsed)) >> 20;
+
+	j9nls_printf(PORTLIB, J9NLS_INFO | J9NLS_STDERR, J9NLS_DMP_WRITTEN_HEAP_DUMP_STATS_STR, "Heap", fileName, elapsed, bytes, _OutputStream.fileBytesWritten(), rate);
+	Trc_dump_reportDumpEnd_Event2("Heap", fileName);
+	Trc_dump_reportHeapDumpStatistics_Event1(elapsed, bytes, _OutputStream.fileBytesWritten());
+}
+
 void
 BinaryHeapDumpWriter::writeCharacters (const char* data, IDATA length)
 {
 	if (!_Error) {
-		_OutputStream.writeCharacters(data,length);
+		if (_Batch != NULL) {
+			_Error = !_Batch->appendCharacters(_PortLibrary, data, length);
+		} else {
+			_OutputStream.writeCharacters(data,length);
 
-		checkForIOError();
+			checkForIOError();
+		}
 	}
 }
 
 void
 BinaryHeapDumpWriter::writeCharacters (const char* data)
+{
+	writeCharacters(data, strlen(data));
+}
+
+void
+BinaryHeapDumpWriter::writeNumber (IDATA data, int length)
 {
 	if (!_Error) {
-		_OutputStream.writeCharacters(data);
+		if (_Batch != NULL) {
+			_Error = !_Batch->appendNumber(_PortLibrary, data, length);
+		} else {
+			_OutputStream.writeNumber(data, length);
 
-		checkForIOError();
+			checkForIOError();
+		}
 	}
 }
 
+/**************************************************************************************************/
+/*                                                                                                */
+/* BinaryHeapDumpWriter::gapSize() method implementation                                          */
+/*                                                                                                */
+/*   The gap to the first object of a batch isn't known until the previous batch has been        */
+/*   written, so it is given a full word which is filled in at that point                        */
+/*                                                                                                */
+/**************************************************************************************************/
+int
+BinaryHeapDumpWriter::gapSize(IDATA addressOffset)
+{
+	if ((_Batch != NULL) && (_Batch->_FirstObject == 0)) {
+		return wordSize();
+	}
+
+	return numberSize(addressOffset);
+}
+
+/**************************************************************************************************/
+/*                                                                                                */
+/* BinaryHeapDumpWriter::writeGap() method implementation                                         */
+/*                                                                                                */
+/**************************************************************************************************/
 void
-BinaryHeapDumpWriter::writeNumber (IDATA data, int length)
+BinaryHeapDumpWriter::writeGap(j9object_t object, IDATA addressOffset, int length)
 {
-	if (!_Error) {
-		_OutputStream.writeNumber(data, length);
+	if ((_Batch != NULL) && (_Batch->_FirstObject == 0) && !_Error) {
+		/* Remember where the gap goes so that mergeBatch() can fill it in */
+		_Batch->_FirstObject = object;
+		_Batch->_GapPosition = _Batch->_Length;
+	}
 
-		checkForIOError();
+	writeNumber(addressOffset, length);
+}
+
+/**************************************************************************************************/
+/*                                                                                                */
+/* BinaryHeapDumpWriter::storeNumber() method implementation                                      */
+/*                                                                                                */
+/**************************************************************************************************/
+void
+BinaryHeapDumpWriter::storeNumber(char* buffer, IDATA data, int length)
+{
+	/* Copy the characters of the number to the buffer in network order encoding */
+	IDATA number = data;
+	int   count  = (length > 8) ? 8 : length;
+
+	while (count-- > 0) {
+		buffer[count] = (char)(number & 0xFF);
+		number >>= 8;
+	}
+}
+
+/**************************************************************************************************/
+/*                                                                                                */
+/* BinaryHeapDumpWriter::startWorkers() method implementation                                     */
+/*                                                                                                */
+/**************************************************************************************************/
+void
+BinaryHeapDumpWriter::startWorkers(void)
+{
+	PORT_ACCESS_FROM_PORT(_PortLibrary);
+
+	/* Don't start threads when the dump is for a crash, the heap walk keeps one CPU busy */
+	if (0 != (_Context->eventFlags & (J9RAS_DUMP_ON_GP_FAULT | J9RAS_DUMP_ON_ABORT_SIGNAL))) {
+		return;
+	}
+
+	/* opts=PHD+SERIAL encodes every object on the dumping thread, which must give the same file */
+	if ((_Agent->dumpOptions != 0) && (strstr(_Agent->dumpOptions, "SERIAL") != 0)) {
+		return;
+	}
+
+	UDATA workers = j9sysinfo_get_number_CPUs_by_type(J9PORT_CPU_TARGET);
+	if (workers <= 1) {
+		return;
+	}
+	workers = OMR_MIN(workers - 1, HEAPDUMP_MAX_WORKER_THREADS);
+
+	if (0 != omrthread_monitor_init_with_name(&_WorkerMonitor, 0, "Heap dump worker monitor")) {
+		return;
+	}
+
+	_BatchCount = workers * HEAPDUMP_BATCHES_PER_WORKER;
+	_Batches    = (ObjectBatch*)j9mem_allocate_memory(_BatchCount * sizeof(ObjectBatch), OMRMEM_CATEGORY_VM);
+
+	if (_Batches != NULL) {
+		UDATA initialized = 0;
+
+		while ((initialized < _BatchCount) && _Batches[initialized].initialize(_PortLibrary)) {
+			initialized++;
+		}
+
+		/* The batch that failed to initialize has to be freed too */
+		if (initialized < _BatchCount) {
+			for (UDATA i = 0; i <= initialized; i++) {
+				_Batches[i].tearDown(_PortLibrary);
+			}
+			j9mem_free_memory(_Batches);
+			_Batches = NULL;
+		}
+	}
+
+	if (_Batches != NULL) {
+		omrthread_monitor_enter(_WorkerMonitor);
+		for (UDATA i = 0; i < workers; i++) {
+			omrthread_t thread = NULL;
+
+			if (0 == omrthread_create(&thread, _VirtualMachine->defaultOSStackSize, J9THREAD_PRIORITY_NORMAL, 0, binaryHeapDumpWorkerThreadProc, this)) {
+				_ActiveWorkers += 1;
+			}
+		}
+		omrthread_monitor_exit(_WorkerMonitor);
+
+		/* Write the objects directly if no thread could be started */
+		if (_ActiveWorkers == 0) {
+			for (UDATA i = 0; i < _BatchCount; i++) {
+				_Batches[i].tearDown(_PortLibrary);
+			}
+			j9mem_free_memory(_Batches);
+			_Batches = NULL;
+		}
+	}
+
+	if (_Batches == NULL) {
+		omrthread_monitor_destroy(_WorkerMonitor);
+		_WorkerMonitor = NULL;
+	}
+}
+
+/**************************************************************************************************/
+/*                                                                                                */
+/* BinaryHeapDumpWriter::stopWorkers() method implementation                                      */
+/*                                                                                                */
+/**************************************************************************************************/
+void
+BinaryHeapDumpWriter::stopWorkers(void)
+{
+	PORT_ACCESS_FROM_PORT(_PortLibrary);
+
+	if (_Batches == NULL) {
+		return;
 	}
+
+	/* All the batches have been written by flushBatches() so the threads are idle */
+	omrthread_monitor_enter(_WorkerMonitor);
+	_WorkerShutdown = true;
+	omrthread_monitor_notify_all(_WorkerMonitor);
+	while (_ActiveWorkers != 0) {
+		omrthread_monitor_wait(_WorkerMonitor);
+	}
+	omrthread_monitor_exit(_WorkerMonitor);
+
+	for (UDATA i = 0; i < _BatchCount; i++) {
+		_Batches[i].tearDown(_PortLibrary);
+	}
+	j9mem_free_memory(_Batches);
+	_Batches = NULL;
+
+	omrthread_monitor_destroy(_WorkerMonitor);
+	_WorkerMonitor = NULL;
+}
+
+/**************************************************************************************************/
+/*                                                                                                */
+/* BinaryHeapDumpWriter::addObjectToBatch() method implementation                                 */
+/*                                                                                                */
+/**************************************************************************************************/
+void
+BinaryHeapDumpWriter::addObjectToBatch(J9MM_IterateObjectDescriptor* objectDescriptor)
+{
+	/* Before starting a batch, wait for the batch that last used its slot to be written */
+	while ((_NextSubmit - _NextMerge) >= _BatchCount) {
+		mergeBatch();
+	}
+
+	ObjectBatch* batch = &_Batches[_NextSubmit % _BatchCount];
+
+	/* The heap isn't changing, so the descriptor stays valid until the batch has been written */
+	batch->_Objects[batch->_ObjectCount++] = *objectDescriptor;
+
+	if (batch->_ObjectCount == HEAPDUMP_BATCH_OBJECTS) {
+		submitBatch();
+	}
+}
+
+/**************************************************************************************************/
+/*                                                                                                */
+/* BinaryHeapDumpWriter::submitBatch() method implementation                                      */
+/*                                                                                                */
+/**************************************************************************************************/
+void
+BinaryHeapDumpWriter::submitBatch(void)
+{
+	omrthread_monitor_enter(_WorkerMonitor);
+	_Batches[_NextSubmit % _BatchCount]._State = ObjectBatch::READY;
+	_NextSubmit += 1;
+	omrthread_monitor_notify_all(_WorkerMonitor);
+	omrthread_monitor_exit(_WorkerMonitor);
+}
+
+/**************************************************************************************************/
+/*                                                                                                */
+/* BinaryHeapDumpWriter::mergeBatch() method implementation                                       */
+/*                                                                                                */
+/**************************************************************************************************/
+void
+BinaryHeapDumpWriter::mergeBatch(void)
+{
+	ObjectBatch* batch = &_Batches[_NextMerge % _BatchCount];
+
+	/* Wait for the batch to be encoded */
+	omrthread_monitor_enter(_WorkerMonitor);
+	while (batch->_State != ObjectBatch::ENCODED) {
+		omrthread_monitor_wait(_WorkerMonitor);
+	}
+	omrthread_monitor_exit(_WorkerMonitor);
+
+	if (batch->_Failed) {
+		/* The worker thread ran out of memory so write the objects directly instead */
+		for (UDATA i = 0; (i < batch->_ObjectCount) && !_Error; i++) {
+			writeObjectRecord(&batch->_Objects[i]);
+		}
+	} else if (batch->_FirstObject != 0) {
+		/* Fill in the gap from the last object written to the batch's first object */
+		IDATA addressOffset = ((char*)batch->_FirstObject - (char*)_CurrentObject) / 4;
+		storeNumber(&batch->_Data[batch->_GapPosition], addressOffset, wordSize());
+
+		/* The batch's class cache started at index 0, shift the indices to where our cache is now */
+		int rotation = _ClassCache.index();
+		if (rotation != 0) {
+			for (UDATA i = 0; i < batch->_ShortRecordCount; i++) {
+				U_8* flags = (U_8*)&batch->_Data[batch->_ShortRecords[i]];
+				int  classCacheIndex = (((*flags & 0x60) >> 5) + rotation) % 4;
+
+				*flags = (U_8)((*flags & ~0x60) | (classCacheIndex << 5));
+			}
+		}
+
+		writeCharacters(batch->_Data, batch->_Length);
+
+		/* Carry on from the state the batch left the reader in */
+		_CurrentObject = batch->_LastObject;
+		_ClassCache.merge(batch->_Classes, batch->_ClassIndex);
+	}
+
+	batch->_ObjectCount = 0;
+
+	omrthread_monitor_enter(_WorkerMonitor);
+	batch->_State = ObjectBatch::FREE;
+	_NextMerge += 1;
+	omrthread_monitor_exit(_WorkerMonitor);
+}
+
+/**************************************************************************************************/
+/*                                                                                                */
+/* BinaryHeapDumpWriter::flushBatches() method implementation                                     */
+/*                                                                                                */
+/**************************************************************************************************/
+void
+BinaryHeapDumpWriter::flushBatches(void)
+{
+	if (_Batches == NULL) {
+		return;
+	}
+
+	/* Hand over the partly filled batch, then write everything handed over */
+	if (((_NextSubmit - _NextMerge) < _BatchCount) && (_Batches[_NextSubmit % _BatchCount]._ObjectCount != 0)) {
+		submitBatch();
+	}
+
+	while (_NextMerge != _NextSubmit) {
+		mergeBatch();
+	}
+}
+
+/**************************************************************************************************/
+/*                                                                                                */
+/* BinaryHeapDumpWriter::encodeBatches() method implementation                                    */
+/*                                                                                                */
+/**************************************************************************************************/
+void
+BinaryHeapDumpWriter::encodeBatches(void)
+{
+	omrthread_monitor_t monitor = _Parent->_WorkerMonitor;
+
+	omrthread_monitor_enter(monitor);
+	while (!_Parent->_WorkerShutdown) {
+		if (_Parent->_NextEncode != _Parent->_NextSubmit) {
+			/* Take the oldest batch waiting to be encoded */
+			ObjectBatch* batch = &_Parent->_Batches[_Parent->_NextEncode % _Parent->_BatchCount];
+			_Parent->_NextEncode += 1;
+			batch->_State = ObjectBatch::ENCODING;
+			omrthread_monitor_exit(monitor);
+
+			encodeBatch(batch);
+
+			omrthread_monitor_enter(monitor);
+			batch->_State = ObjectBatch::ENCODED;
+			omrthread_monitor_notify_all(monitor);
+		} else {
+			omrthread_monitor_wait(monitor);
+		}
+	}
+	omrthread_monitor_exit(monitor);
+}
+
+/**************************************************************************************************/
+/*                                                                                                */
+/* BinaryHeapDumpWriter::encodeBatch() method implementation                                      */
+/*                                                                                                */
+/**************************************************************************************************/
+void
+BinaryHeapDumpWriter::encodeBatch(ObjectBatch* batch)
+{
+	/* Encode the records as if they started the dump */
+	_Batch         = batch;
+	_Error         = false;
+	_CurrentObject = 0;
+	_ClassCache.clear();
+	batch->clearRecords();
+
+	for (UDATA i = 0; (i < batch->_ObjectCount) && !_Error; i++) {
+		writeObjectRecord(&batch->_Objects[i]);
+	}
+
+	/* Record the state the records leave the reader in */
+	batch->_LastObject = _CurrentObject;
+	batch->_ClassIndex = _ClassCache.index();
+	_ClassCache.copy(batch->_Classes);
+	batch->_Failed = _Error;
+
+	_Batch = NULL;
 }
 
 /**************************************************************************************************/
@@ -2454,8 +3123,14 @@ binaryHeapDumpRegionIteratorCallback(J9JavaVM* vm, J9MM_IterateRegionDescriptor*
 static jvmtiIterationControl
 binaryHeapDumpObjectIteratorCallback(J9JavaVM* vm, J9MM_IterateObjectDescriptor* objectDescriptor, void* userData)
 {
-	((BinaryHeapDumpWriter*)userData)->writeObjectRecord(objectDescriptor);
-	return ((BinaryHeapDumpWriter*)userData)->_Error ? JVMTI_ITERATION_ABORT : JVMTI_ITERATION_CONTINUE;
+	BinaryHeapDumpWriter* heapDumpWriter = (BinaryHeapDumpWriter*)userData;
+
+	if (heapDumpWriter->_Batches != NULL) {
+		heapDumpWriter->addObjectToBatch(objectDescriptor);
+	} else {
+		heapDumpWriter->writeObjectRecord(objectDescriptor);
+	}
+	return heapDumpWriter->_Error ? JVMTI_ITERATION_ABORT : JVMTI_ITERATION_CONTINUE;
 }
 
 static jvmtiIterationControl
@@ -2476,6 +3151,28 @@ binaryHeapDumpObjectReferenceIteratorWriterCallback(J9JavaVM* virtualMachine, J9
 	return referenceWriter->_HeapDumpWriter->_Error ? JVMTI_ITERATION_ABORT : JVMTI_ITERATION_CONTINUE;
 }
 
+static int J9THREAD_PROC
+binaryHeapDumpWorkerThreadProc(void* userData)
+{
+	BinaryHeapDumpWriter* heapDumpWriter = (BinaryHeapDumpWriter*)userData;
+	omrthread_monitor_t monitor = heapDumpWriter->_WorkerMonitor;
+
+	/* Encode batches until the heap walk is over */
+	{
+		BinaryHeapDumpWriter encoder(heapDumpWriter);
+		encoder.encodeBatches();
+	}
+
+	/* Exit the monitor and the thread together so the dump writer may go as soon as it is notified */
+	omrthread_monitor_enter(monitor);
+	heapDumpWriter->_ActiveWorkers -= 1;
+	omrthread_monitor_notify_all(monitor);
+	omrthread_exit(monitor);
+
+	/* Not reached */
+	return 0;
+}
+
 void
 writePHD(char *label, J9RASdumpContext *context, J9RASdumpAgent* agent)
 {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2017 IBM Corp. and others
+ * Copyright (c) 2003, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -86,6 +86,8 @@ static jvmtiIterationControl heapIteratorCallback   (J9JavaVM* vm, J9MM_IterateH
 static jvmtiIterationControl spaceIteratorCallback  (J9JavaVM* vm, J9MM_IterateSpaceDescriptor*  spaceDescriptor,   void* userData);
 static jvmtiIterationControl regionIteratorCallback (J9JavaVM* vm, J9MM_IterateRegionDescriptor* regionDescription, void* userData);
 static UDATA getObjectMonitorCount	(J9JavaVM *vm);
+static void enterMonitorTableMutexes (J9JavaVM *vm);
+static void exitMonitorTableMutexes (J9JavaVM *vm);
 static UDATA getAllocatedVMThreadCount (J9JavaVM *vm);
 
 /* sig_protect functions and handlers */
@@ -462,11 +464,11 @@ JavaCoreDumpWriter::JavaCoreDumpWriter(
 	CALL_PROTECT(writeMemorySection, _Error);
 
 	/* The monitor section is crash prone as objects mutate under it.
-	 * Lock ordering imposed by the lock inflation path means that we have to get the monitorTableMutex ahead of the
-	 * thread lock as we will attempt to get it again for uninflated locks when calling getVMThreadRawState while looking
+	 * Lock ordering imposed by the lock inflation path means that we have to get the monitor table mutexes ahead of the
+	 * thread lock as we will attempt to get them again for uninflated locks when calling getVMThreadRawState while looking
 	 * for waiting threads on any given monitor
 	 */
-	omrthread_monitor_enter(_VirtualMachine->monitorTableMutex);
+	enterMonitorTableMutexes(_VirtualMachine);
 	omrthread_t self = omrthread_self();
 	if (!omrthread_lib_try_lock(self)) {
 		/* got both locks so we shouldn't deadlock getting thread state */
@@ -481,7 +483,7 @@ JavaCoreDumpWriter::JavaCoreDumpWriter(
 			"1LKREGMONDUMP  JVM System Monitor Dump unavailable [locked]\n"
 			"NULL           ------------------------------------------------------------------------\n");
 	}
-	omrthread_monitor_exit(_VirtualMachine->monitorTableMutex);
+	exitMonitorTableMutexes(_VirtualMachine);
 
 	/* If request=preempt (for native stack collection) we attempt to acquire the mutex and note if we got it */
 	if (_Agent->requestMask & J9RAS_DUMP_DO_PREEMPT_THREADS) {
@@ -1661,7 +1663,7 @@ JavaCoreDumpWriter::writeNativeAllocator(const char * name, U_32 depth, BOOLEAN
 void
 JavaCoreDumpWriter::writeMonitorSection(void)
 {
-	/* The code calling this method must have taken the monitorTableMutex and the thread library monitor_mutex
+	/* The code calling this method must have taken the monitor table mutexes and the thread library monitor_mutex
 	 * (in that order) prior to calling and must release those locks on return from this method.
 	 */
 	J9ThreadMonitor* monitor = NULL;
@@ -2939,6 +2941,11 @@ JavaCoreDumpWriter::writeSharedClassSection(void)
 		);
 		_OutputStream.writeInteger(javacoreData.jitProfileDataBytes, "%zu");
 
+		_OutputStream.writeCharacters(
+			"\n2SCLTEXTVDB        Verification data bytes                   = "
+		);
+		_OutputStream.writeInteger(javacoreData.verifyDataBytes, "%zu");
+
 		_OutputStream.writeCharacters(
 			"\n2SCLTEXTJRB        Reserved space for JIT data bytes         = "
 		);
@@ -3048,6 +3055,21 @@ JavaCoreDumpWriter::writeSharedClassSection(void)
 		);
 		_OutputStream.writeInteger(javacoreData.numJitProfiles, "%zu");
 
+		_OutputStream.writeCharacters(
+			"\n2SCLTEXTNVC        Number Verified Classes                   = "
+		);
+		_OutputStream.writeInteger(javacoreData.numVerifyRecords, "%zu");
+
+		_OutputStream.writeCharacters(
+			"\n2SCLTEXTCVF        Classes verified by this JVM              = "
+		);
+		_OutputStream.writeInteger(_VirtualMachine->sharedClassConfig->verifiedClassCount, "%zu");
+
+		_OutputStream.writeCharacters(
+			"\n2SCLTEXTCVS        Classes with verification skipped         = "
+		);
+		_OutputStream.writeInteger(_VirtualMachine->sharedClassConfig->verifySkippedClassCount, "%zu");
+
 		_OutputStream.writeCharacters(
 			"\n2SCLTEXTNCP        Number Classpaths                         = "
 		);
@@ -5761,6 +5783,38 @@ getObjectMonitorCount(J9JavaVM *vm)
 	return count;
 }
 
+/*
+ * Enters the mutex of every monitor table, in index order. The inflation path only
+ * ever holds one of them, so taking them all in a fixed order cannot deadlock with it.
+ *
+ * @param	vm	the J9JavaVM
+ */
+static void
+enterMonitorTableMutexes(J9JavaVM *vm)
+{
+	UDATA index = 0;
+
+	for (index = 0; index < vm->monitorTableCount; index++) {
+		omrthread_monitor_enter(vm->monitorTableLocks[index].mutex);
+	}
+}
+
+/*
+ * Exits the mutexes entered by enterMonitorTableMutexes(), in reverse order.
+ *
+ * @param	vm	the J9JavaVM
+ */
+static void
+exitMonitorTableMutexes(J9JavaVM *vm)
+{
+	UDATA index = vm->monitorTableCount;
+
+	while (index > 0) {
+		index -= 1;
+		omrthread_monitor_exit(vm->monitorTableLocks[index].mutex);
+	}
+}
+
 /*
  * Calculate number of allocated VMThreads
  *
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2001, 2017 IBM Corp. and others
+ * Copyright (c) 2001, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -87,6 +87,19 @@ static char* formatAttachedDataString(J9VMThread* currentThread, U_8 *attachedDa
 #define FIND_ATTACHED_DATA_RETRY_COUNT 1
 #define FIND_ATTACHED_DATA_CORRUPT_WAIT_TIME 1
 
+/* Below this many entries, the startup read fills every hashtable on the current thread */
+#define POPULATE_PARALLEL_MIN_ITEMS 4096
+#define POPULATE_BATCH_INITIAL_CAPACITY 256
+
+#define POPULATE_BATCH_PENDING 0
+#define POPULATE_BATCH_STORED 1
+#define POPULATE_BATCH_FAILED 2
+
+static PopulateBatch* getPopulateBatch(J9JavaVM* vm, PopulateBatch* batches, UDATA* batchCount, SH_Manager* manager, SH_CompositeCacheImpl* cache);
+static bool addToPopulateBatch(J9PortLibrary* portlib, PopulateBatch* batch, const ShcItem* item);
+static bool storePopulateBatch(J9VMThread* currentThread, PopulateBatch* batch);
+static int J9THREAD_PROC populateBatchThread(void* entryArg);
+
 /**
  * @param currentThread - the currentThread or NULL when called to collect javacore data
  *
@@ -1001,6 +1014,16 @@ SH_CacheMap::readCache(J9VMThread* currentThread, SH_CompositeCacheImpl* cache,
 	IDATA result = 0;
 	IDATA expectedCntr = expectedUpdates;
 	SH_Manager* manager = NULL;
+#if !defined(J9SHR_CACHELET_SUPPORT)
+	/* The startup read only walks the cache. Each manager's entries are batched and
+	 * the hashtables are filled once the walk is complete, in parallel where it pays off.
+	 */
+	bool batchStores = ((-1 == expectedUpdates) && (false == startupForStats));
+	PopulateBatch batches[NUM_MANAGERS];
+	UDATA batchCount = 0;
+	UDATA batchedItems = 0;
+	UDATA i = 0;
+#endif
 	PORT_ACCESS_FROM_PORT(_portlib);
 	
 	if (!_ccHead->hasWriteMutex(currentThread)) {
@@ -1032,6 +1055,22 @@ SH_CacheMap::readCache(J9VMThread* currentThread, SH_CompositeCacheImpl* cache,
 					++result;
 				} else if ((rc > 0) && ((UDATA)rc == itemType)) {
 					/* Success - we have a started manager */
+#if !defined(J9SHR_CACHELET_SUPPORT)
+					if (batchStores) {
+						PopulateBatch* batch = getPopulateBatch(currentThread->javaVM, batches, &batchCount, manager, cache);
+
+						if (addToPopulateBatch(PORTLIB, batch, it)) {
+							++batchedItems;
+						} else if (storePopulateBatch(currentThread, batch) && manager->storeNew(currentThread, it, cache)) {
+							/* Out of memory for the batch, so store what it holds and this entry now to keep them in cache order */
+							++result;
+						} else {
+							CACHEMAP_TRACE(J9SHR_VERBOSEFLAG_ENABLE_VERBOSE_DEFAULT, J9NLS_ERROR, J9NLS_SHRC_CM_HASHTABLE_ADD_FAILURE);
+							Trc_SHR_CM_readCache_Exit2(currentThread);
+							result = CM_READ_CACHE_FAILED;
+						}
+					} else
+#endif
 					if (manager->storeNew(currentThread, it, cache)) {
 						if (expectedCntr != -1) {
 							--expectedCntr;
@@ -1091,6 +1130,23 @@ SH_CacheMap::readCache(J9VMThread* currentThread, SH_CompositeCacheImpl* cache,
 			}
 		}
 	} while ((it != NULL) && (result != CM_READ_CACHE_FAILED) && (result != CM_CACHE_CORRUPT) && (expectedCntr==-1 || expectedCntr>0));
+
+#if !defined(J9SHR_CACHELET_SUPPORT)
+	if (batchStores) {
+		if ((CM_READ_CACHE_FAILED != result) && (CM_CACHE_CORRUPT != result)) {
+			IDATA stored = populateHashtables(currentThread, batches, batchCount, batchedItems);
+
+			if (0 > stored) {
+				result = CM_READ_CACHE_FAILED;
+			} else {
+				result += stored;
+			}
+		}
+		for (i = 0; i < batchCount; i++) {
+			j9mem_free_memory((void*)batches[i].items);
+		}
+	}
+#endif
 	
 	if ((false == startupForStats) && (cache->isCacheCorrupt())) {
 		reportCorruptCache(currentThread);
@@ -1113,6 +1169,206 @@ readCache_stop:
 	return result;
 }
 
+/**
+ * Find the batch for a manager, starting a new one the first time the manager is seen.
+ *
+ * @param[in] vm The Java VM
+ * @param[in] batches The batches of the startup read, one per manager
+ * @param[in,out] batchCount The number of batches in use
+ * @param[in] manager The manager that stores the entry
+ * @param[in] cache The cache being read
+ *
+ * @return the batch for the manager
+ */
+static PopulateBatch*
+getPopulateBatch(J9JavaVM* vm, PopulateBatch* batches, UDATA* batchCount, SH_Manager* manager, SH_CompositeCacheImpl* cache)
+{
+	PopulateBatch* batch = NULL;
+	UDATA i = 0;
+
+	for (i = 0; i < *batchCount; i++) {
+		if (batches[i].manager == manager) {
+			return &batches[i];
+		}
+	}
+	Trc_SHR_Assert_True(*batchCount < NUM_MANAGERS);
+	batch = &batches[*batchCount];
+	*batchCount += 1;
+	memset(batch, 0, sizeof(PopulateBatch));
+	batch->vm = vm;
+	batch->manager = manager;
+	batch->cache = cache;
+	batch->state = POPULATE_BATCH_PENDING;
+	return batch;
+}
+
+/**
+ * Append a cache entry to a batch, growing it as required.
+ *
+ * @param[in] portlib The port library
+ * @param[in] batch The batch
+ * @param[in] item The cache entry
+ *
+ * @return true if the entry was added, false if memory could not be allocated
+ */
+static bool
+addToPopulateBatch(J9PortLibrary* portlib, PopulateBatch* batch, const ShcItem* item)
+{
+	PORT_ACCESS_FROM_PORT(portlib);
+
+	if (batch->count == batch->capacity) {
+		UDATA newCapacity = (0 == batch->capacity) ? POPULATE_BATCH_INITIAL_CAPACITY : (batch->capacity * 2);
+		const ShcItem** newItems = (const ShcItem**)j9mem_reallocate_memory((void*)batch->items, newCapacity * sizeof(ShcItem*), J9MEM_CATEGORY_CLASSES);
+
+		if (NULL == newItems) {
+			return false;
+		}
+		batch->items = newItems;
+		batch->capacity = newCapacity;
+	}
+	batch->items[batch->count] = item;
+	batch->count += 1;
+	return true;
+}
+
+/**
+ * Add the entries of a batch to the hashtable of its manager, in cache order, and empty it.
+ *
+ * @param[in] currentThread The current thread
+ * @param[in] batch The batch
+ *
+ * @return true if every entry was stored, false otherwise
+ */
+static bool
+storePopulateBatch(J9VMThread* currentThread, PopulateBatch* batch)
+{
+	UDATA i = 0;
+
+	for (i = 0; i < batch->count; i++) {
+		if (!batch->manager->storeNew(currentThread, batch->items[i], batch->cache)) {
+			return false;
+		}
+		batch->stored += 1;
+	}
+	batch->count = 0;
+	return true;
+}
+
+/**
+ * Entry point of a helper thread that fills the hashtable of one manager during startup.
+ * Managers guard their hashtables with their own mutexes, so one helper per manager needs
+ * no further locking. If the helper cannot attach to the VM the batch is left pending,
+ * and the thread reading the cache stores it instead.
+ *
+ * @param[in] entryArg The batch
+ *
+ * @return 0
+ */
+static int J9THREAD_PROC
+populateBatchThread(void* entryArg)
+{
+	PopulateBatch* batch = (PopulateBatch*)entryArg;
+	J9JavaVM* vm = batch->vm;
+	J9VMThread* helperThread = NULL;
+
+	omrthread_set_name(omrthread_self(), "Shared cache populate");
+	if (JNI_OK == vm->internalVMFunctions->internalAttachCurrentThread(vm, &helperThread, NULL,
+			J9_PRIVATE_FLAGS_DAEMON_THREAD | J9_PRIVATE_FLAGS_NO_OBJECT | J9_PRIVATE_FLAGS_SYSTEM_THREAD | J9_PRIVATE_FLAGS_ATTACHED_THREAD,
+			omrthread_self())
+	) {
+		Trc_SHR_CM_populateBatchThread_Start(helperThread, batch->manager, batch->count);
+		batch->state = storePopulateBatch(helperThread, batch) ? POPULATE_BATCH_STORED : POPULATE_BATCH_FAILED;
+		Trc_SHR_CM_populateBatchThread_Done(helperThread, batch->manager, batch->stored);
+		vm->internalVMFunctions->DetachCurrentThread((JavaVM*)vm);
+	}
+
+	omrthread_monitor_enter(batch->monitor);
+	*batch->running -= 1;
+	omrthread_monitor_notify_all(batch->monitor);
+	omrthread_monitor_exit(batch->monitor);
+	return 0;
+}
+
+/**
+ * Fill the manager hashtables with the entries batched by the startup read. When there are
+ * enough entries, every batch after the first is given to a helper thread while the current
+ * thread stores the first one.
+ *
+ * THREADING: Called by readCache with the cache write mutex held
+ *
+ * @param[in] currentThread The current thread
+ * @param[in] batches The batches, one per manager
+ * @param[in] batchCount The number of batches
+ * @param[in] itemCount The total number of entries in the batches
+ *
+ * @return the number of entries stored, or -1 if a hashtable could not be updated
+ */
+IDATA
+SH_CacheMap::populateHashtables(J9VMThread* currentThread, PopulateBatch* batches, UDATA batchCount, UDATA itemCount)
+{
+	J9JavaVM* vm = currentThread->javaVM;
+	omrthread_monitor_t monitor = NULL;
+	UDATA running = 0;
+	IDATA stored = 0;
+	UDATA i = 0;
+	PORT_ACCESS_FROM_PORT(_portlib);
+
+	Trc_SHR_CM_populateHashtables_Entry(currentThread, batchCount, itemCount);
+
+	if ((POPULATE_PARALLEL_MIN_ITEMS <= itemCount) && (1 < batchCount)
+		&& (0 == omrthread_monitor_init_with_name(&monitor, 0, "Shared cache populate"))
+	) {
+		for (i = 1; i < batchCount; i++) {
+			omrthread_t helper = NULL;
+
+			batches[i].monitor = monitor;
+			batches[i].running = &running;
+			omrthread_monitor_enter(monitor);
+			running += 1;
+			omrthread_monitor_exit(monitor);
+			if (0 != vm->internalVMFunctions->createThreadWithCategory(&helper, 0, J9THREAD_PRIORITY_NORMAL, 0,
+					populateBatchThread, &batches[i], J9THREAD_CATEGORY_SYSTEM_THREAD)
+			) {
+				/* the batch stays pending and is stored below */
+				Trc_SHR_CM_populateHashtables_NoHelper(currentThread, batches[i].manager);
+				omrthread_monitor_enter(monitor);
+				running -= 1;
+				omrthread_monitor_exit(monitor);
+			}
+		}
+	}
+
+	if ((0 < batchCount) && !storePopulateBatch(currentThread, &batches[0])) {
+		batches[0].state = POPULATE_BATCH_FAILED;
+	}
+
+	if (NULL != monitor) {
+		omrthread_monitor_enter(monitor);
+		while (0 != running) {
+			omrthread_monitor_wait(monitor);
+		}
+		omrthread_monitor_exit(monitor);
+		omrthread_monitor_destroy(monitor);
+	}
+
+	for (i = 0; i < batchCount; i++) {
+		if ((POPULATE_BATCH_PENDING == batches[i].state) && !storePopulateBatch(currentThread, &batches[i])) {
+			batches[i].state = POPULATE_BATCH_FAILED;
+		}
+		if (POPULATE_BATCH_FAILED == batches[i].state) {
+			stored = -1;
+		} else if (0 <= stored) {
+			stored += batches[i].stored;
+		}
+	}
+
+	if (0 > stored) {
+		CACHEMAP_TRACE(J9SHR_VERBOSEFLAG_ENABLE_VERBOSE_DEFAULT, J9NLS_ERROR, J9NLS_SHRC_CM_HASHTABLE_ADD_FAILURE);
+	}
+	Trc_SHR_CM_populateHashtables_Exit(currentThread, stored);
+	return stored;
+}
+
 /* THREADING: MUST be protected by cache write mutex - therefore single-threaded within this JVM */
 IDATA
 SH_CacheMap::checkForCrash(J9VMThread* currentThread, bool hasClassSegmentMutex)
@@ -2653,7 +2909,12 @@ SH_CacheMap::addROMClassResourceToCache(J9VMThread* currentThread, const void* r
 		}
 		break;
 	case TYPE_ATTACHED_DATA:
-		if (0 != (*_runtimeFlags & RUNTIME_FLAGS_PREVENT_JIT_DATA_UPDATE)) {
+		if (J9SHR_ATTACHED_DATA_TYPE_VERIFY == resourceSubType) {
+			if (0 != (*_runtimeFlags & RUNTIME_FLAGS_PREVENT_BLOCK_DATA_UPDATE)) {
+				increaseUnstoredBytes(totalLength);
+				return NULL;
+			}
+		} else if (0 != (*_runtimeFlags & RUNTIME_FLAGS_PREVENT_JIT_DATA_UPDATE)) {
 			return NULL;
 		}
 		break;
@@ -2698,6 +2959,8 @@ SH_CacheMap::addROMClassResourceToCache(J9VMThread* currentThread, const void* r
 			(J9SHR_ATTACHED_DATA_TYPE_JITHINT == resourceSubType)
 		){
 			itemInCache = (ShcItem*)(cacheAreaForAllocate->allocateJIT(currentThread, itemPtr, dataLength));
+		} else if (J9SHR_ATTACHED_DATA_TYPE_VERIFY == resourceSubType) {
+			itemInCache = (ShcItem*)(cacheAreaForAllocate->allocateBlock(currentThread, itemPtr, align, wrapperLength));
 		}
 		break;
 	default :
@@ -3135,7 +3398,8 @@ SH_CacheMap::storeAttachedData(J9VMThread* currentThread, const void* addressInC
 		return J9SHR_RESOURCE_STORE_ERROR;
 	}
 
-	if (localVerboseFlags  & J9SHR_VERBOSEFLAG_ENABLE_VERBOSE_JITDATA) {
+	/* verification data is keyed by a ROMClass rather than a ROMMethod, and is not reported as JIT data */
+	if ((localVerboseFlags & J9SHR_VERBOSEFLAG_ENABLE_VERBOSE_JITDATA) && (J9SHR_ATTACHED_DATA_TYPE_VERIFY != data->type)) {
 		char subcstr[VERBOSE_BUFFER_SIZE];
 		const char *pSubcstr = subcstr;
 		const char *pType = attachedTypeString(data->type);
@@ -3214,7 +3478,7 @@ SH_CacheMap::updateAttachedData(J9VMThread* currentThread, const void* addressIn
 		Trc_SHR_CM_updateAttachedData_Exit1(currentThread);
 		return J9SHR_RESOURCE_STORE_ERROR;
 	}
-	if (localVerboseFlags  & J9SHR_VERBOSEFLAG_ENABLE_VERBOSE_JITDATA) {
+	if ((localVerboseFlags & J9SHR_VERBOSEFLAG_ENABLE_VERBOSE_JITDATA) && (J9SHR_ATTACHED_DATA_TYPE_VERIFY != data->type)) {
 		char subcstr[VERBOSE_BUFFER_SIZE];
 		const char* pSubcstr = subcstr;
 		const char *pType = attachedTypeString(data->type);
@@ -3292,7 +3556,7 @@ SH_CacheMap::updateAttachedUDATA(J9VMThread* currentThread, const void* addressI
 	data.length = sizeof(UDATA);
 	data.type = type;
 
-	if (localVerboseFlags  & J9SHR_VERBOSEFLAG_ENABLE_VERBOSE_JITDATA) {
+	if ((localVerboseFlags & J9SHR_VERBOSEFLAG_ENABLE_VERBOSE_JITDATA) && (J9SHR_ATTACHED_DATA_TYPE_VERIFY != data.type)) {
 		char subcstr[VERBOSE_BUFFER_SIZE];
 		const char* pSubcstr = subcstr;
 		const char *pType = attachedTypeString(data.type);
@@ -3357,7 +3621,7 @@ SH_CacheMap::findAttachedDataAPI(J9VMThread* currentThread, const void* addressI
 
 	Trc_SHR_CM_findAttachedDataAPI_Entry(currentThread, addressInCache, addressInCache);
 
-	if (localVerboseFlags  & J9SHR_VERBOSEFLAG_ENABLE_VERBOSE_JITDATA) {
+	if ((localVerboseFlags & J9SHR_VERBOSEFLAG_ENABLE_VERBOSE_JITDATA) && (J9SHR_ATTACHED_DATA_TYPE_VERIFY != data->type)) {
 		char subcstr[VERBOSE_BUFFER_SIZE];
 		const char* pSubcstr = subcstr;
 		subcstr[0] = 0;
@@ -3739,16 +4003,8 @@ SH_CacheMap::storeSharedData(J9VMThread* currentThread, const char* key, UDATA k
 {
 	const U_8* result = NULL;
 	const char* fnName = "storeSharedData";
-	ByteDataWrapper* bdwInCache = NULL;
-	UDATA foundDatalen = 0;
-	char utfKey[STACK_STRINGBUF_SIZE];
-	char* utfKeyPtr = (char*)&utfKey;
-	J9UTF8* utfKeyStruct = NULL;
 	UDATA dataNotIndexed = (data != NULL) ? (data->flags & J9SHRDATA_NOT_INDEXED) : 0;
 	SH_ByteDataManager* localBDM;
-	SH_ScopeManager* localSCM = NULL;
-
-	PORT_ACCESS_FROM_VMC(currentThread);
 
 	Trc_SHR_Assert_True(_sharedClassConfig != NULL);
 
@@ -3773,6 +4029,105 @@ SH_CacheMap::storeSharedData(J9VMThread* currentThread, const char* key, UDATA k
 		return NULL;
 	}
 
+	result = storeSharedDataHoldingWriteMutex(currentThread, localBDM, key, keylen, data);
+
+	_ccHead->exitWriteMutex(currentThread, fnName);
+
+	Trc_SHR_CM_storeSharedData_Exit3(currentThread, result);
+	return result;
+}
+
+/**
+ * Stores a number of data elements in the cache, each against its own UTF8 key, as
+ * storeSharedData() would store them one at a time. The cache write mutex is entered once
+ * for the whole batch rather than once per element.
+ *
+ * @param[in] currentThread  The current thread
+ * @param[in] count  The number of elements to store
+ * @param[in] keys  The UTF8 keys to store the data against
+ * @param[in] keylens  The lengths of the keys
+ * @param[in] data  The data for each key. See storeSharedData() for the fields to complete.
+ * @param[out] results  Filled in with the new location of each element in the cache, or null
+ *
+ * @return  The number of elements whose location is non-null, or -1 if the mutex could not be entered
+ *
+ * THREADING: This function can be called multi-threaded
+ */
+IDATA
+SH_CacheMap::storeSharedDataBatch(J9VMThread* currentThread, UDATA count, const char** keys, const UDATA* keylens, const J9SharedDataDescriptor* data, const U_8** results)
+{
+	IDATA stored = 0;
+	const char* fnName = "storeSharedDataBatch";
+	SH_ByteDataManager* localBDM;
+	UDATA i;
+
+	Trc_SHR_Assert_True(_sharedClassConfig != NULL);
+
+	for (i = 0; i < count; i++) {
+		results[i] = NULL;
+	}
+	if (!(localBDM = getByteDataManager(currentThread))) {
+		return 0;
+	}
+
+	Trc_SHR_CM_storeSharedDataBatch_Entry(currentThread, count);
+
+	if (_ccHead->enterWriteMutex(currentThread, false, fnName) != 0) {
+		Trc_SHR_CM_storeSharedDataBatch_ExitFailedMutex(currentThread);
+		return -1;
+	}
+
+	if (runEntryPointChecks(currentThread, NULL, NULL) == -1) {
+		_ccHead->exitWriteMutex(currentThread, fnName);
+		Trc_SHR_CM_storeSharedDataBatch_Exit1(currentThread);
+		return -1;
+	}
+
+	for (i = 0; i < count; i++) {
+		UDATA dataNotIndexed = data[i].flags & J9SHRDATA_NOT_INDEXED;
+
+		if (((keys[i] == NULL) || (keylens[i] == 0) || (data[i].length > MAX_INT)) && !dataNotIndexed) {
+			continue;
+		}
+		results[i] = storeSharedDataHoldingWriteMutex(currentThread, localBDM, keys[i], keylens[i], &data[i]);
+		if (results[i] != NULL) {
+			stored += 1;
+		}
+	}
+
+	_ccHead->exitWriteMutex(currentThread, fnName);
+
+	Trc_SHR_CM_storeSharedDataBatch_Exit2(currentThread, stored);
+	return stored;
+}
+
+/**
+ * Stores a single data element for storeSharedData() or storeSharedDataBatch().
+ *
+ * @param[in] currentThread  The current thread
+ * @param[in] localBDM  The byte data manager
+ * @param[in] key  The UTF8 key to store the data against
+ * @param[in] keylen  The length of the key
+ * @param[in] data  The actual data
+ *
+ * @return  The new location of the cached data or null
+ *
+ * THREADING: The caller must hold the cache write mutex
+ */
+const U_8*
+SH_CacheMap::storeSharedDataHoldingWriteMutex(J9VMThread* currentThread, SH_ByteDataManager* localBDM, const char* key, UDATA keylen, const J9SharedDataDescriptor* data)
+{
+	const U_8* result = NULL;
+	ByteDataWrapper* bdwInCache = NULL;
+	UDATA foundDatalen = 0;
+	char utfKey[STACK_STRINGBUF_SIZE];
+	char* utfKeyPtr = (char*)&utfKey;
+	J9UTF8* utfKeyStruct = NULL;
+	UDATA dataNotIndexed = (data != NULL) ? (data->flags & J9SHRDATA_NOT_INDEXED) : 0;
+	SH_ScopeManager* localSCM = NULL;
+
+	PORT_ACCESS_FROM_VMC(currentThread);
+
 	/* TODO: Hack for now so that read/write data does not get any metadata anywhere 
 	 * This is ok as no other VMs need to see the string table pool puddles 
 	 * See also addByteDataToCache() */
@@ -3860,9 +4215,6 @@ _done:
 		j9mem_free_memory(utfKeyPtr);
 	}
 
-	_ccHead->exitWriteMutex(currentThread, fnName);
-
-	Trc_SHR_CM_storeSharedData_Exit3(currentThread, result);
 	return result;
 }
 
@@ -3935,6 +4287,75 @@ SH_CacheMap::findSharedData(J9VMThread* currentThread, const char* key, UDATA ke
 	return result;
 }
 
+/**
+ * Retrieves the data stored in the cache against each of a number of UTF8 keys, as findSharedData()
+ * would retrieve them one at a time with no descriptor pool. The cache read mutex is entered once
+ * for the whole batch rather than once per key.
+ *
+ * @param[in] currentThread  The current thread
+ * @param[in] count  The number of keys
+ * @param[in] keys  The UTF8 keys against which the data was stored
+ * @param[in] keylens  The lengths of the keys
+ * @param[in] limitDataType  Optional. If used, only data of the type constant specified is returned. If 0, all data stored under a key is returned
+ * @param[in] includePrivateData  If non-zero, will also find private data of other JVMs stored under a key
+ * @param[out] firstItems  Filled in with the first result found for each key
+ * @param[out] results  Filled in with the number of data elements found for each key, or -1 for an invalid key
+ *
+ * @return  The number of keys with at least one data element found, or -1 in the case of error
+ *
+ * THREADING: This function can be called multi-threaded
+ */
+IDATA
+SH_CacheMap::findSharedDataBatch(J9VMThread* currentThread, UDATA count, const char** keys, const UDATA* keylens, UDATA limitDataType, UDATA includePrivateData, J9SharedDataDescriptor* firstItems, IDATA* results)
+{
+	IDATA found = 0;
+	const char* fnName = "findSharedDataBatch";
+	SH_ByteDataManager* localBDM;
+	UDATA i;
+
+	Trc_SHR_Assert_True(_sharedClassConfig != NULL);
+
+	for (i = 0; i < count; i++) {
+		results[i] = 0;
+	}
+	if (!(localBDM = getByteDataManager(currentThread))) {
+		return 0;
+	}
+
+	Trc_SHR_CM_findSharedDataBatch_Entry(currentThread, count);
+
+	if (_ccHead->enterReadMutex(currentThread, fnName) != 0) {
+		Trc_SHR_CM_findSharedDataBatch_ExitFailedMutex(currentThread);
+		return -1;
+	}
+
+	if (runEntryPointChecks(currentThread, NULL, NULL) == -1) {
+		_ccHead->exitReadMutex(currentThread, fnName);
+		Trc_SHR_CM_findSharedDataBatch_Exit1(currentThread);
+		return -1;
+	}
+
+	for (i = 0; i < count; i++) {
+		if ((keys[i] == NULL) || (keylens[i] == 0)) {
+			results[i] = -1;
+		} else {
+			results[i] = localBDM->find(currentThread, keys[i], keylens[i], limitDataType, includePrivateData, &firstItems[i], NULL);
+		}
+	}
+
+	_ccHead->exitReadMutex(currentThread, fnName);
+
+	for (i = 0; i < count; i++) {
+		if (results[i] > 0) {
+			updateBytesRead(firstItems[i].length);
+			found += 1;
+		}
+	}
+
+	Trc_SHR_CM_findSharedDataBatch_Exit2(currentThread, found);
+	return found;
+}
+
 /* Attempts to transfer some private shared data from another JVM to this one
  * The data field should be an value returned from findSharedData, not one made up manually.
  * If the data entry is private to another JVM and is not in use, it will be made private to this JVM and will be marked "in use".
@@ -4068,6 +4489,7 @@ SH_CacheMap::getJavacoreData(J9JavaVM *vm, J9SharedClassJavacoreDataDescriptor*
 		descriptor->zipCacheDataBytes = 0;
 		descriptor->jitHintDataBytes = 0;
 		descriptor->jitProfileDataBytes = 0;
+		descriptor->verifyDataBytes = 0;
 		descriptor->aotDataBytes = 0;
 		descriptor->aotClassChainDataBytes = 0;
 		descriptor->aotThunkDataBytes = 0;
@@ -4075,6 +4497,7 @@ SH_CacheMap::getJavacoreData(J9JavaVM *vm, J9SharedClassJavacoreDataDescriptor*
 		descriptor->numZipCaches = 0;
 		descriptor->numJitHints = 0;
 		descriptor->numJitProfiles = 0;
+		descriptor->numVerifyRecords = 0;
 		descriptor->numAotDataEntries = 0;
 		descriptor->numAotClassChains = 0;
 		descriptor->numAotThunks = 0;
@@ -4097,6 +4520,10 @@ SH_CacheMap::getJavacoreData(J9JavaVM *vm, J9SharedClassJavacoreDataDescriptor*
 				descriptor->jitHintDataBytes += _adm->getDataBytesForType(type);
 				descriptor->numJitHints += _adm->getNumOfType(type);
 				break;
+			case J9SHR_ATTACHED_DATA_TYPE_VERIFY:
+				descriptor->verifyDataBytes += _adm->getDataBytesForType(type);
+				descriptor->numVerifyRecords += _adm->getNumOfType(type);
+				break;
 			default:
 				Trc_SHR_CM_getJavacoreData_InvalidAttachedDataType(type);
 				Trc_SHR_Assert_ShouldNeverHappen();
@@ -4112,6 +4539,7 @@ SH_CacheMap::getJavacoreData(J9JavaVM *vm, J9SharedClassJavacoreDataDescriptor*
 			descriptor->jclDataBytes -
 			descriptor->jitHintDataBytes -
 			descriptor->jitProfileDataBytes -
+			descriptor->verifyDataBytes -
 			descriptor->aotDataBytes -
 			descriptor->aotClassChainDataBytes -
 			descriptor->aotThunkDataBytes -
@@ -4885,6 +5313,7 @@ SH_CacheMap::printCacheStats(J9VMThread* currentThread, UDATA showFlags, U_64 ru
 
 		if (runtimeFlags & J9SHR_RUNTIMEFLAG_ENABLE_DETAILED_STATS) {
 			CACHEMAP_FMTPRINT1(J9NLS_DO_NOT_PRINT_MESSAGE_TAG, J9NLS_SHRC_CM_PRINTSTATS_SUMMARY_JAVA_OBJECT_BYTES, javacoreData.objectBytes);
+			CACHEMAP_FMTPRINT1(J9NLS_DO_NOT_PRINT_MESSAGE_TAG, J9NLS_SHRC_CM_PRINTSTATS_SUMMARY_VERIFY_DATA_BYTES, javacoreData.verifyDataBytes);
 		}
 		CACHEMAP_FMTPRINT1(J9NLS_DO_NOT_PRINT_MESSAGE_TAG, J9NLS_SHRC_CM_PRINTSTATS_SUMMARY_ZIP_CACHE_DATA_BYTES_V2, javacoreData.zipCacheDataBytes);
 
@@ -4925,6 +5354,7 @@ SH_CacheMap::printCacheStats(J9VMThread* currentThread, UDATA showFlags, U_64 ru
 
 		CACHEMAP_FMTPRINT1(J9NLS_DO_NOT_PRINT_MESSAGE_TAG, J9NLS_SHRC_CM_PRINTSTATS_SUMMARY_NUM_ROMCLASSES_V2, javacoreData.numROMClasses);
 		CACHEMAP_FMTPRINT1(J9NLS_DO_NOT_PRINT_MESSAGE_TAG, J9NLS_SHRC_CM_PRINTSTATS_SUMMARY_NUM_AOT_V2, javacoreData.numAOTMethods);
+		CACHEMAP_FMTPRINT1(J9NLS_DO_NOT_PRINT_MESSAGE_TAG, J9NLS_SHRC_CM_PRINTSTATS_SUMMARY_NUM_VERIFIED_CLASSES, javacoreData.numVerifyRecords);
 		if (runtimeFlags & J9SHR_RUNTIMEFLAG_ENABLE_DETAILED_STATS) {
 			CACHEMAP_FMTPRINT1(J9NLS_DO_NOT_PRINT_MESSAGE_TAG, J9NLS_SHRC_CM_PRINTSTATS_SUMMARY_NUM_AOT_DATA, javacoreData.numAotDataEntries);
 			CACHEMAP_FMTPRINT1(J9NLS_DO_NOT_PRINT_MESSAGE_TAG, J9NLS_SHRC_CM_PRINTSTATS_SUMMARY_NUM_AOT_CLASS_HIERARCHY, javacoreData.numAotClassChains);
@@ -5001,6 +5431,9 @@ SH_CacheMap::printShutdownStats(void)
 	
 	CACHEMAP_TRACE2(J9SHR_VERBOSEFLAG_ENABLE_VERBOSE, J9NLS_INFO, J9NLS_SHRC_CM_PRINTSHUTDOWNSTATS_READ_STORED, bytesRead, bytesStored);
 	CACHEMAP_TRACE3(J9SHR_VERBOSEFLAG_ENABLE_VERBOSE, J9NLS_INFO, J9NLS_SHRC_CM_PRINTSHUTDOWNSTATS_UNSTORED_V1, softmxUnstoredBytes, maxAOTUnstoredBytes, maxJITUnstoredBytes);
+	if (NULL != _sharedClassConfig) {
+		CACHEMAP_TRACE2(J9SHR_VERBOSEFLAG_ENABLE_VERBOSE, J9NLS_INFO, J9NLS_SHRC_CM_PRINTSHUTDOWNSTATS_VERIFIED_SKIPPED, _sharedClassConfig->verifiedClassCount, _sharedClassConfig->verifySkippedClassCount);
+	}
 }
 
 /**
@@ -6671,6 +7104,8 @@ SH_CacheMap::attachedTypeString(UDATA type)
 		return "JITPROFILE";
 	case J9SHR_ATTACHED_DATA_TYPE_JITHINT:
 		return "JITHINT";
+	case J9SHR_ATTACHED_DATA_TYPE_VERIFY:
+		return "VERIFY";
 	default:
 		Trc_SHR_CM_attachedTypeString_Error(type);
 		Trc_SHR_Assert_ShouldNeverHappen();
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2001, 2017 IBM Corp. and others
+ * Copyright (c) 2001, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -51,6 +51,20 @@ typedef struct MethodSpecTable {
 	bool matchFlag;
 } MethodSpecTable;
 
+/* The cache entries that one manager adds to its hashtable at the end of the startup read */
+typedef struct PopulateBatch {
+	J9JavaVM* vm;
+	SH_Manager* manager;
+	SH_CompositeCacheImpl* cache;
+	const ShcItem** items;
+	UDATA count;
+	UDATA capacity;
+	UDATA stored;
+	UDATA state;
+	omrthread_monitor_t monitor;
+	UDATA* running;
+} PopulateBatch;
+
 /* 
  * Implementation of SH_SharedCache interface
  */
@@ -99,6 +113,12 @@ public:
 	/* @see SharedCache.hpp */
 	virtual const U_8* storeSharedData(J9VMThread* currentThread, const char* key, UDATA keylen, const J9SharedDataDescriptor* data);
 
+	/* @see SharedCache.hpp */
+	virtual IDATA findSharedDataBatch(J9VMThread* currentThread, UDATA count, const char** keys, const UDATA* keylens, UDATA limitDataType, UDATA includePrivateData, J9SharedDataDescriptor* firstItems, IDATA* results);
+
+	/* @see SharedCache.hpp */
+	virtual IDATA storeSharedDataBatch(J9VMThread* currentThread, UDATA count, const char** keys, const UDATA* keylens, const J9SharedDataDescriptor* data, const U_8** results);
+
 	/* @see SharedCache.hpp */
 		virtual const U_8* findAttachedDataAPI(J9VMThread* currentThread, const void* addressInCache, J9SharedDataDescriptor* data, IDATA *corruptOffset) ;
 
@@ -339,6 +359,8 @@ private:
 
 	IDATA readCache(J9VMThread* currentThread, SH_CompositeCacheImpl* cache, IDATA expectedUpdates, bool startupForStats);
 
+	IDATA populateHashtables(J9VMThread* currentThread, PopulateBatch* batches, UDATA batchCount, UDATA itemCount);
+
 	IDATA refreshHashtables(J9VMThread* currentThread, bool hasClassSegmentMutex);
 
 	ClasspathWrapper* addClasspathToCache(J9VMThread* currentThread, ClasspathItem* obj);
@@ -347,6 +369,8 @@ private:
 
 	const void* addROMClassResourceToCache(J9VMThread* currentThread, const void* romAddress, SH_ROMClassResourceManager* localRRM, SH_ROMClassResourceManager::SH_ResourceDescriptor* resourceDescriptor, const char** p_subcstr);
 
+	const U_8* storeSharedDataHoldingWriteMutex(J9VMThread* currentThread, SH_ByteDataManager* localBDM, const char* key, UDATA keylen, const J9SharedDataDescriptor* data);
+
 	BlockPtr addByteDataToCache(J9VMThread* currentThread, SH_Manager* localBDM, const J9UTF8* tokenKeyInCache, const J9SharedDataDescriptor* data, SH_CompositeCacheImpl* forceCache, bool writeWithoutMetadata);
 
 	J9MemorySegment* addNewROMImageSegment(J9VMThread* currentThread, U_8* segmentBase, U_8* segmentEnd);
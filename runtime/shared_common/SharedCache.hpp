@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2001, 2017 IBM Corp. and others
+ * Copyright (c) 2001, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -60,6 +60,10 @@ public:
 
 	virtual const U_8* storeSharedData(J9VMThread* currentThread, const char* key, UDATA keylen, const J9SharedDataDescriptor* data) = 0;
 
+	virtual IDATA findSharedDataBatch(J9VMThread* currentThread, UDATA count, const char** keys, const UDATA* keylens, UDATA limitDataType, UDATA includePrivateData, J9SharedDataDescriptor* firstItems, IDATA* results) = 0;
+
+	virtual IDATA storeSharedDataBatch(J9VMThread* currentThread, UDATA count, const char** keys, const UDATA* keylens, const J9SharedDataDescriptor* data, const U_8** results) = 0;
+
 	virtual const U_8* findAttachedDataAPI(J9VMThread* currentThread, const void* addressInCache, J9SharedDataDescriptor* data, IDATA *corruptOffset) = 0;
 
 	virtual UDATA storeAttachedData(J9VMThread* currentThread, const void* addressInCache, const J9SharedDataDescriptor* data, UDATA forceReplace) = 0;
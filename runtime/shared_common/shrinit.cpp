@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2001, 2017 IBM Corp. and others
+ * Copyright (c) 2001, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -1820,6 +1820,180 @@ j9shr_storeSharedData(J9VMThread* currentThread, const char* key, UDATA keylen,
 	return returnVal;
 }
 
+/**
+ * Retrieves the data stored in the cache against each of a number of keys, as j9shr_findSharedData()
+ * would retrieve them one at a time with no descriptor pool, but entering the cache read mutex once.
+ *
+ * @param[in] currentThread  The current thread
+ * @param[in] count  The number of keys
+ * @param[in] keys  The UTF8 keys against which the data was stored
+ * @param[in] keylens  The lengths of the keys
+ * @param[in] limitDataType  Optional. If used, only data of the type constant specified is returned.
+ *								If 0, all data stored under a key is returned
+ * @param[in] includePrivateData  If non-zero, will also find private data of other JVMs stored under a key
+ * @param[out] firstItems  Must have count elements. Filled in with the first data item found for each key
+ * @param[out] results  Must have count elements. Filled in with the number of data elements found for each key,
+ * 								or -1 in the case of error
+ *
+ * @return  The number of keys with data found or -1 in the case of error
+ */
+IDATA
+j9shr_findSharedDataBatch(J9VMThread* currentThread, UDATA count, const char** keys, const UDATA* keylens, UDATA limitDataType, UDATA includePrivateData, J9SharedDataDescriptor* firstItems, IDATA* results)
+{
+	J9JavaVM* vm = currentThread->javaVM;
+	J9SharedClassConfig* sharedClassConfig = vm->sharedClassConfig;
+	U_64 localRuntimeFlags;
+	UDATA localVerboseFlags;
+	UDATA oldState = (UDATA)-1;
+	UDATA* currentState = &(currentThread->omrVMThread->vmState);
+	IDATA returnVal = -1;
+	UDATA i;
+
+	PORT_ACCESS_FROM_JAVAVM(vm);
+
+	Trc_SHR_INIT_findSharedDataBatch_entry(currentThread, count);
+
+	for (i = 0; i < count; i++) {
+		results[i] = -1;
+	}
+
+	if (sharedClassConfig == NULL) {
+		Trc_SHR_INIT_findSharedDataBatch_exit_Noop(currentThread);
+		return -1;
+	}
+
+	localRuntimeFlags = sharedClassConfig->runtimeFlags;
+	localVerboseFlags = sharedClassConfig->verboseFlags;
+
+	if (!(localRuntimeFlags & J9SHR_RUNTIMEFLAG_CACHE_INITIALIZATION_COMPLETE) ||
+		(localRuntimeFlags & J9SHR_RUNTIMEFLAG_DENY_CACHE_ACCESS)) {
+		Trc_SHR_INIT_findSharedDataBatch_exit_Noop(currentThread);
+		return -1;
+	}
+
+	/* jcl calls from shared.c set the vmState, but bootstrap calls do not */
+	if (*currentState != J9VMSTATE_SHAREDDATA_FIND) {
+		oldState = *currentState;
+		*currentState = J9VMSTATE_SHAREDDATA_FIND;
+	}
+
+	returnVal = (((SH_CacheMap*)(sharedClassConfig->sharedClassCache))->findSharedDataBatch(currentThread, count, keys, keylens, limitDataType, includePrivateData, firstItems, results));
+
+	if (localVerboseFlags & J9SHR_VERBOSEFLAG_ENABLE_VERBOSE_DATA) {
+		for (i = 0; i < count; i++) {
+			if (results[i]) {
+				SHRINIT_TRACE2_NOTAG(localVerboseFlags, J9NLS_SHRC_SHRINIT_FOUND_VERBOSE_DATA_MSG, keylens[i], keys[i]);
+			} else {
+				SHRINIT_TRACE2_NOTAG(localVerboseFlags, J9NLS_SHRC_SHRINIT_FIND_FAILED_VERBOSE_DATA_MSG, keylens[i], keys[i]);
+			}
+		}
+	}
+
+	if (oldState != (UDATA)-1) {
+		*currentState = oldState;
+	}
+
+	Trc_SHR_INIT_findSharedDataBatch_exit(currentThread, returnVal);
+
+	return returnVal;
+}
+
+/**
+ * Stores a number of data elements in the cache, each against its own key, as j9shr_storeSharedData()
+ * would store them one at a time, but entering the cache write mutex once.
+ *
+ * @param[in] currentThread  The current thread
+ * @param[in] count  The number of elements to store
+ * @param[in] keys  The UTF8 keys to store the data against
+ * @param[in] keylens  The lengths of the keys
+ * @param[in] data  Must have count elements. The data for each key, see j9shr_storeSharedData()
+ * @param[out] results  Must have count elements. Filled in with the new location of each element, or null
+ *
+ * @return  The number of elements stored or -1 in the case of error
+ */
+IDATA
+j9shr_storeSharedDataBatch(J9VMThread* currentThread, UDATA count, const char** keys, const UDATA* keylens, const J9SharedDataDescriptor* data, const U_8** results)
+{
+	J9JavaVM* vm = currentThread->javaVM;
+	J9SharedClassConfig* sharedClassConfig = vm->sharedClassConfig;
+	U_64 localRuntimeFlags;
+	UDATA localVerboseFlags;
+	UDATA oldState = (UDATA)-1;
+	UDATA* currentState = &(currentThread->omrVMThread->vmState);
+	IDATA returnVal = -1;
+	SH_CacheMap* cm = NULL;
+	UDATA i;
+
+	PORT_ACCESS_FROM_JAVAVM(vm);
+
+	Trc_SHR_INIT_storeSharedDataBatch_entry(currentThread, count);
+
+	for (i = 0; i < count; i++) {
+		results[i] = NULL;
+	}
+
+	if (sharedClassConfig == NULL) {
+		Trc_SHR_INIT_storeSharedDataBatch_exit_Noop(currentThread);
+		return -1;
+	}
+
+	cm = (SH_CacheMap*)(sharedClassConfig->sharedClassCache);
+	cm->updateRuntimeFullFlags(currentThread);
+
+	localRuntimeFlags = sharedClassConfig->runtimeFlags;
+	localVerboseFlags = sharedClassConfig->verboseFlags;
+
+	if (!(localRuntimeFlags & J9SHR_RUNTIMEFLAG_CACHE_INITIALIZATION_COMPLETE) ||
+		(J9_ARE_ANY_BITS_SET(localRuntimeFlags, J9SHR_RUNTIMEFLAG_BLOCK_SPACE_FULL | J9SHR_RUNTIMEFLAG_DENY_CACHE_UPDATES))
+	) {
+		Trc_SHR_INIT_storeSharedDataBatch_exit_Noop(currentThread);
+		return -1;
+	}
+
+	if (J9_ARE_ANY_BITS_SET(localRuntimeFlags, J9SHR_RUNTIMEFLAG_AVAILABLE_SPACE_FULL)) {
+		for (i = 0; i < count; i++) {
+			if (J9_ARE_ALL_BITS_SET(data[i].flags, J9SHRDATA_USE_READWRITE)) {
+				/* softmx has no effect on the read write area */
+				if (J9_ARE_NO_BITS_SET(data[i].flags, J9SHRDATA_NOT_INDEXED | J9SHRDATA_IS_PRIVATE)) {
+					cm->increaseUnstoredBytes(sizeof(ByteDataWrapper));
+				}
+			} else {
+				U_32 wrapperLength = (J9_ARE_ALL_BITS_SET(data[i].flags, J9SHRDATA_NOT_INDEXED) ? 0 : sizeof(ByteDataWrapper));
+
+				cm->increaseUnstoredBytes((U_32)data[i].length + wrapperLength);
+			}
+		}
+		Trc_SHR_INIT_storeSharedDataBatch_exit1(currentThread);
+		return 0;
+	}
+
+	/* jcl calls from shared.c set the vmState, but bootstrap calls do not */
+	if (*currentState != J9VMSTATE_SHAREDDATA_STORE) {
+		oldState = *currentState;
+		*currentState = J9VMSTATE_SHAREDDATA_STORE;
+	}
+
+	returnVal = cm->storeSharedDataBatch(currentThread, count, keys, keylens, data, results);
+
+	if (localVerboseFlags & J9SHR_VERBOSEFLAG_ENABLE_VERBOSE_DATA) {
+		for (i = 0; i < count; i++) {
+			if (results[i]) {
+				SHRINIT_TRACE2_NOTAG(localVerboseFlags, J9NLS_SHRC_SHRINIT_STORED_VERBOSE_DATA_MSG, keylens[i], keys[i]);
+			} else {
+				SHRINIT_TRACE2_NOTAG(localVerboseFlags, J9NLS_SHRC_SHRINIT_STORE_FAILED_VERBOSE_DATA_MSG, keylens[i], keys[i]);
+			}
+		}
+	}
+
+	if (oldState != (UDATA)-1) {
+		*currentState = oldState;
+	}
+
+	Trc_SHR_INIT_storeSharedDataBatch_exit(currentThread, returnVal);
+
+	return returnVal;
+}
+
 /**
 * Store data in shared classes cache, keyed by the specified address in the shared cache.
 * Typically this is jit or aot related data.
@@ -1880,17 +2054,24 @@ j9shr_storeAttachedData(J9VMThread* currentThread, const void* addressInCache, c
 		return J9SHR_RESOURCE_STORE_ERROR;
 	}
 
-	if (localRuntimeFlags & J9SHR_RUNTIMEFLAG_JIT_SPACE_FULL) {
-		Trc_SHR_INIT_storeAttachedData_exit_CacheFull(currentThread);
-		return J9SHR_RESOURCE_STORE_FULL;
-	}
-
 	if ((J9SHR_ATTACHED_DATA_TYPE_JITPROFILE != data->type)
-		&& (J9SHR_ATTACHED_DATA_TYPE_JITHINT != data->type)) {
+		&& (J9SHR_ATTACHED_DATA_TYPE_JITHINT != data->type)
+		&& (J9SHR_ATTACHED_DATA_TYPE_VERIFY != data->type)) {
 		Trc_SHR_INIT_storeAttachedData_exit_TypeUnknown(currentThread, data->type);
 		return J9SHR_RESOURCE_PARAMETER_ERROR;
 	}
 
+	/* Verification data is class metadata and is stored in the block area rather than the JIT data area */
+	if (J9SHR_ATTACHED_DATA_TYPE_VERIFY == data->type) {
+		if (localRuntimeFlags & (J9SHR_RUNTIMEFLAG_BLOCK_SPACE_FULL | J9SHR_RUNTIMEFLAG_AVAILABLE_SPACE_FULL)) {
+			Trc_SHR_INIT_storeAttachedData_exit_CacheFull(currentThread);
+			return J9SHR_RESOURCE_STORE_FULL;
+		}
+	} else if (localRuntimeFlags & J9SHR_RUNTIMEFLAG_JIT_SPACE_FULL) {
+		Trc_SHR_INIT_storeAttachedData_exit_CacheFull(currentThread);
+		return J9SHR_RESOURCE_STORE_FULL;
+	}
+
 	if (J9SHR_ATTACHED_DATA_NO_FLAGS != data->flags) {
 		Trc_SHR_INIT_storeAttachedData_exit_FlagErr(currentThread, data->flags);
 		return J9SHR_RESOURCE_PARAMETER_ERROR;
@@ -3288,6 +3469,8 @@ j9shr_init(J9JavaVM *vm, UDATA loadFlags, UDATA* nonfatal)
 		config->getFreeSpaceBytes = j9shr_getFreeAvailableSpaceBytes;
 		config->findSharedData = j9shr_findSharedData;
 		config->storeSharedData = j9shr_storeSharedData;
+		config->findSharedDataBatch = j9shr_findSharedDataBatch;
+		config->storeSharedDataBatch = j9shr_storeSharedDataBatch;
 		config->findCompiledMethodEx1 = j9shr_findCompiledMethodEx1;
 		config->storeCompiledMethod = j9shr_storeCompiledMethod;
 		config->storeAttachedData = j9shr_storeAttachedData;
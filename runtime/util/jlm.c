@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 1991, 2014 IBM Corp. and others
+ * Copyright (c) 1991, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -118,6 +118,9 @@
 /* version */
 #define JLM_DUMP_VERSION           1
 
+/* Name of the record counting the lookups of a monitor table answered without entering its mutex */
+#define MONITOR_TABLE_LOOKUP_NAME_FORMAT "VM monitor table %zu lock-free lookups"
+
 
 static void GetMonitorName (J9VMThread *vmThread, J9ThreadAbstractMonitor *monitor, char *nameBuf);
 
@@ -137,6 +140,8 @@ request_MonitorJlmDump(jvmtiEnv * env, J9VMJlmDump * jlmd, jint dump_format)
 	J9MemoryManagerFunctions * memoryManagerFunctions = jvm->memoryManagerFunctions;
 	J9ThreadMonitorTracing *lnrl_lock = NULL;
 	pool_state j9gc_LWNRLock_walk_state = { 0 };
+	UDATA tableIndex = 0;
+	PORT_ACCESS_FROM_JAVAVM(jvm);
 
 	monitor = NULL;
 	vmThread = jvm->internalVMFunctions->currentVMThread(jvm);
@@ -222,6 +227,36 @@ request_MonitorJlmDump(jvmtiEnv * env, J9VMJlmDump * jlmd, jint dump_format)
 		}
 	}
 
+	/*
+	 * The mutex of each monitor table is reported above. Also report, as a raw monitor entered
+	 * without contention, the lookups in each table that did not need to enter its mutex.
+	 */
+	for (tableIndex = 0; tableIndex < jvm->monitorTableCount; tableIndex++) {
+		WRITE_1BYTE(JVMTI_MONITOR_RAW);
+		WRITE_1BYTE((unsigned char)held);
+		WRITE_4BYTES(jvm->monitorTableLocks[tableIndex].lockFreeLookupCount);
+		WRITE_4BYTES(0);
+		WRITE_4BYTES(0);
+		WRITE_4BYTES(0);
+		WRITE_4BYTES(0);
+		WRITE_8BYTES(0);
+
+		if (dump_format == COM_IBM_JLM_DUMP_FORMAT_TAGS) {
+			WRITE_8BYTES(0);
+		} else {
+			/* The next field has a pointer size */
+			if (sizeof(void *) == 8) {
+				WRITE_8BYTES(0);
+			} else {
+				WRITE_4BYTES(0);
+			}
+		}
+
+		j9str_printf(PORTLIB, monitor_name, OBJ_MON_NAME_BUF_SIZE, MONITOR_TABLE_LOOKUP_NAME_FORMAT, tableIndex);
+		strcpy(dump, monitor_name);
+		dump += strlen(monitor_name) + 1;
+	}
+
 	/*
 	 * Write lock's name and statistics for each LightweightNonreentrantLock
 	 * @note omrgc_walkLWNRLockTracePool locks the pool and unlocks it after iterating all elements.
@@ -265,6 +300,14 @@ jint
 JlmStart(J9VMThread* vmThread)
 {
 #if	defined(OMR_THR_JLM)
+	J9JavaVM *vm = vmThread->javaVM;
+	UDATA tableIndex = 0;
+
+	/* omrthread_jlm_init() resets the counts of the monitors, so reset those of the monitor tables too */
+	for (tableIndex = 0; tableIndex < vm->monitorTableCount; tableIndex++) {
+		vm->monitorTableLocks[tableIndex].lockFreeLookupCount = 0;
+	}
+
 	return (omrthread_jlm_init(J9THREAD_LIB_FLAG_JLM_ENABLED) == 0) ? (jint) JLM_SUCCESS : (jint) JLM_NOT_AVAILABLE;
 #else
 	return (jint) JLM_NOT_AVAILABLE;
@@ -397,6 +440,8 @@ jint request_MonitorJlmDumpSize(J9JavaVM * jvm, UDATA * dump_size, jint dump_for
 	J9MemoryManagerFunctions * memoryManagerFunctions = jvm->memoryManagerFunctions;
 	J9ThreadMonitorTracing *lnrl_lock = NULL;
 	pool_state j9gc_LWNRLock_walk_state = { 0 };
+	UDATA tableIndex = 0;
+	PORT_ACCESS_FROM_JAVAVM(jvm);
 
 	if (! (omrthread_lib_get_flags() & J9THREAD_LIB_FLAG_JLM_HAS_BEEN_ENABLED)) {
 		/* must not be called if JLM has never been enabled */
@@ -425,6 +470,12 @@ jint request_MonitorJlmDumpSize(J9JavaVM * jvm, UDATA * dump_size, jint dump_for
 		}
 	}
 
+	/* count the lock-free lookup record of each monitor table */
+	for (tableIndex = 0; tableIndex < jvm->monitorTableCount; tableIndex++) {
+		j9str_printf(PORTLIB, monitor_name, OBJ_MON_NAME_BUF_SIZE, MONITOR_TABLE_LOOKUP_NAME_FORMAT, tableIndex);
+		*dump_size += JLM_DUMP_COUNT_FIELD_SIZE + objIDfieldSize + strlen(monitor_name) + 1;
+	}
+
 	/*
 	 * calculate the dump size for GC's LightweightNonReentrantLocks
 	 * @note omrgc_walkLWNRLockTracePool locks the pool and unlocks it after iterating all elements.
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 1991, 2017 IBM Corp. and others
+ * Copyright (c) 1991, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -30,6 +30,7 @@
 #include "vm_api.h"
 #include "vm_internal.h"
 #include "j9modron.h"
+#include "omrutilbase.h"
 
 /* uncomment this to enable monitor table verbosity */
 /* #define MONTABLE_TRACING
@@ -50,6 +51,9 @@ static UDATA hits, misses;
 #define J9_OBJECT_MONITOR_LOOKUP_SLOT(object,vm) ( (((UDATA)object) >> vm->omrVM->_objectAlignmentShift) & (J9VMTHREAD_OBJECT_MONITOR_CACHE_SIZE-1))
 #endif
 
+/* The low bits of the hash select the table, so use the bits above them to select the lookup cache slot */
+#define J9_MONITOR_TABLE_LOOKUP_SLOT(hash,vm) ( (((UDATA)(hash)) / (vm)->monitorTableCount) & (J9VM_MONITOR_TABLE_LOOKUP_CACHE_SIZE-1))
+
 static UDATA hashMonitorCompare (void *leftKey, void *rightKey, void *userData);
 static UDATA hashMonitorDestroyDo (void *entry, void *opaque);
 static UDATA hashMonitorHash (void *key, void *userData);
@@ -138,10 +142,6 @@ initializeMonitorTable(J9JavaVM* vm)
 		return -1;
 	}
 
-	if (omrthread_monitor_init_with_name(&vm->monitorTableMutex, 0, "VM monitor table")) {
-		return -1;
-	}
-
 	vm->monitorTableListPool = pool_new(sizeof(J9MonitorTableListEntry), 0, 0, 0, J9_GET_CALLSITE(), OMRMEM_CATEGORY_VM, POOL_FOR_PORT(vm->portLibrary));
 	if (NULL == vm->monitorTableListPool) {
 		return -1;
@@ -152,11 +152,26 @@ initializeMonitorTable(J9JavaVM* vm)
 		return -1;
 	}
 	memset(vm->monitorTables, 0, sizeof(J9HashTable *) * tableCount);
+
+	vm->monitorTableLocks = (J9MonitorTableLock *)j9mem_allocate_memory(sizeof(J9MonitorTableLock) * tableCount, OMRMEM_CATEGORY_VM);
+	if (NULL == vm->monitorTableLocks) {
+		return -1;
+	}
+	memset(vm->monitorTableLocks, 0, sizeof(J9MonitorTableLock) * tableCount);
 	
 	vm->monitorTableList = NULL;
 
 	for (tableIndex = 0; tableIndex < tableCount; tableIndex++) {
-		J9HashTable *table = createMonitorTable(vm, J9_GET_CALLSITE());
+		char mutexName[64];
+		J9HashTable *table = NULL;
+
+		/* Each table has its own named mutex, so the JLM report shows the contention on each */
+		j9str_printf(PORTLIB, mutexName, sizeof(mutexName), "VM monitor table %zu", tableIndex);
+		if (omrthread_monitor_init_with_name(&vm->monitorTableLocks[tableIndex].mutex, J9THREAD_MONITOR_NAME_COPY, mutexName)) {
+			return -1;
+		}
+
+		table = createMonitorTable(vm, J9_GET_CALLSITE());
 		if (NULL == table) {
 			return -1;
 		}
@@ -209,9 +224,18 @@ destroyMonitorTable(J9JavaVM* vm)
 		vm->monitorTableListPool = NULL;
 	}
 
-	if (NULL != vm->monitorTableMutex) {
-		omrthread_monitor_destroy(vm->monitorTableMutex);
-		vm->monitorTableMutex = NULL;
+	if (NULL != vm->monitorTableLocks) {
+		PORT_ACCESS_FROM_JAVAVM(vm);
+		UDATA tableIndex = 0;
+		for (tableIndex = 0; tableIndex < vm->monitorTableCount; tableIndex++) {
+			omrthread_monitor_t mutex = vm->monitorTableLocks[tableIndex].mutex;
+			if (NULL != mutex) {
+				omrthread_monitor_destroy(mutex);
+			}
+		}
+
+		j9mem_free_memory(vm->monitorTableLocks);
+		vm->monitorTableLocks = NULL;
 	}
 
 	/* Note: destroyMonitorTable is called after the GC hook interface has shut down,
@@ -224,17 +248,25 @@ destroyMonitorTable(J9JavaVM* vm)
  * The name of this routine is misleading, as it does NOT behave like the other
  * xxTableAt functions.  It should be called LookupAndAdd or something like that.
  *
+ * Each table is guarded by its own mutex, so threads looking up objects that hash
+ * to different tables do not contend. Monitors found or added under the mutex are
+ * published in the lookup cache of the table, from which later lookups of the same
+ * object by any thread are answered without entering the mutex. Entries are only
+ * removed from the tables by the GC, which clears the lookup caches first.
+ *
  * @pre: The caller must have VM access.
  */
 J9ObjectMonitor *
 monitorTableAt(J9VMThread* vmStruct, j9object_t object)
 {
 	J9JavaVM* vm = vmStruct->javaVM;
-	omrthread_monitor_t mutex = vm->monitorTableMutex;
+	omrthread_monitor_t mutex = NULL;
 	J9ObjectMonitor * objectMonitor = NULL;
 	J9ObjectMonitor key_objectMonitor;
 	J9ThreadAbstractMonitor key_monitor;
 	struct J9HashTable* monitorTable = NULL;
+	J9MonitorTableLock *tableLock = NULL;
+	volatile j9objectmonitor_t *lookupSlot = NULL;
 	UDATA index = 0;
 #if defined(J9VM_INTERP_CUSTOM_SPIN_OPTIONS)
 	J9Class *ramClass = J9OBJECT_CLAZZ(vmStruct, object);
@@ -281,8 +313,34 @@ monitorTableAt(J9VMThread* vmStruct, j9object_t object)
 	key_objectMonitor.hash = objectHashCode(vm, object);
 	index = key_objectMonitor.hash % (U_32)vm->monitorTableCount;
 	monitorTable = vm->monitorTables[index];
+	tableLock = &vm->monitorTableLocks[index];
+	lookupSlot = &tableLock->lookupCache[J9_MONITOR_TABLE_LOOKUP_SLOT(key_objectMonitor.hash, vm)];
 
+	/* Lock-free path: the monitor was published by an earlier lookup */
+	objectMonitor = (J9ObjectMonitor*) ((UDATA) *lookupSlot);
+	if (NULL != objectMonitor) {
+		issueReadBarrier();
+		if (((J9ThreadAbstractMonitor*)objectMonitor->monitor)->userData == (UDATA) object) {
+			TRACE("Lookup cache hit");
+#if defined(OMR_THR_JLM)
+			if (J9_ARE_ANY_BITS_SET(omrthread_lib_get_flags(), J9THREAD_LIB_FLAG_JLM_ENABLED)) {
+				UDATA oldCount = 0;
+				do {
+					oldCount = tableLock->lockFreeLookupCount;
+				} while (compareAndSwapUDATA(&tableLock->lockFreeLookupCount, oldCount, oldCount + 1) != oldCount);
+			}
+#endif /* OMR_THR_JLM */
+#ifdef J9VM_THR_LOCK_NURSERY
+			cacheObjectMonitorForLookup(vm, vmStruct, objectMonitor);
+#else
+			vmStruct->cachedMonitor = objectMonitor;
+#endif
+			Trc_VM_monitorTableAt_Exit(vmStruct, objectMonitor);
+			return objectMonitor;
+		}
+	}
 
+	mutex = tableLock->mutex;
 	omrthread_monitor_enter(mutex);
 
 	if (NULL == monitorTable){
@@ -354,6 +412,9 @@ monitorTableAt(J9VMThread* vmStruct, j9object_t object)
 #else
 		vmStruct->cachedMonitor = objectMonitor;
 #endif
+		/* the new entry must be visible before it is published */
+		issueWriteBarrier();
+		*lookupSlot = (j9objectmonitor_t) ((UDATA) objectMonitor);
 	}
 
 	omrthread_monitor_exit(mutex);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 1991, 2014 IBM Corp. and others
+ * Copyright (c) 1991, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -138,6 +138,15 @@ typedef struct J9ZipCacheTraversal {
 	J9ZipFileEntry *fileRecordEntry;
 } J9ZipCacheTraversal;
 
+/**
+* @brief
+* @param zipCache
+* @return void
+*/
+void
+zipCache_buildIndex(J9ZipCache * zipCache);
+
+
 /**
 * @brief
 * @param zipCache
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 1991, 2017 IBM Corp. and others
+ * Copyright (c) 1991, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -45,7 +45,7 @@
  * The zip cache version number must be changed if the zip
  * cache format changes.
  */
-#define ZIP_CACHE_VERSION 1
+#define ZIP_CACHE_VERSION 2
 
 #define UDATA_TOP_BIT    (((UDATA)1)<<(sizeof(UDATA)*8-1))
 #define ISCLASS_BIT    UDATA_TOP_BIT
@@ -53,6 +53,11 @@
 #define OFFSET_MASK	(~ISCLASS_BIT)
 #define	IMPLICIT_ENTRY	(~ISCLASS_BIT)
 
+/* Directory entries and file entries share the hash index, directory hashes have the top bit set */
+#define ZIP_HASH_DIRECTORY_BIT	UDATA_TOP_BIT
+/* Smallest index size, the index is kept at most half full so probe sequences stay short */
+#define ZIP_HASH_MIN_SIZE	16
+
 
 void zipCache_freeChunk (J9PortLibrary * portLib, J9ZipChunkHeader *chunk);
 J9ZipDirEntry *zipCache_searchDirListCaseInsensitive (J9ZipDirEntry * dirEntry, const char *namePtr, UDATA nameSize, BOOLEAN isClass);
@@ -66,6 +71,14 @@ IDATA helper_memicmp (const void *src1, const void *src2, UDATA length);
 J9ZipDirEntry *zipCache_copyDirEntry(J9ZipCacheEntry *orgzce, J9ZipDirEntry *orgDirEntry, J9ZipCacheEntry *zce, J9ZipDirEntry *rootEntry);
 void zipCache_freeChunks(J9PortLibrary *portLib, J9ZipCacheEntry *zce);
 void zipCache_walkCache(J9PortLibrary * portLib, J9ZipCacheEntry *zce, J9ZipDirEntry *dirEntry);
+static UDATA zipCache_hashName (UDATA parentHash, const char *namePtr, UDATA nameSize, BOOLEAN isClass);
+static UDATA zipCache_countEntries (J9ZipDirEntry *dirEntry);
+static UDATA zipCache_indexSize (UDATA entryCount);
+static void zipCache_indexDirEntry (J9ZipHashEntry *table, UDATA mask, J9ZipDirEntry *dirEntry, UDATA dirHash);
+static void zipCache_insertIndexEntry (J9ZipHashEntry *table, UDATA mask, UDATA hash, J9ZipDirEntry *parent, void *entry);
+static void zipCache_indexNewEntry (J9ZipCache *zipCache, UDATA hash, J9ZipDirEntry *parent, void *entry);
+static J9ZipFileEntry *zipCache_lookupFile (J9ZipCacheEntry *zce, J9ZipDirEntry *dirEntry, UDATA hash, const char *namePtr, UDATA nameSize, BOOLEAN isClass);
+static J9ZipDirEntry *zipCache_lookupDir (J9ZipCacheEntry *zce, J9ZipDirEntry *dirEntry, UDATA hash, const char *namePtr, UDATA nameSize, BOOLEAN isClass);
 
 #define ZIP_SRP_SET(field, value) WSRP_PTR_SET(&field, value)
 #define ZIP_SRP_GET(field, type) WSRP_PTR_GET(&field, type)
@@ -237,6 +250,10 @@ UDATA zipCache_cacheSize(J9ZipCache * zipCache) {
 		 * the sizeRequired will be zero. */
 		U_8 *zipFileName = ZIP_SRP_GET(zce->zipFileName, U_8 *);
 		/*If zipFileName is Null, then we should not add the length of zipFileName into sizerequired*/
+		if (0 != zce->hashTableSize) {
+			/* The index is allocated separately, zipCache_copy() rebuilds it in the copied chunk */
+			sizeRequired += zce->hashTableSize * sizeof(J9ZipHashEntry);
+		}
 		if (NULL == zipFileName){
 			return sizeRequired;
 		}
@@ -357,6 +374,18 @@ BOOLEAN zipCache_copy(J9ZipCache * zipCache, void *cacheData, UDATA dataSize) {
 		return FALSE;
 	}
 
+	if (0 != orgzce->hashTableSize) {
+		/* Rebuild the index against the copied entries so it is shared along with them */
+		J9ZipHashEntry *table = (J9ZipHashEntry *)zipCache_reserveEntry(zce, chunk, orgzce->hashTableSize * sizeof(J9ZipHashEntry), 0, &copyZipFileName);
+		if (!table) {
+			return FALSE;
+		}
+		zipCache_indexDirEntry(table, orgzce->hashTableSize - 1, &zce->root, 0);
+		ZIP_SRP_SET(zce->hashTable, table);
+		zce->hashTableSize = orgzce->hashTableSize;
+		zce->hashTableCount = orgzce->hashTableCount;
+	}
+
 	/* Null the currentChunk so it can't be free'd */
 	ZIP_SRP_SET_TO_NULL(zce->currentChunk);
 
@@ -561,6 +590,7 @@ zipCache_addElement(J9ZipCache * zipCache, char *elementName, IDATA elementNameL
 	IDATA curSize;
 	IDATA prefixSize;
 	BOOLEAN isClass;
+	UDATA pathHash = 0;
 
 	if (!zipCache ||
 		(elementNameLength == 0) ||
@@ -610,8 +640,9 @@ zipCache_addElement(J9ZipCache * zipCache, char *elementName, IDATA elementNameL
 				/* We've seen this file before...update the entry to the new offset. */
 				fileEntry->zipFileOffset = elementOffset | (isClass ? ISCLASS_BIT : 0);
 			} else {
-				if (!zipCache_addToFileList(portLib, zce, dirEntry, curName, curSize, isClass, elementOffset))
+				if (!(fileEntry = zipCache_addToFileList(portLib, zce, dirEntry, curName, curSize, isClass, elementOffset)))
 					return FALSE;
+				zipCache_indexNewEntry(zipCache, zipCache_hashName(pathHash, curName, curSize, isClass), dirEntry, fileEntry);
 			}
 			return TRUE;
 		}
@@ -623,8 +654,10 @@ zipCache_addElement(J9ZipCache * zipCache, char *elementName, IDATA elementNameL
 			if (!(d = zipCache_addToDirList(portLib, zce, dirEntry, curName, curSize, isClass))) {
 				return FALSE;
 			}
+			zipCache_indexNewEntry(zipCache, zipCache_hashName(pathHash, curName, curSize, isClass) | ZIP_HASH_DIRECTORY_BIT, dirEntry, d);
 		}
 		dirEntry = d;
+		pathHash = zipCache_hashName(pathHash, curName, curSize, isClass);
 		curName += prefixSize;
 		nameLength -= prefixSize;
 	}
@@ -657,6 +690,7 @@ zipCache_findElement(J9ZipCache * zipCache, const char *elementName, IDATA eleme
 	IDATA curSize;
 	IDATA prefixSize;
 	BOOLEAN isClass;
+	UDATA pathHash = 0;
 
 	if (!zipCache ||
 		(elementNameLength == 0) ||
@@ -697,7 +731,7 @@ zipCache_findElement(J9ZipCache * zipCache, const char *elementName, IDATA eleme
 			/* The prefix we're looking at doesn't end with a '/', which means */
 			/* it is really the suffix of the elementName, and it's a filename. */
 
-			fileEntry = zipCache_searchFileList(dirEntry, curName, curSize, isClass);
+			fileEntry = zipCache_lookupFile(zce, dirEntry, pathHash, curName, curSize, isClass);
 			if (fileEntry) {
 				return fileEntry->zipFileOffset & OFFSET_MASK;
 			}
@@ -709,9 +743,10 @@ zipCache_findElement(J9ZipCache * zipCache, const char *elementName, IDATA eleme
 		/* If we got here, we're looking at a prefix which ends with '/', or searchDirList is TRUE */
 		/* Treat that prefix as a subdirectory.  It will exist if elementName was added before. */
 
-		dirEntry = zipCache_searchDirList(dirEntry, curName, curSize, isClass);
+		dirEntry = zipCache_lookupDir(zce, dirEntry, pathHash, curName, curSize, isClass);
 		if (!dirEntry)
 			return NOT_FOUND;
+		pathHash = zipCache_hashName(pathHash, curName, curSize, isClass);
 		curName += prefixSize;
 		nameLength -= prefixSize;
 	}
@@ -741,6 +776,13 @@ void zipCache_freeChunks(J9PortLibrary *portLib, J9ZipCacheEntry *zce)
 		return;
 	}
 
+	if (NULL != ZIP_SRP_GET(zce->hashTable, J9ZipHashEntry *)) {
+		j9mem_free_memory(ZIP_SRP_GET(zce->hashTable, J9ZipHashEntry *));
+		ZIP_SRP_SET_TO_NULL(zce->hashTable);
+		zce->hashTableSize = 0;
+		zce->hashTableCount = 0;
+	}
+
 	chunk2 = (J9ZipChunkHeader *)(((U_8 *)zce) - sizeof(J9ZipChunkHeader));
 	if (((UDATA)(zipFileName - (U_8 *)chunk2)) >= ACTUAL_CHUNK_SIZE)   {
 		/* HACK!!  zce->info.zipFileName points outside the first chunk, therefore it was allocated
@@ -996,6 +1038,246 @@ J9ZipFileEntry *zipCache_searchFileList(J9ZipDirEntry * dirEntry, const char *na
 
 
 
+/**
+ * Builds the hash index used by zipCache_findElement() once the cache has been
+ * populated. Entries are keyed by their full path, hashed one component at a
+ * time, so a lookup probes the index once per path component instead of scanning
+ * each directory's entry lists. If the index cannot be allocated the lookups
+ * continue to use the lists. Elements added afterwards are inserted into the
+ * index by zipCache_addElement().
+ *
+ * @param[in] zipCache the populated zip cache
+ */
+void
+zipCache_buildIndex(J9ZipCache * zipCache)
+{
+	J9ZipCacheInternal *zci = (J9ZipCacheInternal *)zipCache;
+	J9ZipCacheEntry *zce = zci->entry;
+	J9ZipHashEntry *table;
+	UDATA entryCount;
+	UDATA tableSize;
+	PORT_ACCESS_FROM_PORT(zipCache->portLib);
+
+#if defined(J9VM_OPT_SHARED_CLASSES)
+	if (zipCache_isCopied(zipCache)) {
+		/* The copied cache already carries its index, and is read-only */
+		return;
+	}
+#endif
+
+	table = ZIP_SRP_GET(zce->hashTable, J9ZipHashEntry *);
+	if (NULL != table) {
+		zce->hashTableSize = 0;
+		zce->hashTableCount = 0;
+		ZIP_SRP_SET_TO_NULL(zce->hashTable);
+		j9mem_free_memory(table);
+	}
+
+	entryCount = zipCache_countEntries(&zce->root);
+	tableSize = zipCache_indexSize(entryCount);
+	table = j9mem_allocate_memory(tableSize * sizeof(J9ZipHashEntry), J9MEM_CATEGORY_VM_JCL);
+	if (!table) {
+		return;
+	}
+	memset(table, 0, tableSize * sizeof(J9ZipHashEntry));
+	zipCache_indexDirEntry(table, tableSize - 1, &zce->root, 0);
+
+	ZIP_SRP_SET(zce->hashTable, table);
+	zce->hashTableSize = tableSize;
+	zce->hashTableCount = entryCount;
+}
+
+
+
+/* Returns the hash of the path parentPath/namePtr[0..nameSize-1], given the hash of parentPath. */
+/* The hash only depends on the names so the index remains valid when the cache is shared. */
+
+static UDATA
+zipCache_hashName(UDATA parentHash, const char *namePtr, UDATA nameSize, BOOLEAN isClass)
+{
+	UDATA hash = parentHash;
+	UDATA i;
+
+	for (i = 0; i < nameSize; i++) {
+		hash = (hash * 31) + (U_8)namePtr[i];
+	}
+	/* fold in the separator so "a/bc" and "ab/c" do not collide, and ".class" entries differ from the rest */
+	hash = (hash * 31) + (isClass ? '.' : '/');
+	return hash & ~ZIP_HASH_DIRECTORY_BIT;
+}
+
+
+
+/* Counts the files and directories below dirEntry. */
+
+static UDATA
+zipCache_countEntries(J9ZipDirEntry *dirEntry)
+{
+	J9ZipFileRecord *record = ZIP_SRP_GET(dirEntry->fileList, J9ZipFileRecord *);
+	J9ZipDirEntry *entry = ZIP_SRP_GET(dirEntry->dirList, J9ZipDirEntry *);
+	UDATA count = 0;
+
+	while (record) {
+		count += record->entryCount;
+		record = ZIP_SRP_GET(record->next, J9ZipFileRecord *);
+	}
+	while (entry) {
+		count += 1 + zipCache_countEntries(entry);
+		entry = ZIP_SRP_GET(entry->next, J9ZipDirEntry *);
+	}
+	return count;
+}
+
+
+
+/* Returns the power of two index size which keeps entryCount entries at most half full. */
+
+static UDATA
+zipCache_indexSize(UDATA entryCount)
+{
+	UDATA size = ZIP_HASH_MIN_SIZE;
+
+	while (size < (entryCount * 2)) {
+		size *= 2;
+	}
+	return size;
+}
+
+
+
+/* Adds the files and directories below dirEntry to the index. dirHash is the hash of dirEntry's path. */
+
+static void
+zipCache_indexDirEntry(J9ZipHashEntry *table, UDATA mask, J9ZipDirEntry *dirEntry, UDATA dirHash)
+{
+	J9ZipFileRecord *record = ZIP_SRP_GET(dirEntry->fileList, J9ZipFileRecord *);
+	J9ZipDirEntry *entry = ZIP_SRP_GET(dirEntry->dirList, J9ZipDirEntry *);
+	UDATA i;
+
+	while (record) {
+		J9ZipFileEntry *fileEntry = record->entry;
+		for (i = 0; i < record->entryCount; i++) {
+			UDATA hash = zipCache_hashName(dirHash, J9ZIPFILEENTRY_NAME(fileEntry), fileEntry->nameLength,
+					(fileEntry->zipFileOffset & ISCLASS_BIT) != 0);
+			zipCache_insertIndexEntry(table, mask, hash, dirEntry, fileEntry);
+			fileEntry = J9ZIPFILEENTRY_NEXT(fileEntry);
+		}
+		record = ZIP_SRP_GET(record->next, J9ZipFileRecord *);
+	}
+	while (entry) {
+		const char *name = J9ZIPDIRENTRY_NAME(entry);
+		UDATA hash = zipCache_hashName(dirHash, name, strlen(name), (entry->zipFileOffset & ISCLASS_BIT) != 0);
+		zipCache_insertIndexEntry(table, mask, hash | ZIP_HASH_DIRECTORY_BIT, dirEntry, entry);
+		zipCache_indexDirEntry(table, mask, entry, hash);
+		entry = ZIP_SRP_GET(entry->next, J9ZipDirEntry *);
+	}
+}
+
+
+
+/* Inserts entry into the first free slot of its probe sequence. */
+
+static void
+zipCache_insertIndexEntry(J9ZipHashEntry *table, UDATA mask, UDATA hash, J9ZipDirEntry *parent, void *entry)
+{
+	UDATA index = hash & mask;
+
+	while (NULL != ZIP_SRP_GET(table[index].entry, void *)) {
+		index = (index + 1) & mask;
+	}
+	ZIP_SRP_SET(table[index].parent, parent);
+	ZIP_SRP_SET(table[index].entry, entry);
+	table[index].hash = hash;
+}
+
+
+
+/* Adds an entry created after the index was built to the index. hash is the hash of the entry's path, */
+/* with ZIP_HASH_DIRECTORY_BIT set for a directory. The index is rebuilt larger rather than let it */
+/* become more than half full. */
+
+static void
+zipCache_indexNewEntry(J9ZipCache *zipCache, UDATA hash, J9ZipDirEntry *parent, void *entry)
+{
+	J9ZipCacheEntry *zce = ((J9ZipCacheInternal *)zipCache)->entry;
+
+	if (0 != zce->hashTableSize) {
+		if (((zce->hashTableCount + 1) * 2) > zce->hashTableSize) {
+			/* The entry is already in the lists, so the rebuilt index includes it */
+			zipCache_buildIndex(zipCache);
+		} else {
+			zipCache_insertIndexEntry(ZIP_SRP_GET(zce->hashTable, J9ZipHashEntry *), zce->hashTableSize - 1, hash, parent, entry);
+			zce->hashTableCount += 1;
+		}
+	}
+}
+
+
+
+/* Finds the file entry named namePtr[0..nameSize-1] in dirEntry, using the index if there is one. */
+/* dirHash is the hash of dirEntry's path. */
+
+static J9ZipFileEntry *
+zipCache_lookupFile(J9ZipCacheEntry *zce, J9ZipDirEntry *dirEntry, UDATA dirHash, const char *namePtr, UDATA nameSize, BOOLEAN isClass)
+{
+	if (0 != zce->hashTableSize) {
+		J9ZipHashEntry *table = ZIP_SRP_GET(zce->hashTable, J9ZipHashEntry *);
+		UDATA mask = zce->hashTableSize - 1;
+		UDATA hash = zipCache_hashName(dirHash, namePtr, nameSize, isClass);
+		UDATA index = hash & mask;
+		J9ZipFileEntry *entry;
+
+		while (NULL != (entry = ZIP_SRP_GET(table[index].entry, J9ZipFileEntry *))) {
+			if ((table[index].hash == hash)
+				&& (ZIP_SRP_GET(table[index].parent, J9ZipDirEntry *) == dirEntry)
+				&& (entry->nameLength == nameSize)
+				&& !memcmp(J9ZIPFILEENTRY_NAME(entry), namePtr, nameSize)
+				&& (isClass == ((entry->zipFileOffset & ISCLASS_BIT) != 0))
+			) {
+				return entry;
+			}
+			index = (index + 1) & mask;
+		}
+		return NULL;
+	}
+	return zipCache_searchFileList(dirEntry, namePtr, nameSize, isClass);
+}
+
+
+
+/* Finds the directory entry named namePtr[0..nameSize-1] in dirEntry, using the index if there is one. */
+/* dirHash is the hash of dirEntry's path. */
+
+static J9ZipDirEntry *
+zipCache_lookupDir(J9ZipCacheEntry *zce, J9ZipDirEntry *dirEntry, UDATA dirHash, const char *namePtr, UDATA nameSize, BOOLEAN isClass)
+{
+	if (0 != zce->hashTableSize) {
+		J9ZipHashEntry *table = ZIP_SRP_GET(zce->hashTable, J9ZipHashEntry *);
+		UDATA mask = zce->hashTableSize - 1;
+		UDATA hash = zipCache_hashName(dirHash, namePtr, nameSize, isClass) | ZIP_HASH_DIRECTORY_BIT;
+		UDATA index = hash & mask;
+		J9ZipDirEntry *entry;
+
+		while (NULL != (entry = ZIP_SRP_GET(table[index].entry, J9ZipDirEntry *))) {
+			if ((table[index].hash == hash)
+				&& (ZIP_SRP_GET(table[index].parent, J9ZipDirEntry *) == dirEntry)
+			) {
+				const char *name = J9ZIPDIRENTRY_NAME(entry);
+				if (!strncmp(name, namePtr, nameSize) && !name[nameSize]
+					&& (isClass == ((entry->zipFileOffset & ISCLASS_BIT) != 0))
+				) {
+					return entry;
+				}
+			}
+			index = (index + 1) & mask;
+		}
+		return NULL;
+	}
+	return zipCache_searchDirList(dirEntry, namePtr, nameSize, isClass);
+}
+
+
+
 /** 
  * Searches for a directory named elementName in zipCache and if found provides 
  * a handle to it that can be used to enumerate through all of the directory's files.
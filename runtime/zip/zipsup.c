@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 1991, 2017 IBM Corp. and others
+ * Copyright (c) 1991, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -1412,6 +1412,9 @@ zip_readCacheData(J9PortLibrary * portLib, J9ZipFile *zipFile)
 		startCentralDir = (IDATA)((UDATA)endEntry.dirOffset);
 		zipCache_setStartCentralDir(zipFile->cache, startCentralDir);
 		result = zip_populateCache(portLib, zipFile, &endEntry, startCentralDir);
+		if (0 == result) {
+			zipCache_buildIndex(zipFile->cache);
+		}
 	}
 
 finished:
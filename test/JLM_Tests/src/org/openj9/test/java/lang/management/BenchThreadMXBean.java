@@ -0,0 +1,201 @@
+/*******************************************************************************
+ * Copyright (c) 2018, 2018 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *******************************************************************************/
+
+package org.openj9.test.java.lang.management;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CountDownLatch;
+
+import com.ibm.lang.management.ThreadMXBean;
+
+/**
+ * Compares sampling the CPU time of many threads one ID at a time against sampling them all with
+ * a single call to getThreadCpuTime(long[]), and sampling the stacks of many threads with
+ * Thread.getAllStackTraces() against sampling them with getThreadStackSamples().
+ * This is a timing run rather than a regression test, and is run standalone with optional
+ * arguments for the number of threads (default 1000), the number of samples (default 20)
+ * and the depth of the stacks sampled (default 32).
+ */
+public class BenchThreadMXBean {
+
+	public static void main(String[] args) throws InterruptedException {
+		int threadCount = (args.length > 0) ? Integer.parseInt(args[0]) : 1000;
+		int samples = (args.length > 1) ? Integer.parseInt(args[1]) : 20;
+		int depth = (args.length > 2) ? Integer.parseInt(args[2]) : 32;
+		benchThreadCpuTime(threadCount, samples);
+		benchThreadStackSamples(threadCount, samples, depth);
+	}
+
+	static void benchThreadCpuTime(int threadCount, int samples) throws InterruptedException {
+		ThreadMXBean tb = (ThreadMXBean)ManagementFactory.getThreadMXBean();
+		if (!tb.isThreadCpuTimeSupported() || !tb.isThreadCpuTimeEnabled()) {
+			System.out.println("Thread CPU time measurement is not available, skipping the benchmark.");
+			return;
+		}
+
+		final CountDownLatch release = new CountDownLatch(1);
+		Thread[] threads = new Thread[threadCount];
+		long[] ids = new long[threadCount];
+		for (int i = 0; i < threadCount; i++) {
+			threads[i] = new Thread(new Runnable() {
+				public void run() {
+					try {
+						release.await();
+					} catch (InterruptedException e) {
+						/* exit */
+					}
+				}
+			});
+			threads[i].setDaemon(true);
+			threads[i].start();
+			ids[i] = threads[i].getId();
+		}
+
+		try {
+			long[] cpuTimes = tb.getThreadCpuTime(ids);
+			for (int i = 0; i < threadCount; i++) {
+				if (cpuTimes[i] < 0) {
+					throw new IllegalStateException("no CPU time for live thread " + ids[i]);
+				}
+			}
+
+			/* warm up, then time */
+			sampleEach(tb, ids, samples);
+			sampleAll(tb, ids, samples);
+			long begin = System.nanoTime();
+			long sink = sampleEach(tb, ids, samples);
+			long eachElapsed = System.nanoTime() - begin;
+			begin = System.nanoTime();
+			sink += sampleAll(tb, ids, samples);
+			long allElapsed = System.nanoTime() - begin;
+
+			System.out.println("threads: " + threadCount
+					+ " getThreadCpuTime(long): " + (eachElapsed / samples / 1000) + " us/sample"
+					+ " getThreadCpuTime(long[]): " + (allElapsed / samples / 1000) + " us/sample"
+					+ ((sink == Long.MIN_VALUE) ? "!" : ""));
+		} finally {
+			release.countDown();
+			for (Thread thread : threads) {
+				thread.join();
+			}
+		}
+	}
+
+	static void benchThreadStackSamples(int threadCount, int samples, final int depth) throws InterruptedException {
+		ThreadMXBean tb = (ThreadMXBean)ManagementFactory.getThreadMXBean();
+
+		final CountDownLatch release = new CountDownLatch(1);
+		Thread[] threads = new Thread[threadCount];
+		long[] ids = new long[threadCount];
+		for (int i = 0; i < threadCount; i++) {
+			threads[i] = new Thread(new Runnable() {
+				public void run() {
+					park(release, depth);
+				}
+			});
+			threads[i].setDaemon(true);
+			threads[i].start();
+			ids[i] = threads[i].getId();
+		}
+
+		try {
+			long[] frames = new long[threadCount * depth * 2];
+			int[] depths = tb.getThreadStackSamples(ids, depth, frames);
+			for (int i = 0; i < threadCount; i++) {
+				if (depths[i] <= 0) {
+					throw new IllegalStateException("no frames for live thread " + ids[i]);
+				}
+			}
+
+			/* warm up, then time */
+			sampleStackTraces(samples);
+			sampleStacks(tb, ids, depth, frames, samples);
+			long begin = System.nanoTime();
+			long sink = sampleStackTraces(samples);
+			long traceElapsed = System.nanoTime() - begin;
+			begin = System.nanoTime();
+			sink += sampleStacks(tb, ids, depth, frames, samples);
+			long sampleElapsed = System.nanoTime() - begin;
+
+			System.out.println("threads: " + threadCount + " depth: " + depth
+					+ " Thread.getAllStackTraces(): " + (traceElapsed / samples / 1000) + " us/sample"
+					+ " getThreadStackSamples(): " + (sampleElapsed / samples / 1000) + " us/sample"
+					+ ((sink == Long.MIN_VALUE) ? "!" : ""));
+		} finally {
+			release.countDown();
+			for (Thread thread : threads) {
+				thread.join();
+			}
+		}
+	}
+
+	/* recurse to give the thread a stack worth sampling, then wait */
+	static void park(CountDownLatch release, int depth) {
+		if (depth > 0) {
+			park(release, depth - 1);
+		} else {
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				/* exit */
+			}
+		}
+	}
+
+	static long sampleStackTraces(int samples) {
+		long sink = 0;
+		for (int sample = 0; sample < samples; sample++) {
+			for (StackTraceElement[] trace : Thread.getAllStackTraces().values()) {
+				sink += trace.length;
+			}
+		}
+		return sink;
+	}
+
+	static long sampleStacks(ThreadMXBean tb, long[] ids, int depth, long[] frames, int samples) {
+		long sink = 0;
+		for (int sample = 0; sample < samples; sample++) {
+			int[] depths = tb.getThreadStackSamples(ids, depth, frames);
+			sink += depths[sample % depths.length] + frames[0];
+		}
+		return sink;
+	}
+
+	static long sampleEach(ThreadMXBean tb, long[] ids, int samples) {
+		long sink = 0;
+		for (int sample = 0; sample < samples; sample++) {
+			for (long id : ids) {
+				sink += tb.getThreadCpuTime(id);
+			}
+		}
+		return sink;
+	}
+
+	static long sampleAll(ThreadMXBean tb, long[] ids, int samples) {
+		long sink = 0;
+		for (int sample = 0; sample < samples; sample++) {
+			long[] cpuTimes = tb.getThreadCpuTime(ids);
+			sink += cpuTimes[sample % cpuTimes.length];
+		}
+		return sink;
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2017 IBM Corp. and others
+ * Copyright (c) 2005, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -29,6 +29,7 @@ import org.testng.Assert;
 import org.testng.AssertJUnit;
 import java.lang.management.GarbageCollectorMXBean;
 import java.lang.management.ManagementFactory;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Hashtable;
 import java.util.Iterator;
@@ -88,6 +89,11 @@ public class TestGarbageCollectorMXBean {
 		attribs.put("MemoryUsed", new AttributeData(Long.TYPE.getName(), true, false, false));
 		attribs.put("TotalMemoryFreed", new AttributeData(Long.TYPE.getName(), true, false, false));
 		attribs.put("TotalCompacts", new AttributeData(Long.TYPE.getName(), true, false, false));
+		attribs.put("PauseTimeHistogram", new AttributeData("[J", true, false, false));
+		attribs.put("TotalMemoryAllocated", new AttributeData(Long.TYPE.getName(), true, false, false));
+		attribs.put("AllocationRate", new AttributeData(Long.TYPE.getName(), true, false, false));
+		attribs.put("TotalMemoryPromoted", new AttributeData(Long.TYPE.getName(), true, false, false));
+		attribs.put("PromotionRate", new AttributeData(Long.TYPE.getName(), true, false, false));
 	}// end static initializer
 
 	private GarbageCollectorMXBean gcb;
@@ -132,6 +138,43 @@ public class TestGarbageCollectorMXBean {
 		AssertJUnit.assertTrue(((com.ibm.lang.management.GarbageCollectorMXBean)gcb).getLastCollectionEndTime() > -1);
 	}
 
+	// Check that the pause time histogram accounts for every collection.
+	@Test
+	public final void testGetPauseTimeHistogram() {
+		AssertJUnit.assertTrue(gcb instanceof com.ibm.lang.management.GarbageCollectorMXBean);
+		com.ibm.lang.management.GarbageCollectorMXBean ibmGcb = (com.ibm.lang.management.GarbageCollectorMXBean)gcb;
+		System.gc();
+		long[] histogram = ibmGcb.getPauseTimeHistogram();
+		long count = ibmGcb.getCollectionCount();
+		AssertJUnit.assertNotNull(histogram);
+		AssertJUnit.assertTrue(histogram.length > 0);
+		long total = 0;
+		for (long bucket : histogram) {
+			AssertJUnit.assertTrue(bucket >= 0);
+			total += bucket;
+		}
+		/* collections may complete between the two calls */
+		AssertJUnit.assertTrue(total <= count);
+		logger.debug("Pause time histogram for " + gcb.getName() + ": " + Arrays.toString(histogram));
+	}
+
+	// Check that allocation and promotion figures are available.
+	@Test
+	public final void testGetAllocationAndPromotion() {
+		AssertJUnit.assertTrue(gcb instanceof com.ibm.lang.management.GarbageCollectorMXBean);
+		com.ibm.lang.management.GarbageCollectorMXBean ibmGcb = (com.ibm.lang.management.GarbageCollectorMXBean)gcb;
+		byte[][] garbage = new byte[64][];
+		for (int i = 0; i < garbage.length; i++) {
+			garbage[i] = new byte[64 * 1024];
+		}
+		System.gc();
+		AssertJUnit.assertTrue(garbage[garbage.length - 1].length > 0);
+		AssertJUnit.assertTrue(ibmGcb.getTotalMemoryAllocated() > 0);
+		AssertJUnit.assertTrue(ibmGcb.getAllocationRate() >= 0);
+		AssertJUnit.assertTrue(ibmGcb.getTotalMemoryPromoted() >= 0);
+		AssertJUnit.assertTrue(ibmGcb.getPromotionRate() >= 0);
+	}
+
 	@Test
 	public final void testGetCollectionCount() {
 		/* Collection Count could be zero */
@@ -296,10 +339,10 @@ public class TestGarbageCollectorMXBean {
 		// Print out both, the description as well as the the class name.
 		logger.debug("MBean description for " + gcb.getClass().getName() + ": " + mbi.getDescription());
 
-		// 10 attributes (5 standard, 6 IBM) - none is writable.
+		// 17 attributes (7 standard, 10 IBM) - none is writable.
 		MBeanAttributeInfo[] attributes = mbi.getAttributes();
 		AssertJUnit.assertNotNull(attributes);
-		AssertJUnit.assertEquals(12, attributes.length);
+		AssertJUnit.assertEquals(17, attributes.length);
 		for (int i = 0; i < attributes.length; i++) {
 			MBeanAttributeInfo info = attributes[i];
 			AssertJUnit.assertNotNull(info);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2017 IBM Corp. and others
+ * Copyright (c) 2005, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -364,6 +364,104 @@ public class TestThreadMXBean {
 		}
 	}
 
+	@Test
+	public final void testGetThreadCpuTimes() {
+		long currentId = Thread.currentThread().getId();
+		/* the current thread twice, and an ID no thread has */
+		long[] ids = { currentId, Long.MAX_VALUE, currentId };
+		if (tb.isThreadCpuTimeSupported()) {
+			long[] cpuTimes = tb.getThreadCpuTime(ids);
+			long[] userTimes = tb.getThreadUserTime(ids);
+			AssertJUnit.assertEquals(ids.length, cpuTimes.length);
+			AssertJUnit.assertEquals(ids.length, userTimes.length);
+			AssertJUnit.assertEquals(-1, cpuTimes[1]);
+			AssertJUnit.assertEquals(-1, userTimes[1]);
+			if (tb.isThreadCpuTimeEnabled()) {
+				AssertJUnit.assertTrue(cpuTimes[0] > -1);
+				AssertJUnit.assertEquals(cpuTimes[0], cpuTimes[2]);
+				AssertJUnit.assertTrue(userTimes[0] > -1);
+				AssertJUnit.assertEquals(userTimes[0], userTimes[2]);
+			} else {
+				AssertJUnit.assertEquals(-1, cpuTimes[0]);
+				AssertJUnit.assertEquals(-1, userTimes[0]);
+			}
+
+			// Should throw a wobbler if a bad Thread id is passed in.
+			try {
+				tb.getThreadCpuTime(new long[] { currentId, 0 });
+				Assert.fail("Should have thrown an exception!");
+			} catch (IllegalArgumentException e) {
+			}
+			try {
+				tb.getThreadUserTime(new long[] { -122 });
+				Assert.fail("Should have thrown an exception!");
+			} catch (IllegalArgumentException e) {
+			}
+		} else {
+			try {
+				tb.getThreadCpuTime(ids);
+				Assert.fail("Should have thrown an exception!");
+			} catch (UnsupportedOperationException e) {
+			}
+		}
+	}
+
+	@Test
+	public final void testGetThreadStackSample() {
+		long currentId = Thread.currentThread().getId();
+		long[] frames = new long[2 * 64];
+		int depth = tb.getThreadStackSample(currentId, frames);
+		AssertJUnit.assertTrue(depth > 0);
+		boolean found = false;
+		for (int i = 0; i < depth; i++) {
+			long methodID = frames[2 * i];
+			long bytecodeIndex = frames[(2 * i) + 1];
+			StackTraceElement element = tb.getStackTraceElement(methodID, bytecodeIndex);
+			AssertJUnit.assertNotNull(element);
+			AssertJUnit.assertEquals(element, tb.getStackTraceElement(methodID, bytecodeIndex));
+			if (element.getClassName().equals(TestThreadMXBean.class.getName())
+					&& element.getMethodName().equals("testGetThreadStackSample")) {
+				found = true;
+			}
+		}
+		AssertJUnit.assertTrue("sampling method not in the sample", found);
+		AssertJUnit.assertEquals(-1, tb.getThreadStackSample(Long.MAX_VALUE, frames));
+
+		// the current thread, and an ID no thread has
+		long[] ids = { currentId, Long.MAX_VALUE };
+		long[] allFrames = new long[ids.length * 8 * 2];
+		int[] depths = tb.getThreadStackSamples(ids, 8, allFrames);
+		AssertJUnit.assertEquals(ids.length, depths.length);
+		AssertJUnit.assertEquals(8, depths[0]);
+		AssertJUnit.assertEquals(-1, depths[1]);
+
+		// Should throw a wobbler if bad arguments are passed in.
+		try {
+			tb.getThreadStackSample(0, frames);
+			Assert.fail("Should have thrown an exception!");
+		} catch (IllegalArgumentException e) {
+		}
+		try {
+			tb.getThreadStackSamples(ids, 9, allFrames);
+			Assert.fail("Should have thrown an exception!");
+		} catch (IllegalArgumentException e) {
+		}
+		try {
+			tb.getThreadStackSamples(ids, -1, allFrames);
+			Assert.fail("Should have thrown an exception!");
+		} catch (IllegalArgumentException e) {
+		}
+		// Method identifiers that are not methods of loaded classes
+		long[] badMethodIDs = { 0, 1, -1, Long.MAX_VALUE, frames[0] + 1 };
+		for (long badMethodID : badMethodIDs) {
+			try {
+				tb.getStackTraceElement(badMethodID, 0);
+				Assert.fail("Should have thrown an exception for method identifier " + badMethodID);
+			} catch (IllegalArgumentException e) {
+			}
+		}
+	}
+
 	/*
 	 * Class under test for ThreadInfo getThreadInfo(long)
 	 */
@@ -1318,10 +1416,10 @@ public class TestThreadMXBean {
 		AssertJUnit.assertNotNull(constructors);
 		AssertJUnit.assertEquals(0, constructors.length);
 
-		// 14 operations
+		// 19 operations
 		MBeanOperationInfo[] operations = mbi.getOperations();
 		AssertJUnit.assertNotNull(operations);
-		AssertJUnit.assertEquals(14, operations.length);
+		AssertJUnit.assertEquals(19, operations.length);
 
 		// No notifications
 		MBeanNotificationInfo[] notifications = mbi.getNotifications();
@@ -0,0 +1,166 @@
+/*******************************************************************************
+ * Copyright (c) 2018, 2018 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *******************************************************************************/
+package org.openj9.test.management;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Method;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.testng.log4testng.Logger;
+
+import com.ibm.lang.management.ReflectionCacheMXBean;
+
+/**
+ * Tests the ReflectionCacheMXBean. Expects to be run with
+ * -Dreflect.cache=boot,stats -Dreflect.cache.maxEntries=64 -Dreflect.cache.maxEntriesPerClass=8
+ */
+@Test(groups = { "level.extended" })
+public class ReflectionCacheMXBeanTest {
+
+	private static final Logger logger = Logger.getLogger(ReflectionCacheMXBeanTest.class);
+
+	private static final int MAX_ENTRIES = 64;
+	private static final int MAX_ENTRIES_PER_CLASS = 8;
+
+	public static class Target {
+		public void m0() {}
+		public void m1() {}
+		public void m2() {}
+		public void m3() {}
+		public void m4() {}
+		public void m5() {}
+		public void m6() {}
+		public void m7() {}
+		public void m8() {}
+		public void m9() {}
+		public void m10() {}
+		public void m11() {}
+		public void m12() {}
+		public void m13() {}
+		public void m14() {}
+		public void m15() {}
+	}
+
+	static final class TargetLoader extends ClassLoader {
+		TargetLoader(ClassLoader parent) {
+			super(parent);
+		}
+
+		Class<?> define(String name, byte[] bytes) {
+			return defineClass(name, bytes, 0, bytes.length);
+		}
+	}
+
+	@Test
+	public void testConfiguration() {
+		ReflectionCacheMXBean bean = ManagementFactory.getPlatformMXBean(ReflectionCacheMXBean.class);
+		Assert.assertNotNull(bean, "ReflectionCacheMXBean is not registered");
+		Assert.assertEquals(bean.getObjectName().getCanonicalName(), "com.ibm.lang.management:type=ReflectionCache");
+		Assert.assertEquals(bean.getMaxEntries(), MAX_ENTRIES);
+		Assert.assertEquals(bean.getMaxEntriesPerClass(), MAX_ENTRIES_PER_CLASS);
+		Assert.assertTrue(bean.isBootstrapCachingEnabled());
+		Assert.assertTrue(bean.isStatisticsEnabled());
+	}
+
+	@Test
+	public void testHitsMissesAndEvictions() throws Exception {
+		ReflectionCacheMXBean bean = ManagementFactory.getPlatformMXBean(ReflectionCacheMXBean.class);
+		long hits = bean.getHitCount();
+		long misses = bean.getMissCount();
+		long evictions = bean.getEvictionCount();
+
+		Method first = Target.class.getMethod("m0");
+		Method second = Target.class.getMethod("m0");
+		Assert.assertEquals(first, second);
+		Assert.assertTrue(bean.getMissCount() > misses, "lookup miss not counted");
+		Assert.assertTrue(bean.getHitCount() > hits, "lookup hit not counted");
+
+		for (int i = 0; i < 16; i++) {
+			Assert.assertNotNull(Target.class.getMethod("m" + i));
+		}
+		Assert.assertTrue(bean.getEvictionCount() > evictions, "no entries evicted from a class over budget");
+		Assert.assertTrue(bean.getEntryCount() <= MAX_ENTRIES, "global budget exceeded: " + bean.getEntryCount());
+		logger.debug("entries: " + bean.getEntryCount() + " hits: " + bean.getHitCount()
+				+ " misses: " + bean.getMissCount() + " evictions: " + bean.getEvictionCount());
+	}
+
+	@Test
+	public void testMethodHandleCacheHitsAndMisses() throws Exception {
+		ReflectionCacheMXBean bean = ManagementFactory.getPlatformMXBean(ReflectionCacheMXBean.class);
+		long hits = bean.getMethodHandleCacheHitCount();
+		long misses = bean.getMethodHandleCacheMissCount();
+
+		MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+		MethodHandle first = lookup.findVirtual(Target.class, "m1", MethodType.methodType(void.class));
+		MethodHandle second = lookup.findVirtual(Target.class, "m1", MethodType.methodType(void.class));
+		Assert.assertNotNull(first);
+		Assert.assertNotNull(second);
+		Assert.assertTrue(bean.getMethodHandleCacheMissCount() > misses, "MethodHandle cache miss not counted");
+		Assert.assertTrue(bean.getMethodHandleCacheHitCount() > hits, "MethodHandle cache hit not counted");
+		logger.debug("MethodHandle cache hits: " + bean.getMethodHandleCacheHitCount()
+				+ " misses: " + bean.getMethodHandleCacheMissCount());
+	}
+
+	@Test
+	public void testEntriesDoNotKeepLoadersAlive() throws Exception {
+		WeakReference<ClassLoader> loaderRef = cacheMethodsInNewLoader();
+		for (int i = 0; (i < 10) && (null != loaderRef.get()); i++) {
+			System.gc();
+			System.runFinalization();
+		}
+		Assert.assertNull(loaderRef.get(), "reflection cache entries keep their class loader alive");
+	}
+
+	/* Fill the cache of a copy of Target defined by a new loader, and answer a weak reference to the loader */
+	private static WeakReference<ClassLoader> cacheMethodsInNewLoader() throws Exception {
+		TargetLoader loader = new TargetLoader(ReflectionCacheMXBeanTest.class.getClassLoader());
+		Class<?> target = loader.define(Target.class.getName(), readClassBytes(Target.class));
+		for (int i = 0; i < 16; i++) {
+			Assert.assertNotNull(target.getMethod("m" + i));
+			Assert.assertNotNull(target.getMethod("m" + i));
+		}
+		return new WeakReference<ClassLoader>(loader);
+	}
+
+	private static byte[] readClassBytes(Class<?> clazz) throws Exception {
+		InputStream in = clazz.getClassLoader().getResourceAsStream(clazz.getName().replace('.', '/') + ".class");
+		Assert.assertNotNull(in, "cannot read " + clazz.getName());
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[4096];
+			int count;
+			while ((count = in.read(buffer)) > 0) {
+				out.write(buffer, 0, count);
+			}
+			return out.toByteArray();
+		} finally {
+			in.close();
+		}
+	}
+}
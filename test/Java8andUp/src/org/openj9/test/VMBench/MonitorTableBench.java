@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2018, 2018 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *******************************************************************************/
+package org.openj9.test.VMBench;
+
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+
+/**
+ * Measures how entering monitors that live in the VM monitor table scales with the number of
+ * threads. Arrays have no lock word, so each enter that misses the small per-thread lookup
+ * cache looks the monitor up in the table. The first pass over a fresh set of locks inflates
+ * a monitor for each of them; later passes only look them up.
+ *
+ * This is a timing run rather than a regression test, and is run standalone with optional
+ * arguments for the number of monitors (default 65536) and the number of passes (default 10).
+ */
+public class MonitorTableBench {
+
+	private static final int[] THREAD_COUNTS = { 1, 2, 4, 8, 16 };
+
+	public static void main(String[] args) throws InterruptedException {
+		final int monitorCount = (args.length > 0) ? Integer.parseInt(args[0]) : 65536;
+		final int passes = (args.length > 1) ? Integer.parseInt(args[1]) : 10;
+		for (int threadCount : THREAD_COUNTS) {
+			final int[][] locks = new int[monitorCount][];
+			for (int i = 0; i < monitorCount; ++i) {
+				locks[i] = new int[1];
+			}
+
+			/* the barrier action time stamps the start, the end of the inflating pass and the end */
+			final long[] times = new long[3];
+			final int[] phase = new int[1];
+			final CyclicBarrier barrier = new CyclicBarrier(threadCount, new Runnable() {
+				public void run() {
+					times[phase[0]++] = System.nanoTime();
+				}
+			});
+
+			Thread[] threads = new Thread[threadCount];
+			for (int t = 0; t < threadCount; ++t) {
+				/* start each thread at a different lock so that they do not move in step */
+				final int start = (int) ((long) monitorCount * t / threadCount);
+				threads[t] = new Thread() {
+					public void run() {
+						try {
+							barrier.await();
+							enterAll(locks, start);
+							barrier.await();
+							for (int pass = 1; pass < passes; ++pass) {
+								enterAll(locks, start);
+							}
+							barrier.await();
+						} catch (InterruptedException | BrokenBarrierException e) {
+							throw new RuntimeException(e);
+						}
+					}
+				};
+				threads[t].start();
+			}
+			for (Thread thread : threads) {
+				thread.join();
+			}
+
+			for (int[] lock : locks) {
+				if (lock[0] != threadCount * passes) {
+					throw new IllegalStateException("lost update: " + lock[0] + " enters counted, expected " + (threadCount * passes));
+				}
+			}
+
+			long inflateEnters = (long) monitorCount * threadCount;
+			long lookupEnters = inflateEnters * (passes - 1);
+			System.out.println(String.format("%2d threads: first pass %,12d enters/s, later passes %,12d enters/s",
+					threadCount,
+					inflateEnters * 1000000000L / Math.max(1, times[1] - times[0]),
+					lookupEnters * 1000000000L / Math.max(1, times[2] - times[1])));
+		}
+	}
+
+	static void enterAll(int[][] locks, int start) {
+		for (int i = start; i < locks.length; ++i) {
+			synchronized (locks[i]) {
+				locks[i][0] += 1;
+			}
+		}
+		for (int i = 0; i < start; ++i) {
+			synchronized (locks[i]) {
+				locks[i][0] += 1;
+			}
+		}
+	}
+
+}
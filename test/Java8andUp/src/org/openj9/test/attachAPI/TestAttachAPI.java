@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2001, 2017 IBM Corp. and others
+ * Copyright (c) 2001, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -23,6 +23,7 @@ package org.openj9.test.attachAPI;
 
 import static org.testng.AssertJUnit.assertTrue;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.lang.reflect.Method;
@@ -573,6 +574,54 @@ public class TestAttachAPI extends AttachApiTest {
 		target.terminateTarget();
 	}
 
+	/**
+	 * A target started with com.ibm.tools.attach.vm_notifier=yes waits on a semaphore of its own,
+	 * while a target started without it waits on the shared semaphore. Both can be attached.
+	 */
+	@Test
+	public void test_vmnotify02() {
+		logger.debug("starting " + testName);
+		final int NUM_ATTACHES = 3;
+		String sharedName = testName + "_shared";
+		ArrayList<String> vmArgs = new ArrayList<String>();
+		vmArgs.add("-Dcom.ibm.tools.attach.vm_notifier=yes");
+		TargetManager target = new TargetManager(TestConstants.TARGET_VM_CLASS, testName, vmArgs, null);
+		target.syncWithTarget();
+		checkTargetPid(target);
+		TargetManager sharedTarget = launchTarget(sharedName);
+		assertTrue(vmIdExists(testName));
+		assertTrue(vmIdExists(sharedName));
+		try {
+			String notifier = readNotifier(testName);
+			assertTrue(testName + " does not have its own notifier: " + notifier,
+					(null != notifier) && notifier.matches("notifier(_\\d+)?"));
+			assertTrue("notifier control file missing for " + testName, new File(new File(commonDir, testName), notifier).exists());
+			AssertJUnit.assertEquals(sharedName + " does not use the shared notifier", "_notifier", readNotifier(sharedName));
+			for (int i = 0; i < NUM_ATTACHES; ++i) {
+				for (String vmId : new String[] { testName, sharedName }) {
+					VirtualMachine vm = VirtualMachine.attach(vmId);
+					AssertJUnit.assertEquals("com.ibm.tools.attach.id", vmId,
+							vm.getSystemProperties().getProperty("com.ibm.tools.attach.id"));
+					vm.detach();
+				}
+			}
+		} catch (AttachNotSupportedException | IOException e) {
+			listIpcDir();
+			logExceptionInfoAndFail(e);
+		} finally {
+			target.terminateTarget();
+			sharedTarget.terminateTarget();
+		}
+	}
+
+	private String readNotifier(String vmId) throws IOException {
+		Properties advert = new Properties();
+		try (FileInputStream advertStream = new FileInputStream(new File(new File(commonDir, vmId), "attachInfo"))) {
+			advert.load(advertStream);
+		}
+		return advert.getProperty("notifier");
+	}
+
 	@Test
 	public void test_vmname02() {
 		
@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2018, 2018 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *******************************************************************************/
+package org.openj9.test.com.ibm.dataaccess;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import com.ibm.dataaccess.DecimalData;
+
+/**
+ * Measures the strided batch conversions of DecimalData against a loop of single value
+ * conversions over the same records, after checking that both produce the same results.
+ * This is a timing run rather than a regression test, and is run standalone with an optional
+ * argument for the number of passes over the records (default 500).
+ */
+public class BenchDecimalDataBatch {
+	private static final int PRECISION = 9;
+
+	private static final int PACKED_LENGTH = PRECISION / 2 + 1;
+
+	/* each field sits in a record with other data, as in a COBOL copybook */
+	private static final int STRIDE = 24;
+
+	private static final int RECORDS = 4096;
+
+	public static void main(String[] args) {
+		final int iterations = (args.length > 0) ? Integer.parseInt(args[0]) : 500;
+		Random random = new Random(31);
+
+		int[] values = new int[RECORDS];
+		for (int i = 0; i < RECORDS; i++) {
+			values[i] = random.nextInt(2 * 999999999) - 999999999;
+		}
+
+		byte[] records = new byte[RECORDS * STRIDE];
+		ByteBuffer direct = ByteBuffer.allocateDirect(records.length);
+		int[] batch = new int[RECORDS];
+		int[] single = new int[RECORDS];
+
+		/* check the batch conversions against the single value ones */
+		DecimalData.convertIntegerToPackedDecimal(values, 0, records, 0, STRIDE, PRECISION, RECORDS, true);
+		DecimalData.convertIntegerToPackedDecimal(values, 0, direct, 0, STRIDE, PRECISION, RECORDS, true);
+		for (int i = 0; i < RECORDS; i++) {
+			byte[] packed = new byte[PACKED_LENGTH];
+			DecimalData.convertIntegerToPackedDecimal(values[i], packed, 0, PRECISION, true);
+			for (int j = 0; j < PACKED_LENGTH; j++) {
+				if (records[i * STRIDE + j] != packed[j]) {
+					throw new IllegalStateException("batch conversion differs at record " + i);
+				}
+				if (direct.get(i * STRIDE + j) != packed[j]) {
+					throw new IllegalStateException("direct batch conversion differs at record " + i);
+				}
+			}
+		}
+		DecimalData.convertPackedDecimalToInteger(records, 0, STRIDE, PRECISION, batch, 0, RECORDS, true);
+		if (!Arrays.equals(batch, values)) {
+			throw new IllegalStateException("batch conversion to int differs");
+		}
+		DecimalData.convertPackedDecimalToInteger(direct, 0, STRIDE, PRECISION, batch, 0, RECORDS, true);
+		if (!Arrays.equals(batch, values)) {
+			throw new IllegalStateException("direct batch conversion to int differs");
+		}
+
+		/* warm up, then time */
+		long[] elapsed = new long[5];
+		for (int pass = 0; pass < 2; pass++) {
+			int count = pass == 0 ? iterations / 10 : iterations;
+			long begin = System.nanoTime();
+			for (int n = 0; n < count; n++) {
+				for (int i = 0; i < RECORDS; i++) {
+					single[i] = DecimalData.convertPackedDecimalToInteger(records, i * STRIDE, PRECISION, true);
+				}
+			}
+			long split = System.nanoTime();
+			elapsed[0] = split - begin;
+			for (int n = 0; n < count; n++) {
+				DecimalData.convertPackedDecimalToInteger(records, 0, STRIDE, PRECISION, batch, 0, RECORDS, true);
+			}
+			begin = split;
+			split = System.nanoTime();
+			elapsed[1] = split - begin;
+			for (int n = 0; n < count; n++) {
+				DecimalData.convertPackedDecimalToInteger(direct, 0, STRIDE, PRECISION, batch, 0, RECORDS, true);
+			}
+			begin = split;
+			split = System.nanoTime();
+			elapsed[2] = split - begin;
+			for (int n = 0; n < count; n++) {
+				for (int i = 0; i < RECORDS; i++) {
+					DecimalData.convertIntegerToPackedDecimal(values[i], records, i * STRIDE, PRECISION, true);
+				}
+			}
+			begin = split;
+			split = System.nanoTime();
+			elapsed[3] = split - begin;
+			for (int n = 0; n < count; n++) {
+				DecimalData.convertIntegerToPackedDecimal(values, 0, records, 0, STRIDE, PRECISION, RECORDS, true);
+			}
+			elapsed[4] = System.nanoTime() - split;
+		}
+		if (!Arrays.equals(single, batch)) {
+			throw new IllegalStateException("single and batch conversions to int differ");
+		}
+
+		long conversions = (long)iterations * RECORDS;
+		System.out.println("packed to int single: " + elapsed[0] / conversions + " ns/op"
+				+ " batch: " + elapsed[1] / conversions + " ns/op"
+				+ " direct batch: " + elapsed[2] / conversions + " ns/op");
+		System.out.println("int to packed single: " + elapsed[3] / conversions + " ns/op"
+				+ " batch: " + elapsed[4] / conversions + " ns/op");
+	}
+}
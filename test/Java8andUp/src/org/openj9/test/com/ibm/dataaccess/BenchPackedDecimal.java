@@ -0,0 +1,191 @@
+/*******************************************************************************
+ * Copyright (c) 2018, 2018 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *******************************************************************************/
+package org.openj9.test.com.ibm.dataaccess;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import com.ibm.dataaccess.DecimalData;
+import com.ibm.dataaccess.PackedDecimal;
+
+/**
+ * Measures PackedDecimal add, subtract, multiply, divide, compare and shift throughput at the
+ * precisions common in COBOL records, after checking each operation against BigDecimal.
+ * This is a timing run rather than a regression test, and is run standalone with an optional
+ * argument for the number of iterations of each operation (default 2000000).
+ */
+public class BenchPackedDecimal {
+	/* sums of the largest precision still fit in the 31 digits of the fast paths */
+	private static final int[] PRECISIONS = { 5, 9, 15, 18, 25, 30 };
+
+	/* large enough for the product of the largest precision */
+	private static final int RESULT_LENGTH = 32;
+
+	/* number of distinct operand pairs cycled through, so the JIT cannot fold the operands */
+	private static final int OPERANDS = 64;
+
+	interface Operation {
+		/* returns a value derived from the result so the call cannot be eliminated */
+		int run(byte[] result, byte[] op1, byte[] op2, byte[] divisor, int precision);
+	}
+
+	static final String[] NAMES = { "add", "subtract", "multiply", "divide", "compare", "shiftRight", "shiftLeft" };
+
+	static final Operation[] OPERATIONS = {
+		new Operation() {
+			public int run(byte[] result, byte[] op1, byte[] op2, byte[] divisor, int precision) {
+				PackedDecimal.addPackedDecimal(result, 0, precision + 1, op1, 0, precision, op2, 0, precision, false);
+				return result[0];
+			}
+		},
+		new Operation() {
+			public int run(byte[] result, byte[] op1, byte[] op2, byte[] divisor, int precision) {
+				PackedDecimal.subtractPackedDecimal(result, 0, precision + 1, op1, 0, precision, op2, 0, precision, false);
+				return result[0];
+			}
+		},
+		new Operation() {
+			public int run(byte[] result, byte[] op1, byte[] op2, byte[] divisor, int precision) {
+				PackedDecimal.multiplyPackedDecimal(result, 0, precision + divisorPrecision(precision), op1, 0, precision, divisor, 0, divisorPrecision(precision), false);
+				return result[0];
+			}
+		},
+		new Operation() {
+			public int run(byte[] result, byte[] op1, byte[] op2, byte[] divisor, int precision) {
+				PackedDecimal.dividePackedDecimal(result, 0, precision, op1, 0, precision, divisor, 0, divisorPrecision(precision), false);
+				return result[0];
+			}
+		},
+		new Operation() {
+			public int run(byte[] result, byte[] op1, byte[] op2, byte[] divisor, int precision) {
+				return PackedDecimal.greaterThanPackedDecimal(op1, 0, precision, op2, 0, precision) ? 1 : 0;
+			}
+		},
+		new Operation() {
+			public int run(byte[] result, byte[] op1, byte[] op2, byte[] divisor, int precision) {
+				PackedDecimal.shiftRightPackedDecimal(result, 0, precision, op1, 0, precision, 3, true, false);
+				return result[0];
+			}
+		},
+		new Operation() {
+			public int run(byte[] result, byte[] op1, byte[] op2, byte[] divisor, int precision) {
+				PackedDecimal.shiftLeftPackedDecimal(result, 0, precision + 3, op1, 0, precision, 3, false);
+				return result[0];
+			}
+		}
+	};
+
+	public static void main(String[] args) {
+		final int iterations = (args.length > 0) ? Integer.parseInt(args[0]) : 2000000;
+		Random random = new Random(31);
+
+		for (int precision : PRECISIONS) {
+			byte[][] op1 = new byte[OPERANDS][];
+			byte[][] op2 = new byte[OPERANDS][];
+			byte[][] divisor = new byte[OPERANDS][];
+			for (int i = 0; i < OPERANDS; i++) {
+				op1[i] = randomPackedDecimal(random, precision);
+				op2[i] = randomPackedDecimal(random, precision);
+				divisor[i] = randomPackedDecimal(random, divisorPrecision(precision));
+				verify(op1[i], op2[i], divisor[i], precision);
+			}
+
+			byte[] result = new byte[RESULT_LENGTH];
+			StringBuilder line = new StringBuilder("precision: " + precision);
+			for (int op = 0; op < OPERATIONS.length; op++) {
+				Operation operation = OPERATIONS[op];
+				/* warm up, then time */
+				run(operation, iterations / 10, result, op1, op2, divisor, precision);
+				long begin = System.nanoTime();
+				int sink = run(operation, iterations, result, op1, op2, divisor, precision);
+				long elapsed = System.nanoTime() - begin;
+				line.append(' ').append(NAMES[op]).append(": ").append(elapsed / iterations).append(" ns/op");
+				if (sink == Integer.MIN_VALUE) {
+					line.append('!');
+				}
+			}
+			System.out.println(line.toString());
+		}
+	}
+
+	/**
+	 * Multiply and divide use a second operand of half the precision, so that the product fits
+	 * in the result.
+	 */
+	static int divisorPrecision(int precision) {
+		return (precision + 1) / 2;
+	}
+
+	static int run(Operation operation, int iterations, byte[] result, byte[][] op1, byte[][] op2, byte[][] divisor, int precision) {
+		int sink = 0;
+		for (int i = 0; i < iterations; i++) {
+			int index = i & (OPERANDS - 1);
+			sink += operation.run(result, op1[index], op2[index], divisor[index], precision);
+		}
+		return sink;
+	}
+
+	/**
+	 * Returns a signed Packed Decimal using every digit of the given precision, so it is never zero.
+	 */
+	static byte[] randomPackedDecimal(Random random, int precision) {
+		StringBuilder value = new StringBuilder();
+		if (random.nextBoolean()) {
+			value.append('-');
+		}
+		value.append(1 + random.nextInt(9));
+		for (int i = 1; i < precision; i++) {
+			value.append(random.nextInt(10));
+		}
+		byte[] packed = new byte[precision / 2 + 1];
+		DecimalData.convertBigDecimalToPackedDecimal(new BigDecimal(value.toString()), packed, 0, precision, true);
+		return packed;
+	}
+
+	static BigDecimal toBigDecimal(byte[] packed, int precision) {
+		return DecimalData.convertPackedDecimalToBigDecimal(packed, 0, precision, 0, true);
+	}
+
+	static void verify(byte[] op1, byte[] op2, byte[] divisor, int precision) {
+		BigDecimal a = toBigDecimal(op1, precision);
+		BigDecimal b = toBigDecimal(op2, precision);
+		BigDecimal c = toBigDecimal(divisor, divisorPrecision(precision));
+		BigDecimal[] expected = {
+			a.add(b),
+			a.subtract(b),
+			a.multiply(c),
+			new BigDecimal(a.toBigInteger().divide(c.toBigInteger()))
+		};
+		int[] resultPrecisions = { precision + 1, precision + 1, precision + divisorPrecision(precision), precision };
+		byte[] result = new byte[RESULT_LENGTH];
+		for (int op = 0; op < expected.length; op++) {
+			OPERATIONS[op].run(result, op1, op2, divisor, precision);
+			BigDecimal actual = toBigDecimal(result, resultPrecisions[op]);
+			if (!actual.equals(expected[op])) {
+				throw new IllegalStateException(NAMES[op] + " " + a + ", " + (op < 2 ? b : c) + " returned " + actual + ", expected " + expected[op]);
+			}
+		}
+		if (PackedDecimal.greaterThanPackedDecimal(op1, 0, precision, op2, 0, precision) != (a.compareTo(b) > 0)) {
+			throw new IllegalStateException("compare " + a + ", " + b);
+		}
+	}
+}
@@ -0,0 +1,582 @@
+package org.openj9.test.com.ibm.dataaccess;
+
+/*******************************************************************************
+ * Copyright (c) 2018, 2018 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *******************************************************************************/
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.ibm.dataaccess.DecimalData;
+
+/**
+ * Tests the strided batch conversions of DecimalData against the single value conversions, for
+ * Packed and External Decimals to and from ints, longs and BigDecimals. Strides larger than a
+ * field leave bytes between the fields, which must not be changed, and ByteBuffers which are
+ * direct or read-only are converted through 8 KB chunks, so the batches cross chunk boundaries.
+ */
+@Test(groups = { "level.extended" })
+public class Test_DecimalDataBatch {
+	private static final int INT = 0;
+	private static final int LONG = 1;
+	private static final int BIG_DECIMAL = 2;
+
+	/* decimalType used here for Packed Decimals */
+	private static final int PACKED = 0;
+
+	private static final int[] EXTERNAL_TYPES = {
+		DecimalData.EBCDIC_SIGN_EMBEDDED_TRAILING,
+		DecimalData.EBCDIC_SIGN_EMBEDDED_LEADING,
+		DecimalData.EBCDIC_SIGN_SEPARATE_TRAILING,
+		DecimalData.EBCDIC_SIGN_SEPARATE_LEADING
+	};
+
+	private static final int SCALE = 2;
+
+	/* offset of the first field in the records and of the first value in the arrays */
+	private static final int OFFSET = 3;
+	private static final int ARRAY_OFFSET = 2;
+
+	/* bytes after the last field, and the buffer chunk size of DecimalData */
+	private static final int TAIL = 5;
+	private static final int CHUNK_BYTES = 8192;
+
+	private static final int[] COUNTS = { 0, 1, 7, 2000 };
+
+	/* One of the value kinds in one of the decimal formats, with its single value and batch conversions */
+	static final class Codec {
+		final int kind;
+		final int decimalType;
+		final int precision;
+		final int fieldLength;
+
+		Codec(int kind, int decimalType) {
+			this.kind = kind;
+			this.decimalType = decimalType;
+			this.precision = (kind == INT) ? 9 : (kind == LONG) ? 18 : 25;
+			if (decimalType == PACKED) {
+				this.fieldLength = precision / 2 + 1;
+			} else if ((decimalType == DecimalData.EBCDIC_SIGN_SEPARATE_TRAILING) || (decimalType == DecimalData.EBCDIC_SIGN_SEPARATE_LEADING)) {
+				this.fieldLength = precision + 1;
+			} else {
+				this.fieldLength = precision;
+			}
+		}
+
+		public String toString() {
+			String[] kinds = { "int", "long", "BigDecimal" };
+			return kinds[kind] + ((decimalType == PACKED) ? " packed" : " external type " + decimalType) + " precision " + precision;
+		}
+
+		Object newArray(int length) {
+			switch (kind) {
+			case INT:
+				return new int[length];
+			case LONG:
+				return new long[length];
+			default:
+				return new BigDecimal[length];
+			}
+		}
+
+		Object randomValue(Random random) {
+			BigInteger limit = BigInteger.TEN.pow(precision);
+			BigInteger magnitude = new BigInteger(limit.bitLength() + 8, random).mod(limit);
+			BigInteger value = random.nextBoolean() ? magnitude.negate() : magnitude;
+			switch (kind) {
+			case INT:
+				return Integer.valueOf(value.intValue());
+			case LONG:
+				return Long.valueOf(value.longValue());
+			default:
+				return new BigDecimal(value, SCALE);
+			}
+		}
+
+		Object readOne(byte[] bytes, int offset) {
+			if (decimalType == PACKED) {
+				switch (kind) {
+				case INT:
+					return Integer.valueOf(DecimalData.convertPackedDecimalToInteger(bytes, offset, precision, true));
+				case LONG:
+					return Long.valueOf(DecimalData.convertPackedDecimalToLong(bytes, offset, precision, true));
+				default:
+					return DecimalData.convertPackedDecimalToBigDecimal(bytes, offset, precision, SCALE, true);
+				}
+			}
+			switch (kind) {
+			case INT:
+				return Integer.valueOf(DecimalData.convertExternalDecimalToInteger(bytes, offset, precision, true, decimalType));
+			case LONG:
+				return Long.valueOf(DecimalData.convertExternalDecimalToLong(bytes, offset, precision, true, decimalType));
+			default:
+				return DecimalData.convertExternalDecimalToBigDecimal(bytes, offset, precision, SCALE, true, decimalType);
+			}
+		}
+
+		void writeOne(Object value, byte[] bytes, int offset) {
+			if (decimalType == PACKED) {
+				switch (kind) {
+				case INT:
+					DecimalData.convertIntegerToPackedDecimal(((Integer)value).intValue(), bytes, offset, precision, true);
+					break;
+				case LONG:
+					DecimalData.convertLongToPackedDecimal(((Long)value).longValue(), bytes, offset, precision, true);
+					break;
+				default:
+					DecimalData.convertBigDecimalToPackedDecimal((BigDecimal)value, bytes, offset, precision, true);
+					break;
+				}
+				return;
+			}
+			switch (kind) {
+			case INT:
+				DecimalData.convertIntegerToExternalDecimal(((Integer)value).intValue(), bytes, offset, precision, true, decimalType);
+				break;
+			case LONG:
+				DecimalData.convertLongToExternalDecimal(((Long)value).longValue(), bytes, offset, precision, true, decimalType);
+				break;
+			default:
+				DecimalData.convertBigDecimalToExternalDecimal((BigDecimal)value, bytes, offset, precision, true, decimalType);
+				break;
+			}
+		}
+
+		void readBatch(byte[] bytes, int offset, int stride, Object array, int arrayOffset, int count) {
+			if (decimalType == PACKED) {
+				switch (kind) {
+				case INT:
+					DecimalData.convertPackedDecimalToInteger(bytes, offset, stride, precision, (int[])array, arrayOffset, count, true);
+					break;
+				case LONG:
+					DecimalData.convertPackedDecimalToLong(bytes, offset, stride, precision, (long[])array, arrayOffset, count, true);
+					break;
+				default:
+					DecimalData.convertPackedDecimalToBigDecimal(bytes, offset, stride, precision, SCALE, (BigDecimal[])array, arrayOffset, count, true);
+					break;
+				}
+				return;
+			}
+			switch (kind) {
+			case INT:
+				DecimalData.convertExternalDecimalToInteger(bytes, offset, stride, precision, (int[])array, arrayOffset, count, true, decimalType);
+				break;
+			case LONG:
+				DecimalData.convertExternalDecimalToLong(bytes, offset, stride, precision, (long[])array, arrayOffset, count, true, decimalType);
+				break;
+			default:
+				DecimalData.convertExternalDecimalToBigDecimal(bytes, offset, stride, precision, SCALE, (BigDecimal[])array, arrayOffset, count, true, decimalType);
+				break;
+			}
+		}
+
+		void readBatch(ByteBuffer buffer, int index, int stride, Object array, int arrayOffset, int count) {
+			if (decimalType == PACKED) {
+				switch (kind) {
+				case INT:
+					DecimalData.convertPackedDecimalToInteger(buffer, index, stride, precision, (int[])array, arrayOffset, count, true);
+					break;
+				case LONG:
+					DecimalData.convertPackedDecimalToLong(buffer, index, stride, precision, (long[])array, arrayOffset, count, true);
+					break;
+				default:
+					DecimalData.convertPackedDecimalToBigDecimal(buffer, index, stride, precision, SCALE, (BigDecimal[])array, arrayOffset, count, true);
+					break;
+				}
+				return;
+			}
+			switch (kind) {
+			case INT:
+				DecimalData.convertExternalDecimalToInteger(buffer, index, stride, precision, (int[])array, arrayOffset, count, true, decimalType);
+				break;
+			case LONG:
+				DecimalData.convertExternalDecimalToLong(buffer, index, stride, precision, (long[])array, arrayOffset, count, true, decimalType);
+				break;
+			default:
+				DecimalData.convertExternalDecimalToBigDecimal(buffer, index, stride, precision, SCALE, (BigDecimal[])array, arrayOffset, count, true, decimalType);
+				break;
+			}
+		}
+
+		void writeBatch(Object array, int arrayOffset, byte[] bytes, int offset, int stride, int count) {
+			if (decimalType == PACKED) {
+				switch (kind) {
+				case INT:
+					DecimalData.convertIntegerToPackedDecimal((int[])array, arrayOffset, bytes, offset, stride, precision, count, true);
+					break;
+				case LONG:
+					DecimalData.convertLongToPackedDecimal((long[])array, arrayOffset, bytes, offset, stride, precision, count, true);
+					break;
+				default:
+					DecimalData.convertBigDecimalToPackedDecimal((BigDecimal[])array, arrayOffset, bytes, offset, stride, precision, count, true);
+					break;
+				}
+				return;
+			}
+			switch (kind) {
+			case INT:
+				DecimalData.convertIntegerToExternalDecimal((int[])array, arrayOffset, bytes, offset, stride, precision, count, true, decimalType);
+				break;
+			case LONG:
+				DecimalData.convertLongToExternalDecimal((long[])array, arrayOffset, bytes, offset, stride, precision, count, true, decimalType);
+				break;
+			default:
+				DecimalData.convertBigDecimalToExternalDecimal((BigDecimal[])array, arrayOffset, bytes, offset, stride, precision, count, true, decimalType);
+				break;
+			}
+		}
+
+		void writeBatch(Object array, int arrayOffset, ByteBuffer buffer, int index, int stride, int count) {
+			if (decimalType == PACKED) {
+				switch (kind) {
+				case INT:
+					DecimalData.convertIntegerToPackedDecimal((int[])array, arrayOffset, buffer, index, stride, precision, count, true);
+					break;
+				case LONG:
+					DecimalData.convertLongToPackedDecimal((long[])array, arrayOffset, buffer, index, stride, precision, count, true);
+					break;
+				default:
+					DecimalData.convertBigDecimalToPackedDecimal((BigDecimal[])array, arrayOffset, buffer, index, stride, precision, count, true);
+					break;
+				}
+				return;
+			}
+			switch (kind) {
+			case INT:
+				DecimalData.convertIntegerToExternalDecimal((int[])array, arrayOffset, buffer, index, stride, precision, count, true, decimalType);
+				break;
+			case LONG:
+				DecimalData.convertLongToExternalDecimal((long[])array, arrayOffset, buffer, index, stride, precision, count, true, decimalType);
+				break;
+			default:
+				DecimalData.convertBigDecimalToExternalDecimal((BigDecimal[])array, arrayOffset, buffer, index, stride, precision, count, true, decimalType);
+				break;
+			}
+		}
+	}
+
+	interface Batch {
+		void run();
+	}
+
+	static List<Codec> codecs() {
+		List<Codec> codecs = new ArrayList<Codec>();
+		for (int kind = INT; kind <= BIG_DECIMAL; kind++) {
+			codecs.add(new Codec(kind, PACKED));
+			for (int decimalType : EXTERNAL_TYPES) {
+				codecs.add(new Codec(kind, decimalType));
+			}
+		}
+		return codecs;
+	}
+
+	/* a field with no gap, a small gap, a stride that does not divide the chunk size and a stride larger than a chunk */
+	static int[] strides(Codec codec) {
+		return new int[] { codec.fieldLength, codec.fieldLength + 3, 677, CHUNK_BYTES + 1 };
+	}
+
+	/* records of count fields stride bytes apart, starting at OFFSET, filled with a pattern */
+	static byte[] newRecords(int stride, int count) {
+		byte[] records = new byte[OFFSET + count * stride + TAIL];
+		for (int i = 0; i < records.length; i++) {
+			records[i] = (byte)(0xA5 ^ (i * 31));
+		}
+		return records;
+	}
+
+	/* heap buffers with and without an array offset, a direct buffer and read-only views of both kinds */
+	static ByteBuffer[] buffers(byte[] records) {
+		ByteBuffer heap = ByteBuffer.wrap(records.clone());
+		ByteBuffer sliced = ByteBuffer.allocate(records.length + 7);
+		sliced.position(7);
+		sliced = sliced.slice();
+		sliced.put(records).clear();
+		ByteBuffer direct = ByteBuffer.allocateDirect(records.length);
+		direct.put(records).clear();
+		ByteBuffer readOnly = ByteBuffer.wrap(records.clone()).asReadOnlyBuffer();
+		ByteBuffer directReadOnly = ByteBuffer.allocateDirect(records.length);
+		directReadOnly.put(records).clear();
+		return new ByteBuffer[] { heap, sliced, direct, readOnly, directReadOnly.asReadOnlyBuffer() };
+	}
+
+	static String describe(ByteBuffer buffer) {
+		return (buffer.isDirect() ? "direct" : "heap") + (buffer.isReadOnly() ? " read-only" : "")
+				+ (buffer.hasArray() && (buffer.arrayOffset() != 0) ? " sliced" : "") + " buffer";
+	}
+
+	static byte[] contents(ByteBuffer buffer) {
+		byte[] bytes = new byte[buffer.capacity()];
+		ByteBuffer view = buffer.duplicate();
+		view.clear();
+		view.get(bytes);
+		return bytes;
+	}
+
+	/* values for count fields, stored from ARRAY_OFFSET in an array with one spare element at the end */
+	static Object randomValues(Codec codec, int count, Random random) {
+		Object values = codec.newArray(ARRAY_OFFSET + count + 1);
+		for (int i = 0; i < count; i++) {
+			Array.set(values, ARRAY_OFFSET + i, codec.randomValue(random));
+		}
+		return values;
+	}
+
+	/* clears the field first, as a BigDecimal with fewer digits than the precision does not set the leading bytes */
+	static void writeField(Codec codec, Object value, byte[] records, int offset) {
+		Arrays.fill(records, offset, offset + codec.fieldLength, (byte)0);
+		codec.writeOne(value, records, offset);
+	}
+
+	static void assertArrayEquals(Object actual, Object expected, String message) {
+		Assert.assertEquals(Array.getLength(actual), Array.getLength(expected), message);
+		for (int i = 0; i < Array.getLength(expected); i++) {
+			Assert.assertEquals(Array.get(actual, i), Array.get(expected, i), message + ": element " + i);
+		}
+	}
+
+	static void assertBytesEqual(byte[] actual, byte[] expected, String message) {
+		if (!Arrays.equals(actual, expected)) {
+			for (int i = 0; i < expected.length; i++) {
+				Assert.assertEquals(actual[i], expected[i], message + ": byte " + i);
+			}
+			Assert.fail(message + ": lengths differ");
+		}
+	}
+
+	static void expect(Class<? extends RuntimeException> expected, String message, Batch batch) {
+		try {
+			batch.run();
+			Assert.fail(message + ": no " + expected.getSimpleName() + " thrown");
+		} catch (RuntimeException e) {
+			if (!expected.isInstance(e)) {
+				Assert.fail(message + ": expected " + expected.getSimpleName() + ", got " + e, e);
+			}
+		}
+	}
+
+	@Test
+	public void testDecimalToBinary() {
+		Random random = new Random(1);
+		for (Codec codec : codecs()) {
+			for (int stride : strides(codec)) {
+				for (int count : COUNTS) {
+					if ((stride > CHUNK_BYTES) && (count > 7)) {
+						continue;
+					}
+					String message = codec + " stride " + stride + " count " + count;
+					byte[] records = newRecords(stride, count);
+					Object values = randomValues(codec, count, random);
+					Object expected = codec.newArray(ARRAY_OFFSET + count + 1);
+					for (int i = 0; i < count; i++) {
+						writeField(codec, Array.get(values, ARRAY_OFFSET + i), records, OFFSET + i * stride);
+						Array.set(expected, ARRAY_OFFSET + i, codec.readOne(records, OFFSET + i * stride));
+					}
+					byte[] original = records.clone();
+
+					Object actual = codec.newArray(ARRAY_OFFSET + count + 1);
+					codec.readBatch(records, OFFSET, stride, actual, ARRAY_OFFSET, count);
+					assertArrayEquals(actual, expected, message + " byte array");
+					assertBytesEqual(records, original, message + " byte array changed");
+
+					for (ByteBuffer buffer : buffers(records)) {
+						buffer.position(1).limit(buffer.capacity() - 1);
+						actual = codec.newArray(ARRAY_OFFSET + count + 1);
+						codec.readBatch(buffer, OFFSET, stride, actual, ARRAY_OFFSET, count);
+						assertArrayEquals(actual, expected, message + " " + describe(buffer));
+						assertBytesEqual(contents(buffer), original, message + " " + describe(buffer) + " changed");
+						Assert.assertEquals(buffer.position(), 1, message + " " + describe(buffer) + " position");
+						Assert.assertEquals(buffer.limit(), buffer.capacity() - 1, message + " " + describe(buffer) + " limit");
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testBinaryToDecimal() {
+		Random random = new Random(2);
+		for (Codec codec : codecs()) {
+			for (int stride : strides(codec)) {
+				for (int count : COUNTS) {
+					if ((stride > CHUNK_BYTES) && (count > 7)) {
+						continue;
+					}
+					final String message = codec + " stride " + stride + " count " + count;
+					final Object values = randomValues(codec, count, random);
+					byte[] filler = newRecords(stride, count);
+					byte[] expected = filler.clone();
+					for (int i = 0; i < count; i++) {
+						codec.writeOne(Array.get(values, ARRAY_OFFSET + i), expected, OFFSET + i * stride);
+					}
+
+					byte[] actual = filler.clone();
+					codec.writeBatch(values, ARRAY_OFFSET, actual, OFFSET, stride, count);
+					assertBytesEqual(actual, expected, message + " byte array");
+
+					for (final ByteBuffer buffer : buffers(filler)) {
+						buffer.position(1).limit(buffer.capacity() - 1);
+						if (buffer.isReadOnly()) {
+							if (count > 0) {
+								final Codec c = codec;
+								final int s = stride;
+								final int n = count;
+								expect(ReadOnlyBufferException.class, message + " " + describe(buffer),
+										() -> c.writeBatch(values, ARRAY_OFFSET, buffer, OFFSET, s, n));
+							}
+							assertBytesEqual(contents(buffer), filler, message + " " + describe(buffer) + " changed");
+						} else {
+							codec.writeBatch(values, ARRAY_OFFSET, buffer, OFFSET, stride, count);
+							assertBytesEqual(contents(buffer), expected, message + " " + describe(buffer));
+						}
+						Assert.assertEquals(buffer.position(), 1, message + " " + describe(buffer) + " position");
+						Assert.assertEquals(buffer.limit(), buffer.capacity() - 1, message + " " + describe(buffer) + " limit");
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testBoundsCheckedBeforeConverting() {
+		Random random = new Random(3);
+		final int count = 50;
+		for (final Codec codec : codecs()) {
+			final int stride = codec.fieldLength + 1;
+			final String message = codec.toString();
+			final Object values = randomValues(codec, count, random);
+			final byte[] records = newRecords(stride, count);
+			for (int i = 0; i < count; i++) {
+				writeField(codec, Array.get(values, ARRAY_OFFSET + i), records, OFFSET + i * stride);
+			}
+			final byte[] original = records.clone();
+			/* the last field ends one byte past the end of the records */
+			final int lastOffset = records.length - ((count - 1) * stride + codec.fieldLength) + 1;
+			final Object results = codec.newArray(ARRAY_OFFSET + count + 1);
+			final Object shortArray = codec.newArray(ARRAY_OFFSET + count - 1);
+
+			expect(IllegalArgumentException.class, message + " negative count",
+					() -> codec.readBatch(records, OFFSET, stride, results, ARRAY_OFFSET, -1));
+			expect(IllegalArgumentException.class, message + " negative count",
+					() -> codec.writeBatch(values, ARRAY_OFFSET, records, OFFSET, stride, -1));
+			expect(IllegalArgumentException.class, message + " stride smaller than a field",
+					() -> codec.readBatch(records, OFFSET, codec.fieldLength - 1, results, ARRAY_OFFSET, count));
+			expect(IllegalArgumentException.class, message + " stride smaller than a field",
+					() -> codec.writeBatch(values, ARRAY_OFFSET, records, OFFSET, codec.fieldLength - 1, count));
+			expect(ArrayIndexOutOfBoundsException.class, message + " negative offset",
+					() -> codec.readBatch(records, -1, stride, results, ARRAY_OFFSET, count));
+			expect(ArrayIndexOutOfBoundsException.class, message + " negative offset",
+					() -> codec.writeBatch(values, ARRAY_OFFSET, records, -1, stride, count));
+			expect(ArrayIndexOutOfBoundsException.class, message + " last field past the end",
+					() -> codec.readBatch(records, lastOffset, stride, results, ARRAY_OFFSET, count));
+			expect(ArrayIndexOutOfBoundsException.class, message + " last field past the end",
+					() -> codec.writeBatch(values, ARRAY_OFFSET, records, lastOffset, stride, count));
+			expect(ArrayIndexOutOfBoundsException.class, message + " negative array offset",
+					() -> codec.readBatch(records, OFFSET, stride, results, -1, count));
+			expect(ArrayIndexOutOfBoundsException.class, message + " negative array offset",
+					() -> codec.writeBatch(values, -1, records, OFFSET, stride, count));
+			expect(ArrayIndexOutOfBoundsException.class, message + " array too short",
+					() -> codec.readBatch(records, OFFSET, stride, shortArray, ARRAY_OFFSET, count));
+			expect(ArrayIndexOutOfBoundsException.class, message + " array too short",
+					() -> codec.writeBatch(shortArray, ARRAY_OFFSET, records, OFFSET, stride, count));
+
+			/* nothing is converted when the batch does not fit */
+			assertArrayEquals(results, codec.newArray(ARRAY_OFFSET + count + 1), message + " results written");
+			assertBytesEqual(records, original, message + " records written");
+
+			for (final ByteBuffer buffer : buffers(records)) {
+				final String bufferMessage = message + " " + describe(buffer);
+				/* the bounds of a buffer are its limit, not its capacity */
+				buffer.limit(buffer.capacity() - TAIL - 2);
+				expect(ArrayIndexOutOfBoundsException.class, bufferMessage + " last field past the limit",
+						() -> codec.readBatch(buffer, OFFSET, stride, results, ARRAY_OFFSET, count));
+				expect(ArrayIndexOutOfBoundsException.class, bufferMessage + " last field past the limit",
+						() -> codec.writeBatch(values, ARRAY_OFFSET, buffer, OFFSET, stride, count));
+				expect(ArrayIndexOutOfBoundsException.class, bufferMessage + " negative index",
+						() -> codec.readBatch(buffer, -1, stride, results, ARRAY_OFFSET, count));
+				expect(ArrayIndexOutOfBoundsException.class, bufferMessage + " array too short",
+						() -> codec.writeBatch(shortArray, ARRAY_OFFSET, buffer, OFFSET, stride, count));
+				expect(IllegalArgumentException.class, bufferMessage + " stride smaller than a field",
+						() -> codec.writeBatch(values, ARRAY_OFFSET, buffer, OFFSET, codec.fieldLength - 1, count));
+				assertArrayEquals(results, codec.newArray(ARRAY_OFFSET + count + 1), bufferMessage + " results written");
+				assertBytesEqual(contents(buffer), original, bufferMessage + " records written");
+			}
+		}
+	}
+
+	@Test
+	public void testInvalidExternalDecimal() {
+		final byte[] records = newRecords(20, 10);
+		final ByteBuffer buffer = ByteBuffer.wrap(records);
+		final int[] ints = new int[10];
+		final long[] longs = new long[10];
+		final BigDecimal[] bigDecimals = new BigDecimal[10];
+		Arrays.fill(bigDecimals, BigDecimal.ONE);
+		final byte[] original = records.clone();
+		int[][] invalid = {
+			{ 0, DecimalData.EBCDIC_SIGN_EMBEDDED_TRAILING },
+			{ -1, DecimalData.EBCDIC_SIGN_SEPARATE_LEADING },
+			{ 5, 0 },
+			{ 5, DecimalData.EBCDIC_SIGN_SEPARATE_LEADING + 1 }
+		};
+		for (int[] pair : invalid) {
+			final int precision = pair[0];
+			final int type = pair[1];
+			String message = "precision " + precision + " decimalType " + type;
+			expect(IllegalArgumentException.class, message,
+					() -> DecimalData.convertExternalDecimalToInteger(records, 0, 20, precision, ints, 0, 10, true, type));
+			expect(IllegalArgumentException.class, message,
+					() -> DecimalData.convertExternalDecimalToInteger(buffer, 0, 20, precision, ints, 0, 10, true, type));
+			expect(IllegalArgumentException.class, message,
+					() -> DecimalData.convertExternalDecimalToLong(records, 0, 20, precision, longs, 0, 10, true, type));
+			expect(IllegalArgumentException.class, message,
+					() -> DecimalData.convertExternalDecimalToLong(buffer, 0, 20, precision, longs, 0, 10, true, type));
+			expect(IllegalArgumentException.class, message,
+					() -> DecimalData.convertExternalDecimalToBigDecimal(records, 0, 20, precision, SCALE, bigDecimals, 0, 10, true, type));
+			expect(IllegalArgumentException.class, message,
+					() -> DecimalData.convertExternalDecimalToBigDecimal(buffer, 0, 20, precision, SCALE, bigDecimals, 0, 10, true, type));
+			expect(IllegalArgumentException.class, message,
+					() -> DecimalData.convertIntegerToExternalDecimal(ints, 0, records, 0, 20, precision, 10, true, type));
+			expect(IllegalArgumentException.class, message,
+					() -> DecimalData.convertIntegerToExternalDecimal(ints, 0, buffer, 0, 20, precision, 10, true, type));
+			expect(IllegalArgumentException.class, message,
+					() -> DecimalData.convertLongToExternalDecimal(longs, 0, records, 0, 20, precision, 10, true, type));
+			expect(IllegalArgumentException.class, message,
+					() -> DecimalData.convertLongToExternalDecimal(longs, 0, buffer, 0, 20, precision, 10, true, type));
+			expect(IllegalArgumentException.class, message,
+					() -> DecimalData.convertBigDecimalToExternalDecimal(bigDecimals, 0, records, 0, 20, precision, 10, true, type));
+			expect(IllegalArgumentException.class, message,
+					() -> DecimalData.convertBigDecimalToExternalDecimal(bigDecimals, 0, buffer, 0, 20, precision, 10, true, type));
+		}
+		assertBytesEqual(records, original, "records written");
+		assertArrayEquals(ints, new int[10], "ints written");
+		assertArrayEquals(longs, new long[10], "longs written");
+	}
+}
@@ -0,0 +1,316 @@
+package org.openj9.test.com.ibm.dataaccess;
+
+/*******************************************************************************
+ * Copyright (c) 2018, 2018 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *******************************************************************************/
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.ibm.dataaccess.PackedDecimal;
+
+/**
+ * Tests PackedDecimal arithmetic, comparison and rounding against BigInteger. Precisions up to 31
+ * digits use the long word paths for add and subtract, up to 18 digits the long paths for multiply
+ * and divide, and larger precisions the byte-wise and base 10^8 limb paths. The operands and
+ * results are encoded and decoded here, independently of DecimalData.
+ */
+@Test(groups = { "level.extended" })
+public class Test_PackedDecimal {
+	/* odd and even precisions on both sides of the 18 digit long and 31 digit long word limits */
+	private static final int[] PRECISIONS = { 1, 2, 5, 8, 9, 15, 16, 17, 18, 19, 24, 30, 31, 32, 33, 40, 63 };
+
+	/* the positive sign codes, then the negative ones */
+	private static final int[] POSITIVE_SIGNS = { 0x0C, 0x0A, 0x0E, 0x0F };
+	private static final int[] NEGATIVE_SIGNS = { 0x0D, 0x0B };
+
+	private static final int CASES = 200;
+
+	interface Operation {
+		void run(byte[] result, int resultPrecision, byte[] op1, int precision1, byte[] op2, int precision2, boolean checkOverflow);
+	}
+
+	interface Expected {
+		BigInteger apply(BigInteger op1, BigInteger op2);
+	}
+
+	static final Operation ADD = (result, resultPrecision, op1, precision1, op2, precision2, checkOverflow) ->
+		PackedDecimal.addPackedDecimal(result, 1, resultPrecision, op1, 1, precision1, op2, 1, precision2, checkOverflow);
+
+	static final Operation SUBTRACT = (result, resultPrecision, op1, precision1, op2, precision2, checkOverflow) ->
+		PackedDecimal.subtractPackedDecimal(result, 1, resultPrecision, op1, 1, precision1, op2, 1, precision2, checkOverflow);
+
+	static final Operation MULTIPLY = (result, resultPrecision, op1, precision1, op2, precision2, checkOverflow) ->
+		PackedDecimal.multiplyPackedDecimal(result, 1, resultPrecision, op1, 1, precision1, op2, 1, precision2, checkOverflow);
+
+	static final Operation DIVIDE = (result, resultPrecision, op1, precision1, op2, precision2, checkOverflow) ->
+		PackedDecimal.dividePackedDecimal(result, 1, resultPrecision, op1, 1, precision1, op2, 1, precision2, checkOverflow);
+
+	static final Operation REMAINDER = (result, resultPrecision, op1, precision1, op2, precision2, checkOverflow) ->
+		PackedDecimal.remainderPackedDecimal(result, 1, resultPrecision, op1, 1, precision1, op2, 1, precision2, checkOverflow);
+
+	@Test
+	public void testAdd() {
+		checkExact("add", ADD, BigInteger::add, false);
+	}
+
+	@Test
+	public void testSubtract() {
+		checkExact("subtract", SUBTRACT, BigInteger::subtract, false);
+	}
+
+	@Test
+	public void testMultiply() {
+		checkExact("multiply", MULTIPLY, BigInteger::multiply, false);
+	}
+
+	@Test
+	public void testDivide() {
+		checkExact("divide", DIVIDE, BigInteger::divide, true);
+	}
+
+	@Test
+	public void testRemainder() {
+		checkExact("remainder", REMAINDER, BigInteger::remainder, true);
+	}
+
+	@Test
+	public void testAddOverflow() {
+		checkOverflow("add", ADD, BigInteger::add, Integer.MAX_VALUE);
+	}
+
+	@Test
+	public void testSubtractOverflow() {
+		checkOverflow("subtract", SUBTRACT, BigInteger::subtract, Integer.MAX_VALUE);
+	}
+
+	/* Only results computed in a long report overflow, larger ones are truncated even when it is checked */
+	@Test
+	public void testMultiplyOverflow() {
+		checkOverflow("multiply", MULTIPLY, BigInteger::multiply, 18);
+	}
+
+	@Test
+	public void testDivideByZero() {
+		Random random = new Random(11);
+		for (int precision : PRECISIONS) {
+			byte[] op1 = encode(randomValue(random, precision), precision, random);
+			byte[] zero = encode(BigInteger.ZERO, precision, random);
+			for (Operation operation : new Operation[] { DIVIDE, REMAINDER }) {
+				try {
+					operation.run(new byte[precision / 2 + 2], precision, op1, precision, zero, precision, true);
+					Assert.fail("division by zero at precision " + precision + " did not throw ArithmeticException");
+				} catch (ArithmeticException e) {
+					/* expected */
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testShiftRightRounding() {
+		Random random = new Random(13);
+		for (int precision : PRECISIONS) {
+			for (int i = 0; i < CASES; i++) {
+				BigInteger value = randomValue(random, precision);
+				int shift = 1 + random.nextInt(precision);
+				boolean round = random.nextBoolean();
+				byte[] source = encode(value, precision, random);
+				byte[] result = new byte[precision / 2 + 2];
+				PackedDecimal.shiftRightPackedDecimal(result, 1, precision, source, 1, precision, shift, round, true);
+
+				BigInteger magnitude = value.abs();
+				if (round) {
+					magnitude = magnitude.add(BigInteger.valueOf(5).multiply(BigInteger.TEN.pow(shift - 1)));
+				}
+				BigInteger expected = magnitude.divide(BigInteger.TEN.pow(shift));
+				if (value.signum() < 0) {
+					expected = expected.negate();
+				}
+				Assert.assertEquals(decode(result, precision), expected,
+						"shift right " + value + " by " + shift + (round ? " rounded" : "") + " at precision " + precision);
+			}
+		}
+	}
+
+	@Test
+	public void testCompare() {
+		Random random = new Random(17);
+		for (int precision1 : PRECISIONS) {
+			for (int precision2 : PRECISIONS) {
+				for (int i = 0; i < CASES / 10; i++) {
+					BigInteger a = randomValue(random, precision1);
+					/* equal magnitudes are the interesting case for the word compare */
+					BigInteger b = (random.nextInt(4) == 0) ? truncate(a, precision2) : randomValue(random, precision2);
+					/* the comparisons treat different sign codes of the same sign as different values */
+					byte[] op1 = encode(a, precision1, null);
+					byte[] op2 = encode(b, precision2, null);
+					int expected = a.compareTo(b);
+					String message = a + " and " + b + " at precisions " + precision1 + ", " + precision2;
+					Assert.assertEquals(PackedDecimal.lessThanPackedDecimal(op1, 1, precision1, op2, 1, precision2), expected < 0, "less than " + message);
+					Assert.assertEquals(PackedDecimal.greaterThanPackedDecimal(op1, 1, precision1, op2, 1, precision2), expected > 0, "greater than " + message);
+					Assert.assertEquals(PackedDecimal.equalsPackedDecimal(op1, 1, precision1, op2, 1, precision2), expected == 0, "equals " + message);
+				}
+			}
+		}
+	}
+
+	/* Results with room for every digit: the value must be exact, and the bytes around the result untouched */
+	private static void checkExact(String name, Operation operation, Expected expected, boolean division) {
+		Random random = new Random(name.hashCode());
+		for (int precision1 : PRECISIONS) {
+			for (int precision2 : PRECISIONS) {
+				int resultPrecision = division ? precision1 : Math.max(precision1, precision2) + 1;
+				if (operation == MULTIPLY) {
+					resultPrecision = precision1 + precision2;
+				}
+				for (int i = 0; i < CASES / 10; i++) {
+					BigInteger a = randomValue(random, precision1);
+					BigInteger b = randomValue(random, precision2);
+					if (division && (b.signum() == 0)) {
+						b = BigInteger.ONE;
+					}
+					byte[] op1 = encode(a, precision1, random);
+					byte[] op2 = encode(b, precision2, random);
+					byte[] result = new byte[resultPrecision / 2 + 3];
+					result[0] = (byte)0xAA;
+					result[result.length - 1] = (byte)0x55;
+					boolean checkOverflow = random.nextBoolean();
+					String message = name + " " + a + ", " + b + " at precisions " + precision1 + ", " + precision2
+							+ " into " + resultPrecision + (checkOverflow ? " checked" : "");
+					operation.run(result, resultPrecision, op1, precision1, op2, precision2, checkOverflow);
+					Assert.assertEquals(decode(result, resultPrecision), expected.apply(a, b), message);
+					Assert.assertEquals(result[0], (byte)0xAA, "byte before the result changed: " + message);
+					Assert.assertEquals(result[result.length - 1], (byte)0x55, "byte after the result changed: " + message);
+				}
+			}
+		}
+	}
+
+	/*
+	 * Results too small for the value: unchecked results, and checked results beyond checkedPrecision, hold the
+	 * low order digits. Checked results of at most checkedPrecision digits must throw, when the precision is odd:
+	 * add and subtract only detect overflow out of the bytes of the result, and keep a digit in the pad nibble of
+	 * an even precision.
+	 */
+	private static void checkOverflow(String name, Operation operation, Expected expected, int checkedPrecision) {
+		Random random = new Random(name.hashCode() + 1);
+		for (int precision : PRECISIONS) {
+			for (int i = 0; i < CASES; i++) {
+				BigInteger a = fullValue(random, precision);
+				BigInteger b = fullValue(random, precision);
+				BigInteger exact = expected.apply(a, b);
+				int resultPrecision = 1 + random.nextInt(precision);
+				if (exact.abs().compareTo(BigInteger.TEN.pow(resultPrecision)) < 0) {
+					continue;
+				}
+				byte[] op1 = encode(a, precision, random);
+				byte[] op2 = encode(b, precision, random);
+				String message = name + " " + a + ", " + b + " at precision " + precision + " into " + resultPrecision;
+
+				byte[] result = new byte[resultPrecision / 2 + 2];
+				operation.run(result, resultPrecision, op1, precision, op2, precision, false);
+				Assert.assertEquals(decode(result, resultPrecision).abs(), truncate(exact, resultPrecision).abs(), "unchecked " + message);
+
+				boolean fitsLong = ((operation == MULTIPLY) ? 2 * precision : precision) <= checkedPrecision;
+				if (fitsLong && (resultPrecision <= checkedPrecision) && ((resultPrecision % 2) == 1)) {
+					try {
+						operation.run(new byte[resultPrecision / 2 + 2], resultPrecision, op1, precision, op2, precision, true);
+						Assert.fail("checked " + message + " did not throw ArithmeticException");
+					} catch (ArithmeticException e) {
+						/* expected */
+					}
+				} else if (!fitsLong && (operation == MULTIPLY)) {
+					result = new byte[resultPrecision / 2 + 2];
+					operation.run(result, resultPrecision, op1, precision, op2, precision, true);
+					Assert.assertEquals(decode(result, resultPrecision), truncate(exact, resultPrecision), "checked " + message);
+				}
+			}
+		}
+	}
+
+	/* A value of up to precision digits, sometimes zero or all nines */
+	static BigInteger randomValue(Random random, int precision) {
+		switch (random.nextInt(10)) {
+		case 0:
+			return BigInteger.ZERO;
+		case 1:
+			return BigInteger.TEN.pow(precision).subtract(BigInteger.ONE).negate();
+		case 2:
+			return BigInteger.TEN.pow(precision).subtract(BigInteger.ONE);
+		default:
+			BigInteger value = new BigInteger(precision * 4, random).mod(BigInteger.TEN.pow(1 + random.nextInt(precision)));
+			return random.nextBoolean() ? value : value.negate();
+		}
+	}
+
+	/* A value using every digit of the precision */
+	static BigInteger fullValue(Random random, int precision) {
+		BigInteger low = BigInteger.TEN.pow(precision - 1);
+		BigInteger value = low.add(new BigInteger(precision * 4, random).mod(low.multiply(BigInteger.valueOf(9))));
+		return random.nextBoolean() ? value : value.negate();
+	}
+
+	/* The low order precision digits of value, keeping its sign */
+	static BigInteger truncate(BigInteger value, int precision) {
+		BigInteger digits = value.abs().mod(BigInteger.TEN.pow(precision));
+		return (value.signum() < 0) ? digits.negate() : digits;
+	}
+
+	/*
+	 * Encodes value at offset 1 of an array with a guard byte at each end, using any sign code of its sign,
+	 * or the preferred sign code if random is null.
+	 */
+	static byte[] encode(BigInteger value, int precision, Random random) {
+		int length = precision / 2 + 1;
+		byte[] packed = new byte[length + 2];
+		String digits = value.abs().toString();
+		int[] signs = (value.signum() < 0) ? NEGATIVE_SIGNS : POSITIVE_SIGNS;
+		int nibble = (null == random) ? signs[0] : signs[random.nextInt(signs.length)];
+		int end = length;
+		packed[end] = (byte)nibble;
+		for (int i = digits.length() - 1, position = 1; i >= 0; i--, position++) {
+			int digit = digits.charAt(i) - '0';
+			int index = end - (position / 2);
+			packed[index] |= (byte)(((position & 1) == 1) ? (digit << 4) : digit);
+		}
+		return packed;
+	}
+
+	/* Decodes the precision digits at offset 1, ignoring the pad nibble of an even precision */
+	static BigInteger decode(byte[] packed, int precision) {
+		int end = precision / 2 + 1;
+		StringBuilder digits = new StringBuilder();
+		for (int position = precision; position >= 1; position--) {
+			int b = packed[end - (position / 2)] & 0xFF;
+			int digit = ((position & 1) == 1) ? (b >> 4) : (b & 0x0F);
+			Assert.assertTrue(digit <= 9, "invalid digit " + digit + " in result");
+			digits.append((char)('0' + digit));
+		}
+		int sign = packed[end] & 0x0F;
+		Assert.assertTrue(sign >= 0x0A, "invalid sign code " + Integer.toHexString(sign) + " in result");
+		BigInteger value = new BigInteger(digits.toString());
+		return ((sign == 0x0B) || (sign == 0x0D)) ? value.negate() : value;
+	}
+}
@@ -0,0 +1,222 @@
+/*******************************************************************************
+ * Copyright (c) 2018, 2018 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *******************************************************************************/
+package org.openj9.test.contendedClassLoading;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Measures how the time to load a set of classes through one parallel capable ClassLoader
+ * scales with the number of threads loading them, as an application server does at startup.
+ * Each round uses a new loader, so every class is defined again and the class name locks
+ * and packages of the loader are created under contention.
+ * This is a timing run rather than a regression test, and is run standalone with optional
+ * arguments for the largest number of threads (default 32), the number of classes
+ * (default 2000) and the number of rounds (default 5).
+ */
+public class BenchParallelClassLoading {
+	static final String TEST_PACKAGE_PREFIX = "org/openj9/test/";
+
+	/* Defines the classes in its set itself and delegates every other class to its parent */
+	static final class ChildFirstLoader extends ClassLoader {
+		static {
+			registerAsParallelCapable();
+		}
+
+		private final Set<String> childFirstNames;
+
+		ChildFirstLoader(ClassLoader parent, Set<String> childFirstNames) {
+			super(parent);
+			this.childFirstNames = childFirstNames;
+		}
+
+		@Override
+		protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+			if (!childFirstNames.contains(name)) {
+				return super.loadClass(name, resolve);
+			}
+			synchronized (getClassLoadingLock(name)) {
+				Class<?> loaded = findLoadedClass(name);
+				if (loaded == null) {
+					loaded = findClass(name);
+				}
+				return loaded;
+			}
+		}
+
+		@Override
+		protected Class<?> findClass(String name) throws ClassNotFoundException {
+			byte[] bytes = readClassBytes(getParent(), name);
+			if (bytes == null) {
+				throw new ClassNotFoundException(name);
+			}
+			int lastDot = name.lastIndexOf('.');
+			if (lastDot > 0) {
+				String packageName = name.substring(0, lastDot);
+				if (getPackage(packageName) == null) {
+					try {
+						definePackage(packageName, null, null, null, null, null, null, null);
+					} catch (IllegalArgumentException e) {
+						/* another thread defined the package first */
+					}
+				}
+			}
+			return defineClass(name, bytes, 0, bytes.length);
+		}
+	}
+
+	public static void main(String[] args) throws Throwable {
+		int maxThreads = (args.length > 0) ? Integer.parseInt(args[0]) : 32;
+		int classCount = (args.length > 1) ? Integer.parseInt(args[1]) : 2000;
+		int rounds = (args.length > 2) ? Integer.parseInt(args[2]) : 5;
+		List<String> names = testClassNames(classCount);
+		if (names.isEmpty()) {
+			throw new IllegalStateException("no test classes found");
+		}
+		Set<String> nameSet = new HashSet<String>(names);
+
+		for (int threads = 1; threads <= maxThreads; threads *= 2) {
+			long best = Long.MAX_VALUE;
+			long total = 0;
+			int loaded = 0;
+			for (int round = 0; round < rounds; round++) {
+				ChildFirstLoader loader = new ChildFirstLoader(BenchParallelClassLoading.class.getClassLoader(), nameSet);
+				AtomicInteger loadedCount = new AtomicInteger();
+				long elapsed = runThreads(threads, loader, names, loadedCount);
+				best = Math.min(best, elapsed);
+				total += elapsed;
+				loaded = loadedCount.get();
+			}
+			System.out.println("threads: " + threads + " classes: " + loaded + " of " + names.size()
+					+ " best: " + (best / 1000000) + " ms average: " + (total / rounds / 1000000) + " ms");
+		}
+	}
+
+	/* Each thread loads every class, starting at a different point in the list, so threads contend on names */
+	static long runThreads(int threadCount, final ClassLoader loader, final List<String> names, final AtomicInteger loadedCount) throws Throwable {
+		final CountDownLatch start = new CountDownLatch(1);
+		Thread[] threads = new Thread[threadCount];
+		for (int i = 0; i < threadCount; i++) {
+			final int offset = (names.size() * i) / threadCount;
+			final boolean counting = (i == 0);
+			threads[i] = new Thread() {
+				public void run() {
+					try {
+						start.await();
+					} catch (InterruptedException e) {
+						return;
+					}
+					for (int j = 0; j < names.size(); j++) {
+						try {
+							Class.forName(names.get((offset + j) % names.size()), false, loader);
+							if (counting) {
+								loadedCount.incrementAndGet();
+							}
+						} catch (Throwable t) {
+							/* not every test class can be defined by another loader */
+						}
+					}
+				}
+			};
+			threads[i].start();
+		}
+		long begin = System.nanoTime();
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		return System.nanoTime() - begin;
+	}
+
+	static byte[] readClassBytes(ClassLoader loader, String name) {
+		InputStream in = loader.getResourceAsStream(name.replace('.', '/') + ".class");
+		if (in == null) {
+			return null;
+		}
+		try {
+			try {
+				ByteArrayOutputStream out = new ByteArrayOutputStream();
+				byte[] buffer = new byte[4096];
+				int count;
+				while ((count = in.read(buffer)) > 0) {
+					out.write(buffer, 0, count);
+				}
+				return out.toByteArray();
+			} finally {
+				in.close();
+			}
+		} catch (Exception e) {
+			return null;
+		}
+	}
+
+	/* Names of up to count classes of the test jar or directory this class was loaded from */
+	static List<String> testClassNames(int count) throws Exception {
+		List<String> names = new ArrayList<String>();
+		File location = new File(BenchParallelClassLoading.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+		if (location.isFile()) {
+			ZipFile zip = new ZipFile(location);
+			try {
+				for (Enumeration<? extends ZipEntry> entries = zip.entries(); entries.hasMoreElements() && (names.size() < count);) {
+					addClassName(names, entries.nextElement().getName());
+				}
+			} finally {
+				zip.close();
+			}
+		} else {
+			addClassNames(names, location, location.getPath().length() + 1, count);
+		}
+		return names;
+	}
+
+	static void addClassNames(List<String> names, File directory, int prefixLength, int count) {
+		File[] files = directory.listFiles();
+		if (files == null) {
+			return;
+		}
+		for (int i = 0; (i < files.length) && (names.size() < count); i++) {
+			if (files[i].isDirectory()) {
+				addClassNames(names, files[i], prefixLength, count);
+			} else {
+				addClassName(names, files[i].getPath().substring(prefixLength).replace(File.separatorChar, '/'));
+			}
+		}
+	}
+
+	static void addClassName(List<String> names, String entry) {
+		if (entry.startsWith(TEST_PACKAGE_PREFIX) && entry.endsWith(".class")
+				&& !entry.contains("BenchParallelClassLoading")
+		) {
+			names.add(entry.substring(0, entry.length() - ".class".length()).replace('/', '.'));
+		}
+	}
+}
@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright (c) 2018, 2018 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *******************************************************************************/
+package org.openj9.test.contendedClassLoading;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures defineClass throughput as the number of threads defining classes through one
+ * parallel capable ClassLoader grows. The class bytes are read before timing starts and every
+ * thread defines a different subset of the classes, so the time is spent creating ROM and RAM
+ * classes rather than finding class files or waiting on class name locks.
+ * <p>
+ * This is a timing run rather than a regression test, and is run standalone with optional
+ * maximum thread, class and round counts. ConcurrentDefineClassTests tests that concurrent
+ * definitions of the same class fail with LinkageError.
+ */
+public class BenchParallelDefineClass {
+
+	static final class DefiningLoader extends ClassLoader {
+		static {
+			registerAsParallelCapable();
+		}
+
+		DefiningLoader(ClassLoader parent) {
+			super(parent);
+		}
+
+		Class<?> define(String name, byte[] bytes) {
+			return defineClass(name, bytes, 0, bytes.length);
+		}
+	}
+
+	public static void main(String[] args) throws Throwable {
+		int maxThreads = (args.length > 0) ? Integer.parseInt(args[0]) : 16;
+		int classCount = (args.length > 1) ? Integer.parseInt(args[1]) : 2000;
+		int rounds = (args.length > 2) ? Integer.parseInt(args[2]) : 5;
+		ClassLoader parent = BenchParallelDefineClass.class.getClassLoader();
+
+		List<String> names = new ArrayList<String>();
+		List<byte[]> bytes = new ArrayList<byte[]>();
+		for (String name : BenchParallelClassLoading.testClassNames(classCount)) {
+			byte[] classBytes = BenchParallelClassLoading.readClassBytes(parent, name);
+			if (classBytes != null) {
+				names.add(name);
+				bytes.add(classBytes);
+			}
+		}
+		if (names.isEmpty()) {
+			System.out.println("no test classes found");
+			return;
+		}
+
+		for (int threads = 1; threads <= maxThreads; threads *= 2) {
+			long best = Long.MAX_VALUE;
+			long total = 0;
+			int defined = 0;
+			for (int round = 0; round < rounds; round++) {
+				AtomicInteger definedCount = new AtomicInteger();
+				long elapsed = runThreads(threads, new DefiningLoader(parent), names, bytes, definedCount);
+				best = Math.min(best, elapsed);
+				total += elapsed;
+				defined = definedCount.get();
+			}
+			System.out.println("threads: " + threads + " classes: " + defined + " of " + names.size()
+					+ " best: " + classesPerSecond(defined, best) + " classes/s"
+					+ " average: " + classesPerSecond(defined, total / rounds) + " classes/s");
+		}
+	}
+
+	/* Thread i defines the classes at indexes i, i + threadCount, i + 2 * threadCount, ... */
+	static long runThreads(final int threadCount, final DefiningLoader loader, final List<String> names, final List<byte[]> bytes, final AtomicInteger definedCount) throws Throwable {
+		final CountDownLatch start = new CountDownLatch(1);
+		Thread[] threads = new Thread[threadCount];
+		for (int i = 0; i < threadCount; i++) {
+			final int first = i;
+			threads[i] = new Thread() {
+				public void run() {
+					try {
+						start.await();
+					} catch (InterruptedException e) {
+						return;
+					}
+					int count = 0;
+					for (int j = first; j < names.size(); j += threadCount) {
+						try {
+							loader.define(names.get(j), bytes.get(j));
+							count += 1;
+						} catch (Throwable t) {
+							/* not every test class can be defined by another loader */
+						}
+					}
+					definedCount.addAndGet(count);
+				}
+			};
+			threads[i].start();
+		}
+		long begin = System.nanoTime();
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		return System.nanoTime() - begin;
+	}
+
+	static long classesPerSecond(int classes, long nanos) {
+		return (long)(classes / (nanos / 1000000000.0));
+	}
+}
@@ -0,0 +1,237 @@
+package org.openj9.test.contendedClassLoading;
+
+/*******************************************************************************
+ * Copyright (c) 2018, 2018 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *******************************************************************************/
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the class loading locks and the packages of a ClassLoader, which are kept in
+ * concurrent maps and read without locking: each name has exactly one lock while it is
+ * in use, a package can only be defined once however many threads race to define it,
+ * and getPackages() sees every package defined, even while others are being defined.
+ */
+@Test(groups = { "level.extended" })
+public class ClassLoaderLockTests {
+	private static final int THREAD_COUNT = 16;
+
+	static final class ParallelLoader extends ClassLoader {
+		static {
+			registerAsParallelCapable();
+		}
+
+		ParallelLoader() {
+			super(ClassLoaderLockTests.class.getClassLoader());
+		}
+
+		Object lock(String name) {
+			return getClassLoadingLock(name);
+		}
+
+		Package define(String name) {
+			return definePackage(name, null, null, null, null, null, null, null);
+		}
+
+		Package get(String name) {
+			return getPackage(name);
+		}
+
+		Package[] all() {
+			return getPackages();
+		}
+	}
+
+	static final class SerialLoader extends ClassLoader {
+		SerialLoader() {
+			super(ClassLoaderLockTests.class.getClassLoader());
+		}
+
+		Object lock(String name) {
+			return getClassLoadingLock(name);
+		}
+	}
+
+	/* Runs task on THREAD_COUNT threads released together, returning what each thread returned or threw */
+	interface Task {
+		Object run(int thread) throws Throwable;
+	}
+
+	static AtomicReferenceArray<Object> race(final Task task) throws InterruptedException {
+		final CountDownLatch start = new CountDownLatch(1);
+		final AtomicReferenceArray<Object> results = new AtomicReferenceArray<Object>(THREAD_COUNT);
+		Thread[] threads = new Thread[THREAD_COUNT];
+		for (int i = 0; i < THREAD_COUNT; i++) {
+			final int index = i;
+			threads[i] = new Thread() {
+				public void run() {
+					try {
+						start.await();
+						results.set(index, task.run(index));
+					} catch (Throwable t) {
+						results.set(index, t);
+					}
+				}
+			};
+			threads[i].start();
+		}
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		return results;
+	}
+
+	@Test
+	public void testClassLoadingLockPerName() {
+		ParallelLoader loader = new ParallelLoader();
+		Object lockA = loader.lock("test.A");
+		Assert.assertNotNull(lockA);
+		Assert.assertNotSame(lockA, loader, "parallel capable loader returned itself as the lock");
+		Assert.assertSame(loader.lock("test.A"), lockA);
+		Assert.assertNotSame(loader.lock("test.B"), lockA);
+		Assert.assertNotSame(new ParallelLoader().lock("test.A"), lockA, "loaders share a lock");
+
+		SerialLoader serialLoader = new SerialLoader();
+		Assert.assertSame(serialLoader.lock("test.A"), serialLoader, "loader which is not parallel capable must lock itself");
+	}
+
+	@Test
+	public void testClassLoadingLockNullName() {
+		try {
+			new ParallelLoader().lock(null);
+			Assert.fail("getClassLoadingLock(null) did not throw NullPointerException");
+		} catch (NullPointerException e) {
+			/* expected */
+		}
+	}
+
+	@Test
+	public void testConcurrentClassLoadingLock() throws Throwable {
+		for (int round = 0; round < 50; round++) {
+			final ParallelLoader loader = new ParallelLoader();
+			final String name = "test.Contended" + round;
+			AtomicReferenceArray<Object> locks = race(new Task() {
+				public Object run(int thread) {
+					return loader.lock(name);
+				}
+			});
+			for (int i = 0; i < THREAD_COUNT; i++) {
+				Object lock = locks.get(i);
+				if (lock instanceof Throwable) {
+					throw new AssertionError("round " + round + " thread " + i + " failed", (Throwable)lock);
+				}
+				Assert.assertSame(lock, locks.get(0), "round " + round + ": threads got different locks for " + name);
+			}
+			Assert.assertSame(loader.lock(name), locks.get(0), "round " + round);
+		}
+	}
+
+	@Test
+	public void testClassLoadingLockKeptWhileReachable() {
+		ParallelLoader loader = new ParallelLoader();
+		Object lock = loader.lock("test.Kept");
+		for (int i = 0; i < 3; i++) {
+			/* collect the locks of other names, whose entries are then removed from the table */
+			loader.lock("test.Dropped" + i);
+			System.gc();
+			System.runFinalization();
+			Assert.assertSame(loader.lock("test.Kept"), lock, "lock replaced while still reachable");
+		}
+		Assert.assertNotNull(loader.lock("test.Dropped0"));
+	}
+
+	@Test
+	public void testConcurrentDefinePackage() throws Throwable {
+		for (int round = 0; round < 50; round++) {
+			final ParallelLoader loader = new ParallelLoader();
+			final String name = "test.definepackage" + round;
+			AtomicReferenceArray<Object> results = race(new Task() {
+				public Object run(int thread) {
+					return loader.define(name);
+				}
+			});
+			Package defined = null;
+			for (int i = 0; i < THREAD_COUNT; i++) {
+				Object result = results.get(i);
+				if (result instanceof Package) {
+					Assert.assertNull(defined, "round " + round + ": " + name + " was defined twice");
+					defined = (Package)result;
+				} else if (!(result instanceof IllegalArgumentException)) {
+					throw new AssertionError("round " + round + " thread " + i + ": expected IllegalArgumentException, got " + result, (Throwable)result);
+				}
+			}
+			Assert.assertNotNull(defined, "round " + round + ": no thread defined " + name);
+			Assert.assertEquals(defined.getName(), name);
+			Assert.assertSame(loader.get(name), defined, "round " + round);
+			int count = 0;
+			for (Package p : loader.all()) {
+				if (name.equals(p.getName())) {
+					count += 1;
+				}
+			}
+			Assert.assertEquals(count, 1, "round " + round + ": getPackages() returned " + name + " " + count + " times");
+		}
+	}
+
+	@Test
+	public void testGetPackagesWhileDefining() throws Throwable {
+		final int packagesPerThread = 200;
+		final ParallelLoader loader = new ParallelLoader();
+		AtomicReferenceArray<Object> results = race(new Task() {
+			public Object run(int thread) {
+				for (int i = 0; i < packagesPerThread; i++) {
+					loader.define("test.thread" + thread + ".package" + i);
+					/* each thread also reads the packages while the others define theirs */
+					if (null == loader.all()) {
+						return Boolean.FALSE;
+					}
+				}
+				return Boolean.TRUE;
+			}
+		});
+		for (int i = 0; i < THREAD_COUNT; i++) {
+			Object result = results.get(i);
+			if (result instanceof Throwable) {
+				throw new AssertionError("thread " + i + " failed", (Throwable)result);
+			}
+			Assert.assertEquals(result, Boolean.TRUE, "thread " + i);
+		}
+
+		int count = 0;
+		for (Package p : loader.all()) {
+			if (p.getName().startsWith("test.thread")) {
+				count += 1;
+			}
+		}
+		Assert.assertEquals(count, THREAD_COUNT * packagesPerThread, "packages missing from getPackages()");
+		for (int thread = 0; thread < THREAD_COUNT; thread++) {
+			for (int i = 0; i < packagesPerThread; i++) {
+				String name = "test.thread" + thread + ".package" + i;
+				Assert.assertNotNull(loader.get(name), name);
+			}
+		}
+	}
+}
@@ -0,0 +1,136 @@
+package org.openj9.test.contendedClassLoading;
+
+/*******************************************************************************
+ * Copyright (c) 2018, 2018 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *******************************************************************************/
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that defining a class that a ClassLoader has already defined throws LinkageError,
+ * including when several threads define the same class at once. The class file is parsed
+ * with the class table mutex released, so every thread can get past the initial check for
+ * an existing class; all but one of them must still fail.
+ */
+@Test(groups = { "level.extended" })
+public class ConcurrentDefineClassTests {
+
+	static final class DefiningLoader extends ClassLoader {
+		static {
+			registerAsParallelCapable();
+		}
+
+		DefiningLoader(ClassLoader parent) {
+			super(parent);
+		}
+
+		Class<?> define(String name, byte[] bytes) {
+			return defineClass(name, bytes, 0, bytes.length);
+		}
+
+		Class<?> loaded(String name) {
+			return findLoadedClass(name);
+		}
+	}
+
+	@Test
+	public void testDuplicateDefineClass() {
+		byte[] bytes = readClassBytes(ParallelClassLoadingTests.TARGET_CLASS_NAME);
+		DefiningLoader loader = new DefiningLoader(ConcurrentDefineClassTests.class.getClassLoader());
+		Class<?> defined = loader.define(ParallelClassLoadingTests.TARGET_CLASS_NAME, bytes);
+		try {
+			loader.define(ParallelClassLoadingTests.TARGET_CLASS_NAME, bytes);
+			Assert.fail("second definition of " + ParallelClassLoadingTests.TARGET_CLASS_NAME + " did not throw LinkageError");
+		} catch (LinkageError e) {
+			/* expected */
+		}
+		Assert.assertSame(loader.loaded(ParallelClassLoadingTests.TARGET_CLASS_NAME), defined);
+	}
+
+	@Test
+	public void testConcurrentDuplicateDefineClass() throws Throwable {
+		final int threadCount = 8;
+		final byte[] bytes = readClassBytes(ParallelClassLoadingTests.TARGET_CLASS_NAME);
+		for (int round = 0; round < 50; round++) {
+			final DefiningLoader loader = new DefiningLoader(ConcurrentDefineClassTests.class.getClassLoader());
+			final CountDownLatch start = new CountDownLatch(1);
+			final AtomicReferenceArray<Object> results = new AtomicReferenceArray<Object>(threadCount);
+			Thread[] threads = new Thread[threadCount];
+			for (int i = 0; i < threadCount; i++) {
+				final int index = i;
+				threads[i] = new Thread() {
+					public void run() {
+						try {
+							start.await();
+							results.set(index, loader.define(ParallelClassLoadingTests.TARGET_CLASS_NAME, bytes));
+						} catch (Throwable t) {
+							results.set(index, t);
+						}
+					}
+				};
+				threads[i].start();
+			}
+			start.countDown();
+			for (Thread thread : threads) {
+				thread.join();
+			}
+
+			Class<?> defined = null;
+			for (int i = 0; i < threadCount; i++) {
+				Object result = results.get(i);
+				if (result instanceof Class) {
+					Assert.assertNull(defined, "round " + round + ": " + ParallelClassLoadingTests.TARGET_CLASS_NAME + " was defined twice");
+					defined = (Class<?>)result;
+				} else if (!(result instanceof LinkageError)) {
+					throw new AssertionError("round " + round + " thread " + i + ": expected LinkageError, got " + result, (Throwable)result);
+				}
+			}
+			Assert.assertNotNull(defined, "round " + round + ": no thread defined " + ParallelClassLoadingTests.TARGET_CLASS_NAME);
+			Assert.assertSame(loader.loaded(ParallelClassLoadingTests.TARGET_CLASS_NAME), defined, "round " + round);
+		}
+	}
+
+	static byte[] readClassBytes(String name) {
+		InputStream in = ConcurrentDefineClassTests.class.getClassLoader().getResourceAsStream(name.replace('.', '/') + ".class");
+		Assert.assertNotNull(in, "cannot read " + name);
+		try {
+			try {
+				ByteArrayOutputStream out = new ByteArrayOutputStream();
+				byte[] buffer = new byte[4096];
+				int count;
+				while ((count = in.read(buffer)) > 0) {
+					out.write(buffer, 0, count);
+				}
+				return out.toByteArray();
+			} finally {
+				in.close();
+			}
+		} catch (Exception e) {
+			throw new AssertionError("cannot read " + name, e);
+		}
+	}
+}
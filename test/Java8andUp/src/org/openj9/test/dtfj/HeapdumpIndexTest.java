@@ -0,0 +1,213 @@
+package org.openj9.test.dtfj;
+
+/*******************************************************************************
+ * Copyright (c) 2018, 2018 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *******************************************************************************/
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.ibm.dtfj.phd.parser.HeapdumpIndex;
+import com.ibm.dtfj.phd.parser.HeapdumpReader;
+import com.ibm.dtfj.phd.parser.PortableHeapDumpListener;
+import com.ibm.dtfj.phd.util.LongEnumeration;
+
+/**
+ * Tests the random access index of a PHD heapdump, built from a heapdump of this VM:
+ * that it finds every object the sequential parse returns, that an index file is
+ * reused while the dump is unchanged, and that a stale or damaged index file is rebuilt.
+ */
+@Test(groups = { "level.extended" })
+public class HeapdumpIndexTest {
+	/* A modification time to mark an index file with, to tell whether it has been rewritten */
+	private static final long MARKED_TIME = 1000000000000L;
+
+	private static File directory;
+	private static File dump;
+	private static File indexFile;
+	/* The addresses of the objects in the dump, in dump order */
+	private static long[] addresses;
+
+	@BeforeClass
+	public static void createDump() throws Exception {
+		directory = File.createTempFile("HeapdumpIndexTest", "");
+		Assert.assertTrue(directory.delete() && directory.mkdir(), "cannot create " + directory);
+		dump = new File(com.ibm.jvm.Dump.heapDumpToFile(new File(directory, "heapdump.phd").getPath()));
+		Assert.assertTrue(dump.isFile(), "no heapdump written to " + dump);
+		indexFile = new File(dump.getPath() + ".idx");
+		addresses = readAddresses(dump);
+		Assert.assertTrue(addresses.length > 0, "no objects in " + dump);
+	}
+
+	@AfterClass
+	public static void deleteDump() {
+		System.clearProperty(HeapdumpIndex.INDEX_PROPERTY);
+		File[] files = directory.listFiles();
+		if (files != null) {
+			for (File file : files) {
+				file.delete();
+			}
+		}
+		directory.delete();
+	}
+
+	@AfterMethod
+	public void resetIndex() {
+		System.clearProperty(HeapdumpIndex.INDEX_PROPERTY);
+		indexFile.delete();
+	}
+
+	@Test
+	public void testMemoryIndex() throws Exception {
+		verify(HeapdumpIndex.getIndex(dump));
+		Assert.assertFalse(indexFile.exists(), "index file written without " + HeapdumpIndex.INDEX_PROPERTY + "=file");
+	}
+
+	@Test
+	public void testIndexDisabled() {
+		System.setProperty(HeapdumpIndex.INDEX_PROPERTY, "false");
+		Assert.assertNull(HeapdumpIndex.getIndex(dump));
+	}
+
+	@Test
+	public void testFileIndexReused() throws Exception {
+		System.setProperty(HeapdumpIndex.INDEX_PROPERTY, "file");
+		verify(HeapdumpIndex.getIndex(dump));
+		Assert.assertTrue(indexFile.isFile(), "index file not written");
+
+		Assert.assertTrue(indexFile.setLastModified(MARKED_TIME));
+		verify(HeapdumpIndex.getIndex(dump));
+		Assert.assertEquals(indexFile.lastModified(), MARKED_TIME, "up to date index file was rewritten");
+	}
+
+	@Test
+	public void testStaleFileIndexRebuilt() throws Exception {
+		System.setProperty(HeapdumpIndex.INDEX_PROPERTY, "file");
+		verify(HeapdumpIndex.getIndex(dump));
+		Assert.assertTrue(indexFile.isFile(), "index file not written");
+
+		/* the dump appears to have changed since the index was written */
+		long modified = dump.lastModified();
+		try {
+			Assert.assertTrue(dump.setLastModified(modified - 60000));
+			Assert.assertTrue(indexFile.setLastModified(MARKED_TIME));
+			verify(HeapdumpIndex.getIndex(dump));
+			Assert.assertNotEquals(indexFile.lastModified(), MARKED_TIME, "stale index file was not rebuilt");
+		} finally {
+			dump.setLastModified(modified);
+		}
+	}
+
+	@Test
+	public void testTruncatedFileIndexRebuilt() throws Exception {
+		System.setProperty(HeapdumpIndex.INDEX_PROPERTY, "file");
+		verify(HeapdumpIndex.getIndex(dump));
+		Assert.assertTrue(indexFile.isFile(), "index file not written");
+
+		RandomAccessFile raf = new RandomAccessFile(indexFile, "rw");
+		try {
+			raf.setLength(raf.length() / 2);
+		} finally {
+			raf.close();
+		}
+		Assert.assertTrue(indexFile.setLastModified(MARKED_TIME));
+		verify(HeapdumpIndex.getIndex(dump));
+		Assert.assertNotEquals(indexFile.lastModified(), MARKED_TIME, "truncated index file was not rebuilt");
+	}
+
+	/**
+	 * Check that the index holds every object in dump order, finds each one by address,
+	 * and parses the record of each one.
+	 */
+	private static void verify(HeapdumpIndex index) throws Exception {
+		Assert.assertNotNull(index, "no index for " + dump);
+		Assert.assertEquals(index.getEntryCount(), addresses.length);
+		final long[] parsed = new long[1];
+		PortableHeapDumpListener listener = new AddressListener() {
+			void object(long address) {
+				parsed[0] = address;
+			}
+		};
+		for (int entry = 0; entry < addresses.length; entry++) {
+			long address = addresses[entry];
+			Assert.assertEquals(index.getAddress(entry), address, "entry " + entry);
+			Assert.assertEquals(index.getAddress(index.findObject(address)), address, "find 0x" + Long.toHexString(address));
+			parsed[0] = -1;
+			index.parse(entry, listener);
+			Assert.assertEquals(parsed[0], address, "parse of entry " + entry);
+		}
+		Assert.assertEquals(index.findObject(-1), -1);
+	}
+
+	/* Parse the whole dump sequentially, without the index */
+	private static long[] readAddresses(File file) throws Exception {
+		final List<Long> found = new ArrayList<Long>();
+		HeapdumpReader reader = new HeapdumpReader(file.getPath()) {
+		};
+		try {
+			reader.parse(new AddressListener() {
+				void object(long address) {
+					found.add(Long.valueOf(address));
+				}
+			});
+		} finally {
+			reader.close();
+		}
+		long[] result = new long[found.size()];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = found.get(i).longValue();
+		}
+		return result;
+	}
+
+	/* Reports the address of each object, object array and primitive array, ignoring classes */
+	private abstract static class AddressListener implements PortableHeapDumpListener {
+		abstract void object(long address) throws IOException;
+
+		public void objectDump(long address, long classAddress, int flags, int hashCode,
+				LongEnumeration refs, long instanceSize) throws Exception {
+			object(address);
+		}
+
+		public void objectArrayDump(long address, long classAddress, int flags, int hashCode,
+				LongEnumeration refs, int length, long instanceSize) throws Exception {
+			object(address);
+		}
+
+		public void classDump(long address, long superAddress, String name, int instanceSize,
+				int flags, int hashCode, LongEnumeration refs) throws Exception {
+		}
+
+		public void primitiveArrayDump(long address, int type, int length, int flags,
+				int hashCode, long instanceSize) throws Exception {
+			object(address);
+		}
+	}
+}
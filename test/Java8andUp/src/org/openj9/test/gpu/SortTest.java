@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013, 2017 IBM Corp. and others
+ * Copyright (c) 2013, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -401,5 +401,46 @@ public final class SortTest {
 		main(new String[] { "-geometric=1,8388608,24" });
 	}
 
+	/**
+	 * The default device methods sort on the CPU when there is no device,
+	 * so they must work on every platform.
+	 */
+	@Test(groups = { "level.sanity" })
+	public void testDefaultDevice() {
+		Random random = new Random();
+		int[] lengths = { 0, 1, 1000, 0x1_0000, 0x4_0000 };
+
+		for (int length : lengths) {
+			int[] data = new int[length + 2];
+
+			for (int i = 0; i < data.length; ++i) {
+				data[i] = random.nextInt();
+			}
+
+			int[] expected = data.clone();
+			long[] longData = new long[length];
+
+			for (int i = 0; i < length; ++i) {
+				longData[i] = random.nextLong();
+			}
+
+			long[] longExpected = longData.clone();
+
+			try {
+				Maths.sortArray(data, 1, length + 1);
+				Maths.sortArray(longData);
+			} catch (GPUConfigurationException | GPUSortException e) {
+				unexpected(e);
+			}
+
+			Arrays.sort(expected, 1, length + 1);
+			Arrays.sort(longExpected);
+
+			if (!Arrays.equals(data, expected) || !Arrays.equals(longData, longExpected)) {
+				Assert.fail(String.format("sort failure (size=%d)", Integer.valueOf(length)));
+			}
+		}
+	}
+
 }
 
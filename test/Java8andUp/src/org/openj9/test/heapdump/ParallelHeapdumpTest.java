@@ -0,0 +1,151 @@
+package org.openj9.test.heapdump;
+
+/*******************************************************************************
+ * Copyright (c) 2018, 2018 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *******************************************************************************/
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that a PHD heapdump encoded on worker threads is byte for byte the same as one
+ * encoded on the dumping thread alone (opts=PHD+SERIAL), and that a compressed dump
+ * (opts=PHD+GZIP) decompresses to the same bytes. The three dumps are taken by three
+ * agents for the same vmstop event of a child VM, so they see the same heap.
+ */
+@Test(groups = { "level.extended" })
+public class ParallelHeapdumpTest {
+	private static final String JAVA_COMMAND = System.getProperty("java.home") + File.separatorChar + "bin" + File.separatorChar + "java";
+
+	/**
+	 * The child VM: fills the heap with enough objects of different kinds that the dump
+	 * is split into many batches, then exits.
+	 */
+	public static class Target {
+		static Object retained;
+
+		public static void main(String[] args) {
+			List<Object> objects = new ArrayList<Object>();
+			Map<String, Object> map = new HashMap<String, Object>();
+			for (int i = 0; i < 200000; i++) {
+				switch (i % 5) {
+				case 0:
+					objects.add(Integer.toString(i));
+					break;
+				case 1:
+					objects.add(new int[i % 97]);
+					break;
+				case 2:
+					objects.add(new Object[] { objects.get(objects.size() - 1), objects.get(objects.size() / 2) });
+					break;
+				case 3:
+					map.put("key" + i, objects.get(objects.size() - 1));
+					break;
+				default:
+					objects.add(new StringBuilder("value").append(i));
+					break;
+				}
+			}
+			objects.add(map);
+			retained = objects;
+		}
+	}
+
+	@Test
+	public void testParallelEncodingMatchesSerial() throws Exception {
+		File directory = File.createTempFile("ParallelHeapdumpTest", "");
+		Assert.assertTrue(directory.delete() && directory.mkdir(), "cannot create " + directory);
+		File parallel = new File(directory, "parallel.phd");
+		File serial = new File(directory, "serial.phd");
+		File compressed = new File(directory, "compressed.phd");
+		File compressedOutput = new File(directory, "compressed.phd.gz");
+		try {
+			ProcessBuilder builder = new ProcessBuilder(JAVA_COMMAND,
+					"-Xdump:heap:events=vmstop,opts=PHD,file=" + parallel.getPath(),
+					"-Xdump:heap:events=vmstop,opts=PHD+SERIAL,file=" + serial.getPath(),
+					"-Xdump:heap:events=vmstop,opts=PHD+GZIP,file=" + compressed.getPath(),
+					"-cp", System.getProperty("java.class.path"),
+					Target.class.getName());
+			builder.redirectErrorStream(true);
+			Process process = builder.start();
+			String output = new String(readFully(process.getInputStream()));
+			Assert.assertEquals(process.waitFor(), 0, "child VM failed:\n" + output);
+
+			byte[] parallelBytes = readFile(parallel, output);
+			byte[] serialBytes = readFile(serial, output);
+			assertSameBytes(parallelBytes, serialBytes, "parallel and serial dumps");
+
+			InputStream in = new GZIPInputStream(new FileInputStream(compressedOutput));
+			try {
+				assertSameBytes(readFully(in), serialBytes, "decompressed and serial dumps");
+			} finally {
+				in.close();
+			}
+		} finally {
+			parallel.delete();
+			serial.delete();
+			compressedOutput.delete();
+			directory.delete();
+		}
+	}
+
+	private static byte[] readFile(File file, String output) throws IOException {
+		Assert.assertTrue(file.isFile(), file + " not written:\n" + output);
+		InputStream in = new FileInputStream(file);
+		try {
+			return readFully(in);
+		} finally {
+			in.close();
+		}
+	}
+
+	private static byte[] readFully(InputStream in) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[64 * 1024];
+		int count;
+		while ((count = in.read(buffer)) > 0) {
+			out.write(buffer, 0, count);
+		}
+		return out.toByteArray();
+	}
+
+	/* Report the first difference rather than the arrays, which are far too large to print */
+	private static void assertSameBytes(byte[] actual, byte[] expected, String what) {
+		int length = Math.min(actual.length, expected.length);
+		for (int i = 0; i < length; i++) {
+			if (actual[i] != expected[i]) {
+				Assert.fail(what + " differ at offset " + i + " of " + expected.length);
+			}
+		}
+		Assert.assertEquals(actual.length, expected.length, what + " have different lengths");
+	}
+}
@@ -0,0 +1,196 @@
+/*******************************************************************************
+ * Copyright (c) 2018, 2018 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *******************************************************************************/
+package org.openj9.test.java.lang.invoke;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures contended Lookup.findVirtual/findStatic/findGetter throughput, which is dominated
+ * by the per-class handle cache once the handles have been created, and compares it to the
+ * probe of the per-class synchronized WeakHashMaps the handle cache used to be built on.
+ * This is a timing run rather than a regression test, and is run standalone with an optional
+ * maximum number of threads and number of iterations.
+ */
+public class BenchLookupContention {
+
+	public int field;
+
+	public int virtualTarget(int x) {
+		return x + field;
+	}
+
+	public static int staticTarget(int x) {
+		return x;
+	}
+
+	/* The key of the previous HandleCache: a name and a MethodType or field type, compared by identity */
+	static final class LegacyKey {
+		final String name;
+		final Object type;
+		final Class<?> specialCaller;
+		private final int hashcode;
+
+		LegacyKey(String name, Object type, Class<?> specialCaller) {
+			this.name = name;
+			this.type = type;
+			this.specialCaller = specialCaller;
+			int hash = 31 + type.hashCode();
+			hash = 31 * hash + name.hashCode();
+			if (specialCaller != null) {
+				hash = 31 * hash + specialCaller.hashCode();
+			}
+			this.hashcode = hash;
+		}
+
+		@Override
+		public int hashCode() {
+			return hashcode;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof LegacyKey)) {
+				return false;
+			}
+			LegacyKey other = (LegacyKey) o;
+			return (other.type == type) && other.name.equals(name) && (other.specialCaller == specialCaller);
+		}
+	}
+
+	/* The previous HandleCache: one synchronized WeakHashMap per class for each kind of lookup */
+	static final class LegacyCache extends ClassValue<Map<LegacyKey, WeakReference<MethodHandle>>> {
+		@Override
+		protected Map<LegacyKey, WeakReference<MethodHandle>> computeValue(Class<?> clazz) {
+			return Collections.synchronizedMap(new WeakHashMap<LegacyKey, WeakReference<MethodHandle>>());
+		}
+	}
+
+	static final LegacyCache legacyVirtualCache = new LegacyCache();
+	static final LegacyCache legacyStaticCache = new LegacyCache();
+	static final LegacyCache legacyGetterCache = new LegacyCache();
+
+	interface Work {
+		void run() throws Throwable;
+	}
+
+	public static void main(String[] args) throws Throwable {
+		final int maxThreads = (args.length > 0) ? Integer.parseInt(args[0]) : 16;
+		final int iterations = (args.length > 1) ? Integer.parseInt(args[1]) : 100000;
+		final Lookup lookup = MethodHandles.lookup();
+		final MethodType virtualType = MethodType.methodType(int.class, int.class);
+
+		/* the previous cache held its keys weakly and each handle held its own key, so keep the keys reachable */
+		final LegacyKey[] cachedKeys = {
+				new LegacyKey("virtualTarget", virtualType, null),
+				new LegacyKey("staticTarget", virtualType, null),
+				new LegacyKey("field", int.class, null)
+		};
+		legacyVirtualCache.get(BenchLookupContention.class).put(cachedKeys[0],
+				new WeakReference<MethodHandle>(lookup.findVirtual(BenchLookupContention.class, "virtualTarget", virtualType)));
+		legacyStaticCache.get(BenchLookupContention.class).put(cachedKeys[1],
+				new WeakReference<MethodHandle>(lookup.findStatic(BenchLookupContention.class, "staticTarget", virtualType)));
+		legacyGetterCache.get(BenchLookupContention.class).put(cachedKeys[2],
+				new WeakReference<MethodHandle>(lookup.findGetter(BenchLookupContention.class, "field", int.class)));
+		/* the handles are only weakly cached, so keep them reachable as well */
+		final MethodHandle[] cachedHandles = {
+				legacyVirtualCache.get(BenchLookupContention.class).get(cachedKeys[0]).get(),
+				legacyStaticCache.get(BenchLookupContention.class).get(cachedKeys[1]).get(),
+				legacyGetterCache.get(BenchLookupContention.class).get(cachedKeys[2]).get()
+		};
+
+		Work lookupWork = new Work() {
+			public void run() throws Throwable {
+				check(lookup.findVirtual(BenchLookupContention.class, "virtualTarget", virtualType));
+				check(lookup.findStatic(BenchLookupContention.class, "staticTarget", virtualType));
+				check(lookup.findGetter(BenchLookupContention.class, "field", int.class));
+			}
+		};
+		Work legacyWork = new Work() {
+			public void run() throws Throwable {
+				/* like the previous HandleCache, build a new key for every probe */
+				check(legacyVirtualCache.get(BenchLookupContention.class).get(new LegacyKey("virtualTarget", virtualType, null)).get());
+				check(legacyStaticCache.get(BenchLookupContention.class).get(new LegacyKey("staticTarget", virtualType, null)).get());
+				check(legacyGetterCache.get(BenchLookupContention.class).get(new LegacyKey("field", int.class, null)).get());
+			}
+		};
+
+		for (int threads = 1; threads <= maxThreads; threads *= 4) {
+			long lookupTime = runThreads(threads, iterations, lookupWork);
+			long legacyTime = runThreads(threads, iterations, legacyWork);
+			System.out.println("threads: " + threads
+					+ " Lookup.find*: " + opsPerSecond(threads, iterations, lookupTime) + " lookups/s"
+					+ " synchronized WeakHashMap: " + opsPerSecond(threads, iterations, legacyTime) + " lookups/s");
+		}
+		System.out.println("cached keys: " + cachedKeys.length + " handles: " + cachedHandles.length);
+	}
+
+	static void check(MethodHandle handle) {
+		if (handle == null) {
+			throw new NullPointerException("no MethodHandle found");
+		}
+	}
+
+	static long opsPerSecond(int threads, int iterations, long nanos) {
+		return (long)((3.0 * threads * iterations) / (nanos / 1000000000.0));
+	}
+
+	static long runThreads(int threadCount, final int iterations, final Work work) throws Throwable {
+		final CountDownLatch start = new CountDownLatch(1);
+		final AtomicLong failures = new AtomicLong();
+		Thread[] threads = new Thread[threadCount];
+		for (int i = 0; i < threadCount; i++) {
+			threads[i] = new Thread() {
+				public void run() {
+					try {
+						start.await();
+						for (int j = 0; j < iterations; j++) {
+							work.run();
+						}
+					} catch (Throwable t) {
+						t.printStackTrace();
+						failures.incrementAndGet();
+					}
+				}
+			};
+			threads[i].start();
+		}
+		long begin = System.nanoTime();
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		long elapsed = System.nanoTime() - begin;
+		if (failures.get() != 0) {
+			throw new IllegalStateException(failures.get() + " threads failed");
+		}
+		return elapsed;
+	}
+}
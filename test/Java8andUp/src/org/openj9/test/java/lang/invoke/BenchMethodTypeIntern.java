@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright (c) 2018, 2018 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *******************************************************************************/
+package org.openj9.test.java.lang.invoke;
+
+import java.lang.invoke.MethodType;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Measures contended MethodType.methodType throughput, which is dominated by the probe of the
+ * MethodType intern table once the types have been interned, and compares it to a global
+ * synchronized WeakHashMap like the one the intern table used to be built on.
+ * This is a timing run rather than a regression test, and is run standalone with an optional
+ * number of iterations. Test_MethodType tests interning.
+ */
+public class BenchMethodTypeIntern {
+
+	/* The previous intern table implementation: one global synchronized WeakHashMap */
+	static final Map<List<Class<?>>, WeakReference<List<Class<?>>>> legacyTable = Collections.synchronizedMap(new WeakHashMap<List<Class<?>>, WeakReference<List<Class<?>>>>());
+
+	static final Class<?>[][] SIGNATURES = {
+			{ void.class },
+			{ int.class, int.class },
+			{ Object.class, Object.class, Object.class },
+			{ String.class, String.class, int.class, long.class },
+			{ long.class, double.class, Object[].class }
+	};
+
+	public static void main(String[] args) throws Throwable {
+		final int iterations = (args.length > 0) ? Integer.parseInt(args[0]) : 200000;
+		/* keep the legacy keys strongly reachable so the WeakHashMap does not drop them */
+		final List<List<Class<?>>> legacyKeys = new ArrayList<List<Class<?>>>();
+		for (Class<?>[] signature : SIGNATURES) {
+			List<Class<?>> key = Arrays.<Class<?>>asList(signature);
+			legacyKeys.add(key);
+			legacyTable.put(key, new WeakReference<List<Class<?>>>(key));
+		}
+
+		BenchLookupContention.Work methodTypeWork = new BenchLookupContention.Work() {
+			public void run() throws Throwable {
+				for (Class<?>[] signature : SIGNATURES) {
+					MethodType.methodType(signature[0], Arrays.copyOfRange(signature, 1, signature.length));
+				}
+			}
+		};
+		BenchLookupContention.Work legacyWork = new BenchLookupContention.Work() {
+			public void run() throws Throwable {
+				for (Class<?>[] signature : SIGNATURES) {
+					List<Class<?>> probe = Arrays.<Class<?>>asList(signature.clone());
+					legacyTable.get(probe).get();
+				}
+			}
+		};
+
+		int[] threadCounts = { 1, 8, 64 };
+		for (int threads : threadCounts) {
+			long methodTypeTime = BenchLookupContention.runThreads(threads, iterations, methodTypeWork);
+			long legacyTime = BenchLookupContention.runThreads(threads, iterations, legacyWork);
+			System.out.println("threads: " + threads
+					+ " MethodType.methodType: " + opsPerSecond(threads, iterations, methodTypeTime) + " types/s"
+					+ " synchronized WeakHashMap: " + opsPerSecond(threads, iterations, legacyTime) + " types/s");
+		}
+	}
+
+	static long opsPerSecond(int threads, int iterations, long nanos) {
+		return (long)(((double)SIGNATURES.length * threads * iterations) / (nanos / 1000000000.0));
+	}
+}
@@ -0,0 +1,121 @@
+package org.openj9.test.java.lang.invoke;
+
+/*******************************************************************************
+ * Copyright (c) 2018, 2018 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *******************************************************************************/
+
+import org.testng.annotations.Test;
+import org.testng.Assert;
+import java.lang.invoke.MethodType;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Tests that equal MethodTypes are interned to a single instance, however and by however many
+ * threads they are created, including after an earlier equal MethodType has been collected.
+ */
+public class Test_MethodType {
+	/* Parameter types no other test uses, so the MethodTypes made from them are only reachable from this test */
+	static class CollectedParameter1 { }
+	static class CollectedParameter2 { }
+
+	/**
+	 * Equal MethodTypes created in different ways are the same instance
+	 */
+	@Test(groups = { "level.sanity" })
+	public void test_internIdentity() {
+		MethodType type = MethodType.methodType(String.class, int.class, Object[].class);
+		Assert.assertSame(MethodType.methodType(String.class, new Class<?>[] { int.class, Object[].class }), type);
+		Assert.assertSame(MethodType.methodType(String.class, int.class).appendParameterTypes(Object[].class), type);
+		Assert.assertSame(MethodType.methodType(Object.class, int.class, Object[].class).changeReturnType(String.class), type);
+		Assert.assertSame(MethodType.fromMethodDescriptorString("(I[Ljava/lang/Object;)Ljava/lang/String;", null), type);
+	}
+
+	/**
+	 * Threads racing to intern equal MethodTypes all get the same instance
+	 *
+	 * @throws Throwable
+	 */
+	@Test(groups = { "level.sanity" })
+	public void test_internIdentityConcurrent() throws Throwable {
+		final int threadCount = 16;
+		for (int round = 0; round < 20; round++) {
+			final Class<?> returnType = (0 == (round % 2)) ? long.class : double.class;
+			final int parameterCount = 1 + round;
+			final CountDownLatch start = new CountDownLatch(1);
+			final AtomicReferenceArray<MethodType> results = new AtomicReferenceArray<MethodType>(threadCount);
+			Thread[] threads = new Thread[threadCount];
+			for (int i = 0; i < threadCount; i++) {
+				final int index = i;
+				threads[i] = new Thread() {
+					public void run() {
+						try {
+							start.await();
+						} catch (InterruptedException e) {
+							return;
+						}
+						Class<?>[] parameters = new Class<?>[parameterCount];
+						for (int j = 0; j < parameterCount; j++) {
+							parameters[j] = (0 == (j % 2)) ? CollectedParameter1.class : short.class;
+						}
+						results.set(index, MethodType.methodType(returnType, parameters));
+					}
+				};
+				threads[i].start();
+			}
+			start.countDown();
+			for (Thread thread : threads) {
+				thread.join();
+			}
+			for (int i = 1; i < threadCount; i++) {
+				Assert.assertNotNull(results.get(i), "thread " + i + " round " + round);
+				Assert.assertSame(results.get(i), results.get(0), "thread " + i + " round " + round);
+			}
+		}
+	}
+
+	/**
+	 * Once an interned MethodType has been collected, an equal MethodType is interned again
+	 * and every later request returns that new instance
+	 */
+	@Test(groups = { "level.sanity" })
+	public void test_internIdentityAfterGC() {
+		WeakReference<MethodType> collected = new WeakReference<MethodType>(MethodType.methodType(CollectedParameter2.class, CollectedParameter1.class, byte.class));
+		for (int i = 0; (i < 20) && (null != collected.get()); i++) {
+			System.gc();
+			System.runFinalization();
+		}
+		if (null != collected.get()) {
+			/* the GC policy kept the MethodType, so there is no collected entry to replace */
+			return;
+		}
+
+		MethodType type = MethodType.methodType(CollectedParameter2.class, CollectedParameter1.class, byte.class);
+		for (int i = 0; i < 10; i++) {
+			Assert.assertSame(MethodType.methodType(CollectedParameter2.class, CollectedParameter1.class, byte.class), type, "request " + i);
+			/* intern, collect and expunge other entries, which must not disturb the live one */
+			MethodType.methodType(CollectedParameter2.class, CollectedParameter1.class, byte.class, int.class);
+			System.gc();
+		}
+		Assert.assertSame(MethodType.methodType(CollectedParameter2.class, new Class<?>[] { CollectedParameter1.class, byte.class }), type);
+	}
+}
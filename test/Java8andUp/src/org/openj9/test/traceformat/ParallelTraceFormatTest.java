@@ -0,0 +1,212 @@
+package org.openj9.test.traceformat;
+
+/*******************************************************************************
+ * Copyright (c) 2018, 2018 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *******************************************************************************/
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the trace formatter writes the same output with -parallel, where the records are
+ * read from mappings of the trace file and the tracepoints are formatted on worker threads, as
+ * without it. The mapping window is also lowered so that the records of the file are read from
+ * many mappings, and a copy of the file with its last record cut short is formatted, whose last
+ * record is read from the file rather than a mapping.
+ */
+@Test(groups = { "level.extended" })
+public class ParallelTraceFormatTest {
+	private static final String JAVA_COMMAND = System.getProperty("java.home") + File.separatorChar + "bin" + File.separatorChar + "java";
+
+	/* the trace buffers, and so the records of the trace file, are 8 KB */
+	private static final int RECORD_BYTES = 8 * 1024;
+
+	/* a window of two and a half records, so the windows do not start on a multiple of the window size */
+	private static final int MAPPING_WINDOW = (RECORD_BYTES * 5) / 2;
+
+	/**
+	 * The child VM: runs several threads which load classes and build strings, so the trace file
+	 * holds many records from several threads, then exits.
+	 */
+	public static class Target {
+		public static void main(String[] args) throws Exception {
+			Thread[] threads = new Thread[4];
+			for (int i = 0; i < threads.length; i++) {
+				final int id = i;
+				threads[i] = new Thread("ParallelTraceFormatTest-" + i) {
+					public void run() {
+						StringBuilder builder = new StringBuilder();
+						for (int j = 0; j < 20000; j++) {
+							builder.setLength(0);
+							builder.append(id).append(':').append(j).append(Integer.toHexString(j * 31));
+							builder.toString().intern();
+							if (0 == (j % 1000)) {
+								System.gc();
+							}
+						}
+					}
+				};
+				threads[i].start();
+			}
+			for (Thread thread : threads) {
+				thread.join();
+			}
+		}
+	}
+
+	@Test
+	public void testParallelFormatMatchesSerial() throws Exception {
+		File directory = File.createTempFile("ParallelTraceFormatTest", "");
+		Assert.assertTrue(directory.delete() && directory.mkdir(), "cannot create " + directory);
+		File trace = new File(directory, "trace.trc");
+		File truncated = new File(directory, "truncated.trc");
+		try {
+			run(directory, JAVA_COMMAND,
+					"-Xtrace:buffers=8k",
+					"-Xtrace:maximal=all{level1}",
+					"-Xtrace:output=" + trace.getPath(),
+					"-cp", System.getProperty("java.class.path"),
+					Target.class.getName());
+			Assert.assertTrue(trace.length() > (10 * RECORD_BYTES), trace + " holds too few records: " + trace.length() + " bytes");
+			copy(trace, truncated, trace.length() - (RECORD_BYTES / 2));
+
+			checkFormat(directory, trace);
+			checkFormat(directory, truncated);
+		} finally {
+			File[] files = directory.listFiles();
+			if (files != null) {
+				for (File file : files) {
+					file.delete();
+				}
+			}
+			directory.delete();
+		}
+	}
+
+	/* Formats the trace file serially and in parallel, with and without a small mapping window, and compares the output */
+	private static void checkFormat(File directory, File trace) throws Exception {
+		String name = trace.getName();
+		byte[] serial = format(directory, trace, name + ".serial.fmt", null);
+		Assert.assertTrue(serial.length > 0, "no formatted output for " + trace);
+
+		assertSameBytes(format(directory, trace, name + ".parallel.fmt", null, "-parallel=4"), serial,
+				name + ": -parallel=4 and serial output");
+		assertSameBytes(format(directory, trace, name + ".mapped.fmt", null, "-parallel=1"), serial,
+				name + ": -parallel=1 and serial output");
+		assertSameBytes(format(directory, trace, name + ".window.fmt", Integer.valueOf(MAPPING_WINDOW), "-parallel=4"), serial,
+				name + ": -parallel=4 with a " + MAPPING_WINDOW + " byte mapping window and serial output");
+	}
+
+	private static byte[] format(File directory, File trace, String outputName, Integer mappingWindow, String... options) throws Exception {
+		File output = new File(directory, outputName);
+		List<String> command = new ArrayList<String>();
+		command.add(JAVA_COMMAND);
+		if (mappingWindow != null) {
+			command.add("-Dcom.ibm.jvm.traceformat.mappingWindow=" + mappingWindow);
+		}
+		command.add(traceFormatClass());
+		command.add(trace.getPath());
+		command.add(output.getPath());
+		command.addAll(Arrays.asList(options));
+		String log = run(directory, command.toArray(new String[command.size()]));
+		Assert.assertTrue(output.isFile(), output + " not written:\n" + log);
+		return readFile(output);
+	}
+
+	/* The formatter is in its own package from Java 9 */
+	private static String traceFormatClass() {
+		try {
+			return Class.forName("com.ibm.jvm.traceformat.TraceFormat").getName();
+		} catch (ClassNotFoundException e) {
+			return "com.ibm.jvm.TraceFormat";
+		}
+	}
+
+	private static String run(File directory, String... command) throws Exception {
+		ProcessBuilder builder = new ProcessBuilder(command);
+		builder.directory(directory);
+		builder.redirectErrorStream(true);
+		Process process = builder.start();
+		String output = new String(readFully(process.getInputStream()));
+		Assert.assertEquals(process.waitFor(), 0, Arrays.toString(command) + " failed:\n" + output);
+		return output;
+	}
+
+	private static void copy(File from, File to, long length) throws IOException {
+		InputStream in = new FileInputStream(from);
+		try {
+			OutputStream out = new FileOutputStream(to);
+			try {
+				byte[] buffer = new byte[64 * 1024];
+				int count;
+				while ((length > 0) && ((count = in.read(buffer, 0, (int)Math.min(buffer.length, length))) > 0)) {
+					out.write(buffer, 0, count);
+					length -= count;
+				}
+			} finally {
+				out.close();
+			}
+		} finally {
+			in.close();
+		}
+	}
+
+	private static byte[] readFile(File file) throws IOException {
+		InputStream in = new FileInputStream(file);
+		try {
+			return readFully(in);
+		} finally {
+			in.close();
+		}
+	}
+
+	private static byte[] readFully(InputStream in) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[64 * 1024];
+		int count;
+		while ((count = in.read(buffer)) > 0) {
+			out.write(buffer, 0, count);
+		}
+		return out.toByteArray();
+	}
+
+	/* Report the first difference rather than the outputs, which are far too large to print */
+	private static void assertSameBytes(byte[] actual, byte[] expected, String what) {
+		int length = Math.min(actual.length, expected.length);
+		for (int i = 0; i < length; i++) {
+			if (actual[i] != expected[i]) {
+				Assert.fail(what + " differ at offset " + i + " of " + expected.length);
+			}
+		}
+		Assert.assertEquals(actual.length, expected.length, what + " have different lengths");
+	}
+}
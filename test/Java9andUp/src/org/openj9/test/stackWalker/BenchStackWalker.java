@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * Copyright (c) 2018, 2018 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *******************************************************************************/
+package org.openj9.test.stackWalker;
+
+import java.lang.StackWalker.Option;
+import java.lang.StackWalker.StackFrame;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Measures StackWalker.getCallerClass, short walks and full walks of a deep stack, after checking
+ * that walks return the same frames whatever the estimated depth.
+ * This is a timing run rather than a regression test, and is run standalone with an optional
+ * argument for the number of iterations of each operation (default 200000).
+ */
+@SuppressWarnings("nls")
+public class BenchStackWalker {
+	/* frames added below the benchmark, as a framework would */
+	private static final int DEPTH = 50;
+
+	static final StackWalker walker = StackWalker.getInstance(Option.RETAIN_CLASS_REFERENCE);
+
+	interface Operation {
+		/* returns a value derived from the result so the call cannot be eliminated */
+		int run();
+	}
+
+	static final String[] NAMES = { "getCallerClass", "walk limit 4", "walk full" };
+
+	static final Operation[] OPERATIONS = {
+		() -> Caller.callerClass().hashCode(),
+		() -> walker.walk(s -> s.limit(4).collect(Collectors.toList())).size(),
+		() -> walker.walk(s -> s.collect(Collectors.toList())).size()
+	};
+
+	static class Caller {
+		static Class<?> callerClass() {
+			return walker.getCallerClass();
+		}
+	}
+
+	public static void main(String[] args) {
+		final int iterations = (args.length > 0) ? Integer.parseInt(args[0]) : 200000;
+		recurse(DEPTH, () -> {
+			verify();
+			StringBuilder line = new StringBuilder("depth: " + DEPTH);
+			for (int op = 0; op < OPERATIONS.length; op++) {
+				Operation operation = OPERATIONS[op];
+				/* warm up, then time */
+				run(operation, iterations / 10);
+				long begin = System.nanoTime();
+				int sink = run(operation, iterations);
+				long elapsed = System.nanoTime() - begin;
+				line.append(' ').append(NAMES[op]).append(": ").append(elapsed / iterations).append(" ns/op");
+				if (sink == Integer.MIN_VALUE) {
+					line.append('!');
+				}
+			}
+			System.out.println(line.toString());
+		});
+	}
+
+	static void recurse(int depth, Runnable action) {
+		if (depth <= 0) {
+			action.run();
+		} else {
+			recurse(depth - 1, action);
+		}
+	}
+
+	static int run(Operation operation, int iterations) {
+		int sink = 0;
+		for (int i = 0; i < iterations; i++) {
+			sink += operation.run();
+		}
+		return sink;
+	}
+
+	static void verify() {
+		if (Caller.callerClass() != BenchStackWalker.class) {
+			throw new IllegalStateException("getCallerClass returned " + Caller.callerClass());
+		}
+		List<String> expected = null;
+		/* batches of one, of the minimum size, and of more than the stack */
+		for (int estimatedDepth : new int[] { 1, 8, 9, 64, 1000 }) {
+			List<String> frames = frames(estimatedDepth);
+			if (null == expected) {
+				expected = frames;
+			} else {
+				if (!frames.equals(expected)) {
+					throw new IllegalStateException("estimatedDepth " + estimatedDepth + " walked " + frames + ", expected " + expected);
+				}
+			}
+		}
+	}
+
+	static List<String> frames(int estimatedDepth) {
+		StackWalker stackWalker = StackWalker.getInstance(Collections.singleton(Option.RETAIN_CLASS_REFERENCE), estimatedDepth);
+		return stackWalker.walk(s -> s.map(BenchStackWalker::describe).collect(Collectors.toList()));
+	}
+
+	static String describe(StackFrame frame) {
+		return frame.getDeclaringClass().getName() + "." + frame.getMethodName() + ":" + frame.getLineNumber();
+	}
+}
@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2018, 2018 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *******************************************************************************/
+package org.openj9.test.varhandle;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Measures int get and set through a ByteBufferViewVarHandle on heap and direct buffers in
+ * both byte orders, against ByteBuffer.getInt and ByteBuffer.putInt on the same buffer.
+ * This is a timing run rather than a regression test, and is run standalone with an optional
+ * argument for the number of passes over the buffer (default 2000).
+ */
+@SuppressWarnings("nls")
+public class BenchByteBufferViewVarHandle {
+	static final int BUFFER_SIZE = 4096;
+
+	interface Operation {
+		/* returns a value derived from the buffer so the loop cannot be eliminated */
+		int run(ByteBuffer buffer);
+	}
+
+	public static void main(String[] args) {
+		final int iterations = (args.length > 0) ? Integer.parseInt(args[0]) : 2000;
+		for (ByteOrder order : new ByteOrder[] { ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN }) {
+			final VarHandle vh = MethodHandles.byteBufferViewVarHandle(int[].class, order);
+			for (boolean direct : new boolean[] { false, true }) {
+				ByteBuffer buffer = direct ? ByteBuffer.allocateDirect(BUFFER_SIZE) : ByteBuffer.allocate(BUFFER_SIZE);
+				buffer.order(order);
+				verify(vh, buffer);
+
+				Operation vhSet = b -> {
+					for (int i = 0; i < BUFFER_SIZE; i += Integer.BYTES) {
+						vh.set(b, i, i);
+					}
+					return 0;
+				};
+				Operation vhGet = b -> {
+					int sum = 0;
+					for (int i = 0; i < BUFFER_SIZE; i += Integer.BYTES) {
+						sum += (int)vh.get(b, i);
+					}
+					return sum;
+				};
+				Operation bufferPut = b -> {
+					for (int i = 0; i < BUFFER_SIZE; i += Integer.BYTES) {
+						b.putInt(i, i);
+					}
+					return 0;
+				};
+				Operation bufferGet = b -> {
+					int sum = 0;
+					for (int i = 0; i < BUFFER_SIZE; i += Integer.BYTES) {
+						sum += b.getInt(i);
+					}
+					return sum;
+				};
+
+				System.out.println((direct ? "direct " : "heap ") + order
+						+ " VarHandle.set: " + time(vhSet, buffer, iterations) + " ns/op"
+						+ " ByteBuffer.putInt: " + time(bufferPut, buffer, iterations) + " ns/op"
+						+ " VarHandle.get: " + time(vhGet, buffer, iterations) + " ns/op"
+						+ " ByteBuffer.getInt: " + time(bufferGet, buffer, iterations) + " ns/op");
+			}
+		}
+	}
+
+	/* Average nanoseconds for a single int access, after a warm up */
+	static double time(Operation operation, ByteBuffer buffer, int iterations) {
+		run(operation, buffer, iterations / 10);
+		long begin = System.nanoTime();
+		int sink = run(operation, buffer, iterations);
+		long elapsed = System.nanoTime() - begin;
+		if (sink == Integer.MIN_VALUE) {
+			System.out.println("sink: " + sink);
+		}
+		return (double)elapsed / ((long)iterations * (BUFFER_SIZE / Integer.BYTES));
+	}
+
+	static int run(Operation operation, ByteBuffer buffer, int iterations) {
+		int sink = 0;
+		for (int i = 0; i < iterations; i++) {
+			sink += operation.run(buffer);
+		}
+		return sink;
+	}
+
+	/* The VarHandle and the buffer must see the same bytes, whichever writes them */
+	static void verify(VarHandle vh, ByteBuffer buffer) {
+		for (int i = 0; i < BUFFER_SIZE; i += Integer.BYTES) {
+			vh.set(buffer, i, i * 31);
+		}
+		for (int i = 0; i < BUFFER_SIZE; i += Integer.BYTES) {
+			if (buffer.getInt(i) != (i * 31)) {
+				throw new IllegalStateException("ByteBuffer.getInt read " + buffer.getInt(i) + " at index " + i + ", expected " + (i * 31));
+			}
+			buffer.putInt(i, -i);
+			if ((int)vh.get(buffer, i) != -i) {
+				throw new IllegalStateException("VarHandle.get read " + (int)vh.get(buffer, i) + " at index " + i + ", expected " + -i);
+			}
+		}
+	}
+}
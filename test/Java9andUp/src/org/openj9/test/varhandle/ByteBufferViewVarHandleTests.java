@@ -2061,4 +2061,60 @@ public class ByteBufferViewVarHandleTests extends ViewVarHandleTests {
 			failUnalignedAccess();
 		} catch (IllegalStateException e) {	}
 	}
+
+	/**
+	 * Get and Set at every index of the buffer, and of a slice starting at an odd position, so that
+	 * most accesses are unaligned. Each value is checked against the ByteBuffer accessors in the same
+	 * byte order, in both directions.
+	 */
+	@Test
+	public void testUnalignedGetSetEveryIndex() {
+		ByteBufferViewHelper.reset();
+		
+		_buffer.mark();
+		_buffer.position(1);
+		ByteBuffer bufferSlice = _buffer.slice();
+		_buffer.reset();
+		
+		for (ByteBuffer buffer : new ByteBuffer[] { _buffer, bufferSlice }) {
+			ByteBuffer expected = buffer.duplicate().order(_byteOrder);
+			int limit = buffer.limit();
+			for (int i = 0; i <= (limit - Character.BYTES); i++) {
+				vhChar.set(buffer, i, (char)(0x0102 * (i + 1)));
+				Assert.assertEquals(expected.getChar(i), (char)(0x0102 * (i + 1)), "char set at " + i);
+				expected.putChar(i, (char)~(0x0102 * (i + 1)));
+				Assert.assertEquals((char)vhChar.get(buffer, i), (char)~(0x0102 * (i + 1)), "char get at " + i);
+			}
+			for (int i = 0; i <= (limit - Short.BYTES); i++) {
+				vhShort.set(buffer, i, (short)(0x0304 * (i + 1)));
+				Assert.assertEquals(expected.getShort(i), (short)(0x0304 * (i + 1)), "short set at " + i);
+				expected.putShort(i, (short)~(0x0304 * (i + 1)));
+				Assert.assertEquals((short)vhShort.get(buffer, i), (short)~(0x0304 * (i + 1)), "short get at " + i);
+			}
+			for (int i = 0; i <= (limit - Integer.BYTES); i++) {
+				vhInt.set(buffer, i, 0x01020304 * (i + 1));
+				Assert.assertEquals(expected.getInt(i), 0x01020304 * (i + 1), "int set at " + i);
+				expected.putInt(i, ~(0x01020304 * (i + 1)));
+				Assert.assertEquals((int)vhInt.get(buffer, i), ~(0x01020304 * (i + 1)), "int get at " + i);
+			}
+			for (int i = 0; i <= (limit - Float.BYTES); i++) {
+				vhFloat.set(buffer, i, i + 0.25f);
+				Assert.assertEquals(expected.getFloat(i), i + 0.25f, "float set at " + i);
+				expected.putFloat(i, -i - 0.25f);
+				Assert.assertEquals((float)vhFloat.get(buffer, i), -i - 0.25f, "float get at " + i);
+			}
+			for (int i = 0; i <= (limit - Long.BYTES); i++) {
+				vhLong.set(buffer, i, 0x0102030405060708L * (i + 1));
+				Assert.assertEquals(expected.getLong(i), 0x0102030405060708L * (i + 1), "long set at " + i);
+				expected.putLong(i, ~(0x0102030405060708L * (i + 1)));
+				Assert.assertEquals((long)vhLong.get(buffer, i), ~(0x0102030405060708L * (i + 1)), "long get at " + i);
+			}
+			for (int i = 0; i <= (limit - Double.BYTES); i++) {
+				vhDouble.set(buffer, i, i + 0.125);
+				Assert.assertEquals(expected.getDouble(i), i + 0.125, "double set at " + i);
+				expected.putDouble(i, -i - 0.125);
+				Assert.assertEquals((double)vhDouble.get(buffer, i), -i - 0.125, "double get at " + i);
+			}
+		}
+	}
 }
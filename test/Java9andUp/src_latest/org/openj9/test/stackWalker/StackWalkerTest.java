@@ -36,11 +36,13 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.Module;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
@@ -206,6 +208,53 @@ public class StackWalkerTest {
 		}
 	}
 
+	/**
+	 * Walks of a deep stack must return the same frames whatever the estimated depth, which
+	 * sets the size of the first batch of frames fetched from the VM.
+	 */
+	@Test
+	public void testEstimatedDepth() {
+		recurse(100, () -> {
+			List<String> expected = null;
+			/* batches of one, of the minimum size, and of more than the stack */
+			for (int estimatedDepth : new int[] { 1, 8, 9, 64, 1000 }) {
+				StackWalker walker = StackWalker.getInstance(Collections.singleton(Option.RETAIN_CLASS_REFERENCE), estimatedDepth);
+				List<String> frames = walkFrames(walker, Long.MAX_VALUE);
+				if (null == expected) {
+					assertTrue(frames.size() > 100, "walk returned only " + frames.size() + " frames");
+					expected = frames;
+				} else {
+					assertEquals(frames, expected, "estimatedDepth " + estimatedDepth);
+				}
+				assertEquals(walkFrames(walker, 4), walkFrames(walker, Long.MAX_VALUE).subList(0, 4), "limit 4, estimatedDepth " + estimatedDepth);
+			}
+		});
+	}
+
+	@Test
+	public void testStreamUsedAfterWalk() {
+		Stream<StackFrame> escaped = StackWalker.getInstance().walk(s -> s);
+		try {
+			escaped.count();
+			fail("stream used after the walk returned");
+		} catch (IllegalStateException e) {
+			/* expected */
+		}
+	}
+
+	/* The walks all start here, so frames from walks made on the same line compare equal */
+	private List<String> walkFrames(StackWalker walker, long limit) {
+		return walker.walk(s -> s.limit(limit).map(f -> getFullMethodNameFromFrame(f) + ":" + f.getLineNumber()).collect(Collectors.toList()));
+	}
+
+	private static void recurse(int depth, Runnable action) {
+		if (depth <= 0) {
+			action.run();
+		} else {
+			recurse(depth - 1, action);
+		}
+	}
+
 	@Test
 	public void testRecursiveStackWalk() {
 		final StackWalker walker = StackWalker.getInstance();
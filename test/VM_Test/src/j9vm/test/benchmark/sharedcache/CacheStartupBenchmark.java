@@ -0,0 +1,210 @@
+package j9vm.test.benchmark.sharedcache;
+
+/*******************************************************************************
+ * Copyright (c) 2018, 2018 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *******************************************************************************/
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.StringTokenizer;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import com.ibm.oti.shared.SharedClassStatistics;
+
+/**
+ * Reports the time from launching a JVM to its first application class load against the
+ * number of bytes in use in the shared class cache it attaches to.
+ *
+ * For each class count, the cache is destroyed, filled by a JVM that loads that many runtime
+ * classes, and then timed over several launches that only print the time main() was entered.
+ */
+public class CacheStartupBenchmark {
+	static final String CACHE_NAME = "CacheStartupBenchmark";
+	static final String USED_PREFIX = "USED ";
+	static final String STARTED_PREFIX = "STARTED ";
+
+	public static void main (String[] args) {
+		try {
+			if ((args.length == 2) && args[0].equals("populate")) {
+				populate(Integer.parseInt(args[1]));
+				return;
+			}
+			if ((args.length == 1) && args[0].equals("started")) {
+				System.out.println(STARTED_PREFIX + System.currentTimeMillis());
+				return;
+			}
+
+			/* check the arguments */
+			if (args.length < 3) {
+				System.out.println("ERROR: Missing required arguments !");
+				System.out.println("	First argument is the shared cache size, for example 300m");
+				System.out.println("	Second argument is the number of timed launches for each class count");
+				System.out.println("	Remaining arguments are the numbers of classes to put in the cache");
+				return;
+			}
+
+			String cacheSize = args[0];
+			int launches;
+			try {
+				launches = Integer.parseInt(args[1]);
+			} catch (Exception e) {
+				System.out.println("ERROR: failed to parse number of launches: " + e);
+				return;
+			}
+
+			System.out.println("classes, cache bytes used, best ms, average ms");
+			for (int i = 2; i < args.length; i++) {
+				int classCount = Integer.parseInt(args[i]);
+				String option = "-Xshareclasses:name=" + CACHE_NAME + ",nonfatal";
+
+				run(new String[] { "-Xshareclasses:name=" + CACHE_NAME + ",destroy" }, null);
+				String used = run(new String[] { option, "-Xscmx" + cacheSize, "populate", String.valueOf(classCount) }, USED_PREFIX);
+
+				long best = Long.MAX_VALUE;
+				long total = 0;
+				for (int launch = 0; launch < launches; launch++) {
+					long begin = System.currentTimeMillis();
+					long elapsed = Long.parseLong(run(new String[] { option, "started" }, STARTED_PREFIX)) - begin;
+					best = Math.min(best, elapsed);
+					total += elapsed;
+				}
+				System.out.println(classCount + ", " + used + ", " + best + ", " + (total / launches));
+			}
+			run(new String[] { "-Xshareclasses:name=" + CACHE_NAME + ",destroy" }, null);
+		} catch (Exception e) {
+			System.out.println("ERROR: " + e);
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Launch this class in a child JVM and return the rest of the first output line
+	 * starting with prefix, or null if prefix is null.
+	 */
+	static String run(String[] options, String prefix) throws Exception {
+		List<String> command = new ArrayList<String>();
+		command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+		int split = options.length;
+		for (int i = 0; i < options.length; i++) {
+			if (!options[i].startsWith("-")) {
+				split = i;
+				break;
+			}
+		}
+		for (int i = 0; i < split; i++) {
+			command.add(options[i]);
+		}
+		if (split < options.length) {
+			command.add("-cp");
+			command.add(System.getProperty("java.class.path"));
+			command.add(CacheStartupBenchmark.class.getName());
+			for (int i = split; i < options.length; i++) {
+				command.add(options[i]);
+			}
+		}
+
+		ProcessBuilder builder = new ProcessBuilder(command);
+		builder.redirectErrorStream(true);
+		Process process = builder.start();
+		String result = null;
+		BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
+		try {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if ((result == null) && (prefix != null) && line.startsWith(prefix)) {
+					result = line.substring(prefix.length()).trim();
+				}
+			}
+		} finally {
+			reader.close();
+		}
+		process.waitFor();
+		if ((prefix != null) && (result == null)) {
+			throw new Exception("no " + prefix.trim() + " line from " + command);
+		}
+		return result;
+	}
+
+	/**
+	 * Load up to count runtime classes without initializing them so that they are stored in
+	 * the cache, then report the bytes in use.
+	 */
+	static void populate(int count) throws Exception {
+		List<String> names = runtimeClassNames(count);
+		ClassLoader loader = ClassLoader.getSystemClassLoader();
+		int loaded = 0;
+		for (Iterator<String> it = names.iterator(); it.hasNext();) {
+			try {
+				Class.forName(it.next(), false, loader);
+				loaded += 1;
+			} catch (Throwable t) {
+				/* not every class can be loaded standalone */
+			}
+		}
+		System.out.println("loaded " + loaded + " classes");
+		System.out.println(USED_PREFIX + (SharedClassStatistics.maxSizeBytes() - SharedClassStatistics.freeSpaceBytes()));
+	}
+
+	static List<String> runtimeClassNames(int count) throws Exception {
+		List<String> names = new ArrayList<String>();
+		String bootPath = System.getProperty("sun.boot.class.path");
+		if (bootPath != null) {
+			StringTokenizer tokens = new StringTokenizer(bootPath, File.pathSeparator);
+			while (tokens.hasMoreTokens() && (names.size() < count)) {
+				File jar = new File(tokens.nextToken());
+				if (jar.isFile()) {
+					ZipFile zip = new ZipFile(jar);
+					try {
+						for (Enumeration<? extends ZipEntry> entries = zip.entries(); entries.hasMoreElements() && (names.size() < count);) {
+							addClassName(names, entries.nextElement().getName());
+						}
+					} finally {
+						zip.close();
+					}
+				}
+			}
+		} else {
+			FileSystem jrt = FileSystems.getFileSystem(URI.create("jrt:/"));
+			Path modules = jrt.getPath("/modules/java.base");
+			for (Iterator<Path> it = Files.walk(modules).iterator(); it.hasNext() && (names.size() < count);) {
+				addClassName(names, modules.relativize(it.next()).toString());
+			}
+		}
+		return names;
+	}
+
+	static void addClassName(List<String> names, String entry) {
+		if (entry.endsWith(".class") && !entry.endsWith("module-info.class")) {
+			names.add(entry.substring(0, entry.length() - ".class".length()).replace('/', '.'));
+		}
+	}
+}
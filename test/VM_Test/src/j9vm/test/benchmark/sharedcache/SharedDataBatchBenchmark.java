@@ -0,0 +1,150 @@
+package j9vm.test.benchmark.sharedcache;
+
+/*******************************************************************************
+ * Copyright (c) 2018, 2018 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *******************************************************************************/
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.ibm.oti.shared.Shared;
+import com.ibm.oti.shared.SharedDataHelper;
+import com.ibm.oti.shared.SharedDataHelperFactory;
+
+/**
+ * Compares finding and storing shared data one token at a time with findSharedDataBatch()
+ * and storeSharedDataBatch(). Must be run with -Xshareclasses.
+ */
+public class SharedDataBatchBenchmark {
+	static final String TOKEN_PREFIX = "SharedDataBatchBenchmark_";
+
+	public static void main (String[] args) {
+		/* check the arguments */
+		if (args.length < 3) {
+			System.out.println("ERROR: Missing required arguments !");
+			System.out.println("	First argument is the number of tokens");
+			System.out.println("	Second argument is the number of bytes stored for each token");
+			System.out.println("	Third argument is the number of timed rounds");
+			return;
+		}
+
+		int tokenCount;
+		int dataSize;
+		int rounds;
+		try {
+			tokenCount = Integer.parseInt(args[0]);
+			dataSize = Integer.parseInt(args[1]);
+			rounds = Integer.parseInt(args[2]);
+		} catch (Exception e) {
+			System.out.println("ERROR: failed to parse arguments: " + e);
+			return;
+		}
+
+		SharedDataHelperFactory factory = Shared.getSharedDataHelperFactory();
+		if (factory == null) {
+			System.out.println("ERROR: No SharedDataHelperFactory found, are you running -Xshareclasses?");
+			return;
+		}
+		SharedDataHelper helper = factory.getDataHelper(SharedDataBatchBenchmark.class.getClassLoader());
+
+		List<String> tokens = new ArrayList<String>(tokenCount);
+		Map<String, ByteBuffer> data = new HashMap<String, ByteBuffer>();
+		for (int i = 0; i < tokenCount; i++) {
+			String token = TOKEN_PREFIX + i;
+			ByteBuffer buffer = ByteBuffer.allocateDirect(dataSize);
+			for (int j = 0; j < dataSize; j++) {
+				buffer.put((byte)(i + j));
+			}
+			tokens.add(token);
+			data.put(token, buffer);
+		}
+
+		Map<String, ByteBuffer> stored = helper.storeSharedDataBatch(data);
+		if ((stored == null) || (stored.size() != tokenCount)) {
+			System.out.println("ERROR: stored " + ((stored == null) ? 0 : stored.size()) + " of " + tokenCount + " tokens, is the cache big enough?");
+			return;
+		}
+
+		System.out.println("operation, tokens, best ns per token, average ns per token");
+		long best = Long.MAX_VALUE;
+		long total = 0;
+		for (int round = 0; round < rounds; round++) {
+			long begin = System.nanoTime();
+			for (String token : tokens) {
+				if (helper.findSharedData(token) == null) {
+					System.out.println("ERROR: findSharedData did not find " + token);
+					return;
+				}
+			}
+			long elapsed = System.nanoTime() - begin;
+			best = Math.min(best, elapsed);
+			total += elapsed;
+		}
+		report("findSharedData", tokenCount, best, total / rounds);
+
+		best = Long.MAX_VALUE;
+		total = 0;
+		for (int round = 0; round < rounds; round++) {
+			long begin = System.nanoTime();
+			Map<String, ByteBuffer> found = helper.findSharedDataBatch(tokens);
+			long elapsed = System.nanoTime() - begin;
+			if ((found == null) || (found.size() != tokenCount)) {
+				System.out.println("ERROR: findSharedDataBatch found " + ((found == null) ? 0 : found.size()) + " of " + tokenCount + " tokens");
+				return;
+			}
+			best = Math.min(best, elapsed);
+			total += elapsed;
+		}
+		report("findSharedDataBatch", tokenCount, best, total / rounds);
+
+		/* the same data is already in the cache, so each store only compares the bytes */
+		best = Long.MAX_VALUE;
+		total = 0;
+		for (int round = 0; round < rounds; round++) {
+			long begin = System.nanoTime();
+			for (Map.Entry<String, ByteBuffer> entry : data.entrySet()) {
+				helper.storeSharedData(entry.getKey(), entry.getValue());
+			}
+			long elapsed = System.nanoTime() - begin;
+			best = Math.min(best, elapsed);
+			total += elapsed;
+		}
+		report("storeSharedData", tokenCount, best, total / rounds);
+
+		best = Long.MAX_VALUE;
+		total = 0;
+		for (int round = 0; round < rounds; round++) {
+			long begin = System.nanoTime();
+			helper.storeSharedDataBatch(data);
+			long elapsed = System.nanoTime() - begin;
+			best = Math.min(best, elapsed);
+			total += elapsed;
+		}
+		report("storeSharedDataBatch", tokenCount, best, total / rounds);
+	}
+
+	static void report(String operation, int tokenCount, long best, long average) {
+		System.out.println(operation + ", " + tokenCount + ", " + (best / tokenCount) + ", " + (average / tokenCount));
+	}
+}
@@ -0,0 +1,98 @@
+package j9vm.test.benchmark.sharedcache;
+
+/*******************************************************************************
+ * Copyright (c) 2018, 2018 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ *******************************************************************************/
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Measures the time to load and initialize the classes of a jar through a new URLClassLoader,
+ * which includes verifying them. Must be run with -Xshareclasses and a cache that does not yet
+ * hold the classes, then run again with the same cache: the second run finds the verification
+ * results stored by the first. -Xshareclasses:printStats shows the classes verified.
+ */
+public class SharedVerifyBenchmark {
+
+	public static void main (String[] args) {
+		/* check the arguments */
+		if (args.length < 2) {
+			System.out.println("ERROR: Missing required arguments !");
+			System.out.println("	First argument is the jar containing the classes to load");
+			System.out.println("	Second argument is the number of timed rounds");
+			return;
+		}
+
+		File jar = new File(args[0]);
+		int rounds;
+		List<String> names;
+		URL[] urls;
+		try {
+			rounds = Integer.parseInt(args[1]);
+			names = classNames(jar);
+			urls = new URL[] { jar.toURI().toURL() };
+		} catch (Exception e) {
+			System.out.println("ERROR: failed to read arguments: " + e);
+			return;
+		}
+
+		System.out.println("round, classes, initialized, ms");
+		for (int round = 0; round < rounds; round++) {
+			/* a new loader each round, so every class is loaded and verified again */
+			URLClassLoader loader = new URLClassLoader(urls, SharedVerifyBenchmark.class.getClassLoader());
+			int initialized = 0;
+			long begin = System.nanoTime();
+			for (String name : names) {
+				try {
+					Class.forName(name, true, loader);
+					initialized += 1;
+				} catch (Throwable t) {
+					/* not every class in the jar can be initialized on its own */
+				}
+			}
+			long elapsed = System.nanoTime() - begin;
+			System.out.println(round + ", " + names.size() + ", " + initialized + ", " + (elapsed / 1000000));
+		}
+	}
+
+	static List<String> classNames(File jar) throws Exception {
+		List<String> names = new ArrayList<String>();
+		ZipFile zip = new ZipFile(jar);
+		try {
+			for (Enumeration<? extends ZipEntry> entries = zip.entries(); entries.hasMoreElements();) {
+				String entry = entries.nextElement().getName();
+				if (entry.endsWith(".class") && !entry.endsWith("module-info.class")) {
+					names.add(entry.substring(0, entry.length() - ".class".length()).replace('/', '.'));
+				}
+			}
+		} finally {
+			zip.close();
+		}
+		return names;
+	}
+}
@@ -1,7 +1,7 @@
 package j9vm.test.benchmark.zipfile;
 
 /*******************************************************************************
- * Copyright (c) 2010, 2012 IBM Corp. and others
+ * Copyright (c) 2010, 2018 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -117,6 +117,23 @@ public class ClassloadingBenchmark {
 			long endTime = System.nanoTime();
 			
 			System.out.println("Took " + (endTime-startTime) + " nanoseconds to read in " + record.getCount() + " classes");
+
+			// probe for classes which are not in the jar, each probe is a failed zip cache
+			// lookup which has to rule out every entry in the package directory
+			int misses = 0;
+			classIter = record.iterator();
+			startTime = System.nanoTime();
+			while (classIter.hasNext()) {
+				String className = (String) classIter.next() + "Missing";
+				try {
+					Class.forName(className);
+				} catch (ClassNotFoundException e) {
+					misses++;
+				}
+			}
+			endTime = System.nanoTime();
+
+			System.out.println("Took " + (endTime-startTime) + " nanoseconds to probe for " + misses + " missing classes");
 		} catch (Exception e){
 			System.out.println("Unexpected exception:" + e);
 			e.printStackTrace();